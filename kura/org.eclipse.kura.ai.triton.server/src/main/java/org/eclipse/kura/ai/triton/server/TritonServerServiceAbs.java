@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2022, 2024 Eurotech and/or its affiliates and others
  *
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -31,8 +31,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Consumer;
 
 import org.eclipse.kura.KuraException;
 import org.eclipse.kura.KuraIOException;
@@ -51,11 +52,12 @@ import org.slf4j.LoggerFactory;
 
 import com.google.protobuf.ByteString;
 import com.google.protobuf.ProtocolStringList;
+import com.google.protobuf.UnsafeByteOperations;
 
 import inference.GRPCInferenceServiceGrpc;
 import inference.GRPCInferenceServiceGrpc.GRPCInferenceServiceBlockingStub;
+import inference.GRPCInferenceServiceGrpc.GRPCInferenceServiceStub;
 import inference.GrpcService.InferParameter;
-import inference.GrpcService.InferTensorContents;
 import inference.GrpcService.ModelInferRequest;
 import inference.GrpcService.ModelInferResponse;
 import inference.GrpcService.ModelInferResponse.InferOutputTensor;
@@ -73,6 +75,7 @@ import inference.GrpcService.ServerLiveResponse;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
 import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
 
 public abstract class TritonServerServiceAbs implements InferenceEngineService, ConfigurableComponent {
 
@@ -87,6 +90,9 @@ public abstract class TritonServerServiceAbs implements InferenceEngineService,
 
     private ManagedChannel grpcChannel;
     private GRPCInferenceServiceBlockingStub grpcStub;
+    private GRPCInferenceServiceStub grpcAsyncStub;
+    private Semaphore outstandingRequests = new Semaphore(
+            TritonServerServiceOptions.DEFAULT_GRPC_MAX_OUTSTANDING_REQUESTS);
     private String decryptionFolderPath = "";
     private boolean decryptionFolderNeedsCleanup = false;
 
@@ -125,6 +131,7 @@ public abstract class TritonServerServiceAbs implements InferenceEngineService,
             return;
         }
         this.options = newOptions;
+        this.outstandingRequests = new Semaphore(newOptions.getGrpcMaxOutstandingRequests());
 
         if (nonNull(this.tritonServerInstanceManager)) {
             stopManagedInstance();
@@ -204,6 +211,7 @@ public abstract class TritonServerServiceAbs implements InferenceEngineService,
 
     protected void setGrpcStub(GRPCInferenceServiceBlockingStub grpcStub) {
         this.grpcStub = grpcStub;
+        this.grpcAsyncStub = GRPCInferenceServiceGrpc.newStub(grpcStub.getChannel());
     }
 
     protected boolean isNullOrEmpty(String property) {
@@ -368,17 +376,8 @@ public abstract class TritonServerServiceAbs implements InferenceEngineService,
     public List<Tensor> infer(ModelInfo modelInfo, List<Tensor> inputData) throws KuraException {
         List<Tensor> inferenceResults = new ArrayList<>();
 
-        ModelInferRequest.Builder inferRequest = ModelInferRequest.newBuilder();
-        inferRequest.setModelName(modelInfo.getName());
         try {
-            if (!modelInfo.getParameters().isEmpty()) {
-                inferRequest.putAllParameters(getInferParameters(modelInfo.getParameters()));
-            }
-            inputData.forEach(input -> inferRequest.addInputs(createInputDataBuilder(input)));
-            modelInfo.getOutputs().forEach(
-                    outputDescriptor -> inferRequest.addOutputs(createRequestedOutputBuilder(outputDescriptor)));
-
-            ModelInferResponse inferResponse = this.grpcStub.modelInfer(inferRequest.build());
+            ModelInferResponse inferResponse = this.grpcStub.modelInfer(createInferRequest(modelInfo, inputData));
 
             inferenceResults = createOutputInferenceData(inferResponse);
         } catch (StatusRuntimeException | IllegalArgumentException e) {
@@ -388,6 +387,85 @@ public abstract class TritonServerServiceAbs implements InferenceEngineService,
 
     }
 
+    /**
+     * Sends the inference request without waiting for the response, so that multiple requests can be pipelined on the
+     * same channel. At most {@link TritonServerServiceOptions#getGrpcMaxOutstandingRequests()} requests are sent
+     * without a response, further calls block until a response is received. For this reason, this method must not be
+     * called from a stage that runs on the thread completing a previously returned future, that is a gRPC callback
+     * thread.
+     */
+    @Override
+    public CompletableFuture<List<Tensor>> inferAsync(ModelInfo modelInfo, List<Tensor> inputData) {
+        final CompletableFuture<List<Tensor>> result = new CompletableFuture<>();
+        final String errorMessage = "Cannot infer outputs for " + modelInfo.getName() + " model";
+
+        final ModelInferRequest inferRequest;
+        try {
+            inferRequest = createInferRequest(modelInfo, inputData);
+        } catch (IllegalArgumentException e) {
+            result.completeExceptionally(new KuraIOException(e, errorMessage));
+            return result;
+        }
+
+        final Semaphore permits = this.outstandingRequests;
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(new KuraIOException(e, errorMessage));
+            return result;
+        }
+
+        try {
+            this.grpcAsyncStub.modelInfer(inferRequest, new StreamObserver<ModelInferResponse>() {
+
+                private ModelInferResponse response;
+
+                @Override
+                public void onNext(ModelInferResponse value) {
+                    this.response = value;
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    permits.release();
+                    result.completeExceptionally(new KuraIOException(t, errorMessage));
+                }
+
+                @Override
+                public void onCompleted() {
+                    // the permit is released before completing, so that dependent stages can send a new request
+                    permits.release();
+                    try {
+                        result.complete(createOutputInferenceData(this.response));
+                    } catch (RuntimeException e) {
+                        result.completeExceptionally(new KuraIOException(e, errorMessage));
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release();
+            result.completeExceptionally(new KuraIOException(e, errorMessage));
+        }
+
+        return result;
+    }
+
+    private ModelInferRequest createInferRequest(ModelInfo modelInfo, List<Tensor> inputData) {
+        ModelInferRequest.Builder inferRequest = ModelInferRequest.newBuilder();
+        inferRequest.setModelName(modelInfo.getName());
+        if (!modelInfo.getParameters().isEmpty()) {
+            inferRequest.putAllParameters(getInferParameters(modelInfo.getParameters()));
+        }
+        inputData.forEach(input -> {
+            inferRequest.addInputs(createInputDataBuilder(input));
+            inferRequest.addRawInputContents(createRawInputContents(input));
+        });
+        modelInfo.getOutputs()
+                .forEach(outputDescriptor -> inferRequest.addOutputs(createRequestedOutputBuilder(outputDescriptor)));
+        return inferRequest.build();
+    }
+
     private Map<String, InferParameter> getInferParameters(Map<String, Object> parameters) {
         Map<String, InferParameter> inferParameters = new HashMap<>();
         parameters.forEach((key, value) -> {
@@ -439,146 +517,174 @@ public abstract class TritonServerServiceAbs implements InferenceEngineService,
     }
 
     private ModelInferRequest.InferInputTensor.Builder createInputDataBuilder(Tensor input) {
-        InferTensorContents.Builder inputDataBuilder = InferTensorContents.newBuilder();
+        ModelInferRequest.InferInputTensor.Builder inputBuilder = ModelInferRequest.InferInputTensor.newBuilder();
+        inputBuilder.setName(input.getDescriptor().getName());
+        inputBuilder.setDatatype(input.getDescriptor().getType());
+        input.getDescriptor().getShape().forEach(inputBuilder::addShape);
+        if (!input.getDescriptor().getParameters().isEmpty()) {
+            inputBuilder.putAllParameters(getInferParameters(input.getDescriptor().getParameters()));
+        }
+        return inputBuilder;
+    }
+
+    /*
+     * The input data is sent in the raw_input_contents field of the request, as little endian values, instead of
+     * using the typed fields of InferTensorContents. This avoids encoding each element as a separate protobuf field.
+     */
+    private ByteString createRawInputContents(Tensor input) {
         DataType modelInputType = DataType.valueOf(input.getDescriptor().getType());
+        Optional<ByteString> bufferContents = createRawInputContentsFromBuffer(input, modelInputType);
+        if (bufferContents.isPresent()) {
+            return bufferContents.get();
+        }
+
         switch (modelInputType) {
         case BOOL:
-            addDataTypeInputData(input, Boolean.class, inputDataBuilder::addAllBoolContents);
-            break;
+            List<Boolean> booleans = getInputData(input, Boolean.class);
+            ByteBuffer booleanBuffer = allocate(booleans.size());
+            booleans.forEach(value -> booleanBuffer.put(value ? (byte) 1 : (byte) 0));
+            return wrap(booleanBuffer);
         case UINT8:
-            addUint8InputData(input, inputDataBuilder);
-            break;
         case INT8:
-            addInt8InputData(input, inputDataBuilder);
-            break;
+            ByteBuffer byteBuffer;
+            if (input.getType().isAssignableFrom(Integer.class)) {
+                List<Integer> integers = getInputData(input, Integer.class);
+                byteBuffer = allocate(integers.size());
+                integers.forEach(value -> byteBuffer.put(value.byteValue()));
+            } else {
+                List<Byte> bytes = getInputData(input, Byte.class);
+                byteBuffer = allocate(bytes.size());
+                bytes.forEach(byteBuffer::put);
+            }
+            return wrap(byteBuffer);
         case UINT16:
-            addUint16InputData(input, inputDataBuilder);
-            break;
         case INT16:
-            addInt16InputData(input, inputDataBuilder);
-            break;
+            ByteBuffer shortBuffer;
+            if (input.getType().isAssignableFrom(Integer.class)) {
+                List<Integer> integers = getInputData(input, Integer.class);
+                shortBuffer = allocate(integers.size() * Short.BYTES);
+                integers.forEach(value -> shortBuffer.putShort(value.shortValue()));
+            } else {
+                List<Short> shorts = getInputData(input, Short.class);
+                shortBuffer = allocate(shorts.size() * Short.BYTES);
+                shorts.forEach(shortBuffer::putShort);
+            }
+            return wrap(shortBuffer);
         case UINT32:
-            addDataTypeInputData(input, Integer.class, inputDataBuilder::addAllUintContents);
-            break;
         case INT32:
-            addDataTypeInputData(input, Integer.class, inputDataBuilder::addAllIntContents);
-            break;
+            List<Integer> integers = getInputData(input, Integer.class);
+            ByteBuffer intBuffer = allocate(integers.size() * Integer.BYTES);
+            integers.forEach(intBuffer::putInt);
+            return wrap(intBuffer);
         case UINT64:
-            addDataTypeInputData(input, Long.class, inputDataBuilder::addAllUint64Contents);
-            break;
         case INT64:
-            addDataTypeInputData(input, Long.class, inputDataBuilder::addAllInt64Contents);
-            break;
+            List<Long> longs = getInputData(input, Long.class);
+            ByteBuffer longBuffer = allocate(longs.size() * Long.BYTES);
+            longs.forEach(longBuffer::putLong);
+            return wrap(longBuffer);
         case FP32:
-            addDataTypeInputData(input, Float.class, inputDataBuilder::addAllFp32Contents);
-            break;
+            List<Float> floats = getInputData(input, Float.class);
+            ByteBuffer floatBuffer = allocate(floats.size() * Float.BYTES);
+            floats.forEach(floatBuffer::putFloat);
+            return wrap(floatBuffer);
         case FP64:
-            addDataTypeInputData(input, Double.class, inputDataBuilder::addAllFp64Contents);
-            break;
+            List<Double> doubles = getInputData(input, Double.class);
+            ByteBuffer doubleBuffer = allocate(doubles.size() * Double.BYTES);
+            doubles.forEach(doubleBuffer::putDouble);
+            return wrap(doubleBuffer);
         case BYTES:
-            addBytesInputData(input, inputDataBuilder);
-            break;
+            // a single element, prefixed by its length
+            Optional<ByteBuffer> bytesView = input.getByteBuffer();
+            if (bytesView.isPresent()) {
+                ByteBuffer bytesBuffer = allocate(Integer.BYTES + bytesView.get().remaining());
+                bytesBuffer.putInt(bytesView.get().remaining());
+                bytesBuffer.put(bytesView.get());
+                return wrap(bytesBuffer);
+            }
+            List<Byte> bytes = getInputData(input, Byte.class);
+            ByteBuffer bytesBuffer = allocate(Integer.BYTES + bytes.size());
+            bytesBuffer.putInt(bytes.size());
+            bytes.forEach(bytesBuffer::put);
+            return wrap(bytesBuffer);
         default:
             throw new IllegalArgumentException("Date type " + modelInputType + " not supported");
         }
-
-        ModelInferRequest.InferInputTensor.Builder inputBuilder = ModelInferRequest.InferInputTensor.newBuilder();
-        inputBuilder.setName(input.getDescriptor().getName());
-        inputBuilder.setDatatype(input.getDescriptor().getType());
-        input.getDescriptor().getShape().forEach(inputBuilder::addShape);
-        inputBuilder.setContents(inputDataBuilder);
-        if (!input.getDescriptor().getParameters().isEmpty()) {
-            inputBuilder.putAllParameters(getInferParameters(input.getDescriptor().getParameters()));
-        }
-        return inputBuilder;
     }
 
-    private <T> void addDataTypeInputData(Tensor input, Class<T> clazz, Consumer<List<T>> dataConsumer) {
-        dataConsumer.accept(input.getData(clazz).orElseThrow(() -> new IllegalArgumentException(
-                "Expected a list of " + clazz.getSimpleName() + " but got a list of " + input.getType())));
-    }
-
-    private void addBytesInputData(Tensor input, InferTensorContents.Builder inputDataBuilder) {
-        if (input.getType().isAssignableFrom(Byte.class)) {
-            Optional<List<Byte>> inputData = input.getData(Byte.class);
-            inputData.ifPresent(bytes -> {
-                byte[] byteArray = new byte[bytes.size()];
-                for (int i = 0; i < bytes.size(); i++) {
-                    byteArray[i] = bytes.get(i);
-                }
-                inputDataBuilder.addBytesContents(ByteString.copyFrom(byteArray));
-            });
+    /*
+     * Buffer backed tensors are encoded without boxing their elements: little endian buffers are wrapped as they are,
+     * the other buffers are copied in bulk.
+     */
+    private static Optional<ByteString> createRawInputContentsFromBuffer(Tensor input, DataType modelInputType) {
+        Class<?> elementType = getElementType(modelInputType);
+        if (elementType == null || input.getType() != elementType || !input.isBufferBacked()) {
+            return Optional.empty();
+        }
+
+        Optional<ByteBuffer> bytes = input.getByteBuffer();
+        if (bytes.isPresent() && (elementType == Byte.class || bytes.get().order() == ByteOrder.LITTLE_ENDIAN)) {
+            return Optional.of(UnsafeByteOperations.unsafeWrap(bytes.get()));
+        }
+
+        ByteBuffer buffer;
+        if (elementType == Short.class) {
+            ShortBuffer elements = input.getBuffer(ShortBuffer.class).get();
+            buffer = allocate(elements.remaining() * Short.BYTES);
+            buffer.asShortBuffer().put(elements);
+        } else if (elementType == Integer.class) {
+            IntBuffer elements = input.getBuffer(IntBuffer.class).get();
+            buffer = allocate(elements.remaining() * Integer.BYTES);
+            buffer.asIntBuffer().put(elements);
+        } else if (elementType == Long.class) {
+            LongBuffer elements = input.getBuffer(LongBuffer.class).get();
+            buffer = allocate(elements.remaining() * Long.BYTES);
+            buffer.asLongBuffer().put(elements);
+        } else if (elementType == Float.class) {
+            FloatBuffer elements = input.getBuffer(FloatBuffer.class).get();
+            buffer = allocate(elements.remaining() * Float.BYTES);
+            buffer.asFloatBuffer().put(elements);
         } else {
-            throw new IllegalArgumentException("Expected a list of bytes but got a list of " + input.getType());
+            DoubleBuffer elements = input.getBuffer(DoubleBuffer.class).get();
+            buffer = allocate(elements.remaining() * Double.BYTES);
+            buffer.asDoubleBuffer().put(elements);
         }
+        return Optional.of(wrap(buffer));
     }
 
-    private void addInt16InputData(Tensor input, InferTensorContents.Builder inputDataBuilder) {
-        if (input.getType().isAssignableFrom(Short.class)) {
-            Optional<List<Short>> inputData = input.getData(Short.class);
-            inputData.ifPresent(shortList -> {
-                List<Integer> integerList = new ArrayList<>();
-                shortList.forEach(shortValue -> integerList.add(shortValue.intValue()));
-                inputDataBuilder.addAllIntContents(integerList);
-            });
-        } else if (input.getType().isAssignableFrom(Integer.class)) {
-            Optional<List<Integer>> inputData = input.getData(Integer.class);
-            inputData.ifPresent(inputDataBuilder::addAllIntContents);
-        } else {
-            throw new IllegalArgumentException(
-                    "Expected a list of shorts or integers but got a list of " + input.getType());
+    private static Class<?> getElementType(DataType dataType) {
+        switch (dataType) {
+        case UINT8:
+        case INT8:
+            return Byte.class;
+        case UINT16:
+        case INT16:
+            return Short.class;
+        case UINT32:
+        case INT32:
+            return Integer.class;
+        case UINT64:
+        case INT64:
+            return Long.class;
+        case FP32:
+            return Float.class;
+        case FP64:
+            return Double.class;
+        default:
+            return null;
         }
     }
 
-    private void addUint16InputData(Tensor input, InferTensorContents.Builder inputDataBuilder) {
-        if (input.getType().isAssignableFrom(Short.class)) {
-            Optional<List<Short>> inputData = input.getData(Short.class);
-            inputData.ifPresent(shortList -> {
-                List<Integer> integerList = new ArrayList<>();
-                shortList.forEach(shortValue -> integerList.add(shortValue.intValue()));
-                inputDataBuilder.addAllUintContents(integerList);
-            });
-        } else if (input.getType().isAssignableFrom(Integer.class)) {
-            Optional<List<Integer>> inputData = input.getData(Integer.class);
-            inputData.ifPresent(inputDataBuilder::addAllUintContents);
-        } else {
-            throw new IllegalArgumentException(
-                    "Expected a list of shorts or integers but got a list of " + input.getType());
-        }
+    private static <T> List<T> getInputData(Tensor input, Class<T> clazz) {
+        return input.getData(clazz).orElseThrow(() -> new IllegalArgumentException(
+                "Expected a list of " + clazz.getSimpleName() + " but got a list of " + input.getType()));
     }
 
-    private void addInt8InputData(Tensor input, InferTensorContents.Builder inputDataBuilder) {
-        if (input.getType().isAssignableFrom(Byte.class)) {
-            Optional<List<Byte>> inputData = input.getData(Byte.class);
-            inputData.ifPresent(byteList -> {
-                List<Integer> integerList = new ArrayList<>();
-                byteList.forEach(byteValue -> integerList.add(byteValue.intValue()));
-                inputDataBuilder.addAllIntContents(integerList);
-            });
-        } else if (input.getType().isAssignableFrom(Integer.class)) {
-            Optional<List<Integer>> inputData = input.getData(Integer.class);
-            inputData.ifPresent(inputDataBuilder::addAllIntContents);
-        } else {
-            throw new IllegalArgumentException(
-                    "Expected a list of bytes or integers but got a list of " + input.getType());
-        }
+    private static ByteBuffer allocate(int size) {
+        return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
     }
 
-    private void addUint8InputData(Tensor input, InferTensorContents.Builder inputDataBuilder) {
-        if (input.getType().isAssignableFrom(Byte.class)) {
-            Optional<List<Byte>> inputData = input.getData(Byte.class);
-            inputData.ifPresent(byteList -> {
-                List<Integer> integerList = new ArrayList<>();
-                byteList.forEach(byteValue -> integerList.add(byteValue.intValue()));
-                inputDataBuilder.addAllUintContents(integerList);
-            });
-        } else if (input.getType().isAssignableFrom(Integer.class)) {
-            Optional<List<Integer>> inputData = input.getData(Integer.class);
-            inputData.ifPresent(inputDataBuilder::addAllUintContents);
-        } else {
-            throw new IllegalArgumentException(
-                    "Expected a list of bytes or integers but got a list of " + input.getType());
-        }
+    private static ByteString wrap(ByteBuffer buffer) {
+        return UnsafeByteOperations.unsafeWrap(buffer.array());
     }
 
     private List<Tensor> createOutputInferenceData(ModelInferResponse inferResponse) {
@@ -595,50 +701,37 @@ public abstract class TritonServerServiceAbs implements InferenceEngineService,
                 }
                 TensorDescriptor outputDescriptor = outputDescriptorBuilder.build();
 
+                // the tensors wrap the response buffer, the elements are not copied
+                ByteBuffer rawOutput = byteStringResponse.asReadOnlyByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
                 switch (outputType) {
                 case BOOL:
-                    List<Boolean> booleanList = bufferToBooleanList(
-                            byteStringResponse.asReadOnlyByteBuffer().order(ByteOrder.LITTLE_ENDIAN));
+                    List<Boolean> booleanList = bufferToBooleanList(rawOutput);
                     results.add(new Tensor(Boolean.class, outputDescriptor, booleanList));
                     break;
                 case UINT8:
                 case INT8:
-                    List<Byte> byteList = bufferToByteList(
-                            byteStringResponse.asReadOnlyByteBuffer().order(ByteOrder.LITTLE_ENDIAN));
-                    results.add(new Tensor(Byte.class, outputDescriptor, byteList));
+                    results.add(new Tensor(Byte.class, outputDescriptor, rawOutput));
                     break;
                 case UINT16:
                 case INT16:
-                    List<Short> shortList = bufferToShortList(
-                            byteStringResponse.asReadOnlyByteBuffer().order(ByteOrder.LITTLE_ENDIAN).asShortBuffer());
-                    results.add(new Tensor(Short.class, outputDescriptor, shortList));
+                    results.add(new Tensor(Short.class, outputDescriptor, rawOutput));
                     break;
                 case UINT32:
                 case INT32:
-                    List<Integer> integerList = bufferToIntList(
-                            byteStringResponse.asReadOnlyByteBuffer().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer());
-                    results.add(new Tensor(Integer.class, outputDescriptor, integerList));
+                    results.add(new Tensor(Integer.class, outputDescriptor, rawOutput));
                     break;
                 case UINT64:
                 case INT64:
-                    List<Long> longList = bufferToLongList(
-                            byteStringResponse.asReadOnlyByteBuffer().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer());
-                    results.add(new Tensor(Long.class, outputDescriptor, longList));
+                    results.add(new Tensor(Long.class, outputDescriptor, rawOutput));
                     break;
                 case FP32:
-                    List<Float> floatList = bufferToFloatList(
-                            byteStringResponse.asReadOnlyByteBuffer().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer());
-                    results.add(new Tensor(Float.class, outputDescriptor, floatList));
+                    results.add(new Tensor(Float.class, outputDescriptor, rawOutput));
                     break;
                 case FP64:
-                    List<Double> doubleList = bufferToDoubleList(
-                            byteStringResponse.asReadOnlyByteBuffer().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer());
-                    results.add(new Tensor(Double.class, outputDescriptor, doubleList));
+                    results.add(new Tensor(Double.class, outputDescriptor, rawOutput));
                     break;
                 case BYTES:
-                    List<Byte> bytesList = bufferToBytes(
-                            byteStringResponse.asReadOnlyByteBuffer().order(ByteOrder.LITTLE_ENDIAN));
-                    results.add(new Tensor(Byte.class, outputDescriptor, bytesList));
+                    results.add(new Tensor(Byte.class, outputDescriptor, skipBytesLength(rawOutput)));
                     break;
                 default:
                     throw new IllegalArgumentException("Date type " + outputType + " not supported");
@@ -649,136 +742,12 @@ public abstract class TritonServerServiceAbs implements InferenceEngineService,
         return results;
     }
 
-    private List<Byte> bufferToBytes(ByteBuffer buffer) {
-        List<Byte> byteList = new ArrayList<>();
+    private ByteBuffer skipBytesLength(ByteBuffer buffer) {
         if (buffer.capacity() < 4) {
             throw new IllegalArgumentException("Too few bytes in buffer; cannot read array length");
         }
         buffer.getInt();
-        while (buffer.hasRemaining()) {
-            byteList.add(buffer.get());
-        }
-        return byteList;
-    }
-
-    private List<Float> bufferToFloatList(FloatBuffer buffer) {
-        List<Float> floatList = new ArrayList<>();
-        float[] floatArray;
-        if (buffer.hasArray()) {
-            if (buffer.arrayOffset() == 0) {
-                floatArray = buffer.array();
-            } else {
-                floatArray = Arrays.copyOfRange(buffer.array(), buffer.arrayOffset(), buffer.array().length);
-            }
-        } else {
-            buffer.rewind();
-            floatArray = new float[buffer.remaining()];
-            buffer.get(floatArray);
-        }
-        for (float floatValue : floatArray) {
-            floatList.add(floatValue);
-        }
-        return floatList;
-    }
-
-    private List<Double> bufferToDoubleList(DoubleBuffer buffer) {
-        List<Double> doubleList = new ArrayList<>();
-        double[] doubleArray;
-        if (buffer.hasArray()) {
-            if (buffer.arrayOffset() == 0) {
-                doubleArray = buffer.array();
-            } else {
-                doubleArray = Arrays.copyOfRange(buffer.array(), buffer.arrayOffset(), buffer.array().length);
-            }
-        } else {
-            buffer.rewind();
-            doubleArray = new double[buffer.remaining()];
-            buffer.get(doubleArray);
-        }
-        for (double doubleValue : doubleArray) {
-            doubleList.add(doubleValue);
-        }
-        return doubleList;
-    }
-
-    private List<Long> bufferToLongList(LongBuffer buffer) {
-        List<Long> longList = new ArrayList<>();
-        long[] longArray;
-        if (buffer.hasArray()) {
-            if (buffer.arrayOffset() == 0) {
-                longArray = buffer.array();
-            } else {
-                longArray = Arrays.copyOfRange(buffer.array(), buffer.arrayOffset(), buffer.array().length);
-            }
-        } else {
-            buffer.rewind();
-            longArray = new long[buffer.remaining()];
-            buffer.get(longArray);
-        }
-        for (long longValue : longArray) {
-            longList.add(longValue);
-        }
-        return longList;
-    }
-
-    private List<Integer> bufferToIntList(IntBuffer buffer) {
-        List<Integer> intList = new ArrayList<>();
-        int[] intArray;
-        if (buffer.hasArray()) {
-            if (buffer.arrayOffset() == 0) {
-                intArray = buffer.array();
-            } else {
-                intArray = Arrays.copyOfRange(buffer.array(), buffer.arrayOffset(), buffer.array().length);
-            }
-        } else {
-            buffer.rewind();
-            intArray = new int[buffer.remaining()];
-            buffer.get(intArray);
-        }
-        for (int intValue : intArray) {
-            intList.add(intValue);
-        }
-        return intList;
-    }
-
-    private List<Short> bufferToShortList(ShortBuffer buffer) {
-        List<Short> shortList = new ArrayList<>();
-        short[] shortArray;
-        if (buffer.hasArray()) {
-            if (buffer.arrayOffset() == 0) {
-                shortArray = buffer.array();
-            } else {
-                shortArray = Arrays.copyOfRange(buffer.array(), buffer.arrayOffset(), buffer.array().length);
-            }
-        } else {
-            buffer.rewind();
-            shortArray = new short[buffer.remaining()];
-            buffer.get(shortArray);
-        }
-        for (short shortValue : shortArray) {
-            shortList.add(shortValue);
-        }
-        return shortList;
-    }
-
-    private List<Byte> bufferToByteList(ByteBuffer buffer) {
-        List<Byte> byteList = new ArrayList<>();
-        byte[] byteArray;
-        if (buffer.hasArray()) {
-            if (buffer.arrayOffset() == 0) {
-                byteArray = buffer.array();
-            } else {
-                byteArray = Arrays.copyOfRange(buffer.array(), buffer.arrayOffset(), buffer.array().length);
-            }
-        } else {
-            buffer.rewind();
-            byteArray = new byte[buffer.remaining()];
-            buffer.get(byteArray);
-        }
-        for (byte byteValue : byteArray) {
-            byteList.add(byteValue);
-        }
-        return byteList;
+        return buffer;
     }
 
     private List<Boolean> bufferToBooleanList(ByteBuffer buffer) {
@@ -45,11 +45,13 @@ public class TritonServerServiceOptions {
     private static final String PROPERTY_LOCAL = "enable.local";
     private static final String PROPERTY_TIMEOUT = "timeout";
     private static final String PROPERTY_MAX_GRPC_MESSAGE_SIZE = "grpc.max.size";
+    private static final String PROPERTY_MAX_GRPC_OUTSTANDING_REQUESTS = "grpc.max.outstanding.requests";
     private static final String PROPERTY_DEVICES = "devices";
     private final Map<String, Object> properties;
 
     private static final int RETRY_INTERVAL = 500; // ms
     private static final int DEFAULT_MAX_GRPC_MESSAGE_SIZE = 4194304; // bytes
+    static final int DEFAULT_GRPC_MAX_OUTSTANDING_REQUESTS = 8;
 
     private final int httpPort;
     private final int grpcPort;
@@ -58,6 +60,7 @@ public class TritonServerServiceOptions {
     private final int timeout;
     private final int nRetries;
     private final int grpcMaxMessageSize;
+    private final int grpcMaxOutstandingRequests;
     private final Optional<Long> containerMemory;
     private final Optional<Float> containerCpus;
     private final Optional<String> containerGpus;
@@ -111,6 +114,13 @@ public class TritonServerServiceOptions {
             this.grpcMaxMessageSize = DEFAULT_MAX_GRPC_MESSAGE_SIZE;
         }
 
+        final Object propertyGrpcMaxOutstandingRequests = properties.get(PROPERTY_MAX_GRPC_OUTSTANDING_REQUESTS);
+        if (propertyGrpcMaxOutstandingRequests instanceof Integer && (int) propertyGrpcMaxOutstandingRequests > 0) {
+            this.grpcMaxOutstandingRequests = (int) propertyGrpcMaxOutstandingRequests;
+        } else {
+            this.grpcMaxOutstandingRequests = DEFAULT_GRPC_MAX_OUTSTANDING_REQUESTS;
+        }
+
         final Object propertyContainerMemory = properties.get(CONTAINER_MEMORY);
         if (propertyContainerMemory instanceof String) {
             this.containerMemory = parseMemoryString(Optional.of((String) propertyContainerMemory));
@@ -231,6 +241,10 @@ public class TritonServerServiceOptions {
         return this.grpcMaxMessageSize;
     }
 
+    public int getGrpcMaxOutstandingRequests() {
+        return this.grpcMaxOutstandingRequests;
+    }
+
     public Optional<Long> getContainerMemory() {
         return this.containerMemory;
     }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2022, 2024 Eurotech and/or its affiliates and others
  *
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,7 @@ package org.eclipse.kura.ai.inference;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.kura.KuraException;
 import org.osgi.annotation.versioning.ProviderType;
@@ -47,6 +48,36 @@ public interface InferenceEngineService {
      */
     public List<Tensor> infer(ModelInfo modelInfo, List<Tensor> inputData) throws KuraException;
 
+    /**
+     * Run an inference for the given model and inputs without waiting for the result.
+     * The input and output type and size must match the
+     * ones in the provided {@link ModelInfo}.
+     *
+     * Implementations that support it can send multiple requests to the engine
+     * before receiving the results. The default implementation calls {@link #infer(ModelInfo, List)}
+     * and returns a completed future.
+     *
+     * This method might block the calling thread until the engine can accept a new request, so it should not
+     * be called from a dependent stage that runs on the thread completing a previously returned future.
+     *
+     * @param modelInfo
+     *            the {@link ModelInfo} of the model to be used
+     * @param inputData
+     *            a list of input {@link Tensor}
+     * @return a {@link CompletableFuture} that will be completed with the list of output {@link Tensor}, or
+     *         exceptionally with a {@link KuraException} if the inference fails
+     * @since 3.0
+     */
+    public default CompletableFuture<List<Tensor>> inferAsync(ModelInfo modelInfo, List<Tensor> inputData) {
+        final CompletableFuture<List<Tensor>> result = new CompletableFuture<>();
+        try {
+            result.complete(infer(modelInfo, inputData));
+        } catch (KuraException | RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
     /**
      * Load the given model in the inference engine.
      * If the path of the file containing the model is not provided,
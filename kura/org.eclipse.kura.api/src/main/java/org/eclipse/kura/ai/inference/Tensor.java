@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2022, 2024 Eurotech and/or its affiliates and others
  *
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -12,14 +12,28 @@
  ******************************************************************************/
 package org.eclipse.kura.ai.inference;
 
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.util.AbstractList;
 import java.util.List;
 import java.util.Optional;
+import java.util.RandomAccess;
 
 import org.osgi.annotation.versioning.ProviderType;
 
 /**
  * The Tensor class represents the input or output of a model
  * for Artificial Intelligence and Machine Learning algorithms
+ * <p>
+ * The data of a tensor can be provided as a list of Java objects or, since 3.0, as a primitive array or a
+ * {@link ByteBuffer}. In the latter case the data is not copied and the elements are boxed only if they are accessed
+ * through {@link #getData(Class)}; {@link #getBuffer(Class)} and {@link #getByteBuffer()} allow to access the data
+ * without boxing.
  *
  * @since 2.3
  */
@@ -29,6 +43,8 @@ public class Tensor {
     private final TensorDescriptor descriptor;
     private final Class<?> type;
     private final List<?> data;
+    private final ByteBuffer bytes;
+    private final Buffer elements;
 
     /**
      * Instantiates a Tensor
@@ -44,6 +60,118 @@ public class Tensor {
         this.type = type;
         this.descriptor = descriptor;
         this.data = data;
+        this.bytes = null;
+        this.elements = null;
+    }
+
+    /**
+     * Instantiates a Tensor whose data is contained in a {@link ByteBuffer}. The remaining bytes of the buffer are
+     * interpreted as elements of the given type using the byte order of the buffer. The buffer is not copied, so it
+     * must not be modified after the creation of the tensor.
+     *
+     * @param type
+     *            the type of tensor data as Java class, one of {@link Byte}, {@link Short}, {@link Integer},
+     *            {@link Long}, {@link Float} or {@link Double}
+     * @param descriptor
+     *            the {@link TensorDescriptor} of this tensor
+     * @param data
+     *            the buffer containing the data of this tensor
+     * @throws IllegalArgumentException
+     *             if the type is not supported or the remaining bytes are not a multiple of the element size
+     * @since 3.0
+     */
+    public <T> Tensor(Class<T> type, TensorDescriptor descriptor, ByteBuffer data) {
+        this.type = type;
+        this.descriptor = descriptor;
+        this.data = null;
+        this.bytes = data.slice().order(data.order());
+        this.elements = elementsOf(type, this.bytes);
+    }
+
+    /**
+     * Instantiates a Tensor of {@link Byte} elements backed by the given array, without copying it.
+     *
+     * @param descriptor
+     *            the {@link TensorDescriptor} of this tensor
+     * @param data
+     *            the data of this tensor
+     * @since 3.0
+     */
+    public Tensor(TensorDescriptor descriptor, byte[] data) {
+        this(Byte.class, descriptor, ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Instantiates a Tensor of {@link Short} elements backed by the given array, without copying it.
+     *
+     * @param descriptor
+     *            the {@link TensorDescriptor} of this tensor
+     * @param data
+     *            the data of this tensor
+     * @since 3.0
+     */
+    public Tensor(TensorDescriptor descriptor, short[] data) {
+        this(Short.class, descriptor, ShortBuffer.wrap(data));
+    }
+
+    /**
+     * Instantiates a Tensor of {@link Integer} elements backed by the given array, without copying it.
+     *
+     * @param descriptor
+     *            the {@link TensorDescriptor} of this tensor
+     * @param data
+     *            the data of this tensor
+     * @since 3.0
+     */
+    public Tensor(TensorDescriptor descriptor, int[] data) {
+        this(Integer.class, descriptor, IntBuffer.wrap(data));
+    }
+
+    /**
+     * Instantiates a Tensor of {@link Long} elements backed by the given array, without copying it.
+     *
+     * @param descriptor
+     *            the {@link TensorDescriptor} of this tensor
+     * @param data
+     *            the data of this tensor
+     * @since 3.0
+     */
+    public Tensor(TensorDescriptor descriptor, long[] data) {
+        this(Long.class, descriptor, LongBuffer.wrap(data));
+    }
+
+    /**
+     * Instantiates a Tensor of {@link Float} elements backed by the given array, without copying it.
+     *
+     * @param descriptor
+     *            the {@link TensorDescriptor} of this tensor
+     * @param data
+     *            the data of this tensor
+     * @since 3.0
+     */
+    public Tensor(TensorDescriptor descriptor, float[] data) {
+        this(Float.class, descriptor, FloatBuffer.wrap(data));
+    }
+
+    /**
+     * Instantiates a Tensor of {@link Double} elements backed by the given array, without copying it.
+     *
+     * @param descriptor
+     *            the {@link TensorDescriptor} of this tensor
+     * @param data
+     *            the data of this tensor
+     * @since 3.0
+     */
+    public Tensor(TensorDescriptor descriptor, double[] data) {
+        this(Double.class, descriptor, DoubleBuffer.wrap(data));
+    }
+
+    private Tensor(Class<?> type, TensorDescriptor descriptor, Buffer elements) {
+        this.type = type;
+        this.descriptor = descriptor;
+        this.data = null;
+        this.bytes = null;
+        this.elements = elements;
     }
 
     /**
@@ -64,8 +192,55 @@ public class Tensor {
      */
     @SuppressWarnings("unchecked")
     public <T> Optional<List<T>> getData(Class<T> type) {
-        if (this.type == type) {
+        if (this.type != type) {
+            return Optional.empty();
+        } else if (this.data != null) {
             return Optional.of((List<T>) this.data);
+        } else {
+            return Optional.of((List<T>) new BufferList(readOnly(this.elements)));
+        }
+    }
+
+    /**
+     * Tells if the data of the tensor is contained in a primitive array or in a {@link ByteBuffer}.
+     *
+     * @return {@code true} if the data can be accessed with {@link #getBuffer(Class)}
+     * @since 3.0
+     */
+    public boolean isBufferBacked() {
+        return this.elements != null;
+    }
+
+    /**
+     * Return a read-only view of the data contained in the tensor, without copying or boxing it. A
+     * {@link ByteBuffer} is returned for {@link Byte} tensors, a {@link ShortBuffer} for {@link Short} tensors, an
+     * {@link IntBuffer} for {@link Integer} tensors, a {@link LongBuffer} for {@link Long} tensors, a
+     * {@link FloatBuffer} for {@link Float} tensors and a {@link DoubleBuffer} for {@link Double} tensors.
+     *
+     * @param bufferType
+     *            the type of the buffer
+     * @return the data of the tensor, or an empty optional if the tensor is not buffer backed or the buffer type does
+     *         not match the type of the tensor
+     * @since 3.0
+     */
+    public <B extends Buffer> Optional<B> getBuffer(Class<B> bufferType) {
+        if (this.elements != null && bufferType.isInstance(this.elements)) {
+            return Optional.of(bufferType.cast(readOnly(this.elements)));
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Return a read-only view of the bytes the tensor has been created from, if the tensor has been created from a
+     * {@link ByteBuffer} or a byte array. The byte order of the returned buffer is the one of the original buffer.
+     *
+     * @return the bytes of the tensor, or an empty optional
+     * @since 3.0
+     */
+    public Optional<ByteBuffer> getByteBuffer() {
+        if (this.bytes != null) {
+            return Optional.of((ByteBuffer) readOnly(this.bytes));
         } else {
             return Optional.empty();
         }
@@ -79,4 +254,93 @@ public class Tensor {
     public Class<?> getType() {
         return this.type;
     }
+
+    private static Buffer elementsOf(Class<?> type, ByteBuffer bytes) {
+        final Buffer result;
+        final int size;
+
+        if (type == Byte.class) {
+            result = bytes;
+            size = Byte.BYTES;
+        } else if (type == Short.class) {
+            result = bytes.asShortBuffer();
+            size = Short.BYTES;
+        } else if (type == Integer.class) {
+            result = bytes.asIntBuffer();
+            size = Integer.BYTES;
+        } else if (type == Long.class) {
+            result = bytes.asLongBuffer();
+            size = Long.BYTES;
+        } else if (type == Float.class) {
+            result = bytes.asFloatBuffer();
+            size = Float.BYTES;
+        } else if (type == Double.class) {
+            result = bytes.asDoubleBuffer();
+            size = Double.BYTES;
+        } else {
+            throw new IllegalArgumentException("Unsupported tensor type for buffer data: " + type);
+        }
+
+        if (bytes.remaining() % size != 0) {
+            throw new IllegalArgumentException("The buffer size " + bytes.remaining() + " is not a multiple of the "
+                    + type.getSimpleName() + " size");
+        }
+
+        return result;
+    }
+
+    private static Buffer readOnly(Buffer buffer) {
+        if (buffer instanceof ByteBuffer) {
+            ByteBuffer byteBuffer = (ByteBuffer) buffer;
+            return byteBuffer.asReadOnlyBuffer().order(byteBuffer.order());
+        } else if (buffer instanceof ShortBuffer) {
+            return ((ShortBuffer) buffer).asReadOnlyBuffer();
+        } else if (buffer instanceof IntBuffer) {
+            return ((IntBuffer) buffer).asReadOnlyBuffer();
+        } else if (buffer instanceof LongBuffer) {
+            return ((LongBuffer) buffer).asReadOnlyBuffer();
+        } else if (buffer instanceof FloatBuffer) {
+            return ((FloatBuffer) buffer).asReadOnlyBuffer();
+        } else {
+            return ((DoubleBuffer) buffer).asReadOnlyBuffer();
+        }
+    }
+
+    /*
+     * A list that boxes the elements of the buffer only when they are accessed.
+     */
+    private static final class BufferList extends AbstractList<Object> implements RandomAccess {
+
+        private final Buffer buffer;
+
+        BufferList(Buffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public Object get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+
+            if (this.buffer instanceof ByteBuffer) {
+                return ((ByteBuffer) this.buffer).get(index);
+            } else if (this.buffer instanceof ShortBuffer) {
+                return ((ShortBuffer) this.buffer).get(index);
+            } else if (this.buffer instanceof IntBuffer) {
+                return ((IntBuffer) this.buffer).get(index);
+            } else if (this.buffer instanceof LongBuffer) {
+                return ((LongBuffer) this.buffer).get(index);
+            } else if (this.buffer instanceof FloatBuffer) {
+                return ((FloatBuffer) this.buffer).get(index);
+            } else {
+                return ((DoubleBuffer) this.buffer).get(index);
+            }
+        }
+
+        @Override
+        public int size() {
+            return this.buffer.limit();
+        }
+    }
 }
@@ -12,7 +12,10 @@
  ******************************************************************************/
 package org.eclipse.kura.message.store.provider;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
 
 import org.eclipse.kura.KuraStoreException;
@@ -71,6 +74,38 @@ public interface MessageStore {
      */
     public void markAsPublished(int msgId, DataTransportToken dataTransportToken) throws KuraStoreException;
 
+    /**
+     * Marks a set of messages as published. The keys of the provided map are the
+     * message identifiers, the values are the {@link DataTransportToken}s that
+     * should be associated with the messages. An empty value must be provided for
+     * messages with QoS = 0.
+     * <br>
+     * The effect of this method must be the same as calling
+     * {@link MessageStore#markAsPublished(int)} or
+     * {@link MessageStore#markAsPublished(int, DataTransportToken)} for each
+     * entry. Implementations should apply the changes in a single transaction if
+     * supported by the underlying storage.
+     * <br>
+     * The default implementation invokes the single message methods for each entry.
+     *
+     * @param messages the identifiers of the messages to be marked as published and
+     *                 the associated {@link DataTransportToken}s.
+     * @throws KuraStoreException
+     * @since 3.0
+     */
+    public default void markAsPublished(Map<Integer, Optional<DataTransportToken>> messages)
+            throws KuraStoreException {
+        for (final Entry<Integer, Optional<DataTransportToken>> entry : messages.entrySet()) {
+            final Optional<DataTransportToken> token = entry.getValue();
+
+            if (token.isPresent()) {
+                markAsPublished(entry.getKey(), token.get());
+            } else {
+                markAsPublished(entry.getKey());
+            }
+        }
+    }
+
     /**
      * Sets the value of the <code>confirmedOn</code> parameter to the current time.
      * <br>
@@ -102,6 +137,39 @@ public interface MessageStore {
      */
     public Optional<StoredMessage> getNextMessage() throws KuraStoreException;
 
+    /**
+     * Gets up to <code>maxCount</code> messages that should be published next,
+     * in the order in which they should be published.
+     * <br>
+     * The returned messages must satisfy the same properties described in
+     * {@link MessageStore#getNextMessage()}, the first element of the returned
+     * list must be the message that would be returned by
+     * {@link MessageStore#getNextMessage()}.
+     * <br>
+     * The default implementation delegates to {@link MessageStore#getNextMessage()}
+     * and returns at most one message, implementations should override it if they
+     * are able to retrieve multiple messages more efficiently.
+     *
+     * @param maxCount the maximum number of messages to be returned.
+     * @return the list of messages that should be published next, the list will be
+     *         empty if there are no messages to be published.
+     * @throws KuraStoreException
+     * @since 3.0
+     */
+    public default List<StoredMessage> getNextMessages(int maxCount) throws KuraStoreException {
+        if (maxCount <= 0) {
+            return Collections.emptyList();
+        }
+
+        final Optional<StoredMessage> next = getNextMessage();
+
+        if (next.isPresent()) {
+            return Collections.singletonList(next.get());
+        } else {
+            return Collections.emptyList();
+        }
+    }
+
     /**
      * Retrieves the message with the given identifier from the store.
      * 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2023, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -12,9 +12,12 @@
  ******************************************************************************/
 package org.eclipse.kura.wire.store.provider;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 import org.eclipse.kura.KuraStoreException;
+import org.eclipse.kura.type.TypedValue;
 import org.eclipse.kura.wire.WireRecord;
 import org.osgi.annotation.versioning.ProviderType;
 
@@ -38,4 +41,59 @@ public interface QueryableWireRecordStoreProvider {
      * @throws KuraStoreException
      */
     public List<WireRecord> performQuery(String query) throws KuraStoreException;
+
+    /**
+     * Perform the given query specified in an implementation defined language and return a page of its result,
+     * using the value of the {@code keyProperty} property as a stable ordering key. The returned records are sorted
+     * by key, only the records with a key greater than {@code lastKey} are returned, up to {@code limit} of them.
+     * <p>
+     * The next page can be requested by passing the key of the last returned record. Since pages are identified by
+     * key instead of by position, records that are removed from the store between two pages do not cause other
+     * records to be skipped. Records without the key property are not returned.
+     * <p>
+     * The key filter and the ordering are applied to the result of the query, which should therefore neither limit
+     * nor sort its result. Implementations can reject queries that do so.
+     * <p>
+     * Implementations should read only the requested records, without holding the whole result in memory. The
+     * default implementation calls {@link #performQuery(String)} and returns the requested portion of the result.
+     *
+     * @param query
+     *            the query to be run
+     * @param keyProperty
+     *            the name of the property of the result used as ordering key, for example the ID column of a Wire
+     *            Record Store table
+     * @param lastKey
+     *            the key of the last record of the previous page, or {@code null} to request the first page
+     * @param limit
+     *            the maximum number of records to return
+     * @return a List of at most {@code limit} WireRecords that contains the requested page of the result
+     * @throws KuraStoreException
+     * @since 3.0
+     */
+    public default List<WireRecord> performQuery(String query, String keyProperty, TypedValue<?> lastKey, int limit)
+            throws KuraStoreException {
+        if (keyProperty == null || keyProperty.isEmpty() || limit <= 0) {
+            throw new IllegalArgumentException("Key property must not be empty and limit must be positive");
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        final Comparator<TypedValue<?>> keyComparator = (first, second) -> first.getType() == second.getType()
+                ? ((TypedValue) first).compareTo(second)
+                : first.getType().compareTo(second.getType());
+
+        final List<WireRecord> records = new ArrayList<>();
+
+        for (final WireRecord wireRecord : performQuery(query)) {
+            final TypedValue<?> key = wireRecord.getProperties().get(keyProperty);
+
+            if (key != null && (lastKey == null || keyComparator.compare(key, lastKey) > 0)) {
+                records.add(wireRecord);
+            }
+        }
+
+        records.sort((first, second) -> keyComparator.compare(first.getProperties().get(keyProperty),
+                second.getProperties().get(keyProperty)));
+
+        return new ArrayList<>(records.subList(0, Math.min(records.size(), limit)));
+    }
 }
@@ -34,9 +34,6 @@ import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.kura.KuraErrorCode;
@@ -59,6 +56,9 @@ import org.eclipse.kura.core.configuration.metatype.Tad;
 import org.eclipse.kura.core.configuration.metatype.Tocd;
 import org.eclipse.kura.driver.Driver;
 import org.eclipse.kura.driver.PreparedRead;
+import org.eclipse.kura.internal.asset.provider.AssetIOScheduler;
+import org.eclipse.kura.internal.asset.provider.AssetPollingEngine;
+import org.eclipse.kura.internal.asset.provider.AssetPollingEngine.AssetPoller;
 import org.eclipse.kura.internal.asset.provider.BaseAssetConfiguration;
 import org.eclipse.kura.internal.asset.provider.DriverTrackerCustomizer;
 import org.eclipse.kura.type.DataType;
@@ -151,6 +151,10 @@ public class BaseAsset implements Asset, SelfConfiguringComponent {
 
     private BaseAssetExecutor executor;
 
+    private AssetIOScheduler ioScheduler;
+
+    private AssetPoller poller;
+
     private final AtomicReference<DriverState> driverState = new AtomicReference<>();
 
     /**
@@ -165,6 +169,8 @@ public class BaseAsset implements Asset, SelfConfiguringComponent {
         logger.info("activating...");
         this.context = componentContext;
         this.executor = initBaseAssetExecutor();
+        this.poller = AssetPollingEngine.acquire().newPoller(this::getCurrentKuraServicePid,
+                this::getCurrentDriverPid);
         updated(properties);
         logger.info("activating...done");
     }
@@ -204,6 +210,17 @@ public class BaseAsset implements Asset, SelfConfiguringComponent {
 
         this.executor.shutdown();
 
+        if (this.poller != null) {
+            this.poller.close();
+            this.poller = null;
+            AssetPollingEngine.release();
+        }
+
+        if (this.ioScheduler != null) {
+            AssetIOScheduler.release();
+            this.ioScheduler = null;
+        }
+
         logger.debug("deactivating...done");
     }
 
@@ -244,6 +261,7 @@ public class BaseAsset implements Asset, SelfConfiguringComponent {
 
         this.executor.runConfig(() -> {
             if (oldState != null) {
+                invalidatePoller();
                 oldState.shutdown();
             }
             this.config.complete(getOCD(), this.context, getAssetChannelDescriptor(), newState.getDriver());
@@ -269,6 +287,7 @@ public class BaseAsset implements Asset, SelfConfiguringComponent {
                 if (preparedRead != null) {
                     onPreparedReadReleased(preparedRead);
                 }
+                invalidatePoller();
                 oldState.shutdown();
             });
         }
@@ -345,6 +364,42 @@ public class BaseAsset implements Asset, SelfConfiguringComponent {
         return getFinalRecords(channelRecords, this.config.getAssetConfiguration().getAssetChannels());
     }
 
+    /**
+     * Reads all the channels of this asset through the polling engine shared by all the assets. The reads of assets
+     * that use the same driver and are requested while the driver is busy are performed together in the next read
+     * cycle, merging their {@link PreparedRead}s when possible.
+     * <p>
+     * Read requests are not queued: the returned future is cancelled if the request is superseded by a newer one
+     * before starting, or if it has not started by the time the next request is expected. The future is never
+     * completed on the thread performing the I/O.
+     *
+     * @return a future that is completed with the read records
+     * @since 2.2
+     */
+    protected CompletableFuture<List<ChannelRecord>> pollAllChannels() {
+        final DriverState state = this.driverState.get();
+        final AssetPoller currentPoller = this.poller;
+
+        if (state == null || currentPoller == null) {
+            final CompletableFuture<List<ChannelRecord>> result = new CompletableFuture<>();
+            result.completeExceptionally(new KuraException(KuraErrorCode.CONFIGURATION_ERROR, "Driver not attached"));
+            return result;
+        }
+
+        final BaseAssetConfiguration conf = this.config;
+
+        return currentPoller.poll(state.getDriver(), state::getPreparedRead, conf::getAllReadRecords,
+                records -> getFinalRecords(records, conf.getAssetConfiguration().getAssetChannels()));
+    }
+
+    private void invalidatePoller() {
+        final AssetPoller currentPoller = this.poller;
+
+        if (currentPoller != null) {
+            currentPoller.invalidate();
+        }
+    }
+
     private void validateChannel(final Channel channel, final EnumSet<ChannelType> allowedTypes,
             final String typeNotAllowedMessage) {
         if (channel == null) {
@@ -589,14 +644,24 @@ public class BaseAsset implements Asset, SelfConfiguringComponent {
 
     protected BaseAssetExecutor initBaseAssetExecutor() {
 
-        // TODO make this configurable and maybe allow using shared thread pools
+        if (this.ioScheduler == null) {
+            this.ioScheduler = AssetIOScheduler.acquire();
+        }
+
+        final ExecutorService ioExecutor = this.ioScheduler.newExecutor(this::getCurrentKuraServicePid,
+                this::getCurrentDriverPid);
 
-        final ExecutorService ioExecutor = new ThreadPoolExecutor(1, 5, 60L, TimeUnit.SECONDS,
-                new LinkedBlockingQueue<>());
-        final ExecutorService configExecutor = new ThreadPoolExecutor(0, 1, 60L, TimeUnit.SECONDS,
-                new LinkedBlockingQueue<>());
+        return new BaseAssetExecutor(ioExecutor, false, this.ioScheduler.getConfigExecutor(), true);
+    }
+
+    private String getCurrentKuraServicePid() {
+        final BaseAssetConfiguration currentConfig = this.config;
+        return currentConfig != null ? currentConfig.getKuraServicePid() : null;
+    }
 
-        return new BaseAssetExecutor(ioExecutor, configExecutor);
+    private String getCurrentDriverPid() {
+        final BaseAssetConfiguration currentConfig = this.config;
+        return currentConfig != null ? currentConfig.getAssetConfiguration().getDriverPid() : null;
     }
 
     /** {@inheritDoc} */
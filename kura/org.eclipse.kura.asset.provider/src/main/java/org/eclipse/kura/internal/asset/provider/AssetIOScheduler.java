@@ -0,0 +1,344 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.asset.provider;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the I/O operations of all the assets on a bounded number of workers.
+ * <p>
+ * Operations are queued per driver instance, and the drivers with pending operations are served in round robin, so
+ * that a slow driver cannot starve the others. At most {@code driverMaxConcurrency} operations of the same driver run
+ * at the same time, and at most {@code maxConcurrency} operations run at the same time overall. On JDK 21 and later
+ * the operations can optionally run on virtual threads. This is disabled by default since many drivers perform
+ * blocking I/O inside {@code synchronized} blocks, that pin the carrier thread.
+ * <p>
+ * The scheduler is shared by all the assets: it is created by the first {@link #acquire()} call and shut down when
+ * the last user calls {@link #release()}.
+ */
+public final class AssetIOScheduler {
+
+    static final String MAX_CONCURRENCY_PROPERTY = "org.eclipse.kura.asset.io.max.concurrency";
+    static final String DRIVER_MAX_CONCURRENCY_PROPERTY = "org.eclipse.kura.asset.io.driver.max.concurrency";
+    static final String VIRTUAL_THREADS_PROPERTY = "org.eclipse.kura.asset.io.virtual.threads";
+
+    private static final Logger logger = LoggerFactory.getLogger(AssetIOScheduler.class);
+
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private static AssetIOScheduler instance;
+    private static int instanceCount;
+
+    private final int maxConcurrency;
+    private final int driverMaxConcurrency;
+    private final ExecutorService workers;
+    private final ExecutorService configExecutor;
+
+    private final Map<String, DriverQueue> driverQueues = new HashMap<>();
+    private final Queue<DriverQueue> readyQueues = new ArrayDeque<>();
+    private int running;
+
+    private final Set<AssetIOExecutor> executors = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private volatile long lastReportNanos = System.nanoTime();
+
+    AssetIOScheduler(final int maxConcurrency, final int driverMaxConcurrency, final boolean virtualThreads) {
+        this.maxConcurrency = maxConcurrency;
+        this.driverMaxConcurrency = driverMaxConcurrency;
+        this.workers = createWorkers(maxConcurrency, virtualThreads);
+        this.configExecutor = newThreadPool(maxConcurrency, "AssetConfig");
+    }
+
+    public static synchronized AssetIOScheduler acquire() {
+        if (instance == null) {
+            final int maxConcurrency = Math.max(1, Integer.getInteger(MAX_CONCURRENCY_PROPERTY,
+                    Math.max(4, 2 * Runtime.getRuntime().availableProcessors())));
+            final int driverMaxConcurrency = Math.max(1, Integer.getInteger(DRIVER_MAX_CONCURRENCY_PROPERTY, 1));
+            final boolean virtualThreads = Boolean.getBoolean(VIRTUAL_THREADS_PROPERTY);
+
+            instance = new AssetIOScheduler(maxConcurrency, driverMaxConcurrency, virtualThreads);
+        }
+
+        instanceCount++;
+        return instance;
+    }
+
+    public static synchronized void release() {
+        instanceCount--;
+
+        if (instanceCount <= 0 && instance != null) {
+            instance.shutdown();
+            instance = null;
+            instanceCount = 0;
+        }
+    }
+
+    /**
+     * Returns a new executor for the I/O operations of an asset. Shutting down the returned executor does not affect
+     * the scheduler.
+     *
+     * @param assetPid
+     *            provides the pid of the asset, used for reporting
+     * @param driverPid
+     *            provides the pid of the driver currently used by the asset, that determines the queue the operations
+     *            are added to
+     * @return the executor
+     */
+    public AssetIOExecutor newExecutor(final Supplier<String> assetPid, final Supplier<String> driverPid) {
+        final AssetIOExecutor executor = new AssetIOExecutor(assetPid, driverPid);
+        this.executors.add(executor);
+        return executor;
+    }
+
+    /**
+     * @return an executor shared by all the assets for running configuration tasks, it must not be shut down
+     */
+    public ExecutorService getConfigExecutor() {
+        return this.configExecutor;
+    }
+
+    void shutdown() {
+        this.workers.shutdown();
+        this.configExecutor.shutdown();
+    }
+
+    private synchronized void enqueue(final String driverPid, final AssetIOExecutor executor, final Runnable task) {
+        final DriverQueue driverQueue = this.driverQueues.computeIfAbsent(driverPid, DriverQueue::new);
+
+        driverQueue.tasks.add(new ScheduledTask(executor, task));
+
+        if (!driverQueue.ready && driverQueue.running < this.driverMaxConcurrency) {
+            driverQueue.ready = true;
+            this.readyQueues.add(driverQueue);
+        }
+
+        dispatch();
+    }
+
+    private void dispatch() {
+        while (this.running < this.maxConcurrency && !this.readyQueues.isEmpty()) {
+            final DriverQueue driverQueue = this.readyQueues.poll();
+            final ScheduledTask task = driverQueue.tasks.poll();
+
+            driverQueue.running++;
+            this.running++;
+
+            // requeue at the tail, so that the other drivers are served before the next task of this one
+            driverQueue.ready = !driverQueue.tasks.isEmpty() && driverQueue.running < this.driverMaxConcurrency;
+            if (driverQueue.ready) {
+                this.readyQueues.add(driverQueue);
+            }
+
+            this.workers.execute(() -> run(driverQueue, task));
+        }
+    }
+
+    private void run(final DriverQueue driverQueue, final ScheduledTask task) {
+        final long start = System.nanoTime();
+
+        try {
+            task.task.run();
+        } catch (final Exception e) {
+            logger.warn("Asset I/O task failed", e);
+        } finally {
+            final long end = System.nanoTime();
+            task.executor.statistics.record(start - task.enqueuedNanos, end - start);
+            task.executor.onTaskCompleted();
+            onTaskCompleted(driverQueue);
+            maybeReport(end);
+        }
+    }
+
+    private synchronized void onTaskCompleted(final DriverQueue driverQueue) {
+        driverQueue.running--;
+        this.running--;
+
+        if (!driverQueue.ready && !driverQueue.tasks.isEmpty()) {
+            driverQueue.ready = true;
+            this.readyQueues.add(driverQueue);
+        } else if (driverQueue.running == 0 && driverQueue.tasks.isEmpty()) {
+            this.driverQueues.remove(driverQueue.driverPid);
+        }
+
+        dispatch();
+    }
+
+    private void maybeReport(final long now) {
+        final long last = this.lastReportNanos;
+
+        if (now - last < REPORT_INTERVAL_NANOS || !logger.isDebugEnabled()) {
+            return;
+        }
+
+        this.lastReportNanos = now;
+
+        for (final AssetIOExecutor executor : this.executors) {
+            logger.debug("Asset {} I/O statistics: {}", executor.assetPid.get(), executor.statistics);
+        }
+    }
+
+    private static ExecutorService createWorkers(final int maxConcurrency, final boolean virtualThreads) {
+        if (virtualThreads) {
+            try {
+                final Method newVirtualThreadPerTaskExecutor = Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor");
+                final ExecutorService result = (ExecutorService) newVirtualThreadPerTaskExecutor.invoke(null);
+                logger.info("Running asset I/O on virtual threads, max concurrency: {}", maxConcurrency);
+                return result;
+            } catch (final ReflectiveOperationException e) {
+                logger.debug("Virtual threads not available", e);
+            }
+        }
+
+        logger.info("Running asset I/O on platform threads, max concurrency: {}", maxConcurrency);
+        return newThreadPool(maxConcurrency, "AssetIO");
+    }
+
+    private static ExecutorService newThreadPool(final int size, final String name) {
+        final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
+        final AtomicInteger nextId = new AtomicInteger();
+
+        final ThreadPoolExecutor result = new ThreadPoolExecutor(size, size, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    final Thread thread = defaultFactory.newThread(runnable);
+                    thread.setName(name + "-" + nextId.incrementAndGet());
+                    return thread;
+                });
+        result.allowCoreThreadTimeOut(true);
+
+        return result;
+    }
+
+    private static final class DriverQueue {
+
+        private final String driverPid;
+        private final Queue<ScheduledTask> tasks = new ArrayDeque<>();
+        private int running;
+        private boolean ready;
+
+        DriverQueue(final String driverPid) {
+            this.driverPid = driverPid;
+        }
+    }
+
+    private static final class ScheduledTask {
+
+        private final AssetIOExecutor executor;
+        private final Runnable task;
+        private final long enqueuedNanos = System.nanoTime();
+
+        ScheduledTask(final AssetIOExecutor executor, final Runnable task) {
+            this.executor = executor;
+            this.task = task;
+        }
+    }
+
+    /**
+     * Submits the I/O operations of a single asset to the scheduler.
+     */
+    public final class AssetIOExecutor extends AbstractExecutorService {
+
+        private final Supplier<String> assetPid;
+        private final Supplier<String> driverPid;
+        private final AssetIOStatistics statistics = new AssetIOStatistics();
+
+        private int pending;
+        private boolean isShutdown;
+
+        AssetIOExecutor(final Supplier<String> assetPid, final Supplier<String> driverPid) {
+            this.assetPid = assetPid;
+            this.driverPid = driverPid;
+        }
+
+        public AssetIOStatistics getStatistics() {
+            return this.statistics;
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            synchronized (this) {
+                if (this.isShutdown) {
+                    throw new RejectedExecutionException("Executor has been shut down");
+                }
+                this.pending++;
+            }
+
+            final String pid = this.driverPid.get();
+            enqueue(pid != null ? pid : "", this, command);
+        }
+
+        @Override
+        public synchronized void shutdown() {
+            this.isShutdown = true;
+            AssetIOScheduler.this.executors.remove(this);
+            notifyAll();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown();
+            return Collections.emptyList();
+        }
+
+        @Override
+        public synchronized boolean isShutdown() {
+            return this.isShutdown;
+        }
+
+        @Override
+        public synchronized boolean isTerminated() {
+            return this.isShutdown && this.pending == 0;
+        }
+
+        @Override
+        public synchronized boolean awaitTermination(final long timeout, final TimeUnit unit)
+                throws InterruptedException {
+            final long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+            while (!isTerminated()) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+
+            return true;
+        }
+
+        private synchronized void onTaskCompleted() {
+            this.pending--;
+            notifyAll();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.asset.provider;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Queue wait and execution time of the I/O operations performed by an asset.
+ */
+public final class AssetIOStatistics {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalQueueWaitNanos = new LongAdder();
+    private final LongAdder totalExecutionNanos = new LongAdder();
+    private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+    private final AtomicLong maxExecutionNanos = new AtomicLong();
+
+    void record(final long queueWaitNanos, final long executionNanos) {
+        this.count.increment();
+        this.totalQueueWaitNanos.add(queueWaitNanos);
+        this.totalExecutionNanos.add(executionNanos);
+        this.maxQueueWaitNanos.accumulateAndGet(queueWaitNanos, Math::max);
+        this.maxExecutionNanos.accumulateAndGet(executionNanos, Math::max);
+    }
+
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    public long getAverageQueueWait(final TimeUnit unit) {
+        return average(this.totalQueueWaitNanos.sum(), unit);
+    }
+
+    public long getMaxQueueWait(final TimeUnit unit) {
+        return unit.convert(this.maxQueueWaitNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    public long getAverageExecutionTime(final TimeUnit unit) {
+        return average(this.totalExecutionNanos.sum(), unit);
+    }
+
+    public long getMaxExecutionTime(final TimeUnit unit) {
+        return unit.convert(this.maxExecutionNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    private long average(final long totalNanos, final TimeUnit unit) {
+        final long operations = getCount();
+        return operations == 0 ? 0 : unit.convert(totalNanos / operations, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "operations: " + getCount() //
+                + ", queue wait avg/max: " + getAverageQueueWait(TimeUnit.MICROSECONDS) + "/"
+                + getMaxQueueWait(TimeUnit.MICROSECONDS) + " us" //
+                + ", execution time avg/max: " + getAverageExecutionTime(TimeUnit.MICROSECONDS) + "/"
+                + getMaxExecutionTime(TimeUnit.MICROSECONDS) + " us";
+    }
+}
@@ -0,0 +1,765 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.asset.provider;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.eclipse.kura.KuraErrorCode;
+import org.eclipse.kura.KuraException;
+import org.eclipse.kura.channel.ChannelRecord;
+import org.eclipse.kura.driver.Driver;
+import org.eclipse.kura.driver.PreparedRead;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Performs the periodic reads of the assets in cycles, grouped by driver instance.
+ * <p>
+ * Each driver instance runs at most one read cycle at a time on the {@link AssetIOScheduler}. The read requests
+ * received while a cycle is running are executed together in the next cycle: the requests of assets that use the same
+ * driver and have a {@link PreparedRead} are merged into a single {@link PreparedRead} execution, that is cached for
+ * the following cycles.
+ * <p>
+ * Late cycles are not queued: an asset has at most one pending request, a newer request supersedes the pending one.
+ * A request that is still pending when the next request of the same asset is expected, based on the observed request
+ * period, is skipped. Superseded and skipped requests are cancelled.
+ * <p>
+ * The resources of a driver are released when no asset uses it anymore. A merged read whose result cannot be
+ * distributed to the assets is closed and the same combination of reads is no longer merged.
+ * <p>
+ * By default a cycle starts as soon as the driver is idle, the
+ * {@value #MERGE_WINDOW_PROPERTY} system property can be used to delay the start of a cycle in order to merge the
+ * requests of assets whose timers fire at about the same time.
+ */
+public final class AssetPollingEngine {
+
+    static final String MERGE_WINDOW_PROPERTY = "org.eclipse.kura.asset.polling.merge.window.ms";
+
+    private static final Logger logger = LoggerFactory.getLogger(AssetPollingEngine.class);
+
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int MAX_MERGED_READS = 4;
+
+    private static AssetPollingEngine instance;
+    private static int instanceCount;
+
+    private final AssetIOScheduler scheduler;
+    private final long mergeWindowNanos;
+    private final ScheduledExecutorService cycleTimer;
+    private final ExecutorService completionExecutor;
+
+    private final Map<String, DriverGroup> groups = new HashMap<>();
+    private final Set<AssetPoller> pollers = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final AtomicLong nextPollerId = new AtomicLong();
+    private volatile long lastReportNanos = System.nanoTime();
+
+    AssetPollingEngine(final AssetIOScheduler scheduler, final long mergeWindow, final TimeUnit unit) {
+        this.scheduler = scheduler;
+        this.mergeWindowNanos = unit.toNanos(mergeWindow);
+        this.cycleTimer = Executors.newSingleThreadScheduledExecutor(namedThreadFactory("AssetPollingTimer"));
+        this.completionExecutor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), namedThreadFactory("AssetPolling"));
+    }
+
+    public static synchronized AssetPollingEngine acquire() {
+        if (instance == null) {
+            final long mergeWindow = Math.max(0, Long.getLong(MERGE_WINDOW_PROPERTY, 0));
+            instance = new AssetPollingEngine(AssetIOScheduler.acquire(), mergeWindow, TimeUnit.MILLISECONDS);
+        }
+
+        instanceCount++;
+        return instance;
+    }
+
+    public static synchronized void release() {
+        instanceCount--;
+
+        if (instanceCount <= 0 && instance != null) {
+            instance.shutdown();
+            AssetIOScheduler.release();
+            instance = null;
+            instanceCount = 0;
+        }
+    }
+
+    /**
+     * Returns a new poller, that submits the read requests of an asset.
+     *
+     * @param assetPid
+     *            provides the pid of the asset, used for reporting
+     * @param driverPid
+     *            provides the pid of the driver currently used by the asset, the requests of assets with the same
+     *            driver pid are executed in the same cycles
+     * @return the poller
+     */
+    public AssetPoller newPoller(final Supplier<String> assetPid, final Supplier<String> driverPid) {
+        final AssetPoller poller = new AssetPoller(this.nextPollerId.incrementAndGet(), assetPid, driverPid);
+        this.pollers.add(poller);
+        return poller;
+    }
+
+    void shutdown() {
+        this.cycleTimer.shutdownNow();
+
+        final List<DriverGroup> currentGroups;
+
+        synchronized (this) {
+            currentGroups = new ArrayList<>(this.groups.values());
+            this.groups.clear();
+        }
+
+        currentGroups.forEach(DriverGroup::dispose);
+
+        this.completionExecutor.shutdown();
+    }
+
+    synchronized int getDriverGroupCount() {
+        return this.groups.size();
+    }
+
+    /*
+     * Must be called holding the engine lock, the caller must dispose the group if it has been removed.
+     */
+    private boolean removeIfUnused(final DriverGroup group) {
+        if (group.active || !group.pollers.isEmpty() || this.groups.get(group.driverPid) != group) {
+            return false;
+        }
+
+        this.groups.remove(group.driverPid);
+        return true;
+    }
+
+    private void scheduleCycle(final DriverGroup group) {
+        if (this.mergeWindowNanos <= 0) {
+            submitCycle(group);
+            return;
+        }
+
+        try {
+            this.cycleTimer.schedule(() -> submitCycle(group), this.mergeWindowNanos, TimeUnit.NANOSECONDS);
+        } catch (final RejectedExecutionException e) {
+            submitCycle(group);
+        }
+    }
+
+    private void submitCycle(final DriverGroup group) {
+        try {
+            group.executor.execute(() -> runCycle(group));
+        } catch (final RejectedExecutionException e) {
+            final List<PollRequest> requests;
+
+            synchronized (this) {
+                requests = new ArrayList<>(group.pending.values());
+                group.pending.clear();
+                group.active = false;
+            }
+
+            final KuraException failure = new KuraException(KuraErrorCode.SERVICE_UNAVAILABLE,
+                    "Polling engine has been shut down");
+            final long now = System.nanoTime();
+            for (final PollRequest request : requests) {
+                fail(request, failure, now);
+            }
+        }
+    }
+
+    private void runCycle(final DriverGroup group) {
+        final List<PollRequest> batch;
+
+        synchronized (this) {
+            batch = new ArrayList<>(group.pending.values());
+            group.pending.clear();
+        }
+
+        // keep a stable order, so that merged reads can be reused across cycles
+        batch.sort(Comparator.comparingLong(r -> r.poller.id));
+
+        final long start = System.nanoTime();
+        final Map<Driver, List<PollRequest>> requestsByDriver = new IdentityHashMap<>();
+
+        for (final PollRequest request : batch) {
+            if (request.isLate(start)) {
+                request.poller.statistics.recordSkipped();
+                cancel(request);
+            } else {
+                requestsByDriver.computeIfAbsent(request.driver, d -> new ArrayList<>()).add(request);
+            }
+        }
+
+        for (final Entry<Driver, List<PollRequest>> e : requestsByDriver.entrySet()) {
+            execute(group, e.getKey(), e.getValue(), start);
+        }
+
+        final boolean removed;
+
+        synchronized (this) {
+            if (group.pending.isEmpty()) {
+                group.active = false;
+                removed = removeIfUnused(group);
+            } else {
+                // requests received while running are merged in the next cycle
+                submitCycle(group);
+                removed = false;
+            }
+        }
+
+        if (removed) {
+            group.dispose();
+        }
+
+        maybeReport(System.nanoTime());
+    }
+
+    private void execute(final DriverGroup group, final Driver driver, final List<PollRequest> requests,
+            final long start) {
+        if (requests.size() > 1) {
+            final List<PreparedRead> parts = new ArrayList<>(requests.size());
+
+            for (final PollRequest request : requests) {
+                parts.add(request.preparedRead.get());
+            }
+
+            if (!parts.contains(null) && executeMerged(group, driver, requests, parts, start)) {
+                return;
+            }
+        }
+
+        for (final PollRequest request : requests) {
+            executeSingle(request, start);
+        }
+    }
+
+    private boolean executeMerged(final DriverGroup group, final Driver driver, final List<PollRequest> requests,
+            final List<PreparedRead> parts, final long start) {
+        final List<AssetPoller> pollersInCycle = new ArrayList<>(requests.size());
+        for (final PollRequest request : requests) {
+            pollersInCycle.add(request.poller);
+        }
+
+        final MergeKey key = new MergeKey(driver, pollersInCycle, parts);
+
+        synchronized (group.mergedReads) {
+            if (group.unmergeable.contains(key)) {
+                return false;
+            }
+
+            PreparedRead merged = group.mergedReads.get(key);
+
+            if (merged == null) {
+                merged = prepareMergedRead(driver, parts);
+
+                if (merged == null) {
+                    group.unmergeable.add(key);
+                    return false;
+                }
+
+                group.mergedReads.put(key, merged);
+            }
+
+            final List<ChannelRecord> result;
+
+            try {
+                result = merged.execute();
+            } catch (final Exception e) {
+                for (final PollRequest request : requests) {
+                    fail(request, e, start);
+                }
+                return true;
+            }
+
+            if (distribute(requests, parts, result, start)) {
+                return true;
+            }
+
+            // the records are read again separately in this cycle, but the merged read is not used anymore
+            group.mergedReads.remove(key);
+            group.close(merged);
+            group.unmergeable.add(key);
+            return false;
+        }
+    }
+
+    private PreparedRead prepareMergedRead(final Driver driver, final List<PreparedRead> parts) {
+        final List<ChannelRecord> records = new ArrayList<>();
+
+        for (final PreparedRead part : parts) {
+            records.addAll(part.getChannelRecords());
+        }
+
+        try {
+            return driver.prepareRead(records);
+        } catch (final Exception e) {
+            logger.debug("Failed to create merged prepared read", e);
+            return null;
+        }
+    }
+
+    private boolean distribute(final List<PollRequest> requests, final List<PreparedRead> parts,
+            final List<ChannelRecord> result, final long start) {
+        int expectedSize = 0;
+        for (final PreparedRead part : parts) {
+            expectedSize += part.getChannelRecords().size();
+        }
+
+        if (result.size() != expectedSize) {
+            logger.debug("Unexpected merged prepared read result size, falling back to separate reads");
+            return false;
+        }
+
+        int offset = 0;
+
+        for (int i = 0; i < requests.size(); i++) {
+            final List<ChannelRecord> own = parts.get(i).getChannelRecords();
+            final List<ChannelRecord> slice = result.subList(offset, offset + own.size());
+
+            // returning the same list as the asset prepared read allows callers to detect that records are unchanged
+            complete(requests.get(i), hasSameElements(own, slice) ? own : new ArrayList<>(slice), start);
+            offset += own.size();
+        }
+
+        return true;
+    }
+
+    private static boolean hasSameElements(final List<ChannelRecord> first, final List<ChannelRecord> second) {
+        final Iterator<ChannelRecord> firstIter = first.iterator();
+        final Iterator<ChannelRecord> secondIter = second.iterator();
+
+        while (firstIter.hasNext() && secondIter.hasNext()) {
+            if (firstIter.next() != secondIter.next()) {
+                return false;
+            }
+        }
+
+        return !firstIter.hasNext() && !secondIter.hasNext();
+    }
+
+    private void executeSingle(final PollRequest request, final long start) {
+        try {
+            final PreparedRead preparedRead = request.preparedRead.get();
+            final List<ChannelRecord> records;
+
+            if (preparedRead != null) {
+                records = preparedRead.execute();
+            } else {
+                records = request.readRecords.get();
+                if (!records.isEmpty()) {
+                    request.driver.read(records);
+                }
+            }
+
+            complete(request, records, start);
+        } catch (final Exception e) {
+            fail(request, e, start);
+        }
+    }
+
+    private void complete(final PollRequest request, final List<ChannelRecord> records, final long start) {
+        request.poller.statistics.recordCycle(request.requestNanos, start, System.nanoTime(), false);
+        runCompletion(() -> {
+            try {
+                request.future.complete(request.finisher.apply(records));
+            } catch (final Exception e) {
+                request.future.completeExceptionally(e);
+            }
+        });
+    }
+
+    private void fail(final PollRequest request, final Throwable cause, final long start) {
+        request.poller.statistics.recordCycle(request.requestNanos, start, System.nanoTime(), true);
+        runCompletion(() -> request.future.completeExceptionally(cause));
+    }
+
+    private void cancel(final PollRequest request) {
+        runCompletion(() -> request.future.cancel(false));
+    }
+
+    private void runCompletion(final Runnable completion) {
+        // futures are not completed on the I/O workers, dependent actions could block waiting for other I/O operations
+        try {
+            this.completionExecutor.execute(completion);
+        } catch (final RejectedExecutionException e) {
+            completion.run();
+        }
+    }
+
+    private void maybeReport(final long now) {
+        final long last = this.lastReportNanos;
+
+        if (now - last < REPORT_INTERVAL_NANOS || !logger.isDebugEnabled()) {
+            return;
+        }
+
+        this.lastReportNanos = now;
+
+        for (final AssetPoller poller : this.pollers) {
+            logger.debug("Asset {} polling statistics: {}", poller.assetPid.get(), poller.statistics);
+        }
+    }
+
+    private static ThreadFactory namedThreadFactory(final String name) {
+        final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
+        final AtomicInteger nextId = new AtomicInteger();
+
+        return runnable -> {
+            final Thread thread = defaultFactory.newThread(runnable);
+            thread.setName(name + "-" + nextId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private final class DriverGroup {
+
+        private final String driverPid;
+        private final ExecutorService executor;
+        private final Map<AssetPoller, PollRequest> pending = new HashMap<>();
+        private final Set<AssetPoller> pollers = new HashSet<>();
+        private boolean active;
+
+        private final Map<MergeKey, PreparedRead> mergedReads = new LinkedHashMap<MergeKey, PreparedRead>(16, 0.75f,
+                true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Entry<MergeKey, PreparedRead> eldest) {
+                if (size() > MAX_MERGED_READS) {
+                    close(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        // combinations whose merged read could not be created or returned unexpected results
+        private final Set<MergeKey> unmergeable = Collections
+                .newSetFromMap(new LinkedHashMap<MergeKey, Boolean>(16, 0.75f, true) {
+
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    protected boolean removeEldestEntry(final Entry<MergeKey, Boolean> eldest) {
+                        return size() > MAX_MERGED_READS;
+                    }
+                });
+
+        DriverGroup(final String driverPid) {
+            this.driverPid = driverPid;
+            this.executor = AssetPollingEngine.this.scheduler.newExecutor(() -> "polling:" + driverPid,
+                    () -> driverPid);
+        }
+
+        void dispose() {
+            this.executor.shutdown();
+            closeMergedReads(e -> true);
+        }
+
+        void closeMergedReads(final Predicate<MergeKey> filter) {
+            synchronized (this.mergedReads) {
+                this.unmergeable.removeIf(filter);
+
+                final Iterator<Entry<MergeKey, PreparedRead>> iter = this.mergedReads.entrySet().iterator();
+
+                while (iter.hasNext()) {
+                    final Entry<MergeKey, PreparedRead> e = iter.next();
+
+                    if (filter.test(e.getKey())) {
+                        close(e.getValue());
+                        iter.remove();
+                    }
+                }
+            }
+        }
+
+        private void close(final PreparedRead preparedRead) {
+            try {
+                preparedRead.close();
+            } catch (final Exception e) {
+                logger.warn("Failed to close merged prepared read", e);
+            }
+        }
+    }
+
+    private static final class MergeKey {
+
+        private final Driver driver;
+        private final List<AssetPoller> pollers;
+        private final List<PreparedRead> parts;
+        private final int hashCode;
+
+        MergeKey(final Driver driver, final List<AssetPoller> pollers, final List<PreparedRead> parts) {
+            this.driver = driver;
+            this.pollers = pollers;
+            this.parts = parts;
+
+            int hash = System.identityHashCode(driver);
+            for (final PreparedRead part : parts) {
+                hash = 31 * hash + System.identityHashCode(part);
+            }
+            this.hashCode = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof MergeKey)) {
+                return false;
+            }
+
+            final MergeKey other = (MergeKey) obj;
+
+            if (this.driver != other.driver || this.parts.size() != other.parts.size()) {
+                return false;
+            }
+
+            for (int i = 0; i < this.parts.size(); i++) {
+                if (this.parts.get(i) != other.parts.get(i)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    private static final class PollRequest {
+
+        private final AssetPoller poller;
+        private final Driver driver;
+        private final Supplier<PreparedRead> preparedRead;
+        private final Supplier<List<ChannelRecord>> readRecords;
+        private final Function<List<ChannelRecord>, List<ChannelRecord>> finisher;
+        private final long requestNanos;
+        private final long deadlineNanos;
+        private final boolean hasDeadline;
+        private final CompletableFuture<List<ChannelRecord>> future = new CompletableFuture<>();
+
+        PollRequest(final AssetPoller poller, final Driver driver, final Supplier<PreparedRead> preparedRead,
+                final Supplier<List<ChannelRecord>> readRecords,
+                final Function<List<ChannelRecord>, List<ChannelRecord>> finisher, final long requestNanos,
+                final long periodNanos) {
+            this.poller = poller;
+            this.driver = driver;
+            this.preparedRead = preparedRead;
+            this.readRecords = readRecords;
+            this.finisher = finisher;
+            this.requestNanos = requestNanos;
+            this.hasDeadline = periodNanos > 0;
+            this.deadlineNanos = requestNanos + periodNanos;
+        }
+
+        boolean isLate(final long now) {
+            return this.hasDeadline && now - this.deadlineNanos > 0;
+        }
+    }
+
+    /**
+     * Submits the read requests of a single asset to the polling engine.
+     */
+    public final class AssetPoller {
+
+        private final long id;
+        private final Supplier<String> assetPid;
+        private final Supplier<String> driverPid;
+        private final AssetPollingStatistics statistics = new AssetPollingStatistics();
+
+        private boolean hasLastRequest;
+        private long lastRequestNanos;
+        private long periodNanos;
+        private boolean closed;
+        // guarded by the engine lock
+        private DriverGroup group;
+
+        AssetPoller(final long id, final Supplier<String> assetPid, final Supplier<String> driverPid) {
+            this.id = id;
+            this.assetPid = assetPid;
+            this.driverPid = driverPid;
+        }
+
+        public AssetPollingStatistics getStatistics() {
+            return this.statistics;
+        }
+
+        /**
+         * Requests a read of the channels of the asset.
+         *
+         * @param driver
+         *            the driver to be used
+         * @param preparedRead
+         *            provides the prepared read of the asset, if available, evaluated when the cycle starts
+         * @param readRecords
+         *            provides the records to be read if no prepared read is available
+         * @param finisher
+         *            a function applied to the read records before completing the returned future
+         * @return a future that is completed with the read records, or cancelled if the request is superseded or
+         *         skipped
+         */
+        public CompletableFuture<List<ChannelRecord>> poll(final Driver driver,
+                final Supplier<PreparedRead> preparedRead, final Supplier<List<ChannelRecord>> readRecords,
+                final Function<List<ChannelRecord>, List<ChannelRecord>> finisher) {
+            final long now = System.nanoTime();
+            final PollRequest request = new PollRequest(this, driver, preparedRead, readRecords, finisher, now,
+                    updatePeriod(now));
+
+            final String pid = this.driverPid.get();
+            final PollRequest superseded;
+            final boolean startCycle;
+            DriverGroup removed = null;
+
+            synchronized (AssetPollingEngine.this) {
+                if (this.closed) {
+                    request.future.completeExceptionally(new KuraException(KuraErrorCode.SERVICE_UNAVAILABLE,
+                            "Poller has been closed"));
+                    return request.future;
+                }
+
+                final DriverGroup group = AssetPollingEngine.this.groups.computeIfAbsent(pid != null ? pid : "",
+                        DriverGroup::new);
+
+                if (this.group != group) {
+                    // the driver of the asset has changed
+                    removed = leaveGroup();
+                    this.group = group;
+                    group.pollers.add(this);
+                }
+
+                superseded = group.pending.put(this, request);
+                startCycle = !group.active;
+                group.active = true;
+
+                if (startCycle) {
+                    scheduleCycle(group);
+                }
+            }
+
+            if (removed != null) {
+                removed.dispose();
+            }
+
+            if (superseded != null) {
+                this.statistics.recordOverrun();
+                cancel(superseded);
+            }
+
+            return request.future;
+        }
+
+        /**
+         * Closes the merged prepared reads that include the records of this asset, it must be called when the
+         * prepared read of the asset is released.
+         */
+        public void invalidate() {
+            final List<DriverGroup> currentGroups;
+
+            synchronized (AssetPollingEngine.this) {
+                currentGroups = new ArrayList<>(AssetPollingEngine.this.groups.values());
+            }
+
+            for (final DriverGroup group : currentGroups) {
+                group.closeMergedReads(key -> key.pollers.contains(this));
+            }
+        }
+
+        /**
+         * Cancels the pending requests of this poller and releases the associated resources.
+         */
+        public void close() {
+            final List<PollRequest> pendingRequests = new ArrayList<>();
+            final DriverGroup removed;
+
+            synchronized (AssetPollingEngine.this) {
+                this.closed = true;
+
+                for (final DriverGroup currentGroup : AssetPollingEngine.this.groups.values()) {
+                    final PollRequest request = currentGroup.pending.remove(this);
+                    if (request != null) {
+                        pendingRequests.add(request);
+                    }
+                }
+
+                removed = leaveGroup();
+            }
+
+            AssetPollingEngine.this.pollers.remove(this);
+            pendingRequests.forEach(AssetPollingEngine.this::cancel);
+            invalidate();
+
+            if (removed != null) {
+                removed.dispose();
+            }
+        }
+
+        /*
+         * Must be called holding the engine lock, returns the group left by this poller if it is not used anymore.
+         */
+        private DriverGroup leaveGroup() {
+            final DriverGroup previous = this.group;
+
+            if (previous == null) {
+                return null;
+            }
+
+            this.group = null;
+            previous.pollers.remove(this);
+
+            return removeIfUnused(previous) ? previous : null;
+        }
+
+        private synchronized long updatePeriod(final long now) {
+            if (this.hasLastRequest) {
+                final long interval = now - this.lastRequestNanos;
+                // exponentially weighted moving average of the request period
+                this.periodNanos = this.periodNanos == 0 ? interval
+                        : this.periodNanos + (interval - this.periodNanos) / 8;
+            }
+
+            this.hasLastRequest = true;
+            this.lastRequestNanos = now;
+
+            return this.periodNanos;
+        }
+    }
+}
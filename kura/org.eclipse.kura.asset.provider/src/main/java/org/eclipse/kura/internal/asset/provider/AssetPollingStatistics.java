@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.asset.provider;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics about the read cycles performed by the {@link AssetPollingEngine} for an asset.
+ * <p>
+ * The cycle latency is the time between a read request and its completion. The jitter is the variation of the delay
+ * between a read request and the start of the corresponding cycle, compared to the previous cycle. An overrun is a
+ * request that has been superseded by a newer one before starting, a skipped request is one that missed its deadline.
+ */
+public final class AssetPollingStatistics {
+
+    private final LongAdder cycles = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder overruns = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final Histogram latency = new Histogram();
+    private final Histogram jitter = new Histogram();
+
+    private long lastStartDelayNanos = -1;
+
+    void recordCycle(final long requestNanos, final long startNanos, final long endNanos, final boolean failed) {
+        this.cycles.increment();
+        if (failed) {
+            this.failures.increment();
+        }
+
+        this.latency.record(endNanos - requestNanos);
+
+        final long startDelayNanos = startNanos - requestNanos;
+
+        synchronized (this) {
+            if (this.lastStartDelayNanos >= 0) {
+                this.jitter.record(Math.abs(startDelayNanos - this.lastStartDelayNanos));
+            }
+            this.lastStartDelayNanos = startDelayNanos;
+        }
+    }
+
+    void recordOverrun() {
+        this.overruns.increment();
+    }
+
+    void recordSkipped() {
+        this.skipped.increment();
+    }
+
+    public long getCycles() {
+        return this.cycles.sum();
+    }
+
+    public long getFailures() {
+        return this.failures.sum();
+    }
+
+    public long getOverruns() {
+        return this.overruns.sum();
+    }
+
+    public long getSkipped() {
+        return this.skipped.sum();
+    }
+
+    public Histogram getLatency() {
+        return this.latency;
+    }
+
+    public Histogram getJitter() {
+        return this.jitter;
+    }
+
+    @Override
+    public String toString() {
+        return "cycles: " + getCycles() //
+                + ", failures: " + getFailures() //
+                + ", overruns: " + getOverruns() //
+                + ", skipped: " + getSkipped() //
+                + ", latency: " + this.latency //
+                + ", jitter: " + this.jitter;
+    }
+
+    /**
+     * A histogram with power of two buckets: bucket 0 counts the values below 1 us, bucket {@code i} counts the values
+     * in the [2^(i-1), 2^i) us range. The last bucket also counts all the larger values.
+     */
+    public static final class Histogram {
+
+        static final int BUCKETS = 32;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+        void record(final long nanos) {
+            final long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(0, nanos));
+            final int bucket = Math.min(BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(micros));
+
+            this.counts.incrementAndGet(bucket);
+        }
+
+        public long getCount() {
+            long result = 0;
+
+            for (int i = 0; i < BUCKETS; i++) {
+                result += this.counts.get(i);
+            }
+
+            return result;
+        }
+
+        public long[] getBucketCounts() {
+            final long[] result = new long[BUCKETS];
+
+            for (int i = 0; i < BUCKETS; i++) {
+                result[i] = this.counts.get(i);
+            }
+
+            return result;
+        }
+
+        /**
+         * Returns an upper bound of the given percentile, with the resolution of the histogram buckets.
+         *
+         * @param percentile
+         *            the percentile, between 0 and 100
+         * @param unit
+         *            the unit of the result
+         * @return the upper bound of the bucket that contains the percentile, or 0 if no value has been recorded
+         */
+        public long getPercentile(final double percentile, final TimeUnit unit) {
+            final long[] bucketCounts = getBucketCounts();
+
+            long total = 0;
+            for (final long count : bucketCounts) {
+                total += count;
+            }
+
+            if (total == 0) {
+                return 0;
+            }
+
+            final long target = Math.max(1, (long) Math.ceil(total * percentile / 100));
+
+            long cumulative = 0;
+            int bucket = 0;
+            while (bucket < BUCKETS - 1) {
+                cumulative += bucketCounts[bucket];
+                if (cumulative >= target) {
+                    break;
+                }
+                bucket++;
+            }
+
+            return unit.convert(1L << bucket, TimeUnit.MICROSECONDS);
+        }
+
+        @Override
+        public String toString() {
+            return "p50/p99 <= " + getPercentile(50, TimeUnit.MICROSECONDS) + "/"
+                    + getPercentile(99, TimeUnit.MICROSECONDS) + " us";
+        }
+    }
+}
@@ -16,6 +16,7 @@ import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -95,6 +96,9 @@ public class DataServiceImpl implements DataService, DataTransportListener, Conf
 
     private Optional<MessageStoreState> storeState = Optional.empty();
 
+    // messages that passed the store capacity check but are not stored yet
+    private final AtomicInteger pendingStoreCount = new AtomicInteger();
+
     private Map<DataTransportToken, Integer> inFlightMsgIds = new ConcurrentHashMap<>();
 
     private ScheduledExecutorService congestionExecutor;
@@ -617,25 +621,36 @@ public class DataServiceImpl implements DataService, DataTransportListener, Conf
                 final MessageStore currentStore = this.storeState.get().getOrOpenMessageStore();
                 final int messageId;
 
-                synchronized (currentStore) {
-                    // Priority 0 are used for life-cycle messages like birth and death
-                    // certificates.
-                    // Priority 1 are used for remove management by Cloudlet applications.
-                    // For those messages, bypass the maximum message count check of the DB cache.
-                    // We want to publish those message even if the DB is full, so allow their
-                    // storage.
-                    if (priority != 0 && priority != 1) {
-                        int count = currentStore.getMessageCount();
+                // Priority 0 are used for life-cycle messages like birth and death
+                // certificates.
+                // Priority 1 are used for remove management by Cloudlet applications.
+                // For those messages, bypass the maximum message count check of the DB cache.
+                // We want to publish those message even if the DB is full, so allow their
+                // storage.
+                final boolean isCapacityChecked = priority != 0 && priority != 1;
+
+                if (isCapacityChecked) {
+                    synchronized (currentStore) {
+                        int count = currentStore.getMessageCount() + this.pendingStoreCount.get();
                         logger.debug("Store message count: {}", count);
                         if (count >= this.dataServiceOptions.getStoreCapacity()) {
                             logger.error("Store capacity exceeded");
                             throw new KuraStoreCapacityReachedException("Store capacity exceeded");
                         }
+                        this.pendingStoreCount.incrementAndGet();
                     }
+                }
 
+                // the message is stored without holding the store lock, this allows stores supporting group commit
+                // to insert messages published concurrently in a single transaction
+                try {
                     messageId = currentStore.store(topic, payload, qos, retain, priority);
-                    logger.info("Stored message on topic: {}, priority: {}", topic, priority);
+                } finally {
+                    if (isCapacityChecked) {
+                        this.pendingStoreCount.decrementAndGet();
+                    }
                 }
+                logger.info("Stored message on topic: {}, priority: {}", topic, priority);
 
                 signalPublisher();
 
@@ -922,15 +937,21 @@ public class DataServiceImpl implements DataService, DataTransportListener, Conf
 
                 if (DataServiceImpl.this.dataTransportService.isConnected()) {
                     try {
-                        if (DataServiceImpl.this.storeState.isPresent()) {
+                        if (DataServiceImpl.this.storeState.isPresent()
+                                && DataServiceImpl.this.dataServiceOptions.getStorePublishBatchSize() > 1) {
+                            final BatchPublishResult result = publishBatch(DataServiceImpl.this.storeState.get()
+                                    .getOrOpenMessageStore());
+
+                            messagePublished = result.messagePublished;
+                            sleepingTime = result.sleepingTime;
+                        } else if (DataServiceImpl.this.storeState.isPresent()) {
                             final Optional<StoredMessage> message = DataServiceImpl.this.storeState.get()
                                     .getOrOpenMessageStore().getNextMessage();
 
                             if (message.isPresent()) {
                                 checkInFlightMessages(message.get());
 
-                                if (DataServiceImpl.this.dataServiceOptions.isRateLimitEnabled()
-                                        && message.get().getPriority() >= 5) {
+                                if (isRateLimited(message.get())) {
                                     messagePublished = publishMessageTokenBucket(message.get());
                                     sleepingTime = DataServiceImpl.this.throttle.getTokenWaitTime();
                                 } else {
@@ -959,13 +980,101 @@ public class DataServiceImpl implements DataService, DataTransportListener, Conf
         }
 
         private void checkInFlightMessages(StoredMessage message) throws KuraTooManyInflightMessagesException {
-            if (message.getQos() > 0 && DataServiceImpl.this.inFlightMsgIds
-                    .size() >= DataServiceImpl.this.dataServiceOptions.getMaxInFlightMessages()) {
+            if (isInFlightWindowFull(message)) {
                 logger.warn("The configured maximum number of in-flight messages has been reached");
                 throw new KuraTooManyInflightMessagesException("Too many in-flight messages");
             }
         }
 
+        private boolean isInFlightWindowFull(StoredMessage message) {
+            return message.getQos() > 0 && DataServiceImpl.this.inFlightMsgIds
+                    .size() >= DataServiceImpl.this.dataServiceOptions.getMaxInFlightMessages();
+        }
+
+        private boolean isRateLimited(StoredMessage message) {
+            return DataServiceImpl.this.dataServiceOptions.isRateLimitEnabled() && message.getPriority() >= 5;
+        }
+
+        // Fetches up to store.publish-batch-size messages with a single query, publishes them while the
+        // in-flight window and the token bucket allow it, and marks all the published messages in a single
+        // transaction. Messages that cannot be published are left untouched and will be fetched again by
+        // the next iteration.
+        private BatchPublishResult publishBatch(final MessageStore store) throws KuraException {
+            final List<StoredMessage> messages = store
+                    .getNextMessages(DataServiceImpl.this.dataServiceOptions.getStorePublishBatchSize());
+
+            if (messages.isEmpty()) {
+                return new BatchPublishResult(false, -1);
+            }
+
+            final Map<Integer, Optional<DataTransportToken>> published = new LinkedHashMap<>();
+            final List<StoredMessage> publishedMessages = new ArrayList<>(messages.size());
+            long sleepingTime = -1;
+
+            try {
+                for (final StoredMessage message : messages) {
+                    if (published.isEmpty()) {
+                        checkInFlightMessages(message);
+                    } else if (isInFlightWindowFull(message)) {
+                        break;
+                    }
+
+                    if (isRateLimited(message) && !DataServiceImpl.this.throttle.getToken()) {
+                        sleepingTime = DataServiceImpl.this.throttle.getTokenWaitTime();
+                        break;
+                    }
+
+                    published.put(message.getId(), Optional.ofNullable(publishBatchMessage(message)));
+                    publishedMessages.add(message);
+                }
+            } finally {
+                // also reached if a publish fails, the messages published before it must still be reported
+                markBatchAsPublished(store, published);
+
+                for (final StoredMessage message : publishedMessages) {
+                    DataServiceImpl.this.dataServiceListeners.onMessagePublished(message.getId(),
+                            message.getTopic());
+                }
+            }
+
+            return new BatchPublishResult(!published.isEmpty(), sleepingTime);
+        }
+
+        private DataTransportToken publishBatchMessage(StoredMessage message) throws KuraException {
+            final int msgId = message.getId();
+
+            logger.debug("Publishing message with ID: {} on topic: {}, priority: {}", msgId, message.getTopic(),
+                    message.getPriority());
+
+            final DataTransportToken token = DataServiceImpl.this.dataTransportService.publish(message.getTopic(),
+                    message.getPayload(), message.getQos(), message.isRetain());
+
+            if (token != null) {
+                Integer trackedMsgId = DataServiceImpl.this.inFlightMsgIds.get(token);
+                if (trackedMsgId != null) {
+                    logger.error("Token already tracked: {} - {}", token.getSessionId(), token.getMessageId());
+                }
+
+                DataServiceImpl.this.inFlightMsgIds.put(token, msgId);
+            }
+
+            return token;
+        }
+
+        private void markBatchAsPublished(final MessageStore store,
+                final Map<Integer, Optional<DataTransportToken>> published) {
+            if (published.isEmpty()) {
+                return;
+            }
+
+            try {
+                store.markAsPublished(published);
+                logger.debug("Published batch of {} messages", published.size());
+            } catch (KuraStoreException e) {
+                DataServiceImpl.this.disconnectDataTransportAndLog(e);
+            }
+        }
+
         private void suspendPublisher(long timeout, TimeUnit timeUnit) {
             if (!DataServiceImpl.this.publisherEnabled.get()) {
                 return;
@@ -1067,6 +1176,17 @@ public class DataServiceImpl implements DataService, DataTransportListener, Conf
         }
     }
 
+    private static final class BatchPublishResult {
+
+        private final boolean messagePublished;
+        private final long sleepingTime;
+
+        BatchPublishResult(final boolean messagePublished, final long sleepingTime) {
+            this.messagePublished = messagePublished;
+            this.sleepingTime = sleepingTime;
+        }
+    }
+
     @Override
     public String getCriticalComponentName() {
         return "DataServiceImpl";
@@ -1083,6 +1203,17 @@ public class DataServiceImpl implements DataService, DataTransportListener, Conf
         result.put("Account", this.dataTransportService.getAccountName());
         result.put("Username", this.dataTransportService.getUsername());
         result.put("Client ID", this.dataTransportService.getClientId());
+
+        final Optional<MessageStore> currentStore = this.storeState.flatMap(MessageStoreState::getMessageStore);
+
+        if (currentStore.isPresent()) {
+            try {
+                result.put("Stored Messages", Integer.toString(currentStore.get().getMessageCount()));
+            } catch (KuraStoreException e) {
+                logger.debug("Cannot retrieve store message count", e);
+            }
+        }
+
         return result;
     }
 
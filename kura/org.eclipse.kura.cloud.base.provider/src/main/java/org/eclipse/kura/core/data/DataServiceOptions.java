@@ -35,6 +35,7 @@ public class DataServiceOptions {
     private static final String STORE_HOUSEKEEPER_INTERVAL_PROP_NAME = "store.housekeeper-interval";
     private static final String STORE_PURGE_AGE_PROP_NAME = "store.purge-age";
     private static final String STORE_CAPACITY_PROP_NAME = "store.capacity";
+    private static final String STORE_PUBLISH_BATCH_SIZE_PROP_NAME = "store.publish-batch-size";
     private static final String REPUBLISH_IN_FLIGHT_MSGS_PROP_NAME = "in-flight-messages.republish-on-new-session";
     private static final String MAX_IN_FLIGHT_MSGS_PROP_NAME = "in-flight-messages.max-number";
     private static final String IN_FLIGHT_MSGS_CONGESTION_TIMEOUT_PROP_NAME = "in-flight-messages.congestion-timeout";
@@ -58,6 +59,7 @@ public class DataServiceOptions {
     private static final int STORE_HOUSEKEEPER_INTERVAL_DEFAULT = 900;
     private static final int STORE_PURGE_AGE_DEFAULT = 60;
     private static final int STORE_CAPACITY_DEFAULT = 10000;
+    private static final int STORE_PUBLISH_BATCH_SIZE_DEFAULT = 1;
     private static final boolean REPUBLISH_IN_FLIGHT_MSGS_DEFAULT = true;
     private static final int MAX_IN_FLIGHT_MSGS_DEFAULT = 9;
     private static final int IN_FLIGHT_MSGS_CONGESTION_TIMEOUT_DEFAULT = 0;
@@ -95,6 +97,11 @@ public class DataServiceOptions {
         return (int) this.properties.getOrDefault(STORE_CAPACITY_PROP_NAME, STORE_CAPACITY_DEFAULT);
     }
 
+    public int getStorePublishBatchSize() {
+        return Math.max(1, (int) this.properties.getOrDefault(STORE_PUBLISH_BATCH_SIZE_PROP_NAME,
+                STORE_PUBLISH_BATCH_SIZE_DEFAULT));
+    }
+
     public boolean isPublishInFlightMessages() {
         return (boolean) this.properties.getOrDefault(REPUBLISH_IN_FLIGHT_MSGS_PROP_NAME,
                 REPUBLISH_IN_FLIGHT_MSGS_DEFAULT);
@@ -59,6 +59,10 @@ public class MessageStoreState {
         return messageStoreProvider;
     }
 
+    public synchronized Optional<MessageStore> getMessageStore() {
+        return this.messageStore;
+    }
+
     public synchronized MessageStore getOrOpenMessageStore() throws KuraStoreException {
         if (this.messageStore.isPresent()) {
             return this.messageStore.get();
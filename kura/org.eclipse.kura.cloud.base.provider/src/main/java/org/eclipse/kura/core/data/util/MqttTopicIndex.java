@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.core.data.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
+
+/**
+ * Associates values to MQTT topic filters and retrieves the values whose topic filter matches a given topic name.
+ * <p>
+ * The topic filters are stored in a tree with one level per node, so that the cost of a lookup depends on the number
+ * of levels of the topic name and on the number of wildcards that can match it, rather than on the number of topic
+ * filters. The single level ({@code +}) and multi level ({@code #}) wildcards are supported.
+ * <p>
+ * Lookups do not acquire locks and can be performed concurrently with modifications.
+ *
+ * @param <T>
+ *            the type of the values
+ */
+public final class MqttTopicIndex<T> {
+
+    private static final String SINGLE_LEVEL_WILDCARD = "+";
+    private static final String MULTI_LEVEL_WILDCARD = "#";
+
+    private final Node<T> root = new Node<>();
+
+    /**
+     * Adds a value for the given topic filter.
+     *
+     * @param topicFilter
+     *            the topic filter
+     * @param value
+     *            the value
+     * @return {@code true} if the value was not already associated to the topic filter
+     */
+    public synchronized boolean add(final String topicFilter, final T value) {
+        Node<T> node = this.root;
+
+        for (final String level : split(topicFilter)) {
+            node = node.children.computeIfAbsent(level, l -> new Node<>());
+        }
+
+        return node.values.add(value);
+    }
+
+    /**
+     * Removes a value from the given topic filter.
+     *
+     * @param topicFilter
+     *            the topic filter
+     * @param value
+     *            the value
+     * @return {@code true} if the value was associated to the topic filter
+     */
+    public synchronized boolean remove(final String topicFilter, final T value) {
+        final String[] levels = split(topicFilter);
+        final List<Node<T>> path = new ArrayList<>(levels.length + 1);
+
+        Node<T> node = this.root;
+        path.add(node);
+
+        for (final String level : levels) {
+            node = node.children.get(level);
+
+            if (node == null) {
+                return false;
+            }
+
+            path.add(node);
+        }
+
+        if (!node.values.remove(value)) {
+            return false;
+        }
+
+        for (int i = levels.length; i > 0 && path.get(i).isEmpty(); i--) {
+            path.get(i - 1).children.remove(levels[i - 1]);
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the values associated to the topic filters that match the given topic name.
+     *
+     * @param topicName
+     *            the topic name, without wildcards
+     * @return the matching values
+     */
+    public List<T> getMatching(final String topicName) {
+        final List<T> result = new ArrayList<>();
+
+        forEachMatching(topicName, result::add);
+
+        return result;
+    }
+
+    /**
+     * Invokes the given consumer for every value associated to a topic filter that matches the given topic name.
+     *
+     * @param topicName
+     *            the topic name, without wildcards
+     * @param consumer
+     *            the consumer
+     */
+    public void forEachMatching(final String topicName, final Consumer<? super T> consumer) {
+        collect(this.root, split(topicName), 0, consumer);
+    }
+
+    public boolean isEmpty() {
+        return this.root.children.isEmpty() && this.root.values.isEmpty();
+    }
+
+    private static <T> void collect(final Node<T> node, final String[] levels, final int index,
+            final Consumer<? super T> consumer) {
+
+        // the multi level wildcard also matches the parent level
+        final Node<T> multiLevel = node.children.get(MULTI_LEVEL_WILDCARD);
+
+        if (multiLevel != null) {
+            multiLevel.values.forEach(consumer);
+        }
+
+        if (index == levels.length) {
+            node.values.forEach(consumer);
+            return;
+        }
+
+        final Node<T> exact = node.children.get(levels[index]);
+
+        if (exact != null) {
+            collect(exact, levels, index + 1, consumer);
+        }
+
+        final Node<T> singleLevel = node.children.get(SINGLE_LEVEL_WILDCARD);
+
+        if (singleLevel != null) {
+            collect(singleLevel, levels, index + 1, consumer);
+        }
+    }
+
+    private static String[] split(final String topic) {
+        int count = 1;
+
+        for (int i = 0; i < topic.length(); i++) {
+            if (topic.charAt(i) == '/') {
+                count++;
+            }
+        }
+
+        final String[] levels = new String[count];
+
+        int start = 0;
+
+        for (int i = 0; i < count - 1; i++) {
+            final int end = topic.indexOf('/', start);
+            levels[i] = topic.substring(start, end);
+            start = end + 1;
+        }
+
+        levels[count - 1] = topic.substring(start);
+
+        return levels;
+    }
+
+    private static final class Node<T> {
+
+        private final Map<String, Node<T>> children = new ConcurrentHashMap<>();
+        private final Set<T> values = new CopyOnWriteArraySet<>();
+
+        private boolean isEmpty() {
+            return this.children.isEmpty() && this.values.isEmpty();
+        }
+    }
+}
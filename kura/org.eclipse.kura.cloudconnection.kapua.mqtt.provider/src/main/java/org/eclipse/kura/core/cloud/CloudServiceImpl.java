@@ -52,7 +52,6 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 import org.eclipse.kura.KuraConnectException;
 import org.eclipse.kura.KuraErrorCode;
@@ -80,6 +79,7 @@ import org.eclipse.kura.configuration.ConfigurationService;
 import org.eclipse.kura.core.cloud.publisher.NotificationPublisherImpl;
 import org.eclipse.kura.core.cloud.subscriber.CloudSubscriptionRecord;
 import org.eclipse.kura.core.data.DataServiceImpl;
+import org.eclipse.kura.core.data.util.MqttTopicIndex;
 import org.eclipse.kura.data.DataService;
 import org.eclipse.kura.data.listener.DataServiceListener;
 import org.eclipse.kura.marshalling.Marshaller;
@@ -146,10 +146,12 @@ public class CloudServiceImpl
 
     // use a synchronized implementation for the list
     private final List<CloudClientImpl> cloudClients;
+    private final Map<String, List<CloudClientImpl>> cloudClientsByApplicationId;
     private final Set<CloudConnectionListener> registeredCloudConnectionListeners;
     private final Set<CloudPublisherDeliveryListener> registeredCloudPublisherDeliveryListeners;
     private final Set<CloudDeliveryListener> registeredCloudDeliveryListeners;
     private final Map<CloudSubscriptionRecord, List<CloudSubscriberListener>> registeredSubscribers;
+    private final MqttTopicIndex<CloudSubscriptionRecord> subscriptionIndex;
 
     // package visibility for LyfeCyclePayloadBuilder
     String imei;
@@ -180,9 +182,11 @@ public class CloudServiceImpl
 
     public CloudServiceImpl() {
         this.cloudClients = new CopyOnWriteArrayList<>();
+        this.cloudClientsByApplicationId = new ConcurrentHashMap<>();
         this.messageId = new AtomicInteger();
         this.registeredRequestHandlers = new HashMap<>();
         this.registeredSubscribers = new ConcurrentHashMap<>();
+        this.subscriptionIndex = new MqttTopicIndex<>();
         this.registeredCloudConnectionListeners = new CopyOnWriteArraySet<>();
         this.registeredCloudPublisherDeliveryListeners = new CopyOnWriteArraySet<>();
         this.registeredCloudDeliveryListeners = new CopyOnWriteArraySet<>();
@@ -397,6 +401,7 @@ public class CloudServiceImpl
         // certificate is already published due the missing dependency
         // we only need to empty our CloudClient list
         this.cloudClients.clear();
+        this.cloudClientsByApplicationId.clear();
 
         this.dataService = null;
         this.systemService = null;
@@ -461,6 +466,11 @@ public class CloudServiceImpl
         // create new instance
         CloudClientImpl cloudClient = new CloudClientImpl(applicationId, this.dataService, this);
         this.cloudClients.add(cloudClient);
+        this.cloudClientsByApplicationId.compute(applicationId, (id, clients) -> {
+            final List<CloudClientImpl> result = clients != null ? clients : new CopyOnWriteArrayList<>();
+            result.add(cloudClient);
+            return result;
+        });
 
         // publish updated birth certificate with list of active apps
         if (isConnected()) {
@@ -502,6 +512,10 @@ public class CloudServiceImpl
     public void removeCloudClient(CloudClientImpl cloudClient) {
         // remove the client
         this.cloudClients.remove(cloudClient);
+        this.cloudClientsByApplicationId.computeIfPresent(cloudClient.getApplicationId(), (id, clients) -> {
+            clients.remove(cloudClient);
+            return clients.isEmpty() ? null : clients;
+        });
 
         // publish updated birth certificate with updated list of active apps
         if (isConnected()) {
@@ -648,10 +662,8 @@ public class CloudServiceImpl
             callbackExecutor.submit(new MessageHandlerCallable(cloudlet, applicationId, kuraTopic.getApplicationTopic(),
                     kuraPayload, this));
         }
-        this.cloudClients.stream()
-                .filter(cloudClient -> cloudClient.getApplicationId().equals(kuraTopic.getApplicationId()))
-                .forEach(cloudClient -> cloudClient.onControlMessageArrived(kuraTopic.getDeviceId(),
-                        kuraTopic.getApplicationTopic(), kuraPayload, qos, retained));
+        getCloudClients(applicationId).forEach(cloudClient -> cloudClient.onControlMessageArrived(
+                kuraTopic.getDeviceId(), kuraTopic.getApplicationTopic(), kuraPayload, qos, retained));
 
         Map<String, Object> properties = new HashMap<>();
         properties.put("deviceId", kuraTopic.getDeviceId());
@@ -659,16 +671,12 @@ public class CloudServiceImpl
 
         KuraMessage receivedMessage = new KuraMessage(kuraPayload, properties);
 
-        this.registeredSubscribers.entrySet().stream()
-                .filter(cloudSubscriberEntry -> cloudSubscriberEntry.getKey().matches(kuraTopic.getFullTopic()))
-                .forEach(e -> dispatchMessage(receivedMessage, e.getValue()));
+        dispatchMessage(receivedMessage, kuraTopic.getFullTopic());
     }
 
     private void dispatchDataMessage(int qos, boolean retained, KuraTopicImpl kuraTopic, KuraPayload kuraPayload) {
-        this.cloudClients.stream()
-                .filter(cloudClient -> cloudClient.getApplicationId().equals(kuraTopic.getApplicationId()))
-                .forEach(cloudClient -> cloudClient.onMessageArrived(kuraTopic.getDeviceId(),
-                        kuraTopic.getApplicationTopic(), kuraPayload, qos, retained));
+        getCloudClients(kuraTopic.getApplicationId()).forEach(cloudClient -> cloudClient
+                .onMessageArrived(kuraTopic.getDeviceId(), kuraTopic.getApplicationTopic(), kuraPayload, qos, retained));
 
         Map<String, Object> properties = new HashMap<>();
         properties.put("deviceId", kuraTopic.getDeviceId());
@@ -676,9 +684,24 @@ public class CloudServiceImpl
 
         KuraMessage receivedMessage = new KuraMessage(kuraPayload, properties);
 
-        this.registeredSubscribers.entrySet().stream()
-                .filter(cloudSubscriberEntry -> cloudSubscriberEntry.getKey().matches(kuraTopic.getFullTopic()))
-                .forEach(e -> dispatchMessage(receivedMessage, e.getValue()));
+        dispatchMessage(receivedMessage, kuraTopic.getFullTopic());
+    }
+
+    private void dispatchMessage(final KuraMessage message, final String fullTopic) {
+        this.subscriptionIndex.forEachMatching(fullTopic, subscriptionRecord -> {
+            final List<CloudSubscriberListener> listeners = this.registeredSubscribers.get(subscriptionRecord);
+
+            if (listeners != null) {
+                dispatchMessage(message, listeners);
+            }
+        });
+    }
+
+    private List<CloudClientImpl> getCloudClients(final String applicationId) {
+        if (isNull(applicationId)) {
+            return Collections.emptyList();
+        }
+        return this.cloudClientsByApplicationId.getOrDefault(applicationId, Collections.emptyList());
     }
 
     private static void dispatchMessage(final KuraMessage message, final List<CloudSubscriberListener> listeners) {
@@ -718,9 +741,7 @@ public class CloudServiceImpl
 
         // notify listeners
         KuraApplicationTopic kuraTopic = new KuraTopicImpl(topic, this.options.getTopicControlPrefix());
-        this.cloudClients.stream()
-                .filter(cloudClient -> cloudClient.getApplicationId().equals(kuraTopic.getApplicationId()))
-                .collect(Collectors.toList())
+        getCloudClients(kuraTopic.getApplicationId())
                 .forEach(cloudClient -> cloudClient.onMessagePublished(messageId, kuraTopic.getApplicationTopic()));
     }
 
@@ -736,9 +757,7 @@ public class CloudServiceImpl
 
         // notify listeners
         KuraApplicationTopic kuraTopic = new KuraTopicImpl(topic, this.options.getTopicControlPrefix());
-        this.cloudClients.stream()
-                .filter(cloudClient -> cloudClient.getApplicationId().equals(kuraTopic.getApplicationId()))
-                .collect(Collectors.toList())
+        getCloudClients(kuraTopic.getApplicationId())
                 .forEach(cloudClient -> cloudClient.onMessageConfirmed(messageId, kuraTopic.getApplicationTopic()));
 
         this.registeredCloudPublisherDeliveryListeners
@@ -1069,6 +1088,7 @@ public class CloudServiceImpl
         synchronized (this) {
             subscribers = this.registeredSubscribers.compute(subscriptionRecord, (t, list) -> {
                 if (list == null) {
+                    this.subscriptionIndex.add(t.getTopicFilter(), t);
                     return new CopyOnWriteArrayList<>(Collections.singletonList(subscriber));
                 }
                 list.add(subscriber);
@@ -1094,6 +1114,7 @@ public class CloudServiceImpl
 
                 if (subscribers.isEmpty()) {
                     toUnsubscribe.add(e.getKey());
+                    this.subscriptionIndex.remove(e.getKey().getTopicFilter(), e.getKey());
                     return true;
                 } else {
                     return false;
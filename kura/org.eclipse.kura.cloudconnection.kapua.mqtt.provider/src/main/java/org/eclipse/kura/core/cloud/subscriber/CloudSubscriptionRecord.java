@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2018, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -19,12 +19,13 @@ public class CloudSubscriptionRecord {
 
     private final String topic;
     private final int qos;
-
-    private String topicFilter;
+    private final String topicFilter;
 
     public CloudSubscriptionRecord(final String topic, final int qos) {
         this.topic = topic;
         this.qos = qos;
+        this.topicFilter = topic.replaceAll(CloudServiceOptions.getTopicAccountToken(), "+")
+                .replaceAll(CloudServiceOptions.getTopicClientIdToken(), "+");
     }
 
     public String getTopic() {
@@ -35,11 +36,15 @@ public class CloudSubscriptionRecord {
         return this.qos;
     }
 
+    /**
+     * @return the topic filter to be used to match the incoming messages, with the account name and client id
+     *         tokens replaced by single level wildcards
+     */
+    public String getTopicFilter() {
+        return this.topicFilter;
+    }
+
     public boolean matches(final String topic) {
-        if (topicFilter == null) {
-            topicFilter = this.topic.replaceAll(CloudServiceOptions.getTopicAccountToken(), "+")
-                    .replaceAll(CloudServiceOptions.getTopicClientIdToken(), "+");
-        }
         return MqttTopicUtil.isMatched(this.topicFilter, topic);
     }
 
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.cloudconnection.sparkplug.mqtt.device;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+
+/**
+ * Keeps track of the last reported value of the metrics of a Sparkplug Device, so that only the metrics that changed
+ * since the last report are published.
+ * <p>
+ * Numeric metrics are considered changed if the difference from the last reported value is greater than both the
+ * absolute deadband and the percent deadband, computed on the last reported value. All other metrics are considered
+ * changed if they are not equal to the last reported value.
+ */
+public class ReportByExceptionCache {
+
+    private final double absoluteDeadband;
+    private final double percentDeadband;
+    private final Map<String, Object> lastReportedValues = new HashMap<>();
+
+    public ReportByExceptionCache(final double absoluteDeadband, final double percentDeadband) {
+        if (absoluteDeadband < 0 || percentDeadband < 0) {
+            throw new IllegalArgumentException("Deadbands cannot be negative");
+        }
+
+        this.absoluteDeadband = absoluteDeadband;
+        this.percentDeadband = percentDeadband;
+    }
+
+    /**
+     * Discards the previously reported values and replaces them with the provided ones, to be called when all metrics
+     * are reported, as with device birth messages.
+     */
+    public synchronized void reset(final Map<String, Object> metrics) {
+        this.lastReportedValues.clear();
+        this.lastReportedValues.putAll(metrics);
+    }
+
+    /**
+     * Returns the metrics that changed since the last report, and records them as reported.
+     */
+    public synchronized Map<String, Object> filter(final Map<String, Object> metrics) {
+        final Map<String, Object> result = new LinkedHashMap<>();
+
+        for (final Entry<String, Object> metric : metrics.entrySet()) {
+            final String name = metric.getKey();
+            final Object value = metric.getValue();
+
+            if (!this.lastReportedValues.containsKey(name) || isChanged(this.lastReportedValues.get(name), value)) {
+                this.lastReportedValues.put(name, value);
+                result.put(name, value);
+            }
+        }
+
+        return result;
+    }
+
+    private boolean isChanged(final Object last, final Object value) {
+        if (Objects.isNull(last) || Objects.isNull(value) || last.getClass() != value.getClass()) {
+            return !Objects.equals(last, value);
+        }
+
+        if (value instanceof Number) {
+            if (this.absoluteDeadband == 0 && this.percentDeadband == 0) {
+                return !value.equals(last);
+            }
+
+            return isOutsideDeadband(((Number) last).doubleValue(), ((Number) value).doubleValue());
+        }
+
+        if (value instanceof byte[]) {
+            return !Arrays.equals((byte[]) last, (byte[]) value);
+        }
+
+        if (value instanceof Date) {
+            return ((Date) last).getTime() != ((Date) value).getTime();
+        }
+
+        return !value.equals(last);
+    }
+
+    private boolean isOutsideDeadband(final double last, final double value) {
+        final double delta = Math.abs(value - last);
+
+        if (Double.isNaN(delta)) {
+            return Double.isNaN(last) != Double.isNaN(value);
+        }
+
+        return delta > this.absoluteDeadband && delta > this.percentDeadband / 100 * Math.abs(last);
+    }
+}
@@ -12,15 +12,19 @@
  *******************************************************************************/
 package org.eclipse.kura.cloudconnection.sparkplug.mqtt.device;
 
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.eclipse.kura.KuraErrorCode;
 import org.eclipse.kura.KuraException;
@@ -30,10 +34,12 @@ import org.eclipse.kura.cloudconnection.listener.CloudDeliveryListener;
 import org.eclipse.kura.cloudconnection.message.KuraMessage;
 import org.eclipse.kura.cloudconnection.publisher.CloudPublisher;
 import org.eclipse.kura.cloudconnection.sparkplug.mqtt.endpoint.SparkplugCloudEndpoint;
+import org.eclipse.kura.cloudconnection.sparkplug.mqtt.message.SparkplugBProtobufPayloadBuilder;
 import org.eclipse.kura.cloudconnection.sparkplug.mqtt.message.SparkplugMessageType;
 import org.eclipse.kura.cloudconnection.sparkplug.mqtt.utils.InvocationUtils;
 import org.eclipse.kura.cloudconnection.sparkplug.mqtt.utils.SparkplugCloudEndpointTracker;
 import org.eclipse.kura.configuration.ConfigurableComponent;
+import org.eclipse.kura.message.KuraPayload;
 import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
@@ -46,6 +52,11 @@ public class SparkplugDevice
 
     public static final String KEY_MESSAGE_TYPE = "message.type";
     public static final String KEY_DEVICE_ID = "device.id";
+    public static final String KEY_METRIC_ALIASES = "metric.aliases";
+    public static final String KEY_METRIC_ALIASES_ENABLED = "metric.aliases.enabled";
+    public static final String KEY_REPORT_BY_EXCEPTION_ENABLED = "report.by.exception.enabled";
+    public static final String KEY_DEADBAND_ABSOLUTE = "deadband.absolute";
+    public static final String KEY_DEADBAND_PERCENT = "deadband.percent";
 
     private String deviceId;
     private SparkplugCloudEndpointTracker endpointTracker;
@@ -54,6 +65,12 @@ public class SparkplugDevice
     private final Set<CloudDeliveryListener> cloudDeliveryListeners = new CopyOnWriteArraySet<>();
     private final ExecutorService executorService = Executors.newCachedThreadPool();
     private Set<String> deviceMetrics = new HashSet<>();
+    private boolean metricAliasesEnabled;
+    private boolean reportByExceptionEnabled;
+    private Map<String, Long> metricAliases = new HashMap<>();
+    private ReportByExceptionCache reportByExceptionCache = new ReportByExceptionCache(0, 0);
+    private final LongAdder bytesSavedByAliases = new LongAdder();
+    private final LongAdder bytesSavedByReportByException = new LongAdder();
 
     /*
      * ConfigurableComponent APIs
@@ -72,14 +89,24 @@ public class SparkplugDevice
     }
 
     public void update(final Map<String, Object> properties) {
-        this.deviceId = (String) properties.get(KEY_DEVICE_ID);
-        if (Objects.isNull(this.deviceId) || this.deviceId.trim().isEmpty()) {
+        final String newDeviceId = (String) properties.get(KEY_DEVICE_ID);
+        if (Objects.isNull(newDeviceId) || newDeviceId.trim().isEmpty()) {
             throw new IllegalArgumentException("Property '" + KEY_DEVICE_ID + "' cannot be null or empty");
         }
 
-        this.deviceMetrics.clear();
+        final double absoluteDeadband = getOrDefault(properties, KEY_DEADBAND_ABSOLUTE, 0.0d);
+        final double percentDeadband = getOrDefault(properties, KEY_DEADBAND_PERCENT, 0.0d);
+
+        // the device state is read by publish(), update it under the same lock
+        synchronized (this) {
+            this.deviceId = newDeviceId;
+            this.metricAliasesEnabled = getOrDefault(properties, KEY_METRIC_ALIASES_ENABLED, false);
+            this.reportByExceptionEnabled = getOrDefault(properties, KEY_REPORT_BY_EXCEPTION_ENABLED, false);
+            this.reportByExceptionCache = new ReportByExceptionCache(absoluteDeadband, percentDeadband);
+            resetDeviceState();
+        }
 
-        logger.info("Sparkplug Device {} - Updated device ID", this.deviceId);
+        logger.info("Sparkplug Device {} - Updated device ID", newDeviceId);
     }
 
     public void deactivate() {
@@ -99,19 +126,19 @@ public class SparkplugDevice
 
     @Override
     public void onDisconnected() {
-        this.deviceMetrics.clear();
+        resetDeviceState();
         this.cloudConnectionListeners.forEach(listener -> this.executorService.execute(listener::onDisconnected));
     }
 
     @Override
     public void onConnectionLost() {
-        this.deviceMetrics.clear();
+        resetDeviceState();
         this.cloudConnectionListeners.forEach(listener -> this.executorService.execute(listener::onConnectionLost));
     }
 
     @Override
     public void onConnectionEstablished() {
-        this.deviceMetrics.clear();
+        resetDeviceState();
         this.cloudConnectionListeners
                 .forEach(listener -> this.executorService.execute(listener::onConnectionEstablished));
     }
@@ -126,19 +153,69 @@ public class SparkplugDevice
             throw new KuraException(KuraErrorCode.SERVICE_UNAVAILABLE, "Missing SparkplugCloudEndpoint reference");
         }
 
+        KuraPayload payload = message.getPayload();
+
         final Map<String, Object> newMessageProperties = new HashMap<>();
         newMessageProperties.put(KEY_DEVICE_ID, this.deviceId);
 
-        if (this.deviceMetrics.isEmpty() || !this.deviceMetrics.equals(message.getPayload().metricNames())) {
+        final boolean isBirth = this.deviceMetrics.isEmpty() || !this.deviceMetrics.equals(payload.metricNames());
+        Map<String, Object> unchangedMetrics = Collections.emptyMap();
+
+        if (isBirth) {
             this.deviceMetrics.clear();
-            this.deviceMetrics.addAll(message.getPayload().metricNames());
+            this.deviceMetrics.addAll(payload.metricNames());
+            this.metricAliases = this.metricAliasesEnabled
+                    ? this.sparkplugCloudEndpoint.get().assignMetricAliases(this.deviceId, payload.metricNames())
+                    : Collections.emptyMap();
+            this.reportByExceptionCache.reset(payload.metrics());
             newMessageProperties.put(KEY_MESSAGE_TYPE, SparkplugMessageType.DBIRTH);
             logger.info("Sparkplug Device {} - Metrics set changed, publishing DBIRTH", this.deviceId);
         } else {
             newMessageProperties.put(KEY_MESSAGE_TYPE, SparkplugMessageType.DDATA);
+
+            if (this.reportByExceptionEnabled) {
+                final Map<String, Object> changedMetrics = this.reportByExceptionCache.filter(payload.metrics());
+                unchangedMetrics = new HashMap<>(payload.metrics());
+                unchangedMetrics.keySet().removeAll(changedMetrics.keySet());
+                payload = withMetrics(payload, changedMetrics);
+            }
+        }
+
+        if (!this.metricAliases.isEmpty()) {
+            newMessageProperties.put(KEY_METRIC_ALIASES, this.metricAliases);
         }
 
-        return this.sparkplugCloudEndpoint.get().publish(new KuraMessage(message.getPayload(), newMessageProperties));
+        final String result;
+
+        if (!isBirth && payload.metricNames().isEmpty() && Objects.isNull(payload.getBody())
+                && Objects.isNull(payload.getPosition())) {
+            logger.debug("Sparkplug Device {} - No metric changed, skipping DDATA", this.deviceId);
+            result = null;
+        } else {
+            result = this.sparkplugCloudEndpoint.get().publish(new KuraMessage(payload, newMessageProperties));
+        }
+
+        if (!isBirth && (this.metricAliasesEnabled || this.reportByExceptionEnabled)) {
+            updateBytesSaved(payload, unchangedMetrics);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns an estimate of the number of payload bytes that have not been sent thanks to the usage of metric
+     * aliases in device data messages.
+     */
+    public long getBytesSavedByAliases() {
+        return this.bytesSavedByAliases.sum();
+    }
+
+    /**
+     * Returns an estimate of the number of payload bytes that have not been sent because the corresponding metrics
+     * did not change since they were last reported.
+     */
+    public long getBytesSavedByReportByException() {
+        return this.bytesSavedByReportByException.sum();
     }
 
     @Override
@@ -175,6 +252,58 @@ public class SparkplugDevice
      * Utils
      */
 
+    private synchronized void resetDeviceState() {
+        this.deviceMetrics.clear();
+        this.metricAliases = Collections.emptyMap();
+    }
+
+    private static KuraPayload withMetrics(final KuraPayload payload, final Map<String, Object> metrics) {
+        final KuraPayload result = new KuraPayload();
+        result.setTimestamp(payload.getTimestamp());
+        result.setPosition(payload.getPosition());
+        result.setBody(payload.getBody());
+        metrics.forEach(result::addMetric);
+
+        return result;
+    }
+
+    private void updateBytesSaved(final KuraPayload payload, final Map<String, Object> unchangedMetrics) {
+        final long timestamp = Objects.nonNull(payload.getTimestamp()) ? payload.getTimestamp().getTime()
+                : new Date().getTime();
+
+        long savedByAliases = 0;
+        for (final Entry<String, Object> metric : payload.metrics().entrySet()) {
+            final Long alias = this.metricAliases.get(metric.getKey());
+            if (Objects.nonNull(alias)) {
+                savedByAliases += SparkplugBProtobufPayloadBuilder.getAliasSavedBytes(metric.getKey(), alias,
+                        metric.getValue());
+            }
+        }
+
+        long savedByReportByException = 0;
+        for (final Entry<String, Object> metric : unchangedMetrics.entrySet()) {
+            savedByReportByException += SparkplugBProtobufPayloadBuilder.getMetricSize(metric.getKey(),
+                    this.metricAliases.get(metric.getKey()), metric.getValue(), timestamp);
+        }
+
+        this.bytesSavedByAliases.add(savedByAliases);
+        this.bytesSavedByReportByException.add(savedByReportByException);
+
+        logger.debug("Sparkplug Device {} - Bytes saved by aliases: {}, by report by exception: {}", this.deviceId,
+                this.bytesSavedByAliases.sum(), this.bytesSavedByReportByException.sum());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T getOrDefault(final Map<String, Object> properties, final String key, final T defaultValue) {
+        final Object value = properties.get(key);
+
+        if (Objects.nonNull(value) && defaultValue.getClass().isInstance(value)) {
+            return (T) value;
+        }
+
+        return defaultValue;
+    }
+
     private synchronized void setSparkplugCloudEndpoint(SparkplugCloudEndpoint endpoint) {
         this.sparkplugCloudEndpoint = Optional.of(endpoint);
         this.sparkplugCloudEndpoint.get().registerCloudConnectionListener(this);
@@ -12,10 +12,12 @@
  *******************************************************************************/
 package org.eclipse.kura.cloudconnection.sparkplug.mqtt.endpoint;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -63,6 +65,8 @@ public class SparkplugCloudEndpoint
     private SeqCounter seqCounter = new SeqCounter();
     private SubscriptionsMap subscriptions = new SubscriptionsMap();
     private ExecutorService executorService = Executors.newCachedThreadPool();
+    private final Map<String, Map<String, Long>> metricAliases = new HashMap<>();
+    private long nextMetricAlias;
 
     /*
      * Activation APIs
@@ -128,10 +132,14 @@ public class SparkplugCloudEndpoint
         SparkplugMessageType type = (SparkplugMessageType) messageProperties.get(SparkplugDevice.KEY_MESSAGE_TYPE);
         String deviceId = (String) messageProperties.get(SparkplugDevice.KEY_DEVICE_ID);
 
+        @SuppressWarnings("unchecked")
+        Map<String, Long> aliases = (Map<String, Long>) messageProperties
+                .getOrDefault(SparkplugDevice.KEY_METRIC_ALIASES, Collections.emptyMap());
+
         logger.debug("{} - Sending message with seq: {}", this.kuraServicePid, this.seqCounter.getCurrent());
 
         byte[] sparkplugPayload = SparkplugPayloads.getSparkplugDevicePayload(this.seqCounter.getCurrent(),
-                message.getPayload());
+                message.getPayload(), aliases, type == SparkplugMessageType.DBIRTH);
 
         this.seqCounter.next();
 
@@ -150,6 +158,37 @@ public class SparkplugCloudEndpoint
         return null;
     }
 
+    /**
+     * Assigns the metric aliases to be defined in a device birth message. Aliases are unique across all the devices of
+     * the edge node. Metrics keep the alias they had in the previous birth of the same device, the aliases of metrics
+     * that are no longer published by the device are released. All aliases are released when a new node birth
+     * certificate is published.
+     *
+     * @param deviceId
+     *            the device identifier
+     * @param metricNames
+     *            the names of the metrics in the device birth message
+     * @return the alias of each metric
+     */
+    public synchronized Map<String, Long> assignMetricAliases(final String deviceId, final Set<String> metricNames) {
+        final Map<String, Long> previous = this.metricAliases.getOrDefault(deviceId, Collections.emptyMap());
+        final Map<String, Long> result = new HashMap<>();
+
+        for (final String metricName : new TreeSet<>(metricNames)) {
+            final Long alias = previous.get(metricName);
+            result.put(metricName, alias != null ? alias : this.nextMetricAlias++);
+        }
+
+        this.metricAliases.put(deviceId, result);
+
+        return Collections.unmodifiableMap(result);
+    }
+
+    private synchronized void resetMetricAliases() {
+        this.metricAliases.clear();
+        this.nextMetricAlias = 0;
+    }
+
     private String publishInternal(String topic, byte[] payload, int qos, boolean retain, int priority)
             throws KuraStoreException {
         int id = this.dataService.publish(topic, payload, qos, retain, priority);
@@ -237,12 +276,15 @@ public class SparkplugCloudEndpoint
     public void onConnectionEstablished() {
         logger.debug("{} - Connection estabilished", this.kuraServicePid);
 
+        // a new node birth certificate has been published, devices define their aliases again. This must happen
+        // before notifying the listeners, that can publish a device birth from the callback
+        this.seqCounter = new SeqCounter();
+        resetMetricAliases();
+
         this.cloudConnectionListeners
                 .forEach(listener -> InvocationUtils.callSafely(listener::onConnectionEstablished));
         postConnectionChangeEvent(true);
 
-        this.seqCounter = new SeqCounter();
-
         this.subscriptions.getSubscriptionRecords()
                 .forEach(subscription -> subscribeIfConnected(subscription.getTopicFilter(), subscription.getQos()));
     }
@@ -20,16 +20,20 @@ import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
 
 import org.eclipse.kura.cloudconnection.subscriber.listener.CloudSubscriberListener;
+import org.eclipse.kura.core.data.util.MqttTopicIndex;
 
 public class SubscriptionsMap {
 
     private Map<SubscriptionRecord, Set<CloudSubscriberListener>> subscriptions = new HashMap<>();
+    private MqttTopicIndex<SubscriptionRecord> subscriptionIndex = new MqttTopicIndex<>();
 
     public void add(String topicFilter, int qos, CloudSubscriberListener listener) {
         SubscriptionRecord subscription = new SubscriptionRecord(topicFilter, qos);
 
-        Set<CloudSubscriberListener> listeners = this.subscriptions.computeIfAbsent(subscription,
-                key -> new CopyOnWriteArraySet<CloudSubscriberListener>());
+        Set<CloudSubscriberListener> listeners = this.subscriptions.computeIfAbsent(subscription, key -> {
+            this.subscriptionIndex.add(topicFilter, key);
+            return new CopyOnWriteArraySet<CloudSubscriberListener>();
+        });
 
         listeners.add(listener);
     }
@@ -42,6 +46,7 @@ public class SubscriptionsMap {
 
             if (entry.getValue().isEmpty()) {
                 topicsToUnsubscribe.add(entry.getKey().getTopicFilter());
+                this.subscriptionIndex.remove(entry.getKey().getTopicFilter(), entry.getKey());
                 return true;
             }
 
@@ -54,8 +59,10 @@ public class SubscriptionsMap {
     public List<CloudSubscriberListener> getMatchingListeners(String topic, int qos) {
         List<CloudSubscriberListener> result = new ArrayList<>();
 
-        this.subscriptions.forEach((subscription, listeners) -> {
-            if (subscription.matches(topic, qos)) {
+        this.subscriptionIndex.forEachMatching(topic, subscription -> {
+            Set<CloudSubscriberListener> listeners = this.subscriptions.get(subscription);
+
+            if (listeners != null && subscription.getQos() <= qos) {
                 result.addAll(listeners);
             }
         });
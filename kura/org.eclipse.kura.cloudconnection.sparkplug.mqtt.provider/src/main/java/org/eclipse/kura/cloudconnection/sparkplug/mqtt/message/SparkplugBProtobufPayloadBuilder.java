@@ -21,6 +21,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
 
 public class SparkplugBProtobufPayloadBuilder {
 
@@ -31,6 +32,68 @@ public class SparkplugBProtobufPayloadBuilder {
     private Payload.Builder payloadBuilder = Payload.newBuilder();
 
     public SparkplugBProtobufPayloadBuilder withMetric(String name, Object value, long timestamp) {
+        return this.withMetric(name, value, getDataType(value), timestamp);
+    }
+
+    /**
+     * Adds a metric that defines an alias, to be used in birth messages.
+     */
+    public SparkplugBProtobufPayloadBuilder withAliasedMetric(String name, long alias, Object value, long timestamp) {
+        Payload.Metric.Builder metricBuilder = newMetricBuilder(value, getDataType(value), timestamp);
+        metricBuilder.setName(name);
+        metricBuilder.setAlias(alias);
+
+        this.payloadBuilder.addMetrics(metricBuilder.build());
+
+        return this;
+    }
+
+    /**
+     * Adds a metric identified only by its alias, to be used in data messages after the alias has been defined in the
+     * birth message. The datatype is omitted as well, since it is also defined in the birth message.
+     */
+    public SparkplugBProtobufPayloadBuilder withAliasOnlyMetric(long alias, Object value, long timestamp) {
+        Payload.Metric.Builder metricBuilder = newMetricBuilder(value, getDataType(value), timestamp);
+        metricBuilder.clearDatatype();
+        metricBuilder.setAlias(alias);
+
+        this.payloadBuilder.addMetrics(metricBuilder.build());
+
+        return this;
+    }
+
+    /**
+     * Returns the number of bytes that are saved by sending a metric with an alias instead of its name and datatype.
+     */
+    public static int getAliasSavedBytes(String name, long alias, Object value) {
+        return CodedOutputStream.computeStringSize(Payload.Metric.NAME_FIELD_NUMBER, name)
+                + CodedOutputStream.computeUInt32Size(Payload.Metric.DATATYPE_FIELD_NUMBER,
+                        getDataType(value).getNumber())
+                - CodedOutputStream.computeUInt64Size(Payload.Metric.ALIAS_FIELD_NUMBER, alias);
+    }
+
+    /**
+     * Returns the number of bytes that a metric takes in a data message.
+     *
+     * @param name
+     *            the metric name
+     * @param alias
+     *            the metric alias, or {@code null} if the metric is sent by name
+     */
+    public static int getMetricSize(String name, Long alias, Object value, long timestamp) {
+        final SparkplugBProtobufPayloadBuilder builder = new SparkplugBProtobufPayloadBuilder();
+
+        if (alias != null) {
+            builder.withAliasOnlyMetric(alias, value, timestamp);
+        } else {
+            builder.withMetric(name, value, timestamp);
+        }
+
+        return CodedOutputStream.computeMessageSize(Payload.METRICS_FIELD_NUMBER,
+                builder.payloadBuilder.getMetrics(0));
+    }
+
+    private static DataType getDataType(Object value) {
         DataType sparkplugDataType = DataType.Unknown;
 
         if (value instanceof Boolean) {
@@ -80,12 +143,20 @@ public class SparkplugBProtobufPayloadBuilder {
         logger.debug("Converting Java Type: {} to Sparkplug.DataType: {}", value.getClass().getName(),
                 sparkplugDataType);
 
-        return this.withMetric(name, value, sparkplugDataType, timestamp);
+        return sparkplugDataType;
     }
 
     public SparkplugBProtobufPayloadBuilder withMetric(String name, Object value, DataType dataType, long timestamp) {
-        Payload.Metric.Builder metricBuilder = Payload.Metric.newBuilder();
+        Payload.Metric.Builder metricBuilder = newMetricBuilder(value, dataType, timestamp);
         metricBuilder.setName(name);
+
+        this.payloadBuilder.addMetrics(metricBuilder.build());
+
+        return this;
+    }
+
+    private static Payload.Metric.Builder newMetricBuilder(Object value, DataType dataType, long timestamp) {
+        Payload.Metric.Builder metricBuilder = Payload.Metric.newBuilder();
         metricBuilder.setDatatype(dataType.getNumber());
         metricBuilder.setTimestamp(timestamp);
 
@@ -157,9 +228,7 @@ public class SparkplugBProtobufPayloadBuilder {
             throw new UnsupportedOperationException("DataType " + dataType.toString() + " not implemented");
         }
 
-        this.payloadBuilder.addMetrics(metricBuilder.build());
-
-        return this;
+        return metricBuilder;
     }
 
     public SparkplugBProtobufPayloadBuilder withBdSeq(long bdSeq, long timestamp) {
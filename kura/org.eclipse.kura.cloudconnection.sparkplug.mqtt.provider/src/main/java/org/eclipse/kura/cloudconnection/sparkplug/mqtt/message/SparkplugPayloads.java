@@ -12,7 +12,9 @@
  *******************************************************************************/
 package org.eclipse.kura.cloudconnection.sparkplug.mqtt.message;
 
+import java.util.Collections;
 import java.util.Date;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 
@@ -61,6 +63,15 @@ public class SparkplugPayloads {
     }
 
     public static byte[] getSparkplugDevicePayload(final long seq, final KuraPayload kuraPayload) {
+        return getSparkplugDevicePayload(seq, kuraPayload, Collections.emptyMap(), false);
+    }
+
+    /**
+     * Builds a device payload using the provided metric aliases. Birth payloads define the aliases by sending both
+     * the metric name and alias, data payloads only carry the alias. Metrics without an alias are sent by name.
+     */
+    public static byte[] getSparkplugDevicePayload(final long seq, final KuraPayload kuraPayload,
+            final Map<String, Long> aliases, final boolean isBirth) {
         SparkplugBProtobufPayloadBuilder payloadBuilder = new SparkplugBProtobufPayloadBuilder();
 
         byte[] payloadBody = kuraPayload.getBody();
@@ -73,7 +84,15 @@ public class SparkplugPayloads {
         payloadBuilder.withTimestamp(timestamp);
 
         for (Entry<String, Object> metric : kuraPayload.metrics().entrySet()) {
-            payloadBuilder.withMetric(metric.getKey(), metric.getValue(), timestamp);
+            Long alias = aliases.get(metric.getKey());
+
+            if (Objects.isNull(alias)) {
+                payloadBuilder.withMetric(metric.getKey(), metric.getValue(), timestamp);
+            } else if (isBirth) {
+                payloadBuilder.withAliasedMetric(metric.getKey(), alias, metric.getValue(), timestamp);
+            } else {
+                payloadBuilder.withAliasOnlyMetric(alias, metric.getValue(), timestamp);
+            }
         }
 
         KuraPosition position = kuraPayload.getPosition();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2011, 2024 Eurotech and/or its affiliates and others
  *
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -31,6 +31,7 @@ import java.util.Date;
 import java.util.Dictionary;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -38,6 +39,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -91,6 +93,9 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
 
     private static final String GETTING_CONFIGURATION_ERROR = "Error getting Configuration for component: {}. Ignoring it.";
 
+    // maximum number of snapshots appended to a journal before writing a full snapshot
+    private static final int MAX_JOURNAL_RECORDS = 20;
+
     private static final Logger logger = LoggerFactory.getLogger(ConfigurationServiceImpl.class);
 
     private ComponentContext ctx;
@@ -129,6 +134,19 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
     // maps the kura.service.pid to the associated service.pid
     private final Map<String, String> servicePidByPid;
 
+    // in memory copy of the latest snapshot, passwords are encrypted
+    private Long latestSnapshotId;
+    private List<ComponentConfiguration> latestSnapshotConfigs;
+
+    // the full snapshot new snapshots are journaled against and the number of snapshots in its journal
+    private Long journalBaseId;
+    private int journalRecordCount;
+
+    // maps the ids of the snapshots that are stored only in a journal to the id of the journal base snapshot
+    private final Map<Long, Long> journalBaseIdBySnapshotId = new ConcurrentHashMap<>();
+
+    private final SnapshotJournal snapshotJournal = new SnapshotJournal();
+
     // ----------------------------------------------------------------
     //
     // Dependencies
@@ -296,6 +314,12 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
             this.bundleTracker.close();
             this.bundleTracker = null;
         }
+
+        try {
+            compactSnapshotJournal();
+        } catch (KuraException e) {
+            logger.warn("Failed to compact the snapshot journal", e);
+        }
     }
 
     // ----------------------------------------------------------------
@@ -1099,6 +1123,10 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
         Long[] snapshots = snapshotIDs.toArray(new Long[] {});
 
         for (Long snapshot : snapshots) {
+            if (this.journalBaseIdBySnapshotId.containsKey(snapshot)) {
+                // journals are always encrypted
+                continue;
+            }
             File fSnapshot = getSnapshotFile(snapshot);
             if (fSnapshot == null || !fSnapshot.exists()) {
                 throw new KuraException(KuraErrorCode.CONFIGURATION_ERROR, snapshot);
@@ -1131,10 +1159,11 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
         long sid = new Date().getTime();
 
         // Do not save the snapshot in the past
+        Long lastestID = null;
         Set<Long> snapshotIDs = getSnapshots();
         if (snapshotIDs != null && !snapshotIDs.isEmpty()) {
             Long[] snapshots = snapshotIDs.toArray(new Long[] {});
-            Long lastestID = snapshots[snapshotIDs.size() - 1];
+            lastestID = snapshots[snapshotIDs.size() - 1];
 
             if (lastestID != null && sid <= lastestID) {
                 logger.warn("Snapshot ID: {} is in the past. Adjusting ID to: {} + 1", sid, lastestID);
@@ -1142,8 +1171,20 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
             }
         }
 
-        // Write snapshot
-        writeSnapshot(sid, conf);
+        // Append the changes to the journal if the latest snapshot is known, otherwise write a full snapshot
+        if (canAppendToJournal(lastestID)) {
+            appendToJournal(sid, configsToSave);
+
+            if (this.journalRecordCount >= getMaxJournalRecords()) {
+                writeSnapshot(sid, conf);
+                setJournalBase(sid);
+            }
+        } else {
+            writeSnapshot(sid, conf);
+            setJournalBase(sid);
+        }
+
+        setLatestSnapshot(sid, configsToSave);
 
         this.pendingDeletePids.clear();
 
@@ -1210,6 +1251,198 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
         }
     }
 
+    private boolean canAppendToJournal(final Long lastestID) {
+        // the journal base 0 is never deleted, do not attach a journal to it
+        return this.latestSnapshotConfigs != null && lastestID != null && lastestID.equals(this.latestSnapshotId)
+                && this.journalBaseId != null && this.journalBaseId != 0
+                && this.journalRecordCount < getMaxJournalRecords();
+    }
+
+    private int getMaxJournalRecords() {
+        // a journal and its base are deleted together, keep them within the number of retained snapshots
+        return Math.min(MAX_JOURNAL_RECORDS, this.systemService.getKuraSnapshotsCount() - 1);
+    }
+
+    private void setJournalBase(final long sid) {
+        this.journalBaseId = sid;
+        this.journalRecordCount = 0;
+    }
+
+    private void appendToJournal(final long sid, final List<ComponentConfiguration> configs) throws KuraException {
+        final Map<String, ComponentConfiguration> previousConfigs = new HashMap<>();
+        for (final ComponentConfiguration config : this.latestSnapshotConfigs) {
+            previousConfigs.put(config.getPid(), config);
+        }
+
+        final List<ComponentConfiguration> updatedConfigs = new ArrayList<>();
+        for (final ComponentConfiguration config : configs) {
+            final ComponentConfiguration previous = previousConfigs.remove(config.getPid());
+            if (previous == null || !propertiesEqual(previous.getConfigurationProperties(),
+                    config.getConfigurationProperties())) {
+                updatedConfigs.add(config);
+            }
+        }
+
+        final List<ComponentConfiguration> removedConfigs = previousConfigs.keySet().stream()
+                .map(pid -> new ComponentConfigurationImpl(pid, null, new HashMap<>())).collect(Collectors.toList());
+
+        final SnapshotJournal.Record journalRecord = new SnapshotJournal.Record(sid,
+                encryptSnapshotContent(updatedConfigs), removedConfigs.isEmpty() ? Optional.empty()
+                        : Optional.of(encryptSnapshotContent(removedConfigs)));
+
+        final File journal = getJournalFile(this.journalBaseId);
+        try {
+            logger.info("Writing snapshot - Appending {} changed and {} removed configurations to {}...",
+                    updatedConfigs.size(), removedConfigs.size(), journal);
+            this.snapshotJournal.append(journal, journalRecord);
+        } catch (IOException e) {
+            throw new KuraException(KuraErrorCode.INTERNAL_ERROR, e);
+        }
+
+        this.journalBaseIdBySnapshotId.put(sid, this.journalBaseId);
+        this.journalRecordCount++;
+    }
+
+    private synchronized void compactSnapshotJournal() throws KuraException {
+        if (this.journalRecordCount == 0 || this.latestSnapshotId == null || this.latestSnapshotConfigs == null) {
+            return;
+        }
+
+        logger.info("Compacting snapshot journal into snapshot {}...", this.latestSnapshotId);
+
+        final XmlComponentConfigurations conf = new XmlComponentConfigurations();
+        conf.setConfigurations(new ArrayList<>(this.latestSnapshotConfigs));
+
+        writeSnapshot(this.latestSnapshotId, conf);
+        this.journalBaseIdBySnapshotId.remove(this.latestSnapshotId);
+        setJournalBase(this.latestSnapshotId);
+    }
+
+    private void setLatestSnapshot(final long sid, final List<ComponentConfiguration> configs) {
+        this.latestSnapshotId = sid;
+        this.latestSnapshotConfigs = copyConfigurations(configs);
+    }
+
+    private static List<ComponentConfiguration> copyConfigurations(final List<ComponentConfiguration> configs) {
+        final List<ComponentConfiguration> result = new ArrayList<>(configs.size());
+
+        for (final ComponentConfiguration config : configs) {
+            final Map<String, Object> properties = config.getConfigurationProperties();
+            result.add(new ComponentConfigurationImpl(config.getPid(), null,
+                    properties != null ? new HashMap<>(properties) : null));
+        }
+
+        return result;
+    }
+
+    private static boolean propertiesEqual(final Map<String, Object> first, final Map<String, Object> second) {
+        if (first == null || second == null) {
+            return first == second;
+        }
+        if (first.size() != second.size()) {
+            return false;
+        }
+
+        for (final Entry<String, Object> entry : first.entrySet()) {
+            if (!second.containsKey(entry.getKey())
+                    || !propertyValueEquals(entry.getValue(), second.get(entry.getKey()))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean propertyValueEquals(final Object first, final Object second) {
+        if (first instanceof Password && second instanceof Password) {
+            return Arrays.equals(((Password) first).getPassword(), ((Password) second).getPassword());
+        }
+
+        if (first instanceof Object[] && second instanceof Object[]) {
+            final Object[] firstArray = (Object[]) first;
+            final Object[] secondArray = (Object[]) second;
+
+            if (firstArray.length != secondArray.length) {
+                return false;
+            }
+            for (int i = 0; i < firstArray.length; i++) {
+                if (!propertyValueEquals(firstArray[i], secondArray[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        return Objects.deepEquals(first, second);
+    }
+
+    private String encryptSnapshotContent(final List<ComponentConfiguration> configs) throws KuraException {
+        final XmlComponentConfigurations conf = new XmlComponentConfigurations();
+        conf.setConfigurations(configs);
+
+        return new String(this.cryptoService.encryptAes(marshal(conf).toCharArray()));
+    }
+
+    private List<ComponentConfiguration> decryptSnapshotContent(final String content) throws KuraException {
+        char[] decryptAes = this.cryptoService.decryptAes(content.toCharArray());
+        if (decryptAes == null) {
+            throw new KuraException(KuraErrorCode.DECODER_ERROR, "snapshot");
+        }
+
+        final List<ComponentConfiguration> configs = unmarshal(new String(decryptAes),
+                XmlComponentConfigurations.class).getConfigurations();
+
+        return configs != null ? configs : Collections.emptyList();
+    }
+
+    private XmlComponentConfigurations loadJournalSnapshot(final File snapshotsDirectory, final long baseId,
+            final long snapshotID) throws KuraException {
+        final XmlComponentConfigurations baseConfigs = loadEncryptedSnapshotFileContent(baseId);
+        if (baseConfigs == null) {
+            return null;
+        }
+
+        final List<SnapshotJournal.Record> records;
+        try {
+            records = this.snapshotJournal.readRecords(SnapshotJournal.getJournalFile(snapshotsDirectory, baseId));
+        } catch (IOException e) {
+            logger.error("Error loading snapshot journal from disk", e);
+            return null;
+        }
+
+        final Map<String, ComponentConfiguration> configs = new LinkedHashMap<>();
+        for (final ComponentConfiguration config : baseConfigs.getConfigurations()) {
+            configs.put(config.getPid(), config);
+        }
+
+        for (final SnapshotJournal.Record journalRecord : records) {
+            if (journalRecord.getSnapshotId() > snapshotID) {
+                break;
+            }
+
+            for (final ComponentConfiguration config : decryptSnapshotContent(
+                    journalRecord.getUpdatedConfigurations())) {
+                configs.put(config.getPid(), config);
+            }
+
+            if (journalRecord.getRemovedConfigurations().isPresent()) {
+                for (final ComponentConfiguration config : decryptSnapshotContent(
+                        journalRecord.getRemovedConfigurations().get())) {
+                    configs.remove(config.getPid());
+                }
+            }
+        }
+
+        final XmlComponentConfigurations result = new XmlComponentConfigurations();
+        result.setConfigurations(new ArrayList<>(configs.values()));
+
+        return result;
+    }
+
+    private File getJournalFile(final long baseId) {
+        return SnapshotJournal.getJournalFile(new File(getSnapshotsDirectory()), baseId);
+    }
+
     private ComponentConfiguration getConfigurableComponentConfiguration(String pid) {
         ComponentConfiguration cc = null;
         try {
@@ -1339,17 +1572,55 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
             if (files != null) {
 
                 Pattern p = Pattern.compile("snapshot_([0-9]+)\\.xml");
+                List<File> journals = new ArrayList<>();
                 for (File file : files) {
                     Matcher m = p.matcher(file.getName());
                     if (m.matches()) {
                         ids.add(Long.parseLong(m.group(1)));
+                    } else if (SnapshotJournal.JOURNAL_FILE_PATTERN.matcher(file.getName()).matches()) {
+                        journals.add(file);
                     }
                 }
+
+                addJournalSnapshots(journals, ids);
             }
         }
         return ids;
     }
 
+    private void addJournalSnapshots(final List<File> journals, final Set<Long> ids) {
+        final Map<Long, Long> journalSnapshots = new HashMap<>();
+
+        for (final File journal : journals) {
+            final Matcher m = SnapshotJournal.JOURNAL_FILE_PATTERN.matcher(journal.getName());
+            if (!m.matches()) {
+                continue;
+            }
+
+            final long baseId = Long.parseLong(m.group(1));
+            if (!ids.contains(baseId)) {
+                logger.warn("Ignoring snapshot journal {}, base snapshot not found", journal);
+                continue;
+            }
+
+            try {
+                for (final Long id : this.snapshotJournal.readSnapshotIds(journal)) {
+                    // a full snapshot takes precedence over the journal record with the same id
+                    if (!ids.contains(id)) {
+                        journalSnapshots.put(id, baseId);
+                    }
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to read snapshot journal {}", journal, e);
+            }
+        }
+
+        ids.addAll(journalSnapshots.keySet());
+
+        this.journalBaseIdBySnapshotId.keySet().retainAll(journalSnapshots.keySet());
+        this.journalBaseIdBySnapshotId.putAll(journalSnapshots);
+    }
+
     String getSnapshotsDirectory() {
         return this.systemService.getKuraSnapshotsDirectory();
     }
@@ -1381,16 +1652,31 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
             // one.
             long sid = sids.pollFirst();
             File fSnapshot = getSnapshotFile(sid);
-            if (sid == 0 || fSnapshot == null) {
+            // the journal the latest snapshot might belong to is never deleted
+            if (sid == 0 || fSnapshot == null || this.journalBaseIdBySnapshotId.containsKey(sid)
+                    || Long.valueOf(sid).equals(this.journalBaseId)) {
                 continue;
             }
 
+            // the snapshots in the journal of this snapshot cannot be loaded without it, delete them together
+            // even if this brings the number of snapshots below the limit
+            final Set<Long> journalSids = this.journalBaseIdBySnapshotId.entrySet().stream()
+                    .filter(e -> e.getValue() == sid).map(Entry::getKey).collect(Collectors.toSet());
+
             Path fSnapshotPath = fSnapshot.toPath();
             try {
                 if (Files.deleteIfExists(fSnapshotPath)) {
                     logger.info("Snapshots Garbage Collector. Deleted {}", fSnapshotPath);
                     currCount--;
                 }
+
+                final File journal = SnapshotJournal.getJournalFile(fSnapshot.getParentFile(), sid);
+                if (this.snapshotJournal.delete(journal)) {
+                    logger.info("Snapshots Garbage Collector. Deleted {}", journal);
+                    currCount -= journalSids.size();
+                    sids.removeAll(journalSids);
+                    this.journalBaseIdBySnapshotId.keySet().removeAll(journalSids);
+                }
             } catch (IOException e) {
                 logger.warn("Snapshots Garbage Collector. Deletion failed for {}", fSnapshotPath, e);
             }
@@ -1455,6 +1741,10 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
         Long[] snapshots = snapshotIDs.toArray(new Long[] {});
         Long lastestID = snapshots[snapshotIDs.size() - 1];
 
+        if (lastestID.equals(this.latestSnapshotId) && this.latestSnapshotConfigs != null) {
+            return copyConfigurations(this.latestSnapshotConfigs);
+        }
+
         //
         // Unmarshall
         logger.info("Loading init configurations from: {}...", lastestID);
@@ -1465,6 +1755,10 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
             if (xmlConfigs != null) {
                 configs = xmlConfigs.getConfigurations();
             }
+            if (configs != null) {
+                setLatestSnapshot(lastestID, configs);
+                initJournalState(lastestID);
+            }
         } catch (Exception e) {
             logger.info("Unable to decrypt snapshot! Fallback to unencrypted snapshots mode.");
             try {
@@ -1480,8 +1774,24 @@ public class ConfigurationServiceImpl implements ConfigurationService, OCDServic
         return configs;
     }
 
+    private void initJournalState(final long lastestID) {
+        final Long baseId = this.journalBaseIdBySnapshotId.get(lastestID);
+
+        if (baseId == null) {
+            setJournalBase(lastestID);
+        } else {
+            this.journalBaseId = baseId;
+            this.journalRecordCount = (int) this.journalBaseIdBySnapshotId.values().stream()
+                    .filter(baseId::equals).count();
+        }
+    }
+
     XmlComponentConfigurations loadEncryptedSnapshotFileContent(long snapshotID) throws KuraException {
         File fSnapshot = getSnapshotFile(snapshotID);
+        if (fSnapshot != null && !fSnapshot.exists() && this.journalBaseIdBySnapshotId.containsKey(snapshotID)) {
+            return loadJournalSnapshot(fSnapshot.getParentFile(), this.journalBaseIdBySnapshotId.get(snapshotID),
+                    snapshotID);
+        }
         if (fSnapshot == null || !fSnapshot.exists()) {
             throw new KuraException(KuraErrorCode.CONFIGURATION_SNAPSHOT_NOT_FOUND,
                     fSnapshot != null ? fSnapshot.getAbsolutePath() : "null");
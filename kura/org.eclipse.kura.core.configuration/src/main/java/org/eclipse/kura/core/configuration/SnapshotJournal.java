@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.core.configuration;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append only journal of configuration snapshots.
+ * <p>
+ * A journal is associated with a full snapshot file, its base, and contains the snapshots taken after it. Each
+ * snapshot is stored as a single line record that contains the snapshot id, the configurations that changed with
+ * respect to the previous snapshot and the pids of the removed configurations. The configuration content is
+ * provided already encrypted by the caller.
+ * <p>
+ * A record that has not been completely written, for example because of a power loss, is discarded the next time the
+ * journal is read.
+ */
+class SnapshotJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotJournal.class);
+
+    static final Pattern JOURNAL_FILE_PATTERN = Pattern.compile("snapshot_([0-9]+)\\.journal");
+
+    private static final String NO_CONTENT = "-";
+    private static final char SEPARATOR = ' ';
+
+    private final Map<File, CachedIds> idsCache = new HashMap<>();
+
+    static File getJournalFile(final File snapshotsDirectory, final long baseId) {
+        return new File(snapshotsDirectory, "snapshot_" + baseId + ".journal");
+    }
+
+    synchronized List<Long> readSnapshotIds(final File journal) throws IOException {
+        final long length = journal.length();
+        final long lastModified = journal.lastModified();
+
+        final CachedIds cached = this.idsCache.get(journal);
+
+        if (cached != null && cached.length == length && cached.lastModified == lastModified) {
+            return cached.ids;
+        }
+
+        final List<Long> ids = new ArrayList<>();
+
+        for (final Record record : readRecords(journal)) {
+            ids.add(record.getSnapshotId());
+        }
+
+        final CachedIds result = new CachedIds(journal.length(), journal.lastModified(), ids);
+        this.idsCache.put(journal, result);
+
+        return result.ids;
+    }
+
+    synchronized List<Record> readRecords(final File journal) throws IOException {
+        final byte[] content = Files.readAllBytes(journal.toPath());
+        final List<Record> records = new ArrayList<>();
+
+        int lineStart = 0;
+
+        for (int i = 0; i < content.length; i++) {
+            if (content[i] != '\n') {
+                continue;
+            }
+
+            final Optional<Record> record = Record.parse(
+                    new String(content, lineStart, i - lineStart, StandardCharsets.US_ASCII));
+
+            if (!record.isPresent()) {
+                break;
+            }
+
+            records.add(record.get());
+            lineStart = i + 1;
+        }
+
+        if (lineStart < content.length) {
+            logger.warn("Discarding incomplete record at the end of snapshot journal {}", journal);
+            truncate(journal, lineStart);
+        }
+
+        return records;
+    }
+
+    synchronized void append(final File journal, final Record record) throws IOException {
+        try (final FileOutputStream out = new FileOutputStream(journal, true)) {
+            out.write(record.format().getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            out.getFD().sync();
+        }
+    }
+
+    synchronized boolean delete(final File journal) throws IOException {
+        this.idsCache.remove(journal);
+        return Files.deleteIfExists(journal.toPath());
+    }
+
+    private void truncate(final File journal, final long length) throws IOException {
+        try (final RandomAccessFile file = new RandomAccessFile(journal, "rw")) {
+            file.setLength(length);
+            file.getFD().sync();
+        }
+    }
+
+    static final class Record {
+
+        private final long snapshotId;
+        private final String updatedConfigurations;
+        private final Optional<String> removedConfigurations;
+
+        Record(final long snapshotId, final String updatedConfigurations,
+                final Optional<String> removedConfigurations) {
+            this.snapshotId = snapshotId;
+            this.updatedConfigurations = updatedConfigurations;
+            this.removedConfigurations = removedConfigurations;
+        }
+
+        long getSnapshotId() {
+            return this.snapshotId;
+        }
+
+        /**
+         * @return the encrypted XML containing the configurations changed by this snapshot
+         */
+        String getUpdatedConfigurations() {
+            return this.updatedConfigurations;
+        }
+
+        /**
+         * @return the encrypted XML containing the configurations removed by this snapshot, only the pids are
+         *         relevant
+         */
+        Optional<String> getRemovedConfigurations() {
+            return this.removedConfigurations;
+        }
+
+        private String format() {
+            final StringBuilder builder = new StringBuilder();
+
+            builder.append(this.snapshotId).append(SEPARATOR).append(encode(this.updatedConfigurations))
+                    .append(SEPARATOR).append(this.removedConfigurations.map(Record::encode).orElse(NO_CONTENT))
+                    .append('\n');
+
+            return builder.toString();
+        }
+
+        private static Optional<Record> parse(final String line) {
+            final String[] fields = line.split(String.valueOf(SEPARATOR));
+
+            if (fields.length != 3) {
+                return Optional.empty();
+            }
+
+            try {
+                final long snapshotId = Long.parseLong(fields[0]);
+                final String updated = decode(fields[1]);
+                final Optional<String> removed = NO_CONTENT.equals(fields[2]) ? Optional.empty()
+                        : Optional.of(decode(fields[2]));
+
+                return Optional.of(new Record(snapshotId, updated, removed));
+            } catch (final IllegalArgumentException e) {
+                return Optional.empty();
+            }
+        }
+
+        private static String encode(final String value) {
+            return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static String decode(final String value) {
+            return new String(Base64.getDecoder().decode(value), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class CachedIds {
+
+        private final long length;
+        private final long lastModified;
+        private final List<Long> ids;
+
+        CachedIds(final long length, final long lastModified, final List<Long> ids) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.ids = Collections.unmodifiableList(ids);
+        }
+    }
+}
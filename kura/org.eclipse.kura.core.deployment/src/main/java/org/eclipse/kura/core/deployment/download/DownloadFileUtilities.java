@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2011, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -21,6 +21,8 @@ import org.eclipse.kura.core.deployment.util.FileUtilities;
 
 public class DownloadFileUtilities extends FileUtilities {
 
+    private static final String PARTIAL_DOWNLOAD_SUFFIX = ".part";
+
     // File Management
     public static File getDpDownloadFile(DeploymentPackageInstallOptions options) throws IOException {
         String downloadDirectory = options.getDownloadDirectory();
@@ -40,9 +42,18 @@ public class DownloadFileUtilities extends FileUtilities {
         return new File(fileName);
     }
 
+    public static File getPartialDownloadFile(File file) {
+        return new File(file.getPath() + PARTIAL_DOWNLOAD_SUFFIX);
+    }
+
     public static boolean deleteDownloadedFile(DeploymentPackageInstallOptions options) throws IOException {
         File file = getDpDownloadFile(options);
 
+        File partialFile = getPartialDownloadFile(file);
+        if (partialFile.isFile()) {
+            partialFile.delete();
+        }
+
         if (file != null && file.exists() && file.isFile()) {
             return file.delete();
         }
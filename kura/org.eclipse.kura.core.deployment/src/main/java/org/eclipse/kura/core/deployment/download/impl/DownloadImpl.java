@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2011, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -16,6 +16,10 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 import java.util.Date;
 import java.util.concurrent.CancellationException;
 
@@ -175,10 +179,45 @@ public class DownloadImpl implements ProgressListener {
     // ----------------------------------------------------------------
 
     private void incrementalDownloadFromURL(File dpFile, String url, int downloadIndex) throws Exception {
+        String hashAlgorithm = null;
+        String hashValue = null;
+        MessageDigest digest = null;
+
+        if (this.options.getHash() != null) {
+            String[] hashAlgorithmValue = this.options.getHash().split(":");
+
+            if (hashAlgorithmValue.length == 2) {
+                hashAlgorithm = hashAlgorithmValue[0].trim();
+                hashValue = hashAlgorithmValue[1].trim();
+            }
+            // these things should be checked beforehand, so that the digest can be computed while downloading
+            if (hashAlgorithm == null || "".equals(hashAlgorithm) || hashValue == null || "".equals(hashValue)) {
+                throw new KuraException(KuraErrorCode.INTERNAL_ERROR, null,
+                        "Failed to verify checksum with empty algorithm: " + hashAlgorithm);
+            }
+            digest = MessageDigest.getInstance(hashAlgorithm);
+        }
+
+        // the package is downloaded to a partial file that is renamed only once complete and verified, so that
+        // an interrupted download is never mistaken for a complete one and can be resumed later
+        File partialFile = DownloadFileUtilities.getPartialDownloadFile(dpFile);
+        long resumeOffset = 0;
+
+        if (this.options.isResume() && !this.options.isDownloadForced() && partialFile.isFile()) {
+            resumeOffset = partialFile.length();
+            s_logger.info("Resuming download of {} from byte {}", url, resumeOffset);
+            if (digest != null) {
+                HashUtil.update(digest, partialFile);
+            }
+        }
+
         OutputStream os = null;
 
         try {
-            os = new FileOutputStream(dpFile);
+            os = new FileOutputStream(partialFile, resumeOffset > 0);
+            if (digest != null) {
+                os = new DigestOutputStream(os, digest);
+            }
             DownloadOptions downloadOptions = new DownloadOptions();
             downloadOptions.setOut(os);
             downloadOptions.setRequestOptions(this.options);
@@ -186,6 +225,7 @@ public class DownloadImpl implements ProgressListener {
             downloadOptions.setSslManagerService(this.sslManagerService);
             downloadOptions.setDownloadURL(url);
             downloadOptions.setAlreadyDownloaded(downloadIndex);
+            downloadOptions.setResumeOffset(resumeOffset);
 
             this.downloadHelper = getDownloadInstance(this.options.getDownloadProtocol(), downloadOptions);
             this.downloadHelper.startWork();
@@ -200,35 +240,20 @@ public class DownloadImpl implements ProgressListener {
             }
         }
 
-        if (this.options.getHash() != null) {
-            String[] hashAlgorithmValue = this.options.getHash().split(":");
-
-            String hashAlgorithm = null;
-            String hashValue = null;
-            if (hashAlgorithmValue.length == 2) {
-                hashAlgorithm = hashAlgorithmValue[0].trim();
-                hashValue = hashAlgorithmValue[1].trim();
-            }
+        if (digest != null) {
             s_logger.info("--> Going to verify hash signature!");
-            try {
-                // these things should be checked beforehand, so that hash() has a chance to
-                // succeed
-                if (hashAlgorithm == null || "".equals(hashAlgorithm) || hashValue == null || "".equals(hashValue)) {
-                    throw new KuraException(KuraErrorCode.INTERNAL_ERROR, null,
-                            "Failed to verify checksum with empty algorithm: " + hashAlgorithm);
-                }
 
-                String checksum = HashUtil.hash(hashAlgorithm, dpFile);
+            String checksum = HashUtil.toHexString(digest.digest());
 
-                if (checksum == null || !checksum.equals(hashValue)) {
-                    throw new KuraException(KuraErrorCode.INTERNAL_ERROR, null,
-                            "Failed to verify checksum with algorithm: " + hashAlgorithm);
-                }
-            } catch (Exception e) {
+            if (!checksum.equals(hashValue)) {
+                partialFile.delete();
                 dpFile.delete();
-                throw e;
+                throw new KuraException(KuraErrorCode.INTERNAL_ERROR, null,
+                        "Failed to verify checksum with algorithm: " + hashAlgorithm);
             }
         }
+
+        Files.move(partialFile.toPath(), dpFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
     }
 
     // Synchronous messages
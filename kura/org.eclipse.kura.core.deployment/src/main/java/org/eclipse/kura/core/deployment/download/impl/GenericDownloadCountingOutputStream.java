@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2011, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -38,6 +38,7 @@ public class GenericDownloadCountingOutputStream extends CountingOutputStream {
     final ProgressListener pl;
     final int alreadyDownloaded;
     final String downloadURL;
+    final long resumeOffset;
 
     InputStream is = null;
 
@@ -51,6 +52,7 @@ public class GenericDownloadCountingOutputStream extends CountingOutputStream {
         this.pl = downloadOptions.getCallback();
         this.downloadURL = downloadOptions.getDownloadURL();
         this.alreadyDownloaded = downloadOptions.getAlreadyDownloaded();
+        this.resumeOffset = downloadOptions.getResumeOffset();
     }
 
     public DownloadStatus getDownloadTransferStatus() {
@@ -59,13 +61,17 @@ public class GenericDownloadCountingOutputStream extends CountingOutputStream {
 
     public Long getDownloadTransferProgressPercentage() {
         Long percentage = (long) Math
-                .floor(((Long) getByteCount()).doubleValue() / ((Long) this.totalBytes).doubleValue() * 100);
+                .floor(((Long) getDownloadedBytes()).doubleValue() / ((Long) this.totalBytes).doubleValue() * 100);
         if (percentage < 0) {
             return (long) 50;
         }
         return percentage;
     }
 
+    public long getDownloadedBytes() {
+        return this.resumeOffset + getByteCount();
+    }
+
     public Long getTotalBytes() {
         return this.totalBytes;
     }
@@ -84,8 +90,8 @@ public class GenericDownloadCountingOutputStream extends CountingOutputStream {
         }
         if (getByteCount() >= this.currentStep * this.propResolution) {
             this.currentStep++;
-            postProgressEvent(this.options.getClientId(), getByteCount(), this.totalBytes, DownloadStatus.IN_PROGRESS,
-                    null);
+            postProgressEvent(this.options.getClientId(), getDownloadedBytes(), this.totalBytes,
+                    DownloadStatus.IN_PROGRESS, null);
         }
         try {
             Thread.sleep(this.propBlockDelay);
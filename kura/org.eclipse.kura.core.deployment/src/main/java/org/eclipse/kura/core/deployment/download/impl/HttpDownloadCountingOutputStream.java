@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2011, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -12,13 +12,23 @@
  *******************************************************************************/
 package org.eclipse.kura.core.deployment.download.impl;
 
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.net.Authenticator;
 import java.net.HttpURLConnection;
 import java.net.PasswordAuthentication;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.file.Files;
 import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -44,6 +54,9 @@ public class HttpDownloadCountingOutputStream extends GenericDownloadCountingOut
 
     private static final Logger s_logger = LoggerFactory.getLogger(HttpDownloadCountingOutputStream.class);
 
+    private static final int MIN_SEGMENT_SIZE = 64 * 1024;
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+
     private ExecutorService executor;
     private Future<Void> future;
 
@@ -61,8 +74,8 @@ public class HttpDownloadCountingOutputStream extends GenericDownloadCountingOut
             this.future.cancel(true);
             this.executor.shutdownNow();
 
-            postProgressEvent(this.options.getClientId(), getByteCount(), this.totalBytes, DownloadStatus.CANCELLED,
-                    "Download cancelled");
+            postProgressEvent(this.options.getClientId(), getDownloadedBytes(), this.totalBytes,
+                    DownloadStatus.CANCELLED, "Download cancelled");
         }
     }
 
@@ -95,17 +108,36 @@ public class HttpDownloadCountingOutputStream extends GenericDownloadCountingOut
                     }
 
                     HttpURLConnection.setFollowRedirects(false);
-                    URLConnection urlConnection = getUrlConnection(HttpDownloadCountingOutputStream.this.downloadURL);
+                    long offset = HttpDownloadCountingOutputStream.this.resumeOffset;
+                    URLConnection urlConnection = getUrlConnection(HttpDownloadCountingOutputStream.this.downloadURL,
+                            offset > 0 ? "bytes=" + offset + "-" : null);
 
                     testConnectionProtocol(urlConnection);
 
+                    if (offset > 0 && isAlreadyDownloaded(urlConnection, offset)) {
+                        s_logger.info("The partial file already contains all the {} bytes", offset);
+                        setTotalBytes(offset);
+                        postProgressEvent(HttpDownloadCountingOutputStream.this.options.getClientId(), offset,
+                                offset, DownloadStatus.COMPLETED, null);
+                        return null;
+                    }
+
+                    boolean rangeServed = isRangeServed(urlConnection, offset);
+
                     HttpDownloadCountingOutputStream.this.is = urlConnection.getInputStream();
 
-                    String s = urlConnection.getHeaderField("Content-Length");
-                    s_logger.info("Content-lenght: " + s);
+                    long contentLength = urlConnection.getContentLengthLong();
+                    s_logger.info("Content-lenght: " + contentLength);
 
-                    setTotalBytes(s != null ? Integer.parseInt(s) : -1);
-                    postProgressEvent(HttpDownloadCountingOutputStream.this.options.getClientId(), 0,
+                    if (offset > 0 && !rangeServed) {
+                        // the server ignored the range request, the already downloaded bytes must be skipped
+                        s_logger.info("Range requests not supported by server, skipping {} bytes", offset);
+                        IOUtils.skipFully(HttpDownloadCountingOutputStream.this.is, offset);
+                        contentLength = contentLength >= 0 ? contentLength - offset : -1;
+                    }
+
+                    setTotalBytes(contentLength >= 0 ? offset + contentLength : -1);
+                    postProgressEvent(HttpDownloadCountingOutputStream.this.options.getClientId(), offset,
                             HttpDownloadCountingOutputStream.this.totalBytes, DownloadStatus.IN_PROGRESS, null);
 
                     int bufferSize = getBufferSize();
@@ -120,14 +152,25 @@ public class HttpDownloadCountingOutputStream extends GenericDownloadCountingOut
                         setBufferSize(newSize);
                     }
 
-                    long numBytes = IOUtils.copyLarge(HttpDownloadCountingOutputStream.this.is,
-                            HttpDownloadCountingOutputStream.this, new byte[bufferSize]);
-                    postProgressEvent(HttpDownloadCountingOutputStream.this.options.getClientId(), numBytes,
-                            HttpDownloadCountingOutputStream.this.totalBytes, DownloadStatus.COMPLETED, null);
+                    int segments = HttpDownloadCountingOutputStream.this.options.getSegments();
+                    boolean rangesAccepted = rangeServed
+                            || "bytes".equalsIgnoreCase(urlConnection.getHeaderField("Accept-Ranges"));
+
+                    if (segments > 1 && rangesAccepted && contentLength >= segments * (long) MIN_SEGMENT_SIZE) {
+                        copySegmented(urlConnection.getURL().toString(), offset, contentLength, segments,
+                                bufferSize);
+                    } else {
+                        IOUtils.copyLarge(HttpDownloadCountingOutputStream.this.is,
+                                HttpDownloadCountingOutputStream.this, new byte[bufferSize]);
+                    }
+                    postProgressEvent(HttpDownloadCountingOutputStream.this.options.getClientId(),
+                            getDownloadedBytes(), HttpDownloadCountingOutputStream.this.totalBytes,
+                            DownloadStatus.COMPLETED, null);
 
                 } catch (IOException e) {
-                    postProgressEvent(HttpDownloadCountingOutputStream.this.options.getClientId(), getByteCount(),
-                            HttpDownloadCountingOutputStream.this.totalBytes, DownloadStatus.FAILED, e.getMessage());
+                    postProgressEvent(HttpDownloadCountingOutputStream.this.options.getClientId(),
+                            getDownloadedBytes(), HttpDownloadCountingOutputStream.this.totalBytes,
+                            DownloadStatus.FAILED, e.getMessage());
                     throw new KuraConnectException(e);
                 } finally {
                     if (HttpDownloadCountingOutputStream.this.is != null) {
@@ -160,20 +203,140 @@ public class HttpDownloadCountingOutputStream extends GenericDownloadCountingOut
         }
     }
 
-    private URLConnection getUrlConnection(String downloadUrlString) throws IOException {
+    /**
+     * Downloads the remaining {@code length} bytes starting at {@code offset} using {@code segments} parallel range
+     * requests. The first segment is streamed from the already open connection, the following ones are spooled to
+     * temporary files and appended in order, so that this stream is always written sequentially.
+     */
+    private void copySegmented(String url, long offset, long length, int segments, int bufferSize)
+            throws Exception {
+        long segmentLength = length / segments;
+        ExecutorService segmentExecutor = Executors.newFixedThreadPool(segments - 1);
+        List<Future<File>> spooledSegments = new ArrayList<>(segments - 1);
+
+        s_logger.info("Downloading {} bytes in {} segments", length, segments);
+
+        try {
+            for (int i = 1; i < segments; i++) {
+                long start = offset + i * segmentLength;
+                long end = i == segments - 1 ? offset + length - 1 : start + segmentLength - 1;
+                spooledSegments.add(segmentExecutor.submit(() -> downloadSegment(url, start, end, bufferSize)));
+            }
+
+            if (IOUtils.copyLarge(this.is, this, 0, segmentLength, new byte[bufferSize]) != segmentLength) {
+                throw new EOFException("Unexpected end of stream while downloading the first segment");
+            }
+
+            for (Future<File> spooledSegment : spooledSegments) {
+                File segment = getSegment(spooledSegment);
+                try (InputStream in = new FileInputStream(segment)) {
+                    IOUtils.copyLarge(in, this, new byte[bufferSize]);
+                } finally {
+                    Files.deleteIfExists(segment.toPath());
+                }
+            }
+        } finally {
+            segmentExecutor.shutdownNow();
+            for (Future<File> spooledSegment : spooledSegments) {
+                if (!spooledSegment.cancel(true)) {
+                    deleteSegment(spooledSegment);
+                }
+            }
+        }
+    }
+
+    private File downloadSegment(String url, long start, long end, int bufferSize) throws Exception {
+        URLConnection urlConnection = getUrlConnection(url, "bytes=" + start + "-" + end);
+
+        testConnectionProtocol(urlConnection);
+
+        if (!isRangeServed(urlConnection, start)) {
+            throw new IOException("Range " + start + "-" + end + " not served");
+        }
+
+        File segment = File.createTempFile("dp-segment-", ".part", getSegmentDirectory());
+
+        try (InputStream in = urlConnection.getInputStream(); OutputStream out = new FileOutputStream(segment)) {
+            if (IOUtils.copyLarge(in, out, new byte[bufferSize]) != end - start + 1) {
+                throw new EOFException("Unexpected end of stream while downloading range " + start + "-" + end);
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Download of range " + start + "-" + end + " cancelled");
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(segment.toPath());
+            throw e;
+        }
+
+        return segment;
+    }
+
+    private File getSegmentDirectory() {
+        String downloadDirectory = this.options.getDownloadDirectory();
+        return downloadDirectory != null ? new File(downloadDirectory) : null;
+    }
+
+    private static File getSegment(Future<File> spooledSegment) throws Exception {
+        try {
+            return spooledSegment.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+
+    private static void deleteSegment(Future<File> spooledSegment) {
+        try {
+            Files.deleteIfExists(spooledSegment.get().toPath());
+        } catch (Exception e) {
+            // the segment has not been spooled
+        }
+    }
+
+    /*
+     * A range request starting at the end of the resource is answered with 416, the Content-Range header of the
+     * response reports the length of the resource (RFC 7233).
+     */
+    private static boolean isAlreadyDownloaded(URLConnection urlConnection, long offset) throws IOException {
+        if (((HttpURLConnection) urlConnection).getResponseCode() != HTTP_RANGE_NOT_SATISFIABLE) {
+            return false;
+        }
+
+        String contentRange = urlConnection.getHeaderField("Content-Range");
+        return contentRange != null && contentRange.trim().equals("bytes */" + offset);
+    }
+
+    private static boolean isRangeServed(URLConnection urlConnection, long offset) throws IOException {
+        if (offset <= 0 || ((HttpURLConnection) urlConnection).getResponseCode() != HttpURLConnection.HTTP_PARTIAL) {
+            return false;
+        }
+
+        // Content-Range: bytes <first>-<last>/<length>
+        String contentRange = urlConnection.getHeaderField("Content-Range");
+        if (contentRange == null || !contentRange.startsWith("bytes " + offset + "-")) {
+            throw new IOException("Unexpected Content-Range: " + contentRange);
+        }
+
+        return true;
+    }
+
+    private URLConnection getUrlConnection(String downloadUrlString, String range) throws IOException {
         URL localUrl = new URL(downloadUrlString);
         URLConnection urlConnection = localUrl.openConnection();
         int connectTimeout = getConnectTimeout();
         int readTimeout = getPropReadTimeout();
         urlConnection.setConnectTimeout(connectTimeout);
         urlConnection.setReadTimeout(readTimeout);
+        if (range != null) {
+            urlConnection.setRequestProperty("Range", range);
+        }
 
         int responseCode = ((HttpURLConnection) urlConnection).getResponseCode();
         if (responseCode == HttpURLConnection.HTTP_MOVED_TEMP || responseCode == HttpURLConnection.HTTP_MOVED_PERM
                 || responseCode == HttpURLConnection.HTTP_SEE_OTHER) {
             String newLocation = urlConnection.getHeaderField("Location");
             if (StringUtils.isNotEmpty(newLocation)) {
-                return getUrlConnection(newLocation);
+                return getUrlConnection(newLocation, range);
             } else {
                 throw new KuraRuntimeException(KuraErrorCode.INVALID_PARAMETER);
             }
@@ -186,12 +349,12 @@ public class HttpDownloadCountingOutputStream extends GenericDownloadCountingOut
             if (urlConnection instanceof HttpsURLConnection) {
                 ((HttpsURLConnection) urlConnection).setSSLSocketFactory(this.sslManagerService.getSSLSocketFactory());
             } else if (!(urlConnection instanceof HttpURLConnection)) {
-                postProgressEvent(this.options.getClientId(), getByteCount(), this.totalBytes, DownloadStatus.FAILED,
-                        "The request URL is not supported");
+                postProgressEvent(this.options.getClientId(), getDownloadedBytes(), this.totalBytes,
+                        DownloadStatus.FAILED, "The request URL is not supported");
                 throw new KuraConnectException("Unsupported protocol!");
             }
         } catch (GeneralSecurityException e) {
-            postProgressEvent(this.options.getClientId(), getByteCount(), this.totalBytes, DownloadStatus.FAILED,
+            postProgressEvent(this.options.getClientId(), getDownloadedBytes(), this.totalBytes, DownloadStatus.FAILED,
                     e.getMessage());
             throw new KuraConnectException(e, "Unsupported protocol!");
         }
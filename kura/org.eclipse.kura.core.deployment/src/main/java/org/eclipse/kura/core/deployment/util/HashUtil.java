@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2011, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -17,6 +17,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
@@ -32,17 +33,8 @@ public class HashUtil {
             cript = MessageDigest.getInstance(digestAlgorithm);
             fis = new FileInputStream(file);
 
-            byte[] byteArray = new byte[1024];
-            int bytesCount = 0;
-            while ((bytesCount = fis.read(byteArray)) != -1) {
-                cript.update(byteArray, 0, bytesCount);
-            }
-            byte[] encodedBytes = cript.digest();
-            StringBuilder sb = new StringBuilder();
-            for (byte encodedByte : encodedBytes) {
-                sb.append(Integer.toString((encodedByte & 0xff) + 0x100, 16).substring(1));
-            }
-            return sb.toString();
+            update(cript, fis);
+            return toHexString(cript.digest());
         } catch (FileNotFoundException e) {
             throw new KuraException(KuraErrorCode.STORE_ERROR, null, e.getMessage());
         } catch (IOException e) {
@@ -56,4 +48,25 @@ public class HashUtil {
         }
     }
 
+    public static void update(MessageDigest digest, File file) throws IOException {
+        try (FileInputStream fis = new FileInputStream(file)) {
+            update(digest, fis);
+        }
+    }
+
+    public static String toHexString(byte[] encodedBytes) {
+        StringBuilder sb = new StringBuilder();
+        for (byte encodedByte : encodedBytes) {
+            sb.append(Integer.toString((encodedByte & 0xff) + 0x100, 16).substring(1));
+        }
+        return sb.toString();
+    }
+
+    private static void update(MessageDigest digest, InputStream is) throws IOException {
+        byte[] byteArray = new byte[1024];
+        int bytesCount = 0;
+        while ((bytesCount = is.read(byteArray)) != -1) {
+            digest.update(byteArray, 0, bytesCount);
+        }
+    }
 }
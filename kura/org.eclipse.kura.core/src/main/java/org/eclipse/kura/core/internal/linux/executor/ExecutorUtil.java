@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2019, 2021 Eurotech and/or its affiliates and others
+ * Copyright (c) 2019, 2024 Eurotech and/or its affiliates and others
  *
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -39,6 +39,7 @@ import org.apache.commons.exec.Executor;
 import org.apache.commons.exec.PumpStreamHandler;
 import org.apache.commons.exec.environment.EnvironmentUtils;
 import org.apache.commons.io.output.NullOutputStream;
+import org.eclipse.kura.core.internal.linux.executor.LinuxProcessTable.ProcessInfo;
 import org.eclipse.kura.core.linux.executor.LinuxExitStatus;
 import org.eclipse.kura.core.linux.executor.LinuxPid;
 import org.eclipse.kura.core.linux.executor.LinuxResultHandler;
@@ -139,6 +140,11 @@ public class ExecutorUtil {
     }
 
     public boolean isRunning(Pid pid) {
+        LinuxProcessTable processTable = getProcessTable();
+        if (processTable.isAvailable()) {
+            return processTable.isRunning(pid.getPid());
+        }
+
         boolean isRunning = false;
         String pidString = ((Integer) pid.getPid()).toString();
         String psCommand = "ps -p " + pidString;
@@ -169,6 +175,11 @@ public class ExecutorUtil {
     }
 
     public Map<String, Pid> getPids(String[] commandLine) {
+        LinuxProcessTable processTable = getProcessTable();
+        if (processTable.isAvailable()) {
+            return getPids(processTable.getProcesses(), commandLine);
+        }
+
         Map<String, Pid> pids = new HashMap<>();
         CommandLine psCommandLine = new CommandLine("ps");
         psCommandLine.addArgument("-ax");
@@ -220,6 +231,20 @@ public class ExecutorUtil {
                 pids.put(line, Integer.parseInt(pid));
             }
         }
+        return sortPids(pids);
+    }
+
+    private Map<String, Pid> getPids(List<ProcessInfo> processes, String[] commandLine) {
+        Map<String, Integer> pids = new HashMap<>();
+        for (ProcessInfo process : processes) {
+            if (checkLine(process.getCommandLine(), commandLine)) {
+                pids.put(process.getCommandLine(), process.getPid());
+            }
+        }
+        return sortPids(pids);
+    }
+
+    private Map<String, Pid> sortPids(Map<String, Integer> pids) {
         // Sort pids in reverse order (useful when stop processes...)
         return pids.entrySet().stream().sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
                 .collect(Collectors.toMap(Map.Entry::getKey, e -> new LinuxPid(e.getValue()), (e1, e2) -> e1,
@@ -227,7 +252,7 @@ public class ExecutorUtil {
     }
 
     private boolean checkLine(String line, String[] tokens) {
-        return Arrays.stream(tokens).parallel().allMatch(line::contains);
+        return Arrays.stream(tokens).allMatch(line::contains);
     }
 
     private CommandStatus executeSync(Command command, CommandLine commandLine) {
@@ -259,6 +284,8 @@ public class ExecutorUtil {
             stopStreamHandler(executor);
             commandStatus.setExitStatus(new LinuxExitStatus(exitStatus));
             commandStatus.setTimedout(executor.getWatchdog().killedProcess());
+            // the command could have started or stopped other processes
+            getProcessTable().invalidate();
         }
 
         return commandStatus;
@@ -299,6 +326,10 @@ public class ExecutorUtil {
         return new DefaultExecutor();
     }
 
+    protected LinuxProcessTable getProcessTable() {
+        return LinuxProcessTable.getDefault();
+    }
+
     private void executeAsync(Command command, CommandLine commandLine, Consumer<CommandStatus> callback) {
         CommandStatus commandStatus = new CommandStatus(command, new LinuxExitStatus(0));
         commandStatus.setOutputStream(command.getOutputStream());
@@ -320,6 +351,7 @@ public class ExecutorUtil {
             } else {
                 executor.execute(commandLine, resultHandler);
             }
+            getProcessTable().invalidate();
         } catch (IOException e) {
             stopStreamHandler(executor);
             commandStatus.setExitStatus(new LinuxExitStatus(1));
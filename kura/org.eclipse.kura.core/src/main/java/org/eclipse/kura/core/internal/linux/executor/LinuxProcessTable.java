@@ -0,0 +1,262 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.core.internal.linux.executor;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Provides information about the running processes reading the /proc filesystem, without spawning external
+ * commands.
+ * <p>
+ * The state of a single process is always read from {@code /proc/<pid>/stat}. The list of all the processes is
+ * built reading {@code /proc/<pid>/cmdline} for every process and is cached for a short time, so that multiple lookups
+ * performed in a burst share the same snapshot. Zombie processes are not considered running.
+ */
+public class LinuxProcessTable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LinuxProcessTable.class);
+
+    static final long DEFAULT_SNAPSHOT_TTL_MILLIS = 200;
+
+    private static final LinuxProcessTable DEFAULT = new LinuxProcessTable(Paths.get("/proc"),
+            DEFAULT_SNAPSHOT_TTL_MILLIS, System::nanoTime);
+
+    private final Path procRoot;
+    private final long snapshotTtlNanos;
+    private final LongSupplier nanoTime;
+
+    private volatile Boolean available;
+    private volatile Snapshot snapshot;
+
+    public LinuxProcessTable(final Path procRoot) {
+        this(procRoot, DEFAULT_SNAPSHOT_TTL_MILLIS, System::nanoTime);
+    }
+
+    LinuxProcessTable(final Path procRoot, final long snapshotTtlMillis, final LongSupplier nanoTime) {
+        this.procRoot = procRoot;
+        this.snapshotTtlNanos = TimeUnit.MILLISECONDS.toNanos(snapshotTtlMillis);
+        this.nanoTime = nanoTime;
+    }
+
+    public static LinuxProcessTable getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @return {@code true} if the process information can be read from the /proc filesystem
+     */
+    public boolean isAvailable() {
+        Boolean result = this.available;
+
+        if (result == null) {
+            result = Files.isDirectory(this.procRoot.resolve("self"));
+            this.available = result;
+        }
+
+        return result;
+    }
+
+    public boolean isRunning(final int pid) {
+        final Optional<String> stat = readStat(this.procRoot.resolve(Integer.toString(pid)));
+
+        return stat.isPresent() && !isZombie(stat.get());
+    }
+
+    /**
+     * Returns the running processes. The result is shared by the calls performed within the snapshot time to live,
+     * {@link #DEFAULT_SNAPSHOT_TTL_MILLIS} milliseconds by default.
+     *
+     * @return the running processes, sorted by pid
+     */
+    public List<ProcessInfo> getProcesses() {
+        final long now = this.nanoTime.getAsLong();
+        Snapshot current = this.snapshot;
+
+        if (current != null && now - current.timestamp < this.snapshotTtlNanos) {
+            return current.processes;
+        }
+
+        synchronized (this) {
+            current = this.snapshot;
+
+            if (current == null || this.nanoTime.getAsLong() - current.timestamp >= this.snapshotTtlNanos) {
+                current = new Snapshot(this.nanoTime.getAsLong(), readProcesses());
+                this.snapshot = current;
+            }
+
+            return current.processes;
+        }
+    }
+
+    /**
+     * Discards the cached snapshot, the next call to {@link #getProcesses()} will read the process table again. Should
+     * be called after starting or stopping a process.
+     */
+    public void invalidate() {
+        this.snapshot = null;
+    }
+
+    private List<ProcessInfo> readProcesses() {
+        final List<ProcessInfo> processes = new ArrayList<>();
+
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(this.procRoot, LinuxProcessTable::isPidEntry)) {
+            for (final Path entry : entries) {
+                readProcess(entry).ifPresent(processes::add);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to read the process table from {}", this.procRoot, e);
+        }
+
+        processes.sort((first, second) -> Integer.compare(first.pid, second.pid));
+
+        return Collections.unmodifiableList(processes);
+    }
+
+    private static Optional<ProcessInfo> readProcess(final Path processDir) {
+        final int pid = Integer.parseInt(processDir.getFileName().toString());
+
+        try {
+            final byte[] cmdline = Files.readAllBytes(processDir.resolve("cmdline"));
+
+            if (cmdline.length > 0) {
+                return Optional.of(new ProcessInfo(pid, parseCmdline(cmdline)));
+            }
+        } catch (IOException e) {
+            // the process has terminated
+            return Optional.empty();
+        }
+
+        // kernel threads and zombies have an empty command line, show the name as ps does
+        final Optional<String> stat = readStat(processDir);
+
+        if (!stat.isPresent() || isZombie(stat.get())) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new ProcessInfo(pid, "[" + parseName(stat.get()) + "]"));
+    }
+
+    private static Optional<String> readStat(final Path processDir) {
+        try {
+            return Optional.of(new String(Files.readAllBytes(processDir.resolve("stat")), UTF_8));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static String parseCmdline(final byte[] cmdline) {
+        int length = cmdline.length;
+
+        // arguments are terminated by a null character
+        while (length > 0 && cmdline[length - 1] == 0) {
+            length--;
+        }
+
+        final byte[] result = new byte[length];
+
+        for (int i = 0; i < length; i++) {
+            result[i] = cmdline[i] == 0 ? (byte) ' ' : cmdline[i];
+        }
+
+        return new String(result, UTF_8);
+    }
+
+    // the format is "pid (name) state ...", the name can contain spaces and parentheses
+
+    private static String parseName(final String stat) {
+        final int start = stat.indexOf('(');
+        final int end = stat.lastIndexOf(')');
+
+        if (start < 0 || end < start) {
+            return "";
+        }
+
+        return stat.substring(start + 1, end);
+    }
+
+    private static boolean isZombie(final String stat) {
+        final int end = stat.lastIndexOf(')');
+
+        if (end < 0 || end + 2 >= stat.length()) {
+            return false;
+        }
+
+        final char state = stat.charAt(end + 2);
+
+        return state == 'Z' || state == 'X';
+    }
+
+    private static boolean isPidEntry(final Path entry) {
+        final String name = entry.getFileName().toString();
+
+        if (name.isEmpty() || name.length() > 9) {
+            return false;
+        }
+
+        for (int i = 0; i < name.length(); i++) {
+            if (!Character.isDigit(name.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public static final class ProcessInfo {
+
+        private final int pid;
+        private final String commandLine;
+
+        public ProcessInfo(final int pid, final String commandLine) {
+            this.pid = pid;
+            this.commandLine = commandLine;
+        }
+
+        public int getPid() {
+            return this.pid;
+        }
+
+        /**
+         * @return the command line of the process, with the arguments separated by spaces
+         */
+        public String getCommandLine() {
+            return this.commandLine;
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final long timestamp;
+        private final List<ProcessInfo> processes;
+
+        Snapshot(final long timestamp, final List<ProcessInfo> processes) {
+            this.timestamp = timestamp;
+            this.processes = processes;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2011, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -15,11 +15,23 @@ package org.eclipse.kura.core.util;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
 import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
 public class GZipUtil {
 
+    private static final int HEADER_LENGTH = 10;
+    private static final int TRAILER_LENGTH = 8;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+
+    // the same header written by GZIPOutputStream
+    private static final byte[] HEADER = { (byte) GZIPInputStream.GZIP_MAGIC,
+            (byte) (GZIPInputStream.GZIP_MAGIC >> 8), Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0 };
+
+    private static final ThreadLocal<Compressor> compressor = ThreadLocal.withInitial(Compressor::new);
+
     private GZipUtil() {
 
     }
@@ -34,13 +46,25 @@ public class GZipUtil {
     }
 
     public static byte[] compress(byte[] source) throws IOException {
+        return compress(source, 0, source.length);
+    }
 
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            GZIPOutputStream gzipos = new GZIPOutputStream(baos);
-            gzipos.write(source);
-            gzipos.close();
-            return baos.toByteArray();
-        }
+    /**
+     * Compresses a portion of the given array in the gzip format, producing the same data written by
+     * {@link java.util.zip.GZIPOutputStream}. The {@link Deflater} and the working buffer are reused by the calling
+     * thread.
+     *
+     * @param source
+     *            the data to compress
+     * @param offset
+     *            the offset of the data in the array
+     * @param length
+     *            the length of the data
+     * @return the compressed data
+     * @throws IOException
+     */
+    public static byte[] compress(byte[] source, int offset, int length) throws IOException {
+        return compressor.get().compress(source, offset, length);
     }
 
     public static byte[] decompress(byte[] source) throws IOException {
@@ -56,4 +80,49 @@ public class GZipUtil {
             return baos.toByteArray();
         }
     }
+
+    private static final class Compressor {
+
+        private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        private final CRC32 crc = new CRC32();
+        private byte[] buffer = new byte[1024];
+
+        byte[] compress(byte[] source, int offset, int length) {
+            this.deflater.reset();
+            this.deflater.setInput(source, offset, length);
+            this.deflater.finish();
+
+            byte[] out = this.buffer;
+            int position = 0;
+
+            while (!this.deflater.finished()) {
+                if (position == out.length) {
+                    out = Arrays.copyOf(out, out.length * 2);
+                }
+                position += this.deflater.deflate(out, position, out.length - position);
+            }
+
+            if (out.length <= MAX_RETAINED_BUFFER_SIZE) {
+                this.buffer = out;
+            }
+
+            this.crc.reset();
+            this.crc.update(source, offset, length);
+
+            final byte[] result = new byte[HEADER_LENGTH + position + TRAILER_LENGTH];
+            System.arraycopy(HEADER, 0, result, 0, HEADER_LENGTH);
+            System.arraycopy(out, 0, result, HEADER_LENGTH, position);
+            writeIntLE(result, HEADER_LENGTH + position, (int) this.crc.getValue());
+            writeIntLE(result, HEADER_LENGTH + position + 4, length);
+
+            return result;
+        }
+
+        private static void writeIntLE(byte[] dest, int offset, int value) {
+            dest[offset] = (byte) value;
+            dest[offset + 1] = (byte) (value >> 8);
+            dest[offset + 2] = (byte) (value >> 16);
+            dest[offset + 3] = (byte) (value >> 24);
+        }
+    }
 }
@@ -0,0 +1,878 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.core.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Date;
+import java.util.Map;
+
+import org.eclipse.kura.KuraInvalidMessageException;
+import org.eclipse.kura.KuraInvalidMetricTypeException;
+import org.eclipse.kura.message.KuraPayload;
+import org.eclipse.kura.message.KuraPosition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Encodes and decodes {@link KuraPayload} instances in the Kura protobuf format, as defined by the
+ * {@code kurapayload.proto} file of the cloud connection bundles.
+ * <p>
+ * The wire format is written and read directly, without building intermediate protobuf messages. The size of the
+ * encoded payload is computed in advance, so that the payload can be written into a single array of the exact size or
+ * into a buffer supplied by the caller. The produced bytes are identical to the ones produced by the generated
+ * protobuf classes.
+ */
+public final class KuraPayloadProtoBufCodec {
+
+    private static final Logger logger = LoggerFactory.getLogger(KuraPayloadProtoBufCodec.class);
+
+    private static final int WIRETYPE_VARINT = 0;
+    private static final int WIRETYPE_FIXED64 = 1;
+    private static final int WIRETYPE_LENGTH_DELIMITED = 2;
+    private static final int WIRETYPE_START_GROUP = 3;
+    private static final int WIRETYPE_END_GROUP = 4;
+    private static final int WIRETYPE_FIXED32 = 5;
+
+    // KuraPayload fields
+    private static final int PAYLOAD_TIMESTAMP = 1;
+    private static final int PAYLOAD_POSITION = 2;
+    private static final int PAYLOAD_METRIC = 5000;
+    private static final int PAYLOAD_BODY = 5001;
+
+    // KuraPosition fields
+    private static final int POSITION_LATITUDE = 1;
+    private static final int POSITION_LONGITUDE = 2;
+    private static final int POSITION_ALTITUDE = 3;
+    private static final int POSITION_PRECISION = 4;
+    private static final int POSITION_HEADING = 5;
+    private static final int POSITION_SPEED = 6;
+    private static final int POSITION_TIMESTAMP = 7;
+    private static final int POSITION_SATELLITES = 8;
+    private static final int POSITION_STATUS = 9;
+
+    // KuraMetric fields
+    private static final int METRIC_NAME = 1;
+    private static final int METRIC_TYPE = 2;
+    private static final int METRIC_DOUBLE_VALUE = 3;
+    private static final int METRIC_FLOAT_VALUE = 4;
+    private static final int METRIC_LONG_VALUE = 5;
+    private static final int METRIC_INT_VALUE = 6;
+    private static final int METRIC_BOOL_VALUE = 7;
+    private static final int METRIC_STRING_VALUE = 8;
+    private static final int METRIC_BYTES_VALUE = 9;
+
+    // KuraMetric.ValueType values
+    private static final int TYPE_DOUBLE = 0;
+    private static final int TYPE_FLOAT = 1;
+    private static final int TYPE_INT64 = 2;
+    private static final int TYPE_INT32 = 3;
+    private static final int TYPE_BOOL = 4;
+    private static final int TYPE_STRING = 5;
+    private static final int TYPE_BYTES = 6;
+
+    private static final byte[] EMPTY_BYTES = new byte[0];
+
+    private KuraPayloadProtoBufCodec() {
+    }
+
+    /**
+     * Encodes the given payload.
+     *
+     * @param payload
+     *            the payload
+     * @return the encoded payload
+     * @throws KuraInvalidMetricTypeException
+     *             if the payload contains a metric with a type that is not supported
+     */
+    public static byte[] encode(final KuraPayload payload) throws KuraInvalidMetricTypeException {
+        final Encoder encoder = new Encoder(payload);
+        final byte[] result = new byte[encoder.size];
+
+        encoder.write(result, 0);
+
+        return result;
+    }
+
+    /**
+     * Encodes the given payload into the given buffer.
+     *
+     * @param payload
+     *            the payload
+     * @param buffer
+     *            the destination buffer
+     * @param offset
+     *            the position in the buffer of the first byte to write
+     * @return the number of bytes written
+     * @throws KuraInvalidMetricTypeException
+     *             if the payload contains a metric with a type that is not supported
+     * @throws IndexOutOfBoundsException
+     *             if the buffer is too small, see {@link #computeSize(KuraPayload)}
+     */
+    public static int encode(final KuraPayload payload, final byte[] buffer, final int offset)
+            throws KuraInvalidMetricTypeException {
+        final Encoder encoder = new Encoder(payload);
+
+        if (offset < 0 || buffer.length - offset < encoder.size) {
+            throw new IndexOutOfBoundsException("buffer too small, " + encoder.size + " bytes required");
+        }
+
+        encoder.write(buffer, offset);
+
+        return encoder.size;
+    }
+
+    /**
+     * @param payload
+     *            the payload
+     * @return the size in bytes of the encoded payload
+     * @throws KuraInvalidMetricTypeException
+     *             if the payload contains a metric with a type that is not supported
+     */
+    public static int computeSize(final KuraPayload payload) throws KuraInvalidMetricTypeException {
+        return new Encoder(payload).size;
+    }
+
+    /**
+     * Decodes a payload.
+     *
+     * @param bytes
+     *            the encoded payload
+     * @return the decoded payload
+     * @throws KuraInvalidMessageException
+     *             if the data is not a valid encoded payload
+     */
+    public static KuraPayload decode(final byte[] bytes) throws KuraInvalidMessageException {
+        return decode(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Decodes a payload.
+     *
+     * @param bytes
+     *            the array containing the encoded payload
+     * @param offset
+     *            the offset of the encoded payload in the array
+     * @param length
+     *            the length of the encoded payload
+     * @return the decoded payload
+     * @throws KuraInvalidMessageException
+     *             if the data is not a valid encoded payload
+     */
+    public static KuraPayload decode(final byte[] bytes, final int offset, final int length)
+            throws KuraInvalidMessageException {
+        if (offset < 0 || length < 0 || bytes.length - offset < length) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        try {
+            return new Decoder(bytes, offset, offset + length).readPayload();
+        } catch (final ArrayIndexOutOfBoundsException e) {
+            throw new KuraInvalidMessageException(e, "truncated message");
+        }
+    }
+
+    //
+    // Encoding
+    //
+
+    private static final class Encoder {
+
+        private final KuraPayload payload;
+        private final Object[] metricValues;
+        private final String[] metricNames;
+        private final int[] metricSizes;
+        private final int positionSize;
+        private final int size;
+
+        private byte[] buffer;
+        private int position;
+
+        Encoder(final KuraPayload payload) throws KuraInvalidMetricTypeException {
+            this.payload = payload;
+
+            int result = 0;
+
+            if (payload.getTimestamp() != null) {
+                result += tagSize(PAYLOAD_TIMESTAMP) + varintSize(payload.getTimestamp().getTime());
+            }
+
+            final KuraPosition kuraPosition = payload.getPosition();
+
+            if (kuraPosition != null) {
+                this.positionSize = computePositionSize(kuraPosition);
+                result += tagSize(PAYLOAD_POSITION) + varintSize(this.positionSize) + this.positionSize;
+            } else {
+                this.positionSize = 0;
+            }
+
+            final Map<String, Object> metrics = payload.metrics();
+
+            this.metricNames = new String[metrics.size()];
+            this.metricValues = new Object[metrics.size()];
+            this.metricSizes = new int[metrics.size()];
+
+            int count = 0;
+
+            for (final Map.Entry<String, Object> entry : metrics.entrySet()) {
+                final String name = entry.getKey();
+                final Object value = entry.getValue();
+
+                if (value == null) {
+                    logger.warn("Received a metric with a null value!");
+                    continue;
+                }
+
+                final int metricSize = computeMetricSize(name, value);
+
+                this.metricNames[count] = name;
+                this.metricValues[count] = value;
+                this.metricSizes[count] = metricSize;
+                count++;
+
+                result += tagSize(PAYLOAD_METRIC) + varintSize(metricSize) + metricSize;
+            }
+
+            if (payload.getBody() != null) {
+                result += tagSize(PAYLOAD_BODY) + varintSize(payload.getBody().length) + payload.getBody().length;
+            }
+
+            this.size = result;
+        }
+
+        void write(final byte[] dest, final int offset) {
+            this.buffer = dest;
+            this.position = offset;
+
+            if (this.payload.getTimestamp() != null) {
+                writeTag(PAYLOAD_TIMESTAMP, WIRETYPE_VARINT);
+                writeVarint(this.payload.getTimestamp().getTime());
+            }
+
+            final KuraPosition kuraPosition = this.payload.getPosition();
+
+            if (kuraPosition != null) {
+                writeTag(PAYLOAD_POSITION, WIRETYPE_LENGTH_DELIMITED);
+                writeVarint(this.positionSize);
+                writePosition(kuraPosition);
+            }
+
+            for (int i = 0; i < this.metricNames.length && this.metricNames[i] != null; i++) {
+                writeTag(PAYLOAD_METRIC, WIRETYPE_LENGTH_DELIMITED);
+                writeVarint(this.metricSizes[i]);
+                writeMetric(this.metricNames[i], this.metricValues[i]);
+            }
+
+            final byte[] body = this.payload.getBody();
+
+            if (body != null) {
+                writeTag(PAYLOAD_BODY, WIRETYPE_LENGTH_DELIMITED);
+                writeVarint(body.length);
+                System.arraycopy(body, 0, this.buffer, this.position, body.length);
+                this.position += body.length;
+            }
+
+            this.buffer = null;
+        }
+
+        private static int computePositionSize(final KuraPosition kuraPosition) {
+            if (kuraPosition.getLatitude() == null || kuraPosition.getLongitude() == null) {
+                throw new IllegalArgumentException("position latitude and longitude are required");
+            }
+
+            int result = 2 * (tagSize(POSITION_LATITUDE) + 8);
+
+            result += optionalDoubleSize(kuraPosition.getAltitude());
+            result += optionalDoubleSize(kuraPosition.getPrecision());
+            result += optionalDoubleSize(kuraPosition.getHeading());
+            result += optionalDoubleSize(kuraPosition.getSpeed());
+
+            if (kuraPosition.getTimestamp() != null) {
+                result += tagSize(POSITION_TIMESTAMP) + varintSize(kuraPosition.getTimestamp().getTime());
+            }
+            if (kuraPosition.getSatellites() != null) {
+                result += tagSize(POSITION_SATELLITES) + int32Size(kuraPosition.getSatellites());
+            }
+            if (kuraPosition.getStatus() != null) {
+                result += tagSize(POSITION_STATUS) + int32Size(kuraPosition.getStatus());
+            }
+
+            return result;
+        }
+
+        private static int optionalDoubleSize(final Double value) {
+            return value != null ? 1 + 8 : 0;
+        }
+
+        private void writePosition(final KuraPosition kuraPosition) {
+            writeDouble(POSITION_LATITUDE, kuraPosition.getLatitude());
+            writeDouble(POSITION_LONGITUDE, kuraPosition.getLongitude());
+            writeOptionalDouble(POSITION_ALTITUDE, kuraPosition.getAltitude());
+            writeOptionalDouble(POSITION_PRECISION, kuraPosition.getPrecision());
+            writeOptionalDouble(POSITION_HEADING, kuraPosition.getHeading());
+            writeOptionalDouble(POSITION_SPEED, kuraPosition.getSpeed());
+
+            if (kuraPosition.getTimestamp() != null) {
+                writeTag(POSITION_TIMESTAMP, WIRETYPE_VARINT);
+                writeVarint(kuraPosition.getTimestamp().getTime());
+            }
+            if (kuraPosition.getSatellites() != null) {
+                writeTag(POSITION_SATELLITES, WIRETYPE_VARINT);
+                writeVarint(kuraPosition.getSatellites());
+            }
+            if (kuraPosition.getStatus() != null) {
+                writeTag(POSITION_STATUS, WIRETYPE_VARINT);
+                writeVarint(kuraPosition.getStatus());
+            }
+        }
+
+        private static int computeMetricSize(final String name, final Object value)
+                throws KuraInvalidMetricTypeException {
+            final int nameLength = utf8Length(name);
+
+            int result = tagSize(METRIC_NAME) + varintSize(nameLength) + nameLength + tagSize(METRIC_TYPE) + 1;
+
+            if (value instanceof String) {
+                final int length = utf8Length((String) value);
+                result += tagSize(METRIC_STRING_VALUE) + varintSize(length) + length;
+            } else if (value instanceof Double) {
+                result += tagSize(METRIC_DOUBLE_VALUE) + 8;
+            } else if (value instanceof Integer) {
+                result += tagSize(METRIC_INT_VALUE) + int32Size((Integer) value);
+            } else if (value instanceof Float) {
+                result += tagSize(METRIC_FLOAT_VALUE) + 4;
+            } else if (value instanceof Long) {
+                result += tagSize(METRIC_LONG_VALUE) + varintSize((Long) value);
+            } else if (value instanceof Boolean) {
+                result += tagSize(METRIC_BOOL_VALUE) + 1;
+            } else if (value instanceof byte[]) {
+                final int length = ((byte[]) value).length;
+                result += tagSize(METRIC_BYTES_VALUE) + varintSize(length) + length;
+            } else {
+                logger.error("During serialization, ignoring metric named: {}. Unrecognized value type: {}.", name,
+                        value.getClass().getName());
+                throw new KuraInvalidMetricTypeException(value.getClass().getName());
+            }
+
+            return result;
+        }
+
+        private void writeMetric(final String name, final Object value) {
+            writeTag(METRIC_NAME, WIRETYPE_LENGTH_DELIMITED);
+            writeString(name);
+
+            if (value instanceof String) {
+                writeType(TYPE_STRING);
+                writeTag(METRIC_STRING_VALUE, WIRETYPE_LENGTH_DELIMITED);
+                writeString((String) value);
+            } else if (value instanceof Double) {
+                writeType(TYPE_DOUBLE);
+                writeDouble(METRIC_DOUBLE_VALUE, (Double) value);
+            } else if (value instanceof Integer) {
+                writeType(TYPE_INT32);
+                writeTag(METRIC_INT_VALUE, WIRETYPE_VARINT);
+                writeVarint((Integer) value);
+            } else if (value instanceof Float) {
+                writeType(TYPE_FLOAT);
+                writeTag(METRIC_FLOAT_VALUE, WIRETYPE_FIXED32);
+                writeFixed32(Float.floatToRawIntBits((Float) value));
+            } else if (value instanceof Long) {
+                writeType(TYPE_INT64);
+                writeTag(METRIC_LONG_VALUE, WIRETYPE_VARINT);
+                writeVarint((Long) value);
+            } else if (value instanceof Boolean) {
+                writeType(TYPE_BOOL);
+                writeTag(METRIC_BOOL_VALUE, WIRETYPE_VARINT);
+                this.buffer[this.position++] = (byte) ((Boolean) value ? 1 : 0);
+            } else {
+                final byte[] bytes = (byte[]) value;
+                writeType(TYPE_BYTES);
+                writeTag(METRIC_BYTES_VALUE, WIRETYPE_LENGTH_DELIMITED);
+                writeVarint(bytes.length);
+                System.arraycopy(bytes, 0, this.buffer, this.position, bytes.length);
+                this.position += bytes.length;
+            }
+        }
+
+        private void writeType(final int type) {
+            writeTag(METRIC_TYPE, WIRETYPE_VARINT);
+            this.buffer[this.position++] = (byte) type;
+        }
+
+        private void writeOptionalDouble(final int field, final Double value) {
+            if (value != null) {
+                writeDouble(field, value);
+            }
+        }
+
+        private void writeDouble(final int field, final double value) {
+            writeTag(field, WIRETYPE_FIXED64);
+
+            final long bits = Double.doubleToRawLongBits(value);
+
+            writeFixed32((int) bits);
+            writeFixed32((int) (bits >>> 32));
+        }
+
+        private void writeFixed32(final int value) {
+            this.buffer[this.position++] = (byte) value;
+            this.buffer[this.position++] = (byte) (value >> 8);
+            this.buffer[this.position++] = (byte) (value >> 16);
+            this.buffer[this.position++] = (byte) (value >> 24);
+        }
+
+        private void writeTag(final int field, final int wireType) {
+            writeVarint(field << 3 | wireType);
+        }
+
+        private void writeVarint(final int value) {
+            if (value >= 0) {
+                int v = value;
+                while ((v & ~0x7F) != 0) {
+                    this.buffer[this.position++] = (byte) (v & 0x7F | 0x80);
+                    v >>>= 7;
+                }
+                this.buffer[this.position++] = (byte) v;
+            } else {
+                // negative int32 values are sign extended
+                writeVarint((long) value);
+            }
+        }
+
+        private void writeVarint(final long value) {
+            long v = value;
+            while ((v & ~0x7FL) != 0) {
+                this.buffer[this.position++] = (byte) (v & 0x7F | 0x80);
+                v >>>= 7;
+            }
+            this.buffer[this.position++] = (byte) v;
+        }
+
+        private void writeString(final String value) {
+            final int length = utf8Length(value);
+
+            writeVarint(length);
+
+            final int end = value.length();
+
+            for (int i = 0; i < end; i++) {
+                final char c = value.charAt(i);
+
+                if (c < 0x80) {
+                    this.buffer[this.position++] = (byte) c;
+                } else if (c < 0x800) {
+                    this.buffer[this.position++] = (byte) (0xC0 | c >>> 6);
+                    this.buffer[this.position++] = (byte) (0x80 | c & 0x3F);
+                } else if (!Character.isSurrogate(c)) {
+                    writeThreeBytes(c);
+                } else if (Character.isHighSurrogate(c) && i + 1 < end
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    this.buffer[this.position++] = (byte) (0xF0 | codePoint >>> 18);
+                    this.buffer[this.position++] = (byte) (0x80 | codePoint >>> 12 & 0x3F);
+                    this.buffer[this.position++] = (byte) (0x80 | codePoint >>> 6 & 0x3F);
+                    this.buffer[this.position++] = (byte) (0x80 | codePoint & 0x3F);
+                } else {
+                    // unpaired surrogate, replaced as done by String.getBytes()
+                    this.buffer[this.position++] = (byte) '?';
+                }
+            }
+        }
+
+        private void writeThreeBytes(final char c) {
+            this.buffer[this.position++] = (byte) (0xE0 | c >>> 12);
+            this.buffer[this.position++] = (byte) (0x80 | c >>> 6 & 0x3F);
+            this.buffer[this.position++] = (byte) (0x80 | c & 0x3F);
+        }
+    }
+
+    private static int utf8Length(final String value) {
+        final int length = value.length();
+        int result = length;
+
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+
+            if (c < 0x80) {
+                continue;
+            } else if (c < 0x800) {
+                result += 1;
+            } else if (!Character.isSurrogate(c)) {
+                result += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                // 4 bytes for 2 chars
+                result += 2;
+                i++;
+            }
+            // an unpaired surrogate is replaced by a single byte
+        }
+
+        return result;
+    }
+
+    private static int tagSize(final int field) {
+        return varintSize(field << 3);
+    }
+
+    private static int int32Size(final int value) {
+        return value >= 0 ? varintSize(value) : 10;
+    }
+
+    private static int varintSize(final int value) {
+        if ((value & ~0x7F) == 0) {
+            return 1;
+        } else if ((value & ~0x3FFF) == 0) {
+            return 2;
+        } else if ((value & ~0x1FFFFF) == 0) {
+            return 3;
+        } else if ((value & ~0xFFFFFFF) == 0) {
+            return 4;
+        }
+        return 5;
+    }
+
+    private static int varintSize(final long value) {
+        if (value < 0) {
+            return 10;
+        }
+
+        int result = 1;
+        long v = value;
+
+        while ((v & ~0x7FL) != 0) {
+            result++;
+            v >>>= 7;
+        }
+
+        return result;
+    }
+
+    //
+    // Decoding
+    //
+
+    private static final class Decoder {
+
+        private final byte[] buffer;
+        private int position;
+        private int limit;
+
+        Decoder(final byte[] buffer, final int offset, final int limit) {
+            this.buffer = buffer;
+            this.position = offset;
+            this.limit = limit;
+        }
+
+        KuraPayload readPayload() throws KuraInvalidMessageException {
+            final KuraPayload payload = new KuraPayload();
+            KuraPosition kuraPosition = null;
+            byte[] body = null;
+
+            while (this.position < this.limit) {
+                final int tag = readTag();
+                final int field = tag >>> 3;
+                final int wireType = tag & 7;
+
+                if (field == PAYLOAD_TIMESTAMP && wireType == WIRETYPE_VARINT) {
+                    payload.setTimestamp(new Date(readVarint64()));
+                } else if (field == PAYLOAD_POSITION && wireType == WIRETYPE_LENGTH_DELIMITED) {
+                    // repeated occurrences of a message field are merged
+                    kuraPosition = readPosition(kuraPosition != null ? kuraPosition : new KuraPosition());
+                } else if (field == PAYLOAD_METRIC && wireType == WIRETYPE_LENGTH_DELIMITED) {
+                    readMetric(payload);
+                } else if (field == PAYLOAD_BODY && wireType == WIRETYPE_LENGTH_DELIMITED) {
+                    body = readBytes();
+                } else {
+                    skipField(tag);
+                }
+            }
+
+            if (kuraPosition != null) {
+                if (kuraPosition.getLatitude() == null || kuraPosition.getLongitude() == null) {
+                    throw new KuraInvalidMessageException("missing required position fields");
+                }
+                payload.setPosition(kuraPosition);
+            }
+
+            if (body != null) {
+                payload.setBody(body);
+            }
+
+            return payload;
+        }
+
+        private KuraPosition readPosition(final KuraPosition kuraPosition) throws KuraInvalidMessageException {
+            final int oldLimit = pushLimit();
+
+            while (this.position < this.limit) {
+                final int tag = readTag();
+                final int field = tag >>> 3;
+                final int wireType = tag & 7;
+
+                if (wireType == WIRETYPE_FIXED64 && field >= POSITION_LATITUDE && field <= POSITION_SPEED) {
+                    final double value = Double.longBitsToDouble(readFixed64());
+
+                    switch (field) {
+                    case POSITION_LATITUDE:
+                        kuraPosition.setLatitude(value);
+                        break;
+                    case POSITION_LONGITUDE:
+                        kuraPosition.setLongitude(value);
+                        break;
+                    case POSITION_ALTITUDE:
+                        kuraPosition.setAltitude(value);
+                        break;
+                    case POSITION_PRECISION:
+                        kuraPosition.setPrecision(value);
+                        break;
+                    case POSITION_HEADING:
+                        kuraPosition.setHeading(value);
+                        break;
+                    default:
+                        kuraPosition.setSpeed(value);
+                        break;
+                    }
+                } else if (wireType == WIRETYPE_VARINT && field == POSITION_TIMESTAMP) {
+                    kuraPosition.setTimestamp(new Date(readVarint64()));
+                } else if (wireType == WIRETYPE_VARINT && field == POSITION_SATELLITES) {
+                    kuraPosition.setSatellites((int) readVarint64());
+                } else if (wireType == WIRETYPE_VARINT && field == POSITION_STATUS) {
+                    kuraPosition.setStatus((int) readVarint64());
+                } else {
+                    skipField(tag);
+                }
+            }
+
+            popLimit(oldLimit);
+
+            return kuraPosition;
+        }
+
+        private void readMetric(final KuraPayload payload) throws KuraInvalidMessageException {
+            final int oldLimit = pushLimit();
+
+            String name = null;
+            int type = -1;
+            double doubleValue = 0;
+            float floatValue = 0;
+            long longValue = 0;
+            int intValue = 0;
+            boolean boolValue = false;
+            String stringValue = "";
+            byte[] bytesValue = EMPTY_BYTES;
+
+            while (this.position < this.limit) {
+                final int tag = readTag();
+                final int field = tag >>> 3;
+                final int wireType = tag & 7;
+
+                if (field == METRIC_NAME && wireType == WIRETYPE_LENGTH_DELIMITED) {
+                    name = readString();
+                } else if (field == METRIC_TYPE && wireType == WIRETYPE_VARINT) {
+                    final int value = (int) readVarint64();
+
+                    // unknown enum values are ignored
+                    if (value >= TYPE_DOUBLE && value <= TYPE_BYTES) {
+                        type = value;
+                    }
+                } else if (field == METRIC_DOUBLE_VALUE && wireType == WIRETYPE_FIXED64) {
+                    doubleValue = Double.longBitsToDouble(readFixed64());
+                } else if (field == METRIC_FLOAT_VALUE && wireType == WIRETYPE_FIXED32) {
+                    floatValue = Float.intBitsToFloat(readFixed32());
+                } else if (field == METRIC_LONG_VALUE && wireType == WIRETYPE_VARINT) {
+                    longValue = readVarint64();
+                } else if (field == METRIC_INT_VALUE && wireType == WIRETYPE_VARINT) {
+                    intValue = (int) readVarint64();
+                } else if (field == METRIC_BOOL_VALUE && wireType == WIRETYPE_VARINT) {
+                    boolValue = readVarint64() != 0;
+                } else if (field == METRIC_STRING_VALUE && wireType == WIRETYPE_LENGTH_DELIMITED) {
+                    stringValue = readString();
+                } else if (field == METRIC_BYTES_VALUE && wireType == WIRETYPE_LENGTH_DELIMITED) {
+                    bytesValue = readBytes();
+                } else {
+                    skipField(tag);
+                }
+            }
+
+            popLimit(oldLimit);
+
+            if (name == null || type == -1) {
+                throw new KuraInvalidMessageException("missing required metric fields");
+            }
+
+            switch (type) {
+            case TYPE_DOUBLE:
+                payload.addMetric(name, doubleValue);
+                break;
+            case TYPE_FLOAT:
+                payload.addMetric(name, floatValue);
+                break;
+            case TYPE_INT64:
+                payload.addMetric(name, longValue);
+                break;
+            case TYPE_INT32:
+                payload.addMetric(name, intValue);
+                break;
+            case TYPE_BOOL:
+                payload.addMetric(name, boolValue);
+                break;
+            case TYPE_STRING:
+                payload.addMetric(name, stringValue);
+                break;
+            default:
+                payload.addMetric(name, bytesValue);
+                break;
+            }
+        }
+
+        private int pushLimit() throws KuraInvalidMessageException {
+            final int length = readLength();
+            final int oldLimit = this.limit;
+
+            this.limit = this.position + length;
+
+            return oldLimit;
+        }
+
+        private void popLimit(final int oldLimit) {
+            this.limit = oldLimit;
+        }
+
+        private void skipField(final int tag) throws KuraInvalidMessageException {
+            switch (tag & 7) {
+            case WIRETYPE_VARINT:
+                readVarint64();
+                break;
+            case WIRETYPE_FIXED64:
+                skip(8);
+                break;
+            case WIRETYPE_LENGTH_DELIMITED:
+                skip(readLength());
+                break;
+            case WIRETYPE_START_GROUP:
+                skipGroup(tag >>> 3);
+                break;
+            case WIRETYPE_FIXED32:
+                skip(4);
+                break;
+            default:
+                throw new KuraInvalidMessageException("invalid wire type");
+            }
+        }
+
+        private void skipGroup(final int field) throws KuraInvalidMessageException {
+            while (true) {
+                if (this.position >= this.limit) {
+                    throw new KuraInvalidMessageException("truncated group");
+                }
+
+                final int tag = readTag();
+
+                if ((tag & 7) == WIRETYPE_END_GROUP) {
+                    if (tag >>> 3 != field) {
+                        throw new KuraInvalidMessageException("unexpected end group tag");
+                    }
+                    return;
+                }
+
+                skipField(tag);
+            }
+        }
+
+        private void skip(final int length) throws KuraInvalidMessageException {
+            if (length > this.limit - this.position) {
+                throw new KuraInvalidMessageException("truncated message");
+            }
+            this.position += length;
+        }
+
+        private int readTag() throws KuraInvalidMessageException {
+            final long tag = readVarint64();
+
+            if (tag >>> 3 == 0 || tag > Integer.MAX_VALUE) {
+                throw new KuraInvalidMessageException("invalid tag");
+            }
+
+            return (int) tag;
+        }
+
+        private int readLength() throws KuraInvalidMessageException {
+            final long length = readVarint64();
+
+            if (length < 0 || length > this.limit - this.position) {
+                throw new KuraInvalidMessageException("truncated message");
+            }
+
+            return (int) length;
+        }
+
+        private long readVarint64() throws KuraInvalidMessageException {
+            long result = 0;
+
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (this.position >= this.limit) {
+                    throw new KuraInvalidMessageException("truncated message");
+                }
+
+                final byte b = this.buffer[this.position++];
+                result |= (long) (b & 0x7F) << shift;
+
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+
+            throw new KuraInvalidMessageException("malformed varint");
+        }
+
+        private int readFixed32() throws KuraInvalidMessageException {
+            if (this.limit - this.position < 4) {
+                throw new KuraInvalidMessageException("truncated message");
+            }
+
+            final byte[] b = this.buffer;
+            final int p = this.position;
+
+            this.position += 4;
+
+            return b[p] & 0xFF | (b[p + 1] & 0xFF) << 8 | (b[p + 2] & 0xFF) << 16 | (b[p + 3] & 0xFF) << 24;
+        }
+
+        private long readFixed64() throws KuraInvalidMessageException {
+            final long low = readFixed32() & 0xFFFFFFFFL;
+            final long high = readFixed32() & 0xFFFFFFFFL;
+
+            return high << 32 | low;
+        }
+
+        private String readString() throws KuraInvalidMessageException {
+            final int length = readLength();
+            final String result = new String(this.buffer, this.position, length, UTF_8);
+
+            this.position += length;
+
+            return result;
+        }
+
+        private byte[] readBytes() throws KuraInvalidMessageException {
+            final int length = readLength();
+            final byte[] result = new byte[length];
+
+            System.arraycopy(this.buffer, this.position, result, 0, length);
+            this.position += length;
+
+            return result;
+        }
+    }
+}
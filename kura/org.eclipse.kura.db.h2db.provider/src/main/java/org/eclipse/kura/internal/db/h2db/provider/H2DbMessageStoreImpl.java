@@ -18,7 +18,6 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.sql.Types;
-import java.util.Date;
 
 import org.eclipse.kura.KuraStoreException;
 import org.eclipse.kura.message.store.StoredMessage;
@@ -26,6 +25,7 @@ import org.eclipse.kura.message.store.StoredMessage.Builder;
 import org.eclipse.kura.util.jdbc.ConnectionProvider;
 import org.eclipse.kura.util.jdbc.JdbcUtil;
 import org.eclipse.kura.util.message.store.AbstractJdbcMessageStoreImpl;
+import org.eclipse.kura.util.message.store.GroupCommitOptions;
 import org.eclipse.kura.util.message.store.JdbcMessageStoreQueries;
 import org.h2.api.ErrorCode;
 
@@ -59,7 +59,12 @@ public class H2DbMessageStoreImpl extends AbstractJdbcMessageStoreImpl {
     private String sqlGetFreeId;
 
     public H2DbMessageStoreImpl(final ConnectionProvider provider, final String table) throws KuraStoreException {
-        super(provider, table);
+        this(provider, table, GroupCommitOptions.disabled());
+    }
+
+    public H2DbMessageStoreImpl(final ConnectionProvider provider, final String table,
+            final GroupCommitOptions groupCommitOptions) throws KuraStoreException {
+        super(provider, table, groupCommitOptions);
 
         initDb();
     }
@@ -71,6 +76,7 @@ public class H2DbMessageStoreImpl extends AbstractJdbcMessageStoreImpl {
 
         super.createTable();
         super.createIndexes();
+        super.initMessageCount();
     }
 
     @Override
@@ -95,6 +101,10 @@ public class H2DbMessageStoreImpl extends AbstractJdbcMessageStoreImpl {
                         + this.escapedTableName + " AS a JOIN (SELECT id, publishedOn FROM " + super.escapedTableName
                         + " ORDER BY publishedOn ASC NULLS FIRST, priority ASC, createdOn ASC LIMIT 1) AS b "
                         + "WHERE a.id = b.id AND b.publishedOn IS NULL;")
+                .withSqlGetNextMessages("SELECT id, topic, qos, retain, createdOn, publishedOn, publishedMessageId, "
+                        + "confirmedOn, smallPayload, largePayload, priority, sessionId, droppedOn FROM "
+                        + super.escapedTableName
+                        + " WHERE publishedOn IS NULL ORDER BY publishedOn ASC, priority ASC, createdOn ASC LIMIT ?;")
                 .withSqlSetPublishedQoS1(UPDATE + super.escapedTableName
                         + " SET publishedOn = ?, publishedMessageId = ?, sessionId = ? WHERE id = ?;")
                 .withSqlSetPublishedQoS0(UPDATE + super.escapedTableName + " SET publishedOn = ? WHERE id = ?;")
@@ -132,16 +142,18 @@ public class H2DbMessageStoreImpl extends AbstractJdbcMessageStoreImpl {
     }
 
     @Override
-    public synchronized int store(String topic, byte[] payload, int qos, boolean retain, int priority)
+    public int store(String topic, byte[] payload, int qos, boolean retain, int priority)
             throws KuraStoreException {
 
         validate(topic);
 
         try {
-            return (int) storeInternal(topic, payload, qos, retain, priority);
+            return (int) storeMessage(topic, payload, qos, retain, priority);
         } catch (KuraStoreException e) {
-            handleKuraStoreException(e);
-            return (int) storeInternal(topic, payload, qos, retain, priority);
+            synchronized (this) {
+                handleKuraStoreException(e);
+                return (int) storeInternal(topic, payload, qos, retain, priority);
+            }
         }
 
     }
@@ -175,47 +187,27 @@ public class H2DbMessageStoreImpl extends AbstractJdbcMessageStoreImpl {
     }
 
     @Override
-    protected synchronized long storeInternal(String topic, byte[] payload, int qos, boolean retain, int priority)
-            throws KuraStoreException {
-
-        final Timestamp now = new Timestamp(new Date().getTime());
-
-        return super.connectionProvider.withConnection(c -> {
-
-            final long result;
-
-            try (PreparedStatement pstmt = c.prepareStatement(super.queries.getSqlStore(), new String[] { "id" })) {
-                pstmt.setString(1, topic);
-                pstmt.setInt(2, qos);
-                pstmt.setBoolean(3, retain);
-                pstmt.setTimestamp(4, now, this.utcCalendar);
-                pstmt.setTimestamp(5, null);
-                pstmt.setInt(6, -1);
-                pstmt.setTimestamp(7, null);
-
-                if (payload == null || payload.length < PAYLOAD_BYTE_SIZE_THRESHOLD) {
-                    pstmt.setBytes(8, payload);
-                    pstmt.setNull(9, Types.BLOB);
-                } else {
-                    pstmt.setNull(8, Types.VARBINARY);
-                    pstmt.setBinaryStream(9, new ByteArrayInputStream(payload), payload.length);
-                }
-
-                pstmt.setInt(10, priority);
-                pstmt.setString(11, null);
-                pstmt.setTimestamp(12, null);
-
-                pstmt.execute();
-
-                result = (long) JdbcUtil.getFirstColumnValue(pstmt::getGeneratedKeys, ResultSet::getInt);
-
-            }
-
-            c.commit();
-
-            return result;
-        }, "Cannot store message");
+    protected void setStoreParameters(final PreparedStatement pstmt, String topic, byte[] payload, int qos,
+            boolean retain, int priority, final Timestamp now) throws SQLException {
+        pstmt.setString(1, topic);
+        pstmt.setInt(2, qos);
+        pstmt.setBoolean(3, retain);
+        pstmt.setTimestamp(4, now, this.utcCalendar);
+        pstmt.setTimestamp(5, null);
+        pstmt.setInt(6, -1);
+        pstmt.setTimestamp(7, null);
+
+        if (payload == null || payload.length < PAYLOAD_BYTE_SIZE_THRESHOLD) {
+            pstmt.setBytes(8, payload);
+            pstmt.setNull(9, Types.BLOB);
+        } else {
+            pstmt.setNull(8, Types.VARBINARY);
+            pstmt.setBinaryStream(9, new ByteArrayInputStream(payload), payload.length);
+        }
 
+        pstmt.setInt(10, priority);
+        pstmt.setString(11, null);
+        pstmt.setTimestamp(12, null);
     }
 
     @Override
@@ -45,7 +45,9 @@ import org.eclipse.kura.crypto.CryptoService;
 import org.eclipse.kura.db.H2DbService;
 import org.eclipse.kura.message.store.provider.MessageStore;
 import org.eclipse.kura.message.store.provider.MessageStoreProvider;
+import org.eclipse.kura.type.TypedValue;
 import org.eclipse.kura.util.jdbc.SQLFunction;
+import org.eclipse.kura.util.message.store.GroupCommitOptions;
 import org.eclipse.kura.util.store.listener.ConnectionListenerManager;
 import org.eclipse.kura.wire.WireRecord;
 import org.eclipse.kura.wire.store.provider.QueryableWireRecordStoreProvider;
@@ -81,6 +83,7 @@ public class H2DbServiceImpl implements H2DbService, MessageStoreProvider, WireR
     }
 
     private H2DbServiceOptions configuration;
+    private volatile GroupCommitOptions groupCommitOptions = GroupCommitOptions.disabled();
 
     private JdbcDataSource dataSource;
     private JdbcConnectionPool connectionPool;
@@ -350,6 +353,7 @@ public class H2DbServiceImpl implements H2DbService, MessageStoreProvider, WireR
             }
 
             this.configuration = newConfiguration;
+            this.groupCommitOptions = newConfiguration.getGroupCommitOptions();
             activeInstances.put(baseUrl, this);
 
             logger.info("updating...done");
@@ -631,7 +635,7 @@ public class H2DbServiceImpl implements H2DbService, MessageStoreProvider, WireR
     @Override
     public MessageStore openMessageStore(String name) throws KuraStoreException {
 
-        return new H2DbMessageStoreImpl(this::withConnectionAdapter, name);
+        return new H2DbMessageStoreImpl(this::withConnectionAdapter, name, this.groupCommitOptions);
     }
 
     @Override
@@ -646,6 +650,14 @@ public class H2DbServiceImpl implements H2DbService, MessageStoreProvider, WireR
         return new H2DbQueryableWireRecordStoreImpl(this::withConnectionAdapter).performQuery(query);
     }
 
+    @Override
+    public List<WireRecord> performQuery(String query, String keyProperty, TypedValue<?> lastKey, int limit)
+            throws KuraStoreException {
+
+        return new H2DbQueryableWireRecordStoreImpl(this::withConnectionAdapter).performQuery(query, keyProperty,
+                lastKey, limit);
+    }
+
     @SuppressWarnings("restriction")
     private <T> T withConnectionAdapter(final SQLFunction<Connection, T> callable) throws SQLException {
 
@@ -17,6 +17,8 @@ import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.eclipse.kura.util.message.store.GroupCommitOptions;
+
 class H2DbServiceOptions {
 
     private static final Property<String> CONNECTOR_URL_PROP = new Property<>("db.connector.url", "jdbc:h2:mem:kuradb");
@@ -27,6 +29,9 @@ class H2DbServiceOptions {
     private static final Property<Integer> DEFRAG_INTERVAL_MINUTES_PROP = new Property<>("db.defrag.interval.minutes",
             20);
     private static final Property<Integer> CONNECTION_POOL_MAX_SIZE = new Property<>("db.connection.pool.max.size", 10);
+    private static final Property<Integer> GROUP_COMMIT_WINDOW_MS = new Property<>("db.group.commit.window.ms", 0);
+    private static final Property<Integer> GROUP_COMMIT_MAX_MESSAGES = new Property<>("db.group.commit.max.messages",
+            256);
 
     private static final Pattern FILE_LOG_LEVEL_PATTERN = generatePatternForProperty("trace_level_file");
     private static final Pattern USER_PATTERN = generatePatternForProperty("user");
@@ -40,6 +45,7 @@ class H2DbServiceOptions {
     private final long checkpointIntervalSeconds;
     private final long defragIntervalMinutes;
     private final int maxConnectionPoolSize;
+    private final GroupCommitOptions groupCommitOptions;
 
     private boolean isInMemory;
     private boolean isFileBased;
@@ -57,6 +63,8 @@ class H2DbServiceOptions {
         this.checkpointIntervalSeconds = CHECKPOINT_INTERVAL_SECONDS_PROP.get(properties);
         this.defragIntervalMinutes = DEFRAG_INTERVAL_MINUTES_PROP.get(properties);
         this.maxConnectionPoolSize = CONNECTION_POOL_MAX_SIZE.get(properties);
+        this.groupCommitOptions = new GroupCommitOptions(GROUP_COMMIT_WINDOW_MS.get(properties),
+                GROUP_COMMIT_MAX_MESSAGES.get(properties));
 
         String dbUrlProp = CONNECTOR_URL_PROP.get(properties);
 
@@ -186,6 +194,10 @@ class H2DbServiceOptions {
         return this.maxConnectionPoolSize;
     }
 
+    public GroupCommitOptions getGroupCommitOptions() {
+        return this.groupCommitOptions;
+    }
+
     public boolean isFileBasedLogLevelSpecified() {
         return this.isFileBasedLogLevelSpecified;
     }
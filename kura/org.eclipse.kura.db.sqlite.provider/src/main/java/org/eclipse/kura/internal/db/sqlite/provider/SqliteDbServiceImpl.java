@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2022, 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2022, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -34,7 +34,9 @@ import org.eclipse.kura.db.BaseDbService;
 import org.eclipse.kura.internal.db.sqlite.provider.SqliteDbServiceOptions.Mode;
 import org.eclipse.kura.message.store.provider.MessageStore;
 import org.eclipse.kura.message.store.provider.MessageStoreProvider;
+import org.eclipse.kura.type.TypedValue;
 import org.eclipse.kura.util.jdbc.SQLFunction;
+import org.eclipse.kura.util.message.store.GroupCommitOptions;
 import org.eclipse.kura.util.store.listener.ConnectionListenerManager;
 import org.eclipse.kura.wire.WireRecord;
 import org.eclipse.kura.wire.store.provider.QueryableWireRecordStoreProvider;
@@ -57,6 +59,7 @@ public class SqliteDbServiceImpl implements BaseDbService, ConfigurableComponent
 
     private Optional<DbState> state = Optional.empty();
     private ConnectionListenerManager listenerManager = new ConnectionListenerManager();
+    private volatile GroupCommitOptions groupCommitOptions = GroupCommitOptions.disabled();
 
     public void setDebugShell(final SqliteDebugShell debugShell) {
         this.debugShell = debugShell;
@@ -84,6 +87,7 @@ public class SqliteDbServiceImpl implements BaseDbService, ConfigurableComponent
         logger.info("updating...");
 
         final SqliteDbServiceOptions newOptions = new SqliteDbServiceOptions(properties);
+        this.groupCommitOptions = newOptions.getGroupCommitOptions();
         this.debugShell.setPidAllowed(newOptions.getKuraServicePid(), newOptions.isDebugShellAccessEnabled());
 
         final Optional<SqliteDbServiceOptions> oldOptions = this.state.map(DbState::getOptions);
@@ -305,7 +309,7 @@ public class SqliteDbServiceImpl implements BaseDbService, ConfigurableComponent
     @Override
     public MessageStore openMessageStore(String name) throws KuraStoreException {
 
-        return new SqliteMessageStoreImpl(this::withConnection, name);
+        return new SqliteMessageStoreImpl(this::withConnection, name, this.groupCommitOptions);
     }
 
     @Override
@@ -321,6 +325,15 @@ public class SqliteDbServiceImpl implements BaseDbService, ConfigurableComponent
         return new SqliteQueryableWireRecordStoreImpl(this::withConnection).performQuery(query);
     }
 
+    @Override
+    @SuppressWarnings("restriction")
+    public List<WireRecord> performQuery(String query, String keyProperty, TypedValue<?> lastKey, int limit)
+            throws KuraStoreException {
+
+        return new SqliteQueryableWireRecordStoreImpl(this::withConnection).performQuery(query, keyProperty, lastKey,
+                limit);
+    }
+
     @SuppressWarnings("restriction")
     private <T> T withConnection(final SQLFunction<Connection, T> callable) throws SQLException {
 
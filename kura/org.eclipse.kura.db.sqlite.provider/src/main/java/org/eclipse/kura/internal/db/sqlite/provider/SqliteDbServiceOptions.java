@@ -23,6 +23,7 @@ import org.eclipse.kura.KuraException;
 import org.eclipse.kura.configuration.ConfigurationService;
 import org.eclipse.kura.crypto.CryptoService;
 import org.eclipse.kura.util.configuration.Property;
+import org.eclipse.kura.util.message.store.GroupCommitOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sqlite.SQLiteConfig.HexKeyMode;
@@ -119,6 +120,10 @@ class SqliteDbServiceOptions {
     private static final Property<String> ENCRYPTION_KEY_PROPERTY = new Property<>("db.key", String.class);
     private static final Property<String> ENCRYPTION_KEY_FORMAT_PROPERTY = new Property<>("db.key.format",
             EncryptionKeyFormat.ASCII.name());
+    private static final Property<Integer> GROUP_COMMIT_WINDOW_MS_PROPERTY = new Property<>(
+            "db.group.commit.window.ms", 0);
+    private static final Property<Integer> GROUP_COMMIT_MAX_MESSAGES_PROPERTY = new Property<>(
+            "db.group.commit.max.messages", 256);
     private static final Property<Boolean> DELETE_DB_FILES_ON_FAILURE = new Property<>("delete.db.files.on.failure",
             true);
     private static final Property<String> KURA_SERVICE_PID_PROPERTY = new Property<>(
@@ -137,6 +142,7 @@ class SqliteDbServiceOptions {
     private final Optional<String> encryptionKey;
     private final EncryptionKeyFormat encryptionKeyFormat;
     private final boolean deleteDbFilesOnFailure;
+    private final GroupCommitOptions groupCommitOptions;
 
     public SqliteDbServiceOptions(Map<String, Object> properties) {
         this.mode = extractMode(properties);
@@ -152,6 +158,8 @@ class SqliteDbServiceOptions {
         this.encryptionKey = ENCRYPTION_KEY_PROPERTY.getOptional(properties).filter(s -> !s.trim().isEmpty());
         this.encryptionKeyFormat = extractEncryptionKeyFormat(properties);
         this.deleteDbFilesOnFailure = DELETE_DB_FILES_ON_FAILURE.get(properties);
+        this.groupCommitOptions = new GroupCommitOptions(GROUP_COMMIT_WINDOW_MS_PROPERTY.get(properties),
+                GROUP_COMMIT_MAX_MESSAGES_PROPERTY.get(properties));
     }
 
     public Mode getMode() {
@@ -194,6 +202,10 @@ class SqliteDbServiceOptions {
         return this.deleteDbFilesOnFailure;
     }
 
+    public GroupCommitOptions getGroupCommitOptions() {
+        return this.groupCommitOptions;
+    }
+
     public Optional<EncryptionKeySpec> getEncryptionKey(final CryptoService cryptoService) throws KuraException {
         if (this.encryptionKey.isPresent()) {
             String decrypted = new String(cryptoService.decryptAes(this.encryptionKey.get().toCharArray()));
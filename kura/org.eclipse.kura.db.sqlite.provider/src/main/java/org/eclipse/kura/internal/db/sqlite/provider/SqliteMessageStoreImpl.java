@@ -15,6 +15,7 @@ package org.eclipse.kura.internal.db.sqlite.provider;
 import org.eclipse.kura.KuraStoreException;
 import org.eclipse.kura.util.jdbc.ConnectionProvider;
 import org.eclipse.kura.util.message.store.AbstractJdbcMessageStoreImpl;
+import org.eclipse.kura.util.message.store.GroupCommitOptions;
 import org.eclipse.kura.util.message.store.JdbcMessageStoreQueries;
 
 @SuppressWarnings("restriction")
@@ -33,13 +34,19 @@ public class SqliteMessageStoreImpl extends AbstractJdbcMessageStoreImpl {
     private final String sqlDeleteMessage;
 
     public SqliteMessageStoreImpl(final ConnectionProvider provider, final String table) throws KuraStoreException {
-        super(provider, table);
+        this(provider, table, GroupCommitOptions.disabled());
+    }
+
+    public SqliteMessageStoreImpl(final ConnectionProvider provider, final String table,
+            final GroupCommitOptions groupCommitOptions) throws KuraStoreException {
+        super(provider, table, groupCommitOptions);
 
         this.sqlResetId = UPDATE + " sqlite_sequence SET seq = 0 WHERE name = " + this.escapedTableName + ";";
         this.sqlDeleteMessage = DELETE_FROM + super.escapedTableName + " WHERE id = ?;";
 
         createTable();
         createIndexes();
+        initMessageCount();
     }
 
     @Override
@@ -63,6 +70,9 @@ public class SqliteMessageStoreImpl extends AbstractJdbcMessageStoreImpl {
                         + escapedTableName + " AS a JOIN (SELECT id, publishedOn FROM " + super.escapedTableName
                         + " ORDER BY publishedOn ASC NULLS FIRST, priority ASC, createdOn ASC LIMIT 1) AS b "
                         + "WHERE a.id = b.id AND b.publishedOn IS NULL;")
+                .withSqlGetNextMessages("SELECT id, topic, qos, retain, createdOn, publishedOn, publishedMessageId, "
+                        + "confirmedOn, payload, priority, sessionId, droppedOn FROM " + super.escapedTableName
+                        + " WHERE publishedOn IS NULL ORDER BY publishedOn ASC, priority ASC, createdOn ASC LIMIT ?;")
                 .withSqlSetPublishedQoS1(UPDATE + super.escapedTableName
                         + " SET publishedOn = ?, publishedMessageId = ?, sessionId = ? WHERE id = ?;")
                 .withSqlSetPublishedQoS0(UPDATE + super.escapedTableName + " SET publishedOn = ? WHERE id = ?;")
@@ -100,22 +110,24 @@ public class SqliteMessageStoreImpl extends AbstractJdbcMessageStoreImpl {
     }
 
     @Override
-    public synchronized int store(String topic, byte[] payload, int qos, boolean retain, int priority)
+    public int store(String topic, byte[] payload, int qos, boolean retain, int priority)
             throws KuraStoreException {
 
         validate(topic);
 
-        final long id = super.storeInternal(topic, payload, qos, retain, priority);
+        final long id = super.storeMessage(topic, payload, qos, retain, priority);
 
         if (id > Integer.MAX_VALUE) {
-            super.execute(this.sqlDeleteMessage, id);
+            synchronized (this) {
+                onMessagesRemoved(super.executeUpdate(this.sqlDeleteMessage, id));
 
-            if (super.getMessageCountInternal() >= Integer.MAX_VALUE) {
-                throw new KuraStoreException("Table size is greater or equal than integer max value");
-            }
+                if (super.getMessageCountInternal() >= Integer.MAX_VALUE) {
+                    throw new KuraStoreException("Table size is greater or equal than integer max value");
+                }
 
-            super.execute(this.sqlResetId);
-            return (int) super.storeInternal(topic, payload, qos, retain, priority);
+                super.execute(this.sqlResetId);
+                return (int) super.storeInternal(topic, payload, qos, retain, priority);
+            }
         }
 
         return (int) id;
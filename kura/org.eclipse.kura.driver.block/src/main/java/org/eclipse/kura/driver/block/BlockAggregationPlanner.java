@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+
+package org.eclipse.kura.driver.block;
+
+import java.util.List;
+
+/**
+ * A strategy that decides how a sequence of blocks should be aggregated by a {@link BlockAggregator}.
+ *
+ * <p>
+ * The aggregator first computes the union of the overlapping input blocks, then splits the result into segments
+ * delimited by prohibited blocks. The planner is invoked once for each segment and must partition it into groups of
+ * consecutive blocks, each group will be aggregated into a single output block spanning from the start of its first
+ * block to the end of its last block, including the gaps.
+ * </p>
+ *
+ * @since 1.1
+ */
+@FunctionalInterface
+public interface BlockAggregationPlanner {
+
+    /**
+     * Partitions the provided blocks into groups of consecutive blocks.
+     *
+     * @param blocks
+     *            a non empty list of non overlapping blocks sorted by start address, the list must not be modified
+     * @param maximumBlockSize
+     *            the maximum size of a block obtained by aggregating more than one input block
+     * @return the indices of the first block of each group, in ascending order. The first element must be 0.
+     */
+    public List<Integer> plan(List<Block> blocks, int maximumBlockSize);
+}
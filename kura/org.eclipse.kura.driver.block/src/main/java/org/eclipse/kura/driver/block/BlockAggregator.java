@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,8 @@ package org.eclipse.kura.driver.block;
 
 import static java.util.Objects.requireNonNull;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
@@ -31,7 +33,8 @@ import java.util.stream.StreamSupport;
  * <ul>
  * <li>It does not contain prohibited blocks (see {@link ProhibitedBlock})</li>
  * <li>It does not contain overlapping blocks</li>
- * <li>For each pair of blocks (b1, b2) belonging to the set, {@code b1.getStart() != b2.getEnd()}</li>
+ * <li>For each pair of blocks (b1, b2) belonging to the set, {@code b1.getStart() != b2.getEnd()}, unless a
+ * {@code maximumBlockSize} or a {@link BlockAggregationPlanner} is specified</li>
  * </ul>
  *
  * This class accepts a parameter, {@code minimumGapSize >= 0}:
@@ -65,6 +68,17 @@ import java.util.stream.StreamSupport;
  * transfered.
  * </p>
  *
+ * <p>
+ * The {@code maximumBlockSize} parameter can be used to limit the size of the output blocks, for example if the
+ * protocol limits the amount of data that can be transferred by a single request. Overlapping input blocks are always
+ * aggregated, the other aggregations are performed only if the size of the resulting block does not exceed
+ * {@code maximumBlockSize}.
+ * </p>
+ *
+ * <p>
+ * The criterion based on {@code minimumGapSize} can be replaced by providing a {@link BlockAggregationPlanner}.
+ * </p>
+ *
  * @param <T>
  *            The type of the blocks obtained as result of the aggregation process.
  */
@@ -73,6 +87,8 @@ public class BlockAggregator<T extends Block> {
     protected List<Block> blocks;
     private final BlockFactory<T> factory;
     private int minimumGapSize;
+    private int maximumBlockSize = Integer.MAX_VALUE;
+    private BlockAggregationPlanner planner;
 
     /**
      * Creates a new {@link BlockAggregator} instance that operates on the given list of blocks.
@@ -113,9 +129,14 @@ public class BlockAggregator<T extends Block> {
     @SuppressWarnings("unchecked")
     public Stream<T> stream() {
         this.blocks.sort((Block o1, Block o2) -> o1.getStart() - o2.getStart());
+
+        if (this.planner != null) {
+            return StreamSupport.stream(() -> plan().spliterator(), Spliterator.ORDERED, false);
+        }
+
         return (Stream<T>) StreamSupport
-                .stream(Spliterators.spliteratorUnknownSize(new AggregatingIterator(this.blocks.listIterator()),
-                        Spliterator.ORDERED), false)
+                .stream(Spliterators.spliteratorUnknownSize(new AggregatingIterator(this.blocks.listIterator(),
+                        this.factory, this.minimumGapSize, this.maximumBlockSize), Spliterator.ORDERED), false)
                 .filter(block -> !(block instanceof ProhibitedBlock));
     }
 
@@ -133,6 +154,34 @@ public class BlockAggregator<T extends Block> {
         this.minimumGapSize = minimumGapSize;
     }
 
+    /**
+     * Specifies the {@code maximumBlockSize} parameter. The default for this parameter is {@link Integer#MAX_VALUE}.
+     *
+     * @param maximumBlockSize
+     * @throws IllegalArgumentException
+     *             If the provided argument is not positive
+     * @since 1.1
+     */
+    public void setMaximumBlockSize(int maximumBlockSize) {
+        if (maximumBlockSize <= 0) {
+            throw new IllegalArgumentException("Maximum block size paramenter must be positive");
+        }
+        this.maximumBlockSize = maximumBlockSize;
+    }
+
+    /**
+     * Specifies the {@link BlockAggregationPlanner} that will decide which blocks should be aggregated. If a planner is
+     * set, the {@code minimumGapSize} parameter is ignored. The default is {@code null}.
+     *
+     * @param planner
+     *            the planner, or {@code null} for aggregating blocks according to the {@code minimumGapSize}
+     *            parameter
+     * @since 1.1
+     */
+    public void setPlanner(BlockAggregationPlanner planner) {
+        this.planner = planner;
+    }
+
     /**
      * Inserts a new {@link Block} into the input blocks list.
      *
@@ -144,35 +193,101 @@ public class BlockAggregator<T extends Block> {
         this.blocks.add(block);
     }
 
+    private List<T> plan() {
+        final List<T> result = new ArrayList<>();
+        final List<Block> segment = new ArrayList<>();
+
+        // maximumBlockSize = 0 prevents the aggregation of non overlapping blocks, the output blocks are created
+        // only after the plan is known
+        final Iterator<Block> atomicBlocks = new AggregatingIterator(this.blocks.listIterator(), Block::new, 0, 0);
+
+        while (atomicBlocks.hasNext()) {
+            final Block block = atomicBlocks.next();
+
+            if (block instanceof ProhibitedBlock) {
+                planSegment(segment, result);
+                segment.clear();
+            } else {
+                segment.add(block);
+            }
+        }
+
+        planSegment(segment, result);
+
+        return result;
+    }
+
+    private void planSegment(List<Block> segment, List<T> result) {
+        if (segment.isEmpty()) {
+            return;
+        }
+
+        final List<Integer> groupStarts = this.planner.plan(Collections.unmodifiableList(segment),
+                this.maximumBlockSize);
+
+        if (groupStarts.isEmpty() || groupStarts.get(0) != 0) {
+            throw new IllegalArgumentException("Invalid aggregation plan: " + groupStarts);
+        }
+
+        for (int i = 0; i < groupStarts.size(); i++) {
+            final int start = groupStarts.get(i);
+            final int end = i + 1 < groupStarts.size() ? groupStarts.get(i + 1) : segment.size();
+
+            if (end <= start || end > segment.size()) {
+                throw new IllegalArgumentException("Invalid aggregation plan: " + groupStarts);
+            }
+
+            final Block first = segment.get(start);
+            final Block last = segment.get(end - 1);
+
+            if (end - start > 1 && last.getEnd() - first.getStart() > this.maximumBlockSize) {
+                throw new IllegalArgumentException(
+                        "Invalid aggregation plan, maximum block size exceeded: " + first + " " + last);
+            }
+
+            result.add(this.factory.build(first.getStart(), last.getEnd()));
+        }
+    }
+
     private class AggregatingIterator implements Iterator<Block> {
 
         private final ListIterator<Block> source;
+        private final BlockFactory<? extends Block> factory;
+        private final int minimumGapSize;
+        private final int maximumBlockSize;
         private Block last;
 
-        public AggregatingIterator(ListIterator<Block> source) {
+        public AggregatingIterator(ListIterator<Block> source, BlockFactory<? extends Block> factory,
+                int minimumGapSize, int maximumBlockSize) {
             this.source = source;
+            this.factory = factory;
+            this.minimumGapSize = minimumGapSize;
+            this.maximumBlockSize = maximumBlockSize;
         }
 
         private void extend(Block block, int end) {
             block.setEnd(Math.max(block.getEnd(), end));
         }
 
+        private boolean canExtend(Block block, int end) {
+            return block instanceof ProhibitedBlock || (long) end - block.getStart() <= this.maximumBlockSize;
+        }
+
         private void getNext() {
             if (!this.source.hasNext()) {
                 return;
             }
             this.last = this.source.next();
             if (!(this.last instanceof ProhibitedBlock)) {
-                this.last = BlockAggregator.this.factory.build(this.last.getStart(), this.last.getEnd());
+                this.last = this.factory.build(this.last.getStart(), this.last.getEnd());
             }
             while (this.source.hasNext()) {
                 final Block next = this.source.next();
                 final boolean isTypeDifferent = this.last instanceof ProhibitedBlock ^ next instanceof ProhibitedBlock;
 
                 if (this.last.getEnd() < next.getStart()) {
-                    if (BlockAggregator.this.minimumGapSize > 0
-                            && next.getStart() - this.last.getEnd() < BlockAggregator.this.minimumGapSize
-                            && !isTypeDifferent) {
+                    if (this.minimumGapSize > 0 && next.getStart() - this.last.getEnd() < this.minimumGapSize
+                            && !isTypeDifferent && canExtend(this.last, next.getEnd())) {
                         extend(this.last, next.getEnd());
                         continue;
                     } else {
@@ -185,7 +300,8 @@ public class BlockAggregator<T extends Block> {
                     throw new IllegalArgumentException("Conflicting blocks: " + this.last + " " + next);
                 }
 
-                if (isTypeDifferent) {
+                if (isTypeDifferent
+                        || this.last.getEnd() == next.getStart() && !canExtend(this.last, next.getEnd())) {
                     this.source.previous();
                     break;
                 }
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+
+package org.eclipse.kura.driver.block;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A {@link BlockAggregationPlanner} that minimizes the expected time required to transfer a set of blocks.
+ *
+ * <p>
+ * The time required to transfer a block of size {@code s} is modeled as {@code requestCost + s * unitCost}, where
+ * {@code requestCost} is the fixed overhead of a request and {@code unitCost} is the cost of transferring an
+ * additional address unit. The planner chooses the partition that minimizes the sum of the cost of the resulting
+ * blocks, without producing aggregated blocks larger than the maximum block size.
+ * </p>
+ * <p>
+ * If two partitions have the same cost, the one that does not aggregate is preferred: with
+ * {@code requestCost = minimumGapSize} and {@code unitCost = 1} the result is the same as the one obtained by a
+ * {@link BlockAggregator} with the given {@code minimumGapSize > 0} and no planner.
+ * </p>
+ *
+ * @since 1.1
+ */
+public class CostBasedBlockAggregationPlanner implements BlockAggregationPlanner {
+
+    private final double requestCost;
+    private final double unitCost;
+
+    /**
+     * Creates a new planner using the provided cost model, the costs can be expressed in any time unit.
+     *
+     * @param requestCost
+     *            the fixed cost of a request
+     * @param unitCost
+     *            the cost of transferring an address unit
+     * @throws IllegalArgumentException
+     *             if any of the provided costs is negative or not finite
+     */
+    public CostBasedBlockAggregationPlanner(double requestCost, double unitCost) {
+        if (!(requestCost >= 0 && unitCost >= 0) || Double.isInfinite(requestCost) || Double.isInfinite(unitCost)) {
+            throw new IllegalArgumentException("Request and unit costs must be non negative");
+        }
+        this.requestCost = requestCost;
+        this.unitCost = unitCost;
+    }
+
+    public double getRequestCost() {
+        return this.requestCost;
+    }
+
+    public double getUnitCost() {
+        return this.unitCost;
+    }
+
+    @Override
+    public List<Integer> plan(List<Block> blocks, int maximumBlockSize) {
+        final int count = blocks.size();
+
+        // bestCost[j] is the minimum cost for transferring the first j blocks, and bestStart[j] the index of the first
+        // block of the last group in the corresponding partition
+        final double[] bestCost = new double[count + 1];
+        final int[] bestStart = new int[count + 1];
+
+        for (int j = 1; j <= count; j++) {
+            final int end = blocks.get(j - 1).getEnd();
+
+            bestCost[j] = Double.POSITIVE_INFINITY;
+
+            for (int i = j - 1; i >= 0; i--) {
+                final long span = (long) end - blocks.get(i).getStart();
+
+                if (i < j - 1 && span > maximumBlockSize) {
+                    break;
+                }
+
+                final double cost = bestCost[i] + this.requestCost + span * this.unitCost;
+
+                if (cost < bestCost[j]) {
+                    bestCost[j] = cost;
+                    bestStart[j] = i;
+                }
+            }
+        }
+
+        final List<Integer> result = new ArrayList<>();
+
+        for (int j = count; j > 0; j = bestStart[j]) {
+            result.add(bestStart[j]);
+        }
+
+        Collections.reverse(result);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "CostBasedBlockAggregationPlanner [requestCost=" + this.requestCost + ", unitCost=" + this.unitCost
+                + "]";
+    }
+}
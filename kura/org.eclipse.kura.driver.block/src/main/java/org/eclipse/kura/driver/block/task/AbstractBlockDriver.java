@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -20,6 +20,9 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -34,7 +37,9 @@ import org.eclipse.kura.channel.listener.ChannelListener;
 import org.eclipse.kura.driver.Driver;
 import org.eclipse.kura.driver.PreparedRead;
 import org.eclipse.kura.driver.block.Block;
+import org.eclipse.kura.driver.block.BlockAggregationPlanner;
 import org.eclipse.kura.driver.block.BlockFactory;
+import org.eclipse.kura.driver.block.CostBasedBlockAggregationPlanner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -64,6 +69,11 @@ import org.slf4j.LoggerFactory;
  * This class provides a default implementation for the {@link #read(List)}, {@link #write(List)} and
  * {@link #prepareRead(List)} methods of the {@link Driver} interface.
  * </p>
+ * <p>
+ * The aggregation of the tasks in {@link Mode#READ} mode can be customized per domain by providing a maximum block size
+ * and a {@link BlockAggregationPlanner}, see {@link #getMaximumBlockSizeForDomain(Object)} and
+ * {@link #getReadAggregationPlannerForDomain(Object)}.
+ * </p>
  *
  * @param <T>
  *            the type of the domain, can be any type suitable for being used as an {@link java.util.HashMap} key
@@ -72,6 +82,9 @@ public abstract class AbstractBlockDriver<T> implements Driver {
 
     private static final Logger logger = LoggerFactory.getLogger(AbstractBlockDriver.class);
 
+    private final Map<T, ReadCostEstimator> readCostEstimators = new ConcurrentHashMap<>();
+    private final AtomicInteger costModelGeneration = new AtomicInteger();
+
     /**
      * This method must provide a {@link BlockFactory} that can be used for creating {@link ToplevelBlockTask} instances
      * responsible of implementing the I/O operations for the specified domain.
@@ -122,6 +135,64 @@ public abstract class AbstractBlockDriver<T> implements Driver {
         return 0;
     }
 
+    /**
+     * Returns the maximum size of the {@link ToplevelBlockTask} instances produced by the aggregation of the tasks
+     * for the specified domain, in both {@link Mode#READ} and {@link Mode#WRITE} modes. This can be used for example
+     * to respect the maximum PDU size of the protocol. The default is {@link Integer#MAX_VALUE}.
+     *
+     * @param domain
+     *            the domain
+     * @return the maximum block size for the provided domain, must be positive
+     * @since 1.1
+     */
+    protected int getMaximumBlockSizeForDomain(T domain) {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Returns the {@link BlockAggregationPlanner} that will be used to aggregate tasks in {@link Mode#READ} for the
+     * specified domain. If the result is empty, which is the default, the tasks will be aggregated according to the
+     * value returned by {@link #getReadMinimumGapSizeForDomain(Object)}.
+     *
+     * @param domain
+     *            the domain
+     * @return the planner for the provided domain
+     * @see #getCostBasedReadPlannerForDomain(Object)
+     * @since 1.1
+     */
+    protected Optional<BlockAggregationPlanner> getReadAggregationPlannerForDomain(T domain) {
+        return Optional.empty();
+    }
+
+    /**
+     * <p>
+     * Returns a {@link CostBasedBlockAggregationPlanner} whose cost model is estimated by measuring the duration of
+     * the read requests performed on the specified domain. Implementors can return the result of this method from
+     * {@link #getReadAggregationPlannerForDomain(Object)} to enable cost based aggregation.
+     * </p>
+     * <p>
+     * Until enough requests have been measured, the returned planner produces the same aggregation as the value
+     * returned by {@link #getReadMinimumGapSizeForDomain(Object)}. The tasks of a {@link BlockPreparedRead} are
+     * computed once, and computed again the first time it is executed after the estimate becomes available.
+     * </p>
+     *
+     * @param domain
+     *            the domain
+     * @return the planner for the provided domain
+     * @since 1.1
+     */
+    protected CostBasedBlockAggregationPlanner getCostBasedReadPlannerForDomain(T domain) {
+        final ReadCostEstimator estimator = this.readCostEstimators.computeIfAbsent(domain,
+                d -> new ReadCostEstimator(getReadMinimumGapSizeForDomain(d),
+                        this.costModelGeneration::incrementAndGet));
+
+        final CostBasedBlockAggregationPlanner planner = estimator.createPlanner();
+
+        logger.debug("Read aggregation for domain {}: {}", domain, planner);
+
+        return planner;
+    }
+
     /**
      * This method is called immediately before an aggregation is performed for the specific domain and mode. This
      * method can be overridden by implementors in order to customize the {@link BlockTaskAggregator} provided as
@@ -186,14 +257,24 @@ public abstract class AbstractBlockDriver<T> implements Driver {
                     aggregator = new UpdateBlockTaskAggregator(entry.getValue(),
                             getTaskFactoryForDomain(domain, Mode.READ), getTaskFactoryForDomain(domain, Mode.WRITE));
                     aggregator.setMinimumGapSize(getReadMinimumGapSizeForDomain(domain));
+                    getReadAggregationPlannerForDomain(domain).ifPresent(aggregator::setPlanner);
                 } else {
                     aggregator = new BlockTaskAggregator(entry.getValue(), getTaskFactoryForDomain(domain, mode));
                     if (mode == Mode.READ) {
                         aggregator.setMinimumGapSize(getReadMinimumGapSizeForDomain(domain));
+                        getReadAggregationPlannerForDomain(domain).ifPresent(aggregator::setPlanner);
                     }
                 }
+                aggregator.setMaximumBlockSize(getMaximumBlockSizeForDomain(domain));
                 beforeAggregation(domain, mode, aggregator);
-                aggregator.stream().forEach(resultTasks::add);
+
+                final ReadCostEstimator estimator = this.readCostEstimators.get(domain);
+                aggregator.stream().forEach(task -> {
+                    if (estimator != null && task.getMode() == Mode.READ) {
+                        task.setReadCostEstimator(estimator);
+                    }
+                    resultTasks.add(task);
+                });
             });
 
             return resultTasks;
@@ -217,6 +298,20 @@ public abstract class AbstractBlockDriver<T> implements Driver {
         }
     }
 
+    /**
+     * Executes the provided list of {@link BlockTask} instances, obtained from the {@link #optimize(List, Mode)}
+     * method. The default implementation calls {@link #runTask(BlockTask)} for each task, in order. Implementors can
+     * override this method, for example for performing the I/O operations of multiple tasks with a single request if
+     * the protocol allows it.
+     *
+     * @param tasks
+     *            the tasks to be run
+     * @since 1.1
+     */
+    protected void runTasks(List<BlockTask> tasks) {
+        tasks.forEach(this::runTask);
+    }
+
     @Override
     public void registerChannelListener(final Map<String, Object> channelConfig, final ChannelListener listener)
             throws ConnectionException {
@@ -232,7 +327,7 @@ public abstract class AbstractBlockDriver<T> implements Driver {
     public synchronized void read(final List<ChannelRecord> records) throws ConnectionException {
         connect();
         try {
-            optimize(records, Mode.READ).forEach(this::runTask);
+            runTasks(optimize(records, Mode.READ));
         } catch (Exception e) {
             logger.warn("Unexpected exception during read", e);
             for (ChannelRecord record : records) {
@@ -246,7 +341,7 @@ public abstract class AbstractBlockDriver<T> implements Driver {
     public synchronized void write(final List<ChannelRecord> records) throws ConnectionException {
         connect();
         try {
-            optimize(records, Mode.WRITE).forEach(this::runTask);
+            runTasks(optimize(records, Mode.WRITE));
         } catch (Exception e) {
             logger.warn("Unexpected exception during write", e);
             for (ChannelRecord record : records) {
@@ -276,11 +371,13 @@ public abstract class AbstractBlockDriver<T> implements Driver {
     public class BlockPreparedRead implements PreparedRead {
 
         private final List<ChannelRecord> records;
-        private final List<BlockTask> tasks;
+        private List<BlockTask> tasks;
+        private int costModelGeneration;
 
         public BlockPreparedRead(List<ChannelRecord> records, List<BlockTask> tasks) {
             this.records = records;
             this.tasks = tasks;
+            this.costModelGeneration = AbstractBlockDriver.this.costModelGeneration.get();
         }
 
         @Override
@@ -291,9 +388,8 @@ public abstract class AbstractBlockDriver<T> implements Driver {
         public List<ChannelRecord> execute() throws ConnectionException, KuraException {
             synchronized (AbstractBlockDriver.this) {
                 connect();
-                for (BlockTask task : this.tasks) {
-                    runTask(task);
-                }
+                updateTasksIfNeeded();
+                runTasks(this.tasks);
                 return this.records;
             }
         }
@@ -303,6 +399,23 @@ public abstract class AbstractBlockDriver<T> implements Driver {
             return this.records;
         }
 
+        private void updateTasksIfNeeded() {
+            final int currentGeneration = AbstractBlockDriver.this.costModelGeneration.get();
+
+            if (currentGeneration == this.costModelGeneration) {
+                return;
+            }
+
+            this.costModelGeneration = currentGeneration;
+
+            try {
+                this.tasks = optimize(this.records, Mode.READ);
+                logger.debug("Prepared read tasks updated using the measured request costs");
+            } catch (KuraException e) {
+                logger.warn("Failed to update prepared read tasks, keeping the previous ones", e);
+            }
+        }
+
     }
 
     public static final class Pair<U, V> {
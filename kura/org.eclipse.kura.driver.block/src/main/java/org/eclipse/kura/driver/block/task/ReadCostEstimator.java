@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+
+package org.eclipse.kura.driver.block.task;
+
+import org.eclipse.kura.driver.block.CostBasedBlockAggregationPlanner;
+
+/**
+ * Estimates the cost model of the read requests performed on a domain, from the duration of the
+ * {@link ToplevelBlockTask#processBuffer()} calls in {@link Mode#READ} mode that actually read from the device, see
+ * {@link ToplevelBlockTask#isBufferReadRequired()}.
+ * <p>
+ * The request overhead and the per address unit cost are obtained by fitting a line over the (block size, duration)
+ * samples, using exponentially weighted moments so that the estimate follows the changes of the link. Until enough
+ * samples have been collected, or if all requests have the same size, the ratio between the two costs is taken from
+ * the configured minimum gap size.
+ */
+final class ReadCostEstimator {
+
+    static final int CALIBRATION_SAMPLES = 16;
+
+    private static final double SMOOTHING_FACTOR = 0.05;
+
+    private final int minimumGapSize;
+    private final Runnable onCalibrated;
+
+    private long samples;
+    private double meanSize;
+    private double meanDuration;
+    private double meanSquaredSize;
+    private double meanSizeDuration;
+
+    ReadCostEstimator(int minimumGapSize, Runnable onCalibrated) {
+        this.minimumGapSize = Math.max(1, minimumGapSize);
+        this.onCalibrated = onCalibrated;
+    }
+
+    /**
+     * Records a read request, the {@code onCalibrated} callback is invoked when the estimator becomes calibrated.
+     *
+     * @param size
+     *            the size of the block
+     * @param durationNanos
+     *            the duration of the request
+     */
+    void record(int size, long durationNanos) {
+        if (update(size, durationNanos)) {
+            this.onCalibrated.run();
+        }
+    }
+
+    private synchronized boolean update(int size, long durationNanos) {
+        this.samples++;
+
+        // arithmetic mean of the first samples, exponentially weighted mean afterwards
+        final double weight = Math.max(SMOOTHING_FACTOR, 1.0d / this.samples);
+
+        this.meanSize += weight * (size - this.meanSize);
+        this.meanDuration += weight * (durationNanos - this.meanDuration);
+        this.meanSquaredSize += weight * ((double) size * size - this.meanSquaredSize);
+        this.meanSizeDuration += weight * ((double) size * durationNanos - this.meanSizeDuration);
+
+        return this.samples == CALIBRATION_SAMPLES;
+    }
+
+    synchronized boolean isCalibrated() {
+        return this.samples >= CALIBRATION_SAMPLES;
+    }
+
+    /**
+     * Creates a planner using the current estimate. If the estimator is not calibrated, the planner will produce the
+     * same aggregation as the configured minimum gap size.
+     *
+     * @return the planner
+     */
+    synchronized CostBasedBlockAggregationPlanner createPlanner() {
+        if (!isCalibrated()) {
+            return new CostBasedBlockAggregationPlanner(this.minimumGapSize, 1);
+        }
+
+        final double sizeVariance = this.meanSquaredSize - this.meanSize * this.meanSize;
+
+        if (sizeVariance >= 1) {
+            final double unitCost = Math.max(0,
+                    (this.meanSizeDuration - this.meanSize * this.meanDuration) / sizeVariance);
+            final double requestCost = Math.max(0, this.meanDuration - unitCost * this.meanSize);
+
+            return new CostBasedBlockAggregationPlanner(requestCost, unitCost);
+        }
+
+        final double unitCost = this.meanDuration / (this.minimumGapSize + this.meanSize);
+
+        return new CostBasedBlockAggregationPlanner(this.minimumGapSize * unitCost, unitCost);
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -72,6 +72,7 @@ public abstract class ToplevelBlockTask extends BlockTask {
 
     private final ArrayList<BlockTask> children = new ArrayList<>();
     private boolean isAborted;
+    private ReadCostEstimator readCostEstimator;
 
     public ToplevelBlockTask(int start, int end, Mode mode) {
         super(start, end, mode);
@@ -143,6 +144,23 @@ public abstract class ToplevelBlockTask extends BlockTask {
         this.children.add(child);
     }
 
+    /**
+     * Returns whether the next {@link #processBuffer()} call in {@link Mode#READ} mode will read the {@link Buffer}
+     * from the device. Implementors should return {@code false} if the {@link Buffer} has already been filled, for
+     * example by a request that read multiple blocks, so that the duration of the call is not used to estimate the cost
+     * of the read requests. The default is {@code true}.
+     *
+     * @return {@code true} if the next {@link #processBuffer()} call will perform a read operation
+     * @since 1.1
+     */
+    protected boolean isBufferReadRequired() {
+        return true;
+    }
+
+    void setReadCostEstimator(ReadCostEstimator readCostEstimator) {
+        this.readCostEstimator = readCostEstimator;
+    }
+
     /**
      * Aborts the operation performed by this {@link ToplevelBlockTask}, it can be called by a child if some
      * non-recoverable error is detected. The {@link BlockTask#onFailure(Exception)} method of the children will be
@@ -163,7 +181,12 @@ public abstract class ToplevelBlockTask extends BlockTask {
     public void run() throws IOException {
         try {
             if (getMode() == Mode.READ) {
+                final boolean isMeasured = this.readCostEstimator != null && isBufferReadRequired();
+                final long startNanos = System.nanoTime();
                 processBuffer();
+                if (isMeasured) {
+                    this.readCostEstimator.record(getEnd() - getStart(), System.nanoTime() - startNanos);
+                }
                 runChildren();
             } else {
                 runChildren();
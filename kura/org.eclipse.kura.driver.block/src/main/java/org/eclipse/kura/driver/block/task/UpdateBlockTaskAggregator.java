@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -21,6 +21,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.eclipse.kura.driver.block.Block;
+import org.eclipse.kura.driver.block.BlockAggregationPlanner;
 import org.eclipse.kura.driver.block.BlockFactory;
 import org.eclipse.kura.driver.block.ProhibitedBlock;
 
@@ -106,6 +107,30 @@ public class UpdateBlockTaskAggregator extends BlockTaskAggregator {
         this.readTaskAggregator.setMinimumGapSize(minimumGapSize);
     }
 
+    /**
+     * Sets the {@code maximumBlockSize} that will be used for aggregating the {@link ToplevelBlockTask} tasks in both
+     * {@link Mode#READ} and {@link Mode#WRITE} modes.
+     *
+     * @since 1.1
+     */
+    @Override
+    public void setMaximumBlockSize(int maximumBlockSize) {
+        super.setMaximumBlockSize(maximumBlockSize);
+        this.readTaskAggregator.setMaximumBlockSize(maximumBlockSize);
+    }
+
+    /**
+     * Sets the {@link BlockAggregationPlanner} that will be used for aggregating the {@link ToplevelBlockTask} tasks
+     * in {@link Mode#READ} mode, the {@link ToplevelBlockTask} instances in {@link Mode#WRITE} will always be
+     * aggregated with {@code minimumGapSize = 0}.
+     *
+     * @since 1.1
+     */
+    @Override
+    public void setPlanner(BlockAggregationPlanner planner) {
+        this.readTaskAggregator.setPlanner(planner);
+    }
+
     /**
      * {@inheritDoc}
      *
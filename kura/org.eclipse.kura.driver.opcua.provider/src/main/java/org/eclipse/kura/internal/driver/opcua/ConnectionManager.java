@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2018, 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2018, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -112,6 +112,16 @@ public class ConnectionManager {
     public void read(final List<Request<ReadParams>> requests) throws Exception {
 
         final int maxItemsPerRequest = this.options.getMaxItemCountPerRequest();
+        final int maxConcurrentRequests = this.options.getMaxConcurrentRequests();
+
+        if (maxConcurrentRequests > 1 && requests.size() > maxItemsPerRequest) {
+            RequestPipeline.run(requests, maxItemsPerRequest, maxConcurrentRequests,
+                    this.options.getRequestTimeout(), chunk -> sendRead(chunk, new ArrayList<>(chunk.size())),
+                    ConnectionManager::fillReadResults, ex -> this.failureHandler.accept(this, ex));
+            logger.debug("Read Successful");
+            return;
+        }
+
         final ArrayList<ReadValueId> tempList = new ArrayList<>(maxItemsPerRequest);
 
         for (int i = 0; i < requests.size(); i += maxItemsPerRequest) {
@@ -122,6 +132,16 @@ public class ConnectionManager {
     public void write(final List<Request<WriteParams>> requests) throws Exception {
 
         final int maxItemsPerRequest = this.options.getMaxItemCountPerRequest();
+        final int maxConcurrentRequests = this.options.getMaxConcurrentRequests();
+
+        if (maxConcurrentRequests > 1 && requests.size() > maxItemsPerRequest) {
+            RequestPipeline.run(requests, maxItemsPerRequest, maxConcurrentRequests,
+                    this.options.getRequestTimeout(), chunk -> sendWrite(chunk, new ArrayList<>(chunk.size())),
+                    ConnectionManager::fillWriteResults, ex -> this.failureHandler.accept(this, ex));
+            logger.debug("Write Successful");
+            return;
+        }
+
         final ArrayList<WriteValue> tempList = new ArrayList<>(maxItemsPerRequest);
 
         for (int i = 0; i < requests.size(); i += maxItemsPerRequest) {
@@ -130,41 +150,59 @@ public class ConnectionManager {
     }
 
     private void read(final List<Request<ReadParams>> requests, final List<ReadValueId> tempList) throws Exception {
+        final ReadResponse response = runSafe(sendRead(requests, tempList), this.options.getRequestTimeout(),
+                ex -> this.failureHandler.accept(this, ex));
+
+        fillReadResults(requests, response);
+
+        logger.debug("Read Successful");
+    }
+
+    private void write(final List<Request<WriteParams>> requests, final List<WriteValue> tempList) throws Exception {
+        final WriteResponse response = runSafe(sendWrite(requests, tempList), this.options.getRequestTimeout(),
+                ex -> this.failureHandler.accept(this, ex));
+
+        fillWriteResults(requests, response);
+
+        logger.debug("Write Successful");
+    }
+
+    private CompletableFuture<ReadResponse> sendRead(final List<Request<ReadParams>> requests,
+            final List<ReadValueId> tempList) {
         tempList.clear();
 
         for (final Request<ReadParams> request : requests) {
             tempList.add(request.getParameters().getReadValueId());
         }
 
-        final ReadResponse response = runSafe(this.client.read(0.0, TimestampsToReturn.Both, tempList),
-                this.options.getRequestTimeout(), ex -> this.failureHandler.accept(this, ex));
-
-        final DataValue[] results = response.getResults();
-        for (int i = 0; i < requests.size(); i++) {
-            fillRecord(results[i], requests.get(i).getRecord());
-        }
-
-        logger.debug("Read Successful");
+        return this.client.read(0.0, TimestampsToReturn.Both, tempList);
     }
 
-    private void write(final List<Request<WriteParams>> requests, final List<WriteValue> tempList) throws Exception {
+    private CompletableFuture<WriteResponse> sendWrite(final List<Request<WriteParams>> requests,
+            final List<WriteValue> tempList) {
         tempList.clear();
 
         for (final Request<WriteParams> request : requests) {
             tempList.add(request.getParameters().getWriteValue());
         }
 
-        final WriteResponse response = runSafe(this.client.write(tempList), this.options.getRequestTimeout(),
-                ex -> this.failureHandler.accept(this, ex));
+        return this.client.write(tempList);
+    }
 
+    private static void fillReadResults(final List<Request<ReadParams>> requests, final ReadResponse response) {
+        final DataValue[] results = response.getResults();
+        for (int i = 0; i < requests.size(); i++) {
+            fillRecord(results[i], requests.get(i).getRecord());
+        }
+    }
+
+    private static void fillWriteResults(final List<Request<WriteParams>> requests, final WriteResponse response) {
         final StatusCode[] results = response.getResults();
         for (int i = 0; i < requests.size(); i++) {
             final ChannelRecord record = requests.get(i).getRecord();
             fillStatus(results[i], record);
             record.setTimestamp(System.currentTimeMillis());
         }
-
-        logger.debug("Write Successful");
     }
 
     public synchronized void close() {
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2016, 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2016, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -138,6 +138,8 @@ final class OpcUaOptions {
 
     private static final String MAX_REQUEST_ITEMS = "max.request.items";
 
+    private static final String MAX_CONCURRENT_REQUESTS = "max.concurrent.requests";
+
     private static final String FORCE_ENDPOINT_URL = "force.endpoint.url";
 
     private static final String SUBTREE_SUBSCRIPTION_CHANNEL_NAME_FORMAT = "subtree.subscription.name.format";
@@ -427,6 +429,14 @@ final class OpcUaOptions {
         return 10;
     }
 
+    int getMaxConcurrentRequests() {
+        final Object maxConcurrentRequests = this.properties.get(MAX_CONCURRENT_REQUESTS);
+        if (maxConcurrentRequests instanceof Integer && (Integer) maxConcurrentRequests > 0) {
+            return (Integer) maxConcurrentRequests;
+        }
+        return 1;
+    }
+
     boolean shouldForceEndpointUrl() {
         final Object raw = this.properties.get(FORCE_ENDPOINT_URL);
         if (raw instanceof Boolean) {
@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ */
+
+package org.eclipse.kura.internal.driver.opcua;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Splits a list of items in chunks and sends them as requests, keeping at most a given number of requests in flight
+ * on the same session.
+ * <p>
+ * The responses are processed on the calling thread in the order in which they arrive, as soon as they are available.
+ * The method returns when all responses have been processed, or throws as soon as a request fails or does not
+ * complete in time. Every request must complete within the timeout from the moment it has been sent, regardless of
+ * the completion of the other requests. In case of failure, the responses that arrive later are discarded.
+ */
+final class RequestPipeline {
+
+    private RequestPipeline() {
+    }
+
+    static <T, R> void run(final List<T> items, final int itemsPerRequest, final int maxConcurrentRequests,
+            final long timeoutMs, final Function<List<T>, CompletableFuture<R>> sender,
+            final BiConsumer<List<T>, R> responseHandler, final Consumer<Throwable> onFailure) throws Exception {
+
+        if (itemsPerRequest <= 0 || maxConcurrentRequests <= 0) {
+            throw new IllegalArgumentException("Items per request and max concurrent requests must be positive");
+        }
+
+        final BlockingQueue<Completion<T, R>> completions = new LinkedBlockingQueue<>();
+        // requests are sent with the same timeout, so the first one in send order has the earliest deadline
+        final Set<Request<T>> inFlight = new LinkedHashSet<>();
+
+        int next = 0;
+
+        while (next < items.size() || !inFlight.isEmpty()) {
+
+            while (inFlight.size() < maxConcurrentRequests && next < items.size()) {
+                final List<T> chunk = items.subList(next, Math.min(next + itemsPerRequest, items.size()));
+                next += chunk.size();
+
+                final Request<T> request = new Request<>(chunk, System.nanoTime() + timeoutMs * 1000000L);
+                inFlight.add(request);
+
+                sender.apply(chunk)
+                        .whenComplete((response, ex) -> completions.add(new Completion<>(request, response, ex)));
+            }
+
+            final Completion<T, R> completion = awaitCompletion(completions, inFlight.iterator().next().deadline,
+                    timeoutMs, onFailure);
+            inFlight.remove(completion.request);
+
+            if (completion.error != null) {
+                final Throwable cause = completion.error instanceof CompletionException
+                        && completion.error.getCause() != null ? completion.error.getCause() : completion.error;
+                final ExecutionException e = new ExecutionException(cause);
+
+                onFailure.accept(e);
+                throw e;
+            }
+
+            responseHandler.accept(completion.request.chunk, completion.response);
+        }
+    }
+
+    private static <T, R> Completion<T, R> awaitCompletion(final BlockingQueue<Completion<T, R>> completions,
+            final long deadline, final long timeoutMs, final Consumer<Throwable> onFailure) throws Exception {
+        try {
+            final Completion<T, R> completion = completions.poll(deadline - System.nanoTime(),
+                    TimeUnit.NANOSECONDS);
+
+            if (completion == null) {
+                throw new TimeoutException("Request not completed in " + timeoutMs + " ms");
+            }
+
+            return completion;
+        } catch (final Exception e) {
+
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+
+            onFailure.accept(e);
+            throw e;
+        }
+    }
+
+    private static final class Request<T> {
+
+        private final List<T> chunk;
+        private final long deadline;
+
+        Request(final List<T> chunk, final long deadline) {
+            this.chunk = chunk;
+            this.deadline = deadline;
+        }
+    }
+
+    private static final class Completion<T, R> {
+
+        private final Request<T> request;
+        private final R response;
+        private final Throwable error;
+
+        Completion(final Request<T> request, final R response, final Throwable error) {
+            this.request = request;
+            this.response = response;
+            this.error = error;
+        }
+    }
+}
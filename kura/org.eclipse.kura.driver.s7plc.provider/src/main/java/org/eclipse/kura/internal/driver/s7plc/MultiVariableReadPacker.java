@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ */
+
+package org.eclipse.kura.internal.driver.s7plc;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.eclipse.kura.internal.driver.s7plc.task.S7PlcToplevelBlockTask;
+
+import Moka7.S7Client;
+
+/**
+ * Groups read tasks into multi variable read requests whose request and reply fit in the negotiated PDU size.
+ * <p>
+ * The groups are computed with a first fit decreasing strategy. Tasks that do not fit in a PDU by themselves are
+ * not assigned to any group.
+ */
+final class MultiVariableReadPacker {
+
+    // S7 header (10) + function and item count (2)
+    private static final int REQUEST_HEADER_SIZE = 12;
+    private static final int REQUEST_ITEM_SIZE = 12;
+    // S7 header with error class and code (12) + function and item count (2)
+    private static final int REPLY_HEADER_SIZE = 14;
+    // return code, transport size and length
+    private static final int REPLY_ITEM_HEADER_SIZE = 4;
+
+    private MultiVariableReadPacker() {
+    }
+
+    static List<List<S7PlcToplevelBlockTask>> pack(final List<S7PlcToplevelBlockTask> tasks, final int pduLength) {
+        final List<S7PlcToplevelBlockTask> sorted = new ArrayList<>(tasks);
+        sorted.sort(Comparator.comparingInt(MultiVariableReadPacker::getReplySize).reversed());
+
+        final List<Request> requests = new ArrayList<>();
+
+        for (final S7PlcToplevelBlockTask task : sorted) {
+            final int replySize = getReplySize(task);
+
+            if (REPLY_HEADER_SIZE + replySize > pduLength) {
+                continue;
+            }
+
+            Request target = null;
+
+            for (final Request request : requests) {
+                if (request.canAdd(replySize, pduLength)) {
+                    target = request;
+                    break;
+                }
+            }
+
+            if (target == null) {
+                target = new Request();
+                requests.add(target);
+            }
+
+            target.add(task, replySize);
+        }
+
+        final List<List<S7PlcToplevelBlockTask>> result = new ArrayList<>(requests.size());
+
+        for (final Request request : requests) {
+            result.add(request.tasks);
+        }
+
+        return result;
+    }
+
+    private static int getReplySize(final S7PlcToplevelBlockTask task) {
+        final int length = task.getEnd() - task.getStart();
+        return REPLY_ITEM_HEADER_SIZE + length + length % 2;
+    }
+
+    private static final class Request {
+
+        private final List<S7PlcToplevelBlockTask> tasks = new ArrayList<>();
+        private int replySize = REPLY_HEADER_SIZE;
+
+        boolean canAdd(final int itemReplySize, final int pduLength) {
+            final int itemCount = this.tasks.size() + 1;
+
+            return itemCount <= S7Client.MaxVars && REQUEST_HEADER_SIZE + itemCount * REQUEST_ITEM_SIZE <= pduLength
+                    && this.replySize + itemReplySize <= pduLength;
+        }
+
+        void add(final S7PlcToplevelBlockTask task, final int itemReplySize) {
+            this.tasks.add(task);
+            this.replySize += itemReplySize;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -17,7 +17,9 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.eclipse.kura.KuraException;
@@ -25,6 +27,8 @@ import org.eclipse.kura.channel.ChannelRecord;
 import org.eclipse.kura.configuration.ConfigurableComponent;
 import org.eclipse.kura.crypto.CryptoService;
 import org.eclipse.kura.driver.ChannelDescriptor;
+import org.eclipse.kura.driver.binary.ByteArrayBuffer;
+import org.eclipse.kura.driver.block.BlockAggregationPlanner;
 import org.eclipse.kura.driver.block.BlockFactory;
 import org.eclipse.kura.driver.block.task.AbstractBlockDriver;
 import org.eclipse.kura.driver.block.task.BlockTask;
@@ -37,6 +41,7 @@ import org.slf4j.LoggerFactory;
 
 import Moka7.S7;
 import Moka7.S7Client;
+import Moka7.S7DataItem;
 
 /**
  * The Kura S7PlcDriver is a S7 PLC Driver implementation for Kura Asset-Driver
@@ -59,6 +64,9 @@ public class S7PlcDriver extends AbstractBlockDriver<S7PlcDomain> implements Con
 
     private static final Logger logger = LoggerFactory.getLogger(S7PlcDriver.class);
 
+    // header of a read var reply, as computed by S7Client.ReadArea()
+    private static final int READ_REPLY_HEADER_SIZE = 18;
+
     private S7ClientState state = new S7ClientState(new S7PlcOptions(Collections.emptyMap()));
     private final AtomicReference<S7PlcOptions> options = new AtomicReference<>();
 
@@ -156,6 +164,30 @@ public class S7PlcDriver extends AbstractBlockDriver<S7PlcDomain> implements Con
         return this.options.get().getMinimumGapSize();
     }
 
+    /**
+     * Limits the blocks to the data that fits in a single reply, once the PDU size has been negotiated with the PLC.
+     * Larger blocks would be read with multiple requests and could not be included in a multi variable read.
+     */
+    @Override
+    protected int getMaximumBlockSizeForDomain(S7PlcDomain domain) {
+        final int pduLength = this.state.client.PDULength();
+
+        if (pduLength <= READ_REPLY_HEADER_SIZE) {
+            return Integer.MAX_VALUE;
+        }
+
+        return pduLength - READ_REPLY_HEADER_SIZE;
+    }
+
+    @Override
+    protected Optional<BlockAggregationPlanner> getReadAggregationPlannerForDomain(S7PlcDomain domain) {
+        if (!this.options.get().shouldUseCostBasedAggregation()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(getCostBasedReadPlannerForDomain(domain));
+    }
+
     @Override
     protected BlockFactory<ToplevelBlockTask> getTaskFactoryForDomain(final S7PlcDomain domain, final Mode mode) {
         return (start, end) -> new S7PlcToplevelBlockTask(S7PlcDriver.this, mode, domain.getDB(), start, end);
@@ -186,6 +218,65 @@ public class S7PlcDriver extends AbstractBlockDriver<S7PlcDomain> implements Con
         }
     }
 
+    /**
+     * Reads the blocks of multiple {@link S7PlcToplevelBlockTask} instances in {@link Mode#READ} mode using multi
+     * variable read requests that fit in the negotiated PDU, and then runs all tasks in order. The tasks whose blocks
+     * have not been read, because the request or the specific item failed, will perform a separate read request.
+     */
+    @Override
+    protected void runTasks(List<BlockTask> tasks) {
+        final int pduLength = this.state.client.PDULength();
+
+        final List<S7PlcToplevelBlockTask> readTasks = tasks.stream()
+                .filter(task -> task instanceof S7PlcToplevelBlockTask && task.getMode() == Mode.READ)
+                .map(S7PlcToplevelBlockTask.class::cast).collect(Collectors.toList());
+
+        // tasks of prepared reads are reused, a previous run cut short by an exception could have left them marked
+        readTasks.forEach(S7PlcToplevelBlockTask::clearPrefetched);
+
+        if (this.state.options.shouldUseMultiVariableRead() && pduLength > 0) {
+            for (final List<S7PlcToplevelBlockTask> request : MultiVariableReadPacker.pack(readTasks, pduLength)) {
+                if (request.size() > 1) {
+                    prefetch(request);
+                }
+            }
+        }
+
+        super.runTasks(tasks);
+    }
+
+    private void prefetch(final List<S7PlcToplevelBlockTask> tasks) {
+        final S7DataItem[] items = new S7DataItem[tasks.size()];
+
+        for (int i = 0; i < items.length; i++) {
+            final S7PlcToplevelBlockTask task = tasks.get(i);
+            final byte[] data = ((ByteArrayBuffer) task.getBuffer()).getBackingArray();
+
+            items[i] = new S7DataItem(S7.S7AreaDB, task.getDBNumber(), task.getStart(), data.length, data);
+        }
+
+        logger.debug("Reading {} blocks from PLC with a single request", items.length);
+
+        try {
+            readMultiVars(items);
+        } catch (Moka7Exception e) {
+            logger.debug("Multi variable read failed, falling back to single reads", e);
+            if (e.getStatusCode() <= S7Client.errTCPConnectionReset) {
+                handleMoka7IOException(e);
+            }
+            return;
+        }
+
+        for (int i = 0; i < items.length; i++) {
+            if (items[i].Result == 0) {
+                tasks.get(i).markPrefetched();
+            } else {
+                logger.debug("Multi variable read failed for DB: {} off: {} len: {} status: {}, falling back to "
+                        + "single read", items[i].DBNumber, items[i].Start, items[i].Amount, items[i].Result);
+            }
+        }
+    }
+
     private void handleMoka7IOException(Moka7Exception e) {
         logger.warn("Operation failed due to IO error", e);
         if (e.getStatusCode() <= S7Client.errTCPConnectionReset) {
@@ -214,6 +305,13 @@ public class S7PlcDriver extends AbstractBlockDriver<S7PlcDomain> implements Con
         }
     }
 
+    synchronized void readMultiVars(S7DataItem[] items) throws Moka7Exception {
+        int result = this.state.client.ReadMultiVars(items, items.length);
+        if (result != 0) {
+            throw new Moka7Exception("items: " + items.length + " status: " + result, result);
+        }
+    }
+
     @SuppressWarnings("serial")
     static final class Moka7Exception extends IOException {
 
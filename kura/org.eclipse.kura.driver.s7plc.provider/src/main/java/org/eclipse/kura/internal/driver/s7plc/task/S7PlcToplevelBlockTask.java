@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -30,6 +30,7 @@ public class S7PlcToplevelBlockTask extends ToplevelBlockTask {
     private final int areaNo;
     private ByteArrayBuffer data;
     private final S7PlcDriver driver;
+    private boolean isPrefetched;
 
     public S7PlcToplevelBlockTask(S7PlcDriver driver, Mode mode, int dbNumber, int start, int end) {
         super(start, end, mode);
@@ -37,9 +38,36 @@ public class S7PlcToplevelBlockTask extends ToplevelBlockTask {
         this.driver = driver;
     }
 
+    public int getDBNumber() {
+        return this.areaNo;
+    }
+
+    /**
+     * Marks the buffer of this task as already filled, for example by a request that read multiple blocks.
+     * The next {@link #processBuffer()} call will not perform any I/O operation in {@link Mode#READ} mode.
+     */
+    public void markPrefetched() {
+        this.isPrefetched = true;
+    }
+
+    /**
+     * Discards a previous {@link #markPrefetched()} call, so that the next {@link #processBuffer()} call reads the
+     * buffer from the PLC.
+     */
+    public void clearPrefetched() {
+        this.isPrefetched = false;
+    }
+
+    @Override
+    protected boolean isBufferReadRequired() {
+        return !this.isPrefetched;
+    }
+
     @Override
     public void processBuffer() throws IOException {
-        if (getMode() == Mode.READ) {
+        if (getMode() == Mode.READ && this.isPrefetched) {
+            this.isPrefetched = false;
+        } else if (getMode() == Mode.READ) {
             logger.debug("Reading from PLC, DB{} offset: {} length: {}", this.areaNo, getStart(),
                     getBuffer().getLength());
             this.driver.read(this.areaNo, getStart(), ((ByteArrayBuffer) getBuffer()).getBackingArray());
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2023, 2024 Eurotech and/or its affiliates and others
  *
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -379,7 +379,6 @@ public abstract class AbstractLinuxFirewall {
     private void update() throws KuraException {
         synchronized (lock) {
             updateIptablesConfig();
-            this.iptables.clearAllKuraChains();
             applyRules();
             this.iptables.saveKuraChains();
         }
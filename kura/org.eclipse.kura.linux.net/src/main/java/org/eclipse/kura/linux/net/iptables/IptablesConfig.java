@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2011, 2024 Eurotech and/or its affiliates and others
  *
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -20,11 +20,15 @@ import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
@@ -42,6 +46,19 @@ public class IptablesConfig extends IptablesConfigConstants {
 
     private static final Logger logger = LoggerFactory.getLogger(IptablesConfig.class);
 
+    private static final String RESTORE_NO_FLUSH_OPTION = "--noflush ";
+    private static final String[] FILTER_JUMP_RULES = { IptablesConfigConstants.ADD_INPUT_KURA_CHAIN,
+            IptablesConfigConstants.ADD_OUTPUT_KURA_CHAIN, IptablesConfigConstants.ADD_FORWARD_KURA_CHAIN };
+    private static final String[] NAT_JUMP_RULES = { IptablesConfigConstants.ADD_PREROUTING_KURA_CHAIN,
+            IptablesConfigConstants.ADD_POSTROUTING_KURA_CHAIN, IptablesConfigConstants.ADD_INPUT_KURA_CHAIN,
+            IptablesConfigConstants.ADD_OUTPUT_KURA_CHAIN };
+    private static final String[] MANGLE_JUMP_RULES = { IptablesConfigConstants.ADD_PREROUTING_KURA_CHAIN,
+            IptablesConfigConstants.ADD_POSTROUTING_KURA_CHAIN, IptablesConfigConstants.ADD_INPUT_KURA_CHAIN,
+            IptablesConfigConstants.ADD_OUTPUT_KURA_CHAIN, IptablesConfigConstants.ADD_FORWARD_KURA_CHAIN };
+    private static final Set<String> KURA_CHAINS = new HashSet<>(Arrays.asList(INPUT_KURA_CHAIN, OUTPUT_KURA_CHAIN,
+            FORWARD_KURA_CHAIN, FORWARD_KURA_PF_CHAIN, FORWARD_KURA_IPF_CHAIN, PREROUTING_KURA_CHAIN,
+            PREROUTING_KURA_PF_CHAIN, POSTROUTING_KURA_CHAIN, POSTROUTING_KURA_PF_CHAIN, POSTROUTING_KURA_IPF_CHAIN));
+
     protected Set<LocalRule> localRules;
     protected Set<PortForwardRule> portForwardRules;
     protected Set<NATRule> autoNatRules;
@@ -52,6 +69,11 @@ public class IptablesConfig extends IptablesConfigConstants {
     protected Set<String> additionalMangleRules;
     protected CommandExecutorService executorService;
 
+    // the Kura chains applied by the last successful applyRules() call, null if unknown
+    private String appliedKuraChains;
+    // the Kura chains reported by iptables-save after the last successful applyRules() call, null if unknown
+    private String savedKuraChains;
+
     public IptablesConfig() {
         this.localRules = new LinkedHashSet<>();
         this.portForwardRules = new LinkedHashSet<>();
@@ -169,6 +191,7 @@ public class IptablesConfig extends IptablesConfigConstants {
      * Clears all chains
      */
     public void clearAllChains() throws KuraException {
+        resetAppliedKuraChains();
         try (FileOutputStream fos = new FileOutputStream(getFirewallConfigTmpFileName());
                 PrintWriter writer = new PrintWriter(fos)) {
             writer.println(STAR_NAT);
@@ -191,6 +214,7 @@ public class IptablesConfig extends IptablesConfigConstants {
      * Apply a minimal configuration
      */
     public void applyBlockPolicy() throws KuraException {
+        resetAppliedKuraChains();
         try (FileOutputStream fos = new FileOutputStream(getFirewallConfigTmpFileName());
                 PrintWriter writer = new PrintWriter(fos)) {
             writer.println(STAR_NAT);
@@ -215,6 +239,7 @@ public class IptablesConfig extends IptablesConfigConstants {
      * Clears all Kura chains
      */
     public void clearAllKuraChains() {
+        resetAppliedKuraChains();
         internalFlush(INPUT_KURA_CHAIN, FILTER);
         internalFlush(OUTPUT_KURA_CHAIN, FILTER);
         internalFlush(FORWARD_KURA_CHAIN, FILTER);
@@ -234,6 +259,11 @@ public class IptablesConfig extends IptablesConfigConstants {
         internalFlush(POSTROUTING_KURA_CHAIN, MANGLE);
     }
 
+    private void resetAppliedKuraChains() {
+        this.appliedKuraChains = null;
+        this.savedKuraChains = null;
+    }
+
     private void internalFlush(String chain, String table) {
         CommandStatus status;
         if (this.executorService != null) {
@@ -336,7 +366,7 @@ public class IptablesConfig extends IptablesConfigConstants {
             if (path == null) {
                 path = getFirewallConfigFileName();
             }
-            status = execute("iptables-save > " + path);
+            status = execute(getIptablesCommand() + "-save > " + path);
             if (!status.getExitStatus().isSuccessful()) {
                 logger.error("Failed to save rules in {}", path);
             }
@@ -347,9 +377,12 @@ public class IptablesConfig extends IptablesConfigConstants {
     }
 
     private CommandStatus execute(String commandLine) {
+        return execute(commandLine, new ByteArrayOutputStream());
+    }
+
+    private CommandStatus execute(String commandLine, ByteArrayOutputStream out) {
         Command command = new Command(commandLine.split(" "));
         command.setExecuteInAShell(true);
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
         ByteArrayOutputStream err = new ByteArrayOutputStream();
         command.setErrorStream(err);
         command.setOutputStream(out);
@@ -368,12 +401,18 @@ public class IptablesConfig extends IptablesConfigConstants {
      * Temporary configuration file is deleted upon completion.
      */
     public void restore(String filename) {
+        restore(filename, "");
+    }
+
+    private boolean restore(String filename, String options) {
         try {
             if (this.executorService != null) {
-                CommandStatus status = execute("iptables-restore " + filename);
+                CommandStatus status = execute(getIptablesCommand() + "-restore " + options + filename);
                 if (!status.getExitStatus().isSuccessful()) {
                     logger.error("Failed to restore rules from {}", filename);
+                    return false;
                 }
+                return true;
             } else {
                 logger.error(COMMAND_EXECUTOR_SERVICE_MESSAGE);
                 throw new IllegalArgumentException(COMMAND_EXECUTOR_SERVICE_MESSAGE);
@@ -427,35 +466,16 @@ public class IptablesConfig extends IptablesConfigConstants {
             this.natRules.stream().forEach(natRule -> {
                 List<String> filterForwardChainRules = natRule.getFilterForwardChainRule().toStrings();
                 if (filterForwardChainRules != null && !filterForwardChainRules.isEmpty()) {
-                    filterForwardChainRules.stream()
-                            .forEach(filterForwardChainRule -> writeNatRulesInternal(writer, filterForwardChainRule));
+                    filterForwardChainRules.stream().forEach(writer::println);
                 }
             });
         }
     }
 
-    private void writeNatRulesInternal(PrintWriter writer, String filterForwardChainRule) {
-        if (writer == null) {
-            CommandStatus status = execute((getIptablesCommand() + " " + filterForwardChainRule));
-            if (!status.getExitStatus().isSuccessful()) {
-                logger.error("Failed to apply forward rules to filter table");
-            }
-        } else {
-            writer.println(filterForwardChainRule);
-        }
-    }
-
     private void writeLocalRulesToFilterTable(PrintWriter writer) {
         if (this.localRules != null && !this.localRules.isEmpty()) {
             for (LocalRule lr : this.localRules) {
-                if (writer == null) {
-                    CommandStatus status = execute((getIptablesCommand() + " " + lr));
-                    if (!status.getExitStatus().isSuccessful()) {
-                        logger.error("Failed to apply local rules to filter table");
-                    }
-                } else {
-                    writer.println(lr);
-                }
+                writer.println(lr);
             }
         }
     }
@@ -465,57 +485,26 @@ public class IptablesConfig extends IptablesConfigConstants {
             this.autoNatRules.stream().forEach(autoNatRule -> {
                 List<String> filterForwardChainRules = autoNatRule.getFilterForwardChainRule().toStrings();
                 if (filterForwardChainRules != null && !filterForwardChainRules.isEmpty()) {
-                    filterForwardChainRules.stream().forEach(
-                            filterForwardChainRule -> writeAutoNatRulesInternal(writer, filterForwardChainRule));
+                    filterForwardChainRules.stream().forEach(writer::println);
                 }
             });
         }
     }
 
-    private void writeAutoNatRulesInternal(PrintWriter writer, String filterForwardChainRule) {
-        if (writer == null) {
-            CommandStatus status = execute((getIptablesCommand() + " " + filterForwardChainRule));
-            if (!status.getExitStatus().isSuccessful()) {
-                logger.error("Failed to apply auto nat rules");
-            }
-        } else {
-            writer.println(filterForwardChainRule);
-        }
-    }
-
     private void writePortForwardRulesToFilterTable(PrintWriter writer) {
         if (this.portForwardRules != null && !this.portForwardRules.isEmpty()) {
             this.portForwardRules.stream().forEach(portForwardRule -> {
                 List<String> filterForwardChainRules = portForwardRule.getFilterForwardChainRule().toStrings();
                 if (filterForwardChainRules != null && !filterForwardChainRules.isEmpty()) {
-                    filterForwardChainRules.stream().forEach(
-                            filterForwardChainRule -> writeForwardRulesInternal(writer, filterForwardChainRule));
+                    filterForwardChainRules.stream().forEach(writer::println);
                 }
             });
         }
     }
 
-    private void writeForwardRulesInternal(PrintWriter writer, String filterForwardChainRule) {
-        if (writer == null) {
-            CommandStatus status = execute((getIptablesCommand() + " " + filterForwardChainRule));
-            if (!status.getExitStatus().isSuccessful()) {
-                logger.error("Failed to apply forward rules");
-            }
-        } else {
-            writer.println(filterForwardChainRule);
-        }
-    }
-
     private void writeAdditionalRulesToFilterTable(PrintWriter writer) {
         for (String filterRule : this.additionalFilterRules) {
-            if (writer == null) {
-                CommandStatus status = execute((getIptablesCommand() + " -t " + FILTER + " " + filterRule));
-                if (!status.getExitStatus().isSuccessful()) {
-                    logger.error("Failed to apply additional rules to filter table");
-                }
-            } else {
-                writer.println(filterRule);
-            }
+            writer.println(filterRule);
         }
     }
 
@@ -535,7 +524,7 @@ public class IptablesConfig extends IptablesConfigConstants {
 
     private void writeNatRulesToNatTable(PrintWriter writer) {
         if (this.natRules != null && !this.natRules.isEmpty()) {
-            this.natRules.stream().forEach(natRule -> writePostroutingNatRulesInternal(writer, natRule));
+            this.natRules.stream().forEach(natRule -> writer.println(natRule.getNatPostroutingChainRule()));
         }
     }
 
@@ -551,54 +540,25 @@ public class IptablesConfig extends IptablesConfigConstants {
                                 .equals(natPostroutingChainRule))
                         .count() > 0;
                 if (!found) {
-                    writePostroutingNatRulesInternal(writer, autoNatRule);
+                    writer.println(natPostroutingChainRule);
                     appliedNatPostroutingChainRules.add(natPostroutingChainRule);
                 }
             }
         }
     }
 
-    private void writePostroutingNatRulesInternal(PrintWriter writer, NATRule autoNatRule) {
-        if (writer == null) {
-            CommandStatus status = execute(
-                    (getIptablesCommand() + " -t " + NAT + " " + autoNatRule.getNatPostroutingChainRule()));
-            if (!status.getExitStatus().isSuccessful()) {
-                logger.error("Failed to apply postrouting rules to nat table");
-            }
-        } else {
-            writer.println(autoNatRule.getNatPostroutingChainRule());
-        }
-    }
-
     private void writePortForwardRulesToNatTable(PrintWriter writer) {
         if (this.portForwardRules != null && !this.portForwardRules.isEmpty()) {
             this.portForwardRules.stream().forEach(portForwardRule -> {
-                if (writer == null) {
-                    CommandStatus statusPre = execute(
-                            (getIptablesCommand() + " -t " + NAT + " " + portForwardRule.getNatPreroutingChainRule()));
-                    CommandStatus statusPost = execute(
-                            (getIptablesCommand() + " -t " + NAT + " " + portForwardRule.getNatPostroutingChainRule()));
-                    if (!statusPre.getExitStatus().isSuccessful() || !statusPost.getExitStatus().isSuccessful()) {
-                        logger.error("Failed to apply pre/postrouting rules to nat table");
-                    }
-                } else {
-                    writer.println(portForwardRule.getNatPreroutingChainRule());
-                    writer.println(portForwardRule.getNatPostroutingChainRule());
-                }
+                writer.println(portForwardRule.getNatPreroutingChainRule());
+                writer.println(portForwardRule.getNatPostroutingChainRule());
             });
         }
     }
 
     private void writeAdditionalRulesToNatTable(PrintWriter writer) {
         for (String natRule : this.additionalNatRules) {
-            if (writer == null) {
-                CommandStatus status = execute((getIptablesCommand() + " -t " + NAT + " " + natRule));
-                if (!status.getExitStatus().isSuccessful()) {
-                    logger.error("Failed to apply additional rules to nat table");
-                }
-            } else {
-                writer.println(natRule);
-            }
+            writer.println(natRule);
         }
     }
 
@@ -613,14 +573,7 @@ public class IptablesConfig extends IptablesConfigConstants {
 
     private void writeAdditionalRulesToMangleTable(PrintWriter writer) {
         for (String mangleRule : this.additionalMangleRules) {
-            if (writer == null) {
-                CommandStatus status = execute((getIptablesCommand() + " -t " + MANGLE + " " + mangleRule));
-                if (!status.getExitStatus().isSuccessful()) {
-                    logger.error("Failed to apply prerouting rules to mangle table");
-                }
-            } else {
-                writer.println(mangleRule);
-            }
+            writer.println(mangleRule);
         }
     }
 
@@ -865,331 +818,177 @@ public class IptablesConfig extends IptablesConfigConstants {
      * Applies the rules contained in the localRules, portForwardRules, natRules,
      * and autoNatRules, force the polices for input and forward chains and apply
      * flooding protection rules if needed.
+     * The Kura chains are replaced in a single iptables-restore transaction, that
+     * is skipped if the rules did not change since the last successful apply and
+     * the installed Kura chains are still the ones found after that apply.
      */
     public void applyRules() {
-        applyPolicies();
-        createKuraChains();
-        applyLoopbackRules();
-        applyIncomingToOutcomingRules();
-        applyIcmpRules();
-        writeLocalRulesToFilterTable(null);
-        writePortForwardRulesToFilterTable(null);
-        writeAutoNatRulesToFilterTable(null);
-        writeNatRulesToFilterTable(null);
-        writePortForwardRulesToNatTable(null);
-        writeAutoNatRulesToNatTable(null);
-        writeNatRulesToNatTable(null);
-        writeAdditionalRulesToFilterTable(null);
-        writeAdditionalRulesToNatTable(null);
-        writeAdditionalRulesToMangleTable(null);
-        createKuraChainsReturnRules();
-    }
-
-    private void applyPolicies() {
-        if (!execute(getIptablesCommand() + " " + String.join(" ", IptablesConfigConstants.IPTABLES_INPUT_DROP_POLICY))
-                .getExitStatus().isSuccessful()) {
-            logger.error("Failed to apply policy to chain INPUT");
-        }
-        if (!execute(
-                getIptablesCommand() + " " + String.join(" ", IptablesConfigConstants.IPTABLES_FORWARD_DROP_POLICY))
-                .getExitStatus().isSuccessful()) {
-            logger.error("Failed to apply policy to chain FORWARD");
-        }
-    }
+        String kuraChains = renderKuraChains(Collections.emptySet());
+        Set<String> missingJumpRules = new HashSet<>();
+        String currentKuraChains = readKuraChains(missingJumpRules);
 
-    private void createKuraChains() {
-        createKuraFilterChains();
-        createKuraNatChains();
-        createKuraMangleChains();
-    }
-
-    private void createKuraMangleChains() {
-        String rule;
-        execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CREATE_INPUT_KURA_CHAIN_MANGLE));
-        rule = getIptablesCommand() + " " + IptablesConfigConstants.ADD_INPUT_KURA_CHAIN + " -t " + MANGLE;
-        if (!execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CHECK_INPUT_KURA_CHAIN_MANGLE)).getExitStatus()
-                .isSuccessful()
-                && !execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_CREATION_FAILED_MESSAGE);
+        if (kuraChains.equals(this.appliedKuraChains) && currentKuraChains != null
+                && currentKuraChains.equals(this.savedKuraChains) && missingJumpRules.isEmpty()) {
+            logger.debug("applyRules() :: Kura chains unchanged, skipping apply");
+            return;
         }
 
-        execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CREATE_OUTPUT_KURA_CHAIN_MANGLE));
-        rule = getIptablesCommand() + " " + IptablesConfigConstants.ADD_OUTPUT_KURA_CHAIN + " -t " + MANGLE;
-        if (!execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CHECK_OUTPUT_KURA_CHAIN_MANGLE)).getExitStatus()
-                .isSuccessful()
-                && !execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_CREATION_FAILED_MESSAGE);
-        }
+        resetAppliedKuraChains();
 
-        execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CREATE_FORWARD_KURA_CHAIN_MANGLE));
-        rule = getIptablesCommand() + " " + IptablesConfigConstants.ADD_FORWARD_KURA_CHAIN + " -t " + MANGLE;
-        if (!execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CHECK_FORWARD_KURA_CHAIN_MANGLE)).getExitStatus()
-                .isSuccessful()
-                && !execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_CREATION_FAILED_MESSAGE);
+        if (currentKuraChains == null) {
+            // the current rules are unknown, check the jumps one by one not to insert them twice
+            removeInstalledJumpRules(missingJumpRules);
         }
 
-        execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CREATE_PREROUTING_KURA_CHAIN_MANGLE));
-        rule = getIptablesCommand() + " " + IptablesConfigConstants.ADD_PREROUTING_KURA_CHAIN + " -t " + MANGLE;
-        if (!execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CHECK_PREROUTING_KURA_CHAIN_MANGLE)).getExitStatus()
-                .isSuccessful()
-                && !execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_CREATION_FAILED_MESSAGE);
+        String restoreFileName = getFirewallConfigTmpFileName();
+        try (FileOutputStream fos = new FileOutputStream(restoreFileName);
+                PrintWriter writer = new PrintWriter(fos)) {
+            writer.print(renderKuraChains(missingJumpRules));
+        } catch (IOException e) {
+            logger.error("applyRules() :: failed to write the rules file {}", restoreFileName, e);
+            return;
         }
 
-        execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CREATE_POSTROUTING_KURA_CHAIN_MANGLE));
-        rule = getIptablesCommand() + " " + IptablesConfigConstants.ADD_POSTROUTING_KURA_CHAIN + " -t " + MANGLE;
-        if (!execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CHECK_POSTROUTING_KURA_CHAIN_MANGLE))
-                .getExitStatus().isSuccessful()
-                && !execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_CREATION_FAILED_MESSAGE);
+        if (restore(restoreFileName, RESTORE_NO_FLUSH_OPTION)) {
+            this.appliedKuraChains = kuraChains;
+            // iptables-save reports the rules in a normalized form, that is compared by the next apply
+            this.savedKuraChains = readKuraChains(new HashSet<>());
         }
-
     }
 
-    private void createKuraNatChains() {
-        String rule;
-        execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CREATE_INPUT_KURA_CHAIN_NAT));
-        rule = getIptablesCommand() + " " + IptablesConfigConstants.ADD_INPUT_KURA_CHAIN + " -t " + NAT;
-        if (!execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CHECK_INPUT_KURA_CHAIN_NAT)).getExitStatus()
-                .isSuccessful()
-                && !execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_CREATION_FAILED_MESSAGE);
-        }
-
-        execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CREATE_OUTPUT_KURA_CHAIN_NAT));
-        rule = getIptablesCommand() + " " + IptablesConfigConstants.ADD_OUTPUT_KURA_CHAIN + " -t " + NAT;
-        if (!execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CHECK_OUTPUT_KURA_CHAIN_NAT)).getExitStatus()
-                .isSuccessful()
-                && !execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_CREATION_FAILED_MESSAGE);
-        }
-
-        execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CREATE_PREROUTING_KURA_CHAIN));
-        rule = getIptablesCommand() + " " + IptablesConfigConstants.ADD_PREROUTING_KURA_CHAIN + " -t " + NAT;
-        if (!execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CHECK_PREROUTING_KURA_CHAIN)).getExitStatus()
-                .isSuccessful()
-                && !execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_CREATION_FAILED_MESSAGE);
-        }
-
-        execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CREATE_PREROUTING_KURA_PF_CHAIN));
-        rule = getIptablesCommand() + " " + IptablesConfigConstants.ADD_PREROUTING_KURA_PF_CHAIN + " -t " + NAT;
-        if (!execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CHECK_PREROUTING_KURA_PF_CHAIN)).getExitStatus()
-                .isSuccessful()
-                && !execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_CREATION_FAILED_MESSAGE);
-        }
-
-        execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CREATE_POSTROUTING_KURA_CHAIN));
-        rule = getIptablesCommand() + " " + IptablesConfigConstants.ADD_POSTROUTING_KURA_CHAIN + " -t " + NAT;
-        if (!execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CHECK_POSTROUTING_KURA_CHAIN)).getExitStatus()
-                .isSuccessful()
-                && !execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_CREATION_FAILED_MESSAGE);
-        }
-
-        execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CREATE_POSTROUTING_KURA_PF_CHAIN));
-        rule = getIptablesCommand() + " " + IptablesConfigConstants.ADD_POSTROUTING_KURA_PF_CHAIN + " -t " + NAT;
-        if (!execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CHECK_POSTROUTING_KURA_PF_CHAIN)).getExitStatus()
-                .isSuccessful()
-                && !execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_CREATION_FAILED_MESSAGE);
-        }
-
-        execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CREATE_POSTROUTING_KURA_IPF_CHAIN));
-        rule = getIptablesCommand() + " " + IptablesConfigConstants.ADD_POSTROUTING_KURA_IPF_CHAIN + " -t " + NAT;
-        if (!execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CHECK_POSTROUTING_KURA_IPF_CHAIN)).getExitStatus()
-                .isSuccessful()
-                && !execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_CREATION_FAILED_MESSAGE);
+    /*
+     * Renders the Kura chains in the iptables-restore format. Declaring the Kura chains creates them if missing
+     * and flushes them otherwise, so that the other chains are preserved when restoring with --noflush.
+     * The jumps from the built-in chains are only added if contained in the provided set, to avoid duplicates.
+     */
+    private String renderKuraChains(Set<String> missingJumpRules) {
+        StringWriter out = new StringWriter();
+        PrintWriter writer = new PrintWriter(out);
+
+        writer.println(STAR_FILTER);
+        writer.println(IptablesConfigConstants.INPUT_DROP_POLICY);
+        writer.println(IptablesConfigConstants.FORWARD_DROP_POLICY);
+        writer.println(IptablesConfigConstants.INPUT_KURA_POLICY);
+        writer.println(IptablesConfigConstants.OUTPUT_KURA_POLICY);
+        writer.println(IptablesConfigConstants.FORWARD_KURA_POLICY);
+        writer.println(IptablesConfigConstants.FORWARD_KURA_PF_POLICY);
+        writer.println(IptablesConfigConstants.FORWARD_KURA_IPF_POLICY);
+        writeJumpRules(writer, FILTER, missingJumpRules, FILTER_JUMP_RULES);
+        writer.println(IptablesConfigConstants.ADD_FORWARD_KURA_PF_CHAIN);
+        writer.println(IptablesConfigConstants.ADD_FORWARD_KURA_IPF_CHAIN);
+        saveFilterTable(writer);
+        writer.println(COMMIT);
+        writer.println(STAR_NAT);
+        writer.println(IptablesConfigConstants.PREROUTING_KURA_POLICY);
+        writer.println(IptablesConfigConstants.PREROUTING_KURA_PF_POLICY);
+        writer.println(IptablesConfigConstants.POSTROUTING_KURA_POLICY);
+        writer.println(IptablesConfigConstants.POSTROUTING_KURA_PF_POLICY);
+        writer.println(IptablesConfigConstants.POSTROUTING_KURA_IPF_POLICY);
+        writer.println(IptablesConfigConstants.INPUT_KURA_POLICY);
+        writer.println(IptablesConfigConstants.OUTPUT_KURA_POLICY);
+        writeJumpRules(writer, NAT, missingJumpRules, NAT_JUMP_RULES);
+        writer.println(IptablesConfigConstants.ADD_PREROUTING_KURA_PF_CHAIN);
+        writer.println(IptablesConfigConstants.ADD_POSTROUTING_KURA_PF_CHAIN);
+        writer.println(IptablesConfigConstants.ADD_POSTROUTING_KURA_IPF_CHAIN);
+        saveNatTable(writer);
+        writer.println(COMMIT);
+        writer.println(STAR_MANGLE);
+        writer.println(IptablesConfigConstants.PREROUTING_KURA_POLICY);
+        writer.println(IptablesConfigConstants.POSTROUTING_KURA_POLICY);
+        writer.println(IptablesConfigConstants.INPUT_KURA_POLICY);
+        writer.println(IptablesConfigConstants.OUTPUT_KURA_POLICY);
+        writer.println(IptablesConfigConstants.FORWARD_KURA_POLICY);
+        writeJumpRules(writer, MANGLE, missingJumpRules, MANGLE_JUMP_RULES);
+        saveMangleTable(writer);
+        writer.println(COMMIT);
+
+        writer.flush();
+        return out.toString();
+    }
+
+    private void writeJumpRules(PrintWriter writer, String table, Set<String> missingJumpRules, String[] jumpRules) {
+        for (String jumpRule : jumpRules) {
+            if (missingJumpRules.contains(table + " " + jumpRule)) {
+                writer.println(jumpRule);
+            }
         }
     }
 
-    private void createKuraFilterChains() {
-        execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CREATE_INPUT_KURA_CHAIN));
-        String rule = getIptablesCommand() + " " + IptablesConfigConstants.ADD_INPUT_KURA_CHAIN + " -t " + FILTER;
-        if (!execute(
-                getIptablesCommand() + " " + String.join(" ", IptablesConfigConstants.IPTABLES_CHECK_INPUT_KURA_CHAIN))
-                .getExitStatus().isSuccessful()
-                && !execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_CREATION_FAILED_MESSAGE);
-        }
-
-        execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CREATE_OUTPUT_KURA_CHAIN));
-        rule = getIptablesCommand() + " " + IptablesConfigConstants.ADD_OUTPUT_KURA_CHAIN + " -t " + FILTER;
-        if (!execute(
-                getIptablesCommand() + " " + String.join(" ", IptablesConfigConstants.IPTABLES_CHECK_OUTPUT_KURA_CHAIN))
-                .getExitStatus().isSuccessful()
-                && !execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_CREATION_FAILED_MESSAGE);
-        }
-
-        execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CREATE_FORWARD_KURA_CHAIN));
-        rule = getIptablesCommand() + " " + IptablesConfigConstants.ADD_FORWARD_KURA_CHAIN + " -t " + FILTER;
-        if (!execute(getIptablesCommand() + " " + String.join(" ", IPTABLES_CHECK_FORWARD_KURA_CHAIN)).getExitStatus()
-                .isSuccessful() && !execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_CREATION_FAILED_MESSAGE);
-        }
-
-        execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CREATE_FORWARD_KURA_PF_CHAIN));
-        rule = getIptablesCommand() + " " + IptablesConfigConstants.ADD_FORWARD_KURA_PF_CHAIN + " -t " + FILTER;
-        if (!execute(getIptablesCommand() + " " + String.join(" ", IPTABLES_CHECK_FORWARD_KURA_PF_CHAIN))
-                .getExitStatus().isSuccessful() && !execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_CREATION_FAILED_MESSAGE);
-        }
+    /*
+     * Returns the current content of the Kura chains, the policies of the built-in
+     * chains and the jumps to the Kura chains, as reported by iptables-save.
+     * The jumps from the built-in chains to the Kura chains that are not currently
+     * installed are added to the provided set, as "table rule" strings.
+     * Returns null, and considers all the jumps missing, if the current rules
+     * cannot be retrieved.
+     */
+    private String readKuraChains(Set<String> missingJumpRules) {
+        addJumpRules(missingJumpRules, FILTER, FILTER_JUMP_RULES);
+        addJumpRules(missingJumpRules, NAT, NAT_JUMP_RULES);
+        addJumpRules(missingJumpRules, MANGLE, MANGLE_JUMP_RULES);
 
-        execute(getIptablesCommand() + " "
-                + String.join(" ", IptablesConfigConstants.IPTABLES_CREATE_FORWARD_KURA_IPF_CHAIN));
-        rule = getIptablesCommand() + " " + IptablesConfigConstants.ADD_FORWARD_KURA_IPF_CHAIN + " -t " + FILTER;
-        if (!execute(getIptablesCommand() + " " + String.join(" ", IPTABLES_CHECK_FORWARD_KURA_IPF_CHAIN))
-                .getExitStatus().isSuccessful() && !execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_CREATION_FAILED_MESSAGE);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CommandStatus status = execute(getIptablesCommand() + "-save", out);
+        if (!status.getExitStatus().isSuccessful()) {
+            logger.warn("Failed to retrieve the current rules");
+            return null;
         }
-    }
 
-    private void applyLoopbackRules() {
-        if (!execute(
-                (getIptablesCommand() + " " + IptablesConfigConstants.ALLOW_ALL_TRAFFIC_TO_LOOPBACK + " -t " + FILTER))
-                .getExitStatus().isSuccessful()) {
-            logger.error("Failed to apply rules to loopback interface");
+        StringBuilder result = new StringBuilder();
+        String table = null;
+        for (String line : new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n")) {
+            line = line.trim();
+            if (line.startsWith("*")) {
+                table = line.substring(1);
+                result.append(line).append('\n');
+            } else if (line.startsWith(":")) {
+                appendChainPolicy(result, line);
+            } else if (line.startsWith("-A ") && isKuraRule(line)) {
+                // iptables-save reports the inserted jumps as appended rules
+                missingJumpRules.remove(table + " -I " + line.substring(3));
+                result.append(line).append('\n');
+            }
         }
-    }
 
-    private void applyIncomingToOutcomingRules() {
-        if (!execute((getIptablesCommand() + " " + IptablesConfigConstants.ALLOW_ONLY_INCOMING_TO_OUTGOING + " -t "
-                + FILTER)).getExitStatus().isSuccessful()) {
-            logger.error("Failed to apply incoming/outcoming rules");
-        }
+        return result.toString();
     }
 
-    private void applyIcmpRules() {
-        if (this.allowIcmp) {
-            for (String allowIcmpRule : getAllowIcmp()) {
-                if (!execute((getIptablesCommand() + " " + allowIcmpRule + " -t " + FILTER)).getExitStatus()
-                        .isSuccessful()) {
-                    logger.error("Failed to apply {} rule", allowIcmpRule);
-                }
-            }
-        } else {
-            for (String doNotAllowIcmpRule : getNotAllowIcmp()) {
-                if (!execute((getIptablesCommand() + " " + doNotAllowIcmpRule + " -t " + FILTER)).getExitStatus()
-                        .isSuccessful()) {
-                    logger.error("Failed to apply {} rule", doNotAllowIcmpRule);
-                }
+    private void removeInstalledJumpRules(Set<String> missingJumpRules) {
+        Iterator<String> iterator = missingJumpRules.iterator();
+        while (iterator.hasNext()) {
+            String[] tableAndRule = iterator.next().split(" ", 2);
+            String checkRule = tableAndRule[1].replaceFirst("^-I ", "-C ");
+            if (execute(getIptablesCommand() + " " + checkRule + " -t " + tableAndRule[0]).getExitStatus()
+                    .isSuccessful()) {
+                iterator.remove();
             }
         }
     }
 
-    private void createKuraChainsReturnRules() {
-        createKuraChainsReturnFilterRules();
-        createKuraChainsReturnNatRules();
-        createKuraChainsReturnMangleRules();
-    }
-
-    private void createKuraChainsReturnMangleRules() {
-        String rule;
-        rule = getIptablesCommand() + " " + IptablesConfigConstants.RETURN_INPUT_KURA_CHAIN + " -t " + MANGLE;
-        if (!execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_RETURN_RULE_FAILED_MESSAGE);
-        }
-        rule = getIptablesCommand() + " " + IptablesConfigConstants.RETURN_OUTPUT_KURA_CHAIN + " -t " + MANGLE;
-        if (!execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_RETURN_RULE_FAILED_MESSAGE);
-        }
-        rule = getIptablesCommand() + " " + IptablesConfigConstants.RETURN_PREROUTING_KURA_CHAIN + " -t " + MANGLE;
-        if (!execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_RETURN_RULE_FAILED_MESSAGE);
-        }
-        rule = getIptablesCommand() + " " + IptablesConfigConstants.RETURN_POSTROUTING_KURA_CHAIN + " -t " + MANGLE;
-        if (!execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_RETURN_RULE_FAILED_MESSAGE);
-        }
-        rule = getIptablesCommand() + " " + IptablesConfigConstants.RETURN_FORWARD_KURA_CHAIN + " -t " + MANGLE;
-        if (!execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_RETURN_RULE_FAILED_MESSAGE);
+    private void appendChainPolicy(StringBuilder result, String line) {
+        String[] tokens = line.substring(1).split(" ");
+        if (tokens.length >= 2 && (KURA_CHAINS.contains(tokens[0]) || tokens[0].matches("[A-Z]+"))) {
+            // the packet counters are left out
+            result.append(':').append(tokens[0]).append(' ').append(tokens[1]).append('\n');
         }
     }
 
-    private void createKuraChainsReturnNatRules() {
-        String rule = getIptablesCommand() + " " + IptablesConfigConstants.RETURN_INPUT_KURA_CHAIN + " -t " + NAT;
-        if (!execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_RETURN_RULE_FAILED_MESSAGE);
-        }
-        rule = getIptablesCommand() + " " + IptablesConfigConstants.RETURN_OUTPUT_KURA_CHAIN + " -t " + NAT;
-        if (!execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_RETURN_RULE_FAILED_MESSAGE);
-        }
-        rule = getIptablesCommand() + " " + IptablesConfigConstants.RETURN_PREROUTING_KURA_CHAIN + " -t " + NAT;
-        if (!execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_RETURN_RULE_FAILED_MESSAGE);
-        }
-        rule = getIptablesCommand() + " " + IptablesConfigConstants.RETURN_PREROUTING_KURA_PF_CHAIN + " -t " + NAT;
-        if (!execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_RETURN_RULE_FAILED_MESSAGE);
-        }
-        rule = getIptablesCommand() + " " + IptablesConfigConstants.RETURN_POSTROUTING_KURA_CHAIN + " -t " + NAT;
-        if (!execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_RETURN_RULE_FAILED_MESSAGE);
+    private boolean isKuraRule(String line) {
+        String[] tokens = line.split(" ");
+        if (tokens.length > 1 && KURA_CHAINS.contains(tokens[1])) {
+            return true;
         }
-        rule = getIptablesCommand() + " " + IptablesConfigConstants.RETURN_POSTROUTING_KURA_PF_CHAIN + " -t " + NAT;
-        if (!execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_RETURN_RULE_FAILED_MESSAGE);
-        }
-        rule = getIptablesCommand() + " " + IptablesConfigConstants.RETURN_POSTROUTING_KURA_IPF_CHAIN + " -t " + NAT;
-        if (!execute(rule).getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_RETURN_RULE_FAILED_MESSAGE);
+        for (int i = 2; i < tokens.length - 1; i++) {
+            if ("-j".equals(tokens[i]) && KURA_CHAINS.contains(tokens[i + 1])) {
+                return true;
+            }
         }
+        return false;
     }
 
-    private void createKuraChainsReturnFilterRules() {
-        if (!execute((getIptablesCommand() + " " + IptablesConfigConstants.RETURN_INPUT_KURA_CHAIN)).getExitStatus()
-                .isSuccessful()) {
-            logger.error(CHAIN_RETURN_RULE_FAILED_MESSAGE);
-        }
-        if (!execute((getIptablesCommand() + " " + IptablesConfigConstants.RETURN_OUTPUT_KURA_CHAIN)).getExitStatus()
-                .isSuccessful()) {
-            logger.error(CHAIN_RETURN_RULE_FAILED_MESSAGE);
-        }
-        if (!execute((getIptablesCommand() + " " + IptablesConfigConstants.RETURN_FORWARD_KURA_CHAIN)).getExitStatus()
-                .isSuccessful()) {
-            logger.error(CHAIN_RETURN_RULE_FAILED_MESSAGE);
-        }
-        if (!execute((getIptablesCommand() + " " + IptablesConfigConstants.RETURN_FORWARD_KURA_PF_CHAIN))
-                .getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_RETURN_RULE_FAILED_MESSAGE);
-        }
-        if (!execute((getIptablesCommand() + " " + IptablesConfigConstants.RETURN_FORWARD_KURA_IPF_CHAIN))
-                .getExitStatus().isSuccessful()) {
-            logger.error(CHAIN_RETURN_RULE_FAILED_MESSAGE);
+    private void addJumpRules(Set<String> result, String table, String[] jumpRules) {
+        for (String jumpRule : jumpRules) {
+            result.add(table + " " + jumpRule);
         }
     }
 }
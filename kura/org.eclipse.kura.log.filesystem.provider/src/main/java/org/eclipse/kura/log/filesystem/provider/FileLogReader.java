@@ -0,0 +1,287 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.log.filesystem.provider;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.eclipse.kura.log.LogEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Follows a log file and converts its content into {@link LogEntry} instances.
+ * <p>
+ * The file is read in chunks using a reusable direct buffer. When the end of the file is reached the thread waits for
+ * changes in the parent directory using a {@link WatchService}, the file is also checked periodically in case some
+ * change notifications are not delivered. If the file is truncated it is read again from the beginning, if it is
+ * replaced by a new file (log rotation), the new file is opened after reading the remaining content of the old one.
+ * <p>
+ * Lines that look like part of a stack trace are attached to the previous log entry, each entry is parsed once and
+ * passed to the provided consumer.
+ */
+class FileLogReader extends Thread {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileLogReader.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long MAX_WAIT_MILLIS = 1000;
+
+    private final Path path;
+    private final String filePath;
+    private final Consumer<LogEntry> consumer;
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private byte[] lineBytes = new byte[256];
+    private int lineLength;
+
+    private String pendingMessage;
+    private final StringBuilder pendingStacktrace = new StringBuilder();
+
+    private FileChannel channel;
+    private Object fileKey;
+    private long position;
+    private boolean openFailureReported;
+
+    FileLogReader(final String filePath, final Consumer<LogEntry> consumer) {
+        this.filePath = filePath;
+        this.path = Paths.get(filePath).toAbsolutePath();
+        this.consumer = consumer;
+        setName("FilesystemLogProvider-" + this.path.getFileName());
+        setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+        try (final WatchService watchService = createWatchService()) {
+            while (!isInterrupted()) {
+                if (!readAvailableData()) {
+                    flushPendingEntry();
+                    waitForChanges(watchService);
+                }
+            }
+        } catch (InterruptedException | ClosedByInterruptException e) {
+            // nothing to do
+        } catch (Exception e) {
+            logger.error("Unexpected exception in FilesystemLogProvider.", e);
+        } finally {
+            closeChannel();
+        }
+    }
+
+    /**
+     * Reads the data available in the file.
+     *
+     * @return {@code true} if some data has been read or the file has been reopened, {@code false} if the end of the
+     *         file has been reached
+     */
+    private boolean readAvailableData() throws IOException {
+        if (this.channel == null && !openChannel()) {
+            return false;
+        }
+
+        this.buffer.clear();
+        final int read = this.channel.read(this.buffer, this.position);
+
+        if (read > 0) {
+            this.position += read;
+            this.buffer.flip();
+            processBytes(this.buffer);
+            return true;
+        }
+
+        if (this.channel.size() < this.position) {
+            logger.info("File '{}' has been truncated, reading from the beginning.", this.filePath);
+            resetReadState();
+            return true;
+        }
+
+        if (isReplaced()) {
+            logger.info("File '{}' has been replaced, opening the new file.", this.filePath);
+            flushPendingEntry();
+            closeChannel();
+            return openChannel();
+        }
+
+        return false;
+    }
+
+    private boolean openChannel() throws IOException {
+        try {
+            this.channel = FileChannel.open(this.path, StandardOpenOption.READ);
+            this.fileKey = Files.readAttributes(this.path, BasicFileAttributes.class).fileKey();
+            this.openFailureReported = false;
+            resetReadState();
+            return true;
+        } catch (ClosedByInterruptException e) {
+            throw e;
+        } catch (IOException | SecurityException e) {
+            closeChannel();
+
+            if (!this.openFailureReported) {
+                logger.error("File '{}' not found or not readable.", this.filePath);
+                this.openFailureReported = true;
+            }
+
+            return false;
+        }
+    }
+
+    private boolean isReplaced() throws IOException {
+        if (this.fileKey == null) {
+            return false;
+        }
+
+        try {
+            return !Objects.equals(this.fileKey,
+                    Files.readAttributes(this.path, BasicFileAttributes.class).fileKey());
+        } catch (NoSuchFileException e) {
+            // rotation in progress, keep the current file until the new one is created
+            return false;
+        }
+    }
+
+    private void resetReadState() {
+        this.position = 0;
+        this.lineLength = 0;
+        this.pendingMessage = null;
+        this.pendingStacktrace.setLength(0);
+    }
+
+    private void closeChannel() {
+        if (this.channel != null) {
+            try {
+                this.channel.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close file '{}'", this.filePath, e);
+            }
+            this.channel = null;
+        }
+    }
+
+    private void processBytes(final ByteBuffer data) {
+        while (data.hasRemaining()) {
+            final byte b = data.get();
+
+            if (b == '\n') {
+                handleLine(decodeLine());
+                this.lineLength = 0;
+            } else {
+                appendToLine(b);
+            }
+        }
+    }
+
+    private void appendToLine(final byte b) {
+        if (this.lineLength == this.lineBytes.length) {
+            this.lineBytes = Arrays.copyOf(this.lineBytes, this.lineBytes.length * 2);
+        }
+        this.lineBytes[this.lineLength++] = b;
+    }
+
+    private String decodeLine() {
+        int length = this.lineLength;
+
+        if (length > 0 && this.lineBytes[length - 1] == '\r') {
+            length--;
+        }
+
+        return new String(this.lineBytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private void handleLine(final String line) {
+        if (this.pendingMessage != null && isStacktrace(line)) {
+            if (this.pendingStacktrace.length() > 0) {
+                this.pendingStacktrace.append('\n');
+            }
+            this.pendingStacktrace.append(line);
+        } else {
+            flushPendingEntry();
+            this.pendingMessage = line;
+        }
+    }
+
+    private boolean isStacktrace(final String line) {
+        /*
+         * stacktrace lines do not start with a timestamp
+         *
+         * in kura-audit log file the lines start with a '<'
+         */
+        return line.length() >= 4 && !line.substring(0, 4).matches("\\d{4}") && !line.startsWith("<");
+    }
+
+    private void flushPendingEntry() {
+        if (this.pendingMessage == null) {
+            return;
+        }
+
+        final String stacktrace = this.pendingStacktrace.toString().trim();
+        final LogEntry entry = new KuraLogLineParser(this.pendingMessage, this.filePath, stacktrace)
+                .createLogEntry();
+
+        this.pendingMessage = null;
+        this.pendingStacktrace.setLength(0);
+
+        this.consumer.accept(entry);
+    }
+
+    private WatchService createWatchService() {
+        final Path directory = this.path.getParent();
+
+        if (directory == null || !Files.isDirectory(directory)) {
+            return null;
+        }
+
+        try {
+            final WatchService watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+            return watchService;
+        } catch (IOException | UnsupportedOperationException e) {
+            logger.warn("Cannot watch directory '{}', falling back to polling.", directory, e);
+            return null;
+        }
+    }
+
+    private void waitForChanges(final WatchService watchService) throws InterruptedException {
+        if (watchService == null) {
+            Thread.sleep(MAX_WAIT_MILLIS);
+            return;
+        }
+
+        final WatchKey key = watchService.poll(MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+
+        if (key != null) {
+            key.pollEvents();
+            key.reset();
+        }
+    }
+}
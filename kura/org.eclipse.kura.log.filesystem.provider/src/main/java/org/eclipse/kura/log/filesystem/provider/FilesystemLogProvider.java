@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2021, 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2021, 2024 Eurotech and/or its affiliates and others
  *
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -12,15 +12,8 @@
  *******************************************************************************/
 package org.eclipse.kura.log.filesystem.provider;
 
-import java.io.EOFException;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.io.RandomAccessFile;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.kura.configuration.ConfigurableComponent;
 import org.eclipse.kura.log.LogEntry;
@@ -34,9 +27,17 @@ public class FilesystemLogProvider implements ConfigurableComponent, LogProvider
     private static final Logger logger = LoggerFactory.getLogger(FilesystemLogProvider.class);
     public static final String LOG_FILEPATH_PROP_KEY = "logFilePath";
 
-    private final List<LogListener> registeredListeners = new LinkedList<>();
+    private final Map<LogListener, LogListenerNotifier> registeredListeners = new ConcurrentHashMap<>();
+    private final int listenerQueueCapacity;
     private FileLogReader readerThread;
-    private String filePath;
+
+    public FilesystemLogProvider() {
+        this(LogListenerNotifier.DEFAULT_QUEUE_CAPACITY);
+    }
+
+    FilesystemLogProvider(final int listenerQueueCapacity) {
+        this.listenerQueueCapacity = listenerQueueCapacity;
+    }
 
     protected void activate(Map<String, Object> properties) {
         logger.info("Activating FilesystemLogProvider...");
@@ -49,6 +50,8 @@ public class FilesystemLogProvider implements ConfigurableComponent, LogProvider
         if (this.readerThread != null) {
             this.readerThread.interrupt();
         }
+        this.registeredListeners.values().forEach(LogListenerNotifier::shutdown);
+        this.registeredListeners.clear();
         logger.info("Deactivating FilesystemLogProvider... Done.");
     }
 
@@ -57,118 +60,34 @@ public class FilesystemLogProvider implements ConfigurableComponent, LogProvider
         if (this.readerThread != null) {
             this.readerThread.interrupt();
         }
-        this.filePath = (String) properties.get(LOG_FILEPATH_PROP_KEY);
-        this.readerThread = new FileLogReader(this.filePath);
+        final String filePath = (String) properties.get(LOG_FILEPATH_PROP_KEY);
+        this.readerThread = new FileLogReader(filePath, this::notifyListeners);
         this.readerThread.start();
         logger.info("Updated FilesystemLogProvider... Done.");
     }
 
     @Override
     public void registerLogListener(LogListener listener) {
-        this.registeredListeners.add(listener);
+        this.registeredListeners.computeIfAbsent(listener,
+                l -> new LogListenerNotifier(l, this.listenerQueueCapacity));
     }
 
     @Override
     public void unregisterLogListener(LogListener listener) {
-        this.registeredListeners.remove(listener);
-    }
-
-    class FileLogReader extends Thread {
-
-        private static final long SAMPLE_INTERVAL = 100;
-        private final File logFile;
-        private boolean follow = true;
-
-        public FileLogReader(String filePath) {
-            this.logFile = new File(filePath);
-            this.follow = true;
-        }
-
-        @Override
-        public void run() {
-            try (RandomAccessFile file = new RandomAccessFile(this.logFile, "r")) {
-                while (this.follow) {
-                    readLinesAndNotifyListeners(file);
-                    sleep(SAMPLE_INTERVAL);
-                }
-            } catch (FileNotFoundException fnf) {
-                logger.error("File '{}' not found.", this.logFile.getPath());
-            } catch (InterruptedException ie) {
-                // nothing to do
-            } catch (Exception e) {
-                logger.error("Unexpected exception in FilesystemLogProvider.", e);
-            } finally {
-                Thread.currentThread().interrupt();
-            }
-        }
-
-        private void readLinesAndNotifyListeners(RandomAccessFile file) throws IOException {
-            Optional<String> line = readUntilNewLine(file);
+        final LogListenerNotifier notifier = this.registeredListeners.remove(listener);
 
-            if (line.isPresent()) {
-                String stacktrace = readStacktrace(file);
-                notifyListeners(line.get(), stacktrace);
-            }
-        }
-
-        private Optional<String> readUntilNewLine(RandomAccessFile file) throws IOException {
-            StringBuilder resultLine = new StringBuilder();
-            long pointerToLastSuccessfulRead = file.getFilePointer();
-
-            if (pointerToLastSuccessfulRead < file.length()) {
-                char newChar = 0;
-
-                do {
-                    try {
-                        newChar = (char) file.readByte();
-                        resultLine.append(newChar);
-                        pointerToLastSuccessfulRead = file.getFilePointer();
-                    } catch (EOFException eof) {
-                        file.seek(pointerToLastSuccessfulRead);
-                    }
-                } while (newChar != '\n');
-
-                return Optional.of(resultLine.toString());
-            } else {
-                return Optional.empty();
-            }
-        }
-
-        private String readStacktrace(RandomAccessFile file) throws IOException {
-            StringBuilder stacktrace = new StringBuilder();
-            long lastReadPosition = file.getFilePointer();
-
-            Optional<String> maybeStacktrace = readUntilNewLine(file);
-
-            while (maybeStacktrace.isPresent() && isStacktrace(maybeStacktrace.get())) {
-                stacktrace.append(maybeStacktrace.get());
-                stacktrace.append("\n");
-                lastReadPosition = file.getFilePointer();
-                maybeStacktrace = readUntilNewLine(file);
-            }
-
-            file.seek(lastReadPosition);
-
-            return stacktrace.toString().trim();
+        if (notifier != null) {
+            notifier.shutdown();
         }
+    }
 
-        private boolean isStacktrace(String line) {
-            /*
-             * stacktrace lines do not start with a timestamp
-             * 
-             * in kura-audit log file the lines start with a '<'
-             */
-            return line.length() > 4 && !line.substring(0, 4).matches("\\d{4}") && !line.startsWith("<");
-        }
+    LogListenerNotifier getNotifier(LogListener listener) {
+        return this.registeredListeners.get(listener);
+    }
 
-        private synchronized void notifyListeners(String message, String stacktrace) {
-            if (message != null) {
-                for (LogListener listener : FilesystemLogProvider.this.registeredListeners) {
-                    LogEntry entry = new KuraLogLineParser(message, FilesystemLogProvider.this.filePath, stacktrace)
-                            .createLogEntry();
-                    listener.newLogEntry(entry);
-                }
-            }
+    private void notifyListeners(final LogEntry entry) {
+        for (final LogListenerNotifier notifier : this.registeredListeners.values()) {
+            notifier.notify(entry);
         }
     }
 
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.log.filesystem.provider;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.kura.log.LogEntry;
+import org.eclipse.kura.log.listener.LogListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Delivers log entries to a {@link LogListener} from a dedicated thread.
+ * <p>
+ * Entries are buffered in a bounded queue, if the listener is not able to keep up the entries that do not fit in the
+ * queue are dropped. This way a slow listener does not delay the file reader or the other listeners.
+ */
+class LogListenerNotifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogListenerNotifier.class);
+
+    static final int DEFAULT_QUEUE_CAPACITY = 10000;
+    private static final long DROPPED_REPORT_INTERVAL = 1000;
+
+    private final LogListener listener;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong droppedEntries = new AtomicLong();
+
+    LogListenerNotifier(final LogListener listener, final int queueCapacity) {
+        this.listener = listener;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    final Thread thread = new Thread(r, "FilesystemLogProvider-Notifier");
+                    thread.setDaemon(true);
+                    return thread;
+                }, (r, e) -> onEntryDropped(e));
+    }
+
+    void notify(final LogEntry entry) {
+        this.executor.execute(() -> deliver(entry));
+    }
+
+    long getDroppedEntries() {
+        return this.droppedEntries.get();
+    }
+
+    void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    private void deliver(final LogEntry entry) {
+        try {
+            this.listener.newLogEntry(entry);
+        } catch (Exception e) {
+            logger.warn("Failed to notify log listener", e);
+        }
+    }
+
+    private void onEntryDropped(final ThreadPoolExecutor e) {
+        if (e.isShutdown()) {
+            return;
+        }
+
+        final long dropped = this.droppedEntries.incrementAndGet();
+
+        if (dropped % DROPPED_REPORT_INTERVAL == 1) {
+            logger.warn("Log listener {} is too slow, {} log entries dropped so far", this.listener, dropped);
+        }
+    }
+}
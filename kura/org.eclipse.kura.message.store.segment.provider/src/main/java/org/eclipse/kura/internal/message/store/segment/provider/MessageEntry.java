@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.message.store.segment.provider;
+
+import java.nio.ByteBuffer;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Optional;
+
+import org.eclipse.kura.data.DataTransportToken;
+import org.eclipse.kura.message.store.StoredMessage;
+
+/**
+ * The in memory state of a stored message. The payload is not kept in memory, only its location inside the segment
+ * that contains the message.
+ */
+class MessageEntry {
+
+    /**
+     * The order used for selecting the next message to be published, the same used by the database based stores.
+     */
+    static final Comparator<MessageEntry> PUBLISH_ORDER = Comparator.comparingInt(MessageEntry::getPriority)
+            .thenComparingLong(MessageEntry::getCreatedOn).thenComparingLong(MessageEntry::getSequence);
+
+    private final int id;
+    private final long sequence;
+    private final String topic;
+    private final int qos;
+    private final boolean retain;
+    private final int priority;
+    private final long createdOn;
+
+    private final Segment segment;
+    private final int slot;
+    private final int payloadPosition;
+    private final int payloadLength;
+
+    private Optional<Long> publishedOn = Optional.empty();
+    private Optional<Long> confirmedOn = Optional.empty();
+    private Optional<Long> droppedOn = Optional.empty();
+    private Optional<DataTransportToken> dataTransportToken = Optional.empty();
+
+    MessageEntry(final Records.StoreRecord storeRecord, final long sequence, final Segment segment, final int slot) {
+        this.id = storeRecord.getId();
+        this.sequence = sequence;
+        this.topic = storeRecord.getTopic();
+        this.qos = storeRecord.getQos();
+        this.retain = storeRecord.isRetain();
+        this.priority = storeRecord.getPriority();
+        this.createdOn = storeRecord.getCreatedOn();
+        this.segment = segment;
+        this.slot = slot;
+        this.payloadPosition = storeRecord.getPayloadPosition();
+        this.payloadLength = storeRecord.getPayloadLength();
+    }
+
+    int getId() {
+        return this.id;
+    }
+
+    long getSequence() {
+        return this.sequence;
+    }
+
+    String getTopic() {
+        return this.topic;
+    }
+
+    int getQos() {
+        return this.qos;
+    }
+
+    boolean isRetain() {
+        return this.retain;
+    }
+
+    int getPriority() {
+        return this.priority;
+    }
+
+    long getCreatedOn() {
+        return this.createdOn;
+    }
+
+    Segment getSegment() {
+        return this.segment;
+    }
+
+    int getSlot() {
+        return this.slot;
+    }
+
+    Optional<Long> getPublishedOn() {
+        return this.publishedOn;
+    }
+
+    Optional<Long> getConfirmedOn() {
+        return this.confirmedOn;
+    }
+
+    Optional<Long> getDroppedOn() {
+        return this.droppedOn;
+    }
+
+    Optional<DataTransportToken> getDataTransportToken() {
+        return this.dataTransportToken;
+    }
+
+    void setPublishedOn(final Optional<Long> publishedOn) {
+        this.publishedOn = publishedOn;
+    }
+
+    void setConfirmedOn(final long confirmedOn) {
+        this.confirmedOn = Optional.of(confirmedOn);
+    }
+
+    void setDroppedOn(final long droppedOn) {
+        this.droppedOn = Optional.of(droppedOn);
+    }
+
+    void setDataTransportToken(final DataTransportToken dataTransportToken) {
+        this.dataTransportToken = Optional.of(dataTransportToken);
+    }
+
+    boolean isPublished() {
+        return this.publishedOn.isPresent();
+    }
+
+    boolean isInFlight() {
+        return this.publishedOn.isPresent() && this.qos > 0 && !this.confirmedOn.isPresent();
+    }
+
+    boolean isStale(final long limit) {
+        return isBefore(this.droppedOn, limit) || isBefore(this.confirmedOn, limit)
+                || this.qos == 0 && isBefore(this.publishedOn, limit);
+    }
+
+    byte[] readPayload() {
+        if (this.payloadLength < 0) {
+            return null;
+        }
+
+        final byte[] result = new byte[this.payloadLength];
+        this.segment.read(this.payloadPosition, this.payloadLength).get(result);
+        return result;
+    }
+
+    ByteBuffer payloadView() {
+        if (this.payloadLength < 0) {
+            return null;
+        }
+
+        return this.segment.read(this.payloadPosition, this.payloadLength);
+    }
+
+    StoredMessage toStoredMessage(final boolean includePayload) {
+        final StoredMessage.Builder builder = new StoredMessage.Builder(this.id).withTopic(this.topic)
+                .withQos(this.qos).withRetain(this.retain).withPriority(this.priority)
+                .withCreatedOn(new Date(this.createdOn)).withPublishedOn(toDate(this.publishedOn))
+                .withConfirmedOn(toDate(this.confirmedOn)).withDroppedOn(toDate(this.droppedOn))
+                .withDataTransportToken(this.dataTransportToken.orElse(null));
+
+        if (includePayload) {
+            builder.withPayload(readPayload());
+        }
+
+        return builder.build();
+    }
+
+    private static boolean isBefore(final Optional<Long> timestamp, final long limit) {
+        return timestamp.isPresent() && timestamp.get() <= limit;
+    }
+
+    private static Date toDate(final Optional<Long> timestamp) {
+        return timestamp.map(Date::new).orElse(null);
+    }
+}
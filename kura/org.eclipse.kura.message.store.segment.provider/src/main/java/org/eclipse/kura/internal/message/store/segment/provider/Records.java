@@ -0,0 +1,297 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.message.store.segment.provider;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+
+import org.eclipse.kura.data.DataTransportToken;
+
+/**
+ * Encodes and decodes the records written in the segments.
+ * <p>
+ * A store record contains a new message. The other record types describe state changes of messages stored
+ * previously, they always refer to messages contained in the same segment or in older ones. Records are applied in
+ * the order they have been written when the store is opened.
+ */
+final class Records {
+
+    static final byte STORE = 1;
+    static final byte PUBLISHED = 2;
+    static final byte CONFIRMED = 3;
+    static final byte DROPPED = 4;
+    static final byte UNPUBLISHED = 5;
+    static final byte DELETED = 6;
+
+    private static final byte FLAG_RETAIN = 0x01;
+    private static final byte FLAG_RELOCATED = 0x02;
+
+    private static final int NULL_LENGTH = -1;
+
+    private Records() {
+    }
+
+    static ByteBuffer encodeStore(final int id, final long createdOn, final String topic, final int qos,
+            final boolean retain, final int priority, final ByteBuffer payload, final boolean relocated) {
+        final byte[] topicBytes = topic.getBytes(StandardCharsets.UTF_8);
+        final int payloadLength = payload != null ? payload.remaining() : 0;
+
+        final ByteBuffer result = ByteBuffer.allocate(1 + 1 + 4 + 8 + 1 + 4 + 4 + topicBytes.length + 4 + payloadLength);
+
+        byte flags = 0;
+
+        if (retain) {
+            flags |= FLAG_RETAIN;
+        }
+        if (relocated) {
+            flags |= FLAG_RELOCATED;
+        }
+
+        result.put(STORE).put(flags).putInt(id).putLong(createdOn).put((byte) qos).putInt(priority);
+        result.putInt(topicBytes.length).put(topicBytes);
+
+        if (payload != null) {
+            result.putInt(payloadLength).put(payload.duplicate());
+        } else {
+            result.putInt(NULL_LENGTH);
+        }
+
+        result.flip();
+        return result;
+    }
+
+    static ByteBuffer encodePublished(final long timestamp,
+            final Map<Integer, Optional<DataTransportToken>> messages) {
+        final List<byte[]> sessionIds = new ArrayList<>(messages.size());
+        int length = 1 + 8 + 4;
+
+        for (final Optional<DataTransportToken> token : messages.values()) {
+            length += 4 + 1;
+
+            if (token.isPresent()) {
+                final String sessionId = token.get().getSessionId();
+                final byte[] sessionIdBytes = sessionId != null ? sessionId.getBytes(StandardCharsets.UTF_8) : null;
+
+                sessionIds.add(sessionIdBytes);
+                length += 4 + 4 + (sessionIdBytes != null ? sessionIdBytes.length : 0);
+            }
+        }
+
+        final ByteBuffer result = ByteBuffer.allocate(length);
+        result.put(PUBLISHED).putLong(timestamp).putInt(messages.size());
+
+        int sessionIdIndex = 0;
+
+        for (final Entry<Integer, Optional<DataTransportToken>> entry : messages.entrySet()) {
+            result.putInt(entry.getKey());
+
+            final Optional<DataTransportToken> token = entry.getValue();
+
+            if (token.isPresent()) {
+                final byte[] sessionId = sessionIds.get(sessionIdIndex++);
+
+                result.put((byte) 1).putInt(token.get().getMessageId());
+
+                if (sessionId != null) {
+                    result.putInt(sessionId.length).put(sessionId);
+                } else {
+                    result.putInt(NULL_LENGTH);
+                }
+            } else {
+                result.put((byte) 0);
+            }
+        }
+
+        result.flip();
+        return result;
+    }
+
+    static ByteBuffer encodeTimestamped(final byte type, final long timestamp, final Collection<Integer> ids) {
+        final ByteBuffer result = ByteBuffer.allocate(1 + 8 + 4 + 4 * ids.size());
+        result.put(type).putLong(timestamp).putInt(ids.size());
+        ids.forEach(result::putInt);
+        result.flip();
+        return result;
+    }
+
+    static ByteBuffer encodeIds(final byte type, final Collection<Integer> ids) {
+        final ByteBuffer result = ByteBuffer.allocate(1 + 4 + 4 * ids.size());
+        result.put(type).putInt(ids.size());
+        ids.forEach(result::putInt);
+        result.flip();
+        return result;
+    }
+
+    static void decode(final ByteBuffer body, final int bodyPosition, final Handler handler) throws IOException {
+        final byte type = body.get();
+
+        switch (type) {
+        case STORE:
+            handler.onStore(decodeStore(body, bodyPosition));
+            break;
+        case PUBLISHED:
+            decodePublished(body, handler);
+            break;
+        case CONFIRMED:
+            handler.onConfirmed(body.getLong(), decodeIds(body));
+            break;
+        case DROPPED:
+            handler.onDropped(body.getLong(), decodeIds(body));
+            break;
+        case UNPUBLISHED:
+            handler.onUnpublished(decodeIds(body));
+            break;
+        case DELETED:
+            handler.onDeleted(decodeIds(body));
+            break;
+        default:
+            throw new IOException("Unknown record type " + type);
+        }
+    }
+
+    private static StoreRecord decodeStore(final ByteBuffer body, final int bodyPosition) {
+        final byte flags = body.get();
+        final int id = body.getInt();
+        final long createdOn = body.getLong();
+        final int qos = body.get();
+        final int priority = body.getInt();
+        final String topic = new String(readBytes(body, body.getInt()), StandardCharsets.UTF_8);
+        final int payloadLength = body.getInt();
+
+        return new StoreRecord(id, createdOn, topic, qos, (flags & FLAG_RETAIN) != 0, priority,
+                bodyPosition + body.position(), payloadLength, (flags & FLAG_RELOCATED) != 0);
+    }
+
+    private static void decodePublished(final ByteBuffer body, final Handler handler) {
+        final long timestamp = body.getLong();
+        final int count = body.getInt();
+
+        for (int i = 0; i < count; i++) {
+            final int id = body.getInt();
+            final boolean hasToken = body.get() != 0;
+
+            if (hasToken) {
+                final int messageId = body.getInt();
+                final int sessionIdLength = body.getInt();
+                final String sessionId = sessionIdLength >= 0
+                        ? new String(readBytes(body, sessionIdLength), StandardCharsets.UTF_8)
+                        : null;
+
+                handler.onPublished(id, timestamp, Optional.of(new DataTransportToken(messageId, sessionId)));
+            } else {
+                handler.onPublished(id, timestamp, Optional.empty());
+            }
+        }
+    }
+
+    private static List<Integer> decodeIds(final ByteBuffer body) {
+        final int count = body.getInt();
+        final List<Integer> result = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            result.add(body.getInt());
+        }
+
+        return result;
+    }
+
+    private static byte[] readBytes(final ByteBuffer body, final int length) {
+        final byte[] result = new byte[length];
+        body.get(result);
+        return result;
+    }
+
+    interface Handler {
+
+        public void onStore(StoreRecord storeRecord);
+
+        public void onPublished(int id, long timestamp, Optional<DataTransportToken> token);
+
+        public void onConfirmed(long timestamp, List<Integer> ids);
+
+        public void onDropped(long timestamp, List<Integer> ids);
+
+        public void onUnpublished(List<Integer> ids);
+
+        public void onDeleted(List<Integer> ids);
+    }
+
+    static class StoreRecord {
+
+        private final int id;
+        private final long createdOn;
+        private final String topic;
+        private final int qos;
+        private final boolean retain;
+        private final int priority;
+        private final int payloadPosition;
+        private final int payloadLength;
+        private final boolean relocated;
+
+        StoreRecord(final int id, final long createdOn, final String topic, final int qos, final boolean retain,
+                final int priority, final int payloadPosition, final int payloadLength, final boolean relocated) {
+            this.id = id;
+            this.createdOn = createdOn;
+            this.topic = topic;
+            this.qos = qos;
+            this.retain = retain;
+            this.priority = priority;
+            this.payloadPosition = payloadPosition;
+            this.payloadLength = payloadLength;
+            this.relocated = relocated;
+        }
+
+        int getId() {
+            return this.id;
+        }
+
+        long getCreatedOn() {
+            return this.createdOn;
+        }
+
+        String getTopic() {
+            return this.topic;
+        }
+
+        int getQos() {
+            return this.qos;
+        }
+
+        boolean isRetain() {
+            return this.retain;
+        }
+
+        int getPriority() {
+            return this.priority;
+        }
+
+        int getPayloadPosition() {
+            return this.payloadPosition;
+        }
+
+        int getPayloadLength() {
+            return this.payloadLength;
+        }
+
+        boolean isRelocated() {
+            return this.relocated;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.message.store.segment.provider;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A preallocated, memory mapped file containing a sequence of records.
+ * <p>
+ * Each record is stored as {@code [int length][int crc32][body]}. The length is written last, so a record whose write
+ * was interrupted is either not visible at all or detected by the CRC check. The area after the last record is filled
+ * with zeros, a zero length marks the end of the segment content.
+ * <p>
+ * Every message stored in the segment is assigned a slot, the {@link #isEmpty()} method reports whether all the
+ * messages stored in this segment have been deleted or moved to another segment.
+ */
+class Segment implements Closeable {
+
+    static final String FILE_EXTENSION = ".seg";
+    static final int RECORD_HEADER_SIZE = 8;
+
+    private static final Logger logger = LoggerFactory.getLogger(Segment.class);
+
+    private final long index;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final BitSet liveSlots = new BitSet();
+
+    private int writePosition;
+    private int slotCount;
+
+    private Segment(final long index, final Path path, final FileChannel channel, final MappedByteBuffer buffer) {
+        this.index = index;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static Segment create(final Path directory, final long index, final int size) throws IOException {
+        final Path path = directory.resolve(fileName(index));
+
+        try (final RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(size);
+        }
+
+        return open(path, index);
+    }
+
+    static Segment open(final Path path, final long index) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+            final MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, channel.size());
+            return new Segment(index, path, channel, buffer);
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    static String fileName(final long index) {
+        return String.format("%020d", index) + FILE_EXTENSION;
+    }
+
+    static long parseIndex(final Path path) {
+        final String fileName = path.getFileName().toString();
+
+        return Long.parseLong(fileName.substring(0, fileName.length() - FILE_EXTENSION.length()));
+    }
+
+    long getIndex() {
+        return this.index;
+    }
+
+    int getWritePosition() {
+        return this.writePosition;
+    }
+
+    boolean hasRoomFor(final int bodyLength) {
+        return (long) this.writePosition + RECORD_HEADER_SIZE + bodyLength <= this.buffer.capacity();
+    }
+
+    /**
+     * Appends a record.
+     *
+     * @return the position of the record body inside the segment
+     */
+    int append(final ByteBuffer body) {
+        final int recordPosition = this.writePosition;
+        final int bodyPosition = recordPosition + RECORD_HEADER_SIZE;
+        final int length = body.remaining();
+
+        final ByteBuffer target = this.buffer.duplicate();
+        target.position(bodyPosition);
+        target.put(body.duplicate());
+
+        this.buffer.putInt(recordPosition + 4, crc(this.buffer, bodyPosition, length));
+        this.buffer.putInt(recordPosition, length);
+
+        this.writePosition = bodyPosition + length;
+
+        return bodyPosition;
+    }
+
+    /**
+     * Returns a read only view of the segment content starting at the given position.
+     */
+    ByteBuffer read(final int position, final int length) {
+        final ByteBuffer result = this.buffer.asReadOnlyBuffer();
+        result.position(position);
+        result.limit(position + length);
+        return result.slice();
+    }
+
+    /**
+     * Reads the records contained in this segment and positions the write position after the last valid one. If an
+     * incomplete record is found, the remaining part of the segment is cleared.
+     *
+     * @return {@code true} if an incomplete or corrupted record has been found
+     */
+    boolean recover(final RecordVisitor visitor) throws IOException {
+        int position = 0;
+        final int capacity = this.buffer.capacity();
+
+        while (capacity - position >= RECORD_HEADER_SIZE) {
+            final int length = this.buffer.getInt(position);
+
+            if (length == 0) {
+                break;
+            }
+
+            final int bodyPosition = position + RECORD_HEADER_SIZE;
+
+            if (length < 0 || length > capacity - bodyPosition
+                    || this.buffer.getInt(position + 4) != crc(this.buffer, bodyPosition, length)) {
+                logger.warn("Found incomplete record at position {} of segment {}, discarding the segment tail",
+                        position, this.path);
+                this.writePosition = position;
+                clearTail();
+                return true;
+            }
+
+            visitor.visit(this, bodyPosition, read(bodyPosition, length));
+
+            position = bodyPosition + length;
+        }
+
+        this.writePosition = position;
+
+        return false;
+    }
+
+    int allocateSlot() {
+        final int slot = this.slotCount++;
+        this.liveSlots.set(slot);
+        return slot;
+    }
+
+    void releaseSlot(final int slot) {
+        this.liveSlots.clear(slot);
+    }
+
+    int getLiveCount() {
+        return this.liveSlots.cardinality();
+    }
+
+    int getSlotCount() {
+        return this.slotCount;
+    }
+
+    boolean isEmpty() {
+        return this.liveSlots.isEmpty();
+    }
+
+    void force() {
+        this.buffer.force();
+    }
+
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(this.path);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return this.path.toString();
+    }
+
+    private void clearTail() {
+        for (int i = this.writePosition; i < this.buffer.capacity(); i++) {
+            this.buffer.put(i, (byte) 0);
+        }
+        this.buffer.force();
+    }
+
+    private static int crc(final ByteBuffer buffer, final int position, final int length) {
+        final ByteBuffer view = buffer.duplicate();
+        view.position(position);
+        view.limit(position + length);
+
+        final CRC32 crc = new CRC32();
+        crc.update(view);
+
+        return (int) crc.getValue();
+    }
+
+    @FunctionalInterface
+    interface RecordVisitor {
+
+        public void visit(final Segment segment, final int position, final ByteBuffer body) throws IOException;
+    }
+}
@@ -0,0 +1,485 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.message.store.segment.provider;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.kura.KuraStoreException;
+import org.eclipse.kura.data.DataTransportToken;
+import org.eclipse.kura.message.store.StoredMessage;
+import org.eclipse.kura.message.store.provider.MessageStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link MessageStore} implemented as an append only log of memory mapped segments.
+ * <p>
+ * Messages and their state changes are appended as records to the last segment. The state of all the messages is kept
+ * in memory, together with a priority ordered set of the messages waiting to be published, and is rebuilt by
+ * replaying the records when the store is opened. Deleted messages are recorded with a tombstone, a segment file is
+ * removed when all the messages it contains have been deleted and it is the oldest one. If the oldest segment contains
+ * only a few messages that are still alive, they are copied to the last segment so that the old one can be removed.
+ */
+public class SegmentMessageStoreImpl implements MessageStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentMessageStoreImpl.class);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean forceWrites;
+
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final Map<Integer, MessageEntry> entries = new HashMap<>();
+    private final NavigableSet<MessageEntry> unpublished = new TreeSet<>(MessageEntry.PUBLISH_ORDER);
+    private final RecordApplier recordApplier = new RecordApplier();
+
+    private long nextSequence;
+    private int lastId;
+    private boolean closed;
+
+    public SegmentMessageStoreImpl(final Path directory, final int segmentSize, final boolean forceWrites)
+            throws KuraStoreException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.forceWrites = forceWrites;
+
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (final Exception e) {
+            closeSegments();
+            throw new KuraStoreException(e, "Cannot open message store in " + directory);
+        }
+    }
+
+    @Override
+    public synchronized int store(String topic, byte[] payload, int qos, boolean retain, int priority)
+            throws KuraStoreException {
+        ensureOpen();
+
+        if (topic == null || topic.trim().length() == 0) {
+            throw new KuraStoreException(null, "topic must be not null and not empty");
+        }
+
+        final int id = allocateId();
+
+        append(Records.encodeStore(id, System.currentTimeMillis(), topic, qos, retain, priority,
+                payload != null ? ByteBuffer.wrap(payload) : null, false), "Cannot store message");
+
+        return id;
+    }
+
+    @Override
+    public synchronized void markAsPublished(int msgId) throws KuraStoreException {
+        markAsPublished(Collections.singletonMap(msgId, Optional.empty()));
+    }
+
+    @Override
+    public synchronized void markAsPublished(int msgId, DataTransportToken dataTransportToken)
+            throws KuraStoreException {
+        markAsPublished(Collections.singletonMap(msgId, Optional.of(dataTransportToken)));
+    }
+
+    @Override
+    public synchronized void markAsPublished(Map<Integer, Optional<DataTransportToken>> messages)
+            throws KuraStoreException {
+        ensureOpen();
+
+        final Map<Integer, Optional<DataTransportToken>> existing = new LinkedHashMap<>();
+
+        for (final Map.Entry<Integer, Optional<DataTransportToken>> message : messages.entrySet()) {
+            if (this.entries.containsKey(message.getKey())) {
+                existing.put(message.getKey(), message.getValue());
+            }
+        }
+
+        if (!existing.isEmpty()) {
+            append(Records.encodePublished(System.currentTimeMillis(), existing), "Cannot mark messages as published");
+        }
+    }
+
+    @Override
+    public synchronized void markAsConfirmed(int msgId) throws KuraStoreException {
+        ensureOpen();
+
+        if (this.entries.containsKey(msgId)) {
+            append(Records.encodeTimestamped(Records.CONFIRMED, System.currentTimeMillis(),
+                    Collections.singletonList(msgId)), "Cannot mark message as confirmed");
+        }
+    }
+
+    @Override
+    public synchronized Optional<StoredMessage> getNextMessage() throws KuraStoreException {
+        ensureOpen();
+
+        if (this.unpublished.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(this.unpublished.first().toStoredMessage(true));
+    }
+
+    @Override
+    public synchronized List<StoredMessage> getNextMessages(int maxCount) throws KuraStoreException {
+        ensureOpen();
+
+        return this.unpublished.stream().limit(Math.max(0, maxCount)).map(e -> e.toStoredMessage(true))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public synchronized Optional<StoredMessage> get(int msgId) throws KuraStoreException {
+        ensureOpen();
+
+        return Optional.ofNullable(this.entries.get(msgId)).map(e -> e.toStoredMessage(true));
+    }
+
+    @Override
+    public synchronized int getMessageCount() throws KuraStoreException {
+        ensureOpen();
+
+        return this.entries.size();
+    }
+
+    @Override
+    public synchronized List<StoredMessage> getUnpublishedMessages() throws KuraStoreException {
+        ensureOpen();
+
+        return this.unpublished.stream().map(e -> e.toStoredMessage(false)).collect(Collectors.toList());
+    }
+
+    @Override
+    public synchronized List<StoredMessage> getInFlightMessages() throws KuraStoreException {
+        ensureOpen();
+
+        return listMessages(e -> e.isInFlight() && !e.getDroppedOn().isPresent());
+    }
+
+    @Override
+    public synchronized List<StoredMessage> getDroppedMessages() throws KuraStoreException {
+        ensureOpen();
+
+        return listMessages(e -> e.getDroppedOn().isPresent());
+    }
+
+    @Override
+    public synchronized void unpublishAllInFlighMessages() throws KuraStoreException {
+        ensureOpen();
+
+        final List<Integer> ids = findIds(MessageEntry::isInFlight);
+
+        if (!ids.isEmpty()) {
+            append(Records.encodeIds(Records.UNPUBLISHED, ids), "Cannot unpublish in-flight messages");
+        }
+    }
+
+    @Override
+    public synchronized void dropAllInFlightMessages() throws KuraStoreException {
+        ensureOpen();
+
+        final List<Integer> ids = findIds(MessageEntry::isInFlight);
+
+        if (!ids.isEmpty()) {
+            append(Records.encodeTimestamped(Records.DROPPED, System.currentTimeMillis(), ids),
+                    "Cannot drop in-flight messages");
+        }
+    }
+
+    @Override
+    public synchronized void deleteStaleMessages(int purgeAgeSeconds) throws KuraStoreException {
+        ensureOpen();
+
+        final long limit = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(purgeAgeSeconds);
+
+        final List<Integer> ids = findIds(e -> e.isStale(limit));
+
+        if (!ids.isEmpty()) {
+            append(Records.encodeIds(Records.DELETED, ids), "Cannot delete stale messages");
+        }
+
+        try {
+            reclaimSegments();
+        } catch (final IOException e) {
+            throw new KuraStoreException(e, "Cannot delete message store segments");
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (this.closed) {
+            return;
+        }
+
+        this.closed = true;
+
+        if (!this.segments.isEmpty()) {
+            this.segments.getLast().force();
+        }
+
+        closeSegments();
+    }
+
+    synchronized int getSegmentCount() {
+        return this.segments.size();
+    }
+
+    private void recover() throws IOException {
+        final List<Path> paths;
+
+        try (final Stream<Path> files = Files.list(this.directory)) {
+            paths = files.filter(p -> p.getFileName().toString().endsWith(Segment.FILE_EXTENSION))
+                    .sorted((p1, p2) -> Long.compare(Segment.parseIndex(p1), Segment.parseIndex(p2)))
+                    .collect(Collectors.toList());
+        }
+
+        for (final Path path : paths) {
+            final Segment segment = Segment.open(path, Segment.parseIndex(path));
+            this.segments.addLast(segment);
+
+            segment.recover((s, position, body) -> Records.decode(body, position, this.recordApplier.forSegment(s)));
+        }
+
+        if (this.segments.isEmpty()) {
+            this.segments.add(Segment.create(this.directory, 0, this.segmentSize));
+        }
+
+        for (final MessageEntry entry : this.entries.values()) {
+            this.lastId = Math.max(this.lastId, entry.getId());
+        }
+
+        logger.info("Opened message store in {}, segments: {}, messages: {}", this.directory, this.segments.size(),
+                this.entries.size());
+    }
+
+    private void append(final ByteBuffer body, final String errorMessage) throws KuraStoreException {
+        try {
+            Segment segment = this.segments.getLast();
+
+            if (!segment.hasRoomFor(body.remaining())) {
+                segment.force();
+                segment = Segment.create(this.directory, segment.getIndex() + 1,
+                        Math.max(this.segmentSize, Segment.RECORD_HEADER_SIZE + body.remaining()));
+                this.segments.addLast(segment);
+            }
+
+            final int position = segment.append(body);
+
+            if (this.forceWrites) {
+                segment.force();
+            }
+
+            Records.decode(segment.read(position, body.remaining()), position,
+                    this.recordApplier.forSegment(segment));
+        } catch (final IOException e) {
+            throw new KuraStoreException(e, errorMessage);
+        }
+    }
+
+    private void reclaimSegments() throws IOException, KuraStoreException {
+
+        while (this.segments.size() > 1) {
+            final Iterator<Segment> iterator = this.segments.iterator();
+            final Segment head = iterator.next();
+
+            if (!head.isEmpty()) {
+                // moving the messages is worth it if the head is mostly empty or if it is preventing the removal of
+                // the segments that follow it
+                if (head.getLiveCount() * 2 > head.getSlotCount() && !iterator.next().isEmpty()) {
+                    return;
+                }
+
+                relocate(head);
+            }
+
+            this.segments.removeFirst();
+            head.delete();
+            logger.debug("Deleted segment {}", head);
+        }
+    }
+
+    private void relocate(final Segment segment) throws KuraStoreException {
+        final List<MessageEntry> live = this.entries.values().stream().filter(e -> e.getSegment() == segment)
+                .sorted((e1, e2) -> Long.compare(e1.getSequence(), e2.getSequence())).collect(Collectors.toList());
+
+        logger.debug("Moving {} messages from segment {}", live.size(), segment);
+
+        for (final MessageEntry entry : live) {
+            final Optional<Long> publishedOn = entry.getPublishedOn();
+            final Optional<DataTransportToken> token = entry.getDataTransportToken();
+            final List<Integer> id = Collections.singletonList(entry.getId());
+
+            append(Records.encodeStore(entry.getId(), entry.getCreatedOn(), entry.getTopic(), entry.getQos(),
+                    entry.isRetain(), entry.getPriority(), entry.payloadView(), true), "Cannot relocate message");
+
+            if (publishedOn.isPresent() || token.isPresent()) {
+                append(Records.encodePublished(publishedOn.orElse(entry.getCreatedOn()),
+                        Collections.singletonMap(entry.getId(), token)), "Cannot relocate message");
+            }
+            if (!publishedOn.isPresent() && token.isPresent()) {
+                append(Records.encodeIds(Records.UNPUBLISHED, id), "Cannot relocate message");
+            }
+            if (entry.getConfirmedOn().isPresent()) {
+                append(Records.encodeTimestamped(Records.CONFIRMED, entry.getConfirmedOn().get(), id),
+                        "Cannot relocate message");
+            }
+            if (entry.getDroppedOn().isPresent()) {
+                append(Records.encodeTimestamped(Records.DROPPED, entry.getDroppedOn().get(), id),
+                        "Cannot relocate message");
+            }
+        }
+    }
+
+    private int allocateId() throws KuraStoreException {
+        if (this.entries.size() >= Integer.MAX_VALUE - 1) {
+            throw new KuraStoreException("Table size is greater or equal than integer max value");
+        }
+
+        int id = this.lastId;
+
+        do {
+            id = id == Integer.MAX_VALUE ? 1 : id + 1;
+        } while (this.entries.containsKey(id));
+
+        return id;
+    }
+
+    private List<StoredMessage> listMessages(final Predicate<MessageEntry> filter) {
+        return this.entries.values().stream().filter(filter).sorted(MessageEntry.PUBLISH_ORDER)
+                .map(e -> e.toStoredMessage(false)).collect(Collectors.toList());
+    }
+
+    private List<Integer> findIds(final Predicate<MessageEntry> filter) {
+        return this.entries.values().stream().filter(filter).map(MessageEntry::getId).collect(Collectors.toList());
+    }
+
+    private void ensureOpen() throws KuraStoreException {
+        if (this.closed) {
+            throw new KuraStoreException("Message store is closed");
+        }
+    }
+
+    private void closeSegments() {
+        final Iterator<Segment> iterator = this.segments.iterator();
+
+        while (iterator.hasNext()) {
+            final Segment segment = iterator.next();
+
+            try {
+                segment.close();
+            } catch (final IOException e) {
+                logger.warn("Failed to close segment {}", segment, e);
+            }
+        }
+
+        this.segments.clear();
+        this.entries.clear();
+        this.unpublished.clear();
+    }
+
+    private class RecordApplier implements Records.Handler {
+
+        private Segment segment;
+
+        RecordApplier forSegment(final Segment segment) {
+            this.segment = segment;
+            return this;
+        }
+
+        @Override
+        public void onStore(final Records.StoreRecord storeRecord) {
+            remove(storeRecord.getId());
+
+            final MessageEntry entry = new MessageEntry(storeRecord, nextSequence++, this.segment,
+                    this.segment.allocateSlot());
+
+            SegmentMessageStoreImpl.this.entries.put(entry.getId(), entry);
+            SegmentMessageStoreImpl.this.unpublished.add(entry);
+
+            if (!storeRecord.isRelocated()) {
+                SegmentMessageStoreImpl.this.lastId = storeRecord.getId();
+            }
+        }
+
+        @Override
+        public void onPublished(final int id, final long timestamp, final Optional<DataTransportToken> token) {
+            final MessageEntry entry = SegmentMessageStoreImpl.this.entries.get(id);
+
+            if (entry != null) {
+                SegmentMessageStoreImpl.this.unpublished.remove(entry);
+                entry.setPublishedOn(Optional.of(timestamp));
+                token.ifPresent(entry::setDataTransportToken);
+            }
+        }
+
+        @Override
+        public void onConfirmed(final long timestamp, final List<Integer> ids) {
+            forEachEntry(ids, e -> e.setConfirmedOn(timestamp));
+        }
+
+        @Override
+        public void onDropped(final long timestamp, final List<Integer> ids) {
+            forEachEntry(ids, e -> e.setDroppedOn(timestamp));
+        }
+
+        @Override
+        public void onUnpublished(final List<Integer> ids) {
+            forEachEntry(ids, e -> {
+                e.setPublishedOn(Optional.empty());
+                SegmentMessageStoreImpl.this.unpublished.add(e);
+            });
+        }
+
+        @Override
+        public void onDeleted(final List<Integer> ids) {
+            ids.forEach(this::remove);
+        }
+
+        private void remove(final int id) {
+            final MessageEntry entry = SegmentMessageStoreImpl.this.entries.remove(id);
+
+            if (entry != null) {
+                SegmentMessageStoreImpl.this.unpublished.remove(entry);
+                entry.getSegment().releaseSlot(entry.getSlot());
+            }
+        }
+
+        private void forEachEntry(final List<Integer> ids, final Consumer<MessageEntry> action) {
+            for (final int id : ids) {
+                final MessageEntry entry = SegmentMessageStoreImpl.this.entries.get(id);
+
+                if (entry != null) {
+                    action.accept(entry);
+                }
+            }
+        }
+    }
+}
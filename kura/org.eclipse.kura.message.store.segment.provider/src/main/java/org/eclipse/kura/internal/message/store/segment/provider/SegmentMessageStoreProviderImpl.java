@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.message.store.segment.provider;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.eclipse.kura.KuraStoreException;
+import org.eclipse.kura.configuration.ConfigurableComponent;
+import org.eclipse.kura.connection.listener.ConnectionListener;
+import org.eclipse.kura.message.store.provider.MessageStore;
+import org.eclipse.kura.message.store.provider.MessageStoreProvider;
+import org.eclipse.kura.util.store.listener.ConnectionListenerManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class SegmentMessageStoreProviderImpl implements MessageStoreProvider, ConfigurableComponent {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentMessageStoreProviderImpl.class);
+
+    private final ConnectionListenerManager listenerManager = new ConnectionListenerManager();
+    private final Map<String, SegmentMessageStoreImpl> openStores = new HashMap<>();
+
+    private Optional<SegmentMessageStoreProviderOptions> options = Optional.empty();
+
+    public void activate(final Map<String, Object> properties) {
+        logger.info("activating...");
+
+        updated(properties);
+
+        logger.info("activating...done");
+    }
+
+    public synchronized void updated(final Map<String, Object> properties) {
+        logger.info("updating...");
+
+        final SegmentMessageStoreProviderOptions newOptions = new SegmentMessageStoreProviderOptions(properties);
+
+        if (!this.options.equals(Optional.of(newOptions))) {
+            shutdown();
+            this.options = Optional.of(newOptions);
+        }
+
+        logger.info("updating...done");
+    }
+
+    public synchronized void deactivate() {
+        logger.info("deactivating...");
+
+        shutdown();
+        this.options = Optional.empty();
+        this.listenerManager.shutdown();
+
+        logger.info("deactivating...done");
+    }
+
+    @Override
+    public synchronized MessageStore openMessageStore(final String name) throws KuraStoreException {
+        if (name == null || name.trim().isEmpty()) {
+            throw new KuraStoreException("Message store name must be not null and not empty");
+        }
+
+        final SegmentMessageStoreProviderOptions currentOptions = this.options
+                .orElseThrow(() -> new KuraStoreException("Message store provider is not active"));
+
+        final SegmentMessageStoreImpl previous = this.openStores.remove(name);
+
+        if (previous != null) {
+            previous.close();
+        }
+
+        final SegmentMessageStoreImpl store = new SegmentMessageStoreImpl(currentOptions.getStoreDirectory(name),
+                currentOptions.getSegmentSizeBytes(), currentOptions.isForceWrites());
+
+        this.openStores.put(name, store);
+
+        return store;
+    }
+
+    @Override
+    public void addListener(final ConnectionListener listener) {
+        this.listenerManager.add(listener);
+    }
+
+    @Override
+    public void removeListener(final ConnectionListener listener) {
+        this.listenerManager.remove(listener);
+    }
+
+    private void shutdown() {
+        if (this.openStores.isEmpty()) {
+            return;
+        }
+
+        this.openStores.values().forEach(SegmentMessageStoreImpl::close);
+        this.openStores.clear();
+        this.listenerManager.dispatchDisconnected();
+    }
+}
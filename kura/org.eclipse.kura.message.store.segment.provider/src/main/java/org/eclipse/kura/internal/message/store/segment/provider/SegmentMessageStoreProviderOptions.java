@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.message.store.segment.provider;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.kura.configuration.ConfigurationService;
+import org.eclipse.kura.util.configuration.Property;
+
+class SegmentMessageStoreProviderOptions {
+
+    private static final int MIN_SEGMENT_SIZE_BYTES = 64 * 1024;
+
+    private static final Property<String> DIRECTORY_PROPERTY = new Property<>("store.directory",
+            "/opt/eclipse/kura/data/message-store");
+    private static final Property<Integer> SEGMENT_SIZE_BYTES_PROPERTY = new Property<>("segment.size.bytes",
+            4 * 1024 * 1024);
+    private static final Property<Boolean> FORCE_WRITES_PROPERTY = new Property<>("force.writes", false);
+    private static final Property<String> KURA_SERVICE_PID_PROPERTY = new Property<>(
+            ConfigurationService.KURA_SERVICE_PID, "segmentstore");
+
+    private final String directory;
+    private final int segmentSizeBytes;
+    private final boolean forceWrites;
+    private final String kuraServicePid;
+
+    public SegmentMessageStoreProviderOptions(final Map<String, Object> properties) {
+        this.directory = DIRECTORY_PROPERTY.get(properties);
+        this.segmentSizeBytes = Math.max(MIN_SEGMENT_SIZE_BYTES, SEGMENT_SIZE_BYTES_PROPERTY.get(properties));
+        this.forceWrites = FORCE_WRITES_PROPERTY.get(properties);
+        this.kuraServicePid = KURA_SERVICE_PID_PROPERTY.get(properties);
+    }
+
+    public Path getStoreDirectory(final String storeName) {
+        return Paths.get(this.directory, sanitize(this.kuraServicePid), sanitize(storeName));
+    }
+
+    public int getSegmentSizeBytes() {
+        return this.segmentSizeBytes;
+    }
+
+    public boolean isForceWrites() {
+        return this.forceWrites;
+    }
+
+    public String getKuraServicePid() {
+        return this.kuraServicePid;
+    }
+
+    private static String sanitize(final String name) {
+        final String result = name.replaceAll("[^a-zA-Z0-9._-]", "_");
+
+        // do not allow to escape the store directory
+        return result.matches("\\.*") ? result.replace('.', '_') : result;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.directory, this.forceWrites, this.kuraServicePid, this.segmentSizeBytes);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        SegmentMessageStoreProviderOptions other = (SegmentMessageStoreProviderOptions) obj;
+        return Objects.equals(this.directory, other.directory) && this.forceWrites == other.forceWrites
+                && Objects.equals(this.kuraServicePid, other.kuraServicePid)
+                && this.segmentSizeBytes == other.segmentSizeBytes;
+    }
+}
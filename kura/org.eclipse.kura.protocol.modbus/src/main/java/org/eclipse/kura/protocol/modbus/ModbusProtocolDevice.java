@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2011, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -22,6 +22,8 @@ import java.net.Socket;
 import java.net.SocketTimeoutException;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import org.eclipse.kura.KuraConnectionStatus;
 import org.eclipse.kura.comm.CommConnection;
@@ -41,7 +43,7 @@ import org.slf4j.LoggerFactory;
  * The protocol supports RTU and ASCII mode operation.
  *
  */
-public class ModbusProtocolDevice implements ModbusProtocolDeviceService {
+public class ModbusProtocolDevice implements ModbusProtocolDeviceAsyncService {
 
     private static final Logger logger = LoggerFactory.getLogger(ModbusProtocolDevice.class);
 
@@ -52,6 +54,8 @@ public class ModbusProtocolDevice implements ModbusProtocolDeviceService {
     public static final String PROTOCOL_CONNECTION_TYPE_SERIAL = "RS232";
     public static final String PROTOCOL_CONNECTION_TYPE_ETHER_RTU = "TCP-RTU";
     public static final String PROTOCOL_CONNECTION_TYPE_ETHER_TCP = "TCP/IP";
+    public static final String PROTOCOL_CONNECTION_TYPE_ETHER_TCP_PIPELINED = "TCP/IP-PIPELINED";
+    static final int DEFAULT_MAX_IN_FLIGHT_REQUESTS = 16;
     private int respTout;
     private int txMode;
     private boolean connConfigd = false;
@@ -190,6 +194,26 @@ public class ModbusProtocolDevice implements ModbusProtocolDeviceService {
      * <td>port on the field device to connect to</td>
      * </tr>
      * </table>
+     * <p>
+     * <h4>PROTOCOL_CONNECTION_TYPE_ETHER_TCP_PIPELINED</h4>
+     * Modbus TCP/IP mode that allows multiple transactions to be outstanding on the same connection, responses are
+     * matched to the requests using the MBAP transaction identifier. Useful with gateways that serve many field devices,
+     * see {@link ModbusProtocolDeviceAsyncService}. Supports the same keys as PROTOCOL_CONNECTION_TYPE_ETHER_TCP and the
+     * following ones:
+     * <table border="1">
+     * <tr>
+     * <th>Key</th>
+     * <th>Description</th>
+     * </tr>
+     * <tr>
+     * <td>connectionType</td>
+     * <td>"TCP/IP-PIPELINED" (from PROTOCOL_CONNECTION_TYPE_ETHER_TCP_PIPELINED).
+     * </tr>
+     * <tr>
+     * <td>maxInFlightRequests</td>
+     * <td>optional, maximum number of outstanding transactions on the connection, defaults to 16</td>
+     * </tr>
+     * </table>
      */
     @Override
     public void configureConnection(Properties connectionConfig) throws ModbusProtocolException {
@@ -232,6 +256,8 @@ public class ModbusProtocolDevice implements ModbusProtocolDeviceService {
         } else if (PROTOCOL_CONNECTION_TYPE_ETHER_TCP.equals(this.connType)
                 || PROTOCOL_CONNECTION_TYPE_ETHER_RTU.equals(this.connType)) {
             this.comm = new EthernetCommunicate(this.connectionFactory, connectionConfig);
+        } else if (PROTOCOL_CONNECTION_TYPE_ETHER_TCP_PIPELINED.equals(this.connType)) {
+            this.comm = new PipelinedEthernetCommunicate(connectionConfig);
         } else {
             throw new ModbusProtocolException(ModbusProtocolErrorCode.INVALID_CONFIGURATION);
         }
@@ -288,6 +314,20 @@ public class ModbusProtocolDevice implements ModbusProtocolDeviceService {
         abstract public int getConnectStatus();
 
         abstract public byte[] msgTransaction(byte[] msg) throws ModbusProtocolException;
+
+        /**
+         * Performs the transaction in the calling thread, implementations that support multiple outstanding
+         * transactions should override this method.
+         */
+        public CompletableFuture<byte[]> msgTransactionAsync(byte[] msg) {
+            CompletableFuture<byte[]> result = new CompletableFuture<>();
+            try {
+                result.complete(msgTransaction(msg));
+            } catch (ModbusProtocolException | RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+            return result;
+        }
     }
 
     /**
@@ -883,59 +923,116 @@ public class ModbusProtocolDevice implements ModbusProtocolDeviceService {
         }
     }
 
+    /**
+     * Modbus TCP/IP connection that allows multiple outstanding transactions, see {@link ModbusTcpClient}.
+     */
+    private final class PipelinedEthernetCommunicate extends Communicate {
+
+        private final ModbusTcpClient client;
+
+        public PipelinedEthernetCommunicate(Properties connectionConfig) throws ModbusProtocolException {
+            logger.debug("Configure pipelined TCP connection");
+            String sPort;
+            String ipAddress;
+
+            if ((sPort = connectionConfig.getProperty("ethport")) == null
+                    || (ipAddress = connectionConfig.getProperty("ipAddress")) == null) {
+                throw new ModbusProtocolException(ModbusProtocolErrorCode.INVALID_CONFIGURATION);
+            }
+
+            try {
+                int port = Integer.parseInt(sPort);
+                int maxInFlightRequests = Integer.parseInt(connectionConfig.getProperty("maxInFlightRequests",
+                        Integer.toString(DEFAULT_MAX_IN_FLIGHT_REQUESTS)));
+
+                this.client = new ModbusTcpClient(new InetSocketAddress(ipAddress, port),
+                        ModbusProtocolDevice.this.respTout, maxInFlightRequests);
+            } catch (IllegalArgumentException e) {
+                throw new ModbusProtocolException(ModbusProtocolErrorCode.INVALID_CONFIGURATION, e.getMessage());
+            }
+
+            if (ModbusProtocolDevice.this.txMode != ModbusTransmissionMode.RTU_MODE) {
+                throw new ModbusProtocolException(ModbusProtocolErrorCode.METHOD_NOT_SUPPORTED,
+                        "Only RTU over TCP/IP supported");
+            }
+        }
+
+        @Override
+        public void connect() {
+            if (this.client.isConnected()) {
+                return;
+            }
+            try {
+                this.client.connect();
+                logger.info("TCP connected");
+            } catch (IOException e) {
+                logger.error("Failed to connect to remote: " + e);
+            }
+        }
+
+        @Override
+        public void disconnect() {
+            this.client.disconnect();
+        }
+
+        @Override
+        public int getConnectStatus() {
+            if (this.client.isConnected()) {
+                return KuraConnectionStatus.CONNECTED;
+            } else if (ModbusProtocolDevice.this.connConfigd) {
+                return KuraConnectionStatus.DISCONNECTED;
+            } else {
+                return KuraConnectionStatus.NEVERCONNECTED;
+            }
+        }
+
+        @Override
+        public byte[] msgTransaction(byte[] msg) throws ModbusProtocolException {
+            try {
+                return msgTransactionAsync(msg).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ModbusProtocolException(ModbusProtocolErrorCode.TRANSACTION_FAILURE, "Interrupted");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof ModbusProtocolException) {
+                    throw (ModbusProtocolException) e.getCause();
+                }
+                throw new ModbusProtocolException(ModbusProtocolErrorCode.TRANSACTION_FAILURE, e.getCause());
+            }
+        }
+
+        @Override
+        public CompletableFuture<byte[]> msgTransactionAsync(byte[] msg) {
+            // Check connection status and connect
+            connect();
+            return this.client.submit(msg);
+        }
+    }
+
     @Override
     public boolean[] readCoils(int unitAddr, int dataAddress, int count) throws ModbusProtocolException {
         if (!this.connConfigd) {
             throw new ModbusProtocolException(ModbusProtocolErrorCode.NOT_CONNECTED);
         }
 
-        boolean[] ret = new boolean[count];
-        int index = 0;
-
-        byte[] resp;
         /*
          * construct the command issue and get results
          */
-        byte[] cmd = new byte[6];
-        cmd[0] = (byte) unitAddr;
-        cmd[1] = (byte) ModbusFunctionCodes.READ_COIL_STATUS;
-        cmd[2] = (byte) (dataAddress / 256);
-        cmd[3] = (byte) (dataAddress % 256);
-        cmd[4] = (byte) (count / 256);
-        cmd[5] = (byte) (count % 256);
+        byte[] cmd = buildReadCommand(unitAddr, ModbusFunctionCodes.READ_COIL_STATUS, dataAddress, count);
 
         /*
          * send the message and get the response
          */
-        resp = this.comm.msgTransaction(cmd);
+        byte[] resp = this.comm.msgTransaction(cmd);
 
-        /*
-         * process the response (address & CRC already confirmed)
-         */
-        if (resp.length < 3 || resp.length < (resp[2] & 0xff) + 3) {
-            throw new ModbusProtocolException(ModbusProtocolErrorCode.INVALID_DATA_TYPE);
-        }
-        if ((resp[2] & 0xff) == (count + 7) / 8) {
-            byte mask = 1;
-            int byteOffset = 3;
-            for (int j = 0; j < count; j++, index++) {
-                // get this point's value
-                if ((resp[byteOffset] & mask) == mask) {
-                    ret[index] = true;
-                } else {
-                    ret[index] = false;
-                }
-                // advance the mask and offset index
-                if ((mask <<= 1) == 0) {
-                    mask = 1;
-                    byteOffset++;
-                }
-            }
-        } else {
-            throw new ModbusProtocolException(ModbusProtocolErrorCode.INVALID_DATA_ADDRESS);
-        }
+        return parseBits(resp, count);
+    }
 
-        return ret;
+    @Override
+    public CompletableFuture<boolean[]> readCoilsAsync(int unitAddr, int dataAddress, int count) {
+        byte[] cmd = buildReadCommand(unitAddr, ModbusFunctionCodes.READ_COIL_STATUS, dataAddress, count);
+
+        return msgTransactionAsync(cmd, resp -> parseBits(resp, count));
     }
 
     @Override
@@ -944,53 +1041,24 @@ public class ModbusProtocolDevice implements ModbusProtocolDeviceService {
             throw new ModbusProtocolException(ModbusProtocolErrorCode.NOT_CONNECTED);
         }
 
-        boolean[] ret = new boolean[count];
-        int index = 0;
-
-        byte[] resp;
         /*
          * construct the command issue and get results
          */
-        byte[] cmd = new byte[6];
-        cmd[0] = (byte) unitAddr;
-        cmd[1] = (byte) ModbusFunctionCodes.READ_INPUT_STATUS;
-        cmd[2] = (byte) (dataAddress / 256);
-        cmd[3] = (byte) (dataAddress % 256);
-        cmd[4] = (byte) (count / 256);
-        cmd[5] = (byte) (count % 256);
+        byte[] cmd = buildReadCommand(unitAddr, ModbusFunctionCodes.READ_INPUT_STATUS, dataAddress, count);
 
         /*
          * send the message and get the response
          */
-        resp = this.comm.msgTransaction(cmd);
+        byte[] resp = this.comm.msgTransaction(cmd);
 
-        /*
-         * process the response (address & CRC already confirmed)
-         */
-        if (resp.length < 3 || resp.length < (resp[2] & 0xff) + 3) {
-            throw new ModbusProtocolException(ModbusProtocolErrorCode.INVALID_DATA_TYPE);
-        }
-        if ((resp[2] & 0xff) == (count + 7) / 8) {
-            byte mask = 1;
-            int byteOffset = 3;
-            for (int j = 0; j < count; j++, index++) {
-                // get this point's value
-                if ((resp[byteOffset] & mask) == mask) {
-                    ret[index] = true;
-                } else {
-                    ret[index] = false;
-                }
-                // advance the mask and offset index
-                if ((mask <<= 1) == 0) {
-                    mask = 1;
-                    byteOffset++;
-                }
-            }
-        } else {
-            throw new ModbusProtocolException(ModbusProtocolErrorCode.INVALID_DATA_ADDRESS);
-        }
+        return parseBits(resp, count);
+    }
 
-        return ret;
+    @Override
+    public CompletableFuture<boolean[]> readDiscreteInputsAsync(int unitAddr, int dataAddress, int count) {
+        byte[] cmd = buildReadCommand(unitAddr, ModbusFunctionCodes.READ_INPUT_STATUS, dataAddress, count);
+
+        return msgTransactionAsync(cmd, resp -> parseBits(resp, count));
     }
 
     @Override
@@ -999,33 +1067,24 @@ public class ModbusProtocolDevice implements ModbusProtocolDeviceService {
             throw new ModbusProtocolException(ModbusProtocolErrorCode.NOT_CONNECTED);
         }
 
-        byte[] resp;
-
-        byte[] cmd = new byte[6];
-        cmd[0] = (byte) unitAddr;
-        cmd[1] = ModbusFunctionCodes.FORCE_SINGLE_COIL;
-        cmd[2] = (byte) (dataAddress / 256);
-        cmd[3] = (byte) (dataAddress % 256);
-        cmd[4] = data == true ? (byte) 0xff : (byte) 0;
-        cmd[5] = 0;
+        byte[] cmd = buildWriteSingleCoilCommand(unitAddr, dataAddress, data);
 
         /*
          * send the message and get the response
          */
-        resp = this.comm.msgTransaction(cmd);
+        byte[] resp = this.comm.msgTransaction(cmd);
 
-        /*
-         * process the response
-         */
-        if (resp.length < 6) {
-            throw new ModbusProtocolException(ModbusProtocolErrorCode.INVALID_DATA_TYPE);
-        }
-        for (int i = 0; i < 6; i++) {
-            if (cmd[i] != resp[i]) {
-                throw new ModbusProtocolException(ModbusProtocolErrorCode.INVALID_DATA_TYPE);
-            }
-        }
+        checkWriteResponse(cmd, resp);
+    }
+
+    @Override
+    public CompletableFuture<Void> writeSingleCoilAsync(int unitAddr, int dataAddress, boolean data) {
+        byte[] cmd = buildWriteSingleCoilCommand(unitAddr, dataAddress, data);
 
+        return msgTransactionAsync(cmd, resp -> {
+            checkWriteResponse(cmd, resp);
+            return null;
+        });
     }
 
     @Override
@@ -1034,58 +1093,24 @@ public class ModbusProtocolDevice implements ModbusProtocolDeviceService {
             throw new ModbusProtocolException(ModbusProtocolErrorCode.NOT_CONNECTED);
         }
 
-        /*
-         * write multiple boolean values
-         */
-        int localCnt = data.length;
-        int index = 0;
-        byte[] resp;
-        /*
-         * construct the command, issue and verify response
-         */
-        int dataLength = (localCnt + 7) / 8;
-        byte[] cmd = new byte[dataLength + 7];
-        cmd[0] = (byte) unitAddr;
-        cmd[1] = ModbusFunctionCodes.FORCE_MULTIPLE_COILS;
-        cmd[2] = (byte) (dataAddress / 256);
-        cmd[3] = (byte) (dataAddress % 256);
-        cmd[4] = (byte) (localCnt / 256);
-        cmd[5] = (byte) (localCnt % 256);
-        cmd[6] = (byte) dataLength;
-
-        // put the data on the command
-        byte mask = 1;
-        int byteOffset = 7;
-        cmd[byteOffset] = 0;
-        for (int j = 0; j < localCnt; j++, index++) {
-            // get this point's value
-            if (data[index]) {
-                cmd[byteOffset] += mask;
-            }
-            // advance the mask and offset index
-            if ((mask <<= 1) == 0) {
-                mask = 1;
-                byteOffset++;
-                cmd[byteOffset] = 0;
-            }
-        }
+        byte[] cmd = buildWriteMultipleCoilsCommand(unitAddr, dataAddress, data);
 
         /*
          * send the message and get the response
          */
-        resp = this.comm.msgTransaction(cmd);
+        byte[] resp = this.comm.msgTransaction(cmd);
 
-        /*
-         * process the response
-         */
-        if (resp.length < 6) {
-            throw new ModbusProtocolException(ModbusProtocolErrorCode.INVALID_DATA_TYPE);
-        }
-        for (int j = 0; j < 6; j++) {
-            if (cmd[j] != resp[j]) {
-                throw new ModbusProtocolException(ModbusProtocolErrorCode.INVALID_DATA_TYPE);
-            }
-        }
+        checkWriteResponse(cmd, resp);
+    }
+
+    @Override
+    public CompletableFuture<Void> writeMultipleCoilsAsync(int unitAddr, int dataAddress, boolean[] data) {
+        byte[] cmd = buildWriteMultipleCoilsCommand(unitAddr, dataAddress, data);
+
+        return msgTransactionAsync(cmd, resp -> {
+            checkWriteResponse(cmd, resp);
+            return null;
+        });
     }
 
     @Override
@@ -1094,48 +1119,24 @@ public class ModbusProtocolDevice implements ModbusProtocolDeviceService {
             throw new ModbusProtocolException(ModbusProtocolErrorCode.NOT_CONNECTED);
         }
 
-        int[] ret = new int[count];
-        int index = 0;
-
-        byte[] resp;
         /*
-         * construct the command issue and get results, putting the results
-         * away at index and then incrementing index for the next command
+         * construct the command issue and get results
          */
-        byte[] cmd = new byte[6];
-        cmd[0] = (byte) unitAddr;
-        cmd[1] = (byte) ModbusFunctionCodes.READ_HOLDING_REGS;
-        cmd[2] = (byte) (dataAddress / 256);
-        cmd[3] = (byte) (dataAddress % 256);
-        cmd[4] = 0;
-        cmd[5] = (byte) count;
+        byte[] cmd = buildReadCommand(unitAddr, ModbusFunctionCodes.READ_HOLDING_REGS, dataAddress, count);
 
         /*
          * send the message and get the response
          */
-        resp = this.comm.msgTransaction(cmd);
+        byte[] resp = this.comm.msgTransaction(cmd);
 
-        /*
-         * process the response (address & CRC already confirmed)
-         */
-        if (resp.length < 3 || resp.length < (resp[2] & 0xff) + 3) {
-            throw new ModbusProtocolException(ModbusProtocolErrorCode.INVALID_DATA_TYPE);
-        }
-        if ((resp[2] & 0xff) == count * 2) {
-            int byteOffset = 3;
-            for (int j = 0; j < count; j++, index++) {
-                int val = resp[byteOffset + ModbusDataOrder.MODBUS_WORD_ORDER_BIG_ENDIAN.charAt(0) - '1'] & 0xff;
-                val <<= 8;
-                val += resp[byteOffset + ModbusDataOrder.MODBUS_WORD_ORDER_BIG_ENDIAN.charAt(1) - '1'] & 0xff;
+        return parseRegisters(resp, count);
+    }
 
-                ret[index] = val;
+    @Override
+    public CompletableFuture<int[]> readHoldingRegistersAsync(int unitAddr, int dataAddress, int count) {
+        byte[] cmd = buildReadCommand(unitAddr, ModbusFunctionCodes.READ_HOLDING_REGS, dataAddress, count);
 
-                byteOffset += 2;
-            }
-        } else {
-            throw new ModbusProtocolException(ModbusProtocolErrorCode.INVALID_DATA_ADDRESS);
-        }
-        return ret;
+        return msgTransactionAsync(cmd, resp -> parseRegisters(resp, count));
     }
 
     @Override
@@ -1145,48 +1146,24 @@ public class ModbusProtocolDevice implements ModbusProtocolDeviceService {
             throw new ModbusProtocolException(ModbusProtocolErrorCode.NOT_CONNECTED);
         }
 
-        int[] ret = new int[count];
-        int index = 0;
-
-        byte[] resp;
         /*
-         * construct the command issue and get results, putting the results
-         * away at index and then incrementing index for the next command
+         * construct the command issue and get results
          */
-        byte[] cmd = new byte[6];
-        cmd[0] = (byte) unitAddr;
-        cmd[1] = (byte) ModbusFunctionCodes.READ_INPUT_REGS;
-        cmd[2] = (byte) (dataAddress / 256);
-        cmd[3] = (byte) (dataAddress % 256);
-        cmd[4] = 0;
-        cmd[5] = (byte) count;
+        byte[] cmd = buildReadCommand(unitAddr, ModbusFunctionCodes.READ_INPUT_REGS, dataAddress, count);
 
         /*
          * send the message and get the response
          */
-        resp = this.comm.msgTransaction(cmd);
+        byte[] resp = this.comm.msgTransaction(cmd);
 
-        /*
-         * process the response (address & CRC already confirmed)
-         */
-        if (resp.length < 3 || resp.length < (resp[2] & 0xff) + 3) {
-            throw new ModbusProtocolException(ModbusProtocolErrorCode.INVALID_DATA_TYPE);
-        }
-        if ((resp[2] & 0xff) == count * 2) {
-            int byteOffset = 3;
-            for (int j = 0; j < count; j++, index++) {
-                int val = resp[byteOffset + ModbusDataOrder.MODBUS_WORD_ORDER_BIG_ENDIAN.charAt(0) - '1'] & 0xff;
-                val <<= 8;
-                val += resp[byteOffset + ModbusDataOrder.MODBUS_WORD_ORDER_BIG_ENDIAN.charAt(1) - '1'] & 0xff;
+        return parseRegisters(resp, count);
+    }
 
-                ret[index] = val;
+    @Override
+    public CompletableFuture<int[]> readInputRegistersAsync(int unitAddr, int dataAddress, int count) {
+        byte[] cmd = buildReadCommand(unitAddr, ModbusFunctionCodes.READ_INPUT_REGS, dataAddress, count);
 
-                byteOffset += 2;
-            }
-        } else {
-            throw new ModbusProtocolException(ModbusProtocolErrorCode.INVALID_DATA_ADDRESS);
-        }
-        return ret;
+        return msgTransactionAsync(cmd, resp -> parseRegisters(resp, count));
     }
 
     @Override
@@ -1195,38 +1172,241 @@ public class ModbusProtocolDevice implements ModbusProtocolDeviceService {
             throw new ModbusProtocolException(ModbusProtocolErrorCode.NOT_CONNECTED);
         }
 
-        byte[] cmd = new byte[6];
-        cmd[0] = (byte) unitAddr;
-        cmd[1] = ModbusFunctionCodes.PRESET_SINGLE_REG;
-        cmd[2] = (byte) (dataAddress / 256);
-        cmd[3] = (byte) (dataAddress % 256);
-        cmd[4] = (byte) (data >> 8);
-        cmd[5] = (byte) data;
+        byte[] cmd = buildWriteSingleRegisterCommand(unitAddr, dataAddress, data);
 
         /*
          * send the message and get the response
          */
         byte[] resp = this.comm.msgTransaction(cmd);
 
+        checkWriteResponse(cmd, resp);
+    }
+
+    @Override
+    public CompletableFuture<Void> writeSingleRegisterAsync(int unitAddr, int dataAddress, int data) {
+        byte[] cmd = buildWriteSingleRegisterCommand(unitAddr, dataAddress, data);
+
+        return msgTransactionAsync(cmd, resp -> {
+            checkWriteResponse(cmd, resp);
+            return null;
+        });
+    }
+
+    @Override
+    public void writeMultipleRegister(int unitAddr, int dataAddress, int[] data) throws ModbusProtocolException {
+        if (!this.connConfigd) {
+            throw new ModbusProtocolException(ModbusProtocolErrorCode.NOT_CONNECTED);
+        }
+
+        byte[] cmd = buildWriteMultipleRegisterCommand(unitAddr, dataAddress, data);
+
         /*
-         * process the response
+         * send the message and get the response
          */
-        if (resp.length < 6) {
-            throw new ModbusProtocolException(ModbusProtocolErrorCode.INVALID_DATA_TYPE);
+        byte[] resp = this.comm.msgTransaction(cmd);
+
+        checkWriteResponse(cmd, resp);
+    }
+
+    @Override
+    public CompletableFuture<Void> writeMultipleRegisterAsync(int unitAddr, int dataAddress, int[] data) {
+        byte[] cmd = buildWriteMultipleRegisterCommand(unitAddr, dataAddress, data);
+
+        return msgTransactionAsync(cmd, resp -> {
+            checkWriteResponse(cmd, resp);
+            return null;
+        });
+    }
+
+    @Override
+    public boolean[] readExceptionStatus(int unitAddr) throws ModbusProtocolException {
+        if (!this.connConfigd) {
+            throw new ModbusProtocolException(ModbusProtocolErrorCode.NOT_CONNECTED);
         }
-        for (int i = 0; i < 6; i++) {
-            if (cmd[i] != resp[i]) {
-                throw new ModbusProtocolException(ModbusProtocolErrorCode.INVALID_DATA_TYPE);
-            }
+
+        /*
+         * construct the command issue and get results
+         */
+        byte[] cmd = buildCommand(unitAddr, ModbusFunctionCodes.READ_EXCEPTION_STATUS);
+
+        /*
+         * send the message and get the response
+         */
+        byte[] resp = this.comm.msgTransaction(cmd);
+
+        return parseExceptionStatus(resp);
+    }
+
+    @Override
+    public CompletableFuture<boolean[]> readExceptionStatusAsync(int unitAddr) {
+        byte[] cmd = buildCommand(unitAddr, ModbusFunctionCodes.READ_EXCEPTION_STATUS);
+
+        return msgTransactionAsync(cmd, ModbusProtocolDevice::parseExceptionStatus);
+    }
+
+    @Override
+    public ModbusCommEvent getCommEventCounter(int unitAddr) throws ModbusProtocolException {
+        if (!this.connConfigd) {
+            throw new ModbusProtocolException(ModbusProtocolErrorCode.NOT_CONNECTED);
         }
+
+        /*
+         * construct the command issue and get results
+         */
+        byte[] cmd = buildCommand(unitAddr, ModbusFunctionCodes.GET_COMM_EVENT_COUNTER);
+
+        /*
+         * send the message and get the response
+         */
+        byte[] resp = this.comm.msgTransaction(cmd);
+
+        return parseCommEventCounter(resp);
     }
 
     @Override
-    public void writeMultipleRegister(int unitAddr, int dataAddress, int[] data) throws ModbusProtocolException {
+    public CompletableFuture<ModbusCommEvent> getCommEventCounterAsync(int unitAddr) {
+        byte[] cmd = buildCommand(unitAddr, ModbusFunctionCodes.GET_COMM_EVENT_COUNTER);
+
+        return msgTransactionAsync(cmd, ModbusProtocolDevice::parseCommEventCounter);
+    }
+
+    @Override
+    public ModbusCommEvent getCommEventLog(int unitAddr) throws ModbusProtocolException {
         if (!this.connConfigd) {
             throw new ModbusProtocolException(ModbusProtocolErrorCode.NOT_CONNECTED);
         }
 
+        /*
+         * construct the command issue and get results
+         */
+        byte[] cmd = buildCommand(unitAddr, ModbusFunctionCodes.GET_COMM_EVENT_LOG);
+
+        /*
+         * send the message and get the response
+         */
+        byte[] resp = this.comm.msgTransaction(cmd);
+
+        return parseCommEventLog(resp);
+    }
+
+    @Override
+    public CompletableFuture<ModbusCommEvent> getCommEventLogAsync(int unitAddr) {
+        byte[] cmd = buildCommand(unitAddr, ModbusFunctionCodes.GET_COMM_EVENT_LOG);
+
+        return msgTransactionAsync(cmd, ModbusProtocolDevice::parseCommEventLog);
+    }
+
+    @FunctionalInterface
+    private interface ResponseParser<T> {
+
+        public T parse(byte[] resp) throws ModbusProtocolException;
+    }
+
+    private <T> CompletableFuture<T> msgTransactionAsync(byte[] cmd, ResponseParser<T> parser) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final Communicate currentComm = this.comm;
+
+        if (!this.connConfigd || currentComm == null) {
+            result.completeExceptionally(new ModbusProtocolException(ModbusProtocolErrorCode.NOT_CONNECTED));
+            return result;
+        }
+
+        currentComm.msgTransactionAsync(cmd).whenComplete((resp, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+                return;
+            }
+            try {
+                result.complete(parser.parse(resp));
+            } catch (ModbusProtocolException | RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+
+        return result;
+    }
+
+    private static byte[] buildCommand(int unitAddr, int functionCode) {
+        byte[] cmd = new byte[2];
+        cmd[0] = (byte) unitAddr;
+        cmd[1] = (byte) functionCode;
+        return cmd;
+    }
+
+    private static byte[] buildReadCommand(int unitAddr, int functionCode, int dataAddress, int count) {
+        byte[] cmd = new byte[6];
+        cmd[0] = (byte) unitAddr;
+        cmd[1] = (byte) functionCode;
+        cmd[2] = (byte) (dataAddress / 256);
+        cmd[3] = (byte) (dataAddress % 256);
+        cmd[4] = (byte) (count / 256);
+        cmd[5] = (byte) (count % 256);
+        return cmd;
+    }
+
+    private static byte[] buildWriteSingleCoilCommand(int unitAddr, int dataAddress, boolean data) {
+        byte[] cmd = new byte[6];
+        cmd[0] = (byte) unitAddr;
+        cmd[1] = ModbusFunctionCodes.FORCE_SINGLE_COIL;
+        cmd[2] = (byte) (dataAddress / 256);
+        cmd[3] = (byte) (dataAddress % 256);
+        cmd[4] = data == true ? (byte) 0xff : (byte) 0;
+        cmd[5] = 0;
+        return cmd;
+    }
+
+    private static byte[] buildWriteMultipleCoilsCommand(int unitAddr, int dataAddress, boolean[] data) {
+        /*
+         * write multiple boolean values
+         */
+        int localCnt = data.length;
+        int index = 0;
+        /*
+         * construct the command, issue and verify response
+         */
+        int dataLength = (localCnt + 7) / 8;
+        byte[] cmd = new byte[dataLength + 7];
+        cmd[0] = (byte) unitAddr;
+        cmd[1] = ModbusFunctionCodes.FORCE_MULTIPLE_COILS;
+        cmd[2] = (byte) (dataAddress / 256);
+        cmd[3] = (byte) (dataAddress % 256);
+        cmd[4] = (byte) (localCnt / 256);
+        cmd[5] = (byte) (localCnt % 256);
+        cmd[6] = (byte) dataLength;
+
+        // put the data on the command
+        byte mask = 1;
+        int byteOffset = 7;
+        cmd[byteOffset] = 0;
+        for (int j = 0; j < localCnt; j++, index++) {
+            // get this point's value
+            if (data[index]) {
+                cmd[byteOffset] += mask;
+            }
+            // advance the mask and offset index
+            if ((mask <<= 1) == 0) {
+                mask = 1;
+                byteOffset++;
+                if (byteOffset < cmd.length) {
+                    cmd[byteOffset] = 0;
+                }
+            }
+        }
+        return cmd;
+    }
+
+    private static byte[] buildWriteSingleRegisterCommand(int unitAddr, int dataAddress, int data) {
+        byte[] cmd = new byte[6];
+        cmd[0] = (byte) unitAddr;
+        cmd[1] = ModbusFunctionCodes.PRESET_SINGLE_REG;
+        cmd[2] = (byte) (dataAddress / 256);
+        cmd[3] = (byte) (dataAddress % 256);
+        cmd[4] = (byte) (data >> 8);
+        cmd[5] = (byte) data;
+        return cmd;
+    }
+
+    private static byte[] buildWriteMultipleRegisterCommand(int unitAddr, int dataAddress, int[] data) {
         int localCnt = data.length;
         /*
          * construct the command, issue and verify response
@@ -1250,46 +1430,86 @@ public class ModbusProtocolDevice implements ModbusProtocolDeviceService {
 
             byteOffset += 2;
         }
+        return cmd;
+    }
 
-        /*
-         * send the message and get the response
-         */
-        byte[] resp = this.comm.msgTransaction(cmd);
+    private static boolean[] parseBits(byte[] resp, int count) throws ModbusProtocolException {
+        boolean[] ret = new boolean[count];
+        int index = 0;
 
         /*
-         * process the response
+         * process the response (address & CRC already confirmed)
          */
-        if (resp.length < 6) {
+        if (resp.length < 3 || resp.length < (resp[2] & 0xff) + 3) {
             throw new ModbusProtocolException(ModbusProtocolErrorCode.INVALID_DATA_TYPE);
         }
-        for (int j = 0; j < 6; j++) {
-            if (cmd[j] != resp[j]) {
-                throw new ModbusProtocolException(ModbusProtocolErrorCode.INVALID_DATA_TYPE);
+        if ((resp[2] & 0xff) == (count + 7) / 8) {
+            byte mask = 1;
+            int byteOffset = 3;
+            for (int j = 0; j < count; j++, index++) {
+                // get this point's value
+                if ((resp[byteOffset] & mask) == mask) {
+                    ret[index] = true;
+                } else {
+                    ret[index] = false;
+                }
+                // advance the mask and offset index
+                if ((mask <<= 1) == 0) {
+                    mask = 1;
+                    byteOffset++;
+                }
             }
+        } else {
+            throw new ModbusProtocolException(ModbusProtocolErrorCode.INVALID_DATA_ADDRESS);
         }
-    }
 
-    @Override
-    public boolean[] readExceptionStatus(int unitAddr) throws ModbusProtocolException {
-        if (!this.connConfigd) {
-            throw new ModbusProtocolException(ModbusProtocolErrorCode.NOT_CONNECTED);
-        }
+        return ret;
+    }
 
-        boolean[] ret = new boolean[8];
+    private static int[] parseRegisters(byte[] resp, int count) throws ModbusProtocolException {
+        int[] ret = new int[count];
         int index = 0;
 
-        byte[] resp;
         /*
-         * construct the command issue and get results
+         * process the response (address & CRC already confirmed)
          */
-        byte[] cmd = new byte[2];
-        cmd[0] = (byte) unitAddr;
-        cmd[1] = (byte) ModbusFunctionCodes.READ_EXCEPTION_STATUS;
+        if (resp.length < 3 || resp.length < (resp[2] & 0xff) + 3) {
+            throw new ModbusProtocolException(ModbusProtocolErrorCode.INVALID_DATA_TYPE);
+        }
+        if ((resp[2] & 0xff) == count * 2) {
+            int byteOffset = 3;
+            for (int j = 0; j < count; j++, index++) {
+                int val = resp[byteOffset + ModbusDataOrder.MODBUS_WORD_ORDER_BIG_ENDIAN.charAt(0) - '1'] & 0xff;
+                val <<= 8;
+                val += resp[byteOffset + ModbusDataOrder.MODBUS_WORD_ORDER_BIG_ENDIAN.charAt(1) - '1'] & 0xff;
+
+                ret[index] = val;
 
+                byteOffset += 2;
+            }
+        } else {
+            throw new ModbusProtocolException(ModbusProtocolErrorCode.INVALID_DATA_ADDRESS);
+        }
+        return ret;
+    }
+
+    private static void checkWriteResponse(byte[] cmd, byte[] resp) throws ModbusProtocolException {
         /*
-         * send the message and get the response
+         * process the response
          */
-        resp = this.comm.msgTransaction(cmd);
+        if (resp.length < 6) {
+            throw new ModbusProtocolException(ModbusProtocolErrorCode.INVALID_DATA_TYPE);
+        }
+        for (int i = 0; i < 6; i++) {
+            if (cmd[i] != resp[i]) {
+                throw new ModbusProtocolException(ModbusProtocolErrorCode.INVALID_DATA_TYPE);
+            }
+        }
+    }
+
+    private static boolean[] parseExceptionStatus(byte[] resp) throws ModbusProtocolException {
+        boolean[] ret = new boolean[8];
+        int index = 0;
 
         /*
          * process the response (address & CRC already confirmed)
@@ -1314,25 +1534,8 @@ public class ModbusProtocolDevice implements ModbusProtocolDeviceService {
         return ret;
     }
 
-    @Override
-    public ModbusCommEvent getCommEventCounter(int unitAddr) throws ModbusProtocolException {
+    private static ModbusCommEvent parseCommEventCounter(byte[] resp) throws ModbusProtocolException {
         ModbusCommEvent mce = new ModbusCommEvent();
-        if (!this.connConfigd) {
-            throw new ModbusProtocolException(ModbusProtocolErrorCode.NOT_CONNECTED);
-        }
-
-        /*
-         * construct the command issue and get results
-         */
-        byte[] cmd = new byte[2];
-        cmd[0] = (byte) unitAddr;
-        cmd[1] = (byte) ModbusFunctionCodes.GET_COMM_EVENT_COUNTER;
-
-        /*
-         * send the message and get the response
-         */
-        byte[] resp;
-        resp = this.comm.msgTransaction(cmd);
 
         /*
          * process the response (address & CRC already confirmed)
@@ -1352,25 +1555,8 @@ public class ModbusProtocolDevice implements ModbusProtocolDeviceService {
         return mce;
     }
 
-    @Override
-    public ModbusCommEvent getCommEventLog(int unitAddr) throws ModbusProtocolException {
+    private static ModbusCommEvent parseCommEventLog(byte[] resp) throws ModbusProtocolException {
         ModbusCommEvent mce = new ModbusCommEvent();
-        if (!this.connConfigd) {
-            throw new ModbusProtocolException(ModbusProtocolErrorCode.NOT_CONNECTED);
-        }
-
-        /*
-         * construct the command issue and get results
-         */
-        byte[] cmd = new byte[2];
-        cmd[0] = (byte) unitAddr;
-        cmd[1] = (byte) ModbusFunctionCodes.GET_COMM_EVENT_LOG;
-
-        /*
-         * send the message and get the response
-         */
-        byte[] resp;
-        resp = this.comm.msgTransaction(cmd);
 
         /*
          * process the response (address & CRC already confirmed)
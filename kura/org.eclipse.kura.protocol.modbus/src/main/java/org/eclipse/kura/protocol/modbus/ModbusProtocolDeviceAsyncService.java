@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.protocol.modbus;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Extension of {@link ModbusProtocolDeviceService} that allows to perform Modbus transactions without blocking the
+ * caller.
+ * <p>
+ * Each method sends the same request as the corresponding method of {@link ModbusProtocolDeviceService} and returns
+ * a {@link CompletableFuture} that is completed with the result or, in case of failure, with a
+ * {@link ModbusProtocolException} having the same error code that the blocking method would have thrown.
+ * <p>
+ * If the connection type is {@code "TCP/IP-PIPELINED"}, multiple requests can be outstanding at the same time on the
+ * same connection and the returned futures are completed by the thread that manages the connection; callbacks attached
+ * to them should not perform blocking operations or should use the {@code *Async} methods of
+ * {@link CompletableFuture} with a dedicated executor. With the other connection types the request is performed by the
+ * calling thread and the returned future is already completed.
+ *
+ * @since 1.1
+ */
+public interface ModbusProtocolDeviceAsyncService extends ModbusProtocolDeviceService {
+
+    /**
+     * <b>Modbus function 01</b><br>
+     * Read 1 to 2000 contiguous status of coils from the attached field device.
+     *
+     * @see ModbusProtocolDeviceService#readCoils(int, int, int)
+     */
+    public CompletableFuture<boolean[]> readCoilsAsync(int unitAddr, int dataAddress, int count);
+
+    /**
+     * <b>Modbus function 02</b><br>
+     * Read 1 to 2000 contiguous status of discrete inputs from the attached field device.
+     *
+     * @see ModbusProtocolDeviceService#readDiscreteInputs(int, int, int)
+     */
+    public CompletableFuture<boolean[]> readDiscreteInputsAsync(int unitAddr, int dataAddress, int count);
+
+    /**
+     * <b>Modbus function 05</b><br>
+     * write a single output to either ON or OFF in the attached field device.
+     *
+     * @see ModbusProtocolDeviceService#writeSingleCoil(int, int, boolean)
+     */
+    public CompletableFuture<Void> writeSingleCoilAsync(int unitAddr, int dataAddress, boolean data);
+
+    /**
+     * <b>Modbus function 15 (0x0F)</b><br>
+     * write multiple coils in a sequence of coils to either ON or OFF in the attached field device.
+     *
+     * @see ModbusProtocolDeviceService#writeMultipleCoils(int, int, boolean[])
+     */
+    public CompletableFuture<Void> writeMultipleCoilsAsync(int unitAddr, int dataAddress, boolean[] data);
+
+    /**
+     * <b>Modbus function 03</b><br>
+     * Read contents of 1 to 125 contiguous block of holding registers from the attached field device.
+     *
+     * @see ModbusProtocolDeviceService#readHoldingRegisters(int, int, int)
+     */
+    public CompletableFuture<int[]> readHoldingRegistersAsync(int unitAddr, int dataAddress, int count);
+
+    /**
+     * <b>Modbus function 04</b><br>
+     * Read contents of 1 to 125 contiguous block of input registers from the attached field device.
+     *
+     * @see ModbusProtocolDeviceService#readInputRegisters(int, int, int)
+     */
+    public CompletableFuture<int[]> readInputRegistersAsync(int unitAddr, int dataAddress, int count);
+
+    /**
+     * <b>Modbus function 06</b><br>
+     * write a single holding register in the attached field device.
+     *
+     * @see ModbusProtocolDeviceService#writeSingleRegister(int, int, int)
+     */
+    public CompletableFuture<Void> writeSingleRegisterAsync(int unitAddr, int dataAddress, int data);
+
+    /**
+     * <b>Modbus function 07</b><br>
+     * read the content of 8 Exception Status outputs in the field device.
+     *
+     * @see ModbusProtocolDeviceService#readExceptionStatus(int)
+     */
+    public CompletableFuture<boolean[]> readExceptionStatusAsync(int unitAddr);
+
+    /**
+     * <b>Modbus function 11 (0x0B)</b><br>
+     * Get a status word and an event count from the device.
+     *
+     * @see ModbusProtocolDeviceService#getCommEventCounter(int)
+     */
+    public CompletableFuture<ModbusCommEvent> getCommEventCounterAsync(int unitAddr);
+
+    /**
+     * <b>Modbus function 12 (0x0C)</b><br>
+     * Get a status word, an event count, a message count and a list of event bytes from the device.
+     *
+     * @see ModbusProtocolDeviceService#getCommEventLog(int)
+     */
+    public CompletableFuture<ModbusCommEvent> getCommEventLogAsync(int unitAddr);
+
+    /**
+     * <b>Modbus function 16 (0x10)</b><br>
+     * write a block of contiguous registers (1 to 123) in the attached field device.
+     *
+     * @see ModbusProtocolDeviceService#writeMultipleRegister(int, int, int[])
+     */
+    public CompletableFuture<Void> writeMultipleRegisterAsync(int unitAddr, int dataAddress, int[] data);
+}
@@ -0,0 +1,444 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.protocol.modbus;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Modbus TCP client that keeps multiple transactions in flight on the same connection.
+ * <p>
+ * The connection is managed by a dedicated thread using a non blocking {@link SocketChannel}. Requests are assigned a
+ * transaction identifier that is not used by any other outstanding request and are written to the socket as long as
+ * the number of outstanding requests is lower than the configured limit. Responses are matched to the requests using
+ * the transaction identifier of the MBAP header, so they can be received in any order.
+ * <p>
+ * Frames are encoded and decoded directly into buffers that are allocated once per connection. The returned futures
+ * are completed by the connection thread, callbacks attached to them should not perform blocking operations.
+ */
+class ModbusTcpClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModbusTcpClient.class);
+
+    private static final int MBAP_HEADER_LENGTH = 6;
+    private static final int MAX_ADU_LENGTH = 254;
+    private static final int MAX_FRAME_LENGTH = MBAP_HEADER_LENGTH + MAX_ADU_LENGTH;
+    private static final int TRANSACTION_ID_COUNT = 0x10000;
+
+    private final InetSocketAddress address;
+    private final int respTimeout;
+    private final int maxInFlightRequests;
+
+    private volatile Connection connection;
+
+    ModbusTcpClient(final InetSocketAddress address, final int respTimeout, final int maxInFlightRequests) {
+        if (maxInFlightRequests <= 0 || maxInFlightRequests > TRANSACTION_ID_COUNT) {
+            throw new IllegalArgumentException("Invalid maximum number of in flight requests");
+        }
+        this.address = address;
+        this.respTimeout = respTimeout;
+        this.maxInFlightRequests = maxInFlightRequests;
+    }
+
+    synchronized void connect() throws IOException {
+        final Connection current = this.connection;
+
+        if (current != null && current.isOpen()) {
+            return;
+        }
+
+        final SocketChannel channel = SocketChannel.open();
+
+        try {
+            channel.socket().connect(this.address, this.respTimeout);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.configureBlocking(false);
+
+            final Connection newConnection = new Connection(channel);
+            newConnection.start();
+            this.connection = newConnection;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    synchronized void disconnect() {
+        final Connection current = this.connection;
+
+        if (current != null) {
+            current.shutdown();
+            this.connection = null;
+        }
+    }
+
+    boolean isConnected() {
+        final Connection current = this.connection;
+
+        return current != null && current.isOpen();
+    }
+
+    /**
+     * Submits a request.
+     *
+     * @param adu
+     *            the request without the MBAP header, starting with the unit identifier
+     * @return a future that will be completed with the response, without the MBAP header, or with a
+     *         {@link ModbusProtocolException} in case of failure
+     */
+    CompletableFuture<byte[]> submit(final byte[] adu) {
+        // a response timeout equal to 0 means that there is no timeout, as for the socket timeout
+        final Transaction transaction = new Transaction(adu, this.respTimeout > 0,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.respTimeout));
+
+        if (adu.length < 2 || adu.length > MAX_ADU_LENGTH) {
+            transaction.fail(new ModbusProtocolException(ModbusProtocolErrorCode.INVALID_DATA_LENGTH));
+            return transaction.future;
+        }
+
+        final Connection current = this.connection;
+
+        if (current == null) {
+            transaction.fail(new ModbusProtocolException(ModbusProtocolErrorCode.TRANSACTION_FAILURE,
+                    "Cannot transact on closed socket"));
+        } else {
+            current.submit(transaction);
+        }
+
+        return transaction.future;
+    }
+
+    private final class Connection extends Thread {
+
+        private final SocketChannel channel;
+        private final Selector selector;
+        private final SelectionKey key;
+
+        private final Queue<Transaction> submitted = new ConcurrentLinkedQueue<>();
+
+        // accessed only by the connection thread
+        private final ArrayDeque<Transaction> waiting = new ArrayDeque<>();
+        private final Map<Integer, Transaction> inFlight = new HashMap<>();
+        private final ByteBuffer writeBuffer;
+        private final ByteBuffer readBuffer;
+        private int nextTransactionId;
+
+        private volatile boolean open = true;
+
+        Connection(final SocketChannel channel) throws IOException {
+            super("ModbusTcpClient-" + ModbusTcpClient.this.address);
+            setDaemon(true);
+
+            this.channel = channel;
+            this.selector = Selector.open();
+            this.key = channel.register(this.selector, SelectionKey.OP_READ);
+            this.writeBuffer = ByteBuffer.allocateDirect(MAX_FRAME_LENGTH * ModbusTcpClient.this.maxInFlightRequests);
+            this.readBuffer = ByteBuffer.allocateDirect(MAX_FRAME_LENGTH * 4);
+        }
+
+        boolean isOpen() {
+            return this.open;
+        }
+
+        void submit(final Transaction transaction) {
+            this.submitted.add(transaction);
+
+            if (this.open) {
+                this.selector.wakeup();
+            } else {
+                // the connection has been closed after the transaction has been added, make sure it is not left
+                // pending
+                failSubmitted("Cannot transact on closed socket");
+            }
+        }
+
+        void shutdown() {
+            this.open = false;
+            this.selector.wakeup();
+
+            try {
+                join(ModbusTcpClient.this.respTimeout + 1000L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            String failureMessage = "Connection closed";
+
+            try {
+                while (this.open) {
+                    moveSubmittedToWaiting();
+                    sendWaiting();
+                    flush();
+
+                    this.selector.select(failExpired());
+
+                    if (this.key.isValid() && this.key.isReadable()) {
+                        receive();
+                    }
+                    this.selector.selectedKeys().clear();
+                }
+            } catch (IOException e) {
+                logger.error("Socket disconnect: {}", e.getMessage());
+                failureMessage = "Socket disconnect: " + e.getMessage();
+            } catch (Exception e) {
+                logger.error("Unexpected exception in Modbus TCP connection", e);
+                failureMessage = "Unexpected failure: " + e.getMessage();
+            } finally {
+                this.open = false;
+                close();
+                failAll(failureMessage);
+            }
+        }
+
+        private void moveSubmittedToWaiting() {
+            Transaction transaction;
+
+            while ((transaction = this.submitted.poll()) != null) {
+                this.waiting.add(transaction);
+            }
+        }
+
+        private void sendWaiting() {
+            while (!this.waiting.isEmpty() && this.inFlight.size() < ModbusTcpClient.this.maxInFlightRequests) {
+                final byte[] adu = this.waiting.peek().request;
+
+                if (this.writeBuffer.remaining() < MBAP_HEADER_LENGTH + adu.length) {
+                    // frames of expired transactions are still waiting to be written
+                    break;
+                }
+
+                final Transaction transaction = this.waiting.poll();
+                final int transactionId = allocateTransactionId();
+
+                this.writeBuffer.putShort((short) transactionId);
+                this.writeBuffer.putShort((short) 0);
+                this.writeBuffer.putShort((short) adu.length);
+                this.writeBuffer.put(adu);
+
+                this.inFlight.put(transactionId, transaction);
+            }
+        }
+
+        private int allocateTransactionId() {
+            int transactionId;
+
+            do {
+                transactionId = this.nextTransactionId;
+                this.nextTransactionId = (this.nextTransactionId + 1) % TRANSACTION_ID_COUNT;
+            } while (this.inFlight.containsKey(transactionId));
+
+            return transactionId;
+        }
+
+        private void flush() throws IOException {
+            if (this.writeBuffer.position() > 0) {
+                this.writeBuffer.flip();
+                this.channel.write(this.writeBuffer);
+                this.writeBuffer.compact();
+            }
+
+            final int interestOps = this.writeBuffer.position() > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE
+                    : SelectionKey.OP_READ;
+
+            if (this.key.interestOps() != interestOps) {
+                this.key.interestOps(interestOps);
+            }
+        }
+
+        private void receive() throws IOException {
+            final int read = this.channel.read(this.readBuffer);
+
+            if (read < 0) {
+                throw new IOException("Connection closed by remote");
+            }
+
+            this.readBuffer.flip();
+
+            while (this.readBuffer.remaining() >= MBAP_HEADER_LENGTH) {
+                final int frameStart = this.readBuffer.position();
+                final int transactionId = this.readBuffer.getShort(frameStart) & 0xffff;
+                final int length = this.readBuffer.getShort(frameStart + 4) & 0xffff;
+
+                if (length < 2 || length > MAX_ADU_LENGTH) {
+                    throw new IOException("Invalid MBAP length " + length);
+                }
+
+                if (this.readBuffer.remaining() < MBAP_HEADER_LENGTH + length) {
+                    break;
+                }
+
+                final byte[] adu = new byte[length];
+                this.readBuffer.position(frameStart + MBAP_HEADER_LENGTH);
+                this.readBuffer.get(adu);
+
+                final Transaction transaction = this.inFlight.remove(transactionId);
+
+                if (transaction != null) {
+                    transaction.complete(adu);
+                } else {
+                    logger.debug("Discarding response for unknown transaction {}", transactionId);
+                }
+            }
+
+            this.readBuffer.compact();
+        }
+
+        /**
+         * Fails the transactions whose deadline has expired.
+         *
+         * @return the time in milliseconds until the next deadline, 0 if there are no pending transactions
+         */
+        private long failExpired() {
+            final long now = System.nanoTime();
+            long nextDeadline = Long.MAX_VALUE;
+
+            for (final Iterator<Transaction> iterator = this.inFlight.values().iterator(); iterator.hasNext();) {
+                final Transaction transaction = iterator.next();
+
+                if (!transaction.hasDeadline) {
+                    continue;
+                }
+
+                if (transaction.deadline - now <= 0) {
+                    iterator.remove();
+                    transaction.failTimeout();
+                } else {
+                    nextDeadline = Math.min(nextDeadline, transaction.deadline - now);
+                }
+            }
+
+            for (final Iterator<Transaction> iterator = this.waiting.iterator(); iterator.hasNext();) {
+                final Transaction transaction = iterator.next();
+
+                if (!transaction.hasDeadline) {
+                    continue;
+                }
+
+                if (transaction.deadline - now <= 0) {
+                    iterator.remove();
+                    transaction.failTimeout();
+                } else {
+                    nextDeadline = Math.min(nextDeadline, transaction.deadline - now);
+                }
+            }
+
+            if (nextDeadline == Long.MAX_VALUE) {
+                return 0;
+            }
+
+            return Math.max(1, TimeUnit.NANOSECONDS.toMillis(nextDeadline));
+        }
+
+        private void close() {
+            try {
+                this.selector.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close selector", e);
+            }
+
+            try {
+                this.channel.close();
+            } catch (IOException e) {
+                logger.error("Error closing TCP: {}", e.getMessage());
+            }
+        }
+
+        private void failAll(final String message) {
+            for (final Transaction transaction : this.inFlight.values()) {
+                transaction.fail(new ModbusProtocolException(ModbusProtocolErrorCode.TRANSACTION_FAILURE, message));
+            }
+            this.inFlight.clear();
+
+            for (final Transaction transaction : this.waiting) {
+                transaction.fail(new ModbusProtocolException(ModbusProtocolErrorCode.TRANSACTION_FAILURE, message));
+            }
+            this.waiting.clear();
+
+            failSubmitted(message);
+        }
+
+        private void failSubmitted(final String message) {
+            Transaction transaction;
+
+            while ((transaction = this.submitted.poll()) != null) {
+                transaction.fail(new ModbusProtocolException(ModbusProtocolErrorCode.TRANSACTION_FAILURE, message));
+            }
+        }
+    }
+
+    private static final class Transaction {
+
+        private final byte[] request;
+        private final boolean hasDeadline;
+        private final long deadline;
+        private final CompletableFuture<byte[]> future = new CompletableFuture<>();
+
+        Transaction(final byte[] request, final boolean hasDeadline, final long deadline) {
+            this.request = request;
+            this.hasDeadline = hasDeadline;
+            this.deadline = deadline;
+        }
+
+        void complete(final byte[] response) {
+            // test modbus id
+            if (response[0] != this.request[0]) {
+                fail(new ModbusProtocolException(ModbusProtocolErrorCode.TRANSACTION_FAILURE,
+                        "incorrect modbus id " + String.format("%02X", response[0])));
+                return;
+            }
+            // test function number
+            if ((response[1] & 0x7f) != this.request[1]) {
+                fail(new ModbusProtocolException(ModbusProtocolErrorCode.TRANSACTION_FAILURE,
+                        "incorrect function number " + String.format("%02X", response[1])));
+                return;
+            }
+            // check for an Exception response
+            if ((response[1] & 0x80) == 0x80) {
+                fail(new ModbusProtocolException(ModbusProtocolErrorCode.TRANSACTION_FAILURE,
+                        "Modbus responds an error = " + (response.length > 2 ? String.format("%02X", response[2]) : "")));
+                return;
+            }
+
+            this.future.complete(response);
+        }
+
+        void failTimeout() {
+            final String failMsg = "Recv timeout";
+            logger.warn(failMsg);
+            fail(new ModbusProtocolException(ModbusProtocolErrorCode.TRANSACTION_FAILURE, failMsg));
+        }
+
+        void fail(final ModbusProtocolException e) {
+            this.future.completeExceptionally(e);
+        }
+    }
+}
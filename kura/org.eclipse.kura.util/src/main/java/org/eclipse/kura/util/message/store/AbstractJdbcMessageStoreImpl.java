@@ -22,11 +22,15 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.kura.KuraStoreException;
 import org.eclipse.kura.data.DataTransportToken;
@@ -34,6 +38,7 @@ import org.eclipse.kura.message.store.StoredMessage;
 import org.eclipse.kura.message.store.provider.MessageStore;
 import org.eclipse.kura.util.jdbc.ConnectionProvider;
 import org.eclipse.kura.util.jdbc.SQLFunction;
+import org.eclipse.kura.util.message.store.GroupCommitBuffer.PendingMessage;
 
 public abstract class AbstractJdbcMessageStoreImpl implements MessageStore {
 
@@ -45,7 +50,15 @@ public abstract class AbstractJdbcMessageStoreImpl implements MessageStore {
     protected final ConnectionProvider connectionProvider;
     protected final Calendar utcCalendar;
 
+    private final AtomicLong messageCount = new AtomicLong();
+    private final Optional<GroupCommitBuffer> groupCommitBuffer;
+
     protected AbstractJdbcMessageStoreImpl(final ConnectionProvider connectionProvider, final String tableName) {
+        this(connectionProvider, tableName, GroupCommitOptions.disabled());
+    }
+
+    protected AbstractJdbcMessageStoreImpl(final ConnectionProvider connectionProvider, final String tableName,
+            final GroupCommitOptions groupCommitOptions) {
         if (tableName == null || tableName.trim().isEmpty()) {
             throw new IllegalArgumentException("Table name cannot be null or empty.");
         }
@@ -54,6 +67,12 @@ public abstract class AbstractJdbcMessageStoreImpl implements MessageStore {
         this.escapedTableName = escapeIdentifier(tableName);
         this.utcCalendar = buildUTCCalendar();
         this.queries = buildSqlMessageStoreQueries();
+
+        if (requireNonNull(groupCommitOptions, "Group commit options cannot be null").isEnabled()) {
+            this.groupCommitBuffer = Optional.of(new GroupCommitBuffer(groupCommitOptions, this::insertMessagesSync));
+        } else {
+            this.groupCommitBuffer = Optional.empty();
+        }
     }
 
     protected abstract JdbcMessageStoreQueries buildSqlMessageStoreQueries();
@@ -74,10 +93,28 @@ public abstract class AbstractJdbcMessageStoreImpl implements MessageStore {
         execute(this.queries.getSqlCreateDroppedOnIndex());
     }
 
+    /**
+     * Initializes the in-memory message count with the number of rows currently in the table. Implementations must
+     * call this method once after the table has been created, the count is then kept up to date by this class.
+     *
+     * @throws KuraStoreException
+     */
+    protected void initMessageCount() throws KuraStoreException {
+        this.messageCount.set(getMessageCountInternal());
+    }
+
     @Override
-    public synchronized int getMessageCount() throws KuraStoreException {
+    public int getMessageCount() throws KuraStoreException {
+
+        return (int) Math.min(Integer.MAX_VALUE, this.messageCount.get());
+    }
 
-        return (int) getMessageCountInternal();
+    protected void onMessagesAdded(final long count) {
+        this.messageCount.addAndGet(count);
+    }
+
+    protected void onMessagesRemoved(final long count) {
+        this.messageCount.updateAndGet(current -> Math.max(0, current - count));
     }
 
     protected long getMessageCountInternal() throws KuraStoreException {
@@ -93,44 +130,98 @@ public abstract class AbstractJdbcMessageStoreImpl implements MessageStore {
         }
     }
 
+    /**
+     * Stores a message. If group commit is enabled, the message is inserted together with the ones stored concurrently
+     * by other threads, otherwise it is inserted immediately holding the lock of this object.
+     *
+     * @return the identifier of the new message
+     * @throws KuraStoreException
+     */
+    protected long storeMessage(String topic, byte[] payload, int qos, boolean retain, int priority)
+            throws KuraStoreException {
+        validate(topic);
+
+        if (this.groupCommitBuffer.isPresent()) {
+            return this.groupCommitBuffer.get().store(new PendingMessage(topic, payload, qos, retain, priority));
+        }
+
+        synchronized (this) {
+            return storeInternal(topic, payload, qos, retain, priority);
+        }
+    }
+
     protected long storeInternal(String topic, byte[] payload, int qos, boolean retain, int priority)
             throws KuraStoreException {
         validate(topic);
 
+        return insertMessages(Collections.singletonList(new PendingMessage(topic, payload, qos, retain, priority)))
+                .get(0);
+    }
+
+    private synchronized List<Long> insertMessagesSync(final List<PendingMessage> messages)
+            throws KuraStoreException {
+        return insertMessages(messages);
+    }
+
+    private List<Long> insertMessages(final List<PendingMessage> messages) throws KuraStoreException {
+
         final Timestamp now = new Timestamp(new Date().getTime());
 
         return this.connectionProvider.withConnection(c -> {
 
-            final long result;
-
-            try (PreparedStatement pstmt = c.prepareStatement(this.queries.getSqlStore(),
-                    new String[] { "id" })) {
-
-                pstmt.setString(1, topic);
-                pstmt.setInt(2, qos);
-                pstmt.setBoolean(3, retain);
-                pstmt.setTimestamp(4, now, this.utcCalendar);
-                pstmt.setTimestamp(5, null);
-                pstmt.setInt(6, -1);
-                pstmt.setTimestamp(7, null);
-                pstmt.setBytes(8, payload);
-                pstmt.setInt(9, priority);
-                pstmt.setString(10, null);
-                pstmt.setTimestamp(11, null);
-                pstmt.execute();
-
-                result = getFirstColumnValue(pstmt::getGeneratedKeys, ResultSet::getLong);
-            }
+            final List<Long> result = new ArrayList<>(messages.size());
+            final boolean isTransactionRequired = messages.size() > 1 && c.getAutoCommit();
 
-            if (isExplicitCommitEnabled()) {
-                c.commit();
+            try (PreparedStatement pstmt = c.prepareStatement(this.queries.getSqlStore(), new String[] { "id" })) {
+
+                if (isTransactionRequired) {
+                    c.setAutoCommit(false);
+                }
+
+                for (final PendingMessage message : messages) {
+                    setStoreParameters(pstmt, message.getTopic(), message.getPayload(), message.getQos(),
+                            message.isRetain(), message.getPriority(), now);
+                    pstmt.execute();
+
+                    result.add(getFirstColumnValue(pstmt::getGeneratedKeys, ResultSet::getLong));
+                }
+
+                if (isTransactionRequired || isExplicitCommitEnabled()) {
+                    c.commit();
+                }
+            } catch (final SQLException e) {
+                if (isTransactionRequired) {
+                    c.rollback();
+                }
+                throw e;
+            } finally {
+                if (isTransactionRequired) {
+                    c.setAutoCommit(true);
+                }
             }
 
+            onMessagesAdded(result.size());
+
             return result;
         }, "Cannot store message");
 
     }
 
+    protected void setStoreParameters(final PreparedStatement pstmt, String topic, byte[] payload, int qos,
+            boolean retain, int priority, final Timestamp now) throws SQLException {
+        pstmt.setString(1, topic);
+        pstmt.setInt(2, qos);
+        pstmt.setBoolean(3, retain);
+        pstmt.setTimestamp(4, now, this.utcCalendar);
+        pstmt.setTimestamp(5, null);
+        pstmt.setInt(6, -1);
+        pstmt.setTimestamp(7, null);
+        pstmt.setBytes(8, payload);
+        pstmt.setInt(9, priority);
+        pstmt.setString(10, null);
+        pstmt.setTimestamp(11, null);
+    }
+
     @Override
     public Optional<StoredMessage> get(int msgId) throws KuraStoreException {
 
@@ -163,6 +254,34 @@ public abstract class AbstractJdbcMessageStoreImpl implements MessageStore {
                 "Cannot get message next message");
     }
 
+    @Override
+    public List<StoredMessage> getNextMessages(int maxCount) throws KuraStoreException {
+
+        return getNextMessages(maxCount, rs -> buildStoredMessageBuilder(rs, true).build());
+    }
+
+    protected List<StoredMessage> getNextMessages(final int maxCount,
+            final SQLFunction<ResultSet, StoredMessage> messageBuilder) throws KuraStoreException {
+
+        if (maxCount <= 0) {
+            return Collections.emptyList();
+        }
+
+        return this.connectionProvider.withPreparedStatement(this.queries.getSqlGetNextMessages(), (c, stmt) -> {
+            stmt.setInt(1, maxCount);
+
+            final List<StoredMessage> messages = new ArrayList<>();
+
+            try (final ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    messages.add(messageBuilder.call(rs));
+                }
+            }
+
+            return messages;
+        }, "Cannot get next messages");
+    }
+
     @Override
     public void markAsPublished(int msgId, DataTransportToken token) throws KuraStoreException {
         final Timestamp now = new Timestamp(new Date().getTime());
@@ -190,6 +309,67 @@ public abstract class AbstractJdbcMessageStoreImpl implements MessageStore {
         updateTimestamp(this.queries.getSqlSetPublishedQoS0(), msgId);
     }
 
+    @Override
+    public void markAsPublished(final Map<Integer, Optional<DataTransportToken>> messages)
+            throws KuraStoreException {
+
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        final Timestamp now = new Timestamp(new Date().getTime());
+
+        this.connectionProvider.withConnection(c -> {
+
+            final boolean autoCommit = c.getAutoCommit();
+
+            try (final PreparedStatement qos0Stmt = c.prepareStatement(this.queries.getSqlSetPublishedQoS0());
+                    final PreparedStatement qos1Stmt = c.prepareStatement(this.queries.getSqlSetPublishedQoS1())) {
+
+                c.setAutoCommit(false);
+
+                boolean hasQos0 = false;
+                boolean hasQos1 = false;
+
+                for (final Entry<Integer, Optional<DataTransportToken>> entry : messages.entrySet()) {
+                    final Optional<DataTransportToken> token = entry.getValue();
+
+                    if (token.isPresent()) {
+                        qos1Stmt.setTimestamp(1, now, this.utcCalendar);
+                        qos1Stmt.setInt(2, token.get().getMessageId());
+                        qos1Stmt.setString(3, token.get().getSessionId());
+                        qos1Stmt.setInt(4, entry.getKey());
+                        qos1Stmt.addBatch();
+                        hasQos1 = true;
+                    } else {
+                        qos0Stmt.setTimestamp(1, now, this.utcCalendar);
+                        qos0Stmt.setInt(2, entry.getKey());
+                        qos0Stmt.addBatch();
+                        hasQos0 = true;
+                    }
+                }
+
+                if (hasQos0) {
+                    qos0Stmt.executeBatch();
+                }
+
+                if (hasQos1) {
+                    qos1Stmt.executeBatch();
+                }
+
+                c.commit();
+            } catch (final SQLException e) {
+                c.rollback();
+                throw e;
+            } finally {
+                c.setAutoCommit(autoCommit);
+            }
+
+            return null;
+
+        }, "Cannot update timestamp");
+    }
+
     @Override
     public void markAsConfirmed(int msgId) throws KuraStoreException {
         updateTimestamp(this.queries.getSqlSetConfirmed(), msgId);
@@ -237,11 +417,11 @@ public abstract class AbstractJdbcMessageStoreImpl implements MessageStore {
 
     protected void deleteStaleMessages(final Object timestamp) throws KuraStoreException {
 
-        execute(this.queries.getSqlDeleteDroppedMessages(), timestamp);
+        onMessagesRemoved(executeUpdate(this.queries.getSqlDeleteDroppedMessages(), timestamp));
 
-        execute(this.queries.getSqlDeleteConfirmedMessages(), timestamp);
+        onMessagesRemoved(executeUpdate(this.queries.getSqlDeleteConfirmedMessages(), timestamp));
 
-        execute(this.queries.getSqlDeletePublishedMessages(), timestamp);
+        onMessagesRemoved(executeUpdate(this.queries.getSqlDeletePublishedMessages(), timestamp));
     }
 
     protected void updateTimestamp(String sql, Integer... msgIds) throws KuraStoreException {
@@ -294,6 +474,23 @@ public abstract class AbstractJdbcMessageStoreImpl implements MessageStore {
         }, "Cannot execute query");
     }
 
+    protected int executeUpdate(String sql, Object... params) throws KuraStoreException {
+        return this.connectionProvider.withPreparedStatement(sql, (c, stmt) -> {
+
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(1 + i, params[i]);
+            }
+
+            final int result = stmt.executeUpdate();
+
+            if (isExplicitCommitEnabled()) {
+                c.commit();
+            }
+            return result;
+
+        }, "Cannot execute update");
+    }
+
     protected List<StoredMessage> buildStoredMessagesNoPayload(ResultSet rs) throws SQLException {
         List<StoredMessage> messages = new ArrayList<>();
         while (rs.next()) {
@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.util.message.store;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.kura.KuraStoreException;
+
+/**
+ * Coalesces concurrent store requests into a single transaction.
+ * <p>
+ * The first caller that finds no pending batch becomes the leader: it waits until either the window expires or the
+ * maximum batch size is reached, then it inserts all the messages received in the meantime. The other callers simply
+ * wait for the result of the batch they joined. If the batch insert fails, messages are retried one by one, so that a
+ * failure is only reported to the callers whose message could not be stored.
+ */
+class GroupCommitBuffer {
+
+    private final long windowNanos;
+    private final int maxMessages;
+    private final BatchInsert batchInsert;
+
+    private final Lock lock = new ReentrantLock();
+    private final Condition batchFull = this.lock.newCondition();
+
+    private List<PendingMessage> pending = new ArrayList<>();
+    private boolean hasLeader;
+
+    GroupCommitBuffer(final GroupCommitOptions options, final BatchInsert batchInsert) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(options.getWindowMillis());
+        this.maxMessages = options.getMaxMessages();
+        this.batchInsert = batchInsert;
+    }
+
+    long store(final PendingMessage message) throws KuraStoreException {
+
+        final List<PendingMessage> batch;
+
+        this.lock.lock();
+        try {
+            this.pending.add(message);
+
+            if (this.hasLeader) {
+                if (this.pending.size() >= this.maxMessages) {
+                    this.batchFull.signal();
+                }
+                batch = null;
+            } else {
+                this.hasLeader = true;
+                awaitBatch();
+                batch = this.pending;
+                this.pending = new ArrayList<>();
+                this.hasLeader = false;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+
+        if (batch != null) {
+            insert(batch);
+        }
+
+        return message.awaitId();
+    }
+
+    private void awaitBatch() {
+        long remainingNanos = this.windowNanos;
+
+        while (this.pending.size() < this.maxMessages && remainingNanos > 0) {
+            try {
+                remainingNanos = this.batchFull.awaitNanos(remainingNanos);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void insert(final List<PendingMessage> batch) {
+        try {
+            final List<Long> ids = this.batchInsert.insert(batch);
+
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).complete(ids.get(i));
+            }
+        } catch (final Exception e) {
+            if (batch.size() == 1) {
+                batch.get(0).fail(e);
+                return;
+            }
+
+            for (final PendingMessage message : batch) {
+                insertSingle(message);
+            }
+        }
+    }
+
+    private void insertSingle(final PendingMessage message) {
+        try {
+            message.complete(this.batchInsert.insert(Collections.singletonList(message)).get(0));
+        } catch (final Exception e) {
+            message.fail(e);
+        }
+    }
+
+    @FunctionalInterface
+    interface BatchInsert {
+
+        public List<Long> insert(final List<PendingMessage> messages) throws KuraStoreException;
+    }
+
+    static class PendingMessage {
+
+        private final String topic;
+        private final byte[] payload;
+        private final int qos;
+        private final boolean retain;
+        private final int priority;
+        private final CompletableFuture<Long> id = new CompletableFuture<>();
+
+        PendingMessage(final String topic, final byte[] payload, final int qos, final boolean retain,
+                final int priority) {
+            this.topic = topic;
+            this.payload = payload;
+            this.qos = qos;
+            this.retain = retain;
+            this.priority = priority;
+        }
+
+        String getTopic() {
+            return this.topic;
+        }
+
+        byte[] getPayload() {
+            return this.payload;
+        }
+
+        int getQos() {
+            return this.qos;
+        }
+
+        boolean isRetain() {
+            return this.retain;
+        }
+
+        int getPriority() {
+            return this.priority;
+        }
+
+        private void complete(final long value) {
+            this.id.complete(value);
+        }
+
+        private void fail(final Exception e) {
+            this.id.completeExceptionally(e);
+        }
+
+        private long awaitId() throws KuraStoreException {
+            try {
+                return this.id.join();
+            } catch (final CompletionException e) {
+                final Throwable cause = e.getCause();
+
+                if (cause instanceof KuraStoreException) {
+                    throw (KuraStoreException) cause;
+                }
+
+                throw new KuraStoreException(cause, "Cannot store message");
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.util.message.store;
+
+/**
+ * Configures the group commit mode of an {@link AbstractJdbcMessageStoreImpl}. If enabled, concurrent calls to
+ * {@code store()} received within a time window are inserted in a single transaction.
+ */
+public final class GroupCommitOptions {
+
+    private static final GroupCommitOptions DISABLED = new GroupCommitOptions(0, 1);
+
+    private final long windowMillis;
+    private final int maxMessages;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param windowMillis
+     *            the maximum time in milliseconds a message can wait for other messages before being committed, a
+     *            value less than or equal to 0 disables group commit.
+     * @param maxMessages
+     *            the maximum number of messages committed together, a value less than or equal to 1 disables group
+     *            commit.
+     */
+    public GroupCommitOptions(final long windowMillis, final int maxMessages) {
+        this.windowMillis = windowMillis;
+        this.maxMessages = maxMessages;
+    }
+
+    public static GroupCommitOptions disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return this.windowMillis > 0 && this.maxMessages > 1;
+    }
+
+    public long getWindowMillis() {
+        return this.windowMillis;
+    }
+
+    public int getMaxMessages() {
+        return this.maxMessages;
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2023, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,7 @@ package org.eclipse.kura.util.wire.store;
 import static java.util.Objects.isNull;
 import static java.util.Objects.requireNonNull;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
@@ -36,6 +37,7 @@ import org.slf4j.LoggerFactory;
 public abstract class AbstractJdbcQueryableWireRecordStoreImpl {
 
     private static final Logger logger = LoggerFactory.getLogger(AbstractJdbcQueryableWireRecordStoreImpl.class);
+    private static final int MAX_FETCH_SIZE = 1000;
 
     private final ConnectionProvider provider;
 
@@ -55,9 +57,12 @@ public abstract class AbstractJdbcQueryableWireRecordStoreImpl {
                 try (final Statement stmt = c.createStatement();
                         final ResultSet rset = stmt.executeQuery(query)) {
                     final List<WireRecord> dataRecords = new ArrayList<>();
+                    final ResultSetMetaData rmet = rset.getMetaData();
+                    final String[] fieldNames = getFieldNames(rmet);
 
                     while (rset.next()) {
-                        final WireRecord wireRecord = new WireRecord(convertSQLRowToWireRecord(rset));
+                        final WireRecord wireRecord = new WireRecord(
+                                convertSQLRowToWireRecord(rset, rmet, fieldNames));
                         dataRecords.add(wireRecord);
                     }
 
@@ -70,16 +75,138 @@ public abstract class AbstractJdbcQueryableWireRecordStoreImpl {
 
     }
 
+    /**
+     * Performs the given query and returns at most {@code limit} records with a {@code keyProperty} column value
+     * greater than {@code lastKey}, sorted by that column. The query is wrapped in a statement that filters and
+     * sorts by the key, so that every page is read with an indexed lookup instead of scanning the previous pages.
+     * For this reason the query must not contain a top level LIMIT, OFFSET, FETCH or ORDER BY clause: the key
+     * filter would be applied to the limited result, and the ordering would be replaced by the key one.
+     */
+    public List<WireRecord> performQuery(final String query, final String keyProperty, final TypedValue<?> lastKey,
+            final int limit) throws KuraStoreException {
+        if (keyProperty == null || keyProperty.isEmpty() || limit <= 0) {
+            throw new IllegalArgumentException("Key property must not be empty and limit must be positive");
+        }
+
+        final Optional<String> unsupportedClause = findPagingUnsupportedClause(query);
+
+        if (unsupportedClause.isPresent()) {
+            throw new KuraStoreException("Paged queries cannot contain a top level " + unsupportedClause.get()
+                    + " clause, the records are sorted by " + keyProperty + " and limited by the page size");
+        }
+
+        final String pageQuery = buildPageQuery(query, keyProperty, lastKey != null);
+
+        try {
+            return provider.withConnection(c -> {
+                try (final PreparedStatement stmt = c.prepareStatement(pageQuery)) {
+                    stmt.setMaxRows(limit);
+                    stmt.setFetchSize(Math.min(limit, MAX_FETCH_SIZE));
+
+                    if (lastKey != null) {
+                        stmt.setObject(1, lastKey.getValue());
+                    }
+
+                    try (final ResultSet rset = stmt.executeQuery()) {
+                        final ResultSetMetaData rmet = rset.getMetaData();
+                        final String[] fieldNames = getFieldNames(rmet);
+                        final List<WireRecord> dataRecords = new ArrayList<>();
+
+                        while (dataRecords.size() < limit && rset.next()) {
+                            dataRecords.add(new WireRecord(convertSQLRowToWireRecord(rset, rmet, fieldNames)));
+                        }
+
+                        return dataRecords;
+                    }
+                }
+            });
+        } catch (final Exception e) {
+            throw new KuraStoreException(e, null);
+        }
+    }
+
+    private static String buildPageQuery(final String query, final String keyProperty, final boolean hasLastKey) {
+        String innerQuery = query.trim();
+
+        while (innerQuery.endsWith(";")) {
+            innerQuery = innerQuery.substring(0, innerQuery.length() - 1).trim();
+        }
+
+        final String key = "\"" + keyProperty.replace("\"", "\"\"") + "\"";
+
+        // the new line terminates a trailing line comment of the query
+        final StringBuilder builder = new StringBuilder("SELECT * FROM (").append(innerQuery).append("\n) PAGE_QUERY");
+
+        if (hasLastKey) {
+            builder.append(" WHERE ").append(key).append(" > ?");
+        }
+
+        return builder.append(" ORDER BY ").append(key).append(" ASC").toString();
+    }
+
+    /*
+     * Looks for the clauses that are not compatible with the paging wrapper outside of parentheses, string
+     * literals, quoted identifiers and comments.
+     */
+    private static Optional<String> findPagingUnsupportedClause(final String query) {
+        final int length = query.length();
+        int depth = 0;
+        String previousWord = "";
+        int i = 0;
+
+        while (i < length) {
+            final char c = query.charAt(i);
+
+            if (c == '\'' || c == '"' || c == '`') {
+                final int end = query.indexOf(c, i + 1);
+                i = end < 0 ? length : end + 1;
+            } else if (query.startsWith("--", i)) {
+                final int end = query.indexOf('\n', i);
+                i = end < 0 ? length : end + 1;
+            } else if (query.startsWith("/*", i)) {
+                final int end = query.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else if (c == '(') {
+                depth++;
+                i++;
+            } else if (c == ')') {
+                depth--;
+                i++;
+            } else if (Character.isLetter(c) || c == '_') {
+                int end = i + 1;
+                while (end < length && (Character.isLetterOrDigit(query.charAt(end)) || query.charAt(end) == '_')) {
+                    end++;
+                }
+                final String word = query.substring(i, end).toUpperCase();
+
+                if (depth == 0) {
+                    if ("LIMIT".equals(word) || "OFFSET".equals(word) || "FETCH".equals(word)) {
+                        return Optional.of(word);
+                    } else if ("ORDER".equals(previousWord) && "BY".equals(word)) {
+                        return Optional.of("ORDER BY");
+                    }
+                    previousWord = word;
+                }
+                i = end;
+            } else {
+                i++;
+            }
+        }
+
+        return Optional.empty();
+    }
+
     protected Map<String, TypedValue<?>> convertSQLRowToWireRecord(final ResultSet rset)
             throws SQLException {
-        final Map<String, TypedValue<?>> wireRecordProperties = new HashMap<>();
         final ResultSetMetaData rmet = rset.getMetaData();
-        for (int columnIndex = 1; columnIndex <= rmet.getColumnCount(); columnIndex++) {
-            String fieldName = rmet.getColumnLabel(columnIndex);
+        return convertSQLRowToWireRecord(rset, rmet, getFieldNames(rmet));
+    }
 
-            if (isNull(fieldName)) {
-                fieldName = getWireRecordPropertyName(rmet, columnIndex);
-            }
+    private Map<String, TypedValue<?>> convertSQLRowToWireRecord(final ResultSet rset, final ResultSetMetaData rmet,
+            final String[] fieldNames) throws SQLException {
+        final Map<String, TypedValue<?>> wireRecordProperties = new HashMap<>(fieldNames.length * 2);
+        for (int columnIndex = 1; columnIndex <= fieldNames.length; columnIndex++) {
+            final String fieldName = fieldNames[columnIndex - 1];
 
             final Optional<Object> dbExtractedData = extractColumnValue(rset, rmet, columnIndex);
 
@@ -98,6 +225,20 @@ public abstract class AbstractJdbcQueryableWireRecordStoreImpl {
         return wireRecordProperties;
     }
 
+    private String[] getFieldNames(final ResultSetMetaData rmet) throws SQLException {
+        final String[] fieldNames = new String[rmet.getColumnCount()];
+        for (int columnIndex = 1; columnIndex <= fieldNames.length; columnIndex++) {
+            String fieldName = rmet.getColumnLabel(columnIndex);
+
+            if (isNull(fieldName)) {
+                fieldName = getWireRecordPropertyName(rmet, columnIndex);
+            }
+
+            fieldNames[columnIndex - 1] = fieldName;
+        }
+        return fieldNames;
+    }
+
     protected String getWireRecordPropertyName(final ResultSetMetaData resultSetMetaData, final int columnIndex)
             throws SQLException {
         return resultSetMetaData.getColumnName(columnIndex);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2023, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -20,8 +20,11 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -50,8 +53,22 @@ public abstract class AbstractJdbcWireRecordStoreImpl implements WireRecordStore
     protected final ConnectionProvider connectionProvider;
     protected final JdbcWireRecordStoreQueries queries;
 
+    private static final int MAX_CACHED_INSERT_QUERIES = 32;
+
     private Set<ConnectionListener> connectionListeners;
 
+    private Map<String, String> columnTypesCache;
+    private final Map<List<String>, String> insertQueryCache = new LinkedHashMap<List<String>, String>(16, 0.75f,
+            true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<List<String>, String> eldest) {
+            return size() > MAX_CACHED_INSERT_QUERIES;
+        }
+    };
+
     protected AbstractJdbcWireRecordStoreImpl(final ConnectionProvider connectionProvider, final String tableName) {
         if (tableName == null || tableName.trim().isEmpty()) {
             throw new IllegalArgumentException("Table name cannot be null or empty.");
@@ -125,15 +142,15 @@ public abstract class AbstractJdbcWireRecordStoreImpl implements WireRecordStore
     public synchronized void insertRecords(final List<WireRecord> records) throws KuraStoreException {
         this.connectionProvider.withConnection(c -> {
 
-            for (final WireRecord r : records) {
+            try (final RecordBatch batch = new RecordBatch(c)) {
                 try {
-                    createColumns(c, r);
-                    insertRecord(c, r);
+                    batch.insert(records);
                 } catch (final SQLException e) {
+                    batch.rollback();
                     logger.info("Reconciling table and columns");
+                    this.columnTypesCache = null;
                     execute(c, this.queries.getSqlCreateTable());
-                    createColumns(c, r);
-                    insertRecord(c, r);
+                    batch.insert(records);
                 }
             }
 
@@ -148,7 +165,7 @@ public abstract class AbstractJdbcWireRecordStoreImpl implements WireRecordStore
 
     protected void createColumns(final Connection c, final WireRecord wireRecord) throws SQLException {
 
-        final Map<String, String> columnTypes = probeColumnTypes(c);
+        final Map<String, String> columnTypes = getColumnTypes(c);
 
         for (Entry<String, TypedValue<?>> entry : wireRecord.getProperties().entrySet()) {
 
@@ -173,6 +190,7 @@ public abstract class AbstractJdbcWireRecordStoreImpl implements WireRecordStore
 
             logger.debug("creating new column: {} {}", name, mappedType.get());
             execute(c, MessageFormat.format(queries.getSqlAddColumn(), escapedColName, mappedType.get()));
+            columnTypes.put(escapedColName, mappedType.get());
 
         } else {
             final String actualColumnType = columnTypes.get(escapedColName);
@@ -183,8 +201,42 @@ public abstract class AbstractJdbcWireRecordStoreImpl implements WireRecordStore
 
                 execute(c, MessageFormat.format(queries.getSqlDropColumn(), escapedColName));
                 execute(c, MessageFormat.format(queries.getSqlAddColumn(), escapedColName, mappedType.get()));
+                columnTypes.put(escapedColName, mappedType.get());
+            }
+        }
+    }
+
+    /**
+     * Returns the column types of the table, probing them from the database metadata only the first time or after
+     * that the cached ones have been discarded because of an insert failure. The returned map is updated when
+     * columns are created or changed by this store.
+     */
+    private Map<String, String> getColumnTypes(final Connection c) throws SQLException {
+        if (this.columnTypesCache == null) {
+            this.columnTypesCache = probeColumnTypes(c);
+        }
+
+        return this.columnTypesCache;
+    }
+
+    private boolean isSchemaUpToDate(final Connection c, final WireRecord wireRecord) throws SQLException {
+        final Map<String, String> columnTypes = getColumnTypes(c);
+
+        for (final Entry<String, TypedValue<?>> entry : wireRecord.getProperties().entrySet()) {
+            final Optional<String> mappedType = getMappedSqlType(entry.getValue());
+
+            if (!mappedType.isPresent()) {
+                continue;
+            }
+
+            final String actualType = columnTypes.get(escapeIdentifier(entry.getKey()));
+
+            if (actualType == null || !isCorrectColumnType(entry.getValue(), mappedType.get(), actualType)) {
+                return false;
             }
         }
+
+        return true;
     }
 
     protected boolean isCorrectColumnType(final TypedValue<?> value, final String mappedType, final String actualType) {
@@ -248,6 +300,10 @@ public abstract class AbstractJdbcWireRecordStoreImpl implements WireRecordStore
 
     }
 
+    private String getInsertQuerySql(final List<String> columns, final Map<String, TypedValue<?>> properties) {
+        return this.insertQueryCache.computeIfAbsent(columns, k -> buildInsertQuerySql(properties));
+    }
+
     protected String buildInsertQuerySql(final Map<String, TypedValue<?>> properties) {
         final StringBuilder sbCols = new StringBuilder();
         final StringBuilder sbVals = new StringBuilder();
@@ -281,7 +337,9 @@ public abstract class AbstractJdbcWireRecordStoreImpl implements WireRecordStore
         } else if (value instanceof byte[]) {
             stmt.setBytes(index, (byte[]) value);
         } else {
-            logger.warn("Unsupported value type {}", value.getClass());
+            // the statement might be reused for a batch, make sure that the value of the previous record is not kept
+            logger.warn("Unsupported value type {}", value == null ? null : value.getClass());
+            stmt.setNull(index, Types.NULL);
         }
     }
 
@@ -310,4 +368,119 @@ public abstract class AbstractJdbcWireRecordStoreImpl implements WireRecordStore
         return false;
     }
 
+    /**
+     * Inserts a list of records in a single transaction using JDBC batches. Consecutive records with the same set of
+     * columns are added to the same batch, a prepared statement is created for each column set and reused for the
+     * whole list. The pending batch is flushed and committed before changing the table schema and when the list
+     * has been fully processed.
+     */
+    private class RecordBatch implements AutoCloseable {
+
+        private final Connection connection;
+        private final boolean autoCommit;
+        private final Map<List<String>, PreparedStatement> statements = new HashMap<>();
+
+        private PreparedStatement pendingStatement;
+        private int pendingCount;
+        private int committedCount;
+
+        RecordBatch(final Connection connection) throws SQLException {
+            this.connection = connection;
+            this.autoCommit = connection.getAutoCommit();
+
+            if (this.autoCommit) {
+                connection.setAutoCommit(false);
+            }
+        }
+
+        void insert(final List<WireRecord> records) throws SQLException {
+            logger.debug("Storing data into table {}...", escapedTableName);
+
+            for (int i = this.committedCount; i < records.size(); i++) {
+                final WireRecord wireRecord = records.get(i);
+
+                if (!isSchemaUpToDate(this.connection, wireRecord)) {
+                    commit(i);
+                    createColumns(this.connection, wireRecord);
+                    this.connection.commit();
+                }
+
+                add(wireRecord);
+            }
+
+            commit(records.size());
+
+            logger.debug("Stored {} records", records.size());
+        }
+
+        void rollback() throws SQLException {
+            this.connection.rollback();
+            this.pendingStatement = null;
+            this.pendingCount = 0;
+            closeStatements();
+        }
+
+        private void add(final WireRecord wireRecord) throws SQLException {
+            final Map<String, TypedValue<?>> properties = wireRecord.getProperties();
+            final List<String> columns = new ArrayList<>(properties.keySet());
+
+            PreparedStatement statement = this.statements.get(columns);
+
+            if (statement == null) {
+                statement = this.connection.prepareStatement(getInsertQuerySql(columns, properties));
+                this.statements.put(columns, statement);
+            }
+
+            if (statement != this.pendingStatement) {
+                flush();
+                this.pendingStatement = statement;
+            }
+
+            statement.setLong(1, System.currentTimeMillis());
+
+            int i = 2;
+
+            for (final TypedValue<?> value : properties.values()) {
+                setParameterValue(statement, i, value.getValue());
+                i++;
+            }
+
+            statement.addBatch();
+            this.pendingCount++;
+        }
+
+        private void flush() throws SQLException {
+            if (this.pendingStatement != null && this.pendingCount > 0) {
+                this.pendingStatement.executeBatch();
+            }
+
+            this.pendingCount = 0;
+        }
+
+        private void commit(final int processedCount) throws SQLException {
+            flush();
+            this.connection.commit();
+            this.committedCount = processedCount;
+        }
+
+        private void closeStatements() throws SQLException {
+            for (final PreparedStatement statement : this.statements.values()) {
+                statement.close();
+            }
+
+            this.statements.clear();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                closeStatements();
+            } finally {
+                if (this.autoCommit) {
+                    this.connection.setAutoCommit(true);
+                }
+            }
+        }
+    }
+
 }
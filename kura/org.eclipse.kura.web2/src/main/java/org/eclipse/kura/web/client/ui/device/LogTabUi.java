@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2019, 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2019, 2024 Eurotech and/or its affiliates and others
  *
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -80,6 +80,8 @@ public class LogTabUi extends Composite {
     @UiField
     ListBox logProviderListBox;
     @UiField
+    ListBox logPriorityListBox;
+    @UiField
     CheckBox showStackTraceCheckbox;
     @UiField
     CheckBox showMoreInfoCheckbox;
@@ -87,6 +89,7 @@ public class LogTabUi extends Composite {
     Button openNewWindow;
 
     private static final int CACHE_SIZE_LIMIT = 1500;
+    private static final String[] LOG_PRIORITIES = { "TRACE", "DEBUG", "INFO", "WARN", "ERROR" };
     private final LinkedList<GwtLogEntry> logs = new LinkedList<>();
     private boolean hasLogProvider = false;
     private boolean autoFollow = true;
@@ -162,6 +165,16 @@ public class LogTabUi extends Composite {
 
         this.showStackTraceCheckbox.setValue(true);
         this.showMoreInfoCheckbox.setValue(false);
+        for (String priority : LOG_PRIORITIES) {
+            this.logPriorityListBox.addItem(priority, priority);
+        }
+        this.logPriorityListBox.addChangeHandler(changeEvent -> {
+            // the entries are filtered by the server, the ones already received are requested again
+            LogTabUi.this.logs.clear();
+            displayLogs();
+            LogPollService.setFilter(getMinimumPriority(), null);
+        });
+
         this.showStackTraceCheckbox.addClickHandler(click -> displayLogs());
         this.showMoreInfoCheckbox.addClickHandler(click -> displayLogs());
 
@@ -271,6 +284,11 @@ public class LogTabUi extends Composite {
         }
     }
 
+    private String getMinimumPriority() {
+        // the lowest priority does not need filtering
+        return this.logPriorityListBox.getSelectedIndex() > 0 ? this.logPriorityListBox.getSelectedValue() : null;
+    }
+
     private void hideLogSection() {
         this.hasLogProvider = false;
         this.deviceLogsPanel.setVisible(false);
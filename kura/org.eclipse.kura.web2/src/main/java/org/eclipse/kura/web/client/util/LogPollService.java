@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ * Copyright (c) 2021, 2024 Eurotech and/or its affiliates and others
  *
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -45,6 +45,9 @@ public class LogPollService {
     private int rpcCount = 0;
 
     private int lastReadEntryId = 0;
+    private String minimumPriority;
+    private String syslogIdentifier;
+    private int filterVersion = 0;
 
     private LogPollService() {
         ((ServiceDefTarget) this.gwtLogService).setRpcRequestBuilder(new TimeoutRequestBuilder());
@@ -58,6 +61,26 @@ public class LogPollService {
         stopResendTimer();
     }
 
+    /**
+     * Sets the filter applied by the server to the polled entries. Entries are polled again from the beginning of the
+     * server cache, and the responses to requests issued with the previous filter are discarded.
+     *
+     * @param minimumPriority
+     *            the lowest priority to receive, or {@code null} to receive all the entries
+     * @param syslogIdentifier
+     *            the syslog identifier of the entries to receive, or {@code null} to receive all the entries
+     */
+    public static void setFilter(String minimumPriority, String syslogIdentifier) {
+        instance.minimumPriority = minimumPriority;
+        instance.syslogIdentifier = syslogIdentifier;
+        instance.filterVersion++;
+        instance.lastReadEntryId = 0;
+
+        if (instance.resendTimer != null) {
+            startResendTimer(RESEND_DELAY);
+        }
+    }
+
     public static void subscribe(LogListener listener) {
         instance.listeners.add(listener);
     }
@@ -88,7 +111,8 @@ public class LogPollService {
 
             @Override
             public void run() {
-                instance.gwtLogService.readLogs(instance.lastReadEntryId, instance.eventCallback);
+                instance.gwtLogService.readLogs(instance.lastReadEntryId, instance.minimumPriority,
+                        instance.syslogIdentifier, instance.new EventCallback(instance.filterVersion));
             }
         };
         instance.resendTimer.schedule(timeout);
@@ -102,10 +126,21 @@ public class LogPollService {
         instance.resendTimer = null;
     }
 
-    private final AsyncCallback<List<GwtLogEntry>> eventCallback = new AsyncCallback<List<GwtLogEntry>>() {
+    private class EventCallback implements AsyncCallback<List<GwtLogEntry>> {
+
+        private final int requestFilterVersion;
+
+        EventCallback(int requestFilterVersion) {
+            this.requestFilterVersion = requestFilterVersion;
+        }
 
         @Override
         public void onFailure(Throwable caught) {
+            if (this.requestFilterVersion != LogPollService.instance.filterVersion) {
+                // a request with the new filter has already been scheduled
+                return;
+            }
+
             if (caught instanceof StatusCodeException) {
                 final StatusCodeException statusCodeException = (StatusCodeException) caught;
                 if (statusCodeException.getStatusCode() == 401) {
@@ -118,6 +153,10 @@ public class LogPollService {
 
         @Override
         public void onSuccess(List<GwtLogEntry> result) {
+            if (this.requestFilterVersion != LogPollService.instance.filterVersion) {
+                return;
+            }
+
             LogPollService.this.logger.log(Level.INFO,
                     () -> "RPC successful. Count: " + LogPollService.instance.rpcCount++);
 
@@ -138,5 +177,5 @@ public class LogPollService {
 
             startResendTimer(delay);
         }
-    };
+    }
 }
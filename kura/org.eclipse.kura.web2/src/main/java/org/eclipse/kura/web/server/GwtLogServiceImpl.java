@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2021, 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2021, 2024 Eurotech and/or its affiliates and others
  *
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -36,7 +36,9 @@ public class GwtLogServiceImpl extends OsgiRemoteServiceServlet implements GwtLo
     private static final long serialVersionUID = 1L;
     private static final Logger logger = LoggerFactory.getLogger(GwtLogServiceImpl.class);
 
-    private static final LogEntriesCache cache = new LogEntriesCache();
+    private static final int MAX_CACHE_SIZE = 1000;
+
+    private static final LogEntriesCache cache = new LogEntriesCache(MAX_CACHE_SIZE);
     private static final List<String> registeredLogProviders = new LinkedList<>();
 
     @Override
@@ -50,7 +52,13 @@ public class GwtLogServiceImpl extends OsgiRemoteServiceServlet implements GwtLo
 
     @Override
     public List<GwtLogEntry> readLogs(int fromId) throws GwtKuraException {
-        return cache.getLogs(fromId);
+        return cache.getLogs(fromId, entry -> true);
+    }
+
+    @Override
+    public List<GwtLogEntry> readLogs(int fromId, String minimumPriority, String syslogIdentifier)
+            throws GwtKuraException {
+        return cache.getLogs(fromId, LogEntryFilter.create(minimumPriority, syslogIdentifier));
     }
 
     private void loadLogProviders() {
@@ -104,48 +112,4 @@ public class GwtLogServiceImpl extends OsgiRemoteServiceServlet implements GwtLo
             return time;
         }
     }
-
-    private static final class LogEntriesCache {
-
-        private static final LinkedList<GwtLogEntry> cache = new LinkedList<>();
-        private static final int MAX_CACHE_SIZE = 1000;
-        private static int nextEntryId = 0;
-
-        public void add(GwtLogEntry newEntry) {
-            synchronized (cache) {
-                if (cache.size() >= MAX_CACHE_SIZE) {
-                    cache.removeFirst();
-                }
-                manageIdIntOverflow();
-                newEntry.setId(nextEntryId++);
-                cache.add(newEntry);
-            }
-        }
-
-        public List<GwtLogEntry> getLogs(int fromId) {
-            List<GwtLogEntry> result = new LinkedList<>();
-            synchronized (cache) {
-                cache.forEach(entry -> {
-                    if (entry.getId() > fromId) {
-                        result.add(entry);
-                    }
-                });
-            }
-            return result;
-        }
-
-        /*
-         * Very unlikely to happen, but if it will then entries are reindexed
-         */
-        private static void manageIdIntOverflow() {
-            if (nextEntryId >= Integer.MAX_VALUE) {
-                logger.info("ID overflow for cached UI log entries. Reindexing.");
-
-                for (int i = 0; i < cache.size(); i++) {
-                    cache.get(i).setId(i);
-                }
-                nextEntryId = cache.size();
-            }
-        }
-    }
 }
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.web.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Predicate;
+
+import org.eclipse.kura.web.shared.model.GwtLogEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fixed capacity ring buffer of the log entries shown in the web UI.
+ * <p>
+ * Entries get consecutive ids, so that the entry with a given id is found in constant time. Writers are serialized,
+ * while readers copy the requested entries with an optimistic read and only fall back to a read lock if an entry has
+ * been added in the meantime.
+ */
+final class LogEntriesCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogEntriesCache.class);
+
+    private final StampedLock lock = new StampedLock();
+    private final GwtLogEntry[] entries;
+    private int firstEntryId = 0;
+    private int nextEntryId = 0;
+
+    LogEntriesCache(final int capacity) {
+        this(capacity, 0);
+    }
+
+    LogEntriesCache(final int capacity, final int firstEntryId) {
+        this.entries = new GwtLogEntry[capacity];
+        this.firstEntryId = firstEntryId;
+        this.nextEntryId = firstEntryId;
+    }
+
+    public void add(final GwtLogEntry newEntry) {
+        final long stamp = this.lock.writeLock();
+        try {
+            manageIdIntOverflow();
+            newEntry.setId(this.nextEntryId);
+            this.entries[this.nextEntryId % this.entries.length] = newEntry;
+            this.nextEntryId++;
+            this.firstEntryId = Math.max(this.firstEntryId, this.nextEntryId - this.entries.length);
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the cached entries with an id greater than {@code fromId} that match the provided filter, in id order.
+     * All the cached entries are returned if {@code fromId} is not lower than the next id, since ids restart from 0
+     * when they overflow.
+     */
+    public List<GwtLogEntry> getLogs(final int fromId, final Predicate<GwtLogEntry> filter) {
+        long stamp = this.lock.tryOptimisticRead();
+        GwtLogEntry[] snapshot = getEntriesAfter(fromId);
+
+        if (!this.lock.validate(stamp)) {
+            stamp = this.lock.readLock();
+            try {
+                snapshot = getEntriesAfter(fromId);
+            } finally {
+                this.lock.unlockRead(stamp);
+            }
+        }
+
+        final List<GwtLogEntry> result = new ArrayList<>(snapshot.length);
+        for (final GwtLogEntry entry : snapshot) {
+            if (filter.test(entry)) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /*
+     * Might be called without holding the lock, the result must be discarded if the read is not valid.
+     */
+    private GwtLogEntry[] getEntriesAfter(final int fromId) {
+        final int first = this.firstEntryId;
+        final int next = this.nextEntryId;
+        // long arithmetic, fromId + 1 overflows if fromId is Integer.MAX_VALUE
+        final long start = Math.max(fromId < first || fromId >= next ? first : fromId + 1L,
+                (long) next - this.entries.length);
+        final long count = next - start;
+
+        if (count <= 0) {
+            return new GwtLogEntry[0];
+        }
+
+        final GwtLogEntry[] result = new GwtLogEntry[(int) count];
+        for (int i = 0; i < count; i++) {
+            result[i] = this.entries[(int) ((start + i) % this.entries.length)];
+        }
+        return result;
+    }
+
+    /*
+     * Very unlikely to happen, but if it will then entries are reindexed
+     */
+    private void manageIdIntOverflow() {
+        if (this.nextEntryId == Integer.MAX_VALUE) {
+            logger.info("ID overflow for cached UI log entries. Reindexing.");
+
+            final List<GwtLogEntry> cached = new ArrayList<>();
+            Collections.addAll(cached, getEntriesAfter(this.firstEntryId - 1));
+
+            for (int i = 0; i < cached.size(); i++) {
+                cached.get(i).setId(i);
+                this.entries[i] = cached.get(i);
+            }
+            this.firstEntryId = 0;
+            this.nextEntryId = cached.size();
+        }
+    }
+}
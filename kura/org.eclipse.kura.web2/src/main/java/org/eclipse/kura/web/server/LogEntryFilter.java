@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.web.server;
+
+import java.util.Locale;
+import java.util.function.Predicate;
+
+import org.eclipse.kura.web.shared.GwtKuraException;
+import org.eclipse.kura.web.shared.model.GwtLogEntry;
+
+/**
+ * Builds the server side filters of the log entries shown in the web UI.
+ */
+final class LogEntryFilter {
+
+    private static final int UNKNOWN_SEVERITY = -1;
+
+    private LogEntryFilter() {
+    }
+
+    /**
+     * Returns a filter that accepts the entries with at least the provided priority and the provided syslog
+     * identifier. Entries with an unknown priority are never filtered out.
+     *
+     * @param minimumPriority
+     *            a level name such as {@code WARN} or a syslog severity such as {@code 4}, or {@code null} to accept
+     *            all the priorities
+     * @param syslogIdentifier
+     *            the syslog identifier, or {@code null} to accept all the identifiers
+     * @throws GwtKuraException
+     *             if the priority is not known
+     */
+    static Predicate<GwtLogEntry> create(String minimumPriority, String syslogIdentifier) throws GwtKuraException {
+        Predicate<GwtLogEntry> filter = entry -> true;
+
+        if (minimumPriority != null && !minimumPriority.isEmpty()) {
+            final int maxSeverity = getSeverity(minimumPriority);
+            if (maxSeverity == UNKNOWN_SEVERITY) {
+                throw new GwtKuraException("Unknown log priority " + minimumPriority);
+            }
+
+            filter = filter.and(entry -> {
+                final int severity = getSeverity(entry.getPriority());
+                return severity == UNKNOWN_SEVERITY || severity <= maxSeverity;
+            });
+        }
+
+        if (syslogIdentifier != null && !syslogIdentifier.isEmpty()) {
+            filter = filter.and(entry -> syslogIdentifier.equals(entry.getSyslogIdentifier()));
+        }
+
+        return filter;
+    }
+
+    /*
+     * Maps both the level names used by the Kura logs and the numeric journal priorities to syslog severities,
+     * lower values being more severe.
+     */
+    private static int getSeverity(String priority) {
+        if (priority == null) {
+            return UNKNOWN_SEVERITY;
+        }
+
+        switch (priority.trim().toUpperCase(Locale.ROOT)) {
+        case "0":
+        case "EMERG":
+            return 0;
+        case "1":
+        case "ALERT":
+            return 1;
+        case "2":
+        case "CRIT":
+        case "FATAL":
+            return 2;
+        case "3":
+        case "ERR":
+        case "ERROR":
+            return 3;
+        case "4":
+        case "WARN":
+        case "WARNING":
+            return 4;
+        case "5":
+        case "NOTICE":
+            return 5;
+        case "6":
+        case "INFO":
+            return 6;
+        case "7":
+        case "DEBUG":
+            return 7;
+        case "TRACE":
+            return 8;
+        default:
+            return UNKNOWN_SEVERITY;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ * Copyright (c) 2021, 2024 Eurotech and/or its affiliates and others
  *
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -31,4 +31,18 @@ public interface GwtLogService extends RemoteService {
 
     public List<GwtLogEntry> readLogs(int fromId) throws GwtKuraException;
 
+    /**
+     * Returns the log entries with an id greater than {@code fromId}, filtered on the server side.
+     *
+     * @param fromId
+     *            the id of the last entry already received
+     * @param minimumPriority
+     *            the lowest priority to return, either a level name such as {@code WARN} or a syslog severity such as
+     *            {@code 4}, or {@code null} to return all the entries
+     * @param syslogIdentifier
+     *            the syslog identifier of the entries to return, or {@code null} to return all the entries
+     */
+    public List<GwtLogEntry> readLogs(int fromId, String minimumPriority, String syslogIdentifier)
+            throws GwtKuraException;
+
 }
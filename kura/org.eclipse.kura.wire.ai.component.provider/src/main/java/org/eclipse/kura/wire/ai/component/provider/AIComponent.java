@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2022, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -14,16 +14,25 @@ package org.eclipse.kura.wire.ai.component.provider;
 
 import static java.util.Objects.requireNonNull;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 
 import org.eclipse.kura.KuraErrorCode;
 import org.eclipse.kura.KuraException;
 import org.eclipse.kura.ai.inference.InferenceEngineService;
 import org.eclipse.kura.ai.inference.ModelInfo;
 import org.eclipse.kura.ai.inference.Tensor;
+import org.eclipse.kura.ai.inference.TensorDescriptor;
 import org.eclipse.kura.configuration.ConfigurableComponent;
 import org.eclipse.kura.wire.WireComponent;
 import org.eclipse.kura.wire.WireEmitter;
@@ -53,6 +62,10 @@ public class AIComponent implements WireEmitter, WireReceiver, ConfigurableCompo
     private Optional<ModelInfo> infoInfer;
     private Optional<ModelInfo> infoPost;
 
+    private ScheduledExecutorService batchExecutor;
+    private volatile WireRecordBatcher batcher;
+    private CompletableFuture<Void> lastEmission = CompletableFuture.completedFuture(null);
+
     public void bindWireHelperService(final WireHelperService wireHelperService) {
         if (this.wireHelperService == null) {
             this.wireHelperService = wireHelperService;
@@ -87,15 +100,34 @@ public class AIComponent implements WireEmitter, WireReceiver, ConfigurableCompo
         logger.info("Activating AIComponent... Done");
     }
 
-    public void deactivate() {
+    public synchronized void deactivate() {
         logger.info("Deactivating AIComponent...");
+
+        closeBatcher();
+
+        if (this.batchExecutor != null) {
+            this.batchExecutor.shutdown();
+            this.batchExecutor = null;
+        }
+
         logger.info("Deactivating AIComponent... Done.");
     }
 
     public synchronized void updated(final Map<String, Object> properties) {
         logger.info("Updating AIComponent...");
 
+        closeBatcher();
+
         this.options = new AIComponentOptions(properties);
+
+        if (this.options.isBatchingEnabled()) {
+            if (this.batchExecutor == null) {
+                this.batchExecutor = Executors.newSingleThreadScheduledExecutor();
+            }
+            this.batcher = new WireRecordBatcher(this.options.getBatchMaxSize(), this.options.getBatchMaxLatency(),
+                    this::inferenceProcessAsync, this.batchExecutor);
+        }
+
         this.infoPre = Optional.empty();
         this.infoInfer = Optional.empty();
         this.infoPost = Optional.empty();
@@ -109,22 +141,31 @@ public class AIComponent implements WireEmitter, WireReceiver, ConfigurableCompo
     }
 
     @Override
-    public synchronized void onWireReceive(WireEnvelope wireEnvelope) {
+    public void onWireReceive(WireEnvelope wireEnvelope) {
         requireNonNull(wireEnvelope, "Wire Envelope cannot be null");
 
-        for (WireRecord wireRecord : wireEnvelope.getRecords()) {
-            try {
+        final WireRecordBatcher currentBatcher = this.batcher;
+        if (currentBatcher != null) {
+            for (WireRecord wireRecord : wireEnvelope.getRecords()) {
+                currentBatcher.add(wireRecord);
+            }
+            return;
+        }
 
-                Optional<List<WireRecord>> inferenceResult = inferenceProcess(wireRecord);
-                if (inferenceResult.isPresent()) {
-                    this.wireSupport.emit(inferenceResult.get());
-                }
+        synchronized (this) {
+            for (WireRecord wireRecord : wireEnvelope.getRecords()) {
+                try {
 
-            } catch (KuraException e) {
-                logger.error("Error processing WireRecord.", e);
+                    Optional<List<WireRecord>> inferenceResult = inferenceProcess(wireRecord);
+                    if (inferenceResult.isPresent()) {
+                        this.wireSupport.emit(inferenceResult.get());
+                    }
+
+                } catch (KuraException e) {
+                    logger.error("Error processing WireRecord.", e);
+                }
             }
         }
-
     }
 
     @Override
@@ -213,4 +254,113 @@ public class AIComponent implements WireEmitter, WireReceiver, ConfigurableCompo
             return Optional.empty();
         }
     }
+
+    private void closeBatcher() {
+        if (this.batcher != null) {
+            this.batcher.close();
+            this.batcher = null;
+        }
+    }
+
+    /*
+     * Batched processing: the records are joined in a single request for each model, if the input tensors of the
+     * first model have a dynamic batch dimension, and the requests are submitted without waiting for the results of
+     * the previous batches. The results are emitted in the same order the records have been received.
+     */
+
+    private void inferenceProcessAsync(List<WireRecord> wireRecords) {
+        final InferenceEngineService engine;
+        final Executor executor;
+        final List<ModelInfo> models = new ArrayList<>(3);
+
+        synchronized (this) {
+            engine = this.inferenceEngineService;
+            executor = this.batchExecutor;
+            try {
+                if (engine == null || !engine.isEngineReady()) {
+                    logger.info("Selected InferenceEngineService not ready yet.");
+                    return;
+                }
+
+                loadModelInfos();
+            } catch (KuraException e) {
+                logger.error("Error processing WireRecord batch.", e);
+                return;
+            }
+
+            this.infoPre.ifPresent(models::add);
+            this.infoInfer.ifPresent(models::add);
+            this.infoPost.ifPresent(models::add);
+        }
+
+        if (TensorBatches.isBatchable(models.get(0).getInputs())) {
+            emitInOrder(inferAsync(engine, models, wireRecords, executor));
+        } else {
+            for (WireRecord wireRecord : wireRecords) {
+                emitInOrder(inferAsync(engine, models, Collections.singletonList(wireRecord), executor));
+            }
+        }
+    }
+
+    private static CompletableFuture<List<List<WireRecord>>> inferAsync(final InferenceEngineService engine,
+            final List<ModelInfo> models, final List<WireRecord> wireRecords, final Executor executor) {
+        final int batchSize = wireRecords.size();
+        final List<List<Tensor>> batch = new ArrayList<>(batchSize);
+
+        CompletableFuture<List<Tensor>> result;
+
+        try {
+            for (WireRecord wireRecord : wireRecords) {
+                batch.add(TensorListAdapter.givenDescriptors(models.get(0).getInputs()).fromWireRecord(wireRecord));
+            }
+            result = CompletableFuture.completedFuture(batchSize == 1 ? batch.get(0) : TensorBatches.concat(batch));
+        } catch (KuraException e) {
+            CompletableFuture<List<List<WireRecord>>> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+
+        // inferAsync() might block until the engine accepts a new request, the requests for the next models are
+        // sent from the executor instead of the thread that completed the previous request, that could be the
+        // engine's own callback thread
+        final Executor stageExecutor = command -> {
+            try {
+                executor.execute(command);
+            } catch (RejectedExecutionException e) {
+                // the component has been deactivated, complete the pending requests anyway
+                command.run();
+            }
+        };
+
+        for (ModelInfo model : models) {
+            result = result.thenComposeAsync(tensors -> engine.inferAsync(model, tensors), stageExecutor);
+        }
+
+        final List<TensorDescriptor> outputs = models.get(models.size() - 1).getOutputs();
+
+        return result.thenApply(tensors -> {
+            try {
+                List<List<Tensor>> split = batchSize == 1 ? Collections.singletonList(tensors)
+                        : TensorBatches.split(tensors, batchSize);
+                List<List<WireRecord>> records = new ArrayList<>(batchSize);
+                for (List<Tensor> recordTensors : split) {
+                    records.add(TensorListAdapter.givenDescriptors(outputs).fromTensorList(recordTensors));
+                }
+                return records;
+            } catch (KuraException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    private synchronized void emitInOrder(final CompletableFuture<List<List<WireRecord>>> result) {
+        this.lastEmission = this.lastEmission.thenCompose(previous -> result).handle((records, e) -> {
+            if (e != null) {
+                logger.error("Error processing WireRecord batch.", e);
+            } else {
+                records.forEach(this.wireSupport::emit);
+            }
+            return null;
+        });
+    }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2022, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -22,6 +22,11 @@ public class AIComponentOptions {
     private static final String PREPROCESSOR_MODEL_NAME = "preprocessor.model.name";
     private static final String INFERENCE_MODEL_NAME = "inference.model.name";
     private static final String POSTPROCESSOR_MODEL_NAME = "postprocessor.model.name";
+    private static final String BATCH_MAX_SIZE = "batch.max.size";
+    private static final String BATCH_MAX_LATENCY = "batch.max.latency";
+
+    private static final int DEFAULT_BATCH_MAX_SIZE = 1;
+    private static final long DEFAULT_BATCH_MAX_LATENCY = 10;
 
     private final Map<String, Object> properties;
 
@@ -45,4 +50,25 @@ public class AIComponentOptions {
         return (value != null && !value.trim().isEmpty()) ? Optional.of(value.trim()) : Optional.empty();
     }
 
+    /**
+     * @return the maximum number of records that are submitted to the inference engine in a single request, 1 if
+     *         batching is disabled
+     */
+    public int getBatchMaxSize() {
+        Object value = this.properties.get(BATCH_MAX_SIZE);
+        return (value instanceof Integer && (Integer) value > 0) ? (Integer) value : DEFAULT_BATCH_MAX_SIZE;
+    }
+
+    /**
+     * @return the maximum time in milliseconds a record waits for the batch to be filled
+     */
+    public long getBatchMaxLatency() {
+        Object value = this.properties.get(BATCH_MAX_LATENCY);
+        return (value instanceof Integer && (Integer) value >= 0) ? (Integer) value : DEFAULT_BATCH_MAX_LATENCY;
+    }
+
+    public boolean isBatchingEnabled() {
+        return getBatchMaxSize() > 1;
+    }
+
 }
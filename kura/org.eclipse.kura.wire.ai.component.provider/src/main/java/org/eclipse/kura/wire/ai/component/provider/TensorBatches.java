@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ ******************************************************************************/
+package org.eclipse.kura.wire.ai.component.provider;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.eclipse.kura.KuraIOException;
+import org.eclipse.kura.ai.inference.Tensor;
+import org.eclipse.kura.ai.inference.TensorDescriptor;
+
+/**
+ * Joins the tensors created for multiple records into a single batch along the first dimension and splits the
+ * resulting tensors back. Buffer backed tensors are joined and split without boxing their elements.
+ */
+final class TensorBatches {
+
+    private static final long DYNAMIC_DIMENSION = -1;
+
+    private TensorBatches() {
+    }
+
+    /**
+     *
+     * @param descriptors
+     *            the input descriptors of a model
+     * @return {@code true} if all the inputs have a dynamic first dimension, that can be used as the batch dimension
+     */
+    static boolean isBatchable(List<TensorDescriptor> descriptors) {
+        if (descriptors.isEmpty()) {
+            return false;
+        }
+
+        for (TensorDescriptor descriptor : descriptors) {
+            List<Long> shape = descriptor.getShape();
+            if (shape.isEmpty() || shape.get(0) != DYNAMIC_DIMENSION) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     *
+     * @param batch
+     *            the tensors created for each record, all the lists must have the same size and order
+     * @return a list of tensors whose data is the concatenation of the data of the corresponding tensors in the batch,
+     *         the first dimension of the shape is set to the batch size
+     * @throws KuraIOException
+     *             if the tensors in the batch have different types
+     */
+    static List<Tensor> concat(List<List<Tensor>> batch) throws KuraIOException {
+        List<Tensor> first = batch.get(0);
+        List<Tensor> result = new ArrayList<>(first.size());
+
+        for (int i = 0; i < first.size(); i++) {
+            Tensor template = first.get(i);
+            Class<?> type = template.getType();
+            List<Tensor> column = new ArrayList<>(batch.size());
+
+            for (List<Tensor> tensors : batch) {
+                Tensor tensor = tensors.get(i);
+                if (tensor.getType() != type) {
+                    throw new KuraIOException(
+                            "The tensors " + template.getDescriptor().getName() + " have different types.");
+                }
+                column.add(tensor);
+            }
+
+            result.add(concat(column, withBatchSize(template.getDescriptor(), batch.size())));
+        }
+
+        return result;
+    }
+
+    private static Tensor concat(List<Tensor> column, TensorDescriptor descriptor) {
+        Class<?> type = column.get(0).getType();
+
+        if (column.stream().allMatch(Tensor::isBufferBacked)) {
+            int size = 0;
+            for (Tensor tensor : column) {
+                size += tensor.getBuffer(Buffer.class).get().remaining();
+            }
+
+            ByteBuffer bytes = ByteBuffer.allocate(size * elementSize(type)).order(ByteOrder.LITTLE_ENDIAN);
+            for (Tensor tensor : column) {
+                put(bytes, tensor.getBuffer(Buffer.class).get());
+            }
+            bytes.flip();
+
+            return new Tensor(type, descriptor, bytes);
+        }
+
+        List<Object> data = new ArrayList<>();
+        for (Tensor tensor : column) {
+            data.addAll(getData(tensor));
+        }
+
+        return newTensor(type, descriptor, data);
+    }
+
+    /**
+     *
+     * @param tensors
+     *            the tensors produced for a batch
+     * @param batchSize
+     *            the number of records in the batch
+     * @return a list containing the tensors for each record, obtained splitting the data of each tensor in
+     *         {@code batchSize} parts of equal length
+     * @throws KuraIOException
+     *             if the data of a tensor cannot be split in {@code batchSize} parts of equal length
+     */
+    static List<List<Tensor>> split(List<Tensor> tensors, int batchSize) throws KuraIOException {
+        List<List<Tensor>> result = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            result.add(new ArrayList<>(tensors.size()));
+        }
+
+        for (Tensor tensor : tensors) {
+            Optional<ByteBuffer> bytes = tensor.getByteBuffer();
+            List<?> data = getData(tensor);
+            if (data.size() % batchSize != 0) {
+                throw new KuraIOException("The tensor " + tensor.getDescriptor().getName()
+                        + " cannot be split in " + batchSize + " records.");
+            }
+
+            int length = data.size() / batchSize;
+            TensorDescriptor descriptor = withBatchSize(tensor.getDescriptor(), 1);
+
+            for (int i = 0; i < batchSize; i++) {
+                if (bytes.isPresent()) {
+                    result.get(i).add(new Tensor(tensor.getType(), descriptor,
+                            slice(bytes.get(), i * length * elementSize(tensor.getType()),
+                                    length * elementSize(tensor.getType()))));
+                } else {
+                    result.get(i).add(newTensor(tensor.getType(), descriptor,
+                            new ArrayList<>(data.subList(i * length, (i + 1) * length))));
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private static List<?> getData(Tensor tensor) {
+        Optional<?> data = tensor.getData(tensor.getType());
+        return data.isPresent() ? (List<?>) data.get() : new ArrayList<>();
+    }
+
+    private static TensorDescriptor withBatchSize(TensorDescriptor descriptor, long batchSize) {
+        List<Long> shape = new ArrayList<>(descriptor.getShape());
+        if (shape.isEmpty()) {
+            return descriptor;
+        }
+
+        shape.set(0, batchSize);
+        return new TensorDescriptor(descriptor.getName(), descriptor.getType(), descriptor.getFormat(), shape,
+                descriptor.getParameters());
+    }
+
+    private static ByteBuffer slice(ByteBuffer bytes, int offset, int length) {
+        ByteBuffer result = bytes.duplicate();
+        result.position(offset);
+        result.limit(offset + length);
+        return result.slice().order(bytes.order());
+    }
+
+    private static int elementSize(Class<?> type) {
+        if (type == Short.class) {
+            return Short.BYTES;
+        } else if (type == Integer.class || type == Float.class) {
+            return Integer.BYTES;
+        } else if (type == Long.class || type == Double.class) {
+            return Long.BYTES;
+        } else {
+            return Byte.BYTES;
+        }
+    }
+
+    private static void put(ByteBuffer target, Buffer source) {
+        int start = target.position();
+
+        if (source instanceof ByteBuffer) {
+            target.put((ByteBuffer) source);
+        } else if (source instanceof ShortBuffer) {
+            ShortBuffer view = target.asShortBuffer();
+            view.put((ShortBuffer) source);
+            target.position(start + view.position() * Short.BYTES);
+        } else if (source instanceof IntBuffer) {
+            IntBuffer view = target.asIntBuffer();
+            view.put((IntBuffer) source);
+            target.position(start + view.position() * Integer.BYTES);
+        } else if (source instanceof LongBuffer) {
+            LongBuffer view = target.asLongBuffer();
+            view.put((LongBuffer) source);
+            target.position(start + view.position() * Long.BYTES);
+        } else if (source instanceof FloatBuffer) {
+            FloatBuffer view = target.asFloatBuffer();
+            view.put((FloatBuffer) source);
+            target.position(start + view.position() * Float.BYTES);
+        } else {
+            DoubleBuffer view = target.asDoubleBuffer();
+            view.put((DoubleBuffer) source);
+            target.position(start + view.position() * Double.BYTES);
+        }
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static Tensor newTensor(Class type, TensorDescriptor descriptor, List data) {
+        return new Tensor(type, descriptor, data);
+    }
+}
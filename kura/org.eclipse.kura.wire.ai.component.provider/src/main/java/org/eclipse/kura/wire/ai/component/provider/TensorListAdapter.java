@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2022, 2024 Eurotech and/or its affiliates and others
  *
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -12,6 +12,7 @@
  ******************************************************************************/
 package org.eclipse.kura.wire.ai.component.provider;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -31,28 +32,20 @@ import org.eclipse.kura.wire.WireRecord;
 
 public class TensorListAdapter {
 
-    private static TensorListAdapter instance;
-    private List<TensorDescriptor> descriptors;
+    private final List<TensorDescriptor> descriptors;
 
-    private TensorListAdapter() {
-    }
-
-    private void setDescriptors(List<TensorDescriptor> descriptors) {
-        instance.descriptors = descriptors;
+    private TensorListAdapter(List<TensorDescriptor> descriptors) {
+        this.descriptors = descriptors;
     }
 
     /**
      *
      * @param descriptors
      *            the list of {@link TensorDescriptor} to use in this instance
-     * @return the {@link TensorListAdapter} with the descriptors set
+     * @return a new {@link TensorListAdapter} with the descriptors set
      */
     public static TensorListAdapter givenDescriptors(List<TensorDescriptor> descriptors) {
-        if (instance == null) {
-            instance = new TensorListAdapter();
-        }
-        instance.setDescriptors(descriptors);
-        return instance;
+        return new TensorListAdapter(descriptors);
     }
 
     /**
@@ -61,7 +54,7 @@ public class TensorListAdapter {
      * @return a list of {@link Tensor}, one for each property in the {@code wireRecord}.
      *         <p>
      *         Each created {@link Tensor} will contain a data list of length 1 if the type is BOOLEAN, DOUBLE, FLOAT,
-     *         INTEGER, LONG, STRING. In case of BYTE_ARRAY the list is equal to the length of the array.
+     *         INTEGER, LONG, STRING. In case of BYTE_ARRAY the tensor wraps the array, without copying it.
      * @throws KuraException
      *             if no descriptor matches the record name or the type is not a {@link org.eclipse.kura.type.DataType}
      */
@@ -69,7 +62,7 @@ public class TensorListAdapter {
         List<Tensor> output = new LinkedList<>();
 
         // each descriptor name must have an entry in the record
-        for (TensorDescriptor descriptor : instance.descriptors) {
+        for (TensorDescriptor descriptor : this.descriptors) {
             TypedValue<?> value = getTypedValueByNameFromMap(descriptor.getName(), wireRecord.getProperties());
             output.add(createTensorFromTypedValue(value, descriptor));
         }
@@ -97,8 +90,11 @@ public class TensorListAdapter {
             String name = tensor.getDescriptor().getName();
             Class<?> tensorType = tensor.getType();
 
+            Optional<ByteBuffer> tensorBytes = tensor.getBuffer(ByteBuffer.class);
             Optional<?> tensorData = tensor.getData(tensorType);
-            if (tensorData.isPresent()) {
+            if (tensorBytes.isPresent()) {
+                properties.put(name, TypedValues.newByteArrayValue(toByteArray(tensorBytes.get())));
+            } else if (tensorData.isPresent()) {
 
                 List<?> tensorDataList = (List<?>) tensorData.get();
                 Object data;
@@ -143,14 +139,8 @@ public class TensorListAdapter {
 
             return new Tensor(Boolean.class, descriptor, boolData);
         case BYTE_ARRAY:
-            byte[] byteArrayValue = (byte[]) value;
-
-            List<Byte> byteArrayData = new ArrayList<>();
-            for (byte b : byteArrayValue) {
-                byteArrayData.add(b);
-            }
-
-            return new Tensor(Byte.class, descriptor, byteArrayData);
+            // the tensor wraps the array without copying it
+            return new Tensor(descriptor, (byte[]) value);
         case DOUBLE:
             List<Double> doubleData = new ArrayList<>();
             doubleData.add((Double) value);
@@ -181,6 +171,12 @@ public class TensorListAdapter {
         }
     }
 
+    private byte[] toByteArray(ByteBuffer bytes) {
+        byte[] result = new byte[bytes.remaining()];
+        bytes.get(result);
+        return result;
+    }
+
     private byte[] toByteArray(List<?> bytes) {
         byte[] result = new byte[bytes.size()];
 
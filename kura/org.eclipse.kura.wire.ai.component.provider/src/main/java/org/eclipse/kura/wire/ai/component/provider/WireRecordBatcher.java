@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ ******************************************************************************/
+package org.eclipse.kura.wire.ai.component.provider;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.eclipse.kura.wire.WireRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Groups the received {@link WireRecord}s in batches. A batch is passed to the consumer when it reaches the maximum
+ * size or when the maximum latency is elapsed since its first record has been added, whichever comes first.
+ * <p>
+ * The batches are delivered in order, by one thread at a time, without holding the batcher lock: the consumer can
+ * acquire other locks, even if they are held by a thread that is closing the batcher. A thread that completes a batch
+ * while another thread is delivering does not wait, the pending batch is delivered by the other thread.
+ */
+final class WireRecordBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(WireRecordBatcher.class);
+
+    private final int maxSize;
+    private final long maxLatencyMillis;
+    private final Consumer<List<WireRecord>> consumer;
+    private final ScheduledExecutorService executor;
+    private final Deque<List<WireRecord>> completedBatches = new ArrayDeque<>();
+
+    private List<WireRecord> batch;
+    private ScheduledFuture<?> flushTask;
+    private long generation;
+    private boolean closed;
+    private boolean delivering;
+
+    WireRecordBatcher(int maxSize, long maxLatencyMillis, Consumer<List<WireRecord>> consumer,
+            ScheduledExecutorService executor) {
+        this.maxSize = maxSize;
+        this.maxLatencyMillis = maxLatencyMillis;
+        this.consumer = consumer;
+        this.executor = executor;
+        this.batch = new ArrayList<>(maxSize);
+    }
+
+    void add(WireRecord wireRecord) {
+        synchronized (this) {
+            if (this.closed) {
+                logger.warn("Batcher closed, discarding WireRecord.");
+                return;
+            }
+
+            this.batch.add(wireRecord);
+
+            if (this.batch.size() >= this.maxSize) {
+                completeBatch();
+            } else if (this.batch.size() == 1) {
+                final long currentGeneration = this.generation;
+                this.flushTask = this.executor.schedule(() -> flushIfCurrent(currentGeneration),
+                        this.maxLatencyMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        deliver();
+    }
+
+    /**
+     * Delivers the pending records, if any, and stops accepting new ones. If another thread is delivering a batch, the
+     * pending records are delivered by that thread and this method returns without waiting.
+     */
+    void close() {
+        synchronized (this) {
+            completeBatch();
+            this.closed = true;
+        }
+
+        deliver();
+    }
+
+    private void flushIfCurrent(long expectedGeneration) {
+        synchronized (this) {
+            // the batch the task has been scheduled for might have already been completed because full
+            if (expectedGeneration != this.generation) {
+                return;
+            }
+            completeBatch();
+        }
+
+        deliver();
+    }
+
+    private void completeBatch() {
+        if (this.flushTask != null) {
+            this.flushTask.cancel(false);
+            this.flushTask = null;
+        }
+
+        this.generation++;
+
+        if (this.batch.isEmpty()) {
+            return;
+        }
+
+        this.completedBatches.add(this.batch);
+        this.batch = new ArrayList<>(this.maxSize);
+    }
+
+    private void deliver() {
+        synchronized (this) {
+            if (this.delivering) {
+                return;
+            }
+            this.delivering = true;
+        }
+
+        while (true) {
+            final List<WireRecord> records;
+
+            synchronized (this) {
+                records = this.completedBatches.poll();
+                if (records == null) {
+                    this.delivering = false;
+                    return;
+                }
+            }
+
+            try {
+                this.consumer.accept(records);
+            } catch (RuntimeException e) {
+                logger.error("Error processing WireRecord batch.", e);
+            }
+        }
+    }
+}
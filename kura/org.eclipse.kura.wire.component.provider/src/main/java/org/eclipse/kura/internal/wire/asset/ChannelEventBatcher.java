@@ -0,0 +1,271 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.asset;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.kura.channel.ChannelRecord;
+
+/**
+ * Coalesces the channel events received by a Wire Asset in listener mode.
+ * <p>
+ * The events are collected for at most {@code window} milliseconds after the first event of a batch, or until
+ * {@code maxEvents} events have been received, and then delivered together to the flush handler. If more events are
+ * received for the same channel in the same batch, only the most recent one is delivered.
+ * <p>
+ * Flushes are serialized and delivered in order, either on the thread that received the event that filled the batch or
+ * on a thread of a pool shared by all the batchers.
+ */
+final class ChannelEventBatcher {
+
+    private static final Logger logger = LogManager.getLogger(ChannelEventBatcher.class);
+
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private static final TimerManager timerManager = new TimerManager();
+
+    private final String assetPid;
+    private final long windowNanos;
+    private final int maxEvents;
+    private final Consumer<List<ChannelRecord>> flushHandler;
+
+    private final Object flushLock = new Object();
+
+    private Map<String, ChannelRecord> pending = new LinkedHashMap<>();
+    private int pendingEvents;
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean closed;
+
+    private final AtomicLong receivedEvents = new AtomicLong();
+    private final AtomicLong emittedBatches = new AtomicLong();
+    private long lastReportNanos = System.nanoTime();
+    private long lastReportedEvents;
+    private long lastReportedBatches;
+
+    ChannelEventBatcher(final String assetPid, final long window, final TimeUnit unit, final int maxEvents,
+            final Consumer<List<ChannelRecord>> flushHandler) {
+        if (window <= 0 || maxEvents <= 0) {
+            throw new IllegalArgumentException("Batch window and max events must be positive");
+        }
+
+        this.assetPid = assetPid;
+        this.windowNanos = unit.toNanos(window);
+        this.maxEvents = maxEvents;
+        this.flushHandler = flushHandler;
+        timerManager.onInstanceCreated();
+    }
+
+    public void add(final ChannelRecord channelRecord) {
+        this.receivedEvents.incrementAndGet();
+
+        final boolean isFull;
+
+        synchronized (this) {
+            if (this.closed) {
+                logger.debug("Event batcher of the Wire Asset {} has been closed", this.assetPid);
+                return;
+            }
+
+            this.pending.put(channelRecord.getChannelName(), channelRecord);
+            this.pendingEvents++;
+
+            isFull = this.pendingEvents >= this.maxEvents;
+
+            if (!isFull && this.scheduledFlush == null) {
+                try {
+                    this.scheduledFlush = timerManager.schedule(this::flush, this.windowNanos,
+                            TimeUnit.NANOSECONDS);
+                } catch (final RejectedExecutionException e) {
+                    logger.debug("Event batcher of the Wire Asset {} has been closed", this.assetPid);
+                    return;
+                }
+            }
+        }
+
+        if (isFull) {
+            flush();
+        }
+    }
+
+    public void flush() {
+        synchronized (this.flushLock) {
+            final List<ChannelRecord> batch;
+
+            synchronized (this) {
+                if (this.scheduledFlush != null) {
+                    this.scheduledFlush.cancel(false);
+                    this.scheduledFlush = null;
+                }
+
+                if (this.pending.isEmpty()) {
+                    return;
+                }
+
+                batch = new ArrayList<>(this.pending.values());
+                this.pending = new LinkedHashMap<>();
+                this.pendingEvents = 0;
+            }
+
+            this.emittedBatches.incrementAndGet();
+
+            try {
+                this.flushHandler.accept(batch);
+            } catch (final Exception e) {
+                logger.error("Failed to emit channel events for the Wire Asset: {}", this.assetPid, e);
+            }
+
+            reportStatistics();
+        }
+    }
+
+    /**
+     * Stops the batcher, the events that are still pending are discarded.
+     */
+    public void close() {
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+
+            if (this.scheduledFlush != null) {
+                this.scheduledFlush.cancel(false);
+                this.scheduledFlush = null;
+            }
+
+            this.pending.clear();
+            this.pendingEvents = 0;
+        }
+
+        timerManager.onInstanceDestroyed();
+    }
+
+    public long getReceivedEventCount() {
+        return this.receivedEvents.get();
+    }
+
+    public long getEmittedBatchCount() {
+        return this.emittedBatches.get();
+    }
+
+    /*
+     * Called while holding the flush lock
+     */
+    private void reportStatistics() {
+        final long now = System.nanoTime();
+        final long elapsed = now - this.lastReportNanos;
+
+        if (elapsed < REPORT_INTERVAL_NANOS) {
+            return;
+        }
+
+        final long events = this.receivedEvents.get();
+        final long batches = this.emittedBatches.get();
+        final double seconds = elapsed / 1_000_000_000d;
+
+        logger.debug("Wire Asset {}: {} channel events/s, {} envelopes/s", this.assetPid,
+                String.format("%.1f", (events - this.lastReportedEvents) / seconds),
+                String.format("%.1f", (batches - this.lastReportedBatches) / seconds));
+
+        this.lastReportNanos = now;
+        this.lastReportedEvents = events;
+        this.lastReportedBatches = batches;
+    }
+
+    /**
+     * Shares a single scheduler thread between all the batchers. The flushes are run on a cached thread pool, so that a
+     * slow Wire graph delays only the events of its own asset, while no thread is kept alive if there are no batchers.
+     */
+    private static class TimerManager {
+
+        private int instanceCount;
+        private Optional<ScheduledExecutorService> scheduler = Optional.empty();
+        private Optional<ExecutorService> taskExecutor = Optional.empty();
+
+        synchronized void onInstanceCreated() {
+            this.instanceCount++;
+
+            if (this.scheduler.isPresent()) {
+                return;
+            }
+
+            final ScheduledThreadPoolExecutor newScheduler = new ScheduledThreadPoolExecutor(1,
+                    getThreadFactory("WireAssetEventBatcherTimer_"));
+            newScheduler.setRemoveOnCancelPolicy(true);
+
+            this.scheduler = Optional.of(newScheduler);
+            this.taskExecutor = Optional.of(new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
+                    new SynchronousQueue<>(), getThreadFactory("WireAssetEventBatcher_")));
+        }
+
+        synchronized ScheduledFuture<?> schedule(final Runnable task, final long delay, final TimeUnit unit) {
+            if (!this.scheduler.isPresent() || !this.taskExecutor.isPresent()) {
+                throw new RejectedExecutionException("Event batcher timer stopped");
+            }
+
+            final ExecutorService executor = this.taskExecutor.get();
+
+            return this.scheduler.get().schedule(() -> {
+                try {
+                    executor.execute(task);
+                } catch (final RejectedExecutionException e) {
+                    logger.debug("Event batcher timer stopped, discarding flush");
+                }
+            }, delay, unit);
+        }
+
+        synchronized void onInstanceDestroyed() {
+            this.instanceCount--;
+
+            if (this.instanceCount > 0) {
+                return;
+            }
+
+            this.scheduler.ifPresent(ScheduledExecutorService::shutdownNow);
+            this.scheduler = Optional.empty();
+            this.taskExecutor.ifPresent(ExecutorService::shutdown);
+            this.taskExecutor = Optional.empty();
+        }
+
+        private static ThreadFactory getThreadFactory(final String namePrefix) {
+            final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
+            final AtomicInteger nextId = new AtomicInteger();
+
+            return runnable -> {
+                final Thread result = defaultFactory.newThread(runnable);
+                result.setName(namePrefix + nextId.incrementAndGet());
+                result.setDaemon(true);
+                return result;
+            };
+        }
+    }
+}
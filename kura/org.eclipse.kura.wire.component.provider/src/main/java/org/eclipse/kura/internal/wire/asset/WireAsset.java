@@ -18,12 +18,17 @@ import static java.util.Objects.requireNonNull;
 import static org.eclipse.kura.channel.ChannelType.READ_WRITE;
 import static org.eclipse.kura.channel.ChannelType.WRITE;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -34,6 +39,7 @@ import org.eclipse.kura.channel.ChannelRecord;
 import org.eclipse.kura.channel.ChannelType;
 import org.eclipse.kura.channel.listener.ChannelEvent;
 import org.eclipse.kura.channel.listener.ChannelListener;
+import org.eclipse.kura.configuration.ConfigurationService;
 import org.eclipse.kura.core.configuration.metatype.Tad;
 import org.eclipse.kura.core.configuration.metatype.Tocd;
 import org.eclipse.kura.driver.PreparedRead;
@@ -111,6 +117,10 @@ public final class WireAsset extends BaseAsset implements WireEmitter, WireRecei
 
     private PreparedEmit preparedEmit;
 
+    private volatile Optional<ChannelEventBatcher> eventBatcher = Optional.empty();
+
+    private final Map<String, ChannelRecord> lastKnownRecords = new LinkedHashMap<>();
+
     /**
      * Binds the Wire Helper Service.
      *
@@ -169,6 +179,15 @@ public final class WireAsset extends BaseAsset implements WireEmitter, WireRecei
             this.valueChangeCache = Optional.empty();
         }
 
+        closeEventBatcher();
+
+        if (this.options.batchListenerEvents()) {
+            this.eventBatcher = Optional.of(new ChannelEventBatcher(
+                    String.valueOf(properties.get(ConfigurationService.KURA_SERVICE_PID)),
+                    this.options.getListenerBatchWindowMs(), TimeUnit.MILLISECONDS,
+                    this.options.getListenerBatchMaxEvents(), this::emitEventBatch));
+        }
+
         super.updated(properties);
         logger.debug("Updating Wire Asset...Done");
     }
@@ -182,6 +201,7 @@ public final class WireAsset extends BaseAsset implements WireEmitter, WireRecei
     @Override
     protected void deactivate(final ComponentContext context) {
         logger.debug("Deactivating Wire Asset...");
+        closeEventBatcher();
         super.deactivate(context);
         logger.debug("Deactivating Wire Asset...Done");
     }
@@ -224,7 +244,7 @@ public final class WireAsset extends BaseAsset implements WireEmitter, WireRecei
     public void onWireReceive(final WireEnvelope wireEnvelope) {
         requireNonNull(wireEnvelope, "Wire Envelope cannot be null");
 
-        emitAllReadChannels();
+        pollAllReadChannels();
 
         final List<WireRecord> records = wireEnvelope.getRecords();
         for (WireRecord wireRecord : records) {
@@ -243,6 +263,32 @@ public final class WireAsset extends BaseAsset implements WireEmitter, WireRecei
         this.preparedEmit = null;
     }
 
+    private void pollAllReadChannels() {
+        if (!hasReadChannels()) {
+            return;
+        }
+
+        try {
+            final List<ChannelRecord> channelRecords = pollAllChannels().get();
+
+            if (this.eventBatcher.isPresent() && this.options.emitAllChannels()) {
+                synchronized (this.lastKnownRecords) {
+                    putLastKnownRecords(channelRecords);
+                }
+            }
+
+            emitChannelRecords(channelRecords);
+        } catch (final CancellationException e) {
+            logger.debug("Skipped late read cycle of the Wire Asset: {}", getKuraServicePid());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            logger.error("Error while performing read from the Wire Asset: {}", getKuraServicePid(), e.getCause());
+        } catch (final Exception e) {
+            logger.error("Error while performing read from the Wire Asset: {}", getKuraServicePid(), e);
+        }
+    }
+
     private void emitAllReadChannels() {
         if (hasReadChannels()) {
             try {
@@ -253,6 +299,86 @@ public final class WireAsset extends BaseAsset implements WireEmitter, WireRecei
         }
     }
 
+    private void emitEventBatch(final List<ChannelRecord> eventRecords) {
+        if (this.options.emitAllChannels()) {
+            emitChannelRecords(updateLastKnownRecords(eventRecords));
+        } else {
+            emitChannelRecords(eventRecords);
+        }
+    }
+
+    /**
+     * Merges the provided records into the last known values of the read channels. The snapshot is initialized with
+     * a read of all channels, after that it is only updated with the polled values and channel events.
+     *
+     * @param channelRecords
+     *            the records to be merged
+     * @return the last known records, including the provided ones
+     */
+    private List<ChannelRecord> updateLastKnownRecords(final List<ChannelRecord> channelRecords) {
+        final boolean isInitialized;
+
+        synchronized (this.lastKnownRecords) {
+            isInitialized = !this.lastKnownRecords.isEmpty();
+        }
+
+        List<ChannelRecord> initialRecords = Collections.emptyList();
+
+        // the read can block for a long time, it must not be performed while holding the lock
+        if (!isInitialized && hasReadChannels()) {
+            try {
+                initialRecords = readAllChannels();
+            } catch (final Exception e) {
+                logger.error("Error while performing read from the Wire Asset: {}", getKuraServicePid(), e);
+            }
+        }
+
+        synchronized (this.lastKnownRecords) {
+            for (final ChannelRecord channelRecord : initialRecords) {
+                // do not replace the values polled in the meantime
+                this.lastKnownRecords.putIfAbsent(channelRecord.getChannelName(), copyOf(channelRecord));
+            }
+
+            putLastKnownRecords(channelRecords);
+
+            return new ArrayList<>(this.lastKnownRecords.values());
+        }
+    }
+
+    /*
+     * The records are copied since the ones returned by a prepared read are reused by the following reads
+     */
+    private void putLastKnownRecords(final List<ChannelRecord> channelRecords) {
+        for (final ChannelRecord channelRecord : channelRecords) {
+            this.lastKnownRecords.put(channelRecord.getChannelName(), copyOf(channelRecord));
+        }
+    }
+
+    private static ChannelRecord copyOf(final ChannelRecord channelRecord) {
+        final ChannelRecord result = ChannelRecord.createReadRecord(channelRecord.getChannelName(),
+                channelRecord.getValueType(), channelRecord.getUnit());
+
+        result.setTimestamp(channelRecord.getTimestamp());
+
+        if (channelRecord.getValue() != null) {
+            result.setValue(channelRecord.getValue());
+        }
+        if (channelRecord.getChannelStatus() != null) {
+            result.setChannelStatus(channelRecord.getChannelStatus());
+        }
+
+        return result;
+    }
+
+    private void closeEventBatcher() {
+        this.eventBatcher.ifPresent(ChannelEventBatcher::close);
+        this.eventBatcher = Optional.empty();
+
+        synchronized (this.lastKnownRecords) {
+            this.lastKnownRecords.clear();
+        }
+    }
+
     /**
      * Determine the channels to write
      *
@@ -419,7 +545,9 @@ public final class WireAsset extends BaseAsset implements WireEmitter, WireRecei
 
         @Override
         public void onChannelEvent(ChannelEvent event) {
-            if (WireAsset.this.options.emitAllChannels()) {
+            final Optional<ChannelEventBatcher> batcher = WireAsset.this.eventBatcher;
+
+            if (WireAsset.this.options.emitAllChannels() && !batcher.isPresent()) {
                 emitAllReadChannels();
             } else {
                 final ChannelRecord eventRecord = event.getChannelRecord();
@@ -433,7 +561,11 @@ public final class WireAsset extends BaseAsset implements WireEmitter, WireRecei
                     }
                 }
 
-                emitChannelRecords(Collections.singletonList(eventRecord));
+                if (batcher.isPresent()) {
+                    batcher.get().add(eventRecord);
+                } else {
+                    emitChannelRecords(Collections.singletonList(eventRecord));
+                }
             }
         }
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018, 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2018, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -49,6 +49,16 @@ public class WireAssetOCD extends BaseAssetOCD {
     private static final String EMIT_EMPTY_ENVELOPES_DESCRIPTION = "If set to false, this component will not emit empty envelopes."
             + " This property can be useful if combined with emit.on.change.";
 
+    private static final String LISTENER_BATCH_WINDOW_DESCRIPTION = "Time window in milliseconds used to coalesce the"
+            + " events of listening channels. If greater than 0, the events received in the window are emitted as a"
+            + " single record, containing the most recent value of each channel. If emit.all.channels is set to true,"
+            + " the event values are merged into the last known values of the other channels"
+            + " instead of reading all channels again. If set to 0, an envelope is emitted for each event.";
+
+    private static final String LISTENER_BATCH_MAX_EVENTS_DESCRIPTION = "Maximum number of channel events collected"
+            + " in a batch. The batch is emitted as soon as this number of events is received,"
+            + " even if the listener.batch.window.ms time window is not elapsed yet.";
+
     private static void addOptions(Tad target, Enum<?>[] values) {
         final List<Option> options = target.getOption();
         for (Enum<?> value : values) {
@@ -120,6 +130,30 @@ public class WireAssetOCD extends BaseAssetOCD {
 
         addAD(emitEmptyEnvelopesAd);
 
+        final Tad listenerBatchWindowAd = new Tad();
+        listenerBatchWindowAd.setId(WireAssetOptions.LISTENER_BATCH_WINDOW_PROP_NAME);
+        listenerBatchWindowAd.setName(WireAssetOptions.LISTENER_BATCH_WINDOW_PROP_NAME);
+        listenerBatchWindowAd.setCardinality(0);
+        listenerBatchWindowAd.setType(Tscalar.INTEGER);
+        listenerBatchWindowAd.setDescription(LISTENER_BATCH_WINDOW_DESCRIPTION);
+        listenerBatchWindowAd.setRequired(true);
+        listenerBatchWindowAd.setDefault("0");
+        listenerBatchWindowAd.setMin("0");
+
+        addAD(listenerBatchWindowAd);
+
+        final Tad listenerBatchMaxEventsAd = new Tad();
+        listenerBatchMaxEventsAd.setId(WireAssetOptions.LISTENER_BATCH_MAX_EVENTS_PROP_NAME);
+        listenerBatchMaxEventsAd.setName(WireAssetOptions.LISTENER_BATCH_MAX_EVENTS_PROP_NAME);
+        listenerBatchMaxEventsAd.setCardinality(0);
+        listenerBatchMaxEventsAd.setType(Tscalar.INTEGER);
+        listenerBatchMaxEventsAd.setDescription(LISTENER_BATCH_MAX_EVENTS_DESCRIPTION);
+        listenerBatchMaxEventsAd.setRequired(true);
+        listenerBatchMaxEventsAd.setDefault(Integer.toString(WireAssetOptions.DEFAULT_LISTENER_BATCH_MAX_EVENTS));
+        listenerBatchMaxEventsAd.setMin("1");
+
+        addAD(listenerBatchMaxEventsAd);
+
     }
 
 }
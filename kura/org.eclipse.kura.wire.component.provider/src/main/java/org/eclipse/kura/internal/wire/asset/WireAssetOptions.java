@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018, 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2018, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -22,12 +22,18 @@ class WireAssetOptions {
     public static final String EMIT_ERRORS_PROP_NAME = "emit.errors";
     public static final String EMIT_ON_CHANGE_PROP_NAME = "emit.on.change";
     public static final String EMIT_EMPTY_ENVELOPES_PROP_NAME = "emit.empty.envelopes";
+    public static final String LISTENER_BATCH_WINDOW_PROP_NAME = "listener.batch.window.ms";
+    public static final String LISTENER_BATCH_MAX_EVENTS_PROP_NAME = "listener.batch.max.events";
+
+    static final int DEFAULT_LISTENER_BATCH_MAX_EVENTS = 1000;
 
     private boolean emitAllChannels;
     private TimestampMode timestampMode;
     private boolean emitErrors;
     private boolean emitOnChange;
     private boolean emitEmptyEnvelopes;
+    private int listenerBatchWindowMs;
+    private int listenerBatchMaxEvents = DEFAULT_LISTENER_BATCH_MAX_EVENTS;
 
     public WireAssetOptions() {
     }
@@ -37,12 +43,22 @@ class WireAssetOptions {
         final Object emitErrorsProp = properties.get(EMIT_ERRORS_PROP_NAME);
         final Object emitOnChangeProp = properties.get(EMIT_ON_CHANGE_PROP_NAME);
         final Object emitEmptyEnvelopesProp = properties.get(EMIT_EMPTY_ENVELOPES_PROP_NAME);
+        final Object listenerBatchWindowProp = properties.get(LISTENER_BATCH_WINDOW_PROP_NAME);
+        final Object listenerBatchMaxEventsProp = properties.get(LISTENER_BATCH_MAX_EVENTS_PROP_NAME);
 
         this.emitAllChannels = emitAllChannelsProp instanceof Boolean && (Boolean) emitAllChannelsProp;
         this.emitErrors = emitErrorsProp instanceof Boolean && (Boolean) emitErrorsProp;
         this.emitOnChange = emitOnChangeProp instanceof Boolean && (Boolean) emitOnChangeProp;
         this.emitEmptyEnvelopes = !(emitEmptyEnvelopesProp instanceof Boolean) || (Boolean) emitEmptyEnvelopesProp;
 
+        if (listenerBatchWindowProp instanceof Integer) {
+            this.listenerBatchWindowMs = Math.max(0, (Integer) listenerBatchWindowProp);
+        }
+
+        if (listenerBatchMaxEventsProp instanceof Integer && (Integer) listenerBatchMaxEventsProp > 0) {
+            this.listenerBatchMaxEvents = (Integer) listenerBatchMaxEventsProp;
+        }
+
         this.timestampMode = extractTimestampMode(properties);
     }
 
@@ -66,6 +82,18 @@ class WireAssetOptions {
         return this.emitEmptyEnvelopes;
     }
 
+    public boolean batchListenerEvents() {
+        return this.listenerBatchWindowMs > 0;
+    }
+
+    public int getListenerBatchWindowMs() {
+        return this.listenerBatchWindowMs;
+    }
+
+    public int getListenerBatchMaxEvents() {
+        return this.listenerBatchMaxEvents;
+    }
+
     private static TimestampMode extractTimestampMode(final Map<String, Object> properties) {
         try {
             return TimestampMode.valueOf(properties.get(TIMESTAMP_MODE_PROP_NAME).toString());
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -16,21 +16,18 @@ import static java.util.Objects.isNull;
 import static java.util.Objects.requireNonNull;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.function.Consumer;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.eclipse.kura.configuration.ConfigurableComponent;
-import org.eclipse.kura.configuration.ConfigurationService;
 import org.eclipse.kura.wire.WireComponent;
 import org.eclipse.kura.wire.WireEmitter;
 import org.eclipse.kura.wire.WireEnvelope;
 import org.eclipse.kura.wire.WireHelperService;
 import org.eclipse.kura.wire.WireReceiver;
+import org.eclipse.kura.wire.WireRecord;
 import org.eclipse.kura.wire.WireSupport;
 import org.osgi.framework.ServiceReference;
 import org.osgi.service.component.ComponentContext;
@@ -38,15 +35,12 @@ import org.osgi.service.wireadmin.Wire;
 
 public class Fifo implements WireEmitter, WireReceiver, ConfigurableComponent {
 
-    private static final String DISCARD_ENVELOPES_PROP_NAME = "discard.envelopes";
-    private static final String QUEUE_CAPACITY_PROP_NAME = "queue.capacity";
-
     private static final Logger logger = LogManager.getLogger(Fifo.class);
 
     private volatile WireHelperService wireHelperService;
     private WireSupport wireSupport;
 
-    private FifoEmitterThread emitterThread;
+    private volatile FifoEmitterThread emitterThread;
 
     public void bindWireHelperService(final WireHelperService wireHelperService) {
         if (isNull(this.wireHelperService)) {
@@ -77,37 +71,44 @@ public class Fifo implements WireEmitter, WireReceiver, ConfigurableComponent {
     public void updated(final Map<String, Object> properties) {
         logger.info("Updating Fifo...");
 
-        String threadName = (String) properties.getOrDefault(ConfigurationService.KURA_SERVICE_PID, "Fifo")
-                + "-EmitterThread";
-        int queueCapacity = (Integer) properties.getOrDefault(QUEUE_CAPACITY_PROP_NAME, 50);
-        boolean discardEnvelopes = (Boolean) properties.getOrDefault(DISCARD_ENVELOPES_PROP_NAME, false);
-
-        restartEmitterThread(threadName, queueCapacity, discardEnvelopes);
+        restartEmitterThread(new FifoOptions(properties));
 
         logger.info("Updating Fifo... Done");
     }
 
+    /**
+     * Returns the statistics of the current queue, they are reset when the component configuration is updated.
+     */
+    public FifoStatistics getStatistics() {
+        final FifoEmitterThread currentEmitterThread = this.emitterThread;
+
+        return currentEmitterThread != null ? currentEmitterThread.getStatistics() : new FifoStatistics(() -> 0);
+    }
+
     private synchronized void stopEmitterThread() {
         if (this.emitterThread != null) {
             this.emitterThread.shutdown();
+            logger.info("Stopped emitter thread, {}", this.emitterThread.getStatistics());
             this.emitterThread = null;
         }
     }
 
-    private synchronized void restartEmitterThread(String threadName, int queueCapacity, boolean discardEnvelopes) {
+    private synchronized void restartEmitterThread(final FifoOptions options) {
         stopEmitterThread();
 
-        logger.debug("Creating new emitter thread: {}, queue capacity: {}, discard envelopes: {}", threadName,
-                queueCapacity, discardEnvelopes);
-        this.emitterThread = new FifoEmitterThread(threadName, queueCapacity, discardEnvelopes);
+        logger.debug("Creating new emitter thread: {}, queue capacity: {}, overflow policy: {}, batch size: {}",
+                options.getThreadName(), options.getQueueCapacity(), options.getOverflowPolicy(),
+                options.getBatchSize());
+        this.emitterThread = new FifoEmitterThread(options);
         this.emitterThread.start();
     }
 
     @Override
     public void onWireReceive(WireEnvelope wireEnvelope) {
         requireNonNull(wireEnvelope, "Wire Envelope cannot be null");
-        if (this.emitterThread != null) {
-            this.emitterThread.submit(wireEnvelope);
+        final FifoEmitterThread currentEmitterThread = this.emitterThread;
+        if (currentEmitterThread != null) {
+            currentEmitterThread.submit(wireEnvelope);
         }
     }
 
@@ -133,107 +134,122 @@ public class Fifo implements WireEmitter, WireReceiver, ConfigurableComponent {
 
     private class FifoEmitterThread extends Thread {
 
-        private final Lock lock = new ReentrantLock();
-
-        private final Condition producer = this.lock.newCondition();
-        private final Condition consumer = this.lock.newCondition();
+        private final RingBuffer<QueuedEnvelope> queue;
+        private final OverflowPolicy overflowPolicy;
+        private final int batchSize;
+        private final FifoStatistics statistics;
+
+        public FifoEmitterThread(final FifoOptions options) {
+            this.queue = new RingBuffer<>(options.getQueueCapacity());
+            this.overflowPolicy = options.getOverflowPolicy();
+            this.batchSize = options.getBatchSize();
+            this.statistics = new FifoStatistics(this.queue::size);
+            setName(options.getThreadName());
+        }
 
-        private boolean run = true;
-        private final ArrayList<WireEnvelope> queue;
-        private final int queueCapacity;
+        public FifoStatistics getStatistics() {
+            return this.statistics;
+        }
 
-        private Consumer<WireEnvelope> submitter;
+        public void shutdown() {
+            this.queue.close();
+        }
 
-        public FifoEmitterThread(String threadName, int queueCapacity, boolean discardEnvelopes) {
-            this.queue = new ArrayList<>();
-            this.queueCapacity = queueCapacity;
-            setName(threadName);
-            if (discardEnvelopes) {
-                this.submitter = getEnvelopeDiscardingSubmitter();
-            } else {
-                this.submitter = getEmitterBlockingSubmitter();
+        public void submit(WireEnvelope envelope) {
+            if (this.queue.isClosed()) {
+                return;
             }
-        }
 
-        private Consumer<WireEnvelope> getEnvelopeDiscardingSubmitter() {
-            return (envelope) -> {
-                try {
-                    this.lock.lock();
-                    if (!this.run || this.queue.size() >= this.queueCapacity) {
-                        logger.debug("envelope discarded");
-                        return;
-                    } else {
-                        this.queue.add(envelope);
-                        this.producer.signal();
-                        logger.debug("envelope submitted");
+            final QueuedEnvelope queuedEnvelope = new QueuedEnvelope(envelope);
+
+            switch (this.overflowPolicy) {
+            case DISCARD_NEW:
+                if (!this.queue.offer(queuedEnvelope)) {
+                    this.statistics.onDropped();
+                    logger.debug("envelope discarded");
+                    return;
+                }
+                break;
+            case DISCARD_OLDEST:
+                while (!this.queue.offer(queuedEnvelope)) {
+                    if (this.queue.poll() != null) {
+                        this.statistics.onDropped();
+                        logger.debug("oldest envelope discarded");
                     }
-                } finally {
-                    this.lock.unlock();
                 }
-            };
-        }
-
-        private Consumer<WireEnvelope> getEmitterBlockingSubmitter() {
-            return (envelope) -> {
+                break;
+            default:
                 try {
-                    this.lock.lock();
-                    while (this.run && this.queue.size() >= this.queueCapacity) {
-                        this.consumer.await();
-                    }
-                    if (!this.run) {
+                    if (!this.queue.put(queuedEnvelope)) {
                         return;
                     }
-                    this.queue.add(envelope);
-                    this.producer.signal();
-                    logger.debug("envelope submitted");
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                     logger.warn("Interrupted while adding new envelope to queue", e);
-                } finally {
-                    this.lock.unlock();
+                    return;
                 }
-            };
-        }
-
-        public void shutdown() {
-            try {
-                this.lock.lock();
-                this.run = false;
-                this.producer.signalAll();
-                this.consumer.signalAll();
-            } finally {
-                this.lock.unlock();
             }
-        }
 
-        public void submit(WireEnvelope envelope) {
-            this.submitter.accept(envelope);
+            logger.debug("envelope submitted");
         }
 
         @Override
         public void run() {
-            while (this.run) {
+            while (!this.queue.isClosed()) {
                 try {
-                    WireEnvelope next = null;
-                    try {
-                        this.lock.lock();
-                        while (this.run && this.queue.isEmpty()) {
-                            this.producer.await();
-                        }
-                        if (!this.run) {
-                            break;
-                        }
-                        next = this.queue.remove(0);
-                        this.consumer.signal();
-                    } finally {
-                        this.lock.unlock();
+                    final QueuedEnvelope next = this.queue.take();
+
+                    if (next == null) {
+                        break;
                     }
-                    Fifo.this.wireSupport.emit(next.getRecords());
+
+                    Fifo.this.wireSupport.emit(drain(next));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
                 } catch (Exception e) {
                     logger.warn("Unexpected exception while dispatching envelope", e);
                 }
             }
-            logger.debug("exiting");
+            logger.debug("exiting, {}", this.statistics);
+        }
+
+        private List<WireRecord> drain(final QueuedEnvelope first) {
+            dequeued(first);
+
+            if (this.batchSize == 1) {
+                return first.envelope.getRecords();
+            }
+
+            final List<WireRecord> records = new ArrayList<>(first.envelope.getRecords());
+
+            for (int i = 1; i < this.batchSize; i++) {
+                final QueuedEnvelope next = this.queue.poll();
+
+                if (next == null) {
+                    break;
+                }
+
+                dequeued(next);
+                records.addAll(next.envelope.getRecords());
+            }
+
+            return records;
+        }
+
+        private void dequeued(final QueuedEnvelope queuedEnvelope) {
+            this.statistics.onDequeued(System.nanoTime() - queuedEnvelope.enqueuedNanos);
+        }
+    }
+
+    private static final class QueuedEnvelope {
+
+        private final WireEnvelope envelope;
+        private final long enqueuedNanos;
+
+        QueuedEnvelope(final WireEnvelope envelope) {
+            this.envelope = envelope;
+            this.enqueuedNanos = System.nanoTime();
         }
     }
 }
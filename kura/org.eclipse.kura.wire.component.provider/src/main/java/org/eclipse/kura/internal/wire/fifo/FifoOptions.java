@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.fifo;
+
+import java.util.Map;
+
+import org.eclipse.kura.configuration.ConfigurationService;
+
+final class FifoOptions {
+
+    private static final String DISCARD_ENVELOPES_PROP_NAME = "discard.envelopes";
+    private static final String DISCARD_POLICY_PROP_NAME = "discard.policy";
+    private static final String QUEUE_CAPACITY_PROP_NAME = "queue.capacity";
+    private static final String BATCH_SIZE_PROP_NAME = "batch.size";
+
+    private final String threadName;
+    private final int queueCapacity;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+
+    FifoOptions(final Map<String, Object> properties) {
+        this.threadName = (String) properties.getOrDefault(ConfigurationService.KURA_SERVICE_PID, "Fifo")
+                + "-EmitterThread";
+        this.queueCapacity = Math.max(1, (Integer) properties.getOrDefault(QUEUE_CAPACITY_PROP_NAME, 50));
+        this.batchSize = Math.max(1, (Integer) properties.getOrDefault(BATCH_SIZE_PROP_NAME, 1));
+
+        final boolean discardEnvelopes = (Boolean) properties.getOrDefault(DISCARD_ENVELOPES_PROP_NAME, false);
+
+        if (discardEnvelopes) {
+            this.overflowPolicy = OverflowPolicy.valueOf(
+                    (String) properties.getOrDefault(DISCARD_POLICY_PROP_NAME, OverflowPolicy.DISCARD_NEW.name()));
+        } else {
+            this.overflowPolicy = OverflowPolicy.BLOCK;
+        }
+    }
+
+    String getThreadName() {
+        return this.threadName;
+    }
+
+    int getQueueCapacity() {
+        return this.queueCapacity;
+    }
+
+    OverflowPolicy getOverflowPolicy() {
+        return this.overflowPolicy;
+    }
+
+    /**
+     * Returns the maximum number of queued envelopes whose records are merged in a single emitted envelope.
+     */
+    int getBatchSize() {
+        return this.batchSize;
+    }
+}
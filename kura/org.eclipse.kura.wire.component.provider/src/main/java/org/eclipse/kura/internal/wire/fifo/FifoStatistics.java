@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.fifo;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Counters describing the activity of a Fifo queue. The dequeue latency is the time spent by an envelope in the
+ * queue.
+ */
+public class FifoStatistics {
+
+    private final IntSupplier queueDepth;
+
+    private final LongAdder droppedEnvelopes = new LongAdder();
+    private final AtomicLong dequeuedEnvelopes = new AtomicLong();
+    private final AtomicLong totalDequeueLatencyNanos = new AtomicLong();
+    private final AtomicLong maxDequeueLatencyNanos = new AtomicLong();
+
+    FifoStatistics(final IntSupplier queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    void onDropped() {
+        this.droppedEnvelopes.increment();
+    }
+
+    // only called by the emitter thread
+    void onDequeued(final long latencyNanos) {
+        this.dequeuedEnvelopes.incrementAndGet();
+        this.totalDequeueLatencyNanos.addAndGet(latencyNanos);
+
+        if (latencyNanos > this.maxDequeueLatencyNanos.get()) {
+            this.maxDequeueLatencyNanos.set(latencyNanos);
+        }
+    }
+
+    public int getQueueDepth() {
+        return this.queueDepth.getAsInt();
+    }
+
+    public long getDroppedEnvelopes() {
+        return this.droppedEnvelopes.sum();
+    }
+
+    public long getDequeuedEnvelopes() {
+        return this.dequeuedEnvelopes.get();
+    }
+
+    public long getAverageDequeueLatency(final TimeUnit unit) {
+        final long count = this.dequeuedEnvelopes.get();
+
+        return count == 0 ? 0 : unit.convert(this.totalDequeueLatencyNanos.get() / count, TimeUnit.NANOSECONDS);
+    }
+
+    public long getMaxDequeueLatency(final TimeUnit unit) {
+        return unit.convert(this.maxDequeueLatencyNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "queue depth: " + getQueueDepth() + ", dequeued envelopes: " + getDequeuedEnvelopes()
+                + ", dropped envelopes: " + getDroppedEnvelopes() + ", average dequeue latency: "
+                + getAverageDequeueLatency(TimeUnit.MICROSECONDS) + " us, max dequeue latency: "
+                + getMaxDequeueLatency(TimeUnit.MICROSECONDS) + " us";
+    }
+}
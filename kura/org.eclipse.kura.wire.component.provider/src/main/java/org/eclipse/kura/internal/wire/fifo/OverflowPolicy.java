@@ -0,0 +1,25 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.fifo;
+
+/**
+ * The behavior of the Fifo component when an envelope is received and the queue is full.
+ */
+enum OverflowPolicy {
+    /** The emitter blocks until there is space in the queue. */
+    BLOCK,
+    /** The received envelope is discarded. */
+    DISCARD_NEW,
+    /** The oldest envelope in the queue is discarded to make room for the received one. */
+    DISCARD_OLDEST
+}
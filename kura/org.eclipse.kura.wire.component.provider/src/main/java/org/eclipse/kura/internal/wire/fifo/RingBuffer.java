@@ -0,0 +1,240 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.fifo;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded queue backed by a preallocated array.
+ * <p>
+ * Insertion and removal are lock free: each slot has a sequence number that tells whether it is ready to be written
+ * or read for a given position, producers and consumers claim positions with a compare and set. The queue is meant to
+ * be drained by a single consumer thread that parks when the queue is empty; producers only use a monitor when they
+ * need to wait for space in a full queue.
+ */
+class RingBuffer<T> {
+
+    private static final long MAX_WAIT_MILLIS = 100;
+
+    private final int capacity;
+    private final AtomicReferenceArray<T> elements;
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong enqueuePosition = new AtomicLong();
+    private final AtomicLong dequeuePosition = new AtomicLong();
+
+    private final Object notFull = new Object();
+    private final AtomicInteger waitingProducers = new AtomicInteger();
+
+    private volatile Thread waitingConsumer;
+    private volatile boolean closed;
+
+    RingBuffer(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than zero");
+        }
+
+        this.capacity = capacity;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+
+        for (int i = 0; i < capacity; i++) {
+            this.sequences.set(i, writableSequence(i));
+        }
+    }
+
+    int size() {
+        final long size = this.enqueuePosition.get() - this.dequeuePosition.get();
+
+        return (int) Math.max(0, Math.min(this.capacity, size));
+    }
+
+    boolean isClosed() {
+        return this.closed;
+    }
+
+    /**
+     * Inserts an element if the queue is not full.
+     *
+     * @return {@code true} if the element has been inserted
+     */
+    boolean offer(final T element) {
+        long position = this.enqueuePosition.get();
+        int index;
+
+        while (true) {
+            index = index(position);
+            final long difference = this.sequences.get(index) - writableSequence(position);
+
+            if (difference == 0) {
+                if (this.enqueuePosition.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = this.enqueuePosition.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = this.enqueuePosition.get();
+            }
+        }
+
+        this.elements.set(index, element);
+        this.sequences.set(index, readableSequence(position));
+
+        final Thread consumer = this.waitingConsumer;
+
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+
+        return true;
+    }
+
+    /**
+     * Inserts an element, waiting for space to become available if the queue is full.
+     *
+     * @return {@code true} if the element has been inserted, {@code false} if the queue has been closed while
+     *         waiting
+     */
+    boolean put(final T element) throws InterruptedException {
+        if (offer(element)) {
+            return true;
+        }
+
+        this.waitingProducers.incrementAndGet();
+
+        try {
+            synchronized (this.notFull) {
+                while (!this.closed) {
+                    if (offer(element)) {
+                        return true;
+                    }
+                    this.notFull.wait(MAX_WAIT_MILLIS);
+                }
+            }
+        } finally {
+            this.waitingProducers.decrementAndGet();
+        }
+
+        return false;
+    }
+
+    /**
+     * Removes the oldest element.
+     *
+     * @return the removed element, or {@code null} if the queue is empty
+     */
+    T poll() {
+        long position = this.dequeuePosition.get();
+        int index;
+
+        while (true) {
+            index = index(position);
+            final long difference = this.sequences.get(index) - readableSequence(position);
+
+            if (difference == 0) {
+                if (this.dequeuePosition.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = this.dequeuePosition.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = this.dequeuePosition.get();
+            }
+        }
+
+        final T result = this.elements.get(index);
+        this.elements.set(index, null);
+        this.sequences.set(index, writableSequence(position + this.capacity));
+
+        if (this.waitingProducers.get() > 0) {
+            synchronized (this.notFull) {
+                this.notFull.notifyAll();
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Removes the oldest element, waiting for one to become available if the queue is empty. Must be called by a
+     * single consumer thread.
+     *
+     * @return the removed element, or {@code null} if the queue has been closed
+     */
+    T take() throws InterruptedException {
+        while (true) {
+            final T result = poll();
+
+            if (result != null) {
+                return result;
+            }
+            if (this.closed) {
+                return null;
+            }
+
+            this.waitingConsumer = Thread.currentThread();
+
+            try {
+                if (size() == 0 && !this.closed) {
+                    LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(MAX_WAIT_MILLIS));
+                }
+            } finally {
+                this.waitingConsumer = null;
+            }
+
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    /**
+     * Closes the queue, waking up all waiting threads. Elements still in the queue can be retrieved with
+     * {@link #poll()}.
+     */
+    void close() {
+        this.closed = true;
+
+        final Thread consumer = this.waitingConsumer;
+
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+
+        synchronized (this.notFull) {
+            this.notFull.notifyAll();
+        }
+    }
+
+    private int index(final long position) {
+        return (int) (position % this.capacity);
+    }
+
+    // the sequence of a slot tells whether it can be written or read for a given position, the two values are
+    // different for every position also when the capacity is 1
+
+    private static long writableSequence(final long position) {
+        return position << 1;
+    }
+
+    private static long readableSequence(final long position) {
+        return (position << 1) + 1;
+    }
+}
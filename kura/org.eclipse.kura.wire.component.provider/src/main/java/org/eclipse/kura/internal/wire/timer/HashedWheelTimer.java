@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.timer;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A timer that keeps the scheduled tasks in a wheel of buckets, each one covering a tick of fixed duration. A single
+ * thread advances the wheel and hands the expired tasks to an {@link Executor}, so the cost of a timer does not
+ * depend on the number of scheduled tasks and no thread is dedicated to a single task.
+ * <p>
+ * Tasks are fired with a delay of at most one tick.
+ */
+final class HashedWheelTimer {
+
+    private static final Logger logger = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    private final long tickNanos;
+    private final List<List<Timeout>> wheel;
+    private final int mask;
+    private final Executor taskExecutor;
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final Thread workerThread;
+    private final long startTime = System.nanoTime();
+
+    private volatile boolean stopped;
+    private long tick;
+
+    HashedWheelTimer(final String name, final long tickDuration, final TimeUnit unit, final int ticksPerWheel,
+            final Executor taskExecutor) {
+        if (Integer.bitCount(ticksPerWheel) != 1) {
+            throw new IllegalArgumentException("ticksPerWheel must be a power of two");
+        }
+
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.mask = ticksPerWheel - 1;
+        this.taskExecutor = taskExecutor;
+        this.wheel = new ArrayList<>(ticksPerWheel);
+        for (int i = 0; i < ticksPerWheel; i++) {
+            this.wheel.add(new ArrayList<>());
+        }
+
+        this.workerThread = new Thread(this::run, name);
+        this.workerThread.setDaemon(true);
+        this.workerThread.start();
+    }
+
+    /**
+     * Schedules the execution of a task.
+     *
+     * @param task
+     *            the task, it is run by the task executor
+     * @param delay
+     *            the delay from now
+     * @param unit
+     *            the unit of the delay
+     * @return a handle that can be used to cancel the task
+     */
+    Timeout schedule(final Runnable task, final long delay, final TimeUnit unit) {
+        if (this.stopped) {
+            throw new IllegalStateException("Timer stopped");
+        }
+
+        final long deadlineNanos = System.nanoTime() - this.startTime + unit.toNanos(Math.max(0, delay));
+        final Timeout timeout = new Timeout(task, deadlineNanos);
+        this.pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    void stop() {
+        this.stopped = true;
+        this.workerThread.interrupt();
+    }
+
+    private void run() {
+        while (!this.stopped) {
+            if (!waitForNextTick()) {
+                break;
+            }
+
+            transferPendingTimeouts();
+            expireTimeouts(this.wheel.get((int) (this.tick & this.mask)));
+            this.tick++;
+        }
+    }
+
+    private boolean waitForNextTick() {
+        final long deadline = this.tickNanos * (this.tick + 1);
+
+        while (true) {
+            final long sleepNanos = deadline - (System.nanoTime() - this.startTime);
+
+            if (sleepNanos <= 0) {
+                return true;
+            }
+
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            } catch (final InterruptedException e) {
+                if (this.stopped) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    private void transferPendingTimeouts() {
+        Timeout timeout;
+
+        while ((timeout = this.pendingTimeouts.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+
+            final long expirationTick = timeout.deadlineNanos / this.tickNanos;
+            timeout.remainingRounds = (expirationTick - this.tick) / this.wheel.size();
+
+            // timeouts already expired are processed in the current tick
+            final long targetTick = Math.max(expirationTick, this.tick);
+            this.wheel.get((int) (targetTick & this.mask)).add(timeout);
+        }
+    }
+
+    private void expireTimeouts(final List<Timeout> bucket) {
+        final Iterator<Timeout> iterator = bucket.iterator();
+
+        while (iterator.hasNext()) {
+            final Timeout timeout = iterator.next();
+
+            if (timeout.cancelled) {
+                iterator.remove();
+            } else if (timeout.remainingRounds <= 0) {
+                iterator.remove();
+                fire(timeout);
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    private void fire(final Timeout timeout) {
+        try {
+            this.taskExecutor.execute(timeout.task);
+        } catch (final Exception e) {
+            logger.warn("Failed to run timer task", e);
+        }
+    }
+
+    static final class Timeout {
+
+        private final Runnable task;
+        private final long deadlineNanos;
+        private long remainingRounds;
+        private volatile boolean cancelled;
+
+        Timeout(final Runnable task, final long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        void cancel() {
+            this.cancelled = true;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2020, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -12,41 +12,143 @@
  *******************************************************************************/
 package org.eclipse.kura.internal.wire.timer;
 
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.eclipse.kura.internal.wire.timer.HashedWheelTimer.Timeout;
 import org.eclipse.kura.wire.WireSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class SimpleTimerExecutor implements TimerExecutor {
 
-    private final ScheduledExecutorService executor;
+    private static final Logger logger = LoggerFactory.getLogger(SimpleTimerExecutor.class);
+
+    private static final long TICK_MILLIS = 10;
+    private static final int TICKS_PER_WHEEL = 512;
+
+    private static TimerManager timerManager = new TimerManager();
+
+    private final HashedWheelTimer timer;
+    private final WireSupport wireSupport;
+    private final long intervalNanos;
+
+    private long nextDeadlineNanos;
+    private Timeout timeout;
+    private boolean stopped;
 
     public SimpleTimerExecutor(final TimerOptions options, final WireSupport wireSupport) {
-        this.executor = Executors.newSingleThreadScheduledExecutor(getThreadFactory(options.getOwnPid()));
+        this.wireSupport = wireSupport;
 
         long firstTickInterval = options.getSimpleInterval() * options.getSimpleTimeUnitMultiplier();
         if (!options.isDefaultFirstTickBehavior()) {
             firstTickInterval = options.firstTickInterval() * options.getSimpleTimeUnitMultiplier();
         }
 
-        this.executor.scheduleAtFixedRate(() -> Timer.emit(wireSupport), firstTickInterval,
-                options.getSimpleInterval() * options.getSimpleTimeUnitMultiplier(), TimeUnit.MILLISECONDS);
+        this.intervalNanos = TimeUnit.MILLISECONDS
+                .toNanos(options.getSimpleInterval() * options.getSimpleTimeUnitMultiplier());
+
+        if (this.intervalNanos <= 0) {
+            throw new IllegalArgumentException("the timer interval must be greater than zero");
+        }
+
+        this.timer = timerManager.onInstanceCreated();
+
+        synchronized (this) {
+            this.nextDeadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(firstTickInterval);
+            this.timeout = this.timer.schedule(this::tick, firstTickInterval, TimeUnit.MILLISECONDS);
+        }
     }
 
-    private static ThreadFactory getThreadFactory(final String pid) {
-        final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
+    private void tick() {
+        try {
+            Timer.emit(this.wireSupport);
+        } catch (final Exception e) {
+            logger.warn("failed to emit timer event", e);
+        }
+
+        synchronized (this) {
+            if (this.stopped) {
+                return;
+            }
 
-        return runnable -> {
-            final Thread result = defaultFactory.newThread(runnable);
-            result.setName("WiresTimer_" + pid + "_" + System.identityHashCode(result));
-            return result;
-        };
+            // fixed rate, late ticks are fired as soon as possible as done by ScheduledExecutorService
+            this.nextDeadlineNanos += this.intervalNanos;
+            this.timeout = this.timer.schedule(this::tick, this.nextDeadlineNanos - System.nanoTime(),
+                    TimeUnit.NANOSECONDS);
+        }
     }
 
     @Override
     public void shutdown() {
-        this.executor.shutdownNow();
+        synchronized (this) {
+            if (this.stopped) {
+                return;
+            }
+            this.stopped = true;
+            this.timeout.cancel();
+        }
+
+        timerManager.onInstanceDestroyed();
+    }
+
+    /**
+     * Shares a single {@link HashedWheelTimer} between all the simple timers. The tasks are run on a cached thread
+     * pool, so that a slow Wire graph delays only the ticks of its own timer, while idle timers do not keep any thread
+     * alive.
+     */
+    private static class TimerManager {
+
+        private int instanceCount;
+        private Optional<HashedWheelTimer> timer = Optional.empty();
+        private Optional<ExecutorService> taskExecutor = Optional.empty();
+
+        synchronized HashedWheelTimer onInstanceCreated() {
+            this.instanceCount++;
+
+            if (this.timer.isPresent()) {
+                return this.timer.get();
+            }
+
+            final ExecutorService newTaskExecutor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L,
+                    TimeUnit.SECONDS, new SynchronousQueue<>(), getThreadFactory());
+            final HashedWheelTimer newTimer = new HashedWheelTimer("WiresTimer", TICK_MILLIS, TimeUnit.MILLISECONDS,
+                    TICKS_PER_WHEEL, newTaskExecutor);
+
+            this.taskExecutor = Optional.of(newTaskExecutor);
+            this.timer = Optional.of(newTimer);
+
+            return newTimer;
+        }
+
+        synchronized void onInstanceDestroyed() {
+            this.instanceCount--;
+
+            if (this.instanceCount > 0) {
+                return;
+            }
+
+            this.timer.ifPresent(HashedWheelTimer::stop);
+            this.timer = Optional.empty();
+            this.taskExecutor.ifPresent(ExecutorService::shutdownNow);
+            this.taskExecutor = Optional.empty();
+        }
+
+        private static ThreadFactory getThreadFactory() {
+            final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
+            final AtomicInteger nextId = new AtomicInteger();
+
+            return runnable -> {
+                final Thread result = defaultFactory.newThread(runnable);
+                result.setName("WiresTimer_" + nextId.incrementAndGet());
+                return result;
+            };
+        }
     }
 }
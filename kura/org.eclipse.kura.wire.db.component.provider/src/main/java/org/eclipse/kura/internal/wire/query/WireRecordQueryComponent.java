@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2023, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -13,16 +13,19 @@
  *******************************************************************************/
 package org.eclipse.kura.internal.wire.query;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.UnaryOperator;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.eclipse.kura.KuraStoreException;
 import org.eclipse.kura.configuration.ConfigurableComponent;
+import org.eclipse.kura.type.TypedValue;
 import org.eclipse.kura.wire.WireComponent;
 import org.eclipse.kura.wire.WireEmitter;
 import org.eclipse.kura.wire.WireEnvelope;
@@ -89,17 +92,10 @@ public class WireRecordQueryComponent implements WireEmitter, WireReceiver, Conf
     @Override
     public synchronized void onWireReceive(final WireEnvelope wireEnvelope) {
 
-        final Optional<List<WireRecord>> records;
-
         try {
-            records = this.state.getRecords();
+            this.state.performQuery(this.wireSupport::emit);
         } catch (final Exception e) {
             logger.warn("failed to perform query", e);
-            return;
-        }
-
-        if (records.isPresent()) {
-            this.wireSupport.emit(records.get());
         }
     }
 
@@ -132,7 +128,7 @@ public class WireRecordQueryComponent implements WireEmitter, WireReceiver, Conf
         public State unsetQueryableWireRecordStoreProvider(
                 final QueryableWireRecordStoreProvider queryableWireRecordStore);
 
-        public Optional<List<WireRecord>> getRecords() throws KuraStoreException;
+        public void performQuery(Consumer<List<WireRecord>> emitter) throws KuraStoreException;
     }
 
     private static class Unsatisfied implements State {
@@ -172,7 +168,7 @@ public class WireRecordQueryComponent implements WireEmitter, WireReceiver, Conf
         }
 
         @Override
-        public Optional<List<WireRecord>> getRecords() throws KuraStoreException {
+        public void performQuery(final Consumer<List<WireRecord>> emitter) throws KuraStoreException {
 
             throw new KuraStoreException("Component dependencies are not satisfied");
         }
@@ -185,6 +181,7 @@ public class WireRecordQueryComponent implements WireEmitter, WireReceiver, Conf
         private final QueryableWireRecordStoreProvider provider;
 
         private Optional<CachedRecords> cachedRecords = Optional.empty();
+        private TypedValue<?> lastPageKey;
 
         public Satisfied(final WireRecordQueryComponentOptions options,
                 final QueryableWireRecordStoreProvider provider) {
@@ -216,7 +213,12 @@ public class WireRecordQueryComponent implements WireEmitter, WireReceiver, Conf
         }
 
         @Override
-        public synchronized Optional<List<WireRecord>> getRecords() throws KuraStoreException {
+        public synchronized void performQuery(final Consumer<List<WireRecord>> emitter) throws KuraStoreException {
+
+            if (this.options.isPaged()) {
+                emitPages(emitter);
+                return;
+            }
 
             final List<WireRecord> result;
 
@@ -231,10 +233,54 @@ public class WireRecordQueryComponent implements WireEmitter, WireReceiver, Conf
             }
 
             if (!result.isEmpty() || this.options.isEmitOnEmptyResult()) {
-                return Optional.of(result);
-            } else {
-                return Optional.empty();
+                emitter.accept(result);
+            }
+        }
+
+        /*
+         * Every page is read with a separate query, so that the store resources are not held while
+         * the downstream components process the emitted records. Pages are identified by the key of
+         * their last record, so that records removed from the store in the meantime do not shift the
+         * following ones.
+         */
+        private void emitPages(final Consumer<List<WireRecord>> emitter) throws KuraStoreException {
+            final int pageSize = this.options.getPageSize();
+            final String keyProperty = this.options.getPageKey();
+            final boolean resume = this.options.isResumeFromLastPage();
+
+            TypedValue<?> lastKey = resume ? this.lastPageKey : null;
+            boolean isEmpty = true;
+            List<WireRecord> page;
+
+            do {
+                page = this.provider.performQuery(this.options.getQuery(), keyProperty, lastKey, pageSize);
+
+                if (!page.isEmpty()) {
+                    lastKey = getKey(page.get(page.size() - 1), keyProperty);
+
+                    if (resume) {
+                        this.lastPageKey = lastKey;
+                    }
+
+                    isEmpty = false;
+                    emitter.accept(page);
+                }
+            } while (!resume && page.size() == pageSize);
+
+            if (isEmpty && this.options.isEmitOnEmptyResult()) {
+                emitter.accept(new ArrayList<>());
+            }
+        }
+
+        private static TypedValue<?> getKey(final WireRecord wireRecord, final String keyProperty)
+                throws KuraStoreException {
+            final TypedValue<?> key = wireRecord.getProperties().get(keyProperty);
+
+            if (key == null) {
+                throw new KuraStoreException("The query result does not contain the page key " + keyProperty);
             }
+
+            return key;
         }
 
     }
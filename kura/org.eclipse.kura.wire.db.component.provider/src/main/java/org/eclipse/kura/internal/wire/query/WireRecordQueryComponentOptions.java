@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2023, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -25,15 +25,25 @@ public final class WireRecordQueryComponentOptions {
     private static final Property<Integer> CACHE_EXPIRATION_INTERVAL_PROPERTY = new Property<>(
             "cache.expiration.interval", 0);
     private static final Property<Boolean> EMIT_ON_EMPTY_RESULT_PROPERTY = new Property<>("emit.on.empty.result", true);
+    private static final Property<Integer> PAGE_SIZE_PROPERTY = new Property<>("page.size", 0);
+    private static final Property<String> PAGE_KEY_PROPERTY = new Property<>("page.key", "ID");
+    private static final Property<Boolean> RESUME_FROM_LAST_PAGE_PROPERTY = new Property<>("resume.from.last.page",
+            false);
 
     private final String query;
     private final int cacheExpirationInterval;
     private final boolean emitOnEmptyResult;
+    private final int pageSize;
+    private final String pageKey;
+    private final boolean resumeFromLastPage;
 
     public WireRecordQueryComponentOptions(final Map<String, Object> properties) {
         this.cacheExpirationInterval = CACHE_EXPIRATION_INTERVAL_PROPERTY.get(properties);
         this.query = QUERY_PROPERTY.get(properties);
         this.emitOnEmptyResult = EMIT_ON_EMPTY_RESULT_PROPERTY.get(properties);
+        this.pageSize = Math.max(0, PAGE_SIZE_PROPERTY.get(properties));
+        this.pageKey = PAGE_KEY_PROPERTY.get(properties);
+        this.resumeFromLastPage = RESUME_FROM_LAST_PAGE_PROPERTY.get(properties);
     }
 
     public String getQuery() {
@@ -48,9 +58,25 @@ public final class WireRecordQueryComponentOptions {
         return emitOnEmptyResult;
     }
 
+    public boolean isPaged() {
+        return pageSize > 0;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public String getPageKey() {
+        return pageKey;
+    }
+
+    public boolean isResumeFromLastPage() {
+        return resumeFromLastPage;
+    }
+
     @Override
     public int hashCode() {
-        return Objects.hash(cacheExpirationInterval, emitOnEmptyResult, query);
+        return Objects.hash(cacheExpirationInterval, emitOnEmptyResult, query, pageSize, pageKey, resumeFromLastPage);
     }
 
     @Override
@@ -63,7 +89,8 @@ public final class WireRecordQueryComponentOptions {
         }
         WireRecordQueryComponentOptions other = (WireRecordQueryComponentOptions) obj;
         return cacheExpirationInterval == other.cacheExpirationInterval && emitOnEmptyResult == other.emitOnEmptyResult
-                && Objects.equals(query, other.query);
+                && Objects.equals(query, other.query) && pageSize == other.pageSize
+                && Objects.equals(pageKey, other.pageKey) && resumeFromLastPage == other.resumeFromLastPage;
     }
 
 }
\ No newline at end of file
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2022, 2024 Eurotech and/or its affiliates and others
  *
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -28,4 +28,42 @@ public class TritonServerServiceInferTest extends TritonServerServiceStepDefinit
         thenTensorsAreReturned();
     }
 
+    @Test
+    public void shouldSendInputDataAsRawContents() throws IOException {
+        givenTritonServerServiceImpl(defaultProperties());
+
+        whenInferData(exampleModel(), exampleInputData());
+
+        thenInputIsSentAsRawDoubles(3.45, 7.34, 88.887);
+    }
+
+    @Test
+    public void shouldInferDataAsync() throws IOException {
+        givenTritonServerServiceImpl(defaultProperties());
+
+        whenInferDataAsync(exampleModel(), exampleInputData());
+
+        thenTensorsAreReturned();
+        thenInputIsSentAsRawDoubles(3.45, 7.34, 88.887);
+    }
+
+    @Test
+    public void shouldSendBufferBackedInputDataAsRawContents() throws IOException {
+        givenTritonServerServiceImpl(defaultProperties());
+
+        whenInferData(exampleModel(), exampleBufferBackedInputData());
+
+        thenInputIsSentAsRawDoubles(3.45, 7.34, 88.887);
+    }
+
+    @Test
+    public void shouldReturnBufferBackedOutputs() throws IOException {
+        givenTritonServerServiceImpl(defaultProperties());
+
+        whenInferData(exampleModel(), exampleInputData());
+
+        thenTensorsAreReturned();
+        thenNumericTensorsAreBufferBacked();
+    }
+
 }
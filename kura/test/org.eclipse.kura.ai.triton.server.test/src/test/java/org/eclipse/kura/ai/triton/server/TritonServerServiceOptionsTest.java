@@ -229,6 +229,28 @@ public class TritonServerServiceOptionsTest {
         thenGrpcMaxMessageSizeIsEqualTo(4194304);
     }
 
+    @Test
+    public void shouldReturnInputGrpcMaxOutstandingRequests() {
+        givenPropertyWith("server.address", "localhost");
+        givenPropertyWith("server.ports", new Integer[] { 4000, 4001, 4002 });
+        givenPropertyWith("enable.local", Boolean.FALSE);
+        givenPropertyWith("grpc.max.outstanding.requests", 32);
+        givenServiceOptionsBuiltWith(this.properties);
+
+        thenGrpcMaxOutstandingRequestsIsEqualTo(32);
+    }
+
+    @Test
+    public void shouldReturnDefaultGrpcMaxOutstandingRequests() {
+        givenPropertyWith("server.address", "localhost");
+        givenPropertyWith("server.ports", new Integer[] { 4000, 4001, 4002 });
+        givenPropertyWith("enable.local", Boolean.FALSE);
+        givenPropertyWith("grpc.max.outstanding.requests", 0);
+        givenServiceOptionsBuiltWith(this.properties);
+
+        thenGrpcMaxOutstandingRequestsIsEqualTo(8);
+    }
+
     @Test
     public void shouldReturnNotPresentForOptionalParametersIfNotSet() {
         givenPropertyWith("server.address", "localhost");
@@ -447,6 +469,10 @@ public class TritonServerServiceOptionsTest {
         assertEquals(expectedValue, this.options.getGrpcMaxMessageSize());
     }
 
+    private void thenGrpcMaxOutstandingRequestsIsEqualTo(int expectedValue) {
+        assertEquals(expectedValue, this.options.getGrpcMaxOutstandingRequests());
+    }
+
     private void thenEqualsMethodShouldReturn(boolean value) {
         assertEquals(value, this.equalsResult);
     }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2022, 2024 Eurotech and/or its affiliates and others
  *
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -13,6 +13,8 @@
 
 package org.eclipse.kura.ai.triton.server;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.AdditionalAnswers.delegatesTo;
@@ -24,12 +26,16 @@ import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 
 import org.eclipse.kura.KuraException;
@@ -99,6 +105,7 @@ public abstract class TritonServerServiceStepDefinitions {
 
     protected List<String> modelsFound = new ArrayList<>();
     private List<Tensor> tensorList = new ArrayList<>();
+    private ModelInferRequest lastInferRequest;
     private boolean isEngineReady;
     private CommandExecutorService ces;
     private CryptoService cry;
@@ -172,6 +179,17 @@ public abstract class TritonServerServiceStepDefinitions {
         }
     }
 
+    protected void whenInferDataAsync(ModelInfo modelInfo, List<Tensor> inputData) {
+        try {
+            this.tensorList = this.tritonServerService.inferAsync(modelInfo, inputData).get(10, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            this.exceptionCaught = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.exceptionCaught = true;
+        }
+    }
+
     protected void whenAskingIfEngineIsReady() {
         this.isEngineReady = this.tritonServerService.isEngineReady();
     }
@@ -236,6 +254,23 @@ public abstract class TritonServerServiceStepDefinitions {
         assertFalse(this.tensorList.isEmpty());
     }
 
+    protected void thenNumericTensorsAreBufferBacked() {
+        this.tensorList.stream().filter(tensor -> tensor.getType() != Boolean.class)
+                .forEach(tensor -> assertTrue(tensor.isBufferBacked()));
+    }
+
+    protected void thenInputIsSentAsRawDoubles(double... values) {
+        assertEquals(1, this.lastInferRequest.getRawInputContentsCount());
+        assertFalse(this.lastInferRequest.getInputs(0).hasContents());
+
+        ByteBuffer expected = ByteBuffer.allocate(values.length * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (double value : values) {
+            expected.putDouble(value);
+        }
+
+        assertArrayEquals(expected.array(), this.lastInferRequest.getRawInputContents(0).toByteArray());
+    }
+
     protected void thenAfterWaiting(long millisecondsToWait) throws InterruptedException {
         Thread.sleep(millisecondsToWait);
     }
@@ -338,6 +373,13 @@ public abstract class TritonServerServiceStepDefinitions {
         return tensors;
     }
 
+    protected List<Tensor> exampleBufferBackedInputData() {
+        TensorDescriptor descriptor = new TensorDescriptor("name", "FP64", Optional.empty(), Arrays.asList(1l),
+                new HashMap<String, Object>());
+
+        return Arrays.asList(new Tensor(descriptor, new double[] { 3.45, 7.34, 88.887 }));
+    }
+
     private TritonServerServiceAbs createTritonServerServiceImpl(Map<String, Object> properties,
             List<String> tritonModelRepoStub, boolean activate) throws IOException {
 
@@ -528,6 +570,7 @@ public abstract class TritonServerServiceStepDefinitions {
                             StreamObserver<ModelInferResponse> responseObserver) {
 
                         TritonServerServiceStepDefinitions.this.methodCalled = true;
+                        TritonServerServiceStepDefinitions.this.lastInferRequest = request;
 
                         List<InferOutputTensor> outputTensor = new ArrayList<>();
                         outputTensor.add(InferOutputTensor.newBuilder().setDatatype("FP64").setName("name1")
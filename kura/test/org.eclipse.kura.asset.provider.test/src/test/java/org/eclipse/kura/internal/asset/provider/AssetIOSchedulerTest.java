@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.asset.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.kura.internal.asset.provider.AssetIOScheduler.AssetIOExecutor;
+import org.junit.After;
+import org.junit.Test;
+
+public class AssetIOSchedulerTest {
+
+    private AssetIOScheduler scheduler;
+    private final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger concurrency = new AtomicInteger();
+    private final AtomicInteger maxConcurrency = new AtomicInteger();
+    private final CountDownLatch gate = new CountDownLatch(1);
+
+    @Test
+    public void shouldLimitGlobalConcurrency() throws InterruptedException {
+        givenScheduler(2, 10);
+        final AssetIOExecutor first = givenExecutor("driver1");
+        final AssetIOExecutor second = givenExecutor("driver2");
+
+        whenTasksSubmitted(first, "a", "b", "c");
+        whenTasksSubmitted(second, "d", "e", "f");
+        whenGateOpened();
+
+        thenAllTasksCompleted(first, second);
+        thenMaxConcurrencyIs(2);
+    }
+
+    @Test
+    public void shouldSerializeTasksOfSameDriver() throws InterruptedException {
+        givenScheduler(4, 1);
+        final AssetIOExecutor first = givenExecutor("driver1");
+        final AssetIOExecutor second = givenExecutor("driver1");
+
+        whenTasksSubmitted(first, "a", "b");
+        whenTasksSubmitted(second, "c", "d");
+        whenGateOpened();
+
+        thenAllTasksCompleted(first, second);
+        thenMaxConcurrencyIs(1);
+        thenExecutionOrderIs("a", "b", "c", "d");
+    }
+
+    @Test
+    public void shouldServeDriversInRoundRobin() throws InterruptedException {
+        givenScheduler(1, 1);
+        final AssetIOExecutor slow = givenExecutor("slow");
+        final AssetIOExecutor fast = givenExecutor("fast");
+
+        whenTasksSubmitted(slow, "s1", "s2", "s3");
+        whenTasksSubmitted(fast, "f1", "f2");
+        whenGateOpened();
+
+        thenAllTasksCompleted(slow, fast);
+        thenExecutionOrderIs("s1", "f1", "s2", "f2", "s3");
+    }
+
+    @Test
+    public void shouldRecordStatistics() throws InterruptedException {
+        givenScheduler(1, 1);
+        final AssetIOExecutor executor = givenExecutor("driver1");
+
+        whenTasksSubmitted(executor, "a", "b");
+        whenSleep(50);
+        whenGateOpened();
+
+        thenAllTasksCompleted(executor);
+        thenStatisticsCountIs(executor, 2);
+        thenMaxQueueWaitIsAtLeast(executor, 50);
+    }
+
+    @Test
+    public void shouldRejectTasksAfterShutdown() throws InterruptedException {
+        givenScheduler(1, 1);
+        final AssetIOExecutor executor = givenExecutor("driver1");
+
+        executor.shutdown();
+
+        thenTaskIsRejected(executor);
+        assertTrue(executor.isTerminated());
+    }
+
+    @After
+    public void tearDown() {
+        this.scheduler.shutdown();
+    }
+
+    private void givenScheduler(final int maxConcurrency, final int driverMaxConcurrency) {
+        this.scheduler = new AssetIOScheduler(maxConcurrency, driverMaxConcurrency, false);
+    }
+
+    private AssetIOExecutor givenExecutor(final String driverPid) {
+        return this.scheduler.newExecutor(() -> "asset", () -> driverPid);
+    }
+
+    private void whenTasksSubmitted(final AssetIOExecutor executor, final String... names) {
+        for (final String name : names) {
+            executor.execute(() -> {
+                final int current = this.concurrency.incrementAndGet();
+                this.maxConcurrency.accumulateAndGet(current, Math::max);
+                try {
+                    this.gate.await();
+                    Thread.sleep(5);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                this.executed.add(name);
+                this.concurrency.decrementAndGet();
+            });
+        }
+    }
+
+    private void whenGateOpened() {
+        this.gate.countDown();
+    }
+
+    private void whenSleep(final long millis) throws InterruptedException {
+        Thread.sleep(millis);
+    }
+
+    private void thenAllTasksCompleted(final AssetIOExecutor... executors) throws InterruptedException {
+        for (final AssetIOExecutor executor : executors) {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    private void thenMaxConcurrencyIs(final int expected) {
+        assertEquals(expected, this.maxConcurrency.get());
+    }
+
+    private void thenExecutionOrderIs(final String... expected) {
+        assertEquals(Arrays.asList(expected), this.executed);
+    }
+
+    private void thenStatisticsCountIs(final AssetIOExecutor executor, final long expected) {
+        assertEquals(expected, executor.getStatistics().getCount());
+    }
+
+    private void thenMaxQueueWaitIsAtLeast(final AssetIOExecutor executor, final long millis) {
+        assertTrue(executor.getStatistics().getMaxQueueWait(TimeUnit.MILLISECONDS) >= millis);
+    }
+
+    private void thenTaskIsRejected(final AssetIOExecutor executor) {
+        try {
+            executor.execute(() -> {
+            });
+            fail("task should have been rejected");
+        } catch (final RejectedExecutionException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,395 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.asset.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.kura.channel.ChannelFlag;
+import org.eclipse.kura.channel.ChannelRecord;
+import org.eclipse.kura.channel.ChannelStatus;
+import org.eclipse.kura.channel.listener.ChannelListener;
+import org.eclipse.kura.driver.ChannelDescriptor;
+import org.eclipse.kura.driver.Driver;
+import org.eclipse.kura.driver.PreparedRead;
+import org.eclipse.kura.internal.asset.provider.AssetPollingEngine.AssetPoller;
+import org.eclipse.kura.type.DataType;
+import org.eclipse.kura.type.TypedValues;
+import org.junit.After;
+import org.junit.Test;
+
+public class AssetPollingEngineTest {
+
+    private final AssetIOScheduler scheduler = new AssetIOScheduler(4, 1, false);
+    private final AssetPollingEngine engine = new AssetPollingEngine(this.scheduler, 0, TimeUnit.MILLISECONDS);
+    private final StubDriver driver = new StubDriver();
+    private CountDownLatch gate = new CountDownLatch(0);
+
+    @Test
+    public void shouldMergePreparedReadsOfSameCycle() throws Exception {
+        final StubPreparedRead blocking = givenBlockingPreparedRead();
+        final StubPreparedRead first = givenPreparedRead("a1", "a2");
+        final StubPreparedRead second = givenPreparedRead("b1");
+        final AssetPoller blockingPoller = givenPoller();
+        final AssetPoller firstPoller = givenPoller();
+        final AssetPoller secondPoller = givenPoller();
+
+        final CompletableFuture<List<ChannelRecord>> blockingResult = whenPolled(blockingPoller, blocking);
+        whenBlockingReadStarted();
+        final CompletableFuture<List<ChannelRecord>> firstResult = whenPolled(firstPoller, first);
+        final CompletableFuture<List<ChannelRecord>> secondResult = whenPolled(secondPoller, second);
+        whenGateOpened();
+
+        thenCompleted(blockingResult);
+        assertSame(first.getChannelRecords(), thenCompleted(firstResult));
+        assertSame(second.getChannelRecords(), thenCompleted(secondResult));
+        thenReadValuesAreSet(first, second);
+        thenMergedReadRecordsAre("a1", "a2", "b1");
+        assertEquals(0, first.executions);
+        assertEquals(0, second.executions);
+    }
+
+    @Test
+    public void shouldReuseMergedReadAcrossCycles() throws Exception {
+        final StubPreparedRead first = givenPreparedRead("a1");
+        final StubPreparedRead second = givenPreparedRead("b1");
+        final AssetPoller firstPoller = givenPoller();
+        final AssetPoller secondPoller = givenPoller();
+
+        for (int i = 0; i < 2; i++) {
+            whenPeriodElapsed();
+            final StubPreparedRead blocking = givenBlockingPreparedRead();
+            final CompletableFuture<List<ChannelRecord>> blockingResult = whenPolled(givenPoller(), blocking);
+            whenBlockingReadStarted();
+            final CompletableFuture<List<ChannelRecord>> firstResult = whenPolled(firstPoller, first);
+            final CompletableFuture<List<ChannelRecord>> secondResult = whenPolled(secondPoller, second);
+            whenGateOpened();
+
+            thenCompleted(blockingResult);
+            thenCompleted(firstResult);
+            thenCompleted(secondResult);
+        }
+
+        assertEquals(1, this.driver.mergedReads.size());
+        assertEquals(2, this.driver.mergedReads.get(0).executions);
+    }
+
+    @Test
+    public void shouldDiscardMergedReadIfResultCannotBeDistributed() throws Exception {
+        final StubPreparedRead first = givenPreparedRead("a1");
+        final StubPreparedRead second = givenPreparedRead("b1");
+        final AssetPoller firstPoller = givenPoller();
+        final AssetPoller secondPoller = givenPoller();
+        this.driver.incompleteMergedReads = true;
+
+        for (int i = 0; i < 2; i++) {
+            whenPeriodElapsed();
+            final StubPreparedRead blocking = givenBlockingPreparedRead();
+            final CompletableFuture<List<ChannelRecord>> blockingResult = whenPolled(givenPoller(), blocking);
+            whenBlockingReadStarted();
+            final CompletableFuture<List<ChannelRecord>> firstResult = whenPolled(firstPoller, first);
+            final CompletableFuture<List<ChannelRecord>> secondResult = whenPolled(secondPoller, second);
+            whenGateOpened();
+
+            thenCompleted(blockingResult);
+            thenCompleted(firstResult);
+            thenCompleted(secondResult);
+        }
+
+        assertEquals(1, this.driver.mergedReads.size());
+        assertEquals(1, this.driver.mergedReads.get(0).executions);
+        assertTrue(this.driver.mergedReads.get(0).closed);
+        assertEquals(2, first.executions);
+        assertEquals(2, second.executions);
+    }
+
+    @Test
+    public void shouldReleaseDriverGroupWhenPollersAreClosed() throws Exception {
+        final StubPreparedRead own = givenPreparedRead("a1");
+        final AssetPoller firstPoller = givenPoller();
+        final AssetPoller secondPoller = givenPoller();
+
+        thenCompleted(whenPolled(firstPoller, own));
+        thenCompleted(whenPolled(secondPoller, own));
+        firstPoller.close();
+
+        thenDriverGroupCountIs(1);
+
+        secondPoller.close();
+
+        thenDriverGroupCountIs(0);
+    }
+
+    @Test
+    public void shouldSupersedePendingRequest() throws Exception {
+        final StubPreparedRead blocking = givenBlockingPreparedRead();
+        final StubPreparedRead own = givenPreparedRead("a1");
+        final AssetPoller blockingPoller = givenPoller();
+        final AssetPoller poller = givenPoller();
+
+        final CompletableFuture<List<ChannelRecord>> blockingResult = whenPolled(blockingPoller, blocking);
+        whenBlockingReadStarted();
+        final CompletableFuture<List<ChannelRecord>> superseded = whenPolled(poller, own);
+        // a request period shorter than the wait for the running cycle would make the latest request late
+        Thread.sleep(100);
+        final CompletableFuture<List<ChannelRecord>> latest = whenPolled(poller, own);
+        whenGateOpened();
+
+        thenCompleted(blockingResult);
+        thenCancelled(superseded);
+        thenCompleted(latest);
+        assertEquals(1, own.executions);
+        assertEquals(1, poller.getStatistics().getOverruns());
+        assertEquals(1, poller.getStatistics().getCycles());
+    }
+
+    @Test
+    public void shouldSkipLateRequest() throws Exception {
+        final StubPreparedRead own = givenPreparedRead("a1");
+        final AssetPoller poller = givenPoller();
+
+        // establishes a request period of about 20 ms
+        thenCompleted(whenPolled(poller, own));
+        Thread.sleep(20);
+        thenCompleted(whenPolled(poller, own));
+
+        final StubPreparedRead blocking = givenBlockingPreparedRead();
+        final CompletableFuture<List<ChannelRecord>> blockingResult = whenPolled(givenPoller(), blocking);
+        whenBlockingReadStarted();
+        final CompletableFuture<List<ChannelRecord>> late = whenPolled(poller, own);
+        Thread.sleep(200);
+        whenGateOpened();
+
+        thenCompleted(blockingResult);
+        thenCancelled(late);
+        assertEquals(2, own.executions);
+        assertEquals(1, poller.getStatistics().getSkipped());
+    }
+
+    @Test
+    public void shouldRecordLatencyAndJitter() throws Exception {
+        final StubPreparedRead own = givenPreparedRead("a1");
+        final AssetPoller poller = givenPoller();
+
+        for (int i = 0; i < 3; i++) {
+            whenPeriodElapsed();
+            thenCompleted(whenPolled(poller, own));
+        }
+
+        final AssetPollingStatistics statistics = poller.getStatistics();
+        assertEquals(3, statistics.getCycles());
+        assertEquals(3, statistics.getLatency().getCount());
+        assertEquals(2, statistics.getJitter().getCount());
+        assertTrue(statistics.getLatency().getPercentile(100, TimeUnit.MICROSECONDS) > 0);
+    }
+
+    @After
+    public void tearDown() {
+        this.gate.countDown();
+        this.engine.shutdown();
+        this.scheduler.shutdown();
+    }
+
+    private AssetPoller givenPoller() {
+        return this.engine.newPoller(() -> "asset", () -> "driver");
+    }
+
+    private StubPreparedRead givenPreparedRead(final String... channelNames) {
+        final List<ChannelRecord> records = new ArrayList<>();
+
+        for (final String channelName : channelNames) {
+            records.add(ChannelRecord.createReadRecord(channelName, DataType.INTEGER));
+        }
+
+        return new StubPreparedRead(Collections.unmodifiableList(records), null);
+    }
+
+    private StubPreparedRead givenBlockingPreparedRead() {
+        this.gate = new CountDownLatch(1);
+        return new StubPreparedRead(Collections.singletonList(ChannelRecord.createReadRecord("x", DataType.INTEGER)),
+                this.gate);
+    }
+
+    private CompletableFuture<List<ChannelRecord>> whenPolled(final AssetPoller poller,
+            final StubPreparedRead preparedRead) {
+        return poller.poll(this.driver, () -> preparedRead, preparedRead::getChannelRecords, records -> records);
+    }
+
+    private void whenPeriodElapsed() throws InterruptedException {
+        // requests issued in a burst have a very short period, and would be skipped if not started immediately
+        Thread.sleep(50);
+    }
+
+    private void whenBlockingReadStarted() throws InterruptedException {
+        assertTrue(this.driver.blockingReadStarted.poll(10, TimeUnit.SECONDS) != null);
+    }
+
+    private void whenGateOpened() {
+        this.gate.countDown();
+    }
+
+    private List<ChannelRecord> thenCompleted(final CompletableFuture<List<ChannelRecord>> future)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        return future.get(10, TimeUnit.SECONDS);
+    }
+
+    private void thenCancelled(final CompletableFuture<List<ChannelRecord>> future) throws Exception {
+        try {
+            future.get(10, TimeUnit.SECONDS);
+        } catch (final CancellationException e) {
+            return;
+        }
+        throw new AssertionError("request should have been cancelled");
+    }
+
+    private void thenDriverGroupCountIs(final int expected) throws InterruptedException {
+        // the group of the last cycle is released when the cycle ends, after completing the requests
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+        while (this.engine.getDriverGroupCount() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(expected, this.engine.getDriverGroupCount());
+    }
+
+    private void thenReadValuesAreSet(final StubPreparedRead... preparedReads) {
+        for (final StubPreparedRead preparedRead : preparedReads) {
+            for (final ChannelRecord record : preparedRead.getChannelRecords()) {
+                assertEquals(ChannelFlag.SUCCESS, record.getChannelStatus().getChannelFlag());
+            }
+        }
+    }
+
+    private void thenMergedReadRecordsAre(final String... channelNames) {
+        assertEquals(1, this.driver.mergedReads.size());
+
+        final List<String> names = new ArrayList<>();
+        for (final ChannelRecord record : this.driver.mergedReads.get(0).getChannelRecords()) {
+            names.add(record.getChannelName());
+        }
+
+        assertEquals(Arrays.asList(channelNames), names);
+        assertEquals(1, this.driver.mergedReads.get(0).executions);
+    }
+
+    private final class StubPreparedRead implements PreparedRead {
+
+        private final List<ChannelRecord> records;
+        private final CountDownLatch release;
+        private volatile int executions;
+        private volatile boolean incomplete;
+        private volatile boolean closed;
+
+        StubPreparedRead(final List<ChannelRecord> records, final CountDownLatch release) {
+            this.records = records;
+            this.release = release;
+        }
+
+        @Override
+        public List<ChannelRecord> execute() {
+            if (this.release != null) {
+                AssetPollingEngineTest.this.driver.blockingReadStarted.add(this);
+                try {
+                    this.release.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            for (final ChannelRecord record : this.records) {
+                record.setValue(TypedValues.newIntegerValue(1));
+                record.setChannelStatus(new ChannelStatus(ChannelFlag.SUCCESS));
+            }
+
+            this.executions++;
+            return this.incomplete ? this.records.subList(0, this.records.size() - 1) : this.records;
+        }
+
+        @Override
+        public List<ChannelRecord> getChannelRecords() {
+            return this.records;
+        }
+
+        @Override
+        public void close() {
+            this.closed = true;
+        }
+    }
+
+    private final class StubDriver implements Driver {
+
+        private final List<StubPreparedRead> mergedReads = Collections.synchronizedList(new ArrayList<>());
+        private final BlockingQueue<StubPreparedRead> blockingReadStarted = new LinkedBlockingQueue<>();
+        private volatile boolean incompleteMergedReads;
+
+        @Override
+        public void connect() {
+            // not needed
+        }
+
+        @Override
+        public void disconnect() {
+            // not needed
+        }
+
+        @Override
+        public ChannelDescriptor getChannelDescriptor() {
+            return null;
+        }
+
+        @Override
+        public void read(final List<ChannelRecord> records) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void registerChannelListener(final Map<String, Object> channelConfig,
+                final ChannelListener listener) {
+            // not needed
+        }
+
+        @Override
+        public void unregisterChannelListener(final ChannelListener listener) {
+            // not needed
+        }
+
+        @Override
+        public void write(final List<ChannelRecord> records) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PreparedRead prepareRead(final List<ChannelRecord> records) {
+            final StubPreparedRead result = new StubPreparedRead(records, null);
+            result.incomplete = this.incompleteMergedReads;
+            this.mergedReads.add(result);
+            return result;
+        }
+    }
+}
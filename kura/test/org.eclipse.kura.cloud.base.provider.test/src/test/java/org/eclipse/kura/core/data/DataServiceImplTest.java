@@ -30,20 +30,27 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.kura.KuraConnectException;
+import org.eclipse.kura.KuraErrorCode;
+import org.eclipse.kura.KuraException;
 import org.eclipse.kura.KuraStoreException;
 import org.eclipse.kura.core.testutil.TestUtil;
 import org.eclipse.kura.data.DataTransportService;
+import org.eclipse.kura.data.listener.DataServiceListener;
 import org.eclipse.kura.data.DataTransportToken;
 import org.eclipse.kura.message.store.StoredMessage;
 import org.eclipse.kura.message.store.provider.MessageStore;
@@ -71,6 +78,8 @@ public class DataServiceImplTest {
     private final MessageStoreProvider messageStoreProvider = Mockito.mock(MessageStoreProvider.class);
     private final MessageStore messageStore = Mockito.mock(MessageStore.class);
     private final List<StoredMessage> storedMessages = new ArrayList<>();
+    private final DataServiceListener dataServiceListener = Mockito.mock(DataServiceListener.class);
+    private final CountDownLatch listenerAdded = new CountDownLatch(1);
 
     @Before
     public void cleanUp() {
@@ -187,6 +196,58 @@ public class DataServiceImplTest {
         thenExceptionMessageContains("size exceeds");
     }
 
+    @Test
+    public void shouldPublishStoredMessagesInBatch() throws KuraException {
+        givenDataService();
+        givenMessageStoreProvider();
+        givenDataTrasportServiceConnected();
+        givenConfigurationProperty("store.publish-batch-size", 10);
+        givenConfigurationProperty("enable.rate.limit", false);
+        givenMqttMessageIdForQos1(5);
+        givenNextMessages(storedMessage(1, 0), storedMessage(2, 0), storedMessage(3, 1));
+        givenIsActive();
+
+        thenMessagesArePublished(3);
+        thenMessagesAreMarkedAsPublished(Collections.singletonMap(1, Optional.empty()),
+                Collections.singletonMap(2, Optional.empty()),
+                Collections.singletonMap(3, Optional.of(new DataTransportToken(5, "session"))));
+    }
+
+    @Test
+    public void shouldStopBatchWhenInFlightWindowIsFull() throws KuraException {
+        givenDataService();
+        givenMessageStoreProvider();
+        givenDataTrasportServiceConnected();
+        givenConfigurationProperty("store.publish-batch-size", 10);
+        givenConfigurationProperty("enable.rate.limit", false);
+        givenConfigurationProperty("in-flight-messages.max-number", 1);
+        givenMqttMessageIdForQos1(7);
+        givenNextMessages(storedMessage(1, 1), storedMessage(2, 1));
+        givenIsActive();
+
+        thenMessagesArePublished(1);
+        thenMessagesAreMarkedAsPublished(
+                Collections.singletonMap(1, Optional.of(new DataTransportToken(7, "session"))));
+    }
+
+    @Test
+    public void shouldNotifyListenersOfMessagesPublishedBeforeAFailure() throws KuraException {
+        givenDataService();
+        givenMessageStoreProvider();
+        givenDataTrasportServiceConnected();
+        givenConfigurationProperty("store.publish-batch-size", 10);
+        givenConfigurationProperty("enable.rate.limit", false);
+        givenPublishFailsOnTopic("fail");
+        givenNextMessagesAfterListenerIsAdded(storedMessage(1, 0), storedMessage(2, 0, "fail"));
+        givenIsActive();
+        givenDataServiceListener();
+
+        thenMessagesArePublished(2);
+        thenMessagesAreMarkedAsPublished(Collections.singletonMap(1, Optional.empty()));
+        thenListenerIsNotifiedOfPublishedMessage(1, "foo");
+        thenListenerIsNotNotifiedOfPublishedMessage(2);
+    }
+
     private void givenConfigurationProperty(final String key, final Object value) {
         this.properties.put(key, value);
     }
@@ -208,6 +269,42 @@ public class DataServiceImplTest {
         this.dataServiceImpl.setMessageStoreProvider(messageStoreProvider);
     }
 
+    private void givenNextMessages(final StoredMessage... messages) throws KuraStoreException {
+        when(this.messageStore.getNextMessages(ArgumentMatchers.anyInt())).thenReturn(Arrays.asList(messages))
+                .thenReturn(Collections.emptyList());
+    }
+
+    private void givenNextMessagesAfterListenerIsAdded(final StoredMessage... messages) throws KuraStoreException {
+        when(this.messageStore.getNextMessages(ArgumentMatchers.anyInt())).thenAnswer(i -> {
+            this.listenerAdded.await(5, TimeUnit.SECONDS);
+            return Arrays.asList(messages);
+        }).thenReturn(Collections.emptyList());
+    }
+
+    private void givenPublishFailsOnTopic(final String topic) throws KuraException {
+        when(this.dataTransportServiceMock.publish(eq(topic), any(), ArgumentMatchers.anyInt(),
+                ArgumentMatchers.anyBoolean())).thenThrow(new KuraException(KuraErrorCode.NOT_CONNECTED));
+    }
+
+    private void givenDataServiceListener() {
+        this.dataServiceImpl.addDataServiceListener(this.dataServiceListener);
+        this.listenerAdded.countDown();
+    }
+
+    private void givenMqttMessageIdForQos1(final int mqttMessageId) throws KuraException {
+        when(this.dataTransportServiceMock.publish(ArgumentMatchers.anyString(), any(), eq(1),
+                ArgumentMatchers.anyBoolean())).thenReturn(new DataTransportToken(mqttMessageId, "session"));
+    }
+
+    private StoredMessage storedMessage(final int id, final int qos) {
+        return storedMessage(id, qos, "foo");
+    }
+
+    private StoredMessage storedMessage(final int id, final int qos, final String topic) {
+        return new StoredMessage.Builder(id).withTopic(topic).withPayload(new byte[4]).withQos(qos).withPriority(7)
+                .build();
+    }
+
     private void givenIsActive() {
         ComponentContext ctxMock = mock(ComponentContext.class);
         when(ctxMock.getBundleContext()).thenReturn(mock(BundleContext.class));
@@ -320,6 +417,32 @@ public class DataServiceImplTest {
         assertEquals(priority, message.getPriority());
     }
 
+    private void thenMessagesArePublished(final int expectedCount) throws KuraException {
+        verify(this.dataTransportServiceMock, timeout(5000).times(expectedCount)).publish(ArgumentMatchers.anyString(),
+                any(), ArgumentMatchers.anyInt(), ArgumentMatchers.anyBoolean());
+    }
+
+    @SafeVarargs
+    private final void thenMessagesAreMarkedAsPublished(final Map<Integer, Optional<DataTransportToken>>... entries)
+            throws KuraStoreException {
+        final Map<Integer, Optional<DataTransportToken>> expected = new LinkedHashMap<>();
+
+        for (final Map<Integer, Optional<DataTransportToken>> entry : entries) {
+            expected.putAll(entry);
+        }
+
+        verify(this.messageStore, timeout(5000).times(1)).markAsPublished(expected);
+        verify(this.messageStore, times(0)).markAsPublished(ArgumentMatchers.anyInt());
+    }
+
+    private void thenListenerIsNotifiedOfPublishedMessage(final int messageId, final String topic) {
+        verify(this.dataServiceListener, timeout(5000).times(1)).onMessagePublished(messageId, topic);
+    }
+
+    private void thenListenerIsNotNotifiedOfPublishedMessage(final int messageId) {
+        verify(this.dataServiceListener, times(0)).onMessagePublished(eq(messageId), ArgumentMatchers.anyString());
+    }
+
     private void thenStoredMessageCountIs(final int expectedCount) {
         assertEquals(expectedCount, this.storedMessages.size());
     }
@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.core.data.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class MqttTopicIndexTest {
+
+    private final MqttTopicIndex<String> index = new MqttTopicIndex<>();
+    private List<String> matching;
+    private boolean result;
+
+    @Test
+    public void shouldMatchExactTopic() {
+        givenTopicFilters("a/b", "a/b/c", "a", "b/b");
+
+        whenGetMatching("a/b");
+
+        thenMatchingAre("a/b");
+    }
+
+    @Test
+    public void shouldMatchSingleLevelWildcard() {
+        givenTopicFilters("a/+/c", "a/+", "+/b/+", "a/b/c/+");
+
+        whenGetMatching("a/b/c");
+
+        thenMatchingAre("a/+/c", "+/b/+");
+    }
+
+    @Test
+    public void shouldMatchMultiLevelWildcard() {
+        givenTopicFilters("#", "a/#", "a/b/#", "a/b/c/#", "b/#");
+
+        whenGetMatching("a/b/c");
+
+        thenMatchingAre("#", "a/#", "a/b/#", "a/b/c/#");
+    }
+
+    @Test
+    public void shouldMatchMultiLevelWildcardParentLevel() {
+        givenTopicFilters("a/#", "a/+/#");
+
+        whenGetMatching("a");
+
+        thenMatchingAre("a/#");
+    }
+
+    @Test
+    public void shouldMatchMixedWildcards() {
+        givenTopicFilters("$EDC/+/+/app/#", "+/+/app/#", "$EDC/acme/+/app/GET/#");
+
+        whenGetMatching("$EDC/acme/device/app/GET/foo/bar");
+
+        thenMatchingAre("$EDC/+/+/app/#", "$EDC/acme/+/app/GET/#");
+    }
+
+    @Test
+    public void shouldReturnAllValuesOfTopicFilter() {
+        givenValue("a/+", "first");
+        givenValue("a/+", "second");
+
+        whenGetMatching("a/b");
+
+        thenMatchingAre("first", "second");
+    }
+
+    @Test
+    public void shouldNotAddValueTwice() {
+        givenValue("a/+", "first");
+
+        whenAdd("a/+", "first");
+
+        thenResultIs(false);
+        thenMatchingOf("a/b", "first");
+    }
+
+    @Test
+    public void shouldRemoveValue() {
+        givenValue("a/+", "first");
+        givenValue("a/+", "second");
+
+        whenRemove("a/+", "first");
+
+        thenResultIs(true);
+        thenMatchingOf("a/b", "second");
+    }
+
+    @Test
+    public void shouldNotRemoveFromOtherTopicFilter() {
+        givenValue("a/+", "first");
+
+        whenRemove("a/b", "first");
+
+        thenResultIs(false);
+        thenMatchingOf("a/b", "first");
+    }
+
+    @Test
+    public void shouldBeEmptyAfterRemovingAllValues() {
+        givenTopicFilters("a/b/c", "a/#", "a/+/c");
+
+        whenRemove("a/b/c", "a/b/c");
+        whenRemove("a/#", "a/#");
+        whenRemove("a/+/c", "a/+/c");
+
+        thenIsEmpty();
+    }
+
+    @Test
+    public void shouldBeConsistentWithTopicUtil() {
+        final Random random = new Random(1234);
+        final List<String> topicFilters = new ArrayList<>();
+
+        for (int i = 0; i < 500; i++) {
+            final String topicFilter = randomTopic(random, true);
+            topicFilters.add(topicFilter);
+            this.index.add(topicFilter, topicFilter);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            final String topic = randomTopic(random, false);
+            final Set<String> expected = new HashSet<>();
+
+            for (final String topicFilter : topicFilters) {
+                if (MqttTopicUtil.isMatched(topicFilter, topic)) {
+                    expected.add(topicFilter);
+                }
+            }
+
+            assertEquals(topic, expected, new HashSet<>(this.index.getMatching(topic)));
+        }
+    }
+
+    private void givenTopicFilters(final String... topicFilters) {
+        for (final String topicFilter : topicFilters) {
+            this.index.add(topicFilter, topicFilter);
+        }
+    }
+
+    private void givenValue(final String topicFilter, final String value) {
+        this.index.add(topicFilter, value);
+    }
+
+    private void whenAdd(final String topicFilter, final String value) {
+        this.result = this.index.add(topicFilter, value);
+    }
+
+    private void whenRemove(final String topicFilter, final String value) {
+        this.result = this.index.remove(topicFilter, value);
+    }
+
+    private void whenGetMatching(final String topic) {
+        this.matching = this.index.getMatching(topic);
+    }
+
+    private void thenMatchingAre(final String... expected) {
+        assertEquals(new HashSet<>(Arrays.asList(expected)), new HashSet<>(this.matching));
+        assertEquals(expected.length, this.matching.size());
+    }
+
+    private void thenMatchingOf(final String topic, final String... expected) {
+        whenGetMatching(topic);
+        thenMatchingAre(expected);
+    }
+
+    private void thenResultIs(final boolean expected) {
+        assertEquals(expected, this.result);
+    }
+
+    private void thenIsEmpty() {
+        assertTrue(this.index.isEmpty());
+        assertTrue(this.index.getMatching("a/b/c").isEmpty());
+    }
+
+    private static String randomTopic(final Random random, final boolean wildcards) {
+        final String[] levels = { "a", "b", "c" };
+        final int length = 1 + random.nextInt(4);
+        final StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                builder.append('/');
+            }
+
+            final int choice = random.nextInt(wildcards ? 5 : 3);
+
+            if (choice == 4 || choice == 3 && i == length - 1 && random.nextBoolean()) {
+                builder.append(i == length - 1 ? "#" : "+");
+            } else if (choice == 3) {
+                builder.append('+');
+            } else {
+                builder.append(levels[choice]);
+            }
+        }
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,394 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.core.cloud;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.kura.KuraInvalidMessageException;
+import org.eclipse.kura.core.message.protobuf.KuraPayloadProto;
+import org.eclipse.kura.core.message.protobuf.KuraPayloadProto.KuraPayload.KuraMetric;
+import org.eclipse.kura.core.message.protobuf.KuraPayloadProto.KuraPayload.KuraMetric.ValueType;
+import org.eclipse.kura.core.util.KuraPayloadProtoBufCodec;
+import org.eclipse.kura.message.KuraPayload;
+import org.eclipse.kura.message.KuraPosition;
+import org.junit.Test;
+
+import com.google.protobuf.ByteString;
+
+public class CloudPayloadProtoBufTest {
+
+    private KuraPayload payload = new KuraPayload();
+    private byte[] encoded;
+    private KuraPayload decoded;
+
+    @Test
+    public void shouldEncodeEmptyPayload() throws IOException {
+        whenEncoded();
+
+        thenEncodedIsEqualToProtoBuf();
+        thenDecodedIsEqualToPayload();
+    }
+
+    @Test
+    public void shouldEncodeAllMetricTypes() throws IOException {
+        givenTimestamp(1_700_000_000_123L);
+        givenMetric("double", 12.5d);
+        givenMetric("float", -3.25f);
+        givenMetric("long", Long.MIN_VALUE);
+        givenMetric("int", 42);
+        givenMetric("negativeInt", -1);
+        givenMetric("bool", true);
+        givenMetric("string", "value");
+        givenMetric("bytes", new byte[] { 1, 2, 3 });
+        givenBody(new byte[] { 4, 5, 6, 7 });
+
+        whenEncoded();
+
+        thenEncodedIsEqualToProtoBuf();
+        thenDecodedIsEqualToPayload();
+    }
+
+    @Test
+    public void shouldEncodePosition() throws IOException {
+        final KuraPosition position = new KuraPosition();
+        position.setLatitude(45.5);
+        position.setLongitude(12.25);
+        position.setAltitude(-10.0);
+        position.setSpeed(3.0);
+        position.setTimestamp(new Date(1_000_000L));
+        position.setSatellites(7);
+        position.setStatus(-2);
+        givenPosition(position);
+
+        whenEncoded();
+
+        thenEncodedIsEqualToProtoBuf();
+        thenDecodedIsEqualToPayload();
+    }
+
+    @Test
+    public void shouldEncodeUnicodeStrings() throws IOException {
+        givenMetric("temperatura °C", "温度 🌡");
+        givenMetric("unpaired", "a\ud800b");
+
+        whenEncoded();
+
+        thenEncodedIsEqualToProtoBuf();
+    }
+
+    @Test
+    public void shouldSkipNullMetrics() throws IOException {
+        givenMetric("null", null);
+        givenMetric("value", 1);
+
+        whenEncoded();
+
+        thenEncodedIsEqualToProtoBuf();
+    }
+
+    @Test
+    public void shouldEncodeRandomPayloads() throws IOException {
+        final Random random = new Random(1234);
+
+        for (int i = 0; i < 200; i++) {
+            givenRandomPayload(random);
+
+            whenEncoded();
+
+            thenEncodedIsEqualToProtoBuf();
+            thenDecodedIsEqualToPayload();
+        }
+    }
+
+    @Test
+    public void shouldEncodeIntoBuffer() throws Exception {
+        givenMetric("int", 42);
+        givenMetric("string", "value");
+
+        final int size = KuraPayloadProtoBufCodec.computeSize(this.payload);
+        final byte[] buffer = new byte[size + 3];
+        final int written = KuraPayloadProtoBufCodec.encode(this.payload, buffer, 3);
+        whenEncoded();
+
+        assertEquals(size, written);
+        assertArrayEquals(this.encoded, Arrays.copyOfRange(buffer, 3, buffer.length));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldRejectUnsupportedMetricType() throws IOException {
+        givenMetric("date", new Date());
+
+        whenEncoded();
+    }
+
+    @Test
+    public void shouldSkipUnknownFields() throws IOException {
+        final KuraPayloadProto.KuraPayload proto = KuraPayloadProto.KuraPayload.newBuilder().setTimestamp(10L)
+                .addMetric(KuraMetric.newBuilder().setName("m").setType(ValueType.INT32).setIntValue(5)).build();
+        // a varint, a length delimited field and a group with numbers in the extension range
+        final byte[] unknownFields = { (byte) 0x98, 0x06, 0x01, (byte) 0xa2, 0x06, 0x02, 0x01, 0x02, (byte) 0xa3,
+                0x06, 0x08, 0x01, (byte) 0xa4, 0x06 };
+
+        whenDecoded(concat(unknownFields, proto.toByteArray()));
+
+        assertEquals(new Date(10L), this.decoded.getTimestamp());
+        assertEquals(5, this.decoded.getMetric("m"));
+    }
+
+    @Test
+    public void shouldUseDefaultValueOfMissingMetricValue() throws IOException {
+        final KuraPayloadProto.KuraPayload proto = KuraPayloadProto.KuraPayload.newBuilder()
+                .addMetric(KuraMetric.newBuilder().setName("m").setType(ValueType.STRING)).build();
+
+        whenDecoded(proto.toByteArray());
+
+        assertEquals("", this.decoded.getMetric("m"));
+        assertNull(this.decoded.getTimestamp());
+    }
+
+    @Test
+    public void shouldRejectMetricWithoutType() {
+        final byte[] metric = KuraMetric.newBuilder().setName("m").setType(ValueType.INT32).setIntValue(1).build()
+                .toByteArray();
+        // remove the type field, encoded in the bytes following the name
+        final byte[] withoutType = concat(Arrays.copyOfRange(metric, 0, 3),
+                Arrays.copyOfRange(metric, 5, metric.length));
+
+        thenDecodingFails(concat(new byte[] { (byte) 0xc2, (byte) 0xb8, 0x02, (byte) withoutType.length },
+                withoutType));
+    }
+
+    @Test
+    public void shouldRejectTruncatedMessage() throws IOException {
+        givenMetric("string", "value");
+        whenEncoded();
+
+        thenDecodingFails(Arrays.copyOf(this.encoded, this.encoded.length - 1));
+    }
+
+    private void givenTimestamp(final long timestamp) {
+        this.payload.setTimestamp(new Date(timestamp));
+    }
+
+    private void givenMetric(final String name, final Object value) {
+        this.payload.addMetric(name, value);
+    }
+
+    private void givenBody(final byte[] body) {
+        this.payload.setBody(body);
+    }
+
+    private void givenPosition(final KuraPosition position) {
+        this.payload.setPosition(position);
+    }
+
+    private void givenRandomPayload(final Random random) {
+        this.payload = new KuraPayload();
+
+        if (random.nextBoolean()) {
+            givenTimestamp(random.nextLong());
+        }
+
+        if (random.nextInt(4) == 0) {
+            final KuraPosition position = new KuraPosition();
+            position.setLatitude(random.nextDouble());
+            position.setLongitude(random.nextDouble());
+            if (random.nextBoolean()) {
+                position.setHeading(random.nextDouble());
+            }
+            if (random.nextBoolean()) {
+                position.setSatellites(random.nextInt());
+            }
+            givenPosition(position);
+        }
+
+        final int metricCount = random.nextInt(20);
+
+        for (int i = 0; i < metricCount; i++) {
+            givenMetric("metric" + random.nextInt(1000), randomValue(random));
+        }
+
+        if (random.nextBoolean()) {
+            final byte[] body = new byte[random.nextInt(300)];
+            random.nextBytes(body);
+            givenBody(body);
+        }
+    }
+
+    private void whenEncoded() throws IOException {
+        this.encoded = new CloudPayloadProtoBufEncoderImpl(this.payload).getBytes();
+    }
+
+    private void whenDecoded(final byte[] bytes) throws IOException {
+        this.decoded = new CloudPayloadProtoBufDecoderImpl(bytes).buildFromByteArray();
+    }
+
+    private void thenEncodedIsEqualToProtoBuf() {
+        assertArrayEquals(toProtoBuf(this.payload).toByteArray(), this.encoded);
+    }
+
+    private void thenDecodedIsEqualToPayload() throws IOException {
+        whenDecoded(this.encoded);
+
+        assertEquals(this.payload.getTimestamp(), this.decoded.getTimestamp());
+        assertArrayEquals(this.payload.getBody(), this.decoded.getBody());
+        assertEquals(this.payload.metrics().keySet(), this.decoded.metrics().keySet());
+
+        for (final Map.Entry<String, Object> entry : this.payload.metrics().entrySet()) {
+            final Object actual = this.decoded.getMetric(entry.getKey());
+
+            if (entry.getValue() instanceof byte[]) {
+                assertArrayEquals((byte[]) entry.getValue(), (byte[]) actual);
+            } else {
+                assertEquals(entry.getValue(), actual);
+            }
+        }
+
+        final KuraPosition position = this.payload.getPosition();
+
+        if (position == null) {
+            assertNull(this.decoded.getPosition());
+        } else {
+            final KuraPosition actual = this.decoded.getPosition();
+            assertEquals(position.getLatitude(), actual.getLatitude());
+            assertEquals(position.getLongitude(), actual.getLongitude());
+            assertEquals(position.getAltitude(), actual.getAltitude());
+            assertEquals(position.getPrecision(), actual.getPrecision());
+            assertEquals(position.getHeading(), actual.getHeading());
+            assertEquals(position.getSpeed(), actual.getSpeed());
+            assertEquals(position.getTimestamp(), actual.getTimestamp());
+            assertEquals(position.getSatellites(), actual.getSatellites());
+            assertEquals(position.getStatus(), actual.getStatus());
+        }
+    }
+
+    private void thenDecodingFails(final byte[] bytes) {
+        try {
+            whenDecoded(bytes);
+            fail("decoding should fail");
+        } catch (KuraInvalidMessageException e) {
+            // expected
+        } catch (IOException e) {
+            fail("unexpected exception " + e);
+        }
+    }
+
+    private static Object randomValue(final Random random) {
+        switch (random.nextInt(7)) {
+        case 0:
+            return random.nextDouble();
+        case 1:
+            return random.nextFloat();
+        case 2:
+            return random.nextLong();
+        case 3:
+            return random.nextInt();
+        case 4:
+            return random.nextBoolean();
+        case 5:
+            final StringBuilder builder = new StringBuilder();
+            final int length = random.nextInt(40);
+            for (int i = 0; i < length; i++) {
+                builder.append((char) random.nextInt(0x3000));
+            }
+            return builder.toString();
+        default:
+            final byte[] bytes = new byte[random.nextInt(40)];
+            random.nextBytes(bytes);
+            return bytes;
+        }
+    }
+
+    private static byte[] concat(final byte[] first, final byte[] second) {
+        final byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private static KuraPayloadProto.KuraPayload toProtoBuf(final KuraPayload payload) {
+        final KuraPayloadProto.KuraPayload.Builder builder = KuraPayloadProto.KuraPayload.newBuilder();
+
+        if (payload.getTimestamp() != null) {
+            builder.setTimestamp(payload.getTimestamp().getTime());
+        }
+
+        final KuraPosition position = payload.getPosition();
+
+        if (position != null) {
+            final KuraPayloadProto.KuraPayload.KuraPosition.Builder positionBuilder = KuraPayloadProto.KuraPayload.KuraPosition
+                    .newBuilder().setLatitude(position.getLatitude()).setLongitude(position.getLongitude());
+            if (position.getAltitude() != null) {
+                positionBuilder.setAltitude(position.getAltitude());
+            }
+            if (position.getPrecision() != null) {
+                positionBuilder.setPrecision(position.getPrecision());
+            }
+            if (position.getHeading() != null) {
+                positionBuilder.setHeading(position.getHeading());
+            }
+            if (position.getSpeed() != null) {
+                positionBuilder.setSpeed(position.getSpeed());
+            }
+            if (position.getTimestamp() != null) {
+                positionBuilder.setTimestamp(position.getTimestamp().getTime());
+            }
+            if (position.getSatellites() != null) {
+                positionBuilder.setSatellites(position.getSatellites());
+            }
+            if (position.getStatus() != null) {
+                positionBuilder.setStatus(position.getStatus());
+            }
+            builder.setPosition(positionBuilder);
+        }
+
+        for (final Map.Entry<String, Object> entry : payload.metrics().entrySet()) {
+            final Object value = entry.getValue();
+            final KuraMetric.Builder metric = KuraMetric.newBuilder().setName(entry.getKey());
+
+            if (value instanceof String) {
+                metric.setType(ValueType.STRING).setStringValue((String) value);
+            } else if (value instanceof Double) {
+                metric.setType(ValueType.DOUBLE).setDoubleValue((Double) value);
+            } else if (value instanceof Integer) {
+                metric.setType(ValueType.INT32).setIntValue((Integer) value);
+            } else if (value instanceof Float) {
+                metric.setType(ValueType.FLOAT).setFloatValue((Float) value);
+            } else if (value instanceof Long) {
+                metric.setType(ValueType.INT64).setLongValue((Long) value);
+            } else if (value instanceof Boolean) {
+                metric.setType(ValueType.BOOL).setBoolValue((Boolean) value);
+            } else if (value instanceof byte[]) {
+                metric.setType(ValueType.BYTES).setBytesValue(ByteString.copyFrom((byte[]) value));
+            } else {
+                continue;
+            }
+
+            builder.addMetric(metric);
+        }
+
+        if (payload.getBody() != null) {
+            builder.setBody(ByteString.copyFrom(payload.getBody()));
+        }
+
+        return builder.build();
+    }
+}
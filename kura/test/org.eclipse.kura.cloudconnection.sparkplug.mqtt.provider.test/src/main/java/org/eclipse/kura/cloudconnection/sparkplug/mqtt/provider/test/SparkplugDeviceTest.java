@@ -12,6 +12,7 @@
  *******************************************************************************/
 package org.eclipse.kura.cloudconnection.sparkplug.mqtt.provider.test;
 
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -21,9 +22,12 @@ import static org.mockito.Mockito.verify;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.eclipse.kura.KuraConnectException;
 import org.eclipse.kura.KuraDisconnectException;
@@ -56,6 +60,8 @@ public class SparkplugDeviceTest extends SparkplugIntegrationTest {
     private byte[] kuraBodyToPublish;
     private KuraPosition kuraPositionToPublish;
     private Date kuraPositionDate;
+    private long initialBytesSavedByAliases;
+    private long initialBytesSavedByReportByException;
 
     @Before
     public void setup() throws Exception {
@@ -65,6 +71,8 @@ public class SparkplugDeviceTest extends SparkplugIntegrationTest {
         client.subscribe("spBv1.0/g1/DBIRTH/n1/d1", 0);
         client.subscribe("spBv1.0/g1/DDATA/n1/d1", 0);
         setupDataTransportService("g1", "n1", "");
+        this.initialBytesSavedByAliases = sparkplugDevice.getBytesSavedByAliases();
+        this.initialBytesSavedByReportByException = sparkplugDevice.getBytesSavedByReportByException();
     }
 
     @After
@@ -170,6 +178,49 @@ public class SparkplugDeviceTest extends SparkplugIntegrationTest {
                 12, 30.2, 1, this.kuraPositionDate.getTime());
     }
 
+    @Test
+    public void shouldDefineMetricAliasesInDeviceBirth() throws Exception {
+        givenUpdate("d1", true, false, 0.0, 0.0);
+        givenEndpointConnect();
+        givenKuraMetricToPublish("metric.string", "test string");
+        givenKuraMetricToPublish("metric.int", 12);
+
+        whenPublish();
+
+        thenDeliveredMessageContainsAliasedMetrics("spBv1.0/g1/DBIRTH/n1/d1", "metric.int", "metric.string");
+    }
+
+    @Test
+    public void shouldPublishAliasOnlyMetricsInDeviceData() throws Exception {
+        givenUpdate("d1", true, false, 0.0, 0.0);
+        givenEndpointConnect();
+        givenKuraMetricToPublish("metric.string", "test string");
+        givenKuraMetricToPublish("metric.int", 12);
+        givenPublish();
+
+        whenPublish();
+
+        thenDeliveredMessageContainsOnlyAliases("spBv1.0/g1/DDATA/n1/d1", 2);
+        thenBytesAreSavedByAliases();
+    }
+
+    @Test
+    public void shouldPublishOnlyChangedMetricsWithReportByException() throws Exception {
+        givenUpdate("d1", false, true, 1.0, 0.0);
+        givenEndpointConnect();
+        givenKuraMetricToPublish("metric.double", 10.0);
+        givenKuraMetricToPublish("metric.double.small.change", 10.0);
+        givenKuraMetricToPublish("metric.string", "test string");
+        givenPublish();
+        givenKuraMetricToPublish("metric.double", 12.0);
+        givenKuraMetricToPublish("metric.double.small.change", 10.5);
+
+        whenPublish();
+
+        thenDeliveredMessageContainsMetrics("spBv1.0/g1/DDATA/n1/d1", "metric.double");
+        thenBytesAreSavedByReportByException();
+    }
+
     /*
      * Steps
      */
@@ -184,6 +235,17 @@ public class SparkplugDeviceTest extends SparkplugIntegrationTest {
         sparkplugDevice.update(properties);
     }
 
+    private void givenUpdate(String deviceId, boolean metricAliasesEnabled, boolean reportByExceptionEnabled,
+            double absoluteDeadband, double percentDeadband) {
+        final Map<String, Object> properties = new HashMap<>();
+        properties.put(SparkplugDevice.KEY_DEVICE_ID, deviceId);
+        properties.put(SparkplugDevice.KEY_METRIC_ALIASES_ENABLED, metricAliasesEnabled);
+        properties.put(SparkplugDevice.KEY_REPORT_BY_EXCEPTION_ENABLED, reportByExceptionEnabled);
+        properties.put(SparkplugDevice.KEY_DEADBAND_ABSOLUTE, absoluteDeadband);
+        properties.put(SparkplugDevice.KEY_DEADBAND_PERCENT, percentDeadband);
+        sparkplugDevice.update(properties);
+    }
+
     private void givenEndpointConnect() throws KuraConnectException {
         sparkplugCloudEndpoint.connect();
     }
@@ -334,10 +396,71 @@ public class SparkplugDeviceTest extends SparkplugIntegrationTest {
         });
     }
 
+    private void thenDeliveredMessageContainsAliasedMetrics(String expectedTopic, String... expectedNames)
+            throws Exception {
+        verifyMessageDeliveredWithMatcher(expectedTopic, (MqttMessage message) -> {
+            try {
+                Payload receivedPayload = Payload.parseFrom(message.getPayload());
+                Set<Long> aliases = new HashSet<>();
+
+                for (Metric metric : receivedPayload.getMetricsList()) {
+                    if (!metric.hasName() || !metric.hasAlias() || !metric.hasDatatype()) {
+                        return false;
+                    }
+                    aliases.add(metric.getAlias());
+                }
+
+                return aliases.size() == expectedNames.length
+                        && getMetricNames(receivedPayload).equals(new HashSet<>(Arrays.asList(expectedNames)));
+            } catch (Exception e) {
+                return false;
+            }
+        });
+    }
+
+    private void thenDeliveredMessageContainsOnlyAliases(String expectedTopic, int expectedMetricCount)
+            throws Exception {
+        verifyMessageDeliveredWithMatcher(expectedTopic, (MqttMessage message) -> {
+            try {
+                Payload receivedPayload = Payload.parseFrom(message.getPayload());
+
+                return receivedPayload.getMetricsCount() == expectedMetricCount && receivedPayload.getMetricsList()
+                        .stream().allMatch(metric -> metric.hasAlias() && !metric.hasName());
+            } catch (Exception e) {
+                return false;
+            }
+        });
+    }
+
+    private void thenDeliveredMessageContainsMetrics(String expectedTopic, String... expectedNames) throws Exception {
+        verifyMessageDeliveredWithMatcher(expectedTopic, (MqttMessage message) -> {
+            try {
+                Payload receivedPayload = Payload.parseFrom(message.getPayload());
+
+                return getMetricNames(receivedPayload).equals(new HashSet<>(Arrays.asList(expectedNames)));
+            } catch (Exception e) {
+                return false;
+            }
+        });
+    }
+
+    private void thenBytesAreSavedByAliases() {
+        assertTrue(sparkplugDevice.getBytesSavedByAliases() > this.initialBytesSavedByAliases);
+    }
+
+    private void thenBytesAreSavedByReportByException() {
+        assertTrue(
+                sparkplugDevice.getBytesSavedByReportByException() > this.initialBytesSavedByReportByException);
+    }
+
     /*
      * Utils
      */
 
+    private Set<String> getMetricNames(Payload payload) {
+        return payload.getMetricsList().stream().map(Metric::getName).collect(Collectors.toSet());
+    }
+
     private void setupDataTransportService(String groupId, String nodeId, String primaryHostId) {
         final Map<String, Object> properties = new HashMap<>();
         properties.put(SparkplugDataTransportOptions.KEY_GROUP_ID, groupId);
@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.cloudconnection.sparkplug.mqtt.device.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.eclipse.kura.cloudconnection.sparkplug.mqtt.device.ReportByExceptionCache;
+import org.junit.Test;
+
+public class ReportByExceptionCacheTest {
+
+    private ReportByExceptionCache cache;
+    private Map<String, Object> metrics = new HashMap<>();
+    private Map<String, Object> filteredMetrics;
+
+    /*
+     * Scenarios
+     */
+
+    @Test
+    public void shouldReportOnlyChangedMetrics() {
+        givenCache(0.0, 0.0);
+        givenMetric("int", 1);
+        givenMetric("string", "a");
+        givenReset();
+        givenMetric("int", 2);
+
+        whenFilter();
+
+        thenReportedMetricsAre("int");
+    }
+
+    @Test
+    public void shouldReportNewMetrics() {
+        givenCache(0.0, 0.0);
+        givenMetric("int", 1);
+        givenReset();
+        givenMetric("long", 1L);
+
+        whenFilter();
+
+        thenReportedMetricsAre("long");
+    }
+
+    @Test
+    public void shouldApplyAbsoluteDeadband() {
+        givenCache(1.0, 0.0);
+        givenMetric("small", 10.0);
+        givenMetric("large", 10.0);
+        givenReset();
+        givenMetric("small", 10.9);
+        givenMetric("large", 11.1);
+
+        whenFilter();
+
+        thenReportedMetricsAre("large");
+    }
+
+    @Test
+    public void shouldApplyPercentDeadband() {
+        givenCache(0.0, 10.0);
+        givenMetric("small", 200);
+        givenMetric("large", 200);
+        givenReset();
+        givenMetric("small", 190);
+        givenMetric("large", 230);
+
+        whenFilter();
+
+        thenReportedMetricsAre("large");
+    }
+
+    @Test
+    public void shouldCompareWithLastReportedValue() {
+        givenCache(1.0, 0.0);
+        givenMetric("double", 10.0);
+        givenReset();
+        givenMetric("double", 10.6);
+        givenFilter();
+        givenMetric("double", 11.2);
+
+        whenFilter();
+
+        thenReportedMetricsAre("double");
+    }
+
+    @Test
+    public void shouldCompareByteArraysByContent() {
+        givenCache(0.0, 0.0);
+        givenMetric("bytes", new byte[] { 1, 2 });
+        givenMetric("date", new Date(1000));
+        givenReset();
+        givenMetric("bytes", new byte[] { 1, 2 });
+        givenMetric("date", new Date(1000));
+
+        whenFilter();
+
+        thenReportedMetricsAre();
+    }
+
+    @Test
+    public void shouldReportTypeChanges() {
+        givenCache(5.0, 0.0);
+        givenMetric("number", 1);
+        givenReset();
+        givenMetric("number", 1L);
+
+        whenFilter();
+
+        thenReportedMetricsAre("number");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNegativeDeadbands() {
+        givenCache(-1.0, 0.0);
+    }
+
+    /*
+     * Given
+     */
+
+    private void givenCache(double absoluteDeadband, double percentDeadband) {
+        this.cache = new ReportByExceptionCache(absoluteDeadband, percentDeadband);
+    }
+
+    private void givenMetric(String name, Object value) {
+        this.metrics.put(name, value);
+    }
+
+    private void givenReset() {
+        this.cache.reset(this.metrics);
+    }
+
+    private void givenFilter() {
+        whenFilter();
+    }
+
+    /*
+     * When
+     */
+
+    private void whenFilter() {
+        this.filteredMetrics = this.cache.filter(this.metrics);
+    }
+
+    /*
+     * Then
+     */
+
+    private void thenReportedMetricsAre(String... expectedNames) {
+        assertEquals(new HashSet<>(Arrays.asList(expectedNames)), this.filteredMetrics.keySet());
+    }
+
+}
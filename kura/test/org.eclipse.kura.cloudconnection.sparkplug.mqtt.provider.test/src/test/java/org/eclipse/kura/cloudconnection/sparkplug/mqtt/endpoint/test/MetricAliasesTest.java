@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.cloudconnection.sparkplug.mqtt.endpoint.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.eclipse.kura.cloudconnection.listener.CloudConnectionListener;
+import org.eclipse.kura.data.DataService;
+import org.junit.Test;
+import org.osgi.service.event.EventAdmin;
+
+public class MetricAliasesTest extends StepsCollection {
+
+    private Map<String, Long> aliases;
+    private Map<String, Long> callbackAliases;
+
+    /*
+     * Scenarios
+     */
+
+    @Test
+    public void shouldAssignUniqueAliasesAcrossDevices() {
+        givenAssignedAliases("d1", "b", "a");
+
+        whenAliasesAreAssigned("d2", "c");
+
+        thenAliasesAre("c", 2L);
+    }
+
+    @Test
+    public void shouldKeepAliasesOfKnownMetricsOnDeviceRebirth() {
+        givenAssignedAliases("d1", "a", "b");
+
+        whenAliasesAreAssigned("d1", "b", "c");
+
+        thenAliasesAre("b", 1L, "c", 2L);
+    }
+
+    @Test
+    public void shouldResetAliasesOnNewNodeBirth() {
+        givenEventAdmin(mock(EventAdmin.class));
+        givenDataService(mock(DataService.class));
+        givenAssignedAliases("d1", "a", "b");
+        givenAssignedAliases("d2", "c");
+        givenOnConnectionEstabilished();
+
+        whenAliasesAreAssigned("d2", "c");
+
+        thenAliasesAre("c", 0L);
+    }
+
+    @Test
+    public void shouldKeepAliasesOfDeviceBornInConnectionCallback() {
+        givenEventAdmin(mock(EventAdmin.class));
+        givenDataService(mock(DataService.class));
+        givenAssignedAliases("d1", "a", "b");
+        givenDeviceBornOnConnectionEstablished("d2", "c");
+        givenOnConnectionEstabilished();
+
+        whenAliasesAreAssigned("d3", "d");
+
+        thenCallbackAliasesAre("c", 0L);
+        thenAliasesAre("d", 1L);
+    }
+
+    /*
+     * Steps
+     */
+
+    private void givenDeviceBornOnConnectionEstablished(String deviceId, String... metricNames) {
+        final CloudConnectionListener listener = mock(CloudConnectionListener.class);
+        doAnswer(invocation -> {
+            this.callbackAliases = this.endpoint.assignMetricAliases(deviceId,
+                    new HashSet<>(Arrays.asList(metricNames)));
+            return null;
+        }).when(listener).onConnectionEstablished();
+
+        givenCloudConnectionListener(listener);
+    }
+
+    private void givenAssignedAliases(String deviceId, String... metricNames) {
+        whenAliasesAreAssigned(deviceId, metricNames);
+    }
+
+    private void givenOnConnectionEstabilished() {
+        whenOnConnectionEstabilished();
+    }
+
+    private void whenAliasesAreAssigned(String deviceId, String... metricNames) {
+        this.aliases = this.endpoint.assignMetricAliases(deviceId, new HashSet<>(Arrays.asList(metricNames)));
+    }
+
+    private void thenAliasesAre(Object... expectedNamesAndAliases) {
+        assertEquals(toAliases(expectedNamesAndAliases), this.aliases);
+    }
+
+    private void thenCallbackAliasesAre(Object... expectedNamesAndAliases) {
+        assertEquals(toAliases(expectedNamesAndAliases), this.callbackAliases);
+    }
+
+    private static Map<String, Long> toAliases(Object... namesAndAliases) {
+        final Map<String, Long> result = new HashMap<>();
+
+        for (int i = 0; i < namesAndAliases.length; i += 2) {
+            result.put((String) namesAndAliases[i], (Long) namesAndAliases[i + 1]);
+        }
+
+        return result;
+    }
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2016, 2024 Eurotech and/or its affiliates and others
  *
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -31,6 +31,7 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -2331,6 +2332,217 @@ public class ConfigurationServiceJunitTest {
         d1.delete();
     }
 
+    @Test
+    public void testSaveSnapshotAppendsToJournal() throws Throwable {
+        // the first snapshot is written in full, the following ones only contain the changes
+
+        final File dir = Files.createTempDirectory("snapshotJournal").toFile();
+        ConfigurationServiceImpl cs = createJournalingService(dir, 10);
+
+        long sid1 = (Long) TestUtil.invokePrivate(cs, "saveSnapshot", prepareJournalSnapshot("a", "1", "b", "1"));
+        long sid2 = (Long) TestUtil.invokePrivate(cs, "saveSnapshot", prepareJournalSnapshot("a", "2", "b", "1"));
+
+        assertTrue("full snapshot written", new File(dir, "snapshot_" + sid1 + ".xml").exists());
+        assertFalse("second snapshot journaled", new File(dir, "snapshot_" + sid2 + ".xml").exists());
+        assertTrue("journal created", new File(dir, "snapshot_" + sid1 + ".journal").exists());
+
+        assertEquals(new TreeSet<>(Arrays.asList(sid1, sid2)), cs.getSnapshots());
+        assertEquals("1", getSnapshotProperty(cs, sid1, "a"));
+        assertEquals("2", getSnapshotProperty(cs, sid2, "a"));
+        assertEquals("1", getSnapshotProperty(cs, sid2, "b"));
+    }
+
+    @Test
+    public void testJournalRecordsRemovedConfigurations() throws Throwable {
+        final File dir = Files.createTempDirectory("snapshotJournal").toFile();
+        ConfigurationServiceImpl cs = createJournalingService(dir, 10);
+
+        TestUtil.invokePrivate(cs, "saveSnapshot", prepareJournalSnapshot("a", "1", "b", "1"));
+        long sid2 = (Long) TestUtil.invokePrivate(cs, "saveSnapshot", prepareJournalSnapshot("a", "1"));
+
+        List<ComponentConfiguration> snapshot = cs.getSnapshot(sid2);
+
+        assertEquals(1, snapshot.size());
+        assertEquals("a", snapshot.get(0).getPid());
+    }
+
+    @Test
+    public void testJournalIsReplayedOnStartup() throws Throwable {
+        final File dir = Files.createTempDirectory("snapshotJournal").toFile();
+        ConfigurationServiceImpl cs = createJournalingService(dir, 10);
+
+        long sid1 = (Long) TestUtil.invokePrivate(cs, "saveSnapshot", prepareJournalSnapshot("a", "1"));
+        TestUtil.invokePrivate(cs, "saveSnapshot", prepareJournalSnapshot("a", "2"));
+
+        ConfigurationServiceImpl restarted = createJournalingService(dir, 10);
+
+        List<ComponentConfiguration> latest = (List<ComponentConfiguration>) TestUtil.invokePrivate(restarted,
+                "loadLatestSnapshotConfigurations");
+
+        assertEquals(1, latest.size());
+        assertEquals("2", latest.get(0).getConfigurationProperties().get("value"));
+
+        // the restarted service keeps appending to the same journal
+        long sid3 = (Long) TestUtil.invokePrivate(restarted, "saveSnapshot", prepareJournalSnapshot("a", "3"));
+
+        assertFalse(new File(dir, "snapshot_" + sid3 + ".xml").exists());
+        assertEquals(2, Files.readAllLines(new File(dir, "snapshot_" + sid1 + ".journal").toPath()).size());
+        assertEquals("3", getSnapshotProperty(restarted, sid3, "a"));
+    }
+
+    @Test
+    public void testJournalIsCompacted() throws Throwable {
+        // with 3 retained snapshots at most 2 snapshots are appended to a journal
+
+        final File dir = Files.createTempDirectory("snapshotJournal").toFile();
+        ConfigurationServiceImpl cs = createJournalingService(dir, 3);
+
+        TestUtil.invokePrivate(cs, "saveSnapshot", prepareJournalSnapshot("a", "1"));
+        long sid2 = (Long) TestUtil.invokePrivate(cs, "saveSnapshot", prepareJournalSnapshot("a", "2"));
+        long sid3 = (Long) TestUtil.invokePrivate(cs, "saveSnapshot", prepareJournalSnapshot("a", "3"));
+
+        assertFalse(new File(dir, "snapshot_" + sid2 + ".xml").exists());
+        assertTrue("journal compacted", new File(dir, "snapshot_" + sid3 + ".xml").exists());
+        assertEquals("3", getSnapshotProperty(cs, sid3, "a"));
+    }
+
+    @Test
+    public void testGarbageCollectionDeletesJournalWithBase() throws Throwable {
+        final File dir = Files.createTempDirectory("snapshotJournal").toFile();
+        ConfigurationServiceImpl cs = createJournalingService(dir, 3);
+
+        long sid1 = (Long) TestUtil.invokePrivate(cs, "saveSnapshot", prepareJournalSnapshot("a", "1"));
+        long sid2 = (Long) TestUtil.invokePrivate(cs, "saveSnapshot", prepareJournalSnapshot("a", "2"));
+        long sid3 = (Long) TestUtil.invokePrivate(cs, "saveSnapshot", prepareJournalSnapshot("a", "3"));
+        long sid4 = (Long) TestUtil.invokePrivate(cs, "saveSnapshot", prepareJournalSnapshot("a", "4"));
+
+        // snapshot 2 cannot be loaded without snapshot 1, they are deleted together to stay within 3 snapshots
+        assertEquals(new TreeSet<>(Arrays.asList(sid3, sid4)), cs.getSnapshots());
+        assertFalse(new File(dir, "snapshot_" + sid1 + ".xml").exists());
+        assertFalse(new File(dir, "snapshot_" + sid1 + ".journal").exists());
+        assertFalse(new File(dir, "snapshot_" + sid2 + ".xml").exists());
+
+        long sid5 = (Long) TestUtil.invokePrivate(cs, "saveSnapshot", prepareJournalSnapshot("a", "5"));
+
+        assertEquals(new TreeSet<>(Arrays.asList(sid3, sid4, sid5)), cs.getSnapshots());
+        assertEquals("4", getSnapshotProperty(cs, sid4, "a"));
+    }
+
+    @Test
+    public void testGarbageCollectionKeepsSnapshotsWithinTheLimit() throws Throwable {
+        final File dir = Files.createTempDirectory("snapshotJournal").toFile();
+        ConfigurationServiceImpl cs = createJournalingService(dir, 10);
+
+        TestUtil.invokePrivate(cs, "saveSnapshot", prepareJournalSnapshot("a", "1"));
+        TestUtil.invokePrivate(cs, "saveSnapshot", prepareJournalSnapshot("a", "2"));
+        TestUtil.invokePrivate(cs, "saveSnapshot", prepareJournalSnapshot("a", "3"));
+        TestUtil.invokePrivate(cs, "saveSnapshot", prepareJournalSnapshot("a", "4"));
+
+        // the journal holds more snapshots than the new limit, it is deleted together with its base
+        ConfigurationServiceImpl restarted = createJournalingService(dir, 2);
+        long sid5 = (Long) TestUtil.invokePrivate(restarted, "saveSnapshot", prepareJournalSnapshot("a", "5"));
+
+        assertEquals(new TreeSet<>(Arrays.asList(sid5)), restarted.getSnapshots());
+        assertEquals("5", getSnapshotProperty(restarted, sid5, "a"));
+    }
+
+    @Test
+    public void testDeactivateCompactsJournal() throws Throwable {
+        final File dir = Files.createTempDirectory("snapshotJournal").toFile();
+        ConfigurationServiceImpl cs = createJournalingService(dir, 10);
+
+        TestUtil.invokePrivate(cs, "saveSnapshot", prepareJournalSnapshot("a", "1"));
+        long sid2 = (Long) TestUtil.invokePrivate(cs, "saveSnapshot", prepareJournalSnapshot("a", "2"));
+
+        cs.deactivate(null);
+
+        assertTrue(new File(dir, "snapshot_" + sid2 + ".xml").exists());
+
+        ConfigurationServiceImpl restarted = createJournalingService(dir, 10);
+        assertEquals("2", getSnapshotProperty(restarted, sid2, "a"));
+    }
+
+    @Test
+    public void testIncompleteJournalRecordIsDiscarded() throws Throwable {
+        final File dir = Files.createTempDirectory("snapshotJournal").toFile();
+        ConfigurationServiceImpl cs = createJournalingService(dir, 10);
+
+        long sid1 = (Long) TestUtil.invokePrivate(cs, "saveSnapshot", prepareJournalSnapshot("a", "1"));
+        long sid2 = (Long) TestUtil.invokePrivate(cs, "saveSnapshot", prepareJournalSnapshot("a", "2"));
+
+        File journal = new File(dir, "snapshot_" + sid1 + ".journal");
+        try (FileWriter fw = new FileWriter(journal, true)) {
+            fw.write((sid2 + 1) + " incomplete");
+        }
+
+        ConfigurationServiceImpl restarted = createJournalingService(dir, 10);
+
+        assertEquals(new TreeSet<>(Arrays.asList(sid1, sid2)), restarted.getSnapshots());
+        assertEquals("2", getSnapshotProperty(restarted, sid2, "a"));
+        assertEquals(1, Files.readAllLines(journal.toPath()).size());
+    }
+
+    private ConfigurationServiceImpl createJournalingService(final File dir, final int snapshotsCount) {
+        dir.deleteOnExit();
+
+        ConfigurationServiceImpl cs = new ConfigurationServiceImpl() {
+
+            @Override
+            String getSnapshotsDirectory() {
+                return dir.getAbsolutePath();
+            }
+
+            @Override
+            protected <T> T unmarshal(String xmlString, Class<T> clazz) throws KuraException {
+                return new XmlMarshallUnmarshallImpl().unmarshal(xmlString, clazz);
+            }
+
+            @Override
+            protected String marshal(Object object) throws KuraException {
+                return new XmlMarshallUnmarshallImpl().marshal(object);
+            }
+        };
+
+        CryptoService cryptoServiceMock = mock(CryptoService.class);
+        try {
+            when(cryptoServiceMock.encryptAes(ArgumentMatchers.any(char[].class)))
+                    .thenAnswer(invocation -> invocation.getArgument(0, char[].class));
+            when(cryptoServiceMock.decryptAes(ArgumentMatchers.any(char[].class)))
+                    .thenAnswer(invocation -> invocation.getArgument(0, char[].class));
+        } catch (KuraException e) {
+            fail(e.getMessage());
+        }
+        cs.setCryptoService(cryptoServiceMock);
+
+        SystemService systemServiceMock = mock(SystemService.class);
+        when(systemServiceMock.getKuraSnapshotsCount()).thenReturn(snapshotsCount);
+        cs.setSystemService(systemServiceMock);
+
+        return cs;
+    }
+
+    private List<ComponentConfiguration> prepareJournalSnapshot(String... pidsAndValues) {
+        List<ComponentConfiguration> configs = new ArrayList<>();
+
+        for (int i = 0; i < pidsAndValues.length; i += 2) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("value", pidsAndValues[i + 1]);
+            properties.put("count", Integer.valueOf(pidsAndValues[i + 1]));
+            configs.add(new ComponentConfigurationImpl(pidsAndValues[i], null, properties));
+        }
+
+        return configs;
+    }
+
+    private Object getSnapshotProperty(ConfigurationServiceImpl cs, long sid, String pid) throws KuraException {
+        for (ComponentConfiguration config : cs.getSnapshot(sid)) {
+            if (config.getPid().equals(pid)) {
+                return config.getConfigurationProperties().get("value");
+            }
+        }
+        return null;
+    }
+
     @Test
     public void testLineBreakHandling() throws KuraException, IOException {
         final CryptoService csMock = mock(CryptoService.class);
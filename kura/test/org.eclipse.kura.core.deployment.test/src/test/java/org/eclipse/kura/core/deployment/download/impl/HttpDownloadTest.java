@@ -0,0 +1,300 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ ******************************************************************************/
+package org.eclipse.kura.core.deployment.download.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.kura.KuraException;
+import org.eclipse.kura.core.deployment.CloudDeploymentHandlerV2;
+import org.eclipse.kura.core.deployment.download.DeploymentPackageDownloadOptions;
+import org.eclipse.kura.core.deployment.download.DownloadFileUtilities;
+import org.eclipse.kura.core.deployment.util.HashUtil;
+import org.eclipse.kura.core.testutil.TestUtil;
+import org.eclipse.kura.core.testutil.http.TestServer;
+import org.junit.After;
+import org.junit.Test;
+
+public class HttpDownloadTest {
+
+    private static final String RESOURCE_PATH = "/package.dp";
+    private static int serverPort = 8095;
+
+    private final int port = serverPort++;
+    private final byte[] resource = new byte[512 * 1024];
+    private final AtomicInteger requests = new AtomicInteger();
+    private final DeploymentPackageDownloadOptions options = new DeploymentPackageDownloadOptions(
+            "http://localhost:" + this.port + RESOURCE_PATH, "package", "1.0.0");
+
+    private TestServer server;
+    private File dpFile;
+    private boolean exceptionOccurred;
+
+    public HttpDownloadTest() throws IOException {
+        new Random(1234).nextBytes(this.resource);
+        this.options.setJobId(1234L);
+        this.options.setDownloadProtocol("HTTP");
+        this.dpFile = Files.createTempFile("package", ".dp").toFile();
+        this.dpFile.delete();
+    }
+
+    /*
+     * Scenarios
+     */
+
+    @Test
+    public void shouldDownloadAndVerifyHash() throws Throwable {
+        givenServer(true);
+        givenHash("SHA-256");
+
+        whenDownload();
+
+        thenNoExceptionOccurred();
+        thenDownloadedFileIsComplete();
+        thenServedBytesAre(this.resource.length);
+    }
+
+    @Test
+    public void shouldDeletePartialFileOnHashMismatch() throws Throwable {
+        givenServer(true);
+        givenResume(true);
+        givenPartialFile(1000);
+        this.options.setHash("SHA-256:0000");
+
+        whenDownload();
+
+        thenExceptionOccurred();
+        thenDownloadedFileDoesNotExist();
+        thenPartialFileDoesNotExist();
+    }
+
+    @Test
+    public void shouldResumeFromPartialFile() throws Throwable {
+        givenServer(true);
+        givenResume(true);
+        givenPartialFile(200 * 1024);
+        givenHash("MD5");
+
+        whenDownload();
+
+        thenNoExceptionOccurred();
+        thenDownloadedFileIsComplete();
+        thenServedBytesAre(this.resource.length - 200 * 1024);
+    }
+
+    @Test
+    public void shouldCompleteIfPartialFileIsComplete() throws Throwable {
+        givenServer(true);
+        givenResume(true);
+        givenPartialFile(this.resource.length);
+        givenHash("MD5");
+
+        whenDownload();
+
+        thenNoExceptionOccurred();
+        thenDownloadedFileIsComplete();
+        thenServedBytesAre(0);
+    }
+
+    @Test
+    public void shouldResumeIfServerIgnoresRange() throws Throwable {
+        givenServer(false);
+        givenResume(true);
+        givenPartialFile(200 * 1024);
+        givenHash("MD5");
+
+        whenDownload();
+
+        thenNoExceptionOccurred();
+        thenDownloadedFileIsComplete();
+        thenServedBytesAre(this.resource.length);
+    }
+
+    @Test
+    public void shouldNotResumeIfNotRequested() throws Throwable {
+        givenServer(true);
+        givenResume(false);
+        givenPartialFile(200 * 1024);
+
+        whenDownload();
+
+        thenNoExceptionOccurred();
+        thenDownloadedFileIsComplete();
+        thenServedBytesAre(this.resource.length);
+    }
+
+    @Test
+    public void shouldNotResumeIfDownloadForced() throws Throwable {
+        givenServer(true);
+        givenResume(true);
+        givenPartialFile(200 * 1024);
+        this.options.setDownloadForced(true);
+
+        whenDownload();
+
+        thenNoExceptionOccurred();
+        thenDownloadedFileIsComplete();
+        thenServedBytesAre(this.resource.length);
+    }
+
+    @Test
+    public void shouldDownloadInSegments() throws Throwable {
+        givenServer(true);
+        givenSegments(4);
+        givenHash("SHA-256");
+
+        whenDownload();
+
+        thenNoExceptionOccurred();
+        thenDownloadedFileIsComplete();
+        thenRequestsAre(4);
+    }
+
+    @Test
+    public void shouldResumeInSegments() throws Throwable {
+        givenServer(true);
+        givenResume(true);
+        givenPartialFile(100 * 1024 + 3);
+        givenSegments(3);
+        givenHash("SHA-256");
+
+        whenDownload();
+
+        thenNoExceptionOccurred();
+        thenDownloadedFileIsComplete();
+        thenRequestsAre(3);
+    }
+
+    @Test
+    public void shouldLimitSegments() throws Throwable {
+        givenServer(true);
+        givenSegments(1000);
+        givenHash("SHA-256");
+
+        whenDownload();
+
+        thenNoExceptionOccurred();
+        thenDownloadedFileIsComplete();
+        thenRequestsAre(DeploymentPackageDownloadOptions.MAX_DOWNLOAD_SEGMENTS);
+    }
+
+    @Test
+    public void shouldNotDownloadInSegmentsIfServerIgnoresRange() throws Throwable {
+        givenServer(false);
+        givenSegments(4);
+        givenHash("SHA-256");
+
+        whenDownload();
+
+        thenNoExceptionOccurred();
+        thenDownloadedFileIsComplete();
+        thenRequestsAre(1);
+    }
+
+    @After
+    public void cleanUp() throws IOException {
+        if (this.server != null) {
+            this.server.close();
+        }
+        this.dpFile.delete();
+        DownloadFileUtilities.getPartialDownloadFile(this.dpFile).delete();
+    }
+
+    /*
+     * Given
+     */
+
+    private void givenServer(boolean rangeRequestsSupported) throws Exception {
+        this.server = new TestServer(this.port, Optional.of(uri -> this.requests.incrementAndGet()));
+        this.server.setResource(RESOURCE_PATH, this.resource);
+        this.server.setRangeRequestsSupported(rangeRequestsSupported);
+    }
+
+    private void givenResume(boolean resume) {
+        this.options.setResume(resume);
+    }
+
+    private void givenSegments(int segments) {
+        this.options.setSegments(segments);
+    }
+
+    private void givenPartialFile(int length) throws IOException {
+        Files.write(DownloadFileUtilities.getPartialDownloadFile(this.dpFile).toPath(),
+                Arrays.copyOf(this.resource, length));
+    }
+
+    private void givenHash(String algorithm) throws Exception {
+        byte[] digest = MessageDigest.getInstance(algorithm).digest(this.resource);
+        this.options.setHash(algorithm + ":" + HashUtil.toHexString(digest));
+    }
+
+    /*
+     * When
+     */
+
+    private void whenDownload() throws Throwable {
+        DownloadImpl downloadImpl = new DownloadImpl(this.options, mock(CloudDeploymentHandlerV2.class));
+
+        try {
+            TestUtil.invokePrivate(downloadImpl, "incrementalDownloadFromURL", this.dpFile,
+                    this.options.getDeployUri(), 0);
+        } catch (KuraException e) {
+            this.exceptionOccurred = true;
+        }
+    }
+
+    /*
+     * Then
+     */
+
+    private void thenNoExceptionOccurred() {
+        assertFalse(this.exceptionOccurred);
+    }
+
+    private void thenExceptionOccurred() {
+        assertTrue(this.exceptionOccurred);
+    }
+
+    private void thenDownloadedFileIsComplete() throws IOException {
+        assertArrayEquals(this.resource, Files.readAllBytes(this.dpFile.toPath()));
+        thenPartialFileDoesNotExist();
+    }
+
+    private void thenDownloadedFileDoesNotExist() {
+        assertFalse(this.dpFile.exists());
+    }
+
+    private void thenPartialFileDoesNotExist() {
+        assertFalse(DownloadFileUtilities.getPartialDownloadFile(this.dpFile).exists());
+    }
+
+    private void thenServedBytesAre(long expected) {
+        assertEquals(expected, this.server.getServedBytes());
+    }
+
+    private void thenRequestsAre(int expected) {
+        assertEquals(expected, this.requests.get());
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2021, 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2021, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -12,23 +12,36 @@
  ******************************************************************************/
 package org.eclipse.kura.core.internal.linux.executor;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.apache.commons.exec.CommandLine;
 import org.apache.commons.exec.DefaultExecutor;
 import org.apache.commons.exec.Executor;
+import org.apache.commons.io.FileUtils;
 import org.eclipse.kura.core.linux.executor.LinuxPid;
 import org.eclipse.kura.executor.Pid;
+import org.junit.After;
 import org.junit.Test;
 
 public class ExecutorUtilRunningTest {
@@ -36,12 +49,14 @@ public class ExecutorUtilRunningTest {
     private static String[] commandLine1 = { "find", "/", "-name", "foo" };
     private static String[] commandLine2 = { "find", "/", "-name", "bar" };
     private static ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private DefaultExecutor deMock;
     private ExecutorUtil executorUtil;
+    private Path procRoot;
     private boolean isRunning;
     private Map<String, Pid> pids = new HashMap<>();
 
     @Test
-    public void shouldNotBeRunningPid() {
+    public void shouldNotBeRunningPid() throws IOException {
         givenExecutor();
 
         whenCheckIfRunning(new LinuxPid(1234));
@@ -50,7 +65,7 @@ public class ExecutorUtilRunningTest {
     }
 
     @Test
-    public void shouldBeRunningPid() {
+    public void shouldBeRunningPid() throws IOException {
         givenExecutor();
 
         whenCheckIfRunning(new LinuxPid(12345));
@@ -59,7 +74,7 @@ public class ExecutorUtilRunningTest {
     }
 
     @Test
-    public void shouldNotBeRunningCommandLine() {
+    public void shouldNotBeRunningCommandLine() throws IOException {
         givenExecutor();
 
         whenCheckIfRunning(commandLine1);
@@ -68,7 +83,7 @@ public class ExecutorUtilRunningTest {
     }
 
     @Test
-    public void shouldBeRunningCommandLine() {
+    public void shouldBeRunningCommandLine() throws IOException {
         givenExecutor();
 
         whenCheckIfRunning(commandLine2);
@@ -77,7 +92,7 @@ public class ExecutorUtilRunningTest {
     }
 
     @Test
-    public void shouldNotRetrievePids() {
+    public void shouldNotRetrievePids() throws IOException {
         givenExecutor();
 
         whenRetrievePid(commandLine1);
@@ -86,7 +101,7 @@ public class ExecutorUtilRunningTest {
     }
 
     @Test
-    public void shouldRetrievePids() {
+    public void shouldRetrievePids() throws IOException {
         givenExecutor();
 
         whenRetrievePid(commandLine2);
@@ -94,8 +109,79 @@ public class ExecutorUtilRunningTest {
         thenPidIsFound();
     }
 
-    private void givenExecutor() {
-        DefaultExecutor deMock = mock(DefaultExecutor.class);
+    @Test
+    public void shouldBeRunningPidFromProcFs() throws IOException {
+        givenProcFs();
+        givenProcess(12345, 'S', "sleep", "100");
+        givenExecutor();
+
+        whenCheckIfRunning(new LinuxPid(12345));
+
+        thenCommandIsRunning();
+        thenPsIsNotExecuted();
+    }
+
+    @Test
+    public void shouldNotBeRunningZombiePidFromProcFs() throws IOException {
+        givenProcFs();
+        givenProcess(12345, 'Z');
+        givenExecutor();
+
+        whenCheckIfRunning(new LinuxPid(12345));
+
+        thenCommandIsNotRunning();
+    }
+
+    @Test
+    public void shouldNotRetrievePidsFromProcFs() throws IOException {
+        givenProcFs();
+        givenProcess(4333, 'R', "find", "/", "-name", "bar");
+        givenExecutor();
+
+        whenRetrievePid(commandLine1);
+
+        thenPidIsNotFound();
+        thenPsIsNotExecuted();
+    }
+
+    @Test
+    public void shouldRetrievePidsFromProcFs() throws IOException {
+        givenProcFs();
+        givenProcess(4333, 'R', "find", "/", "-name", "bar");
+        givenProcess(4334, 'S', "sleep", "100");
+        givenProcess(5121, 'S', "find", "/", "-name", "bar", "-print");
+        givenExecutor();
+
+        whenRetrievePid(commandLine2);
+
+        thenPidsAre(5121, 4333);
+        thenPsIsNotExecuted();
+    }
+
+    @After
+    public void cleanUp() throws IOException {
+        if (this.procRoot != null) {
+            FileUtils.deleteDirectory(this.procRoot.toFile());
+        }
+    }
+
+    private void givenProcFs() throws IOException {
+        this.procRoot = Files.createTempDirectory("proc");
+        Files.createDirectory(this.procRoot.resolve("self"));
+    }
+
+    private void givenProcess(int pid, char state, String... commandLine) throws IOException {
+        Path processDir = Files.createDirectory(this.procRoot.resolve(Integer.toString(pid)));
+        Files.write(processDir.resolve("stat"), (pid + " (test) " + state + " 1").getBytes(UTF_8));
+        Files.write(processDir.resolve("cmdline"),
+                commandLine.length == 0 ? new byte[0] : (String.join("\0", commandLine) + "\0").getBytes(UTF_8));
+    }
+
+    private void givenExecutor() throws IOException {
+        this.deMock = mock(DefaultExecutor.class);
+        DefaultExecutor deMock = this.deMock;
+        LinuxProcessTable processTable = new LinuxProcessTable(
+                this.procRoot != null ? this.procRoot : Paths.get("/nonexistent"));
         this.executorUtil = new ExecutorUtil() {
 
             @Override
@@ -107,6 +193,12 @@ public class ExecutorUtilRunningTest {
             protected ByteArrayOutputStream createStream() {
                 return ExecutorUtilRunningTest.out;
             }
+
+            @Override
+            protected LinuxProcessTable getProcessTable() {
+                // if procfs is not available ps is used
+                return processTable;
+            }
         };
         configureMock(deMock);
     }
@@ -139,32 +231,38 @@ public class ExecutorUtilRunningTest {
         assertTrue(this.pids.isEmpty());
     }
 
-    private void configureMock(DefaultExecutor deMock) {
+    private void thenPidsAre(Integer... expected) {
+        ArrayList<Integer> actual = new ArrayList<>();
+        this.pids.values().forEach(pid -> actual.add(pid.getPid()));
+        assertEquals(Arrays.asList(expected), actual);
+    }
+
+    private void thenPsIsNotExecuted() throws IOException {
+        verify(this.deMock, never()).execute(any(CommandLine.class));
+    }
+
+    private void configureMock(DefaultExecutor deMock) throws IOException {
         String executablePs = "ps";
         String[] argumentsPs1 = { "-p", "1234" };
         String[] argumentsPs2 = { "-p", "12345" };
         String[] argumentsPsAx = { "-ax" };
-        try {
-            when(deMock.execute(argThat(new CommandLineMatcher(executablePs, argumentsPs1)))).thenReturn(1);
-            doAnswer(invocation -> {
-                out.reset();
-                PrintWriter pw = new PrintWriter(out);
-                pw.println(12345);
-                pw.flush();
-                pw.close();
-                return 0;
-            }).when(deMock).execute(argThat(new CommandLineMatcher(executablePs, argumentsPs2)));
-            doAnswer(invocation -> {
-                out.reset();
-                PrintWriter pw = new PrintWriter(out);
-                pw.println(" 4333 pts/0    R+     0:00 find / -name bar");
-                pw.flush();
-                pw.close();
-                return 0;
-            }).when(deMock).execute(argThat(new CommandLineMatcher(executablePs, argumentsPsAx)));
-        } catch (IOException e) {
-            // Do nothing...
-        }
+        when(deMock.execute(argThat(new CommandLineMatcher(executablePs, argumentsPs1)))).thenReturn(1);
+        doAnswer(invocation -> {
+            out.reset();
+            PrintWriter pw = new PrintWriter(out);
+            pw.println(12345);
+            pw.flush();
+            pw.close();
+            return 0;
+        }).when(deMock).execute(argThat(new CommandLineMatcher(executablePs, argumentsPs2)));
+        doAnswer(invocation -> {
+            out.reset();
+            PrintWriter pw = new PrintWriter(out);
+            pw.println(" 4333 pts/0    R+     0:00 find / -name bar");
+            pw.flush();
+            pw.close();
+            return 0;
+        }).when(deMock).execute(argThat(new CommandLineMatcher(executablePs, argumentsPsAx)));
     }
 
 }
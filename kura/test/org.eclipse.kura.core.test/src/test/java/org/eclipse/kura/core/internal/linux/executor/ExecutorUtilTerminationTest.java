@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2021, 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2021, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -22,6 +22,7 @@ import static org.mockito.Mockito.when;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.file.Paths;
 
 import org.apache.commons.exec.DefaultExecutor;
 import org.apache.commons.exec.ExecuteWatchdog;
@@ -89,6 +90,12 @@ public class ExecutorUtilTerminationTest {
             protected ByteArrayOutputStream createStream() {
                 return ExecutorUtilTerminationTest.out;
             }
+
+            @Override
+            protected LinuxProcessTable getProcessTable() {
+                // procfs not available, use ps
+                return new LinuxProcessTable(Paths.get("/nonexistent"));
+            }
         };
         configureMock(deMock);
     }
@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ ******************************************************************************/
+package org.eclipse.kura.core.internal.linux.executor;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.kura.core.internal.linux.executor.LinuxProcessTable.ProcessInfo;
+import org.junit.After;
+import org.junit.Test;
+
+public class LinuxProcessTableTest {
+
+    private final Path procRoot;
+    private long now;
+    private LinuxProcessTable processTable;
+    private List<ProcessInfo> processes;
+    private boolean isRunning;
+
+    public LinuxProcessTableTest() throws IOException {
+        this.procRoot = Files.createTempDirectory("proc");
+        Files.createDirectory(this.procRoot.resolve("self"));
+    }
+
+    @After
+    public void cleanUp() throws IOException {
+        FileUtils.deleteDirectory(this.procRoot.toFile());
+    }
+
+    @Test
+    public void shouldJoinCommandLineArguments() throws IOException {
+        givenProcess(4333, "find", 'S', "find", "/", "-name", "bar");
+        givenProcessTable();
+
+        whenProcessesAreRead();
+
+        thenProcessesAre("4333:find / -name bar");
+    }
+
+    @Test
+    public void shouldShowKernelThreadNames() throws IOException {
+        givenProcess(2, "kthreadd", 'S');
+        givenProcess(15, "kworker/0:1-(events)", 'I');
+        givenProcessTable();
+
+        whenProcessesAreRead();
+
+        thenProcessesAre("2:[kthreadd]", "15:[kworker/0:1-(events)]");
+    }
+
+    @Test
+    public void shouldSortProcessesByPid() throws IOException {
+        givenProcess(100, "b", 'S', "b");
+        givenProcess(9, "a", 'S', "a");
+        givenProcess(20, "c", 'R', "c");
+        givenProcessTable();
+
+        whenProcessesAreRead();
+
+        thenProcessesAre("9:a", "20:c", "100:b");
+    }
+
+    @Test
+    public void shouldIgnoreZombies() throws IOException {
+        givenProcess(10, "defunct", 'Z');
+        givenProcess(11, "sleep", 'S', "sleep", "100");
+        givenProcessTable();
+
+        whenProcessesAreRead();
+
+        thenProcessesAre("11:sleep 100");
+    }
+
+    @Test
+    public void shouldBeRunning() throws IOException {
+        givenProcess(11, "sleep", 'S', "sleep", "100");
+        givenProcessTable();
+
+        whenCheckIfRunning(11);
+
+        thenIsRunning(true);
+    }
+
+    @Test
+    public void shouldNotBeRunningIfNotExists() throws IOException {
+        givenProcessTable();
+
+        whenCheckIfRunning(11);
+
+        thenIsRunning(false);
+    }
+
+    @Test
+    public void shouldNotBeRunningIfZombie() throws IOException {
+        givenProcess(11, "sleep (1)", 'Z');
+        givenProcessTable();
+
+        whenCheckIfRunning(11);
+
+        thenIsRunning(false);
+    }
+
+    @Test
+    public void shouldReuseSnapshotWithinTimeToLive() throws IOException {
+        givenProcess(11, "sleep", 'S', "sleep", "100");
+        givenProcessTable();
+        givenProcessesRead();
+        givenProcess(12, "sleep", 'S', "sleep", "200");
+        givenTimeElapsed(LinuxProcessTable.DEFAULT_SNAPSHOT_TTL_MILLIS - 1);
+
+        whenProcessesAreRead();
+
+        thenProcessesAre("11:sleep 100");
+    }
+
+    @Test
+    public void shouldReadProcessesAfterTimeToLive() throws IOException {
+        givenProcess(11, "sleep", 'S', "sleep", "100");
+        givenProcessTable();
+        givenProcessesRead();
+        givenProcess(12, "sleep", 'S', "sleep", "200");
+        givenTimeElapsed(LinuxProcessTable.DEFAULT_SNAPSHOT_TTL_MILLIS);
+
+        whenProcessesAreRead();
+
+        thenProcessesAre("11:sleep 100", "12:sleep 200");
+    }
+
+    @Test
+    public void shouldReadProcessesAfterInvalidate() throws IOException {
+        givenProcess(11, "sleep", 'S', "sleep", "100");
+        givenProcessTable();
+        givenProcessesRead();
+        givenProcessTerminated(11);
+        givenSnapshotInvalidated();
+
+        whenProcessesAreRead();
+
+        thenProcessesAre();
+    }
+
+    @Test
+    public void shouldNotBeAvailableWithoutProcFs() {
+        assertFalse(new LinuxProcessTable(this.procRoot.resolve("missing")).isAvailable());
+        assertTrue(new LinuxProcessTable(this.procRoot).isAvailable());
+    }
+
+    @Test
+    public void shouldFindCurrentProcess() {
+        LinuxProcessTable systemProcessTable = LinuxProcessTable.getDefault();
+        assumeTrue(systemProcessTable.isAvailable());
+        int pid = Integer.parseInt(ManagementFactory.getRuntimeMXBean().getName().split("@")[0]);
+
+        assertTrue(systemProcessTable.isRunning(pid));
+        assertTrue(systemProcessTable.getProcesses().stream()
+                .anyMatch(p -> p.getPid() == pid && p.getCommandLine().contains("java")));
+    }
+
+    private void givenProcess(int pid, String name, char state, String... commandLine) throws IOException {
+        Path processDir = Files.createDirectories(this.procRoot.resolve(Integer.toString(pid)));
+        Files.write(processDir.resolve("stat"),
+                (pid + " (" + name + ") " + state + " 1 " + pid + " " + pid + " 0 -1 4194560").getBytes(UTF_8));
+
+        StringBuilder cmdline = new StringBuilder();
+        for (String argument : commandLine) {
+            cmdline.append(argument).append('\0');
+        }
+        Files.write(processDir.resolve("cmdline"), cmdline.toString().getBytes(UTF_8));
+    }
+
+    private void givenProcessTerminated(int pid) throws IOException {
+        FileUtils.deleteDirectory(new File(this.procRoot.toFile(), Integer.toString(pid)));
+    }
+
+    private void givenProcessTable() {
+        this.processTable = new LinuxProcessTable(this.procRoot, LinuxProcessTable.DEFAULT_SNAPSHOT_TTL_MILLIS,
+                () -> this.now);
+    }
+
+    private void givenProcessesRead() {
+        this.processTable.getProcesses();
+    }
+
+    private void givenTimeElapsed(long millis) {
+        this.now += millis * 1000000L;
+    }
+
+    private void givenSnapshotInvalidated() {
+        this.processTable.invalidate();
+    }
+
+    private void whenProcessesAreRead() {
+        this.processes = this.processTable.getProcesses();
+    }
+
+    private void whenCheckIfRunning(int pid) {
+        this.isRunning = this.processTable.isRunning(pid);
+    }
+
+    private void thenProcessesAre(String... expected) {
+        assertEquals(Arrays.asList(expected), this.processes.stream()
+                .map(p -> p.getPid() + ":" + p.getCommandLine()).collect(Collectors.toList()));
+    }
+
+    private void thenIsRunning(boolean expected) {
+        assertEquals(expected, this.isRunning);
+    }
+}
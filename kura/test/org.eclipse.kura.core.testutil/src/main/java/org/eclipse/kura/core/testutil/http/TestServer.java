@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ * Copyright (c) 2021, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -18,7 +18,10 @@ import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
@@ -35,6 +38,8 @@ public class TestServer implements Closeable {
     private final Server server;
     private final Optional<Consumer<String>> downloadListener;
     private final Map<String, byte[]> resources = new HashMap<>();
+    private final AtomicLong servedBytes = new AtomicLong();
+    private volatile boolean rangeRequestsSupported;
 
     public TestServer(final int port, final Optional<Consumer<String>> downloadListener) throws Exception {
         this.server = new Server();
@@ -56,6 +61,16 @@ public class TestServer implements Closeable {
         this.resources.put(path, data);
     }
 
+    public void setRangeRequestsSupported(final boolean rangeRequestsSupported) {
+        this.rangeRequestsSupported = rangeRequestsSupported;
+    }
+
+    public long getServedBytes() {
+        return this.servedBytes.get();
+    }
+
+    private static final Pattern RANGE_PATTERN = Pattern.compile("bytes=(\\d+)-(\\d*)");
+
     private class DownloadServlet extends HttpServlet {
 
         /**
@@ -75,11 +90,40 @@ public class TestServer implements Closeable {
 
             try {
                 if (data.isPresent()) {
-                    resp.setStatus(200);
+                    final byte[] bytes = data.get();
+                    int first = 0;
+                    int last = bytes.length - 1;
+
+                    final Matcher range = rangeRequestsSupported
+                            ? RANGE_PATTERN.matcher(Optional.ofNullable(req.getHeader("Range")).orElse(""))
+                            : null;
+
+                    if (range != null && range.matches()) {
+                        first = Integer.parseInt(range.group(1));
+                        if (!range.group(2).isEmpty()) {
+                            last = Math.min(last, Integer.parseInt(range.group(2)));
+                        }
+                        if (first > last) {
+                            resp.setStatus(416);
+                            resp.setHeader("Content-Range", "bytes */" + bytes.length);
+                            resp.setContentLength(0);
+                            return;
+                        }
+                        resp.setStatus(206);
+                        resp.setHeader("Content-Range", "bytes " + first + "-" + last + "/" + bytes.length);
+                    } else {
+                        resp.setStatus(200);
+                    }
+
+                    if (rangeRequestsSupported) {
+                        resp.setHeader("Accept-Ranges", "bytes");
+                    }
                     resp.setContentType("application/pkix-crl");
+                    resp.setContentLength(last - first + 1);
                     final OutputStream out = resp.getOutputStream();
-                    out.write(data.get());
+                    out.write(bytes, first, last - first + 1);
                     out.flush();
+                    servedBytes.addAndGet(last - first + 1L);
                 } else {
                     resp.sendError(404);
                 }
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.core.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+
+public class GZipUtilTest {
+
+    private static final int OS_HEADER_FIELD = 9;
+
+    private byte[] source;
+    private byte[] compressed;
+
+    @Test
+    public void shouldProduceSameOutputAsGZipOutputStream() throws IOException {
+        givenSource(randomText(10000, 1));
+
+        whenCompressed();
+
+        thenCompressedIsEqualToGZipOutputStream(this.source);
+    }
+
+    @Test
+    public void shouldCompressEmptyArray() throws IOException {
+        givenSource(new byte[0]);
+
+        whenCompressed();
+
+        thenCompressedIsEqualToGZipOutputStream(this.source);
+        thenDecompressedIsEqualToSource();
+    }
+
+    @Test
+    public void shouldCompressMultipleTimes() throws IOException {
+        givenSource(randomText(200000, 2));
+        givenCompressed();
+        givenSource(randomText(100, 3));
+
+        whenCompressed();
+
+        thenCompressedIsEqualToGZipOutputStream(this.source);
+        thenDecompressedIsEqualToSource();
+    }
+
+    @Test
+    public void shouldCompressIncompressibleData() throws IOException {
+        final byte[] data = new byte[50000];
+        new Random(4).nextBytes(data);
+        givenSource(data);
+
+        whenCompressed();
+
+        thenCompressedIsEqualToGZipOutputStream(this.source);
+        thenDecompressedIsEqualToSource();
+    }
+
+    @Test
+    public void shouldCompressArrayRange() throws IOException {
+        givenSource(randomText(1000, 5));
+
+        whenCompressed(100, 500);
+
+        thenCompressedIsEqualToGZipOutputStream(Arrays.copyOfRange(this.source, 100, 600));
+    }
+
+    @Test
+    public void shouldDetectCompressedData() throws IOException {
+        givenSource(randomText(1000, 6));
+
+        whenCompressed();
+
+        assertTrue(GZipUtil.isCompressed(this.compressed));
+    }
+
+    private void givenSource(final byte[] source) {
+        this.source = source;
+    }
+
+    private void givenCompressed() throws IOException {
+        whenCompressed();
+    }
+
+    private void whenCompressed() throws IOException {
+        this.compressed = GZipUtil.compress(this.source);
+    }
+
+    private void whenCompressed(final int offset, final int length) throws IOException {
+        this.compressed = GZipUtil.compress(this.source, offset, length);
+    }
+
+    private void thenCompressedIsEqualToGZipOutputStream(final byte[] data) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+
+        final byte[] expected = out.toByteArray();
+
+        // the operating system field of the header depends on the JVM version
+        expected[OS_HEADER_FIELD] = this.compressed[OS_HEADER_FIELD];
+
+        assertArrayEquals(expected, this.compressed);
+    }
+
+    private void thenDecompressedIsEqualToSource() throws IOException {
+        assertArrayEquals(this.source, GZipUtil.decompress(this.compressed));
+    }
+
+    private static byte[] randomText(final int length, final long seed) {
+        final Random random = new Random(seed);
+        final String[] words = { "kura", "metric", "temperature", "asset", "channel", "value", "12.5", "true" };
+        final StringBuilder builder = new StringBuilder();
+
+        while (builder.length() < length) {
+            builder.append(words[random.nextInt(words.length)]).append(' ');
+        }
+
+        return builder.substring(0, length).getBytes(UTF_8);
+    }
+}
@@ -24,7 +24,16 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.eclipse.kura.KuraStoreException;
 import org.eclipse.kura.db.H2DbService;
@@ -33,6 +42,7 @@ import org.eclipse.kura.message.store.StoredMessage;
 import org.eclipse.kura.message.store.provider.MessageStore;
 import org.eclipse.kura.util.jdbc.ConnectionProvider;
 import org.eclipse.kura.util.jdbc.SQLFunction;
+import org.eclipse.kura.util.message.store.GroupCommitOptions;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -52,6 +62,7 @@ public class DbDataStoreStorageTest {
 
     private MessageStore dataStore;
     private int messageId;
+    private final List<Integer> storedMessageIds = new ArrayList<>();
 
     /*
      * Scenarios
@@ -121,6 +132,19 @@ public class DbDataStoreStorageTest {
         thenStoredMessageIs(TOPIC, this.payload, QOS1, true, PRIORITY_MEDIUM);
     }
 
+    @Test
+    public void shouldAssignDistinctIdsToMessagesStoredWithGroupCommit() {
+        givenSmallPayload();
+        givenDbDataStoreWithGroupCommit("group-commit-table", 100, 8);
+
+        whenMessagesAreStoredConcurrently(8);
+
+        thenNoExceptionsOccurred();
+        thenStoredMessageIdsAreDistinct(8);
+        thenStoredMessagesAre(TOPIC, this.payload, QOS1, false, PRIORITY_LOW);
+        thenMessageCountIs(8);
+    }
+
     /*
      * Steps
      */
@@ -164,6 +188,23 @@ public class DbDataStoreStorageTest {
         }
     }
 
+    private void givenDbDataStoreWithGroupCommit(final String tableName, final long windowMillis,
+            final int maxMessages) {
+        H2DbService h2Service = new MockH2DbService();
+
+        try {
+            this.dataStore = new H2DbMessageStoreImpl(new ConnectionProvider() {
+
+                @Override
+                public <T> T withConnection(SQLFunction<Connection, T> task) throws SQLException {
+                    return h2Service.withConnection(task::call);
+                }
+            }, tableName, new GroupCommitOptions(windowMillis, maxMessages));
+        } catch (KuraStoreException e) {
+            this.occurredException = e;
+        }
+    }
+
     /*
      * When
      */
@@ -204,6 +245,30 @@ public class DbDataStoreStorageTest {
         }
     }
 
+    private void whenMessagesAreStoredConcurrently(final int count) {
+        final ExecutorService executor = Executors.newFixedThreadPool(count);
+
+        try {
+            final List<Future<Integer>> results = new ArrayList<>();
+
+            for (int i = 0; i < count; i++) {
+                results.add(
+                        executor.submit(() -> this.dataStore.store(TOPIC, this.payload, QOS1, false, PRIORITY_LOW)));
+            }
+
+            for (final Future<Integer> result : results) {
+                this.storedMessageIds.add(result.get(30, TimeUnit.SECONDS));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.occurredException = e;
+        } catch (ExecutionException | TimeoutException e) {
+            this.occurredException = e;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     /*
      * Then
      */
@@ -266,6 +331,25 @@ public class DbDataStoreStorageTest {
 
     }
 
+    private void thenStoredMessageIdsAreDistinct(final int count) {
+        assertEquals(count, new HashSet<>(this.storedMessageIds).size());
+    }
+
+    private void thenStoredMessagesAre(String topic, byte[] payload, int qos, boolean retain, int priority) {
+        for (final int id : this.storedMessageIds) {
+            this.messageId = id;
+            thenStoredMessageIs(topic, payload, qos, retain, priority);
+        }
+    }
+
+    private void thenMessageCountIs(final int expectedCount) {
+        try {
+            assertEquals(expectedCount, this.dataStore.getMessageCount());
+        } catch (KuraStoreException e) {
+            fail("Unable to retrieve message count");
+        }
+    }
+
     private void thenStoreCapacityExceededException() {
         assertNotNull(this.occurredException);
     }
@@ -67,6 +67,28 @@ public class SqliteDbServiceOptionsTest {
         thenDbUrlIs("jdbc:sqlite:file:/tmp/foo");
     }
 
+    @Test
+    public void shouldDisableGroupCommitByDefault() {
+        givenConfigurationProperty("kura.service.pid", "foo");
+
+        whenOptionsAreCreated();
+
+        thenGroupCommitIsEnabled(false);
+    }
+
+    @Test
+    public void shouldSupportGroupCommit() {
+        givenConfigurationProperty("kura.service.pid", "foo");
+        givenConfigurationProperty("db.group.commit.window.ms", 5);
+        givenConfigurationProperty("db.group.commit.max.messages", 128);
+
+        whenOptionsAreCreated();
+
+        thenGroupCommitIsEnabled(true);
+        thenGroupCommitWindowIs(5);
+        thenGroupCommitMaxMessagesIs(128);
+    }
+
     private final Map<String, Object> properties = new HashMap<>();
     private SqliteDbServiceOptions options;
 
@@ -86,4 +108,15 @@ public class SqliteDbServiceOptionsTest {
         assertEquals(expectedDbUrl, this.options.getDbUrl());
     }
 
+    private void thenGroupCommitIsEnabled(final boolean expectedEnabled) {
+        assertEquals(expectedEnabled, this.options.getGroupCommitOptions().isEnabled());
+    }
+
+    private void thenGroupCommitWindowIs(final long expectedWindowMillis) {
+        assertEquals(expectedWindowMillis, this.options.getGroupCommitOptions().getWindowMillis());
+    }
+
+    private void thenGroupCommitMaxMessagesIs(final int expectedMaxMessages) {
+        assertEquals(expectedMaxMessages, this.options.getGroupCommitOptions().getMaxMessages());
+    }
 }
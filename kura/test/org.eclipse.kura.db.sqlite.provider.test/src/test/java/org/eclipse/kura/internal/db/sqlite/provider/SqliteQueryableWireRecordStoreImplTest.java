@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.db.sqlite.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.eclipse.kura.KuraStoreException;
+import org.eclipse.kura.type.IntegerValue;
+import org.eclipse.kura.type.LongValue;
+import org.eclipse.kura.util.jdbc.ConnectionProvider;
+import org.eclipse.kura.util.jdbc.SQLFunction;
+import org.eclipse.kura.wire.WireRecord;
+import org.junit.After;
+import org.junit.Test;
+import org.sqlite.SQLiteDataSource;
+
+public class SqliteQueryableWireRecordStoreImplTest {
+
+    private static final String TABLE_NAME = "records";
+
+    private final Connection connection;
+    private final SqliteWireRecordStoreImpl store;
+    private final SqliteQueryableWireRecordStoreImpl queryableStore;
+
+    private List<WireRecord> page = Collections.emptyList();
+    private Optional<Exception> exception = Optional.empty();
+
+    public SqliteQueryableWireRecordStoreImplTest() throws SQLException, KuraStoreException {
+        final SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite::memory:");
+
+        this.connection = dataSource.getConnection();
+
+        final ConnectionProvider connectionProvider = new ConnectionProvider() {
+
+            @Override
+            public <T> T withConnection(final SQLFunction<Connection, T> task) throws SQLException {
+                return task.call(SqliteQueryableWireRecordStoreImplTest.this.connection);
+            }
+        };
+
+        this.store = new SqliteWireRecordStoreImpl(connectionProvider, TABLE_NAME);
+        this.queryableStore = new SqliteQueryableWireRecordStoreImpl(connectionProvider);
+    }
+
+    @Test
+    public void shouldReturnPageAfterLastKey() throws Exception {
+        givenRecords(10);
+
+        whenPageIsRequested("SELECT * FROM " + TABLE_NAME + ";", 3L, 4);
+
+        thenNoExceptionOccurred();
+        thenPageValuesAre(3, 4, 5, 6);
+    }
+
+    @Test
+    public void shouldRejectPagedQueryWithLimit() throws Exception {
+        givenRecords(10);
+
+        whenPageIsRequested("SELECT * FROM " + TABLE_NAME + " LIMIT 5;", null, 4);
+
+        thenExceptionOccurred();
+    }
+
+    @Test
+    public void shouldRejectPagedQueryWithOrderBy() throws Exception {
+        givenRecords(10);
+
+        whenPageIsRequested("SELECT * FROM " + TABLE_NAME + " order by foo DESC", null, 4);
+
+        thenExceptionOccurred();
+    }
+
+    @Test
+    public void shouldAcceptLimitInSubqueryAndLiterals() throws Exception {
+        givenRecords(10);
+
+        whenPageIsRequested("SELECT * FROM " + TABLE_NAME + " WHERE ID IN (SELECT ID FROM " + TABLE_NAME
+                + " ORDER BY ID LIMIT 5) AND 'LIMIT' <> \"ORDER BY\" -- LIMIT", null, 10);
+
+        thenNoExceptionOccurred();
+        thenPageValuesAre(0, 1, 2, 3, 4);
+    }
+
+    @After
+    public void closeConnection() throws SQLException {
+        this.connection.close();
+    }
+
+    /*
+     * The records have a foo value starting from 0 and an ID starting from 1.
+     */
+    private void givenRecords(final int count) throws KuraStoreException {
+        final List<WireRecord> records = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            records.add(new WireRecord(Collections.singletonMap("foo", new IntegerValue(i))));
+        }
+
+        this.store.insertRecords(records);
+    }
+
+    private void whenPageIsRequested(final String query, final Long lastId, final int limit) {
+        try {
+            this.page = this.queryableStore.performQuery(query, "ID", lastId == null ? null : new LongValue(lastId),
+                    limit);
+        } catch (final Exception e) {
+            this.exception = Optional.of(e);
+        }
+    }
+
+    private void thenPageValuesAre(final Integer... expected) {
+        final List<Integer> actual = new ArrayList<>();
+
+        for (final WireRecord wireRecord : this.page) {
+            actual.add((Integer) wireRecord.getProperties().get("foo").getValue());
+        }
+
+        assertEquals(Arrays.asList(expected), actual);
+    }
+
+    private void thenNoExceptionOccurred() {
+        assertEquals(Optional.empty(), this.exception);
+    }
+
+    private void thenExceptionOccurred() {
+        assertTrue(this.exception.isPresent());
+        assertTrue(this.exception.get() instanceof KuraStoreException);
+    }
+}
@@ -0,0 +1,245 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.db.sqlite.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.kura.KuraStoreException;
+import org.eclipse.kura.type.DataType;
+import org.eclipse.kura.type.IntegerValue;
+import org.eclipse.kura.type.StringValue;
+import org.eclipse.kura.type.TypedValue;
+import org.eclipse.kura.util.jdbc.ConnectionProvider;
+import org.eclipse.kura.util.jdbc.SQLFunction;
+import org.eclipse.kura.wire.WireRecord;
+import org.junit.After;
+import org.junit.Test;
+import org.sqlite.SQLiteDataSource;
+
+public class SqliteWireRecordStoreImplTest {
+
+    private static final String TABLE_NAME = "records";
+
+    private final Connection connection;
+    private final SqliteWireRecordStoreImpl store;
+    private final List<WireRecord> records = new ArrayList<>();
+
+    public SqliteWireRecordStoreImplTest() throws SQLException, KuraStoreException {
+        final SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite::memory:");
+
+        this.connection = dataSource.getConnection();
+        this.store = new SqliteWireRecordStoreImpl(new ConnectionProvider() {
+
+            @Override
+            public <T> T withConnection(final SQLFunction<Connection, T> task) throws SQLException {
+                return task.call(SqliteWireRecordStoreImplTest.this.connection);
+            }
+        }, TABLE_NAME);
+    }
+
+    @Test
+    public void shouldInsertAllRecords() throws Exception {
+        givenRecords(100, "foo", i -> new IntegerValue(i));
+
+        whenRecordsAreInserted();
+
+        thenTableSizeIs(100);
+        thenColumnValuesAre("foo", 100, i -> i);
+    }
+
+    @Test
+    public void shouldPreserveOrderOfRecordsWithDifferentColumns() throws Exception {
+        givenRecord("foo", new IntegerValue(1));
+        givenRecord("bar", new IntegerValue(2));
+        givenRecord("foo", new IntegerValue(3));
+        givenRecord("bar", new IntegerValue(4));
+
+        whenRecordsAreInserted();
+
+        thenTableSizeIs(4);
+        thenValuesInInsertionOrderAre("1", "2", "3", "4");
+    }
+
+    @Test
+    public void shouldChangeColumnTypeInsideTheSameList() throws Exception {
+        givenRecord("foo", new IntegerValue(1));
+        givenRecord("foo", new StringValue("bar"));
+
+        whenRecordsAreInserted();
+
+        thenTableSizeIs(2);
+        thenColumnTypeIs("foo", "TEXT");
+    }
+
+    @Test
+    public void shouldRecreateColumnDroppedByAnotherClient() throws Exception {
+        givenRecord("foo", new IntegerValue(1));
+        givenRecordsInserted();
+        givenStatementExecuted("ALTER TABLE " + TABLE_NAME + " DROP COLUMN foo");
+
+        whenRecordsAreInserted();
+
+        thenTableSizeIs(2);
+    }
+
+    @Test
+    public void shouldRecreateTableDroppedByAnotherClient() throws Exception {
+        givenRecord("foo", new IntegerValue(1));
+        givenRecordsInserted();
+        givenStatementExecuted("DROP TABLE " + TABLE_NAME);
+
+        whenRecordsAreInserted();
+
+        thenTableSizeIs(1);
+    }
+
+    @Test
+    public void shouldNotReusePreviousValueForUnsupportedType() throws Exception {
+        givenRecord("foo", new IntegerValue(1));
+        givenRecord("foo", new UnsupportedValue());
+
+        whenRecordsAreInserted();
+
+        thenTableSizeIs(2);
+        thenExpressionValuesInInsertionOrderAre("foo", "1", null);
+    }
+
+    @Test
+    public void shouldRestoreAutoCommit() throws Exception {
+        givenRecord("foo", new IntegerValue(1));
+
+        whenRecordsAreInserted();
+
+        thenAutoCommitIsEnabled();
+    }
+
+    @After
+    public void closeConnection() throws SQLException {
+        this.connection.close();
+    }
+
+    private interface ValueFactory {
+
+        public TypedValue<?> create(int index);
+    }
+
+    private interface ExpectedValue {
+
+        public int get(int index);
+    }
+
+    private static class UnsupportedValue implements TypedValue<Object> {
+
+        @Override
+        public int compareTo(final TypedValue<Object> other) {
+            return 0;
+        }
+
+        @Override
+        public DataType getType() {
+            return DataType.STRING;
+        }
+
+        @Override
+        public Object getValue() {
+            return new Object();
+        }
+    }
+
+    private void givenRecords(final int count, final String column, final ValueFactory valueFactory) {
+        for (int i = 0; i < count; i++) {
+            givenRecord(column, valueFactory.create(i));
+        }
+    }
+
+    private void givenRecord(final String column, final TypedValue<?> value) {
+        final Map<String, TypedValue<?>> properties = new LinkedHashMap<>();
+        properties.put(column, value);
+
+        this.records.add(new WireRecord(properties));
+    }
+
+    private void givenRecordsInserted() throws KuraStoreException {
+        this.store.insertRecords(this.records);
+    }
+
+    private void givenStatementExecuted(final String sql) throws SQLException {
+        try (final Statement statement = this.connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private void whenRecordsAreInserted() throws KuraStoreException {
+        this.store.insertRecords(this.records);
+    }
+
+    private void thenTableSizeIs(final int expected) throws KuraStoreException {
+        assertEquals(expected, this.store.getSize());
+    }
+
+    private void thenColumnValuesAre(final String column, final int count, final ExpectedValue expected)
+            throws SQLException {
+        try (final Statement statement = this.connection.createStatement();
+                final ResultSet resultSet = statement
+                        .executeQuery("SELECT " + column + " FROM " + TABLE_NAME + " ORDER BY ID ASC")) {
+
+            for (int i = 0; i < count; i++) {
+                assertTrue(resultSet.next());
+                assertEquals(expected.get(i), resultSet.getInt(1));
+            }
+        }
+    }
+
+    private void thenValuesInInsertionOrderAre(final String... expected) throws SQLException {
+        thenExpressionValuesInInsertionOrderAre("COALESCE(foo, bar)", expected);
+    }
+
+    private void thenExpressionValuesInInsertionOrderAre(final String expression, final String... expected)
+            throws SQLException {
+        final List<String> actual = new ArrayList<>();
+
+        try (final Statement statement = this.connection.createStatement();
+                final ResultSet resultSet = statement
+                        .executeQuery("SELECT " + expression + " FROM " + TABLE_NAME + " ORDER BY ID ASC")) {
+
+            while (resultSet.next()) {
+                actual.add(resultSet.getString(1));
+            }
+        }
+
+        assertEquals(Arrays.asList(expected), actual);
+    }
+
+    private void thenColumnTypeIs(final String column, final String expected) throws SQLException {
+        try (final ResultSet resultSet = this.connection.getMetaData().getColumns(null, null, TABLE_NAME, column)) {
+            assertTrue(resultSet.next());
+            assertEquals(expected, resultSet.getString("TYPE_NAME"));
+        }
+    }
+
+    private void thenAutoCommitIsEnabled() throws SQLException {
+        assertTrue(this.connection.getAutoCommit());
+    }
+}
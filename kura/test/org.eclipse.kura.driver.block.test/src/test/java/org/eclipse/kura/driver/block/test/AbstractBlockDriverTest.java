@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -20,6 +20,7 @@ import static org.junit.Assert.assertTrue;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -30,7 +31,9 @@ import org.eclipse.kura.channel.ChannelFlag;
 import org.eclipse.kura.channel.ChannelRecord;
 import org.eclipse.kura.driver.ChannelDescriptor;
 import org.eclipse.kura.driver.Driver.ConnectionException;
+import org.eclipse.kura.driver.PreparedRead;
 import org.eclipse.kura.driver.binary.Buffer;
+import org.eclipse.kura.driver.block.BlockAggregationPlanner;
 import org.eclipse.kura.driver.block.BlockFactory;
 import org.eclipse.kura.driver.block.ProhibitedBlock;
 import org.eclipse.kura.driver.block.task.AbstractBlockDriver;
@@ -141,6 +144,86 @@ public class AbstractBlockDriverTest {
         }
     }
 
+    @Test
+    public void shouldSupportMaximumBlockSize() throws ConnectionException {
+        List<Pair<Integer, BlockTask>> tasks = testTasks(1, Mode.READ, 0, 3, 3, 5, 5, 10);
+        List<ChannelRecord> records = getRecords(tasks);
+        TestBlockFactory factory = new TestBlockFactory(Mode.READ, 0, 5, 5, 10);
+        TestDriver driver = new TestDriver().withTasks(tasks).withBlockFactoryProvider((domain, mode) -> factory)
+                .withMaximumBlockSize(5);
+        driver.read(records);
+        assertEquals(2, factory.timesCalled);
+        for (ChannelRecord record : records) {
+            assertEquals(true, record.getValue().getValue());
+        }
+    }
+
+    @Test
+    public void shouldSupportMaximumBlockSizeOnUpdate() throws ConnectionException {
+        List<Pair<Integer, BlockTask>> tasks = testTasks(1, Mode.UPDATE, 0, 3, 3, 5, 5, 10);
+        List<ChannelRecord> records = getRecords(tasks);
+        TestBlockFactory readFactory = new TestBlockFactory(Mode.READ, 0, 5, 5, 10);
+        TestBlockFactory writeFactory = new TestBlockFactory(Mode.WRITE, 0, 5, 5, 10);
+        TestDriver driver = new TestDriver().withTasks(tasks)
+                .withBlockFactoryProvider((domain, mode) -> mode == Mode.READ ? readFactory : writeFactory)
+                .withMaximumBlockSize(5);
+        driver.write(records);
+        assertEquals(2, readFactory.timesCalled);
+        assertEquals(2, writeFactory.timesCalled);
+        for (ChannelRecord record : records) {
+            assertEquals(true, record.getValue().getValue());
+        }
+    }
+
+    @Test
+    public void shouldSupportCostBasedAggregation() throws ConnectionException {
+        List<Pair<Integer, BlockTask>> tasks = testTasks(1, Mode.READ, 0, 3, 5, 7, 9, 12, 20, 22);
+        List<ChannelRecord> records = getRecords(tasks);
+        TestBlockFactory factory = new TestBlockFactory(Mode.READ, 0, 12, 20, 22);
+        TestDriver driver = new TestDriver().withTasks(tasks).withBlockFactoryProvider((domain, mode) -> factory)
+                .withMinimumGapSize(3).withCostBasedAggregation();
+        driver.read(records);
+        assertEquals(2, factory.timesCalled);
+        for (ChannelRecord record : records) {
+            assertEquals(true, record.getValue().getValue());
+        }
+    }
+
+    @Test
+    public void shouldReusePreparedReadTasksUntilCostsAreMeasured() throws ConnectionException, KuraException {
+        List<Pair<Integer, BlockTask>> tasks = testTasks(1, Mode.READ, 0, 3, 3, 5, 5, 10);
+        List<ChannelRecord> records = getRecords(tasks);
+        TestBlockFactory factory = new TestBlockFactory(Mode.READ, 0, 10);
+        TestDriver driver = new TestDriver().withTasks(tasks).withBlockFactoryProvider((domain, mode) -> factory)
+                .withCostBasedAggregation();
+        PreparedRead preparedRead = driver.prepareRead(records);
+        for (int i = 0; i < 16; i++) {
+            preparedRead.execute();
+        }
+        assertEquals(1, factory.timesCalled);
+        for (int i = 0; i < 16; i++) {
+            preparedRead.execute();
+        }
+        assertEquals(2, factory.timesCalled);
+        for (ChannelRecord record : records) {
+            assertEquals(true, record.getValue().getValue());
+        }
+    }
+
+    @Test
+    public void shouldNotMeasureReadsWithoutIO() throws ConnectionException, KuraException {
+        List<Pair<Integer, BlockTask>> tasks = testTasks(1, Mode.READ, 0, 3, 3, 5, 5, 10);
+        List<ChannelRecord> records = getRecords(tasks);
+        TestBlockFactory factory = new TestBlockFactory(Mode.READ, 0, 10).withoutBufferReads();
+        TestDriver driver = new TestDriver().withTasks(tasks).withBlockFactoryProvider((domain, mode) -> factory)
+                .withCostBasedAggregation();
+        PreparedRead preparedRead = driver.prepareRead(records);
+        for (int i = 0; i < 32; i++) {
+            preparedRead.execute();
+        }
+        assertEquals(1, factory.timesCalled);
+    }
+
     @Test
     public void shouldNotAggregateTasksFromDifferentDomains() throws ConnectionException {
         List<Pair<Integer, BlockTask>> tasks = new ArrayList<>();
@@ -202,17 +285,31 @@ public class AbstractBlockDriverTest {
 
     private class TestBlockFactory implements BlockFactory<ToplevelBlockTask> {
 
-        private final int expectedStart;
-        private final int expectedEnd;
+        private final int[] expectedBlocks;
         private int timesCalled;
         private final Mode mode;
+        private boolean isBufferReadRequired = true;
 
-        public TestBlockFactory(Mode mode, int expectedStart, int expectedEnd) {
-            this.expectedStart = expectedStart;
-            this.expectedEnd = expectedEnd;
+        public TestBlockFactory(Mode mode, int... expectedBlocks) {
+            assertTrue(expectedBlocks.length % 2 == 0);
+            this.expectedBlocks = expectedBlocks;
             this.mode = mode;
         }
 
+        public TestBlockFactory withoutBufferReads() {
+            this.isBufferReadRequired = false;
+            return this;
+        }
+
+        private boolean isExpected(int start, int end) {
+            for (int i = 0; i < this.expectedBlocks.length; i += 2) {
+                if (this.expectedBlocks[i] == start && this.expectedBlocks[i + 1] == end) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
         @Override
         public ToplevelBlockTask build(int start, int end) {
             this.timesCalled++;
@@ -220,8 +317,12 @@ public class AbstractBlockDriverTest {
 
                 @Override
                 public void processBuffer() throws IOException {
-                    assertEquals(TestBlockFactory.this.expectedStart, getStart());
-                    assertEquals(TestBlockFactory.this.expectedEnd, getEnd());
+                    assertTrue(isExpected(getStart(), getEnd()));
+                }
+
+                @Override
+                protected boolean isBufferReadRequired() {
+                    return TestBlockFactory.this.isBufferReadRequired;
                 }
 
                 @Override
@@ -280,6 +381,8 @@ public class AbstractBlockDriverTest {
         private Consumer<List<BlockTask>> afterAggregation;
         private Consumer<BlockTaskAggregator> beforeAggregation;
         private int minimumGapSize;
+        private int maximumBlockSize = Integer.MAX_VALUE;
+        private boolean isCostBasedAggregationEnabled;
 
         public TestDriver withTasks(List<Pair<Integer, BlockTask>> tasks) {
             this.tasks = tasks;
@@ -291,6 +394,16 @@ public class AbstractBlockDriverTest {
             return this;
         }
 
+        public TestDriver withMaximumBlockSize(int maximumBlockSize) {
+            this.maximumBlockSize = maximumBlockSize;
+            return this;
+        }
+
+        public TestDriver withCostBasedAggregation() {
+            this.isCostBasedAggregationEnabled = true;
+            return this;
+        }
+
         public TestDriver withBlockFactoryProvider(
                 BiFunction<Integer, Mode, BlockFactory<ToplevelBlockTask>> blockFactoryProvider) {
             this.blockFactoryProvider = blockFactoryProvider;
@@ -312,6 +425,19 @@ public class AbstractBlockDriverTest {
             return this.minimumGapSize;
         }
 
+        @Override
+        protected int getMaximumBlockSizeForDomain(Integer domain) {
+            return this.maximumBlockSize;
+        }
+
+        @Override
+        protected Optional<BlockAggregationPlanner> getReadAggregationPlannerForDomain(Integer domain) {
+            if (this.isCostBasedAggregationEnabled) {
+                return Optional.of(getCostBasedReadPlannerForDomain(domain));
+            }
+            return Optional.empty();
+        }
+
         @Override
         protected void beforeAggregation(Integer domain, Mode mode, BlockTaskAggregator aggregator) {
             if (this.beforeAggregation != null) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -17,12 +17,15 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
 import org.eclipse.kura.driver.block.Block;
+import org.eclipse.kura.driver.block.BlockAggregationPlanner;
 import org.eclipse.kura.driver.block.BlockAggregator;
+import org.eclipse.kura.driver.block.CostBasedBlockAggregationPlanner;
 import org.eclipse.kura.driver.block.ProhibitedBlock;
 import org.junit.Test;
 
@@ -110,12 +113,71 @@ public class BlockAggregatorTest {
         new TestHelper().setInput(0, 1, 2, 3, 8, 9).prohibit(4, 7).expect(0, 3, 8, 9).setMinimumGapSize(10).exec();
     }
 
+    @Test
+    public void shouldNotExceedMaximumBlockSize() {
+        new TestHelper().setInput(0, 4, 4, 8, 8, 12).expect(0, 8, 8, 12).setMaximumBlockSize(8).exec();
+        new TestHelper().setInput(0, 2, 4, 6, 8, 10).expect(0, 6, 8, 10).setMinimumGapSize(4).setMaximumBlockSize(6)
+                .exec();
+        new TestHelper().setInput(0, 10, 12, 14).expect(0, 10, 12, 14).setMinimumGapSize(4).setMaximumBlockSize(8)
+                .exec();
+    }
+
+    @Test
+    public void shouldAlwaysAggregateOverlappingBlocks() {
+        new TestHelper().setInput(0, 6, 4, 10).expect(0, 10).setMaximumBlockSize(4).exec();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositiveMaximumBlockSize() {
+        new TestHelper().setInput(0, 1).setMaximumBlockSize(0).exec();
+    }
+
+    @Test
+    public void shouldAggregateAccordingToPlanner() {
+        new TestHelper().setInput(0, 1, 2, 3, 4, 5, 6, 7).expect(0, 3, 4, 7)
+                .setPlanner((blocks, maximumBlockSize) -> Arrays.asList(0, 2)).exec();
+        new TestHelper().setInput(0, 1, 1, 3, 20, 25, 15, 21).expect(0, 3, 15, 25)
+                .setPlanner((blocks, maximumBlockSize) -> Arrays.asList(0, 2)).exec();
+    }
+
+    @Test
+    public void shouldSupportProhibitedBlocksWithPlanner() {
+        new TestHelper().setInput(0, 1, 2, 3, 8, 9).prohibit(4, 7).expect(0, 3, 8, 9)
+                .setPlanner(new CostBasedBlockAggregationPlanner(100, 1)).exec();
+    }
+
+    @Test
+    public void shouldProduceSameResultOfMinimumGapSizeWithCostBasedPlanner() {
+        new TestHelper().setInput(0, 1, 2, 3, 6, 7, 8, 9).expect(0, 3, 6, 9)
+                .setPlanner(new CostBasedBlockAggregationPlanner(2, 1)).exec();
+        new TestHelper().setInput(0, 4, 4, 8, 10, 12, 12, 14).expect(0, 8, 10, 14)
+                .setPlanner(new CostBasedBlockAggregationPlanner(1, 1)).exec();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReportInvalidPlan() {
+        new TestHelper().setInput(0, 1, 2, 3).setPlanner((blocks, maximumBlockSize) -> Arrays.asList(1)).exec();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReportPlanExceedingMaximumBlockSize() {
+        new TestHelper().setInput(0, 1, 2, 3).setMaximumBlockSize(2)
+                .setPlanner((blocks, maximumBlockSize) -> Arrays.asList(0)).exec();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReportUnfeasibleProblemWithPlanner() {
+        new TestHelper().setInput(0, 2).prohibit(1, 3).setPlanner(new CostBasedBlockAggregationPlanner(1, 1)).exec();
+    }
+
     private static class TestHelper {
 
         private int[] inputBlocks;
         private int[] prohibitedBlocks;
         private int[] outputBlocks;
         private int minimumGapSize;
+        private int maximumBlockSize = Integer.MAX_VALUE;
+        private BlockAggregationPlanner planner;
         BlockAggregator<Block> aggregator;
 
         private TestHelper() {
@@ -142,6 +204,16 @@ public class BlockAggregatorTest {
             return (this);
         }
 
+        public TestHelper setMaximumBlockSize(int maximumBlockSize) {
+            this.maximumBlockSize = maximumBlockSize;
+            return this;
+        }
+
+        public TestHelper setPlanner(BlockAggregationPlanner planner) {
+            this.planner = planner;
+            return this;
+        }
+
         public TestHelper prohibit(int... prohibitedBlocks) {
             if (prohibitedBlocks.length % 2 != 0) {
                 fail("block list size must be a multiple of 2");
@@ -165,6 +237,8 @@ public class BlockAggregatorTest {
             }
             aggregator = new BlockAggregator<Block>(inputBlocksTemp, (start, end) -> new Block(start, end));
             aggregator.setMinimumGapSize(minimumGapSize);
+            aggregator.setMaximumBlockSize(maximumBlockSize);
+            aggregator.setPlanner(planner);
             Iterator<Block> blocks = aggregator.stream().iterator();
 
             if (outputBlocks != null) {
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+
+package org.eclipse.kura.driver.block.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.kura.driver.block.Block;
+import org.eclipse.kura.driver.block.CostBasedBlockAggregationPlanner;
+import org.junit.Test;
+
+public class CostBasedBlockAggregationPlannerTest {
+
+    private List<Block> blocks = new ArrayList<>();
+    private CostBasedBlockAggregationPlanner planner;
+    private List<Integer> plan;
+
+    @Test
+    public void shouldAggregateGapsCheaperThanARequest() {
+        givenPlanner(10, 1);
+        givenBlocks(0, 2, 5, 7, 30, 32);
+
+        whenPlanIsComputed(Integer.MAX_VALUE);
+
+        thenPlanIs(0, 2);
+    }
+
+    @Test
+    public void shouldNotAggregateOnTie() {
+        givenPlanner(3, 1);
+        givenBlocks(0, 1, 4, 5);
+
+        whenPlanIsComputed(Integer.MAX_VALUE);
+
+        thenPlanIs(0, 1);
+    }
+
+    @Test
+    public void shouldAggregateEverythingIfUnitCostIsZero() {
+        givenPlanner(1, 0);
+        givenBlocks(0, 1, 100, 101, 1000, 1001);
+
+        whenPlanIsComputed(Integer.MAX_VALUE);
+
+        thenPlanIs(0);
+    }
+
+    @Test
+    public void shouldRespectMaximumBlockSize() {
+        givenPlanner(100, 1);
+        givenBlocks(0, 4, 4, 8, 8, 12, 12, 16);
+
+        whenPlanIsComputed(8);
+
+        thenPlanIs(0, 2);
+    }
+
+    @Test
+    public void shouldKeepBlocksLargerThanMaximumBlockSize() {
+        givenPlanner(100, 1);
+        givenBlocks(0, 20, 20, 22, 22, 24);
+
+        whenPlanIsComputed(8);
+
+        thenPlanIs(0, 1);
+    }
+
+    @Test
+    public void shouldFindOptimalPartition() {
+        givenPlanner(5, 1);
+        givenBlocks(0, 5, 6, 7, 7, 12);
+
+        whenPlanIsComputed(8);
+
+        thenPlanIs(0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNegativeCosts() {
+        givenPlanner(-1, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNaNCosts() {
+        givenPlanner(1, Double.NaN);
+    }
+
+    private void givenPlanner(double requestCost, double unitCost) {
+        this.planner = new CostBasedBlockAggregationPlanner(requestCost, unitCost);
+    }
+
+    private void givenBlocks(int... ranges) {
+        for (int i = 0; i < ranges.length; i += 2) {
+            this.blocks.add(new Block(ranges[i], ranges[i + 1]));
+        }
+    }
+
+    private void whenPlanIsComputed(int maximumBlockSize) {
+        this.plan = this.planner.plan(this.blocks, maximumBlockSize);
+    }
+
+    private void thenPlanIs(Integer... groupStarts) {
+        assertEquals(Arrays.asList(groupStarts), this.plan);
+    }
+}
@@ -0,0 +1,248 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ ******************************************************************************/
+package org.eclipse.kura.internal.driver.opcua.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.kura.KuraException;
+import org.eclipse.kura.channel.ChannelFlag;
+import org.eclipse.kura.channel.ChannelRecord;
+import org.eclipse.kura.configuration.ConfigurationService;
+import org.eclipse.kura.core.testutil.service.ServiceUtil;
+import org.eclipse.kura.driver.Driver;
+import org.eclipse.kura.driver.Driver.ConnectionException;
+import org.eclipse.kura.internal.driver.opcua.VariableType;
+import org.eclipse.kura.type.DataType;
+import org.eclipse.kura.type.TypedValue;
+import org.eclipse.kura.type.TypedValues;
+import org.eclipse.milo.opcua.sdk.server.OpcUaServer;
+import org.eclipse.milo.opcua.sdk.server.api.config.OpcUaServerConfig;
+import org.eclipse.milo.opcua.sdk.server.api.config.OpcUaServerConfigBuilder;
+import org.eclipse.milo.opcua.stack.core.UaException;
+import org.eclipse.milo.opcua.stack.core.security.DefaultTrustListManager;
+import org.eclipse.milo.opcua.stack.core.transport.TransportProfile;
+import org.eclipse.milo.opcua.stack.core.types.builtin.LocalizedText;
+import org.eclipse.milo.opcua.stack.server.EndpointConfiguration;
+import org.eclipse.milo.opcua.stack.server.security.DefaultServerCertificateValidator;
+import org.junit.After;
+import org.junit.Test;
+import org.osgi.framework.InvalidSyntaxException;
+
+public class PipelinedRequestsTest {
+
+    private static final AtomicInteger NEXT_PORT = new AtomicInteger(1500);
+
+    private final int currentPort;
+    private final String driverPid;
+
+    private OpcUaServer server;
+    private Driver driver;
+    private final List<ChannelRecord> records = new ArrayList<>();
+
+    public PipelinedRequestsTest() {
+        this.currentPort = NEXT_PORT.incrementAndGet();
+        this.driverPid = "pipelinedTestDriver" + this.currentPort;
+    }
+
+    @Test
+    public void shouldReadAllChunksWithConcurrentRequests() throws Exception {
+        givenServer();
+        givenOpcUaDriver(2, 3);
+        givenReadRecord("Int32", DataType.INTEGER);
+        givenReadRecord("Int64", DataType.LONG);
+        givenReadRecord("Float", DataType.FLOAT);
+        givenReadRecord("Double", DataType.DOUBLE);
+        givenReadRecord("Boolean", DataType.BOOLEAN);
+        givenReadRecord("String", DataType.STRING);
+        givenReadRecord("Byte", DataType.INTEGER);
+
+        whenRecordsAreRead();
+
+        thenRecordHasValue(0, TypedValues.newIntegerValue(0));
+        thenRecordHasValue(1, TypedValues.newLongValue(0));
+        thenRecordHasValue(2, TypedValues.newFloatValue(0.0f));
+        thenRecordHasValue(3, TypedValues.newDoubleValue(0.0d));
+        thenRecordHasValue(4, TypedValues.newBooleanValue(false));
+        thenRecordHasValue(5, TypedValues.newStringValue("string value"));
+        thenRecordHasValue(6, TypedValues.newIntegerValue(0));
+    }
+
+    @Test
+    public void shouldReportItemFailuresOfSingleChunk() throws Exception {
+        givenServer();
+        givenOpcUaDriver(2, 3);
+        givenReadRecord("Int32", DataType.INTEGER);
+        givenReadRecord("Int64", DataType.LONG);
+        givenReadRecord("NotExisting", DataType.INTEGER);
+        givenReadRecord("String", DataType.STRING);
+        givenReadRecord("Boolean", DataType.BOOLEAN);
+
+        whenRecordsAreRead();
+
+        thenRecordHasValue(0, TypedValues.newIntegerValue(0));
+        thenRecordHasValue(1, TypedValues.newLongValue(0));
+        thenRecordHasFlag(2, ChannelFlag.FAILURE);
+        thenRecordHasValue(3, TypedValues.newStringValue("string value"));
+        thenRecordHasValue(4, TypedValues.newBooleanValue(false));
+    }
+
+    @Test
+    public void shouldWriteAllChunksWithConcurrentRequests() throws Exception {
+        givenServer();
+        givenOpcUaDriver(2, 3);
+        givenWriteRecord("Int32", TypedValues.newIntegerValue(32), VariableType.INT32);
+        givenWriteRecord("Int64", TypedValues.newLongValue(64), VariableType.INT64);
+        givenWriteRecord("Float", TypedValues.newFloatValue(1.5f), VariableType.FLOAT);
+        givenWriteRecord("Double", TypedValues.newDoubleValue(2.5d), VariableType.DOUBLE);
+        givenWriteRecord("String", TypedValues.newStringValue("written"), VariableType.STRING);
+
+        whenRecordsAreWritten();
+
+        thenAllRecordsHaveFlag(ChannelFlag.SUCCESS);
+
+        givenNoRecords();
+        givenReadRecord("Int32", DataType.INTEGER);
+        givenReadRecord("Int64", DataType.LONG);
+        givenReadRecord("Float", DataType.FLOAT);
+        givenReadRecord("Double", DataType.DOUBLE);
+        givenReadRecord("String", DataType.STRING);
+
+        whenRecordsAreRead();
+
+        thenRecordHasValue(0, TypedValues.newIntegerValue(32));
+        thenRecordHasValue(1, TypedValues.newLongValue(64));
+        thenRecordHasValue(2, TypedValues.newFloatValue(1.5f));
+        thenRecordHasValue(3, TypedValues.newDoubleValue(2.5d));
+        thenRecordHasValue(4, TypedValues.newStringValue("written"));
+    }
+
+    @After
+    public void cleanup() throws KuraException, InterruptedException, ExecutionException, TimeoutException {
+        if (this.server != null) {
+            this.server.shutdown();
+        }
+        trackService(ConfigurationService.class).deleteFactoryConfiguration(this.driverPid, false);
+    }
+
+    private void givenServer() throws UaException, IOException {
+        final EndpointConfiguration endpointConfiguration = EndpointConfiguration.newBuilder()
+                .setTransportProfile(TransportProfile.TCP_UASC_UABINARY)
+                .setBindAddress("localhost")
+                .setHostname("localhost")
+                .setPath("/opcsvr")
+                .setBindPort(this.currentPort)
+                .addTokenPolicy(OpcUaServerConfig.USER_TOKEN_POLICY_ANONYMOUS)
+                .build();
+
+        final OpcUaServerConfig config = new OpcUaServerConfigBuilder().setApplicationUri("opcsvr")
+                .setApplicationName(LocalizedText.english("opcsvr"))
+                .setCertificateValidator(
+                        new DefaultServerCertificateValidator(new DefaultTrustListManager(new File("/tmp"))))
+                .setEndpoints(Collections.singleton(endpointConfiguration))
+                .build();
+
+        this.server = new OpcUaServer(config);
+        this.server.getAddressSpaceManager().register(new TestNamespace(this.server));
+        this.server.startup();
+    }
+
+    private void givenOpcUaDriver(final int maxRequestItems, final int maxConcurrentRequests)
+            throws InterruptedException, ExecutionException, TimeoutException, KuraException, InvalidSyntaxException {
+        final ConfigurationService configurationService = trackService(ConfigurationService.class);
+
+        final Map<String, Object> driverConfiguration = new HashMap<>();
+        driverConfiguration.put("endpoint.ip", "localhost");
+        driverConfiguration.put("endpoint.port", this.currentPort);
+        driverConfiguration.put("server.name", "opcsvr");
+        driverConfiguration.put("application.uri", "opcsvr");
+        driverConfiguration.put("request.timeout", 1500);
+        driverConfiguration.put("session.timeout", 2000);
+        driverConfiguration.put("max.request.items", maxRequestItems);
+        driverConfiguration.put("max.concurrent.requests", maxConcurrentRequests);
+
+        this.driver = ServiceUtil.createFactoryConfiguration(configurationService, Driver.class, this.driverPid,
+                "org.eclipse.kura.driver.opcua", Collections.emptyMap()).get(30, TimeUnit.SECONDS);
+
+        ServiceUtil.updateComponentConfiguration(configurationService, this.driverPid, driverConfiguration).get(30,
+                TimeUnit.SECONDS);
+    }
+
+    private void givenNoRecords() {
+        this.records.clear();
+    }
+
+    private void givenReadRecord(final String nodeId, final DataType valueType) {
+        final ChannelRecord record = ChannelRecord.createReadRecord(nodeId, valueType);
+        record.setChannelConfig(channelConfig(nodeId, VariableType.DEFINED_BY_JAVA_TYPE));
+        this.records.add(record);
+    }
+
+    private void givenWriteRecord(final String nodeId, final TypedValue<?> value, final VariableType opcuaType) {
+        final ChannelRecord record = ChannelRecord.createWriteRecord(nodeId, value);
+        record.setChannelConfig(channelConfig(nodeId, opcuaType));
+        this.records.add(record);
+    }
+
+    private void whenRecordsAreRead() throws ConnectionException {
+        this.driver.read(this.records);
+    }
+
+    private void whenRecordsAreWritten() throws ConnectionException {
+        this.driver.write(this.records);
+    }
+
+    private void thenRecordHasValue(final int index, final TypedValue<?> expectedValue) {
+        final ChannelRecord record = this.records.get(index);
+
+        assertEquals(ChannelFlag.SUCCESS, record.getChannelStatus().getChannelFlag());
+        assertEquals(expectedValue, record.getValue());
+    }
+
+    private void thenRecordHasFlag(final int index, final ChannelFlag expectedFlag) {
+        assertEquals(expectedFlag, this.records.get(index).getChannelStatus().getChannelFlag());
+    }
+
+    private void thenAllRecordsHaveFlag(final ChannelFlag expectedFlag) {
+        for (int i = 0; i < this.records.size(); i++) {
+            thenRecordHasFlag(i, expectedFlag);
+        }
+    }
+
+    private static Map<String, Object> channelConfig(final String nodeId, final VariableType opcuaType) {
+        final Map<String, Object> channelConfig = new HashMap<>();
+        channelConfig.put("node.namespace.index", "2");
+        channelConfig.put("node.id.type", "STRING");
+        channelConfig.put("opcua.type", opcuaType.name());
+        channelConfig.put("node.id", nodeId);
+        channelConfig.put("attribute", "Value");
+        return channelConfig;
+    }
+
+    private <T> T trackService(final Class<T> classz)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        return ServiceUtil.trackService(classz, Optional.empty()).get(30, TimeUnit.SECONDS);
+    }
+}
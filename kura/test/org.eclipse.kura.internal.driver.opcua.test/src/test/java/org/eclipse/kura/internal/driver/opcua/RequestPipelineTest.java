@@ -0,0 +1,210 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ ******************************************************************************/
+package org.eclipse.kura.internal.driver.opcua;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class RequestPipelineTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<List<Integer>> sentChunks = new CopyOnWriteArrayList<>();
+    private final List<Integer> handledItems = new CopyOnWriteArrayList<>();
+    private final List<Throwable> failures = new CopyOnWriteArrayList<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private List<Integer> items = Collections.emptyList();
+    private long responseDelayMs = 0;
+    private Optional<Integer> failingItem = Optional.empty();
+    private boolean neverComplete = false;
+    private Optional<Integer> neverCompletingItem = Optional.empty();
+    private Optional<Exception> exception = Optional.empty();
+
+    @Test
+    public void shouldSplitItemsInChunks() {
+        givenItems(1, 2, 3, 4, 5, 6, 7);
+
+        whenPipelineIsRun(3, 2);
+
+        thenNoExceptionIsThrown();
+        thenSentChunksAre(Arrays.asList(1, 2, 3), Arrays.asList(4, 5, 6), Arrays.asList(7));
+        thenAllItemsAreHandled();
+    }
+
+    @Test
+    public void shouldKeepAtMostMaxConcurrentRequestsInFlight() {
+        givenItems(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+        givenResponseDelay(50);
+
+        whenPipelineIsRun(1, 3);
+
+        thenNoExceptionIsThrown();
+        thenMaxInFlightIs(3);
+        thenAllItemsAreHandled();
+    }
+
+    @Test
+    public void shouldFailIfARequestFails() {
+        givenItems(1, 2, 3, 4, 5, 6);
+        givenFailingItem(3);
+
+        whenPipelineIsRun(2, 2);
+
+        thenExceptionIsThrown(ExecutionException.class);
+        thenFailureIsReported();
+    }
+
+    @Test
+    public void shouldFailIfARequestDoesNotComplete() {
+        givenItems(1, 2, 3);
+        givenRequestsNeverComplete();
+
+        whenPipelineIsRun(1, 2, 100);
+
+        thenExceptionIsThrown(TimeoutException.class);
+        thenFailureIsReported();
+    }
+
+    @Test
+    public void shouldFailIfARequestDoesNotCompleteWhileOthersDo() {
+        givenItems(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20);
+        givenResponseDelay(50);
+        givenNeverCompletingItem(1);
+
+        whenPipelineIsRun(1, 2, 200);
+
+        thenExceptionIsThrown(TimeoutException.class);
+        thenFailureIsReported();
+        thenHandledItemCountIsAtMost(8);
+    }
+
+    @After
+    public void shutdownExecutor() {
+        this.executor.shutdownNow();
+    }
+
+    private void givenItems(final Integer... items) {
+        this.items = Arrays.asList(items);
+    }
+
+    private void givenResponseDelay(final long delayMs) {
+        this.responseDelayMs = delayMs;
+    }
+
+    private void givenFailingItem(final int item) {
+        this.failingItem = Optional.of(item);
+    }
+
+    private void givenNeverCompletingItem(final int item) {
+        this.neverCompletingItem = Optional.of(item);
+    }
+
+    private void givenRequestsNeverComplete() {
+        this.neverComplete = true;
+    }
+
+    private void whenPipelineIsRun(final int itemsPerRequest, final int maxConcurrentRequests) {
+        whenPipelineIsRun(itemsPerRequest, maxConcurrentRequests, 5000);
+    }
+
+    private void whenPipelineIsRun(final int itemsPerRequest, final int maxConcurrentRequests, final long timeoutMs) {
+        try {
+            RequestPipeline.run(this.items, itemsPerRequest, maxConcurrentRequests, timeoutMs, this::send,
+                    (chunk, response) -> this.handledItems.addAll(response), this.failures::add);
+        } catch (final Exception e) {
+            this.exception = Optional.of(e);
+        }
+    }
+
+    private CompletableFuture<List<Integer>> send(final List<Integer> chunk) {
+        final List<Integer> copy = new ArrayList<>(chunk);
+        this.sentChunks.add(copy);
+
+        final CompletableFuture<List<Integer>> result = new CompletableFuture<>();
+
+        if (this.neverComplete
+                || this.neverCompletingItem.isPresent() && copy.contains(this.neverCompletingItem.get())) {
+            return result;
+        }
+
+        this.maxInFlight.accumulateAndGet(this.inFlight.incrementAndGet(), Math::max);
+
+        this.executor.execute(() -> {
+            try {
+                Thread.sleep(this.responseDelayMs);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            this.inFlight.decrementAndGet();
+
+            if (this.failingItem.isPresent() && copy.contains(this.failingItem.get())) {
+                result.completeExceptionally(new IllegalStateException("request failed"));
+            } else {
+                result.complete(copy);
+            }
+        });
+
+        return result;
+    }
+
+    private void thenNoExceptionIsThrown() {
+        assertEquals(Optional.empty(), this.exception);
+    }
+
+    private void thenExceptionIsThrown(final Class<? extends Exception> classz) {
+        assertTrue(this.exception.isPresent());
+        assertEquals(classz, this.exception.get().getClass());
+    }
+
+    private void thenFailureIsReported() {
+        assertEquals(1, this.failures.size());
+    }
+
+    @SafeVarargs
+    private final void thenSentChunksAre(final List<Integer>... expectedChunks) {
+        assertEquals(Arrays.asList(expectedChunks), this.sentChunks);
+    }
+
+    private void thenMaxInFlightIs(final int expected) {
+        assertEquals(expected, this.maxInFlight.get());
+    }
+
+    private void thenHandledItemCountIsAtMost(final int expected) {
+        assertTrue(this.handledItems.size() <= expected);
+    }
+
+    private void thenAllItemsAreHandled() {
+        final List<Integer> sorted = new ArrayList<>(this.handledItems);
+        Collections.sort(sorted);
+
+        assertEquals(this.items, sorted);
+    }
+}
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ ******************************************************************************/
+package org.eclipse.kura.internal.driver.s7plc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.kura.driver.block.task.Mode;
+import org.eclipse.kura.internal.driver.s7plc.task.S7PlcToplevelBlockTask;
+import org.junit.Test;
+
+import Moka7.S7Client;
+
+public class MultiVariableReadPackerTest {
+
+    @Test
+    public void shouldPackTasksInSingleRequest() {
+        final List<S7PlcToplevelBlockTask> tasks = createTasks(3, 10);
+
+        final List<List<S7PlcToplevelBlockTask>> requests = MultiVariableReadPacker.pack(tasks, 240);
+
+        assertEquals(1, requests.size());
+        assertEquals(3, requests.get(0).size());
+    }
+
+    @Test
+    public void shouldLimitItemCount() {
+        final List<S7PlcToplevelBlockTask> tasks = createTasks(S7Client.MaxVars * 2 + 1, 2);
+
+        final List<List<S7PlcToplevelBlockTask>> requests = MultiVariableReadPacker.pack(tasks, 960);
+
+        assertEquals(3, requests.size());
+        assertEquals(S7Client.MaxVars, requests.get(0).size());
+        assertEquals(S7Client.MaxVars, requests.get(1).size());
+        assertEquals(1, requests.get(2).size());
+    }
+
+    @Test
+    public void shouldRespectReplySize() {
+        // reply size: 14 + 3 * (4 + 70) = 236 <= 240
+        final List<S7PlcToplevelBlockTask> tasks = createTasks(7, 70);
+
+        final List<List<S7PlcToplevelBlockTask>> requests = MultiVariableReadPacker.pack(tasks, 240);
+
+        assertEquals(3, requests.size());
+        assertEquals(3, requests.get(0).size());
+        assertEquals(3, requests.get(1).size());
+        assertEquals(1, requests.get(2).size());
+    }
+
+    @Test
+    public void shouldFillRequestsWithSmallerTasks() {
+        final List<S7PlcToplevelBlockTask> tasks = new ArrayList<>();
+        tasks.add(new S7PlcToplevelBlockTask(null, Mode.READ, 1, 0, 100));
+        tasks.add(new S7PlcToplevelBlockTask(null, Mode.READ, 2, 0, 150));
+        tasks.add(new S7PlcToplevelBlockTask(null, Mode.READ, 3, 0, 60));
+        tasks.add(new S7PlcToplevelBlockTask(null, Mode.READ, 4, 0, 30));
+
+        final List<List<S7PlcToplevelBlockTask>> requests = MultiVariableReadPacker.pack(tasks, 240);
+
+        assertEquals(2, requests.size());
+        assertEquals(2, requests.get(0).get(0).getDBNumber());
+        assertEquals(3, requests.get(0).get(1).getDBNumber());
+        assertEquals(1, requests.get(1).get(0).getDBNumber());
+        assertEquals(4, requests.get(1).get(1).getDBNumber());
+    }
+
+    @Test
+    public void shouldSkipTasksExceedingPdu() {
+        final List<S7PlcToplevelBlockTask> tasks = createTasks(2, 10);
+        final S7PlcToplevelBlockTask largeTask = new S7PlcToplevelBlockTask(null, Mode.READ, 100, 0, 500);
+        tasks.add(largeTask);
+
+        final List<List<S7PlcToplevelBlockTask>> requests = MultiVariableReadPacker.pack(tasks, 240);
+
+        assertEquals(1, requests.size());
+        assertEquals(2, requests.get(0).size());
+        assertFalse(requests.get(0).contains(largeTask));
+    }
+
+    private static List<S7PlcToplevelBlockTask> createTasks(final int count, final int size) {
+        final List<S7PlcToplevelBlockTask> tasks = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            tasks.add(new S7PlcToplevelBlockTask(null, Mode.READ, i + 1, 0, size));
+        }
+
+        return tasks;
+    }
+}
@@ -0,0 +1,281 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ ******************************************************************************/
+package org.eclipse.kura.internal.driver.s7plc;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.kura.channel.ChannelFlag;
+import org.eclipse.kura.channel.ChannelRecord;
+import org.eclipse.kura.driver.Driver.ConnectionException;
+import org.eclipse.kura.driver.binary.ByteArrayBuffer;
+import org.eclipse.kura.driver.block.task.BlockTask;
+import org.eclipse.kura.driver.block.task.Mode;
+import org.eclipse.kura.internal.driver.s7plc.task.S7PlcToplevelBlockTask;
+import org.eclipse.kura.type.DataType;
+import org.junit.After;
+import org.junit.Test;
+
+import Moka7.S7Client;
+
+public class MultiVariableReadTest {
+
+    private S7PlcSimulator simulator;
+    private S7PlcDriver driver;
+    private List<ChannelRecord> records;
+    private S7PlcToplevelBlockTask task;
+
+    @After
+    public void tearDown() throws IOException {
+        if (this.driver != null) {
+            this.driver.deactivate();
+        }
+        if (this.simulator != null) {
+            this.simulator.close();
+        }
+    }
+
+    @Test
+    public void shouldReadMultipleDataBlocksWithSingleRequest() throws Exception {
+        givenSimulator(240);
+        givenDataBlocks(1, 2, 3);
+        givenDriver(true);
+
+        whenDataBlocksAreRead(1, 2, 3);
+
+        thenValuesAreRead();
+        thenReadRequestItemCountsAre(3);
+    }
+
+    @Test
+    public void shouldSplitRequestsAccordingToPduSize() throws Exception {
+        // request size: 12 + 12 * items <= 64, at most 4 items per request
+        givenSimulator(64);
+        givenDataBlocks(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+        givenDriver(true);
+
+        whenDataBlocksAreRead(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+
+        thenValuesAreRead();
+        thenReadRequestItemCountsAre(4, 4, 2);
+    }
+
+    @Test
+    public void shouldNotExceedMaximumItemCount() throws Exception {
+        final int[] dbs = new int[S7Client.MaxVars + 5];
+
+        for (int i = 0; i < dbs.length; i++) {
+            dbs[i] = i + 1;
+        }
+
+        givenSimulator(480);
+        givenDataBlocks(dbs);
+        givenDriver(true);
+
+        whenDataBlocksAreRead(dbs);
+
+        thenValuesAreRead();
+        thenReadRequestItemCountsAre(S7Client.MaxVars, 5);
+    }
+
+    @Test
+    public void shouldFallBackToSingleReadForFailedItem() throws Exception {
+        givenSimulator(240);
+        givenDataBlocks(1, 2, 3);
+        givenDataBlockFailingInMultiVariableRequests(2);
+        givenDriver(true);
+
+        whenDataBlocksAreRead(1, 2, 3);
+
+        thenValuesAreRead();
+        thenReadRequestItemCountsAre(3, 1);
+    }
+
+    @Test
+    public void shouldFallBackToSingleReadsForRejectedRequest() throws Exception {
+        givenSimulator(240);
+        givenDataBlocks(1, 2, 3);
+        givenMultiVariableRequestsRejected();
+        givenDriver(true);
+
+        whenDataBlocksAreRead(1, 2, 3);
+
+        thenValuesAreRead();
+        thenReadRequestItemCountsAre(3, 1, 1, 1);
+    }
+
+    @Test
+    public void shouldReportFailureOfSingleRead() throws Exception {
+        givenSimulator(240);
+        givenDataBlocks(1, 3);
+        givenDriver(true);
+
+        whenDataBlocksAreRead(1, 2, 3);
+
+        thenChannelFlagsAre(ChannelFlag.SUCCESS, ChannelFlag.FAILURE, ChannelFlag.SUCCESS);
+        thenReadRequestItemCountsAre(3, 1);
+    }
+
+    @Test
+    public void shouldUseSingleReadsIfDisabled() throws Exception {
+        givenSimulator(240);
+        givenDataBlocks(1, 2, 3);
+        givenDriver(false);
+
+        whenDataBlocksAreRead(1, 2, 3);
+
+        thenValuesAreRead();
+        thenReadRequestItemCountsAre(1, 1, 1);
+    }
+
+    @Test
+    public void shouldReadTaskLeftMarkedAsPrefetched() throws Exception {
+        givenSimulator(240);
+        givenDataBlocks(1);
+        givenDriver(false);
+        givenReadTaskMarkedAsPrefetched(1);
+
+        whenTasksAreRun();
+
+        thenReadRequestItemCountsAre(1);
+        thenTaskBufferIs(0, 0, 0, 1);
+    }
+
+    @Test
+    public void shouldLimitBlocksToReplySize() throws Exception {
+        // reply payload: 64 - 18 = 46 bytes, a single block from 0 to 94 would be read with 3 requests
+        givenSimulator(64);
+        givenDataBlock(1, 100);
+        givenDriver(false, 100);
+
+        whenChannelsAreRead(1, 0, 90);
+
+        thenChannelFlagsAre(ChannelFlag.SUCCESS, ChannelFlag.SUCCESS);
+        thenReadRequestItemCountsAre(1, 1);
+    }
+
+    private void givenSimulator(final int pduLength) throws IOException {
+        this.simulator = new S7PlcSimulator(pduLength);
+    }
+
+    private void givenDataBlocks(final int... dbs) {
+        for (final int db : dbs) {
+            this.simulator.setDataBlock(db, new byte[] { 0, 0, 0, (byte) db });
+        }
+    }
+
+    private void givenDataBlock(final int db, final int size) {
+        this.simulator.setDataBlock(db, new byte[size]);
+    }
+
+    private void givenDataBlockFailingInMultiVariableRequests(final int db) {
+        this.simulator.failInMultiVariableRequests(db);
+    }
+
+    private void givenMultiVariableRequestsRejected() {
+        this.simulator.rejectMultiVariableRequests();
+    }
+
+    private void givenDriver(final boolean multiVariableRead) {
+        givenDriver(multiVariableRead, 0);
+    }
+
+    private void givenDriver(final boolean multiVariableRead, final int minimumGapSize) {
+        final S7Client client = new S7Client();
+        client.SetConnectionPort(this.simulator.getPort());
+
+        final Map<String, Object> properties = new HashMap<>();
+        properties.put("host.ip", "127.0.0.1");
+        properties.put("read.multi.variable.requests", multiVariableRead);
+        properties.put("read.minimum.gap.size", minimumGapSize);
+
+        this.driver = S7PlcDriverTest.createTestDriver(client);
+        this.driver.activate(properties);
+    }
+
+    private void givenReadTaskMarkedAsPrefetched(final int db) throws ConnectionException {
+        this.driver.connect();
+
+        this.task = new S7PlcToplevelBlockTask(this.driver, Mode.READ, db, 0, 4);
+        this.task.markPrefetched();
+    }
+
+    private void whenTasksAreRun() {
+        this.driver.runTasks(Collections.<BlockTask> singletonList(this.task));
+    }
+
+    private void whenDataBlocksAreRead(final int... dbs) throws ConnectionException {
+        this.records = new ArrayList<>();
+
+        for (final int db : dbs) {
+            this.records.add(createRecord("db" + db, db, 0));
+        }
+
+        this.driver.read(this.records);
+    }
+
+    private void whenChannelsAreRead(final int db, final int... offsets) throws ConnectionException {
+        this.records = new ArrayList<>();
+
+        for (final int offset : offsets) {
+            this.records.add(createRecord("db" + db + "_" + offset, db, offset));
+        }
+
+        this.driver.read(this.records);
+    }
+
+    private static ChannelRecord createRecord(final String name, final int db, final int offset) {
+        final ChannelRecord record = ChannelRecord.createReadRecord(name, DataType.INTEGER);
+
+        final Map<String, Object> config = new HashMap<>();
+        config.put("data.block.no", db);
+        config.put("offset", offset);
+        config.put("s7.data.type", "DINT");
+        record.setChannelConfig(config);
+
+        return record;
+    }
+
+    private void thenValuesAreRead() {
+        for (final ChannelRecord record : this.records) {
+            assertEquals(ChannelFlag.SUCCESS, record.getChannelStatus().getChannelFlag());
+            assertEquals(record.getChannelName(), "db" + record.getValue().getValue());
+        }
+    }
+
+    private void thenChannelFlagsAre(final ChannelFlag... flags) {
+        for (int i = 0; i < flags.length; i++) {
+            assertEquals(flags[i], this.records.get(i).getChannelStatus().getChannelFlag());
+        }
+    }
+
+    private void thenTaskBufferIs(final int... expected) {
+        final byte[] data = ((ByteArrayBuffer) this.task.getBuffer()).getBackingArray();
+
+        assertEquals(expected.length, data.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], data[i]);
+        }
+    }
+
+    private void thenReadRequestItemCountsAre(final Integer... itemCounts) {
+        assertEquals(Arrays.asList(itemCounts), this.simulator.getReadRequestItemCounts());
+    }
+}
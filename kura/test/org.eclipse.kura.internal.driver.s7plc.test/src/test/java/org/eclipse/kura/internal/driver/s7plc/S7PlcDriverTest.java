@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -13,7 +13,9 @@
 package org.eclipse.kura.internal.driver.s7plc;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
@@ -232,6 +234,40 @@ public class S7PlcDriverTest {
         assertEquals(gapSize, size);
     }
 
+    @Test
+    public void testMaximumBlockSizeForDomain() throws ConnectionException {
+        // test that the blocks are limited to the reply payload once the PDU size has been negotiated
+
+        S7Client s7Mock = mock(S7Client.class);
+        S7PlcDriver svc = createTestDriver(s7Mock);
+
+        svc.activate(Collections.emptyMap());
+
+        assertEquals(Integer.MAX_VALUE, svc.getMaximumBlockSizeForDomain(new S7PlcDomain(3)));
+
+        svc.connect();
+        when(s7Mock.PDULength()).thenReturn(240);
+
+        assertEquals(222, svc.getMaximumBlockSizeForDomain(new S7PlcDomain(3)));
+    }
+
+    @Test
+    public void testReadAggregationPlannerForDomain() {
+        // test that cost based aggregation is used only if enabled
+
+        S7PlcDriver svc = new S7PlcDriver();
+
+        Map<String, Object> properties = new HashMap<>();
+        svc.updated(properties);
+
+        assertFalse(svc.getReadAggregationPlannerForDomain(new S7PlcDomain(3)).isPresent());
+
+        properties.put("read.cost.based.aggregation", true);
+        svc.updated(properties);
+
+        assertTrue(svc.getReadAggregationPlannerForDomain(new S7PlcDomain(3)).isPresent());
+    }
+
     @Test
     public void testGetTaskFactoryForDomain() {
         S7PlcDriver svc = new S7PlcDriver();
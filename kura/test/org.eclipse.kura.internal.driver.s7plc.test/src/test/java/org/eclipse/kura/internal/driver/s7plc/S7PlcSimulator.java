@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ ******************************************************************************/
+package org.eclipse.kura.internal.driver.s7plc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A minimal S7 protocol server that supports connection setup, PDU negotiation and read var requests on data blocks.
+ */
+public class S7PlcSimulator implements AutoCloseable {
+
+    private static final int ITEM_SUCCESS = 0xFF;
+    private static final int ITEM_ADDRESS_OUT_OF_RANGE = 0x05;
+    private static final int ITEM_NOT_AVAILABLE = 0x0A;
+
+    private final ServerSocket serverSocket;
+    private final Thread thread;
+    private final int pduLength;
+
+    private final Map<Integer, byte[]> dataBlocks = new ConcurrentHashMap<>();
+    private final List<Integer> readRequestItemCounts = new CopyOnWriteArrayList<>();
+    private final Set<Integer> dataBlocksFailingInMultiVariableRequests = new HashSet<>();
+    private volatile boolean rejectMultiVariableRequests;
+
+    public S7PlcSimulator(final int pduLength) throws IOException {
+        this.pduLength = pduLength;
+        this.serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        this.thread = new Thread(this::serve, "S7PlcSimulator");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    public int getPort() {
+        return this.serverSocket.getLocalPort();
+    }
+
+    public void setDataBlock(final int db, final byte[] data) {
+        this.dataBlocks.put(db, data);
+    }
+
+    public synchronized void failInMultiVariableRequests(final int db) {
+        this.dataBlocksFailingInMultiVariableRequests.add(db);
+    }
+
+    public void rejectMultiVariableRequests() {
+        this.rejectMultiVariableRequests = true;
+    }
+
+    public List<Integer> getReadRequestItemCounts() {
+        return new ArrayList<>(this.readRequestItemCounts);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.serverSocket.close();
+    }
+
+    private void serve() {
+        while (!this.serverSocket.isClosed()) {
+            try (final Socket socket = this.serverSocket.accept()) {
+                final DataInputStream in = new DataInputStream(socket.getInputStream());
+                final OutputStream out = socket.getOutputStream();
+
+                while (true) {
+                    final byte[] packet = readPacket(in);
+                    out.write(handle(packet));
+                    out.flush();
+                }
+            } catch (final IOException e) {
+                // connection closed
+            }
+        }
+    }
+
+    private static byte[] readPacket(final DataInputStream in) throws IOException {
+        final byte[] header = new byte[4];
+        in.readFully(header);
+
+        final int length = getWord(header, 2);
+        final byte[] packet = new byte[length];
+
+        System.arraycopy(header, 0, packet, 0, 4);
+        in.readFully(packet, 4, length - 4);
+
+        return packet;
+    }
+
+    private byte[] handle(final byte[] packet) throws IOException {
+        final int cotpType = packet[5] & 0xFF;
+
+        if (cotpType == 0xE0) {
+            return connectionConfirm();
+        } else if (cotpType != 0xF0 || packet[7] != 0x32 || packet[8] != 0x01) {
+            throw new IOException("unsupported packet");
+        }
+
+        final int function = packet[17] & 0xFF;
+
+        if (function == 0xF0) {
+            return setupCommunication(packet);
+        } else if (function == 0x04) {
+            return readVar(packet);
+        }
+
+        throw new IOException("unsupported function " + function);
+    }
+
+    private static byte[] connectionConfirm() {
+        return new byte[] { 0x03, 0x00, 0x00, 0x16, 0x11, (byte) 0xD0, 0x00, 0x01, 0x00, 0x01, 0x00, (byte) 0xC0,
+                0x01, 0x0A, (byte) 0xC1, 0x02, 0x01, 0x00, (byte) 0xC2, 0x02, 0x01, 0x02 };
+    }
+
+    private byte[] setupCommunication(final byte[] request) {
+        final byte[] params = new byte[] { (byte) 0xF0, 0x00, 0x00, 0x01, 0x00, 0x01, 0x00, 0x00 };
+        setWord(params, 6, this.pduLength);
+        return ackData(request, 0, params, new byte[0]);
+    }
+
+    private byte[] readVar(final byte[] request) {
+        final int itemCount = request[18] & 0xFF;
+        this.readRequestItemCounts.add(itemCount);
+
+        if (itemCount > 1 && this.rejectMultiVariableRequests) {
+            return ackData(request, 0x8500, new byte[0], new byte[0]);
+        }
+
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+
+        for (int i = 0; i < itemCount; i++) {
+            final int itemOffset = 19 + i * 12;
+            final int amount = getWord(request, itemOffset + 4);
+            final int db = getWord(request, itemOffset + 6);
+            final int address = ((request[itemOffset + 9] & 0xFF) << 16 | (request[itemOffset + 10] & 0xFF) << 8
+                    | request[itemOffset + 11] & 0xFF) >> 3;
+
+            final byte[] dataBlock = this.dataBlocks.get(db);
+
+            if (itemCount > 1 && isFailingInMultiVariableRequests(db)) {
+                data.write(new byte[] { (byte) ITEM_NOT_AVAILABLE, 0x00, 0x00, 0x00 }, 0, 4);
+            } else if (dataBlock == null || address + amount > dataBlock.length) {
+                data.write(new byte[] { (byte) ITEM_ADDRESS_OUT_OF_RANGE, 0x00, 0x00, 0x00 }, 0, 4);
+            } else {
+                final byte[] itemHeader = new byte[] { (byte) ITEM_SUCCESS, 0x04, 0x00, 0x00 };
+                setWord(itemHeader, 2, amount << 3);
+                data.write(itemHeader, 0, 4);
+                data.write(dataBlock, address, amount);
+                if (amount % 2 != 0 && i < itemCount - 1) {
+                    data.write(0);
+                }
+            }
+        }
+
+        return ackData(request, 0, new byte[] { 0x04, (byte) itemCount }, data.toByteArray());
+    }
+
+    private synchronized boolean isFailingInMultiVariableRequests(final int db) {
+        return this.dataBlocksFailingInMultiVariableRequests.contains(db);
+    }
+
+    private static byte[] ackData(final byte[] request, final int error, final byte[] params, final byte[] data) {
+        final int length = 19 + params.length + data.length;
+        final byte[] reply = new byte[length];
+
+        reply[0] = 0x03;
+        setWord(reply, 2, length);
+        reply[4] = 0x02;
+        reply[5] = (byte) 0xF0;
+        reply[6] = (byte) 0x80;
+        reply[7] = 0x32;
+        reply[8] = 0x03;
+        // PDU reference
+        reply[11] = request[11];
+        reply[12] = request[12];
+        setWord(reply, 13, params.length);
+        setWord(reply, 15, data.length);
+        setWord(reply, 17, error);
+        System.arraycopy(params, 0, reply, 19, params.length);
+        System.arraycopy(data, 0, reply, 19 + params.length, data.length);
+
+        return reply;
+    }
+
+    private static int getWord(final byte[] buffer, final int offset) {
+        return (buffer[offset] & 0xFF) << 8 | buffer[offset + 1] & 0xFF;
+    }
+
+    private static void setWord(final byte[] buffer, final int offset, final int value) {
+        buffer[offset] = (byte) (value >> 8);
+        buffer[offset + 1] = (byte) value;
+    }
+}
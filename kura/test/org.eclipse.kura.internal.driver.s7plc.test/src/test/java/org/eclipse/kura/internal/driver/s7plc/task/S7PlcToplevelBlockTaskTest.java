@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -12,6 +12,8 @@
  ******************************************************************************/
 package org.eclipse.kura.internal.driver.s7plc.task;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -56,6 +58,29 @@ public class S7PlcToplevelBlockTaskTest {
         verify(s7Mock, times(1)).ReadArea(eq(S7.S7AreaDB), eq(db), eq(start), eq(5), any());
     }
 
+    @Test
+    public void testProcessBufferReadPrefetched() throws IOException, ConnectionException {
+
+        S7Client s7Mock = mock(S7Client.class);
+        S7PlcDriver driver = S7PlcDriverTest.createTestDriver(s7Mock);
+
+        driver.activate(Collections.emptyMap());
+        driver.connect();
+
+        S7PlcToplevelBlockTask task = new S7PlcToplevelBlockTask(driver, Mode.READ, 3, 0, 5);
+
+        assertTrue(task.isBufferReadRequired());
+
+        task.markPrefetched();
+
+        assertFalse(task.isBufferReadRequired());
+
+        task.processBuffer();
+
+        verify(s7Mock, times(0)).ReadArea(eq(S7.S7AreaDB), eq(3), eq(0), eq(5), any());
+        assertTrue(task.isBufferReadRequired());
+    }
+
     @Test
     public void testProcessBufferWrite() throws IOException, NoSuchFieldException, ConnectionException {
 
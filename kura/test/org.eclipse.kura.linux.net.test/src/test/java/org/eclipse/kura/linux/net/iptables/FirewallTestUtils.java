@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2020, 2024 Eurotech and/or its affiliates and others
  *
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -30,8 +30,10 @@ public class FirewallTestUtils {
             new LinuxExitStatus(0));
     protected static Command commandRestore;
     protected static Command commandRestoreTmp;
+    protected static Command commandRestoreNoFlushTmp;
     protected static Command commandSave;
     protected static Command commandSaveTmp;
+    protected static Command commandSaveRules;
     protected static Command commandFlushInputFilter;
     protected static Command commandFlushOutputFilter;
     protected static Command commandFlushForwardFilter;
@@ -51,7 +53,6 @@ public class FirewallTestUtils {
     protected static Command commandFlushForwardMangle;
     protected static Command commandIcmpAccept1;
     protected static Command commandIcmpAccept2;
-    protected static List<Command> commandApplyList;
     protected static List<Command> testCommandList;
 
     protected static void setUpMock() {
@@ -137,106 +138,13 @@ public class FirewallTestUtils {
                         .split(" "));
         commandIcmpAccept2.setExecuteInAShell(true);
         when(executorServiceMock.execute(commandIcmpAccept2)).thenReturn(successStatus);
-        commandApplyList = new ArrayList<>();
-        commandApplyList.add(new Command("iptables -P INPUT DROP".split(" ")));
-        commandApplyList.add(new Command("iptables -P FORWARD DROP".split(" ")));
-        commandApplyList.add(new Command("iptables -N input-kura -t filter".split(" ")));
-        commandApplyList.add(new Command("iptables -N output-kura -t filter".split(" ")));
-        commandApplyList.add(new Command("iptables -N forward-kura -t filter".split(" ")));
-        commandApplyList.add(new Command("iptables -N forward-kura-pf -t filter".split(" ")));
-        commandApplyList.add(new Command("iptables -N forward-kura-ipf -t filter".split(" ")));
-        commandApplyList.add(new Command("iptables -N input-kura -t nat".split(" ")));
-        commandApplyList.add(new Command("iptables -N output-kura -t nat".split(" ")));
-        commandApplyList.add(new Command("iptables -N prerouting-kura -t nat".split(" ")));
-        commandApplyList.add(new Command("iptables -N prerouting-kura-pf -t nat".split(" ")));
-        commandApplyList.add(new Command("iptables -N postrouting-kura -t nat".split(" ")));
-        commandApplyList.add(new Command("iptables -N postrouting-kura-pf -t nat".split(" ")));
-        commandApplyList.add(new Command("iptables -N postrouting-kura-ipf -t nat".split(" ")));
-        commandApplyList.add(new Command("iptables -N input-kura -t mangle".split(" ")));
-        commandApplyList.add(new Command("iptables -N output-kura -t mangle".split(" ")));
-        commandApplyList.add(new Command("iptables -N prerouting-kura -t mangle".split(" ")));
-        commandApplyList.add(new Command("iptables -N postrouting-kura -t mangle".split(" ")));
-        commandApplyList.add(new Command("iptables -C INPUT -j input-kura -t filter".split(" ")));
-        commandApplyList.add(new Command("iptables -C OUTPUT -j output-kura -t filter".split(" ")));
-        commandApplyList.add(new Command("iptables -C FORWARD -j forward-kura -t filter".split(" ")));
-        commandApplyList.add(new Command("iptables -C forward-kura -j forward-kura-pf -t filter".split(" ")));
-        commandApplyList.add(new Command("iptables -C forward-kura -j forward-kura-ipf -t filter".split(" ")));
-        commandApplyList.add(new Command("iptables -C INPUT -j input-kura -t nat".split(" ")));
-        commandApplyList.add(new Command("iptables -C OUTPUT -j output-kura -t nat".split(" ")));
-        commandApplyList.add(new Command("iptables -C PREROUTING -j prerouting-kura -t nat".split(" ")));
-        commandApplyList.add(new Command("iptables -C prerouting-kura -j prerouting-kura-pf -t nat".split(" ")));
-        commandApplyList.add(new Command("iptables -C POSTROUTING -j postrouting-kura -t nat".split(" ")));
-        commandApplyList.add(new Command("iptables -C postrouting-kura -j postrouting-kura-pf -t nat".split(" ")));
-        commandApplyList.add(new Command("iptables -C postrouting-kura -j postrouting-kura-ipf -t nat".split(" ")));
-        commandApplyList.add(new Command("iptables -C INPUT -j input-kura -t mangle".split(" ")));
-        commandApplyList.add(new Command("iptables -C OUTPUT -j output-kura -t mangle".split(" ")));
-        commandApplyList.add(new Command("iptables -C FORWARD -j forward-kura -t mangle".split(" ")));
-        commandApplyList.add(new Command("iptables -C PREROUTING -j prerouting-kura -t mangle".split(" ")));
-        commandApplyList.add(new Command("iptables -C POSTROUTING -j postrouting-kura -t mangle".split(" ")));
-        commandApplyList.add(new Command("iptables -A input-kura -j RETURN".split(" ")));
-        commandApplyList.add(new Command("iptables -A output-kura -j RETURN".split(" ")));
-        commandApplyList.add(new Command("iptables -A forward-kura -j RETURN".split(" ")));
-        commandApplyList.add(new Command("iptables -A forward-kura-pf -j RETURN".split(" ")));
-        commandApplyList.add(new Command("iptables -A forward-kura-ipf -j RETURN".split(" ")));
-        commandApplyList.add(new Command("iptables -A input-kura -j RETURN -t nat".split(" ")));
-        commandApplyList.add(new Command("iptables -A output-kura -j RETURN -t nat".split(" ")));
-        commandApplyList.add(new Command("iptables -A prerouting-kura -j RETURN -t nat".split(" ")));
-        commandApplyList.add(new Command("iptables -A prerouting-kura-pf -j RETURN -t nat".split(" ")));
-        commandApplyList.add(new Command("iptables -A postrouting-kura -j RETURN -t nat".split(" ")));
-        commandApplyList.add(new Command("iptables -A postrouting-kura-pf -j RETURN -t nat".split(" ")));
-        commandApplyList.add(new Command("iptables -A postrouting-kura-ipf -j RETURN -t nat".split(" ")));
-        commandApplyList.add(new Command("iptables -A input-kura -j RETURN -t mangle".split(" ")));
-        commandApplyList.add(new Command("iptables -A output-kura -j RETURN -t mangle".split(" ")));
-        commandApplyList.add(new Command("iptables -A forward-kura -j RETURN -t mangle".split(" ")));
-        commandApplyList.add(new Command("iptables -A prerouting-kura -j RETURN -t mangle".split(" ")));
-        commandApplyList.add(new Command("iptables -A postrouting-kura -j RETURN -t mangle".split(" ")));
-        commandApplyList.add(new Command("iptables -A input-kura -i lo -j ACCEPT -t filter".split(" ")));
-        commandApplyList.add(new Command(
-                "iptables -A input-kura -m state --state RELATED,ESTABLISHED -j ACCEPT -t filter".split(" ")));
-        commandApplyList.add(new Command(
-                "iptables -A input-kura -p icmp -m icmp --icmp-type 8 -m state --state NEW,RELATED,ESTABLISHED -j DROP -t filter"
-                        .split(" ")));
-        commandApplyList.add(new Command(
-                "iptables -A output-kura -p icmp -m icmp --icmp-type 0 -m state --state RELATED,ESTABLISHED -j DROP -t filter"
-                        .split(" ")));
-        commandApplyList.add(
-                new Command("iptables -t mangle -A prerouting-kura -m conntrack --ctstate INVALID -j DROP".split(" ")));
-        commandApplyList.add(new Command(
-                "iptables -t mangle -A prerouting-kura -p tcp ! --syn -m conntrack --ctstate NEW -j DROP".split(" ")));
-        commandApplyList.add(new Command(
-                "iptables -t mangle -A prerouting-kura -p tcp -m conntrack --ctstate NEW -m tcpmss ! --mss 536:65535 -j DROP"
-                        .split(" ")));
-        commandApplyList.add(new Command(
-                "iptables -t mangle -A prerouting-kura -p tcp --tcp-flags FIN,SYN FIN,SYN -j DROP".split(" ")));
-        commandApplyList.add(new Command(
-                "iptables -t mangle -A prerouting-kura -p tcp --tcp-flags SYN,RST SYN,RST -j DROP".split(" ")));
-        commandApplyList.add(new Command(
-                "iptables -t mangle -A prerouting-kura -p tcp --tcp-flags FIN,RST FIN,RST -j DROP".split(" ")));
-        commandApplyList.add(
-                new Command("iptables -t mangle -A prerouting-kura -p tcp --tcp-flags FIN,ACK FIN -j DROP".split(" ")));
-        commandApplyList.add(
-                new Command("iptables -t mangle -A prerouting-kura -p tcp --tcp-flags ACK,URG URG -j DROP".split(" ")));
-        commandApplyList.add(
-                new Command("iptables -t mangle -A prerouting-kura -p tcp --tcp-flags ACK,FIN FIN -j DROP".split(" ")));
-        commandApplyList.add(
-                new Command("iptables -t mangle -A prerouting-kura -p tcp --tcp-flags ACK,PSH PSH -j DROP".split(" ")));
-        commandApplyList.add(
-                new Command("iptables -t mangle -A prerouting-kura -p tcp --tcp-flags ALL ALL -j DROP".split(" ")));
-        commandApplyList.add(
-                new Command("iptables -t mangle -A prerouting-kura -p tcp --tcp-flags ALL NONE -j DROP".split(" ")));
-        commandApplyList.add(new Command(
-                "iptables -t mangle -A prerouting-kura -p tcp --tcp-flags ALL FIN,PSH,URG -j DROP".split(" ")));
-        commandApplyList.add(new Command(
-                "iptables -t mangle -A prerouting-kura -p tcp --tcp-flags ALL SYN,FIN,PSH,URG -j DROP".split(" ")));
-        commandApplyList.add(new Command(
-                "iptables -t mangle -A prerouting-kura -p tcp --tcp-flags ALL SYN,RST,ACK,FIN,URG -j DROP".split(" ")));
-        commandApplyList.add(new Command("iptables -t mangle -A prerouting-kura -p icmp -j DROP".split(" ")));
-        commandApplyList.add(new Command("iptables -t mangle -A prerouting-kura -f -j DROP".split(" ")));
-        commandApplyList.add(new Command("iptables -t filter -A input-kura -p tcp -f -j DROP".split(" ")));
-        commandApplyList.add(new Command("iptables -t nat -A prerouting-kura -p tcp -f -j DROP".split(" ")));
-        commandApplyList.stream().forEach(c -> c.setExecuteInAShell(true));
-        commandApplyList.stream().forEach(c -> when(executorServiceMock.execute(c)).thenReturn(successStatus));
-
+        commandRestoreNoFlushTmp = new Command(new String[] { "iptables-restore", "--noflush",
+                iptablesConfig.getFirewallConfigTmpFileName() });
+        commandRestoreNoFlushTmp.setExecuteInAShell(true);
+        when(executorServiceMock.execute(commandRestoreNoFlushTmp)).thenReturn(successStatus);
+        commandSaveRules = new Command(new String[] { "iptables-save" });
+        commandSaveRules.setExecuteInAShell(true);
+        when(executorServiceMock.execute(commandSaveRules)).thenReturn(successStatus);
         testCommandList = new ArrayList<>();
         testCommandList.add(new Command("iptables -t nat -A postrouting-kura -o eth1 -j MASQUERADE".split(" ")));
         testCommandList.add(new Command(
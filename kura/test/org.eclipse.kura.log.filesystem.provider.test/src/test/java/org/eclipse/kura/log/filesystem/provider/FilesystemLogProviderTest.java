@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2021, 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2021, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -12,7 +12,9 @@
  ******************************************************************************/
 package org.eclipse.kura.log.filesystem.provider;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
@@ -21,15 +23,21 @@ import static org.mockito.Mockito.verifyNoInteractions;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.kura.log.LogEntry;
 import org.eclipse.kura.log.listener.LogListener;
 
+import org.junit.After;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 
 public class FilesystemLogProviderTest {
@@ -42,6 +50,7 @@ public class FilesystemLogProviderTest {
     private boolean exceptionOccured = false;
     private FilesystemLogProvider logProvider;
     private List<LogListener> listeners;
+    private final CountDownLatch slowListenerLatch = new CountDownLatch(1);
 
     /*
      * Scenarios
@@ -135,6 +144,95 @@ public class FilesystemLogProviderTest {
         thenListenersAreNotCalled();
     }
 
+    @Test
+    public void shouldReadFromBeginningAfterTruncation() {
+        givenFile("kuratest");
+        givenPropertiesWithLogFilePath();
+        givenFilesystemLogProvider();
+        givenLogListeners(2);
+
+        whenRegisteringLogListeners();
+        whenActivate();
+        whenFileIsTruncatedAndRewritten(5);
+
+        thenListenersGetCalled(15);
+        thenNoExceptionsOccurred();
+    }
+
+    @Test
+    public void shouldFollowRotatedFile() {
+        givenFile("kuratest");
+        givenPropertiesWithLogFilePath();
+        givenFilesystemLogProvider();
+        givenLogListeners(2);
+
+        whenRegisteringLogListeners();
+        whenActivate();
+        whenFileIsRotated(3);
+
+        thenListenersGetCalled(13);
+        thenNoExceptionsOccurred();
+    }
+
+    @Test
+    public void shouldNotNotifyPartialLines() {
+        givenFile("kuratest");
+        givenPropertiesWithLogFilePath();
+        givenFilesystemLogProvider();
+        givenLogListeners(1);
+
+        whenRegisteringLogListeners();
+        whenActivate();
+        whenTextIsAppendedToFile("20210111 - li");
+
+        thenListenersGetCalledAfterDelay(10);
+
+        whenTextIsAppendedToFile("ne11\n");
+
+        thenListenersGetCalled(11);
+        thenLastMessageIs("20210111 - line11");
+        thenNoExceptionsOccurred();
+    }
+
+    @Test
+    public void stacktraceLinesShouldBeMergedWithPreviousEntry() {
+        givenFile("kuratest");
+        givenPropertiesWithLogFilePath();
+        givenFilesystemLogProvider();
+        givenLogListeners(1);
+
+        whenRegisteringLogListeners();
+        whenActivate();
+
+        thenListenersGetCalled(this.nLogLines);
+        thenEntryStacktraceIs(4, "exception on line05\nexception on line05\nexception on line05");
+    }
+
+    @Test
+    public void slowListenerShouldNotBlockOtherListeners() {
+        givenFile("kuratest");
+        givenPropertiesWithLogFilePath();
+        givenFilesystemLogProviderWithListenerQueueCapacity(10);
+        givenLogListeners(2);
+        givenSlowLogListener(0);
+
+        whenRegisteringLogListeners();
+        whenActivate();
+        thenListenerGetsCalled(1, this.nLogLines);
+        whenLogEntriesAreWritten(5, true);
+
+        thenListenerGetsCalled(1, this.nLogLines);
+        thenSlowListenerDroppedEntries(4);
+    }
+
+    @After
+    public void cleanup() {
+        this.slowListenerLatch.countDown();
+        if (this.logProvider != null) {
+            this.logProvider.deactivate();
+        }
+    }
+
     /*
      * Steps
      */
@@ -182,6 +280,17 @@ public class FilesystemLogProviderTest {
         this.logProvider = new FilesystemLogProvider();
     }
 
+    private void givenFilesystemLogProviderWithListenerQueueCapacity(int capacity) {
+        this.logProvider = new FilesystemLogProvider(capacity);
+    }
+
+    private void givenSlowLogListener(int index) {
+        doAnswer(invocation -> {
+            this.slowListenerLatch.await();
+            return null;
+        }).when(this.listeners.get(index)).newLogEntry(ArgumentMatchers.any(LogEntry.class));
+    }
+
     private void givenLogListeners(int nListeners) {
         this.listeners = new ArrayList<>(nListeners);
         for (int i = 0; i < nListeners; i++) {
@@ -240,6 +349,45 @@ public class FilesystemLogProviderTest {
         }
     }
 
+    private void whenFileIsTruncatedAndRewritten(int nLines) {
+        waitUntilListenersAreNotified(this.nLogLines);
+        whenLogEntriesAreWritten(nLines, false);
+    }
+
+    private void whenFileIsRotated(int nLines) {
+        waitUntilListenersAreNotified(this.nLogLines);
+
+        try {
+            File rotated = new File(this.file.getAbsolutePath() + ".1");
+            rotated.deleteOnExit();
+            Files.move(this.file.toPath(), rotated.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            this.exceptionOccured = true;
+        }
+
+        whenLogEntriesAreWritten(nLines, false);
+    }
+
+    private void whenLogEntriesAreWritten(int nEntries, boolean append) {
+        try (FileWriter writer = new FileWriter(this.file, append)) {
+            for (int i = 0; i < nEntries; i++) {
+                int lineNumber = this.nLogLines + i + 1;
+                writer.write(String.format("202101%02d - line%02d%n", lineNumber, lineNumber));
+            }
+            this.nLogLines += nEntries;
+        } catch (IOException e) {
+            this.exceptionOccured = true;
+        }
+    }
+
+    private void whenTextIsAppendedToFile(String text) {
+        try (FileWriter writer = new FileWriter(this.file, true)) {
+            writer.write(text);
+        } catch (IOException e) {
+            this.exceptionOccured = true;
+        }
+    }
+
     private void whenUnregisteringLogListeners() {
         for (LogListener listener : this.listeners) {
             verify(listener, timeout(LISTENER_CALL_TIMEOUT).times(this.nLogLines))
@@ -259,6 +407,34 @@ public class FilesystemLogProviderTest {
         waitUntilListenersAreNotified(times);
     }
 
+    private void thenListenerGetsCalled(int index, int times) {
+        verify(this.listeners.get(index), timeout(LISTENER_CALL_TIMEOUT).times(times))
+                .newLogEntry(ArgumentMatchers.any(LogEntry.class));
+    }
+
+    private void thenListenersGetCalledAfterDelay(int times) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        waitUntilListenersAreNotified(times);
+    }
+
+    private void thenLastMessageIs(String expected) {
+        List<LogEntry> entries = captureEntries(0);
+        assertEquals(expected, entries.get(entries.size() - 1).getProperties().get("MESSAGE"));
+    }
+
+    private void thenEntryStacktraceIs(int entryIndex, String expected) {
+        assertEquals(expected, captureEntries(0).get(entryIndex).getProperties().get("STACKTRACE"));
+    }
+
+    private void thenSlowListenerDroppedEntries(long expected) {
+        LogListenerNotifier notifier = this.logProvider.getNotifier(this.listeners.get(0));
+        assertEquals(expected, notifier.getDroppedEntries());
+    }
+
     private void thenListenersAreNotCalled() {
         for (LogListener listener : this.listeners) {
             verifyNoInteractions(listener);
@@ -273,6 +449,13 @@ public class FilesystemLogProviderTest {
      * Utility methods
      */
 
+    private List<LogEntry> captureEntries(int listenerIndex) {
+        ArgumentCaptor<LogEntry> captor = ArgumentCaptor.forClass(LogEntry.class);
+        verify(this.listeners.get(listenerIndex), timeout(LISTENER_CALL_TIMEOUT).atLeastOnce())
+                .newLogEntry(captor.capture());
+        return captor.getAllValues();
+    }
+
     private void waitUntilListenersAreNotified(int times) {
         for (LogListener listener : this.listeners) {
             verify(listener, timeout(LISTENER_CALL_TIMEOUT).times(times)).newLogEntry(ArgumentMatchers.any(LogEntry.class));
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2023, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -20,7 +20,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -77,6 +79,30 @@ public class MessageStoreProviderTest {
         thenMessageCountIs(2);
     }
 
+    @Test
+    public void shouldInitializeMessageCountWhenStoreIsReopened() throws KuraStoreException {
+        givenMessageStore();
+        givenStoredMessage("testTopic", byteArray(1, 2, 3, 4), 1, true, 7);
+        givenStoredMessage("testTopic", byteArray(1, 2, 3, 4), 1, true, 7);
+
+        whenMessageStoreIsReopened();
+
+        thenMessageCountIs(2);
+    }
+
+    @Test
+    public void shouldUpdateMessageCountWhenStaleMessagesAreDeleted() throws KuraStoreException, InterruptedException {
+        givenMessageStore();
+        givenStoredMessage("foo", byteArray(1, 2, 3, 4), 0, true, 7);
+        givenStoredMessage("foo", byteArray(1, 2, 3, 4), 0, true, 7);
+
+        whenMessageIsMarkedAsPublished(0);
+        whenTimePasses(2, TimeUnit.SECONDS);
+        whenStaleMessagesAreDeleted(1);
+
+        thenMessageCountIs(1);
+    }
+
     @Test
     public void shouldStoreNullPayload() throws KuraStoreException {
         givenMessageStore();
@@ -276,6 +302,50 @@ public class MessageStoreProviderTest {
         thenNextMessageDataTransportTokenIsNotSet();
     }
 
+    @Test
+    public void shouldGetNextMessagesInPublishOrder() throws KuraStoreException {
+        givenMessageStore();
+        givenStoredMessage("1", byteArray(1, 2, 3, 4), 1, true, 7);
+        givenStoredMessage("2", byteArray(2, 2, 3, 4), 2, false, 5);
+        givenStoredMessage("3", byteArray(3, 2, 3, 4), 3, true, 2);
+        givenStoredMessage("4", byteArray(4, 2, 3, 4), 4, false, 1);
+        givenStoredMessage("5", byteArray(5, 2, 3, 4), 5, true, 3);
+
+        whenMessageIsMarkedAsPublished(3);
+        whenNextMessagesAreRetrieved(3);
+
+        thenRetrievedMessageIdListIs(2, 4, 1);
+        thenRetrievedMessagePayloadIs(0, byteArray(3, 2, 3, 4));
+    }
+
+    @Test
+    public void shouldGetNoNextMessagesIfAllArePublished() throws KuraStoreException {
+        givenMessageStore();
+        givenStoredMessage("1", byteArray(1, 2, 3, 4), 0, true, 7);
+
+        whenMessageIsMarkedAsPublished(0);
+        whenNextMessagesAreRetrieved(10);
+
+        thenRetrievedMessageIdListIs();
+    }
+
+    @Test
+    public void shouldSupportMarkAsPublishedInBatch() throws KuraStoreException {
+        givenMessageStore();
+        givenStoredMessage("1", byteArray(1, 2, 3, 4), 0, true, 7);
+        givenStoredMessage("2", byteArray(2, 2, 3, 4), 1, false, 7);
+        givenStoredMessage("3", byteArray(3, 2, 3, 4), 1, false, 7);
+
+        whenMessagesAreMarkedAsPublished(0, 1);
+
+        thenMessagePublishedOnIsInThePast(0);
+        thenDataTransportTokenIsNotSet(0);
+        thenMessagePublishedOnIsInThePast(1);
+        thenDataTransportTokenIs(1, new DataTransportToken(1, "batch"));
+        thenMessagePublishedOnIsNotSet(2);
+        thenNextMessageTopicIs("3");
+    }
+
     @Test
     public void shouldRetireveUnpublishedMessageList() throws KuraStoreException {
         givenMessageStore();
@@ -468,7 +538,7 @@ public class MessageStoreProviderTest {
 
     @Parameters(name = "{0}")
     public static Collection<TestTarget> targets() {
-        return Arrays.asList(TestTarget.H2, TestTarget.SQLITE);
+        return Arrays.asList(TestTarget.H2, TestTarget.SQLITE, TestTarget.SEGMENT);
     }
 
     public MessageStoreProviderTest(final TestTarget target)
@@ -508,6 +578,11 @@ public class MessageStoreProviderTest {
         }
     }
 
+    private void whenMessageStoreIsReopened() throws KuraStoreException {
+        this.messageStore.close();
+        this.messageStore = this.messageStoreProvider.openMessageStore(this.storeName);
+    }
+
     private void whenMessageIsMarkedAsPublished(final int messageIndex) throws KuraStoreException {
         this.messageStore.markAsPublished(this.messageIds.get(messageIndex));
     }
@@ -517,6 +592,26 @@ public class MessageStoreProviderTest {
         this.messageStore.markAsPublished(this.messageIds.get(messageIndex), token);
     }
 
+    private void whenMessagesAreMarkedAsPublished(final int... messageIndexes) throws KuraStoreException {
+        final Map<Integer, Optional<DataTransportToken>> messages = new LinkedHashMap<>();
+
+        for (final int messageIndex : messageIndexes) {
+            final StoredMessage message = getStoredMessage(messageIndex);
+
+            if (message.getQos() > 0) {
+                messages.put(message.getId(), Optional.of(new DataTransportToken(messageIndex, "batch")));
+            } else {
+                messages.put(message.getId(), Optional.empty());
+            }
+        }
+
+        this.messageStore.markAsPublished(messages);
+    }
+
+    private void whenNextMessagesAreRetrieved(final int maxCount) throws KuraStoreException {
+        this.retrievedMessages = Optional.of(this.messageStore.getNextMessages(maxCount));
+    }
+
     private void whenMessageIsMarkedAsConfirmed(final int messageIndex) throws KuraStoreException {
         this.messageStore.markAsConfirmed(this.messageIds.get(messageIndex));
     }
@@ -548,6 +643,24 @@ public class MessageStoreProviderTest {
         }
     }
 
+    private void thenRetrievedMessageIdListIs(final int... ids) {
+        final List<StoredMessage> messages = this.retrievedMessages
+                .orElseThrow(() -> new IllegalStateException("no messages have been retrieved"));
+
+        assertEquals(ids.length, messages.size());
+
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals((int) this.messageIds.get(ids[i]), messages.get(i).getId());
+        }
+    }
+
+    private void thenRetrievedMessagePayloadIs(final int index, final byte[] payload) {
+        final List<StoredMessage> messages = this.retrievedMessages
+                .orElseThrow(() -> new IllegalStateException("no messages have been retrieved"));
+
+        assertArrayEquals(payload, messages.get(index).getPayload());
+    }
+
     private void thenMessageTopicIs(final int messageIndex, final String topic) throws KuraStoreException {
         assertEquals(topic, getStoredMessage(0).getTopic());
     }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2023, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -12,6 +12,9 @@
  *******************************************************************************/
 package org.eclipse.kura.message.store.provider.test;
 
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
 import java.sql.Connection;
 import java.sql.Statement;
 import java.util.Collections;
@@ -28,6 +31,7 @@ public interface TestTarget {
 
     public static final TestTarget H2 = new H2();
     public static final TestTarget SQLITE = new Sqlite();
+    public static final TestTarget SEGMENT = new Segment();
 
     public String storeFactoryPid();
 
@@ -113,4 +117,52 @@ public interface TestTarget {
         }
 
     }
+
+    public class Segment implements TestTarget {
+
+        @Override
+        public String storeFactoryPid() {
+
+            return "org.eclipse.kura.message.store.SegmentMessageStoreProvider";
+        }
+
+        @Override
+        public Map<String, Object> getConfigurationForPid(String pid) {
+            try {
+                return Collections.singletonMap("store.directory",
+                        Files.createTempDirectory("segment-store-" + pid).toString());
+            } catch (IOException e) {
+                throw new IllegalStateException("cannot create store directory", e);
+            }
+        }
+
+        @Override
+        public void setMessageId(final String pid, final String collection, final int value) {
+            try {
+                final MessageStoreProvider provider = ServiceUtil
+                        .trackService(MessageStoreProvider.class, Optional.of("(kura.service.pid=" + pid + ")"))
+                        .get(30, TimeUnit.SECONDS);
+
+                // the segment store has no SQL identity generator, set the last allocated id of the open store
+                final Field openStoresField = provider.getClass().getDeclaredField("openStores");
+                openStoresField.setAccessible(true);
+                final Object store = ((Map<?, ?>) openStoresField.get(provider)).get(collection);
+
+                final Field lastIdField = store.getClass().getDeclaredField("lastId");
+                lastIdField.setAccessible(true);
+
+                synchronized (store) {
+                    lastIdField.setInt(store, value);
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException("cannot set next message id", e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Segment";
+        }
+
+    }
 }
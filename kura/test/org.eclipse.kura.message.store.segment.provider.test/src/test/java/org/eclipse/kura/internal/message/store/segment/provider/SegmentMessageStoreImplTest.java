@@ -0,0 +1,536 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.message.store.segment.provider;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.kura.KuraStoreException;
+import org.eclipse.kura.data.DataTransportToken;
+import org.eclipse.kura.message.store.StoredMessage;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SegmentMessageStoreImplTest {
+
+    private static final int SMALL_SEGMENT_SIZE = 4096;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final List<SegmentMessageStoreImpl> openedStores = new ArrayList<>();
+    private final List<Integer> storedIds = new ArrayList<>();
+    private SegmentMessageStoreImpl store;
+    private Path directory;
+    private int segmentSize = 64 * 1024;
+    private Exception occurredException;
+
+    @Test
+    public void shouldRecoverMessagesIfStoreIsNotClosed() throws Exception {
+        givenStore();
+        givenStoredMessages(10, 1);
+
+        whenStoreIsReopenedWithoutClosing();
+
+        thenMessageCountIs(10);
+        thenMessagesArePresentWithPayload(this.storedIds);
+    }
+
+    @Test
+    public void shouldRecoverPublishedConfirmedAndDroppedState() throws Exception {
+        givenStore();
+        givenStoredMessages(4, 1);
+        givenMarkedAsPublished(0, Optional.empty());
+        givenMarkedAsPublished(1, Optional.of(new DataTransportToken(12, "session")));
+        givenMarkedAsPublished(2, Optional.of(new DataTransportToken(13, "session")));
+        givenMarkedAsConfirmed(2);
+        givenInFlightMessagesDropped();
+
+        whenStoreIsReopenedWithoutClosing();
+
+        thenUnpublishedMessagesAre(3);
+        thenInFlightMessagesAre();
+        thenDroppedMessagesAre(0, 1);
+        thenMessageHasToken(1, 12, "session");
+        thenMessageIsConfirmed(2);
+        thenMessageIsPublished(0);
+    }
+
+    @Test
+    public void shouldRecoverUnpublishedInFlightMessages() throws Exception {
+        givenStore();
+        givenStoredMessages(3, 1);
+        givenMarkedAsPublished(0, Optional.of(new DataTransportToken(1, "session")));
+        givenMarkedAsPublished(1, Optional.of(new DataTransportToken(2, "session")));
+        givenInFlightMessagesUnpublished();
+
+        whenStoreIsReopenedWithoutClosing();
+
+        thenUnpublishedMessagesAre(0, 1, 2);
+        thenInFlightMessagesAre();
+        thenMessageHasToken(0, 1, "session");
+    }
+
+    @Test
+    public void shouldDiscardTornRecordAtTheEndOfTheSegment() throws Exception {
+        givenStore();
+        givenStoredMessages(5, 1);
+        givenStoreClosed();
+        givenTornRecordAppendedToLastSegment();
+
+        whenStoreIsReopened();
+
+        thenMessageCountIs(5);
+        thenMessagesArePresentWithPayload(this.storedIds);
+    }
+
+    @Test
+    public void shouldDiscardCorruptedLastRecord() throws Exception {
+        givenStore();
+        givenStoredMessages(5, 1);
+        givenStoreClosed();
+        givenLastRecordCorrupted();
+
+        whenStoreIsReopened();
+
+        thenMessageCountIs(4);
+        thenMessagesArePresentWithPayload(this.storedIds.subList(0, 4));
+    }
+
+    @Test
+    public void shouldAcceptNewMessagesAfterDiscardingCorruptedRecord() throws Exception {
+        givenStore();
+        givenStoredMessages(5, 1);
+        givenStoreClosed();
+        givenLastRecordCorrupted();
+        givenStoreReopened();
+        givenLastStoredMessageLost();
+        givenStoredMessages(2, 1);
+
+        whenStoreIsReopenedWithoutClosing();
+
+        thenMessageCountIs(6);
+        thenMessagesArePresentWithPayload(this.storedIds);
+    }
+
+    @Test
+    public void shouldNotReuseIdsAfterRecovery() throws Exception {
+        givenStore();
+        givenStoredMessages(3, 1);
+        givenMarkedAsPublished(2, Optional.empty());
+        givenMarkedAsConfirmed(2);
+        givenStaleMessagesDeleted();
+
+        whenStoreIsReopenedWithoutClosing();
+        whenMessageIsStored();
+
+        thenMessageCountIs(3);
+        thenLastStoredIdIs(4);
+    }
+
+    @Test
+    public void shouldSupportNullAndEmptyPayload() throws Exception {
+        givenStore();
+        givenStoredMessage(null);
+        givenStoredMessage(new byte[0]);
+
+        whenStoreIsReopenedWithoutClosing();
+
+        thenPayloadIs(0, null);
+        thenPayloadIs(1, new byte[0]);
+    }
+
+    @Test
+    public void shouldRotateSegments() throws Exception {
+        givenSegmentSize(SMALL_SEGMENT_SIZE);
+        givenStore();
+        givenStoredMessages(20, 1000);
+
+        whenStoreIsReopenedWithoutClosing();
+
+        thenSegmentCountIsAtLeast(2);
+        thenMessageCountIs(20);
+        thenMessagesArePresentWithPayload(this.storedIds);
+    }
+
+    @Test
+    public void shouldSupportMessagesLargerThanSegmentSize() throws Exception {
+        givenSegmentSize(SMALL_SEGMENT_SIZE);
+        givenStore();
+        givenStoredMessages(1, 10);
+        givenStoredMessages(1, 3 * SMALL_SEGMENT_SIZE);
+        givenStoredMessages(1, 10);
+
+        whenStoreIsReopenedWithoutClosing();
+
+        thenMessageCountIs(3);
+        thenMessagesArePresentWithPayload(this.storedIds);
+    }
+
+    @Test
+    public void shouldDeleteSegmentFilesWhenMessagesArePurged() throws Exception {
+        givenSegmentSize(SMALL_SEGMENT_SIZE);
+        givenStore();
+        givenStoredMessages(20, 1000);
+        givenAllMessagesMarkedAsPublished();
+
+        whenStaleMessagesAreDeleted();
+
+        thenSegmentCountIs(1);
+        thenSegmentFileCountIs(1);
+        thenMessageCountIs(0);
+    }
+
+    @Test
+    public void shouldPersistPurgedMessages() throws Exception {
+        givenStore();
+        givenStoredMessages(5, 1);
+        givenMarkedAsPublished(1, Optional.empty());
+        givenMarkedAsConfirmed(1);
+        givenMarkedAsPublished(3, Optional.empty());
+        givenMarkedAsConfirmed(3);
+        givenStaleMessagesDeleted();
+
+        whenStoreIsReopenedWithoutClosing();
+
+        thenMessageCountIs(3);
+        thenUnpublishedMessagesAre(0, 2, 4);
+    }
+
+    @Test
+    public void shouldMoveLiveMessagesOutOfOldSegments() throws Exception {
+        givenSegmentSize(SMALL_SEGMENT_SIZE);
+        givenStore();
+        givenStoredMessages(20, 1000);
+        givenMarkedAsPublished(0, Optional.of(new DataTransportToken(7, "session")));
+        givenAllMessagesMarkedAsPublishedExcept(0, 1);
+        givenStaleMessagesDeleted();
+
+        whenStoreIsReopenedWithoutClosing();
+
+        thenSegmentFileCountIs(1);
+        thenMessageCountIs(2);
+        thenMessagesArePresentWithPayload(this.storedIds.subList(0, 2));
+        thenInFlightMessagesAre(0);
+        thenUnpublishedMessagesAre(1);
+        thenMessageHasToken(0, 7, "session");
+    }
+
+    @Test
+    public void shouldReturnMessagesInPriorityOrder() throws Exception {
+        givenStore();
+        givenStoredMessageWithPriority(5);
+        givenStoredMessageWithPriority(1);
+        givenStoredMessageWithPriority(5);
+        givenStoredMessageWithPriority(0);
+
+        whenStoreIsReopenedWithoutClosing();
+
+        thenNextMessagesAre(3, 1, 0, 2);
+    }
+
+    @Test
+    public void shouldRejectEmptyTopic() throws Exception {
+        givenStore();
+
+        whenMessageIsStoredWithTopic("");
+
+        thenExceptionOccurred(KuraStoreException.class);
+    }
+
+    @Test
+    public void shouldRejectOperationsOnClosedStore() throws Exception {
+        givenStore();
+        givenStoreClosed();
+
+        whenMessageIsStored();
+
+        thenExceptionOccurred(KuraStoreException.class);
+    }
+
+    @After
+    public void cleanUp() {
+        this.openedStores.forEach(SegmentMessageStoreImpl::close);
+    }
+
+    private void givenSegmentSize(final int segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    private void givenStore() throws Exception {
+        this.directory = this.temporaryFolder.newFolder().toPath().resolve("store");
+        givenStoreReopened();
+    }
+
+    private void givenStoreReopened() throws KuraStoreException {
+        this.store = new SegmentMessageStoreImpl(this.directory, this.segmentSize, false);
+        this.openedStores.add(this.store);
+    }
+
+    private void givenLastStoredMessageLost() {
+        this.storedIds.remove(this.storedIds.size() - 1);
+    }
+
+    private void givenStoreClosed() {
+        this.store.close();
+    }
+
+    private void givenStoredMessages(final int count, final int payloadSize) throws KuraStoreException {
+        for (int i = 0; i < count; i++) {
+            givenStoredMessage(payload(this.storedIds.size(), payloadSize));
+        }
+    }
+
+    private void givenStoredMessage(final byte[] payload) throws KuraStoreException {
+        this.storedIds.add(this.store.store("foo/bar", payload, 1, false, 4));
+    }
+
+    private void givenStoredMessageWithPriority(final int priority) throws KuraStoreException {
+        this.storedIds.add(this.store.store("foo/bar", new byte[] { 1 }, 1, false, priority));
+    }
+
+    private void givenMarkedAsPublished(final int index, final Optional<DataTransportToken> token)
+            throws KuraStoreException {
+        if (token.isPresent()) {
+            this.store.markAsPublished(this.storedIds.get(index), token.get());
+        } else {
+            this.store.markAsPublished(this.storedIds.get(index));
+        }
+    }
+
+    private void givenMarkedAsConfirmed(final int index) throws KuraStoreException {
+        this.store.markAsConfirmed(this.storedIds.get(index));
+    }
+
+    private void givenAllMessagesMarkedAsPublished() throws KuraStoreException {
+        givenAllMessagesMarkedAsPublishedExcept();
+    }
+
+    private void givenAllMessagesMarkedAsPublishedExcept(final Integer... indexes) throws KuraStoreException {
+        final List<Integer> excluded = Arrays.asList(indexes);
+
+        for (int i = 0; i < this.storedIds.size(); i++) {
+            if (!excluded.contains(i)) {
+                this.store.markAsPublished(this.storedIds.get(i));
+                this.store.markAsConfirmed(this.storedIds.get(i));
+            }
+        }
+    }
+
+    private void givenInFlightMessagesDropped() throws KuraStoreException {
+        this.store.dropAllInFlightMessages();
+    }
+
+    private void givenInFlightMessagesUnpublished() throws KuraStoreException {
+        this.store.unpublishAllInFlighMessages();
+    }
+
+    private void givenStaleMessagesDeleted() throws KuraStoreException {
+        this.store.deleteStaleMessages(0);
+    }
+
+    private void givenTornRecordAppendedToLastSegment() throws IOException {
+        try (final RandomAccessFile file = new RandomAccessFile(lastSegmentFile().toFile(), "rw")) {
+            file.seek(findEndOfRecords(file));
+            file.writeInt(100);
+            file.writeInt(0xdeadbeef);
+            file.write(new byte[] { 1, 2, 3 });
+        }
+    }
+
+    private void givenLastRecordCorrupted() throws IOException {
+        try (final RandomAccessFile file = new RandomAccessFile(lastSegmentFile().toFile(), "rw")) {
+            final long end = findEndOfRecords(file);
+
+            file.seek(end - 1);
+            final int value = file.read();
+            file.seek(end - 1);
+            file.write(value ^ 0xff);
+        }
+    }
+
+    private void whenStoreIsReopened() throws KuraStoreException {
+        givenStoreReopened();
+    }
+
+    private void whenStoreIsReopenedWithoutClosing() throws KuraStoreException {
+        givenStoreReopened();
+    }
+
+    private void whenStaleMessagesAreDeleted() throws KuraStoreException {
+        givenStaleMessagesDeleted();
+    }
+
+    private void whenMessageIsStored() {
+        whenMessageIsStoredWithTopic("foo/bar");
+    }
+
+    private void whenMessageIsStoredWithTopic(final String topic) {
+        try {
+            this.storedIds.add(this.store.store(topic, new byte[] { 1 }, 1, false, 4));
+        } catch (final Exception e) {
+            this.occurredException = e;
+        }
+    }
+
+    private void thenMessageCountIs(final int expected) throws KuraStoreException {
+        assertEquals(expected, this.store.getMessageCount());
+    }
+
+    private void thenMessagesArePresentWithPayload(final List<Integer> ids) throws KuraStoreException {
+        for (final int id : ids) {
+            final Optional<StoredMessage> message = this.store.get(id);
+
+            assertTrue("message " + id + " not found", message.isPresent());
+            assertEquals("foo/bar", message.get().getTopic());
+            assertArrayEquals(payload(this.storedIds.indexOf(id), message.get().getPayload().length),
+                    message.get().getPayload());
+        }
+    }
+
+    private void thenUnpublishedMessagesAre(final int... indexes) throws KuraStoreException {
+        assertEquals(idsOf(indexes), sortedIds(this.store.getUnpublishedMessages()));
+    }
+
+    private void thenInFlightMessagesAre(final int... indexes) throws KuraStoreException {
+        assertEquals(idsOf(indexes), sortedIds(this.store.getInFlightMessages()));
+    }
+
+    private void thenDroppedMessagesAre(final int... indexes) throws KuraStoreException {
+        assertEquals(idsOf(indexes), sortedIds(this.store.getDroppedMessages()));
+    }
+
+    private void thenNextMessagesAre(final int... indexes) throws KuraStoreException {
+        assertEquals(idsOf(indexes), this.store.getNextMessages(indexes.length).stream().map(StoredMessage::getId)
+                .collect(Collectors.toList()));
+    }
+
+    private void thenMessageHasToken(final int index, final int messageId, final String sessionId)
+            throws KuraStoreException {
+        final DataTransportToken token = this.store.get(this.storedIds.get(index)).get().getDataTransportToken()
+                .get();
+
+        assertEquals(messageId, token.getMessageId());
+        assertEquals(sessionId, token.getSessionId());
+    }
+
+    private void thenMessageIsConfirmed(final int index) throws KuraStoreException {
+        assertTrue(this.store.get(this.storedIds.get(index)).get().getConfirmedOn().isPresent());
+    }
+
+    private void thenMessageIsPublished(final int index) throws KuraStoreException {
+        final StoredMessage message = this.store.get(this.storedIds.get(index)).get();
+
+        assertTrue(message.getPublishedOn().isPresent());
+        assertFalse(message.getDataTransportToken().isPresent());
+    }
+
+    private void thenPayloadIs(final int index, final byte[] expected) throws KuraStoreException {
+        final byte[] payload = this.store.get(this.storedIds.get(index)).get().getPayload();
+
+        if (expected == null) {
+            assertNull(payload);
+        } else {
+            assertArrayEquals(expected, payload);
+        }
+    }
+
+    private void thenLastStoredIdIs(final int expected) {
+        assertEquals(expected, (int) this.storedIds.get(this.storedIds.size() - 1));
+    }
+
+    private void thenSegmentCountIs(final int expected) {
+        assertEquals(expected, this.store.getSegmentCount());
+    }
+
+    private void thenSegmentCountIsAtLeast(final int expected) {
+        assertTrue(this.store.getSegmentCount() >= expected);
+    }
+
+    private void thenSegmentFileCountIs(final int expected) throws IOException {
+        assertEquals(expected, segmentFiles().size());
+    }
+
+    private void thenExceptionOccurred(final Class<? extends Exception> expected) {
+        if (this.occurredException == null) {
+            fail("exception expected");
+        }
+
+        assertEquals(expected, this.occurredException.getClass());
+    }
+
+    private List<Integer> idsOf(final int... indexes) {
+        return Arrays.stream(indexes).mapToObj(this.storedIds::get).collect(Collectors.toList());
+    }
+
+    private static List<Integer> sortedIds(final List<StoredMessage> messages) {
+        return messages.stream().map(StoredMessage::getId).sorted().collect(Collectors.toList());
+    }
+
+    private static byte[] payload(final int seed, final int size) {
+        final byte[] result = new byte[size];
+
+        for (int i = 0; i < size; i++) {
+            result[i] = (byte) (seed + i);
+        }
+
+        return result;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (final Stream<Path> files = Files.list(this.directory)) {
+            return files.filter(p -> p.toString().endsWith(Segment.FILE_EXTENSION)).sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private Path lastSegmentFile() throws IOException {
+        final List<Path> files = segmentFiles();
+
+        return files.get(files.size() - 1);
+    }
+
+    private static long findEndOfRecords(final RandomAccessFile file) throws IOException {
+        long position = 0;
+
+        while (position + Segment.RECORD_HEADER_SIZE <= file.length()) {
+            file.seek(position);
+            final int length = file.readInt();
+
+            if (length == 0) {
+                break;
+            }
+
+            position += Segment.RECORD_HEADER_SIZE + length;
+        }
+
+        return position;
+    }
+}
@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ ******************************************************************************/
+
+package org.eclipse.kura.protocol.modbus;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.kura.KuraConnectionStatus;
+import org.eclipse.kura.protocol.modbus.test.ModbusSlaveSimulator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ModbusPipelinedProtocolDeviceTest {
+
+    private ModbusSlaveSimulator simulator;
+    private ModbusProtocolDevice modbusDevice;
+
+    @Before
+    public void startSimulator() throws Exception {
+        simulator = new ModbusSlaveSimulator();
+        simulator.start();
+    }
+
+    @After
+    public void stop() throws Exception {
+        if (modbusDevice != null) {
+            modbusDevice.disconnect();
+        }
+        simulator.stop();
+    }
+
+    @Test
+    public void testGetConnectStatus() throws ModbusProtocolException {
+        connect(ModbusProtocolDevice.PROTOCOL_CONNECTION_TYPE_ETHER_TCP_PIPELINED, 10000, null);
+
+        assertEquals(KuraConnectionStatus.CONNECTED, modbusDevice.getConnectStatus());
+    }
+
+    @Test
+    public void testWriteAndReadHoldingRegisters() throws ModbusProtocolException {
+        connect(ModbusProtocolDevice.PROTOCOL_CONNECTION_TYPE_ETHER_TCP_PIPELINED, 10000, null);
+
+        modbusDevice.writeMultipleRegister(1, 10, new int[] { 12, 24, 46, 58 });
+        modbusDevice.writeSingleRegister(1, 14, 37);
+
+        assertArrayEquals(new int[] { 12, 24, 46, 58, 37 }, modbusDevice.readHoldingRegisters(1, 10, 5));
+    }
+
+    @Test
+    public void testWriteAndReadCoils() throws ModbusProtocolException {
+        connect(ModbusProtocolDevice.PROTOCOL_CONNECTION_TYPE_ETHER_TCP_PIPELINED, 10000, null);
+
+        modbusDevice.writeMultipleCoils(1, 1, new boolean[] { true, false, true, true, false, true, true, true });
+        modbusDevice.writeSingleCoil(1, 0, true);
+
+        boolean[] coils = modbusDevice.readCoils(1, 0, 9);
+        assertArrayEquals(new boolean[] { true, true, false, true, true, false, true, true, true }, coils);
+    }
+
+    @Test
+    public void testReadInputRegisters() throws ModbusProtocolException {
+        connect(ModbusProtocolDevice.PROTOCOL_CONNECTION_TYPE_ETHER_TCP_PIPELINED, 10000, null);
+
+        int[] inputRegs = modbusDevice.readInputRegisters(1, 8, 2);
+        assertArrayEquals(new int[] { ModbusSlaveSimulator.INPUT_REGISTER_OFFSET + 8,
+                ModbusSlaveSimulator.INPUT_REGISTER_OFFSET + 9 }, inputRegs);
+    }
+
+    @Test
+    public void testConcurrentRequestsAreMatchedByTransactionId() throws Exception {
+        connect(ModbusProtocolDevice.PROTOCOL_CONNECTION_TYPE_ETHER_TCP_PIPELINED, 10000, null);
+        simulator.setResponseDelay(50);
+
+        List<CompletableFuture<int[]>> results = new ArrayList<>();
+        for (int unit = 1; unit <= 40; unit++) {
+            results.add(modbusDevice.readHoldingRegistersAsync(unit, unit * 10, 2));
+        }
+
+        for (int unit = 1; unit <= 40; unit++) {
+            assertArrayEquals(new int[] { unit * 10, unit * 10 + 1 },
+                    results.get(unit - 1).get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(ModbusProtocolDevice.DEFAULT_MAX_IN_FLIGHT_REQUESTS, simulator.getMaxOutstandingRequests());
+    }
+
+    @Test
+    public void testMaxInFlightRequestsIsRespected() throws Exception {
+        connect(ModbusProtocolDevice.PROTOCOL_CONNECTION_TYPE_ETHER_TCP_PIPELINED, 10000, "4");
+        simulator.setResponseDelay(20);
+
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            results.add(modbusDevice.writeSingleRegisterAsync(1, i, i + 100));
+        }
+
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+
+        assertEquals(4, simulator.getMaxOutstandingRequests());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i + 100, simulator.getHoldingRegister(i));
+        }
+    }
+
+    @Test
+    public void testResponsesReceivedOutOfOrder() throws Exception {
+        connect(ModbusProtocolDevice.PROTOCOL_CONNECTION_TYPE_ETHER_TCP_PIPELINED, 10000, null);
+        simulator.setResponseDelay(1, 500);
+
+        CompletableFuture<int[]> slow = modbusDevice.readInputRegistersAsync(1, 5, 1);
+        CompletableFuture<int[]> fast = modbusDevice.readInputRegistersAsync(2, 6, 1);
+
+        assertArrayEquals(new int[] { ModbusSlaveSimulator.INPUT_REGISTER_OFFSET + 6 },
+                fast.get(10, TimeUnit.SECONDS));
+        assertFalse(slow.isDone());
+        assertArrayEquals(new int[] { ModbusSlaveSimulator.INPUT_REGISTER_OFFSET + 5 },
+                slow.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testTimeoutDoesNotAffectOtherRequests() throws Exception {
+        connect(ModbusProtocolDevice.PROTOCOL_CONNECTION_TYPE_ETHER_TCP_PIPELINED, 300, null);
+        simulator.setUnresponsive(3);
+
+        CompletableFuture<int[]> lost = modbusDevice.readHoldingRegistersAsync(3, 0, 1);
+        int[] holdingReg = modbusDevice.readHoldingRegisters(1, 7, 1);
+
+        assertArrayEquals(new int[] { 7 }, holdingReg);
+        assertTransactionFailure(lost);
+        assertArrayEquals(new int[] { 8 }, modbusDevice.readHoldingRegisters(1, 8, 1));
+    }
+
+    @Test
+    public void testExceptionResponse() throws Exception {
+        connect(ModbusProtocolDevice.PROTOCOL_CONNECTION_TYPE_ETHER_TCP_PIPELINED, 10000, null);
+
+        try {
+            modbusDevice.readHoldingRegisters(1, ModbusSlaveSimulator.SIZE, 1);
+            fail("Exception expected");
+        } catch (ModbusProtocolException e) {
+            assertEquals(ModbusProtocolErrorCode.TRANSACTION_FAILURE, e.getCode());
+        }
+    }
+
+    @Test
+    public void testPendingRequestsFailOnConnectionLoss() throws Exception {
+        connect(ModbusProtocolDevice.PROTOCOL_CONNECTION_TYPE_ETHER_TCP_PIPELINED, 10000, null);
+        simulator.setUnresponsive(1);
+
+        CompletableFuture<int[]> pending = modbusDevice.readHoldingRegistersAsync(1, 0, 1);
+        simulator.stop();
+
+        assertTransactionFailure(pending);
+        assertEquals(KuraConnectionStatus.DISCONNECTED, modbusDevice.getConnectStatus());
+    }
+
+    @Test
+    public void testAsyncRequestsOnNonPipelinedConnection() throws Exception {
+        connect(ModbusProtocolDevice.PROTOCOL_CONNECTION_TYPE_ETHER_TCP, 10000, null);
+
+        CompletableFuture<int[]> result = modbusDevice.readHoldingRegistersAsync(1, 3, 1);
+
+        assertTrue(result.isDone());
+        assertArrayEquals(new int[] { 3 }, result.get());
+    }
+
+    @Test
+    public void testAsyncRequestNotConnected() throws Exception {
+        modbusDevice = new ModbusProtocolDevice();
+
+        assertEquals(ModbusProtocolErrorCode.NOT_CONNECTED,
+                getFailure(modbusDevice.readCoilsAsync(1, 0, 1)).getCode());
+    }
+
+    private void connect(String connectionType, int respTimeout, String maxInFlightRequests)
+            throws ModbusProtocolException {
+        modbusDevice = new ModbusProtocolDevice();
+        Properties connectionConfig = new Properties();
+        connectionConfig.setProperty("connectionType", connectionType);
+        connectionConfig.setProperty("ipAddress", "127.0.0.1");
+        connectionConfig.setProperty("ethport", Integer.toString(simulator.getPort()));
+        connectionConfig.setProperty("respTimeout", Integer.toString(respTimeout));
+        connectionConfig.setProperty("transmissionMode", ModbusTransmissionMode.RTU);
+        if (maxInFlightRequests != null) {
+            connectionConfig.setProperty("maxInFlightRequests", maxInFlightRequests);
+        }
+        modbusDevice.configureConnection(connectionConfig);
+        modbusDevice.connect();
+    }
+
+    private static void assertTransactionFailure(CompletableFuture<?> future) throws Exception {
+        assertEquals(ModbusProtocolErrorCode.TRANSACTION_FAILURE, getFailure(future).getCode());
+    }
+
+    private static ModbusProtocolException getFailure(CompletableFuture<?> future) throws Exception {
+        try {
+            future.get(10, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ModbusProtocolException);
+            return (ModbusProtocolException) e.getCause();
+        }
+        fail("Exception expected");
+        return null;
+    }
+}
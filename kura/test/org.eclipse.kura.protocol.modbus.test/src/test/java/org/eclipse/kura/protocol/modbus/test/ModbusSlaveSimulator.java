@@ -0,0 +1,293 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ ******************************************************************************/
+
+package org.eclipse.kura.protocol.modbus.test;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Simulated Modbus TCP slave.
+ * <p>
+ * Serves any unit id and supports the coil and register functions. Coils are initially off and the value of each
+ * holding register is initially equal to its address, input registers are read only and contain the address plus
+ * {@link #INPUT_REGISTER_OFFSET}. Addresses outside of the simulated memory produce an illegal data address exception.
+ * <p>
+ * Requests are processed as soon as they are received, the responses can be delayed per unit id so that several
+ * transactions are outstanding at the same time and responses are sent in a different order than the requests.
+ */
+public class ModbusSlaveSimulator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModbusSlaveSimulator.class);
+
+    public static final int SIZE = 1000;
+    public static final int INPUT_REGISTER_OFFSET = 10000;
+
+    private static final long NO_RESPONSE = -1;
+
+    private final boolean[] coils = new boolean[SIZE];
+    private final int[] holdingRegisters = new int[SIZE];
+
+    private final Map<Integer, Long> responseDelays = new ConcurrentHashMap<>();
+    private final AtomicInteger outstandingRequests = new AtomicInteger();
+    private final AtomicInteger maxOutstandingRequests = new AtomicInteger();
+    private final AtomicInteger receivedRequests = new AtomicInteger();
+
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService responder = Executors.newScheduledThreadPool(1);
+
+    private ServerSocket serverSocket;
+    private volatile long defaultResponseDelay;
+
+    public ModbusSlaveSimulator() {
+        for (int i = 0; i < SIZE; i++) {
+            this.holdingRegisters[i] = i;
+        }
+    }
+
+    public void start() throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+
+        final Thread acceptor = new Thread(() -> {
+            while (!this.serverSocket.isClosed()) {
+                try {
+                    final Socket socket = this.serverSocket.accept();
+                    socket.setTcpNoDelay(true);
+                    this.connections.add(socket);
+                    final Thread handler = new Thread(() -> handle(socket), "ModbusSlaveSimulator-connection");
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (IOException e) {
+                    logger.debug("ModbusSlaveSimulator stopped accepting connections", e);
+                }
+            }
+        }, "ModbusSlaveSimulator");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public void stop() throws IOException {
+        this.serverSocket.close();
+        this.responder.shutdownNow();
+
+        for (final Socket socket : this.connections) {
+            socket.close();
+        }
+    }
+
+    public int getPort() {
+        return this.serverSocket.getLocalPort();
+    }
+
+    public void setResponseDelay(final long delayMillis) {
+        this.defaultResponseDelay = delayMillis;
+    }
+
+    public void setResponseDelay(final int unitId, final long delayMillis) {
+        this.responseDelays.put(unitId, delayMillis);
+    }
+
+    public void setUnresponsive(final int unitId) {
+        this.responseDelays.put(unitId, NO_RESPONSE);
+    }
+
+    public int getMaxOutstandingRequests() {
+        return this.maxOutstandingRequests.get();
+    }
+
+    public int getReceivedRequests() {
+        return this.receivedRequests.get();
+    }
+
+    public synchronized boolean getCoil(final int address) {
+        return this.coils[address];
+    }
+
+    public synchronized int getHoldingRegister(final int address) {
+        return this.holdingRegisters[address];
+    }
+
+    private void handle(final Socket socket) {
+        try (final Socket s = socket;
+                final DataInputStream in = new DataInputStream(s.getInputStream());
+                final OutputStream out = s.getOutputStream()) {
+
+            while (true) {
+                final int transactionId = in.readUnsignedShort();
+                final int protocolId = in.readUnsignedShort();
+                final int length = in.readUnsignedShort();
+                final byte[] adu = new byte[length];
+                in.readFully(adu);
+
+                this.receivedRequests.incrementAndGet();
+
+                if (protocolId != 0 || length < 2) {
+                    continue;
+                }
+
+                final byte[] response = processRequest(adu);
+                final long delay = this.responseDelays.getOrDefault(adu[0] & 0xff, this.defaultResponseDelay);
+
+                if (delay == NO_RESPONSE) {
+                    continue;
+                }
+
+                final int outstanding = this.outstandingRequests.incrementAndGet();
+                this.maxOutstandingRequests.accumulateAndGet(outstanding, Math::max);
+
+                this.responder.schedule(() -> {
+                    this.outstandingRequests.decrementAndGet();
+                    send(out, transactionId, response);
+                }, delay, TimeUnit.MILLISECONDS);
+            }
+        } catch (EOFException e) {
+            // connection closed by the client
+        } catch (IOException e) {
+            logger.debug("ModbusSlaveSimulator connection closed", e);
+        } finally {
+            this.connections.remove(socket);
+        }
+    }
+
+    private void send(final OutputStream out, final int transactionId, final byte[] response) {
+        final byte[] frame = new byte[response.length + 6];
+        frame[0] = (byte) (transactionId >> 8);
+        frame[1] = (byte) transactionId;
+        frame[4] = (byte) (response.length >> 8);
+        frame[5] = (byte) response.length;
+        System.arraycopy(response, 0, frame, 6, response.length);
+
+        try {
+            synchronized (out) {
+                out.write(frame);
+                out.flush();
+            }
+        } catch (IOException e) {
+            logger.debug("ModbusSlaveSimulator failed to send response", e);
+        }
+    }
+
+    private synchronized byte[] processRequest(final byte[] adu) {
+        final int unitId = adu[0] & 0xff;
+        final int function = adu[1] & 0xff;
+
+        if (adu.length < 6) {
+            return exception(unitId, function, 3);
+        }
+
+        final int address = readUnsignedShort(adu, 2);
+        final int value = readUnsignedShort(adu, 4);
+
+        switch (function) {
+        case 1:
+        case 2:
+            if (address + value > SIZE) {
+                return exception(unitId, function, 2);
+            }
+            return readBits(unitId, function, address, value);
+        case 3:
+        case 4:
+            if (address + value > SIZE) {
+                return exception(unitId, function, 2);
+            }
+            return readRegisters(unitId, function, address, value);
+        case 5:
+            if (address >= SIZE) {
+                return exception(unitId, function, 2);
+            }
+            this.coils[address] = value == 0xff00;
+            return echo(adu);
+        case 6:
+            if (address >= SIZE) {
+                return exception(unitId, function, 2);
+            }
+            this.holdingRegisters[address] = value;
+            return echo(adu);
+        case 15:
+            if (address + value > SIZE) {
+                return exception(unitId, function, 2);
+            }
+            for (int i = 0; i < value; i++) {
+                this.coils[address + i] = (adu[7 + i / 8] & 1 << i % 8) != 0;
+            }
+            return echo(adu);
+        case 16:
+            if (address + value > SIZE) {
+                return exception(unitId, function, 2);
+            }
+            for (int i = 0; i < value; i++) {
+                this.holdingRegisters[address + i] = readUnsignedShort(adu, 7 + i * 2);
+            }
+            return echo(adu);
+        default:
+            return exception(unitId, function, 1);
+        }
+    }
+
+    private byte[] readBits(final int unitId, final int function, final int address, final int count) {
+        final byte[] response = new byte[3 + (count + 7) / 8];
+        response[0] = (byte) unitId;
+        response[1] = (byte) function;
+        response[2] = (byte) ((count + 7) / 8);
+
+        for (int i = 0; i < count; i++) {
+            if (function == 1 && this.coils[address + i]) {
+                response[3 + i / 8] |= 1 << i % 8;
+            }
+        }
+        return response;
+    }
+
+    private byte[] readRegisters(final int unitId, final int function, final int address, final int count) {
+        final byte[] response = new byte[3 + count * 2];
+        response[0] = (byte) unitId;
+        response[1] = (byte) function;
+        response[2] = (byte) (count * 2);
+
+        for (int i = 0; i < count; i++) {
+            final int value = function == 3 ? this.holdingRegisters[address + i] : address + i + INPUT_REGISTER_OFFSET;
+            response[3 + i * 2] = (byte) (value >> 8);
+            response[4 + i * 2] = (byte) value;
+        }
+        return response;
+    }
+
+    private static byte[] echo(final byte[] adu) {
+        final byte[] response = new byte[6];
+        System.arraycopy(adu, 0, response, 0, 6);
+        return response;
+    }
+
+    private static byte[] exception(final int unitId, final int function, final int code) {
+        return new byte[] { (byte) unitId, (byte) (function | 0x80), (byte) code };
+    }
+
+    private static int readUnsignedShort(final byte[] data, final int offset) {
+        return (data[offset] & 0xff) << 8 | data[offset + 1] & 0xff;
+    }
+}
@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.web.server;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.kura.web.shared.GwtKuraException;
+import org.eclipse.kura.web.shared.model.GwtLogEntry;
+import org.eclipse.kura.web.shared.model.GwtLogEntry.LogEntryKeys;
+import org.junit.Test;
+
+public class LogEntriesCacheTest {
+
+    private LogEntriesCache cache;
+    private List<GwtLogEntry> result;
+    private Exception occurredException;
+
+    @Test
+    public void shouldReturnEntriesAfterId() {
+        givenCache(10, 0);
+        givenEntries("a", "b", "c");
+
+        whenLogsAreRead(0);
+
+        thenMessagesAre("b", "c");
+        thenIdsAre(1, 2);
+    }
+
+    @Test
+    public void shouldKeepNewestEntriesWhenFull() {
+        givenCache(3, 0);
+        givenEntries("a", "b", "c", "d", "e");
+
+        whenLogsAreRead(0);
+
+        thenMessagesAre("c", "d", "e");
+        thenIdsAre(2, 3, 4);
+    }
+
+    @Test
+    public void shouldReturnNewEntriesAfterRingWraparound() {
+        givenCache(3, 0);
+        givenEntries("a", "b", "c", "d");
+
+        whenLogsAreRead(2);
+
+        thenMessagesAre("d");
+    }
+
+    @Test
+    public void shouldNotFailIfFromIdIsMaxValue() {
+        givenCache(10, 0);
+        givenEntries("a", "b");
+
+        whenLogsAreRead(Integer.MAX_VALUE);
+
+        thenNoExceptionOccurred();
+        thenMessagesAre("a", "b");
+    }
+
+    @Test
+    public void shouldReindexEntriesOnIdOverflow() {
+        givenCache(3, Integer.MAX_VALUE - 2);
+        givenEntries("a", "b", "c");
+
+        whenLogsAreRead(-1);
+
+        thenMessagesAre("a", "b", "c");
+        thenIdsAre(0, 1, 2);
+    }
+
+    @Test
+    public void shouldReturnAllEntriesToClientAheadOfReindexedIds() {
+        givenCache(3, Integer.MAX_VALUE - 2);
+        givenEntries("a", "b", "c");
+
+        whenLogsAreRead(Integer.MAX_VALUE - 1);
+
+        thenMessagesAre("a", "b", "c");
+    }
+
+    @Test
+    public void shouldFilterByMinimumPriority() throws GwtKuraException {
+        givenCache(10, 0);
+        givenEntry("debug", "DEBUG", "kura");
+        givenEntry("warn", "WARN", "kura");
+        givenEntry("journal error", "3", "kura");
+        givenEntry("unknown", "UNKNOWN", "kura");
+
+        whenLogsAreRead(-1, "WARN", null);
+
+        thenMessagesAre("warn", "journal error", "unknown");
+    }
+
+    @Test
+    public void shouldFilterBySyslogIdentifier() throws GwtKuraException {
+        givenCache(10, 0);
+        givenEntry("kura info", "INFO", "kura");
+        givenEntry("other info", "INFO", "other");
+        givenEntry("kura error", "ERROR", "kura");
+
+        whenLogsAreRead(-1, "INFO", "kura");
+
+        thenMessagesAre("kura info", "kura error");
+    }
+
+    @Test
+    public void shouldRejectUnknownPriority() {
+        givenCache(10, 0);
+
+        whenFilterIsCreated("VERBOSE");
+
+        thenExceptionOccurred(GwtKuraException.class);
+    }
+
+    /*
+     * Given
+     */
+
+    private void givenCache(int capacity, int firstEntryId) {
+        this.cache = new LogEntriesCache(capacity, firstEntryId);
+    }
+
+    private void givenEntries(String... messages) {
+        for (String message : messages) {
+            givenEntry(message, "INFO", "kura");
+        }
+    }
+
+    private void givenEntry(String message, String priority, String syslogIdentifier) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(LogEntryKeys.MESSAGE.getKey(), message);
+        properties.put(LogEntryKeys.PRIORITY.getKey(), priority);
+        properties.put(LogEntryKeys.SYSLOG_ID.getKey(), syslogIdentifier);
+
+        GwtLogEntry entry = new GwtLogEntry();
+        entry.setProperties(properties);
+        this.cache.add(entry);
+    }
+
+    /*
+     * When
+     */
+
+    private void whenLogsAreRead(int fromId) {
+        try {
+            this.result = this.cache.getLogs(fromId, entry -> true);
+        } catch (Exception e) {
+            this.occurredException = e;
+        }
+    }
+
+    private void whenLogsAreRead(int fromId, String minimumPriority, String syslogIdentifier)
+            throws GwtKuraException {
+        this.result = this.cache.getLogs(fromId, LogEntryFilter.create(minimumPriority, syslogIdentifier));
+    }
+
+    private void whenFilterIsCreated(String minimumPriority) {
+        try {
+            LogEntryFilter.create(minimumPriority, null);
+        } catch (Exception e) {
+            this.occurredException = e;
+        }
+    }
+
+    /*
+     * Then
+     */
+
+    private void thenMessagesAre(String... expectedMessages) {
+        List<String> messages = new ArrayList<>();
+        for (GwtLogEntry entry : this.result) {
+            messages.add(entry.getMessage());
+        }
+
+        assertEquals(Arrays.asList(expectedMessages), messages);
+    }
+
+    private void thenIdsAre(Integer... expectedIds) {
+        List<Integer> ids = new ArrayList<>();
+        for (GwtLogEntry entry : this.result) {
+            ids.add(entry.getId());
+        }
+
+        assertEquals(Arrays.asList(expectedIds), ids);
+    }
+
+    private void thenNoExceptionOccurred() {
+        assertEquals(null, this.occurredException);
+    }
+
+    private void thenExceptionOccurred(Class<? extends Exception> expectedException) {
+        assertEquals(expectedException, this.occurredException == null ? null : this.occurredException.getClass());
+    }
+}
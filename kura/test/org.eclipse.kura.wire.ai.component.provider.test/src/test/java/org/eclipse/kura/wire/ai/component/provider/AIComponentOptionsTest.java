@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2022, 2024 Eurotech and/or its affiliates and others
  *
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -30,10 +30,15 @@ public class AIComponentOptionsTest {
     private static final String PREPROCESSOR_MODEL_NAME = "preprocessor.model.name";
     private static final String INFERENCE_MODEL_NAME = "inference.model.name";
     private static final String POSTPROCESSOR_MODEL_NAME = "postprocessor.model.name";
+    private static final String BATCH_MAX_SIZE = "batch.max.size";
+    private static final String BATCH_MAX_LATENCY = "batch.max.latency";
 
     private Optional<String> preprocessorName;
     private String inferenceName;
     private Optional<String> postprocessorName;
+    private int batchMaxSize;
+    private long batchMaxLatency;
+    private boolean batchingEnabled;
 
     /*
      * Scenarios
@@ -82,6 +87,39 @@ public class AIComponentOptionsTest {
         thenPostprocessorModelNameIsEmpty();
     }
 
+    @Test
+    public void batchingShouldBeDisabledByDefault() {
+        givenOptionsNotPopulated();
+
+        whenAccessingBatchFields();
+
+        thenBatchMaxSizeIs(1);
+        thenBatchMaxLatencyIs(10);
+        thenBatchingIsEnabled(false);
+    }
+
+    @Test
+    public void getBatchPropertiesWorksWhenSpecified() {
+        givenOptionsPopulatedWithBatch(16, 50);
+
+        whenAccessingBatchFields();
+
+        thenBatchMaxSizeIs(16);
+        thenBatchMaxLatencyIs(50);
+        thenBatchingIsEnabled(true);
+    }
+
+    @Test
+    public void getBatchPropertiesReturnsDefaultsWhenInvalid() {
+        givenOptionsPopulatedWithBatch(0, -5);
+
+        whenAccessingBatchFields();
+
+        thenBatchMaxSizeIs(1);
+        thenBatchMaxLatencyIs(10);
+        thenBatchingIsEnabled(false);
+    }
+
     /*
      * Given
      */
@@ -95,6 +133,15 @@ public class AIComponentOptionsTest {
         optionsInstance = new AIComponentOptions(prop);
     }
 
+    private void givenOptionsPopulatedWithBatch(int maxSize, int maxLatency) {
+        Map<String, Object> prop = new HashMap<>();
+
+        prop.put(BATCH_MAX_SIZE, maxSize);
+        prop.put(BATCH_MAX_LATENCY, maxLatency);
+
+        optionsInstance = new AIComponentOptions(prop);
+    }
+
     private void givenOptionsNotPopulated() {
         Map<String, Object> prop = new HashMap<>();
         optionsInstance = new AIComponentOptions(prop);
@@ -109,9 +156,27 @@ public class AIComponentOptionsTest {
         postprocessorName = optionsInstance.getPostprocessorModelName();
     }
 
+    private void whenAccessingBatchFields() {
+        batchMaxSize = optionsInstance.getBatchMaxSize();
+        batchMaxLatency = optionsInstance.getBatchMaxLatency();
+        batchingEnabled = optionsInstance.isBatchingEnabled();
+    }
+
     /*
      * Then
      */
+    private void thenBatchMaxSizeIs(int expected) {
+        assertEquals(expected, batchMaxSize);
+    }
+
+    private void thenBatchMaxLatencyIs(long expected) {
+        assertEquals(expected, batchMaxLatency);
+    }
+
+    private void thenBatchingIsEnabled(boolean expected) {
+        assertEquals(expected, batchingEnabled);
+    }
+
     private void thenPreprocessorModelNameIs(String expectedName) {
         assertTrue(preprocessorName.isPresent());
         assertEquals(expectedName, preprocessorName.get());
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2022, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -16,13 +16,18 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.ArgumentMatchers.any;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
 
 import org.eclipse.kura.ai.inference.ModelInfo;
@@ -46,12 +51,16 @@ public class AIComponentTest {
     private static final String PREPROCESSOR_MODEL_NAME = "preprocessor.model.name";
     private static final String INFERENCE_MODEL_NAME = "inference.model.name";
     private static final String POSTPROCESSOR_MODEL_NAME = "postprocessor.model.name";
+    private static final String BATCH_MAX_SIZE = "batch.max.size";
+    private static final String BATCH_MAX_LATENCY = "batch.max.latency";
 
     private AIComponent aiComponent;
     private Map<String, Object> compProperties;
     private InferenceEngineServiceMock engine;
     private WireEnvelope inputEnvelope;
+    private WireSupport wireSupport;
     private boolean exceptionsOccurred;
+    private boolean updateCompleted;
 
     /*
      * Scenarios
@@ -130,6 +139,108 @@ public class AIComponentTest {
         thenNoExceptionsOccurred();
     }
 
+    @Test
+    public void shouldInferOncePerModelForFullBatch() {
+        givenInferenceEngine();
+        givenInputEnvelope(3);
+        givenWireProperties("preprocessor", "infer", "postprocessor");
+        givenBatching(3, 10000);
+        givenModelInfo("preprocessor", -1);
+        givenModelInfo("infer", -1);
+        givenModelInfo("postprocessor", -1);
+        givenActivate();
+
+        whenOnWireReceive(this.inputEnvelope);
+
+        thenInferIsCalled(3);
+        thenEmitIsCalled(3);
+        thenNoExceptionsOccurred();
+    }
+
+    @Test
+    public void shouldInferPartialBatchAfterMaxLatency() {
+        givenInferenceEngine();
+        givenInputEnvelope(2);
+        givenWireProperties("", "infer", "");
+        givenBatching(10, 10);
+        givenModelInfo("infer", -1);
+        givenActivate();
+
+        whenOnWireReceive(this.inputEnvelope);
+
+        thenEmitIsCalled(2);
+        thenInferIsCalled(1);
+        thenNoExceptionsOccurred();
+    }
+
+    @Test
+    public void shouldInferEachRecordIfModelIsNotBatchable() {
+        givenInferenceEngine();
+        givenInputEnvelope(3);
+        givenWireProperties("", "infer", "");
+        givenBatching(3, 10000);
+        givenModelInfo("infer", 1);
+        givenActivate();
+
+        whenOnWireReceive(this.inputEnvelope);
+
+        thenInferIsCalled(3);
+        thenEmitIsCalled(3);
+        thenNoExceptionsOccurred();
+    }
+
+    @Test
+    public void shouldInferPendingRecordsOnDeactivate() {
+        givenInferenceEngine();
+        givenInputEnvelope(2);
+        givenWireProperties("", "infer", "");
+        givenBatching(10, 10000);
+        givenModelInfo("infer", -1);
+        givenActivate();
+        givenOnWireReceive(this.inputEnvelope);
+
+        whenDeactivate();
+
+        thenInferIsCalled(1);
+        thenEmitIsCalled(2);
+        thenNoExceptionsOccurred();
+    }
+
+    @Test
+    public void shouldNotInferFromTheCompletionCallbackOfThePreviousModel() {
+        givenAsyncInferenceEngine();
+        givenInputEnvelope(2);
+        givenWireProperties("pre", "infer", "post");
+        givenBatching(2, 10000);
+        givenModelInfo("pre", -1);
+        givenModelInfo("infer", -1);
+        givenModelInfo("post", -1);
+        givenActivate();
+
+        whenOnWireReceive(this.inputEnvelope);
+
+        thenEmitIsCalled(2);
+        thenInferIsCalled(3);
+        thenInferIsNotCalledFromCallback();
+        thenNoExceptionsOccurred();
+    }
+
+    @Test
+    public void shouldNotDeadlockIfUpdatedDuringTimedFlush() {
+        givenInferenceEngine();
+        givenInputEnvelope(1);
+        givenWireProperties("", "infer", "");
+        givenBatching(10, 10);
+        givenModelInfo("infer", -1);
+        givenActivate();
+
+        whenUpdatedDuringTimedFlush(this.inputEnvelope);
+
+        thenUpdateIsCompleted();
+        thenEmitIsCalled(1);
+        thenNoExceptionsOccurred();
+    }
+
     /*
      * Steps
      */
@@ -144,6 +255,11 @@ public class AIComponentTest {
         this.aiComponent.bindInferenceEngineService(this.engine);
     }
 
+    private void givenAsyncInferenceEngine() {
+        givenInferenceEngine();
+        this.engine.setAsyncCompletion();
+    }
+
     private void givenNotReadyInferenceEngine() {
         this.engine = new InferenceEngineServiceMock();
         this.engine.setEngineNotReady();
@@ -175,7 +291,20 @@ public class AIComponentTest {
         this.aiComponent.activate(mockContext, this.compProperties);
     }
 
+    private void givenBatching(int maxSize, int maxLatency) {
+        this.compProperties.put(BATCH_MAX_SIZE, maxSize);
+        this.compProperties.put(BATCH_MAX_LATENCY, maxLatency);
+    }
+
+    private void givenOnWireReceive(WireEnvelope env) {
+        whenOnWireReceive(env);
+    }
+
     private void givenInputEnvelope() {
+        givenInputEnvelope(1);
+    }
+
+    private void givenInputEnvelope(int recordCount) {
         List<WireRecord> records = new ArrayList<>();
         Map<String, TypedValue<?>> recordProps = new HashMap<String, TypedValue<?>>() {
             private static final long serialVersionUID = 1L;
@@ -190,15 +319,21 @@ public class AIComponentTest {
             }
         };
 
-        records.add(new WireRecord(recordProps));
+        for (int i = 0; i < recordCount; i++) {
+            records.add(new WireRecord(recordProps));
+        }
         this.inputEnvelope = new WireEnvelope("example_asset_pid", records);
     }
 
     private void givenModelInfo(String modelName) {
+        givenModelInfo(modelName, 1);
+    }
+
+    private void givenModelInfo(String modelName, long firstDimension) {
         List<Long> inputShape = new ArrayList<>();
         List<Long> outputShape = new ArrayList<>();
-        inputShape.add((long) 1);
-        outputShape.add((long) 1);
+        inputShape.add(firstDimension);
+        outputShape.add(firstDimension);
 
         List<TensorDescriptor> inDescs = new ArrayList<>();
         inDescs.add(new TensorDescriptor("IN_INT", "", Optional.empty(), inputShape, new HashMap<String, Object>()));
@@ -240,12 +375,70 @@ public class AIComponentTest {
         }
     }
 
+    /*
+     * Holds the component lock, as updated() does, until the timed flush is blocked waiting for it, then updates the
+     * component.
+     */
+    private void whenUpdatedDuringTimedFlush(WireEnvelope env) {
+        final Thread updater = new Thread(() -> {
+            synchronized (this.aiComponent) {
+                whenOnWireReceive(env);
+                awaitFlushBlockedOnComponent();
+                this.aiComponent.updated(this.compProperties);
+            }
+        });
+        updater.setDaemon(true);
+        updater.start();
+
+        try {
+            updater.join(10000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.updateCompleted = !updater.isAlive();
+    }
+
+    private void awaitFlushBlockedOnComponent() {
+        final long deadline = System.currentTimeMillis() + 10000;
+
+        while (System.currentTimeMillis() < deadline) {
+            for (Entry<Thread, StackTraceElement[]> thread : Thread.getAllStackTraces().entrySet()) {
+                if (thread.getKey().getState() == Thread.State.BLOCKED && Arrays.stream(thread.getValue())
+                        .anyMatch(frame -> "inferenceProcessAsync".equals(frame.getMethodName()))) {
+                    return;
+                }
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        this.exceptionsOccurred = true;
+        logger.error("Timed flush not started");
+    }
+
+    private void whenDeactivate() {
+        this.aiComponent.deactivate();
+    }
+
     /*
      * Then
      */
 
+    private void thenEmitIsCalled(int nTimes) {
+        verify(this.wireSupport, timeout(10000).times(nTimes)).emit(any());
+    }
+
     private void thenInferIsCalled(int nTimes) {
         try {
+            // batched requests are sent asynchronously from the component executor
+            final long deadline = System.currentTimeMillis() + 10000;
+            while (this.engine.wasCalledTimes() < nTimes && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
             assertEquals(nTimes, this.engine.wasCalledTimes());
         } catch (Exception e) {
             this.exceptionsOccurred = true;
@@ -253,6 +446,14 @@ public class AIComponentTest {
         }
     }
 
+    private void thenInferIsNotCalledFromCallback() {
+        assertFalse(this.engine.wasCalledFromCallback());
+    }
+
+    private void thenUpdateIsCompleted() {
+        assertTrue(this.updateCompleted);
+    }
+
     private void thenNoExceptionsOccurred() {
         assertFalse(this.exceptionsOccurred);
     }
@@ -271,8 +472,8 @@ public class AIComponentTest {
 
         // wire dependencies
         WireHelperService wireHelperService = mock(WireHelperService.class);
-        WireSupport wireSupport = mock(WireSupport.class);
-        when(wireHelperService.newWireSupport(any(), any())).thenReturn(wireSupport);
+        this.wireSupport = mock(WireSupport.class);
+        when(wireHelperService.newWireSupport(any(), any())).thenReturn(this.wireSupport);
         this.aiComponent.bindWireHelperService(wireHelperService);
 
         this.exceptionsOccurred = false;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2022, 2024 Eurotech and/or its affiliates and others
  *
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -16,6 +16,11 @@ package org.eclipse.kura.wire.ai.component.provider;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.kura.KuraErrorCode;
 import org.eclipse.kura.KuraException;
@@ -28,11 +33,25 @@ public class InferenceEngineServiceMock implements InferenceEngineService {
 
     private List<ModelInfo> models;
     private boolean isEngineReady;
-    private int timesCalled = 0;
+    private final AtomicInteger timesCalled = new AtomicInteger();
+    private final AtomicBoolean calledFromCallback = new AtomicBoolean();
+    private ExecutorService callbackExecutor;
+    private Thread callbackThread;
 
     public InferenceEngineServiceMock() {
         this.models = new ArrayList<>();
-        this.timesCalled = 0;
+    }
+
+    /*
+     * Completes the futures returned by inferAsync() from a dedicated callback thread, as an engine using a
+     * non-blocking client does.
+     */
+    public void setAsyncCompletion() {
+        this.callbackExecutor = Executors.newSingleThreadExecutor(r -> {
+            this.callbackThread = new Thread(r, "InferenceEngineServiceMock callback");
+            this.callbackThread.setDaemon(true);
+            return this.callbackThread;
+        });
     }
 
     public void setEngineReady() {
@@ -48,12 +67,37 @@ public class InferenceEngineServiceMock implements InferenceEngineService {
     }
 
     public int wasCalledTimes() {
-        return this.timesCalled;
+        return this.timesCalled.get();
+    }
+
+    public boolean wasCalledFromCallback() {
+        return this.calledFromCallback.get();
+    }
+
+    @Override
+    public CompletableFuture<List<Tensor>> inferAsync(ModelInfo modelInfo, List<Tensor> inputData) {
+        if (this.callbackExecutor == null) {
+            return InferenceEngineService.super.inferAsync(modelInfo, inputData);
+        }
+
+        if (Thread.currentThread() == this.callbackThread) {
+            this.calledFromCallback.set(true);
+        }
+
+        final CompletableFuture<List<Tensor>> result = new CompletableFuture<>();
+        this.callbackExecutor.execute(() -> {
+            try {
+                result.complete(infer(modelInfo, inputData));
+            } catch (KuraException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
     }
 
     @Override
     public List<Tensor> infer(ModelInfo modelInfo, List<Tensor> inputData) throws KuraException {
-        this.timesCalled++;
+        this.timesCalled.incrementAndGet();
 
         if (!this.isEngineReady) {
             throw new KuraException(KuraErrorCode.BAD_REQUEST);
@@ -61,10 +105,16 @@ public class InferenceEngineServiceMock implements InferenceEngineService {
 
         List<Tensor> inferResult = new ArrayList<>();
 
+        // one output element for each element of the first input, that is one for each record of a batch
+        int outputSize = inputData.isEmpty() ? 1 : ((List<?>) inputData.get(0).getData(inputData.get(0).getType())
+                .orElse(new ArrayList<>())).size();
+
         for (ModelInfo model : this.models) {
             for (TensorDescriptor outDesc : model.getOutputs()) {
                 List<Object> tensorData = new ArrayList<>();
-                tensorData.add((Object) 0);
+                for (int i = 0; i < outputSize; i++) {
+                    tensorData.add((Object) 0);
+                }
                 inferResult.add(new Tensor(Object.class, outDesc, tensorData));
             }
         }
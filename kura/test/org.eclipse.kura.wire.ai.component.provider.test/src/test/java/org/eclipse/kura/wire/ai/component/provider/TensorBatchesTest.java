@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ ******************************************************************************/
+
+package org.eclipse.kura.wire.ai.component.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+
+import org.eclipse.kura.KuraIOException;
+import org.eclipse.kura.ai.inference.Tensor;
+import org.eclipse.kura.ai.inference.TensorDescriptor;
+import org.junit.Test;
+
+public class TensorBatchesTest {
+
+    private final List<List<Tensor>> batch = new ArrayList<>();
+    private List<Tensor> tensors;
+    private List<Tensor> concatenated;
+    private List<List<Tensor>> split;
+    private boolean exceptionOccurred;
+
+    /*
+     * Scenarios
+     */
+    @Test
+    public void shouldBeBatchableWithDynamicFirstDimension() {
+        assertTrue(TensorBatches.isBatchable(Arrays.asList(descriptor("IN0", -1L, 3L), descriptor("IN1", -1L))));
+    }
+
+    @Test
+    public void shouldNotBeBatchableWithFixedFirstDimension() {
+        assertFalse(TensorBatches.isBatchable(Arrays.asList(descriptor("IN0", -1L, 3L), descriptor("IN1", 1L))));
+    }
+
+    @Test
+    public void shouldConcatListTensors() {
+        givenRecordTensor(new Tensor(Integer.class, descriptor("IN0", -1L), Arrays.asList(1, 2)));
+        givenRecordTensor(new Tensor(Integer.class, descriptor("IN0", -1L), Arrays.asList(3, 4)));
+
+        whenConcat();
+
+        thenNoExceptionOccurred();
+        thenConcatenatedShapeIs(2L);
+        thenConcatenatedDataIs(Integer.class, Arrays.asList(1, 2, 3, 4));
+    }
+
+    @Test
+    public void shouldConcatBufferBackedTensorsWithoutBoxing() {
+        givenRecordTensor(new Tensor(descriptor("IN0", -1L), new float[] { 1.5f, 2.5f }));
+        givenRecordTensor(new Tensor(descriptor("IN0", -1L), new float[] { 3.5f, 4.5f }));
+
+        whenConcat();
+
+        thenNoExceptionOccurred();
+        thenConcatenatedIsBufferBacked();
+        thenConcatenatedDataIs(Float.class, Arrays.asList(1.5f, 2.5f, 3.5f, 4.5f));
+    }
+
+    @Test
+    public void shouldNotConcatTensorsOfDifferentTypes() {
+        givenRecordTensor(new Tensor(Integer.class, descriptor("IN0", -1L), Arrays.asList(1, 2)));
+        givenRecordTensor(new Tensor(Long.class, descriptor("IN0", -1L), Arrays.asList(3L, 4L)));
+
+        whenConcat();
+
+        thenExceptionOccurred();
+    }
+
+    @Test
+    public void shouldSplitListTensors() {
+        givenTensors(new Tensor(Double.class, descriptor("OUT0", 3L), Arrays.asList(1d, 2d, 3d)));
+
+        whenSplit(3);
+
+        thenNoExceptionOccurred();
+        thenSplitDataIs(1, Double.class, Collections.singletonList(2d));
+    }
+
+    @Test
+    public void shouldSplitBufferBackedTensorsWithoutCopy() {
+        ByteBuffer bytes = ByteBuffer.allocate(4 * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.putLong(10).putLong(20).putLong(30).putLong(40).flip();
+        givenTensors(new Tensor(Long.class, descriptor("OUT0", 2L, 2L), bytes));
+
+        whenSplit(2);
+
+        thenNoExceptionOccurred();
+        thenSplitDataIs(0, Long.class, Arrays.asList(10L, 20L));
+        thenSplitDataIs(1, Long.class, Arrays.asList(30L, 40L));
+        thenSplitByteOrderIs(1, ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Test
+    public void shouldNotSplitIfNotDivisible() {
+        givenTensors(new Tensor(Double.class, descriptor("OUT0", 3L), Arrays.asList(1d, 2d, 3d)));
+
+        whenSplit(2);
+
+        thenExceptionOccurred();
+    }
+
+    /*
+     * Given
+     */
+    private void givenRecordTensor(Tensor tensor) {
+        this.batch.add(Collections.singletonList(tensor));
+    }
+
+    private void givenTensors(Tensor... tensors) {
+        this.tensors = Arrays.asList(tensors);
+    }
+
+    /*
+     * When
+     */
+    private void whenConcat() {
+        try {
+            this.concatenated = TensorBatches.concat(this.batch);
+        } catch (KuraIOException e) {
+            this.exceptionOccurred = true;
+        }
+    }
+
+    private void whenSplit(int batchSize) {
+        try {
+            this.split = TensorBatches.split(this.tensors, batchSize);
+        } catch (KuraIOException e) {
+            this.exceptionOccurred = true;
+        }
+    }
+
+    /*
+     * Then
+     */
+    private void thenNoExceptionOccurred() {
+        assertFalse(this.exceptionOccurred);
+    }
+
+    private void thenExceptionOccurred() {
+        assertTrue(this.exceptionOccurred);
+    }
+
+    private void thenConcatenatedShapeIs(Long... shape) {
+        assertEquals(Arrays.asList(shape), this.concatenated.get(0).getDescriptor().getShape());
+    }
+
+    private void thenConcatenatedIsBufferBacked() {
+        assertTrue(this.concatenated.get(0).isBufferBacked());
+    }
+
+    private <T> void thenConcatenatedDataIs(Class<T> type, List<T> expected) {
+        assertEquals(Optional.of(expected), this.concatenated.get(0).getData(type));
+    }
+
+    private <T> void thenSplitDataIs(int record, Class<T> type, List<T> expected) {
+        Tensor tensor = this.split.get(record).get(0);
+
+        assertEquals(Optional.of(expected), tensor.getData(type));
+        assertEquals(Long.valueOf(1), tensor.getDescriptor().getShape().get(0));
+    }
+
+    private void thenSplitByteOrderIs(int record, ByteOrder order) {
+        assertEquals(order, this.split.get(record).get(0).getByteBuffer().get().order());
+    }
+
+    /*
+     * Utilities
+     */
+    private static TensorDescriptor descriptor(String name, Long... shape) {
+        return new TensorDescriptor(name, "", Optional.empty(), Arrays.asList(shape), new HashMap<>());
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2022, 2024 Eurotech and/or its affiliates and others
  *
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -18,6 +18,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -83,6 +84,32 @@ public class TensorListAdapterTest {
         thenResultingNamedTensorIsEqualTo("INPUT0", Byte.class, Arrays.asList((byte) 1, (byte) 2, (byte) 3, (byte) 4));
     }
 
+    @Test
+    public void adapterShouldWrapByteArrayWiredRecord() {
+        byte[] value = new byte[] { 1, 2, 3, 4 };
+        givenWireRecordPropWith("INPUT0", new ByteArrayValue(value));
+        givenWireRecord();
+        givenTensorDescriptorWith("INPUT0", "BYTES", Arrays.asList(1L, 1L));
+
+        whenTensorListAdapterConvertsFromWireRecord();
+
+        thenNoExceptionOccurred();
+        thenResultingNamedTensorIsBufferBacked("INPUT0");
+        thenResultingNamedTensorBytesAre("INPUT0", value);
+    }
+
+    @Test
+    public void adapterShouldWorkWithBufferBackedByteTensor() {
+        givenTensorDescriptorWith("OUTPUT0", "BYTES", Arrays.asList(1L, 4L));
+        givenBufferBackedTensorWith("OUTPUT0", "BYTES", Arrays.asList(1L, 4L), new byte[] { 5, 6, 7, 8 });
+
+        whenTensorListAdapterConvertsFromTensorList();
+
+        thenNoExceptionOccurred();
+        thenResultingWireRecordIsSize(1);
+        thenResultingNamedWireRecordPropertiesAreEqualTo("OUTPUT0", new ByteArrayValue(new byte[] { 5, 6, 7, 8 }));
+    }
+
     @Test
     public void adapterShouldWorkWithFloatWiredRecord() {
         givenWireRecordPropWith("INPUT0", new FloatValue(1.0F));
@@ -340,6 +367,12 @@ public class TensorListAdapterTest {
         this.inputTensors.add(tensor);
     }
 
+    private void givenBufferBackedTensorWith(String name, String type, List<Long> shape, byte[] data) {
+        TensorDescriptor descriptor = new TensorDescriptor(name, type, Optional.empty(), shape, new HashMap<>());
+
+        this.inputTensors.add(new Tensor(descriptor, data));
+    }
+
     /*
      * When
      */
@@ -403,6 +436,24 @@ public class TensorListAdapterTest {
         assertEquals(expectedData, data.get());
     }
 
+    private void thenResultingNamedTensorIsBufferBacked(String name) {
+        Tensor tensor = findTensorByName(name, outputTensors);
+
+        assertNotNull(tensor);
+        assertTrue(tensor.isBufferBacked());
+    }
+
+    private void thenResultingNamedTensorBytesAre(String name, byte[] expectedData) {
+        Tensor tensor = findTensorByName(name, outputTensors);
+
+        assertNotNull(tensor);
+
+        Optional<ByteBuffer> bytes = tensor.getByteBuffer();
+
+        assertTrue(bytes.isPresent());
+        assertEquals(ByteBuffer.wrap(expectedData), bytes.get());
+    }
+
     private Tensor findTensorByName(String name, List<Tensor> tensorList) {
         for (Tensor currTensor : tensorList) {
             String currTensorName = currTensor.getDescriptor().getName();
@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.asset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.kura.channel.ChannelFlag;
+import org.eclipse.kura.channel.ChannelRecord;
+import org.eclipse.kura.channel.ChannelStatus;
+import org.eclipse.kura.type.DataType;
+import org.eclipse.kura.type.TypedValues;
+import org.junit.After;
+import org.junit.Test;
+
+public class ChannelEventBatcherTest {
+
+    private final List<List<ChannelRecord>> batches = new CopyOnWriteArrayList<>();
+    private final CountDownLatch firstBatch = new CountDownLatch(1);
+    private final List<ChannelEventBatcher> otherBatchers = new ArrayList<>();
+    private ChannelEventBatcher batcher;
+
+    @Test
+    public void shouldCoalesceEventsReceivedInWindow() throws InterruptedException {
+        givenBatcher(200, 100);
+
+        whenEventIsReceived("foo", 1);
+        whenEventIsReceived("bar", 2);
+        whenEventIsReceived("foo", 3);
+
+        thenNoBatchIsEmitted();
+        thenBatchIsEmittedWithin(5, TimeUnit.SECONDS);
+        thenEmittedBatchCountIs(1);
+        thenBatchContains(0, "foo", 3);
+        thenBatchContains(0, "bar", 2);
+        thenBatchSizeIs(0, 2);
+    }
+
+    @Test
+    public void shouldEmitAsSoonAsMaxEventsIsReached() {
+        givenBatcher(60000, 3);
+
+        whenEventIsReceived("foo", 1);
+        whenEventIsReceived("foo", 2);
+        whenEventIsReceived("bar", 3);
+
+        thenEmittedBatchCountIs(1);
+        thenBatchSizeIs(0, 2);
+        thenBatchContains(0, "foo", 2);
+    }
+
+    @Test
+    public void shouldCountEventsAndBatches() {
+        givenBatcher(60000, 2);
+
+        whenEventIsReceived("foo", 1);
+        whenEventIsReceived("foo", 2);
+        whenEventIsReceived("foo", 3);
+        whenEventIsReceived("bar", 4);
+        whenEventIsReceived("foo", 5);
+
+        thenReceivedEventCountIs(5);
+        thenEmittedBatchCountIs(2);
+    }
+
+    @Test
+    public void shouldDiscardPendingEventsOnClose() throws InterruptedException {
+        givenBatcher(100, 100);
+        givenEventReceived("foo", 1);
+
+        whenBatcherIsClosed();
+
+        thenNoBatchIsEmittedWithin(500, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void shouldShareTimerThreadBetweenBatchers() {
+        givenBatcher(60000, 100);
+        givenOtherBatchersWithPendingEvents(20);
+
+        whenEventIsReceived("foo", 1);
+
+        thenBatcherThreadCountIsLessThan(20);
+    }
+
+    @Test
+    public void shouldFlushAfterAnotherBatcherIsClosed() throws InterruptedException {
+        givenOtherBatchersWithPendingEvents(1);
+        givenBatcher(200, 100);
+        givenOtherBatchersClosed();
+
+        whenEventIsReceived("foo", 1);
+
+        thenBatchIsEmittedWithin(5, TimeUnit.SECONDS);
+        thenBatchContains(0, "foo", 1);
+    }
+
+    @After
+    public void closeBatcher() {
+        if (this.batcher != null) {
+            this.batcher.close();
+        }
+
+        this.otherBatchers.forEach(ChannelEventBatcher::close);
+    }
+
+    private void givenBatcher(final long windowMs, final int maxEvents) {
+        this.batcher = new ChannelEventBatcher("test", windowMs, TimeUnit.MILLISECONDS, maxEvents, batch -> {
+            this.batches.add(batch);
+            this.firstBatch.countDown();
+        });
+    }
+
+    private void givenOtherBatchersWithPendingEvents(final int count) {
+        for (int i = 0; i < count; i++) {
+            final ChannelEventBatcher other = new ChannelEventBatcher("other" + i, 60000, TimeUnit.MILLISECONDS, 100,
+                    batch -> {
+                    });
+            other.add(ChannelRecord.createReadRecord("foo", DataType.INTEGER));
+            this.otherBatchers.add(other);
+        }
+    }
+
+    private void givenOtherBatchersClosed() {
+        this.otherBatchers.forEach(ChannelEventBatcher::close);
+    }
+
+    private void givenEventReceived(final String channelName, final int value) {
+        whenEventIsReceived(channelName, value);
+    }
+
+    private void whenEventIsReceived(final String channelName, final int value) {
+        final ChannelRecord channelRecord = ChannelRecord.createReadRecord(channelName, DataType.INTEGER);
+        channelRecord.setValue(TypedValues.newIntegerValue(value));
+        channelRecord.setChannelStatus(new ChannelStatus(ChannelFlag.SUCCESS));
+        channelRecord.setTimestamp(System.currentTimeMillis());
+
+        this.batcher.add(channelRecord);
+    }
+
+    private void whenBatcherIsClosed() {
+        this.batcher.close();
+    }
+
+    private void thenBatcherThreadCountIsLessThan(final int expectedMax) {
+        final long count = Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> t.getName().startsWith("WireAssetEventBatcher")).count();
+
+        assertTrue("found " + count + " batcher threads", count < expectedMax);
+    }
+
+    private void thenNoBatchIsEmitted() {
+        assertTrue(this.batches.isEmpty());
+    }
+
+    private void thenBatchIsEmittedWithin(final long timeout, final TimeUnit unit) throws InterruptedException {
+        assertTrue(this.firstBatch.await(timeout, unit));
+    }
+
+    private void thenNoBatchIsEmittedWithin(final long timeout, final TimeUnit unit) throws InterruptedException {
+        assertTrue(!this.firstBatch.await(timeout, unit));
+    }
+
+    private void thenEmittedBatchCountIs(final int expectedCount) {
+        assertEquals(expectedCount, this.batches.size());
+        assertEquals(expectedCount, this.batcher.getEmittedBatchCount());
+    }
+
+    private void thenReceivedEventCountIs(final long expectedCount) {
+        assertEquals(expectedCount, this.batcher.getReceivedEventCount());
+    }
+
+    private void thenBatchSizeIs(final int index, final int expectedSize) {
+        assertEquals(expectedSize, this.batches.get(index).size());
+    }
+
+    private void thenBatchContains(final int index, final String channelName, final int expectedValue) {
+        final ChannelRecord channelRecord = this.batches.get(index).stream()
+                .filter(r -> channelName.equals(r.getChannelName())).findAny()
+                .orElseThrow(() -> new AssertionError("channel " + channelName + " not found in batch"));
+
+        assertEquals(TypedValues.newIntegerValue(expectedValue), channelRecord.getValue());
+    }
+}
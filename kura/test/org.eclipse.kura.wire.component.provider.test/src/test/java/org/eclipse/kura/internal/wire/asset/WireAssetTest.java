@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2022 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -28,6 +28,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.kura.asset.provider.AssetConstants;
 import org.eclipse.kura.channel.Channel;
@@ -35,6 +36,8 @@ import org.eclipse.kura.channel.ChannelFlag;
 import org.eclipse.kura.channel.ChannelRecord;
 import org.eclipse.kura.channel.ChannelStatus;
 import org.eclipse.kura.channel.ChannelType;
+import org.eclipse.kura.channel.listener.ChannelEvent;
+import org.eclipse.kura.channel.listener.ChannelListener;
 import org.eclipse.kura.configuration.ConfigurationService;
 import org.eclipse.kura.driver.Driver;
 import org.eclipse.kura.driver.Driver.ConnectionException;
@@ -406,4 +409,93 @@ public class WireAssetTest {
         verify(mockDriver, times(5)).read(any());
     }
 
+    @Test
+    public void testBatchedEventsDoNotReuseReadRecords() throws ConnectionException {
+        final Map<String, Object> wireAssetProperties = new HashMap<>();
+
+        wireAssetProperties.put(AssetConstants.ASSET_DESC_PROP.value(), "description");
+        wireAssetProperties.put(AssetConstants.ASSET_DRIVER_PROP.value(), "driverPid");
+        wireAssetProperties.put(ConfigurationService.KURA_SERVICE_PID, "componentName");
+        wireAssetProperties.put(WireAssetOptions.EMIT_ALL_CHANNELS_PROP_NAME, true);
+        wireAssetProperties.put(WireAssetOptions.LISTENER_BATCH_WINDOW_PROP_NAME, 60000);
+        wireAssetProperties.put(WireAssetOptions.LISTENER_BATCH_MAX_EVENTS_PROP_NAME, 1);
+
+        final Channel polledChannel = new Channel("polled", ChannelType.READ, DataType.INTEGER,
+                Collections.emptyMap());
+        final Channel listenedChannel = new Channel("listened", ChannelType.READ, DataType.INTEGER,
+                Collections.emptyMap());
+
+        putChannel(polledChannel, wireAssetProperties);
+        putChannel(listenedChannel, wireAssetProperties);
+        wireAssetProperties.put(listenedChannel.getName() + AssetConstants.CHANNEL_PROPERTY_SEPARATOR.value()
+                + WireAssetConstants.LISTEN_PROP_NAME.value(), true);
+
+        final WireAsset wireAsset = new WireAsset();
+
+        final WireSupport mockWireSupport = mock(WireSupport.class);
+        final WireHelperService wireHelperService = mock(WireHelperService.class);
+
+        when(wireHelperService.newWireSupport(any(), any())).thenReturn(mockWireSupport);
+
+        wireAsset.bindWireHelperService(wireHelperService);
+
+        final ComponentContext mockComponentContext = mock(ComponentContext.class);
+        when(mockComponentContext.getBundleContext()).thenReturn(mock(BundleContext.class));
+
+        wireAsset.activate(mockComponentContext, wireAssetProperties);
+
+        final Driver mockDriver = mock(Driver.class);
+        final List<ChannelRecord> readRecords = new ArrayList<>();
+        final AtomicReference<ChannelListener> channelListener = new AtomicReference<>();
+
+        doAnswer(invocation -> {
+            final List<ChannelRecord> records = invocation.getArgument(0);
+
+            for (final ChannelRecord record : records) {
+                record.setValue(new IntegerValue(1));
+                record.setTimestamp(42);
+                record.setChannelStatus(new ChannelStatus(ChannelFlag.SUCCESS));
+            }
+
+            readRecords.addAll(records);
+
+            return null;
+        }).when(mockDriver).read(any());
+
+        doAnswer(invocation -> {
+            channelListener.set(invocation.getArgument(1));
+            return null;
+        }).when(mockDriver).registerChannelListener(any(), any());
+
+        when(mockDriver.getChannelDescriptor()).thenReturn(Collections::emptyList);
+
+        wireAsset.setDriver(mockDriver);
+        sync(wireAsset);
+
+        wireAsset.onWireReceive(new WireEnvelope("pid", Collections.emptyList()));
+
+        // a prepared read updates the same records on the next read
+        readRecords.forEach(r -> r.setValue(new IntegerValue(2)));
+
+        final List<Map<String, TypedValue<?>>> emitted = new ArrayList<>();
+
+        doAnswer(invocation -> {
+            final List<WireRecord> wireRecords = invocation.getArgument(0);
+            emitted.add(wireRecords.get(0).getProperties());
+            return null;
+        }).when(mockWireSupport).emit(any());
+
+        final ChannelRecord eventRecord = ChannelRecord.createReadRecord(listenedChannel.getName(), DataType.INTEGER);
+        eventRecord.setValue(new IntegerValue(3));
+        eventRecord.setTimestamp(43);
+        eventRecord.setChannelStatus(new ChannelStatus(ChannelFlag.SUCCESS));
+
+        channelListener.get().onChannelEvent(new ChannelEvent(eventRecord));
+
+        assertEquals(1, emitted.size());
+        assertEquals(new IntegerValue(1), emitted.get(0).get(polledChannel.getName()));
+        assertEquals(new IntegerValue(3), emitted.get(0).get(listenedChannel.getName()));
+
+        wireAsset.deactivate(mockComponentContext);
+    }
 }
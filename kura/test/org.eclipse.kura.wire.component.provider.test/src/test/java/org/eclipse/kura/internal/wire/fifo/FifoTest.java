@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2020 Eurotech and/or its affiliates and others
+ * Copyright (c) 2017, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -19,6 +19,8 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -187,6 +189,136 @@ public class FifoTest {
         assertEquals(1, wiresLatch.getCount());
     }
 
+    @Test
+    public void testDiscardOldest() throws InterruptedException {
+        BlockingWireSupport wireSupport = new BlockingWireSupport();
+        Fifo fifo = createFifo(wireSupport, true, "DISCARD_OLDEST", 3, 1);
+
+        fifo.onWireReceive(createWireEnvelope(0));
+        assertTrue(wireSupport.firstEmitStarted.await(1, TimeUnit.SECONDS));
+
+        for (int i = 1; i <= 6; i++) {
+            fifo.onWireReceive(createWireEnvelope(i));
+        }
+
+        assertEquals(3, fifo.getStatistics().getQueueDepth());
+        assertEquals(3, fifo.getStatistics().getDroppedEnvelopes());
+
+        wireSupport.release();
+
+        assertEquals(Arrays.asList(0L, 4L, 5L, 6L), wireSupport.awaitEmitted(4));
+    }
+
+    @Test
+    public void testBatchDrain() throws InterruptedException {
+        BlockingWireSupport wireSupport = new BlockingWireSupport();
+        Fifo fifo = createFifo(wireSupport, false, null, 10, 4);
+
+        fifo.onWireReceive(createWireEnvelope(0));
+        assertTrue(wireSupport.firstEmitStarted.await(1, TimeUnit.SECONDS));
+
+        for (int i = 1; i <= 6; i++) {
+            fifo.onWireReceive(createWireEnvelope(i));
+        }
+
+        wireSupport.release();
+
+        assertEquals(Arrays.asList(0L, 1L, 2L, 3L, 4L, 5L, 6L), wireSupport.awaitEmitted(7));
+        assertEquals(Arrays.asList(1, 4, 2), wireSupport.emittedBatchSizes);
+        assertEquals(7, fifo.getStatistics().getDequeuedEnvelopes());
+        assertEquals(0, fifo.getStatistics().getDroppedEnvelopes());
+        assertTrue(fifo.getStatistics().getMaxDequeueLatency(TimeUnit.NANOSECONDS) > 0);
+    }
+
+    private Fifo createFifo(WireSupport wireSupport, boolean discardEnvelopes, String discardPolicy,
+            int queueCapacity, int batchSize) {
+        Fifo fifo = new Fifo();
+
+        WireHelperService wireHelperServiceMock = mock(WireHelperService.class);
+        fifo.bindWireHelperService(wireHelperServiceMock);
+        when(wireHelperServiceMock.newWireSupport(fifo, null)).thenReturn(wireSupport);
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("discard.envelopes", discardEnvelopes);
+        if (discardPolicy != null) {
+            properties.put("discard.policy", discardPolicy);
+        }
+        properties.put("queue.capacity", queueCapacity);
+        properties.put("batch.size", batchSize);
+
+        fifo.activate(properties, mock(ComponentContext.class));
+
+        return fifo;
+    }
+
+    private WireEnvelope createWireEnvelope(long sequence) {
+        Map<String, TypedValue<?>> recordProps = new HashMap<>();
+        recordProps.put("sequence", new LongValue(sequence));
+
+        return new WireEnvelope("emitter", Collections.singletonList(new WireRecord(recordProps)));
+    }
+
+    private static class BlockingWireSupport implements WireSupport {
+
+        private final CountDownLatch firstEmitStarted = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final List<Long> emitted = new ArrayList<>();
+        private final List<Integer> emittedBatchSizes = new ArrayList<>();
+
+        void release() {
+            this.released.countDown();
+        }
+
+        synchronized List<Long> awaitEmitted(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 1000;
+
+            while (this.emitted.size() < count && System.currentTimeMillis() < deadline) {
+                wait(100);
+            }
+
+            return new ArrayList<>(this.emitted);
+        }
+
+        @Override
+        public void emit(List<WireRecord> wireRecords) {
+            this.firstEmitStarted.countDown();
+
+            try {
+                this.released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            synchronized (this) {
+                for (WireRecord wireRecord : wireRecords) {
+                    this.emitted.add((Long) wireRecord.getProperties().get("sequence").getValue());
+                }
+                this.emittedBatchSizes.add(wireRecords.size());
+                notifyAll();
+            }
+        }
+
+        @Override
+        public void updated(Wire wire, Object value) {
+            // not needed
+        }
+
+        @Override
+        public void producersConnected(Wire[] wires) {
+            // not needed
+        }
+
+        @Override
+        public Object polled(Wire wire) {
+            return null;
+        }
+
+        @Override
+        public void consumersConnected(Wire[] wires) {
+            // not needed
+        }
+    }
+
     private WireEnvelope createWireEnvelope() {
         String emitterPid = "emitter";
         List<WireRecord> wireRecords = new ArrayList<WireRecord>();
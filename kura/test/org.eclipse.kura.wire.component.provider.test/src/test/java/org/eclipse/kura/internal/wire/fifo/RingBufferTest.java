@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.fifo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class RingBufferTest {
+
+    @Test
+    public void shouldReturnElementsInInsertionOrder() {
+        final RingBuffer<Integer> buffer = new RingBuffer<>(3);
+
+        for (int round = 0; round < 5; round++) {
+            assertTrue(buffer.offer(1));
+            assertTrue(buffer.offer(2));
+            assertTrue(buffer.offer(3));
+
+            assertEquals(Integer.valueOf(1), buffer.poll());
+            assertEquals(Integer.valueOf(2), buffer.poll());
+            assertEquals(Integer.valueOf(3), buffer.poll());
+            assertNull(buffer.poll());
+        }
+    }
+
+    @Test
+    public void shouldRejectElementsWhenFull() {
+        final RingBuffer<Integer> buffer = new RingBuffer<>(2);
+
+        assertTrue(buffer.offer(1));
+        assertTrue(buffer.offer(2));
+        assertFalse(buffer.offer(3));
+        assertEquals(2, buffer.size());
+    }
+
+    @Test
+    public void shouldUnblockProducerWhenSpaceIsAvailable() throws InterruptedException {
+        final RingBuffer<Integer> buffer = new RingBuffer<>(1);
+        final CountDownLatch inserted = new CountDownLatch(1);
+
+        buffer.offer(1);
+
+        final Thread producer = new Thread(() -> {
+            try {
+                if (buffer.put(2)) {
+                    inserted.countDown();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+
+        assertFalse(inserted.await(100, TimeUnit.MILLISECONDS));
+        assertEquals(Integer.valueOf(1), buffer.poll());
+        assertTrue(inserted.await(1, TimeUnit.SECONDS));
+        assertEquals(Integer.valueOf(2), buffer.poll());
+    }
+
+    @Test
+    public void shouldReturnNullFromTakeWhenClosed() throws InterruptedException {
+        final RingBuffer<Integer> buffer = new RingBuffer<>(1);
+        final CountDownLatch returned = new CountDownLatch(1);
+
+        final Thread consumer = new Thread(() -> {
+            try {
+                if (buffer.take() == null) {
+                    returned.countDown();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumer.start();
+
+        buffer.close();
+
+        assertTrue(returned.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldDeliverAllElementsFromConcurrentProducers() throws InterruptedException {
+        final int producerCount = 4;
+        final int elementsPerProducer = 10000;
+        final RingBuffer<Integer> buffer = new RingBuffer<>(16);
+        final List<Thread> producers = new ArrayList<>();
+
+        for (int p = 0; p < producerCount; p++) {
+            final int base = p * elementsPerProducer;
+
+            final Thread producer = new Thread(() -> {
+                try {
+                    for (int i = 0; i < elementsPerProducer; i++) {
+                        buffer.put(base + i);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+
+        final Set<Integer> received = new HashSet<>();
+
+        while (received.size() < producerCount * elementsPerProducer) {
+            assertTrue("duplicate element", received.add(buffer.take()));
+        }
+
+        for (final Thread producer : producers) {
+            producer.join();
+        }
+
+        assertNull(buffer.poll());
+    }
+}
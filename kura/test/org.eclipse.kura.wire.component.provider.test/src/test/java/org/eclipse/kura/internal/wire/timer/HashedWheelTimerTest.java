@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.timer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.kura.internal.wire.timer.HashedWheelTimer.Timeout;
+import org.junit.After;
+import org.junit.Test;
+
+public class HashedWheelTimerTest {
+
+    // a small wheel, so that tasks scheduled after more than one revolution are tested too
+    private final HashedWheelTimer timer = new HashedWheelTimer("test", 5, TimeUnit.MILLISECONDS, 8, Runnable::run);
+
+    @Test
+    public void shouldFireTaskAfterDelay() throws InterruptedException {
+        final CountDownLatch fired = new CountDownLatch(1);
+        final long start = System.nanoTime();
+
+        this.timer.schedule(fired::countDown, 100, TimeUnit.MILLISECONDS);
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    public void shouldFireTasksInDeadlineOrder() throws InterruptedException {
+        final List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch fired = new CountDownLatch(3);
+
+        this.timer.schedule(() -> {
+            order.add(3);
+            fired.countDown();
+        }, 90, TimeUnit.MILLISECONDS);
+        this.timer.schedule(() -> {
+            order.add(1);
+            fired.countDown();
+        }, 10, TimeUnit.MILLISECONDS);
+        this.timer.schedule(() -> {
+            order.add(2);
+            fired.countDown();
+        }, 50, TimeUnit.MILLISECONDS);
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(1, 2, 3), order);
+    }
+
+    @Test
+    public void shouldNotFireCancelledTask() throws InterruptedException {
+        final CountDownLatch cancelledFired = new CountDownLatch(1);
+        final CountDownLatch fired = new CountDownLatch(1);
+
+        final Timeout timeout = this.timer.schedule(cancelledFired::countDown, 50, TimeUnit.MILLISECONDS);
+        this.timer.schedule(fired::countDown, 100, TimeUnit.MILLISECONDS);
+        timeout.cancel();
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertFalse(cancelledFired.await(0, TimeUnit.MILLISECONDS));
+    }
+
+    @After
+    public void tearDown() {
+        this.timer.stop();
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2023 Eurotech and/or its affiliates and others
+ * Copyright (c) 2023, 2024 Eurotech and/or its affiliates and others
  * 
  * This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0
@@ -17,6 +17,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -26,6 +29,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -144,6 +148,31 @@ public class DbComponentsTestBase {
         this.testStoreEmitter.emit(collectArgsToMap(args, TypedValue.class::cast));
     }
 
+    protected void givenRecordsRemovedFromStore(final String column, final Object... values)
+            throws InterruptedException, ExecutionException, TimeoutException, KuraException, InvalidSyntaxException,
+            SQLException {
+        final BaseDbService dbService = WireTestUtil
+                .trackService(BaseDbService.class, Optional.of("(kura.service.pid=" + this.dbServicePid + ")"))
+                .get(30, TimeUnit.SECONDS);
+
+        final String placeholders = Arrays.stream(values).map(v -> "?").collect(Collectors.joining(", "));
+        final String sql = "DELETE FROM \"" + this.tableName + "\" WHERE \"" + column + "\" IN (" + placeholders
+                + ")";
+
+        try (final Connection connection = dbService.getConnection();
+                final PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < values.length; i++) {
+                statement.setObject(i + 1, values[i]);
+            }
+
+            statement.executeUpdate();
+
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        }
+    }
+
     protected void givenStoreWithConfig(final Object... args)
             throws InterruptedException, ExecutionException, TimeoutException, KuraException, InvalidSyntaxException {
         givenComponentWithConfig(this.testStorePid, collectArgsToMap(args, Function.identity()));
@@ -190,6 +219,32 @@ public class DbComponentsTestBase {
         }
     }
 
+    protected void givenPerformedQuery(final String sql, final int expectedEnvelopeCount)
+            throws KuraException, InvalidSyntaxException, InterruptedException, ExecutionException, TimeoutException {
+        whenQueryIsPerformed(sql, expectedEnvelopeCount);
+    }
+
+    protected void whenQueryIsPerformed(final String sql, final int expectedEnvelopeCount)
+            throws KuraException, InvalidSyntaxException, InterruptedException, ExecutionException, TimeoutException {
+        WireTestUtil
+                .updateComponentConfiguration(this.configurationService, this.testFilterPid,
+                        Collections.singletonMap(wireComponentTestTarget.filterQueryPropertyKey(), sql))
+                .get(30, TimeUnit.SECONDS);
+
+        final CountDownLatch latch = new CountDownLatch(expectedEnvelopeCount);
+
+        this.testReceiver.setConsumer(envelope -> {
+            synchronized (this.receivedEnvelopes) {
+                this.receivedEnvelopes.add(envelope);
+            }
+            latch.countDown();
+        });
+
+        this.testEmitter.emit();
+
+        assertTrue("expected " + expectedEnvelopeCount + " envelopes", latch.await(5, TimeUnit.SECONDS));
+    }
+
     protected void whenTimePasses(final long amount, final TimeUnit timeUnit) throws InterruptedException {
         Thread.sleep(timeUnit.toMillis(amount));
     }
@@ -264,6 +319,12 @@ public class DbComponentsTestBase {
         assertEquals(0, this.receivedEnvelopes.size());
     }
 
+    protected void thenEmittedEnvelopeCountIs(final int expectedValue) {
+        synchronized (this.receivedEnvelopes) {
+            assertEquals(expectedValue, this.receivedEnvelopes.size());
+        }
+    }
+
     protected void thenEnvelopeRecordCountIs(final int envelopeIndex, final int recordCount) {
         assertEquals(recordCount, this.receivedEnvelopes.get(envelopeIndex).getRecords().size());
     }
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *  Eurotech
+ *******************************************************************************/
+package org.eclipse.kura.internal.wire.db.test;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.kura.KuraException;
+import org.eclipse.kura.type.TypedValues;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.osgi.framework.InvalidSyntaxException;
+
+@RunWith(Parameterized.class)
+public class PagedWireRecordQueryTest extends DbComponentsTestBase {
+
+    @Test
+    public void shouldEmitResultInPages()
+            throws KuraException, InvalidSyntaxException, InterruptedException, ExecutionException, TimeoutException {
+        givenFilterWithConfig("page.size", 2);
+        givenAColumnWithData("foo", 1, 2, 3, 4, 5);
+
+        whenQueryIsPerformed(pagedQuery(), 3);
+
+        thenEmittedEnvelopeCountIs(3);
+        thenEnvelopeRecordCountIs(0, 2);
+        thenEnvelopeRecordCountIs(1, 2);
+        thenEnvelopeRecordCountIs(2, 1);
+        thenFilterEmitsEnvelopeWithProperty(0, 0, "foo", TypedValues.newIntegerValue(1));
+        thenFilterEmitsEnvelopeWithProperty(1, 1, "foo", TypedValues.newIntegerValue(4));
+        thenFilterEmitsEnvelopeWithProperty(2, 0, "foo", TypedValues.newIntegerValue(5));
+    }
+
+    @Test
+    public void shouldEmitSinglePageIfResultFits()
+            throws KuraException, InvalidSyntaxException, InterruptedException, ExecutionException, TimeoutException {
+        givenFilterWithConfig("page.size", 3);
+        givenAColumnWithData("foo", 1, 2, 3);
+
+        whenQueryIsPerformed(pagedQuery(), 1);
+        whenTimePasses(1, TimeUnit.SECONDS);
+
+        thenEmittedEnvelopeCountIs(1);
+        thenEnvelopeRecordCountIs(0, 3);
+    }
+
+    @Test
+    public void shouldEmitEmptyEnvelopeForEmptyPagedResult()
+            throws KuraException, InvalidSyntaxException, InterruptedException, ExecutionException, TimeoutException {
+        givenFilterWithConfig("page.size", 2);
+        givenAColumnWithData("foo", 1);
+
+        whenQueryIsPerformed("SELECT * FROM \"" + tableName + "\" WHERE \"foo\" > 1;", 1);
+
+        thenEmittedEnvelopeCountIs(1);
+        thenFilterEmitsEmptyEnvelope();
+    }
+
+    @Test
+    public void shouldResumeFromLastPage()
+            throws KuraException, InvalidSyntaxException, InterruptedException, ExecutionException, TimeoutException {
+        givenFilterWithConfig("page.size", 2, "resume.from.last.page", true,
+                this.wireComponentTestTarget.filterEmitOnEmptyResultKey(), false);
+        givenAColumnWithData("foo", 1, 2, 3);
+
+        whenQueryIsPerformed(pagedQuery(), 1);
+        whenQueryIsPerformed(pagedQuery(), 1);
+        whenQueryIsPerformed(pagedQuery(), 0);
+        givenAColumnWithData("foo", 4);
+        whenQueryIsPerformed(pagedQuery(), 1);
+
+        thenEmittedEnvelopeCountIs(3);
+        thenEnvelopeRecordCountIs(0, 2);
+        thenEnvelopeRecordCountIs(1, 1);
+        thenEnvelopeRecordCountIs(2, 1);
+        thenFilterEmitsEnvelopeWithProperty(1, 0, "foo", TypedValues.newIntegerValue(3));
+        thenFilterEmitsEnvelopeWithProperty(2, 0, "foo", TypedValues.newIntegerValue(4));
+    }
+
+    @Test
+    public void shouldNotSkipRecordsWhenPreviousRecordsAreRemoved() throws KuraException, InvalidSyntaxException,
+            InterruptedException, ExecutionException, TimeoutException, SQLException {
+        givenFilterWithConfig("page.size", 2, "resume.from.last.page", true,
+                this.wireComponentTestTarget.filterEmitOnEmptyResultKey(), false);
+        givenAColumnWithData("foo", 1, 2, 3, 4, 5, 6);
+        givenPerformedQuery(pagedQuery(), 1);
+        givenRecordsRemovedFromStore("foo", 1, 2, 3);
+
+        whenQueryIsPerformed(pagedQuery(), 1);
+
+        thenEmittedEnvelopeCountIs(2);
+        thenEnvelopeRecordCountIs(1, 2);
+        thenFilterEmitsEnvelopeWithProperty(1, 0, "foo", TypedValues.newIntegerValue(4));
+        thenFilterEmitsEnvelopeWithProperty(1, 1, "foo", TypedValues.newIntegerValue(5));
+    }
+
+    @Test
+    public void shouldNotEmitIfPagedQueryIsLimited()
+            throws KuraException, InvalidSyntaxException, InterruptedException, ExecutionException, TimeoutException {
+        givenFilterWithConfig("page.size", 2);
+        givenAColumnWithData("foo", 1, 2, 3);
+
+        whenQueryIsPerformed("SELECT * FROM \"" + tableName + "\" LIMIT 10;", 0);
+        whenTimePasses(1, TimeUnit.SECONDS);
+
+        thenEmittedEnvelopeCountIs(0);
+    }
+
+    @Parameters(name = "{0} with {1}")
+    public static Collection<Object[]> targets() {
+        return Arrays.asList(new Object[][] {
+                { WireComponentTestTarget.WIRE_RECORD_QUERY_AND_WIRE_RECORD_STORE, StoreTestTarget.H2 },
+                { WireComponentTestTarget.WIRE_RECORD_QUERY_AND_WIRE_RECORD_STORE, StoreTestTarget.SQLITE } });
+    }
+
+    public PagedWireRecordQueryTest(final WireComponentTestTarget wireComponentTestTarget,
+            final StoreTestTarget storeTestTarget)
+            throws InterruptedException, ExecutionException, TimeoutException, KuraException, InvalidSyntaxException {
+        super(wireComponentTestTarget, storeTestTarget);
+    }
+
+    private String pagedQuery() {
+        return "SELECT * FROM \"" + tableName + "\";";
+    }
+}
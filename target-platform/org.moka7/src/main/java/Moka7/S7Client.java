@@ -60,6 +60,8 @@ public class S7Client
     public boolean Connected = false;
     public int LastError = 0;
     public int RecvTimeout = 2000;
+    // Max number of vars that can be read by a single ReadMultiVars() call
+    public static final int MaxVars = 20;
     
     // Privates
     private static final int ISOTCP = 102; // ISOTCP Port
@@ -85,6 +87,7 @@ public class S7Client
     
     private short ConnType = S7.PG; 
     private int _PDULength = 0;
+    private int _Port = ISOTCP;
     
     // Telegrams
     // ISO Connection Request telegram (contains also ISO Header and COTP Header)
@@ -354,7 +357,7 @@ public class S7Client
     
     private int TCPConnect() 
     {
-        SocketAddress sockaddr = new InetSocketAddress(IPAddress, ISOTCP);
+        SocketAddress sockaddr = new InetSocketAddress(IPAddress, _Port);
         LastError=0;
         try {                       
             TCPSocket = new Socket(); 
@@ -608,6 +611,11 @@ public class S7Client
         return _PDULength;
     }
     
+    public void SetConnectionPort(int Port)
+    {
+        _Port = Port;
+    }
+
     public void SetConnectionParams(String Address, int LocalTSAP, int RemoteTSAP)
     {
         int LocTSAP = LocalTSAP & 0x0000FFFF;
@@ -704,6 +712,133 @@ public class S7Client
         return LastError;
     }
 
+    // Reads up to MaxVars variables with a single request, request and reply must fit in the negotiated PDU.
+    // The result of each variable is stored into its Result field, the function result only reports
+    // errors that affect the whole request.
+    public int ReadMultiVars(S7DataItem[] Items, int ItemsCount)
+    {
+        int Address;
+        int Length;
+        int Offset;
+        int ItemOffset;
+        int ReplySize;
+        int ReturnCode;
+        int TransportSize;
+        int SizeRequested;
+        int Size;
+        int WordSize;
+
+        LastError=0;
+
+        if ((ItemsCount<1) || (ItemsCount>MaxVars) || (ItemsCount>Items.length))
+        {
+            LastError=errS7InvalidParams;
+            return LastError;
+        }
+
+        // Reply telegram header (18) + params (2) + items header (4 each) + data (padded to even size)
+        ReplySize = 14;
+        for (int c = 0; c < ItemsCount; c++)
+        {
+            Items[c].Result=errS7DataRead;
+            SizeRequested=Items[c].Amount * ItemWordSize(Items[c].Area);
+            ReplySize += 4 + SizeRequested + (SizeRequested % 2);
+        }
+        if ((12 + ItemsCount * 12 > _PDULength) || (ReplySize > _PDULength))
+        {
+            LastError=errS7InvalidParams;
+            return LastError;
+        }
+
+        // Setup the telegram
+        System.arraycopy(S7_RW, 0, PDU, 0, 19);
+        // Whole telegram Size
+        S7.SetWordAt(PDU,2,19 + ItemsCount * 12);
+        // Parameters Length
+        S7.SetWordAt(PDU,13,2 + ItemsCount * 12);
+        // Items count
+        PDU[18] = (byte) ItemsCount;
+
+        for (int c = 0; c < ItemsCount; c++)
+        {
+            ItemOffset = 19 + c * 12;
+            // Var spec, Length of remaining bytes, Syntax ID, Transport Size
+            System.arraycopy(S7_RW, 19, PDU, ItemOffset, 4);
+            PDU[ItemOffset + 8] = (byte) Items[c].Area;
+            S7.SetWordAt(PDU,ItemOffset + 6,Items[c].Area==S7.S7AreaDB ? Items[c].DBNumber : 0);
+
+            // Adjusts Start and word length
+            if ((Items[c].Area==S7.S7AreaCT) || (Items[c].Area==S7.S7AreaTM))
+            {
+                Address = Items[c].Start;
+                if (Items[c].Area==S7.S7AreaCT)
+                    PDU[ItemOffset + 3]=S7WLCounter;
+                else
+                    PDU[ItemOffset + 3]=S7WLTimer;
+            }
+            else
+                Address = Items[c].Start<<3;
+
+            // Num elements
+            S7.SetWordAt(PDU,ItemOffset + 4,Items[c].Amount);
+
+            // Address into the PLC (only 3 bytes)
+            PDU[ItemOffset + 11] = (byte) (Address & 0x0FF);
+            Address = Address >> 8;
+            PDU[ItemOffset + 10] = (byte) (Address & 0x0FF);
+            Address = Address >> 8;
+            PDU[ItemOffset + 9] = (byte) (Address & 0x0FF);
+        }
+
+        SendPacket(PDU, 19 + ItemsCount * 12);
+        if (LastError==0)
+        {
+            Length=RecvIsoPacket();
+            if (LastError==0)
+            {
+                if ((Length>=21) && (S7.GetWordAt(PDU,17)==0) && (PDU[20]==(byte)ItemsCount))
+                {
+                    Offset = 21;
+                    for (int c = 0; c < ItemsCount; c++)
+                    {
+                        if (Offset + 4 > Length)
+                        {
+                            LastError = errS7InvalidPDU;
+                            break;
+                        }
+                        ReturnCode = PDU[Offset] & 0x0FF;
+                        TransportSize = PDU[Offset + 1] & 0x0FF;
+                        Size = S7.GetWordAt(PDU,Offset + 2);
+                        // The size is expressed in bits unless the transport size is bit, real or octet string
+                        if ((TransportSize!=0x03) && (TransportSize!=0x07) && (TransportSize!=0x09))
+                            Size = Size >> 3;
+                        Offset += 4;
+
+                        SizeRequested = Items[c].Amount * ItemWordSize(Items[c].Area);
+                        if ((ReturnCode==0xFF) && (Size==SizeRequested) && (Offset + Size <= Length))
+                        {
+                            System.arraycopy(PDU, Offset, Items[c].Data, 0, Size);
+                            Items[c].Result=0;
+                        }
+                        // Data of all items but the last one is padded to even size
+                        Offset += ReturnCode==0xFF ? Size + (Size % 2) : 0;
+                    }
+                }
+                else
+                    LastError = errS7DataRead;
+            }
+        }
+        return LastError;
+    }
+
+    private static int ItemWordSize(int Area)
+    {
+        // If we are addressing Timers or counters the element size is 2
+        if ((Area==S7.S7AreaCT) || (Area==S7.S7AreaTM))
+            return 2;
+        return 1;
+    }
+
     public int WriteArea(int Area, int DBNumber, int Start, int Amount, byte[] Data)
     {
 	int Address;